@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.collection;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.xceptance.xlt.api.engine.RequestData;
+import com.xceptance.xlt.benchmark.TimerDataGenerator;
+
+/**
+ * Measures looking up statistics by request name, the main use of {@link FastHashMap} in the report providers, and
+ * compares it with a {@link HashMap}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FastHashMapBenchmark
+{
+    private static final int LOOKUPS = 10_000;
+
+    private String[] names;
+
+    private final FastHashMap<String, Object> fastHashMap = new FastHashMap<>(11, 0.5f);
+
+    private final Map<String, Object> hashMap = new HashMap<>(11, 0.5f);
+
+    @Setup
+    public void setup()
+    {
+        final List<RequestData> requests = new TimerDataGenerator(42).generateRequests(LOOKUPS);
+
+        names = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++)
+        {
+            // copy the names to not benefit from cached hash codes of identical strings
+            names[i] = new String(requests.get(i).getName());
+
+            fastHashMap.put(names[i], names[i]);
+            hashMap.put(names[i], names[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void fastHashMapGet(final Blackhole blackhole)
+    {
+        for (final String name : names)
+        {
+            blackhole.consume(fastHashMap.get(name));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void hashMapGet(final Blackhole blackhole)
+    {
+        for (final String name : names)
+        {
+            blackhole.consume(hashMap.get(name));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void fastHashMapPut(final Blackhole blackhole)
+    {
+        final FastHashMap<String, Object> map = new FastHashMap<>(11, 0.5f);
+        for (final String name : names)
+        {
+            blackhole.consume(map.put(name, name));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.xceptance.common.util.CsvLineDecoder;
+import com.xceptance.common.util.CsvUtils;
+import com.xceptance.xlt.api.engine.RequestData;
+import com.xceptance.xlt.api.util.SimpleArrayList;
+import com.xceptance.xlt.api.util.XltCharBuffer;
+
+/**
+ * Compares reading request data records from CSV timer data with reading them from binary timer data.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimerFileReadingBenchmark
+{
+    private static final int RECORDS = 100_000;
+
+    private byte[] csvData;
+
+    private byte[] binaryData;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        final ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+
+        try (final BinaryRecordWriter writer = new BinaryRecordWriter(binary))
+        {
+            for (int i = 0; i < RECORDS; i++)
+            {
+                final List<String> fields = createRequest(i).toList();
+
+                csv.write(CsvUtils.encode(fields).append('\n').toString().getBytes(StandardCharsets.UTF_8));
+                writer.write(fields);
+            }
+        }
+
+        csvData = csv.toByteArray();
+        binaryData = binary.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void readCsv(final Blackhole blackhole) throws IOException
+    {
+        try (final XltBufferedLineReader reader = new XltBufferedLineReader(new InputStreamReader(new ByteArrayInputStream(csvData),
+                                                                                                 StandardCharsets.UTF_8)))
+        {
+            final SimpleArrayList<XltCharBuffer> fields = new SimpleArrayList<>(50);
+
+            XltCharBuffer line;
+            while ((line = reader.readLine()) != null)
+            {
+                fields.clear();
+                CsvLineDecoder.parse(fields, line);
+
+                final RequestData r = new RequestData();
+                r.setAllValues(fields);
+                blackhole.consume(r);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void readBinary(final Blackhole blackhole) throws IOException
+    {
+        try (final BinaryRecordReader reader = new BinaryRecordReader(new ByteArrayInputStream(binaryData)))
+        {
+            List<XltCharBuffer> fields;
+            while ((fields = reader.readRecord()) != null)
+            {
+                final RequestData r = new RequestData();
+                r.setAllValues(fields);
+                blackhole.consume(r);
+            }
+        }
+    }
+
+    private static RequestData createRequest(final int i)
+    {
+        final RequestData r = new RequestData("Homepage." + (i % 10));
+        r.setTime(1700000000000L + i * 13L);
+        r.setRunTime(50 + i % 1000);
+        r.setBytesSent(400 + i % 50);
+        r.setBytesReceived(20000 + i % 5000);
+        r.setResponseCode(200);
+        r.setUrl("https://www.example.com/products/" + (i % 100) + "?color=blue");
+        r.setContentType("text/html");
+
+        return r;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.io;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.xceptance.xlt.api.util.XltCharBuffer;
+import com.xceptance.xlt.benchmark.TimerDataGenerator;
+
+/**
+ * Measures reading timer file lines from a character stream.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XltBufferedLineReaderBenchmark
+{
+    private static final int LINES = 10_000;
+
+    private String content;
+
+    @Setup
+    public void setup()
+    {
+        content = String.join("\n", new TimerDataGenerator(42).generateLines(LINES)) + "\n";
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void readLines(final Blackhole blackhole) throws IOException
+    {
+        try (final XltBufferedLineReader reader = new XltBufferedLineReader(new StringReader(content)))
+        {
+            XltCharBuffer line;
+            while ((line = reader.readLine()) != null)
+            {
+                blackhole.consume(line);
+            }
+        }
+    }
+}
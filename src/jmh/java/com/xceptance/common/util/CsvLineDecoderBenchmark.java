@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.util;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.xceptance.xlt.api.util.SimpleArrayList;
+import com.xceptance.xlt.api.util.XltCharBuffer;
+import com.xceptance.xlt.benchmark.TimerDataGenerator;
+
+/**
+ * Measures splitting timer file lines into fields.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvLineDecoderBenchmark
+{
+    private static final int LINES = 10_000;
+
+    private char[][] lines;
+
+    private final SimpleArrayList<XltCharBuffer> fields = new SimpleArrayList<>(50);
+
+    @Setup
+    public void setup()
+    {
+        final List<String> generatedLines = new TimerDataGenerator(42).generateLines(LINES);
+
+        lines = new char[LINES][];
+        for (int i = 0; i < LINES; i++)
+        {
+            lines[i] = generatedLines.get(i).toCharArray();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void parse(final Blackhole blackhole)
+    {
+        for (final char[] line : lines)
+        {
+            fields.clear();
+
+            // the decoder unquotes in place, so hand in a fresh buffer
+            blackhole.consume(CsvLineDecoder.parse(fields, new XltCharBuffer(line.clone())));
+        }
+    }
+}
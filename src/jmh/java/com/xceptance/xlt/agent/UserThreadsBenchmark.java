@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.agent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xceptance.common.util.concurrent.VirtualThreads;
+import com.xceptance.xlt.engine.UserThreadGroup;
+
+/**
+ * Estimates how many test users fit into 1 GB of memory when running them on platform threads and on virtual threads.
+ * All users are started and wait in a think time with a typical call stack. The growth of the resident set size of the
+ * JVM (Linux only) divided by the number of users gives the memory footprint per user, which is reported as secondary
+ * results next to the start-up time. Each fork measures once only, as memory once touched stays resident.
+ * <p>
+ * The virtual mode requires Java 21+, for example:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="UserThreads -jvm /path/to/jdk21/bin/java"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgs =
+    {
+        "-Xms512m", "-Xmx512m", "-Xss1m"
+    })
+public class UserThreadsBenchmark
+{
+    @Param(
+        {
+            "platform", "virtual"
+        })
+    public String threadMode;
+
+    @Param(
+        {
+            "5000"
+        })
+    public int users;
+
+    /**
+     * The depth of the call stack of a waiting user, which simulates a test waiting somewhere inside the engine.
+     */
+    @Param(
+        {
+            "100"
+        })
+    public int stackDepth;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        if ("virtual".equals(threadMode) && !VirtualThreads.isSupported())
+        {
+            throw new IllegalStateException("Virtual threads require Java 21+");
+        }
+    }
+
+    /**
+     * The secondary results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint
+    {
+        /**
+         * The resident memory [bytes] per waiting user.
+         */
+        public long bytesPerUser;
+
+        /**
+         * The number of users per GB of resident memory.
+         */
+        public long usersPerGb;
+
+        @Setup(Level.Iteration)
+        public void reset()
+        {
+            bytesPerUser = 0;
+            usersPerGb = 0;
+        }
+    }
+
+    @Benchmark
+    public void startWaitingUsers(final Footprint footprint) throws Exception
+    {
+        System.gc();
+        final long rssBefore = getResidentSetSize();
+
+        final CountDownLatch waiting = new CountDownLatch(users);
+        final CountDownLatch thinkTimeOver = new CountDownLatch(1);
+
+        final List<Thread> threads = new ArrayList<>(users);
+        for (int i = 0; i < users; i++)
+        {
+            final ThreadGroup userThreadGroup = new ThreadGroup("user-" + i);
+            final Runnable user = () -> {
+                UserThreadGroup.bind(userThreadGroup);
+                try
+                {
+                    think(stackDepth, waiting, thinkTimeOver);
+                }
+                finally
+                {
+                    UserThreadGroup.unbind();
+                }
+            };
+
+            final String name = "user-" + i;
+            final Thread thread = "virtual".equals(threadMode) ? VirtualThreads.newThread(name, user) : new Thread(user, name);
+            thread.setDaemon(true);
+            thread.start();
+
+            threads.add(thread);
+        }
+
+        waiting.await();
+
+        final long rssGrowth = Math.max(1, getResidentSetSize() - rssBefore);
+        footprint.bytesPerUser = rssGrowth / users;
+        footprint.usersPerGb = (1024L * 1024 * 1024) * users / rssGrowth;
+
+        thinkTimeOver.countDown();
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+    }
+
+    /**
+     * Builds up a call stack of the given depth and waits there.
+     */
+    private static void think(final int depth, final CountDownLatch waiting, final CountDownLatch thinkTimeOver)
+    {
+        if (depth > 0)
+        {
+            think(depth - 1, waiting, thinkTimeOver);
+        }
+        else
+        {
+            waiting.countDown();
+            try
+            {
+                thinkTimeOver.await();
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Returns the resident set size [bytes] of this process.
+     */
+    private static long getResidentSetSize() throws IOException
+    {
+        for (final String line : Files.readAllLines(Paths.get("/proc/self/status")))
+        {
+            if (line.startsWith("VmRSS:"))
+            {
+                return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+            }
+        }
+
+        throw new IllegalStateException("Cannot determine the resident set size");
+    }
+}
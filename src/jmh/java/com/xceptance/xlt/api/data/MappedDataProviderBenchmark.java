@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.api.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xceptance.xlt.api.util.XltProperties;
+
+/**
+ * Compares {@link DataProvider} and {@link ExclusiveDataProvider} with their memory-mapped counterparts when many test
+ * users fetch data rows concurrently.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class MappedDataProviderBenchmark
+{
+    /**
+     * The number of rows in the data file.
+     */
+    @Param(
+        {
+            "100000"
+        })
+    public int rows;
+
+    private File dataDir;
+
+    private DataProvider dataProvider;
+
+    private ExclusiveDataProvider<String> exclusiveDataProvider;
+
+    private MappedDataProvider mappedDataProvider;
+
+    private MappedExclusiveDataProvider mappedExclusiveDataProvider;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        dataDir = Files.createTempDirectory("data").toFile();
+
+        final List<String> lines = new ArrayList<String>(rows);
+        for (int i = 0; i < rows; i++)
+        {
+            lines.add("user" + i + "@example.com,secret" + i);
+        }
+        FileUtils.writeLines(new File(dataDir, "users.txt"), StandardCharsets.UTF_8.name(), lines);
+
+        XltProperties.getInstance().setProperty("com.xceptance.xlt.data.directory", dataDir.getAbsolutePath());
+
+        dataProvider = new DataProvider("users.txt");
+        exclusiveDataProvider = new ExclusiveDataProvider<String>("users.txt", false, ExclusiveDataProvider.getDefaultParser());
+        mappedDataProvider = new MappedDataProvider("users.txt");
+        mappedExclusiveDataProvider = new MappedExclusiveDataProvider(mappedDataProvider, 1, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        FileUtils.deleteQuietly(dataDir);
+    }
+
+    @Benchmark
+    public String randomRow()
+    {
+        return dataProvider.getRandomRow();
+    }
+
+    @Benchmark
+    public String mappedRandomRow()
+    {
+        return mappedDataProvider.getRandomRow();
+    }
+
+    @Benchmark
+    public String exclusiveRandomRow()
+    {
+        final String row = exclusiveDataProvider.getRandom();
+        exclusiveDataProvider.add(row);
+
+        return row;
+    }
+
+    @Benchmark
+    public String mappedExclusiveRandomRow()
+    {
+        final int rowNumber = mappedExclusiveDataProvider.claimRandom();
+        final String row = mappedExclusiveDataProvider.getRow(rowNumber);
+        mappedExclusiveDataProvider.release(rowNumber);
+
+        return row;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.api.engine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.xceptance.common.util.CsvUtils;
+
+/**
+ * Compares encoding data records to CSV via {@link Data#toList()} and {@link CsvUtils#encode(java.util.List)} with
+ * appending them directly via {@link Data#toCsv(StringBuilder)}, for requests, actions, and transactions. Run with
+ * "-prof gc" to see the bytes allocated per record as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvEncodingBenchmark
+{
+    private static final int RECORDS = 1_000;
+
+    @Param(
+        {
+            "request", "action", "transaction"
+        })
+    private String type;
+
+    private Data[] records;
+
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    @Setup
+    public void setup()
+    {
+        records = new Data[RECORDS];
+        for (int i = 0; i < RECORDS; i++)
+        {
+            switch (type)
+            {
+                case "request":
+                    records[i] = createRequest(i);
+                    break;
+                case "action":
+                    records[i] = createAction(i);
+                    break;
+                default:
+                    records[i] = createTransaction(i);
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void encodeList(final Blackhole blackhole)
+    {
+        for (final Data record : records)
+        {
+            blackhole.consume(CsvUtils.encode(record.toList()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void encodeDirect(final Blackhole blackhole)
+    {
+        for (final Data record : records)
+        {
+            buffer.setLength(0);
+            blackhole.consume(record.toCsv(buffer).length());
+        }
+    }
+
+    private static Data createRequest(final int n)
+    {
+        final RequestData r = new RequestData("Homepage." + (n % 20));
+        r.setTime(1700000000000L + n * 50L);
+        r.setRunTime(50 + n % 1000);
+        r.setBytesSent(400 + n % 50);
+        r.setBytesReceived(20000 + n % 5000);
+        r.setResponseCode(200);
+        r.setUrl("https://www.example.com/products/" + (n % 100) + "?color=blue");
+        r.setContentType("text/html");
+        r.setConnectTime(n % 10);
+        r.setSendTime(1);
+        r.setServerBusyTime(40 + n % 100);
+        r.setReceiveTime(5);
+        r.setTimeToFirstBytes(45 + n % 100);
+        r.setTimeToLastBytes(50 + n % 100);
+        r.setRequestId("a1b2c3d4e5f6-" + n);
+        r.setHttpMethod("GET");
+        r.setIpAddresses(new String[]
+            {
+                "192.168.0.1"
+            });
+        r.setUsedIpAddress("192.168.0.1");
+
+        return r;
+    }
+
+    private static Data createAction(final int n)
+    {
+        final ActionData a = new ActionData("Homepage");
+        a.setTime(1700000000000L + n * 50L);
+        a.setRunTime(500 + n % 1000);
+
+        return a;
+    }
+
+    private static Data createTransaction(final int n)
+    {
+        final TransactionData t = new TransactionData("TOrder");
+        t.setTime(1700000000000L + n * 50L);
+        t.setRunTime(30000 + n % 10000);
+        t.setTestUserNumber(String.valueOf(n % 50));
+        t.setDirectoryName(String.valueOf(1700000000000L + n));
+
+        return t;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.api.util;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.xceptance.xlt.api.engine.RequestData;
+import com.xceptance.xlt.benchmark.TimerDataGenerator;
+
+/**
+ * Measures the {@link XltCharBuffer} operations the report generator relies on when processing request URLs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XltCharBufferBenchmark
+{
+    private static final int URLS = 10_000;
+
+    private XltCharBuffer[] urls;
+
+    private XltCharBuffer[] copies;
+
+    @Setup
+    public void setup()
+    {
+        final List<RequestData> requests = new TimerDataGenerator(42).generateRequests(URLS);
+
+        urls = new XltCharBuffer[URLS];
+        copies = new XltCharBuffer[URLS];
+        for (int i = 0; i < URLS; i++)
+        {
+            urls[i] = requests.get(i).getUrl();
+            copies[i] = XltCharBuffer.valueOf(urls[i].toString());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(URLS)
+    public void split(final Blackhole blackhole)
+    {
+        for (final XltCharBuffer url : urls)
+        {
+            blackhole.consume(url.split('/'));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(URLS)
+    public void indexOfAndSubstring(final Blackhole blackhole)
+    {
+        for (final XltCharBuffer url : urls)
+        {
+            final int pos = url.indexOf('?');
+            blackhole.consume(pos >= 0 ? url.substring(0, pos) : url);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(URLS)
+    public void hashCodeAndEquals(final Blackhole blackhole)
+    {
+        for (int i = 0; i < URLS; i++)
+        {
+            blackhole.consume(copies[i].hashCode());
+            blackhole.consume(urls[i].equals(copies[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(URLS)
+    public void toStringConversion(final Blackhole blackhole)
+    {
+        for (final XltCharBuffer url : urls)
+        {
+            blackhole.consume(url.toString());
+        }
+    }
+}
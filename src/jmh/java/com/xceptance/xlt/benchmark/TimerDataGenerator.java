@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.xceptance.xlt.api.engine.ActionData;
+import com.xceptance.xlt.api.engine.CustomData;
+import com.xceptance.xlt.api.engine.Data;
+import com.xceptance.xlt.api.engine.EventData;
+import com.xceptance.xlt.api.engine.RequestData;
+import com.xceptance.xlt.api.engine.TransactionData;
+import com.xceptance.xlt.common.XltConstants;
+
+/**
+ * Generates realistic timer data for the benchmarks. The data is organized in transactions, each consisting of some
+ * actions with several requests each, plus the occasional custom timer and event, just like a real test case would
+ * produce it. The same seed always yields the same data.
+ */
+public final class TimerDataGenerator
+{
+    /**
+     * The start time of the generated data.
+     */
+    public static final long START_TIME = 1700000000000L;
+
+    private static final String[] ACTIONS =
+        {
+            "Homepage", "SelectCategory", "ViewProduct", "AddToCart", "ViewCart", "Checkout", "PlaceOrder"
+        };
+
+    private static final String[] STATIC_SUFFIXES =
+        {
+            ".js", ".css", ".png", ".jpg", ".woff2", ".ico"
+        };
+
+    private static final String[] CONTENT_TYPES =
+        {
+            "text/javascript", "text/css", "image/png", "image/jpeg", "font/woff2", "image/x-icon"
+        };
+
+    private final Random random;
+
+    private long time;
+
+    private int transactionCount;
+
+    /**
+     * Creates a new generator.
+     *
+     * @param seed
+     *            the seed of the random values
+     */
+    public TimerDataGenerator(final long seed)
+    {
+        random = new Random(seed);
+        time = START_TIME;
+    }
+
+    /**
+     * Generates the given number of CSV lines (without line separator).
+     *
+     * @param count
+     *            the number of lines
+     * @return the lines
+     */
+    public List<String> generateLines(final int count)
+    {
+        final List<String> lines = new ArrayList<>(count);
+        final StringBuilder sb = new StringBuilder(256);
+
+        while (lines.size() < count)
+        {
+            for (final Data data : generateTransaction())
+            {
+                if (lines.size() == count)
+                {
+                    break;
+                }
+
+                sb.setLength(0);
+                lines.add(data.toCsv(sb).toString());
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Generates the given number of request records.
+     *
+     * @param count
+     *            the number of requests
+     * @return the requests
+     */
+    public List<RequestData> generateRequests(final int count)
+    {
+        final List<RequestData> requests = new ArrayList<>(count);
+        while (requests.size() < count)
+        {
+            for (final Data data : generateTransaction())
+            {
+                if (data instanceof RequestData && requests.size() < count)
+                {
+                    requests.add((RequestData) data);
+                }
+            }
+        }
+
+        return requests;
+    }
+
+    /**
+     * Generates the data records of one transaction, in the order they would appear in a timer file.
+     *
+     * @return the data records
+     */
+    public List<Data> generateTransaction()
+    {
+        final List<Data> records = new ArrayList<>();
+        final long transactionStart = time;
+        final boolean failed = random.nextInt(50) == 0;
+        final int actionCount = 3 + random.nextInt(ACTIONS.length - 2);
+
+        for (int a = 0; a < actionCount; a++)
+        {
+            final String actionName = ACTIONS[a];
+            final long actionStart = time;
+
+            // the page itself and its resources
+            records.add(createRequest(actionName + ".1", "https://www.example.com/" + actionName.toLowerCase() + "?id=" + random.nextInt(1000),
+                                      "text/html", 150 + random.nextInt(400)));
+
+            final int resourceCount = 2 + random.nextInt(10);
+            for (int r = 0; r < resourceCount; r++)
+            {
+                final int type = random.nextInt(STATIC_SUFFIXES.length);
+                records.add(createRequest(actionName + "." + (r + 2),
+                                          "https://static.example.com/assets/" + random.nextInt(200) + STATIC_SUFFIXES[type], CONTENT_TYPES[type],
+                                          5 + random.nextInt(80)));
+            }
+
+            if (random.nextInt(4) == 0)
+            {
+                final CustomData custom = new CustomData("Render" + actionName);
+                custom.setTime(time);
+                custom.setRunTime(random.nextInt(300));
+                records.add(custom);
+            }
+
+            final ActionData action = new ActionData(actionName);
+            action.setTime(actionStart);
+            action.setRunTime(time - actionStart);
+            action.setFailed(failed && a == actionCount - 1);
+            records.add(action);
+
+            time += random.nextInt(1000);
+        }
+
+        if (random.nextInt(20) == 0)
+        {
+            final EventData event = new EventData("Product out of stock");
+            event.setTime(time);
+            event.setTestCaseName("TOrder");
+            event.setMessage("Product " + random.nextInt(1000) + " cannot be added to the cart");
+            records.add(event);
+        }
+
+        final TransactionData transaction = new TransactionData("TOrder");
+        transaction.setTime(transactionStart);
+        transaction.setRunTime(time - transactionStart);
+        transaction.setFailed(failed);
+        transaction.setTestUserNumber(String.valueOf(transactionCount % 10));
+        transaction.setDirectoryName(String.valueOf(transactionStart));
+        if (failed)
+        {
+            transaction.setFailedActionName(ACTIONS[actionCount - 1]);
+            transaction.setFailureStackTrace("java.lang.AssertionError: Response code does not match expected:<200> but was:<500>\n" +
+                                             "\tat com.example.TOrder.test(TOrder.java:42)");
+        }
+        records.add(transaction);
+
+        transactionCount++;
+
+        return records;
+    }
+
+    /**
+     * Writes timer files with the given number of lines for the given number of agents and users to a new results
+     * directory in the same layout as downloaded from the agents.
+     *
+     * @param resultsDir
+     *            the results directory
+     * @param agents
+     *            the number of agents
+     * @param users
+     *            the number of users per agent
+     * @param linesPerUser
+     *            the number of lines per user
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void writeResults(final Path resultsDir, final int agents, final int users, final int linesPerUser) throws IOException
+    {
+        for (int a = 0; a < agents; a++)
+        {
+            for (int u = 0; u < users; u++)
+            {
+                final Path file = resultsDir.resolve(String.format("ac%03d_00/TOrder/%d/%s", a + 1, u, XltConstants.TIMER_FILENAME));
+                Files.createDirectories(file.getParent());
+
+                try (final Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8))
+                {
+                    for (final String line : generateLines(linesPerUser))
+                    {
+                        out.write(line);
+                        out.write('\n');
+                    }
+                }
+            }
+        }
+    }
+
+    private RequestData createRequest(final String name, final String url, final String contentType, final int runTime)
+    {
+        final RequestData request = new RequestData(name);
+        request.setTime(time);
+        request.setRunTime(runTime);
+        request.setBytesSent(300 + random.nextInt(300));
+        request.setBytesReceived(contentType.equals("text/html") ? 20000 + random.nextInt(60000) : 500 + random.nextInt(30000));
+        request.setResponseCode(random.nextInt(200) == 0 ? 500 : 200);
+        request.setUrl(url);
+        request.setContentType(contentType);
+        request.setConnectTime(random.nextInt(3) == 0 ? random.nextInt(20) : 0);
+        request.setSendTime(random.nextInt(2));
+        request.setServerBusyTime(runTime * 3 / 4);
+        request.setReceiveTime(runTime / 8);
+        request.setTimeToFirstBytes(runTime * 7 / 8);
+        request.setTimeToLastBytes(runTime);
+        request.setRequestId(Long.toHexString(random.nextLong()));
+        request.setHttpMethod("GET");
+        request.setDnsTime(0);
+        request.setIpAddresses(new String[]
+            {
+                "93.184.216.34"
+            });
+        request.setUsedIpAddress("93.184.216.34");
+
+        time += runTime / 4;
+
+        return request;
+    }
+}
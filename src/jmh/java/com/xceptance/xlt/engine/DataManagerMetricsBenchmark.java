@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xceptance.xlt.api.engine.Data;
+import com.xceptance.xlt.api.util.XltProperties;
+import com.xceptance.xlt.benchmark.TimerDataGenerator;
+import com.xceptance.xlt.engine.metrics.Metrics;
+
+/**
+ * Measures the overhead of updating the real-time metrics when logging data records. Writing the timer file is switched
+ * off, so only the metrics part of {@link DataManagerImpl#logDataRecord(Data)} is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class DataManagerMetricsBenchmark
+{
+    private static final int TRANSACTIONS = 100;
+
+    /**
+     * Whether real-time metrics are enabled.
+     */
+    @Param(
+        {
+            "false", "true"
+        })
+    public boolean metricsEnabled;
+
+    private DataManagerImpl dataManager;
+
+    private Data[] records;
+
+    @Setup
+    public void setup()
+    {
+        final Metrics metrics;
+        if (metricsEnabled)
+        {
+            XltProperties.getInstance().setProperty("xlt.reporting.enabled", "true");
+            metrics = new Metrics()
+            {
+            };
+        }
+        else
+        {
+            metrics = null;
+        }
+
+        dataManager = new DataManagerImpl(SessionImpl.getCurrent(), metrics);
+        dataManager.setLoggingEnabled(false);
+
+        final TimerDataGenerator generator = new TimerDataGenerator(42);
+        final List<Data> data = new ArrayList<>();
+        for (int i = 0; i < TRANSACTIONS; i++)
+        {
+            data.addAll(generator.generateTransaction());
+        }
+
+        // use a fixed number of records per invocation
+        records = data.subList(0, 1000).toArray(new Data[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void logDataRecord()
+    {
+        for (final Data record : records)
+        {
+            dataManager.logDataRecord(record);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.util;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.xceptance.xlt.engine.util.LWPageScanner.Type;
+
+/**
+ * Compares the extraction of resource URLs and related snippets from real-world pages using the regular expressions in
+ * {@link LWPageUtilities} (one pass per kind of snippet) with using {@link LWPageScanner} (one pass for all). The pages
+ * can be concatenated several times to simulate large pages like long product listings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LWPageScannerBenchmark
+{
+    /**
+     * The page files (not test resources, so read from the source directory; the working directory is the project).
+     */
+    @Param(
+        {
+            "src/test/java/com/xceptance/xlt/misc/performance/XPathPerformanceTest.html", "src/test/java/org/htmlunit/content_getpage.html"
+        })
+    public String pageFile;
+
+    /**
+     * How often to repeat the page content.
+     */
+    @Param(
+        {
+            "1", "8"
+        })
+    public int copies;
+
+    private String page;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+        page = StringUtils.repeat(new String(Files.readAllBytes(Paths.get(pageFile)), StandardCharsets.ISO_8859_1), copies);
+    }
+
+    @Benchmark
+    public void regularExpressions(final Blackhole blackhole)
+    {
+        final String uncommentedPage = LWPageUtilities.removeHtmlComments(page);
+
+        blackhole.consume(LWPageUtilities.getAllScriptLinks(uncommentedPage));
+        blackhole.consume(LWPageUtilities.getAllLinkAttributes(uncommentedPage));
+        blackhole.consume(LWPageUtilities.getAllImageLinks(uncommentedPage));
+        blackhole.consume(LWPageUtilities.getAllImageInputLinks(uncommentedPage));
+        blackhole.consume(LWPageUtilities.getAllInlineCssResourceUrls(uncommentedPage));
+        blackhole.consume(LWPageUtilities.getAllBaseLinks(uncommentedPage));
+        blackhole.consume(LWPageUtilities.getAllFrameAttributes(uncommentedPage));
+    }
+
+    @Benchmark
+    public void scanner(final Blackhole blackhole)
+    {
+        final LWPageScanner.Result result = new LWPageScanner(page).removeHtmlComments()
+                                                                   .scan(Type.SCRIPT_LINKS, Type.LINK_ATTRIBUTES, Type.IMAGE_LINKS,
+                                                                         Type.IMAGE_INPUT_LINKS, Type.INLINE_CSS_STATEMENTS,
+                                                                         Type.STYLE_CONTENTS, Type.BASE_LINKS, Type.FRAME_ATTRIBUTES);
+
+        blackhole.consume(result.get(Type.SCRIPT_LINKS));
+        blackhole.consume(result.get(Type.LINK_ATTRIBUTES));
+        blackhole.consume(result.get(Type.IMAGE_LINKS));
+        blackhole.consume(result.get(Type.IMAGE_INPUT_LINKS));
+        blackhole.consume(result.getInlineCssResourceUrls());
+        blackhole.consume(result.get(Type.BASE_LINKS));
+        blackhole.consume(result.get(Type.FRAME_ATTRIBUTES));
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.mastercontroller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xceptance.xlt.agentcontroller.AgentController;
+import com.xceptance.xlt.agentcontroller.AgentControllerStatus;
+import com.xceptance.xlt.agentcontroller.AgentControllerStatusStream;
+import com.xceptance.xlt.agentcontroller.AgentStatusInfo;
+import com.xceptance.xlt.agentcontroller.ScenarioStatus;
+import com.xceptance.xlt.agentcontroller.TestUserStatus;
+import com.xceptance.xlt.util.ConcurrencyUtils;
+
+/**
+ * Measures how long it takes until a status change at all agent controllers becomes visible at the master controller,
+ * once with the master controller polling the agent controllers and once with the agent controllers pushing their
+ * status. The agent controllers are simulated locally. Each poll costs a configurable latency, which stands in for
+ * the network round trip and the server-side work of a remote call, while pushed status data is passed through pipes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AgentControllerStatusBenchmark
+{
+    @Param(
+        {
+            "poll", "push"
+        })
+    public String mode;
+
+    @Param(
+        {
+            "20", "200"
+        })
+    public int controllers;
+
+    /**
+     * The maximum number of agent controllers polled in parallel (see "maxParallelCommunications").
+     */
+    @Param(
+        {
+            "8"
+        })
+    public int parallelCommunications;
+
+    /**
+     * The simulated latency [ms] of a single poll.
+     */
+    @Param(
+        {
+            "5"
+        })
+    public int latency;
+
+    /**
+     * The status update interval [ms].
+     */
+    private static final long UPDATE_INTERVAL = 100;
+
+    private List<SimulatedAgentController> agentControllers;
+
+    private ExecutorService executor;
+
+    private AgentControllerStatusUpdater updater;
+
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        agentControllers = new ArrayList<>();
+        for (int i = 0; i < controllers; i++)
+        {
+            agentControllers.add(new SimulatedAgentController("ac" + i, latency));
+        }
+
+        executor = ConcurrencyUtils.getNewThreadPoolExecutor("AC-default-pool-", parallelCommunications);
+
+        updater = new AgentControllerStatusUpdater(executor, mode.equals("push"))
+        {
+            @Override
+            protected InputStream openStatusStream(final AgentController agentController, final long interval) throws IOException
+            {
+                final PipedInputStream in = new PipedInputStream(64 * 1024);
+                final PipedOutputStream out = new PipedOutputStream(in);
+
+                final Thread writer = new Thread(() -> {
+                    try
+                    {
+                        AgentControllerStatusStream.write(((SimulatedAgentController) agentController)::sampleStatus, out, interval);
+                    }
+                    catch (final Exception e)
+                    {
+                        // the reading side has gone
+                    }
+                    finally
+                    {
+                        IOUtils.closeQuietly(out);
+                    }
+                });
+                writer.setDaemon(true);
+                writer.start();
+
+                return in;
+            }
+        };
+
+        updater.start(Collections.unmodifiableList(agentControllers), UPDATE_INTERVAL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        updater.stop();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Changes the status of all agent controllers and waits until the master controller has seen all the changes.
+     */
+    @Benchmark
+    public int statusChangeLatency() throws InterruptedException
+    {
+        final int currentRound = ++round;
+        for (final SimulatedAgentController agentController : agentControllers)
+        {
+            agentController.iterations = currentRound;
+        }
+
+        final Map<String, AgentControllerStatusInfo> statusMap = updater.getAgentControllerStatusMap();
+        for (final SimulatedAgentController agentController : agentControllers)
+        {
+            while (getIterations(statusMap.get(agentController.getName())) < currentRound)
+            {
+                Thread.sleep(1);
+            }
+        }
+
+        return currentRound;
+    }
+
+    private static int getIterations(final AgentControllerStatusInfo statusInfo)
+    {
+        return statusInfo == null || statusInfo.getScenarioStatusList().isEmpty() ? 0
+                                                                                   : statusInfo.getScenarioStatusList().get(0).getIterations();
+    }
+
+    /**
+     * An agent controller with a single running agent, whose status changes on demand.
+     */
+    private static class SimulatedAgentController extends TestAgentController
+    {
+        private final String name;
+
+        private final int latency;
+
+        private volatile int iterations;
+
+        private SimulatedAgentController(final String name, final int latency)
+        {
+            this.name = name;
+            this.latency = latency;
+        }
+
+        @Override
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * Returns the status as if queried via a remote call.
+         */
+        @Override
+        public AgentControllerStatus getStatus()
+        {
+            try
+            {
+                Thread.sleep(latency);
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            return sampleStatus();
+        }
+
+        /**
+         * Returns the status as seen locally by the agent controller.
+         */
+        private AgentControllerStatus sampleStatus()
+        {
+            final ScenarioStatus scenarioStatus = new ScenarioStatus();
+            scenarioStatus.setScenarioName("TMyScenario");
+            scenarioStatus.setState(TestUserStatus.State.Running);
+            scenarioStatus.setRunningUsers(10);
+            scenarioStatus.setTotalUsers(10);
+            scenarioStatus.setIterations(iterations);
+
+            final List<AgentStatusInfo> agentStatusList = Collections.singletonList(new AgentStatusInfo(name + "-000", "localhost", true,
+                                                                                                        null));
+
+            return new AgentControllerStatus(agentStatusList, Collections.singletonList(scenarioStatus));
+        }
+    }
+}
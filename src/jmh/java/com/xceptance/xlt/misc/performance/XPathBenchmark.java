@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.misc.performance;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.htmlunit.BrowserVersion;
+import org.htmlunit.StringWebResponse;
+import org.htmlunit.WebClient;
+import org.htmlunit.html.HtmlPage;
+import org.htmlunit.html.xpath.XPathHelper;
+import org.jaxen.dom.DOMXPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures XPath lookups on the page used by {@link XPathPerformanceTest}, covering the expression shapes typically
+ * built by test code and the scripting engine. The "compileEachTime" benchmark shows the former behavior of compiling
+ * the expression anew for each lookup, while "getByXPath" uses the compiled expression cache and, unless disabled, the
+ * page indexes. The cache and index hit counters are printed after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XPathBenchmark
+{
+    @Param(
+        {
+            "//*[@id='addressForm']", "//form[@id='addressForm']", "//*[@name='keyword']", "//span[@class='pipe']",
+            "//div[@id='doc']/div[@id='container']/div[@id='content']/form[@id='addressForm']"
+        })
+    public String xpath;
+
+    @Param(
+        {
+            "true", "false"
+        })
+    public boolean useIndexes;
+
+    private static final String PAGE_FILE = "src/test/java/com/xceptance/xlt/misc/performance/XPathPerformanceTest.html";
+
+    private WebClient webClient;
+
+    private HtmlPage htmlPage;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+        // the page is not a test resource, so read it from the source directory (the working directory is the project)
+        final String content = new String(Files.readAllBytes(Paths.get(PAGE_FILE)), StandardCharsets.ISO_8859_1);
+
+        webClient = new WebClient(BrowserVersion.CHROME);
+        webClient.getOptions().setJavaScriptEnabled(false);
+
+        final StringWebResponse webResponse = new StringWebResponse(content, new URL("http://www.goo.com"));
+        htmlPage = (HtmlPage) webClient.getPageCreator().createPage(webResponse, webClient.getCurrentWindow());
+
+        if (htmlPage.getByXPath(xpath).isEmpty())
+        {
+            throw new IllegalStateException("Expression does not match anything: " + xpath);
+        }
+
+        XPathHelper.useIndexes = useIndexes;
+        XPathHelper.resetStatistics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        System.out.printf("%nCache hits: %,d, cache misses: %,d, index hits: %,d%n", XPathHelper.getCacheHits(),
+                          XPathHelper.getCacheMisses(), XPathHelper.getIndexHits());
+
+        XPathHelper.useIndexes = true;
+        webClient.close();
+    }
+
+    @Benchmark
+    public List<?> getByXPath()
+    {
+        return htmlPage.getByXPath(xpath);
+    }
+
+    @Benchmark
+    public List<?> compileEachTime() throws Exception
+    {
+        return new DOMXPath(xpath).selectNodes(htmlPage);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xceptance.xlt.api.report.PostProcessedDataContainer;
+import com.xceptance.xlt.api.util.XltCharBuffer;
+import com.xceptance.xlt.benchmark.TimerDataGenerator;
+
+/**
+ * Measures the parser stage of the report generator: turning chunks of lines into data records, including the
+ * preprocessing and the merge rules, with the given number of parser threads. The parsed records are discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataParserThreadBenchmark
+{
+    private static final int LINES = 100_000;
+
+    @Param(
+        {
+            "1", "4"
+        })
+    public int parserThreads;
+
+    private ReportGeneratorConfiguration config;
+
+    private char[][] lines;
+
+    private Dispatcher dispatcher;
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    private List<DataChunk> chunks;
+
+    private volatile CountDownLatch chunksProcessed;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        config = new ReportGeneratorConfiguration(null, null, new Properties());
+
+        final List<String> generatedLines = new TimerDataGenerator(42).generateLines(LINES);
+        lines = new char[LINES][];
+        for (int i = 0; i < LINES; i++)
+        {
+            lines[i] = generatedLines.get(i).toCharArray();
+        }
+
+        final StatisticsProcessor statisticsProcessor = new StatisticsProcessor(Collections.emptyList(), false)
+        {
+            @Override
+            public void process(final PostProcessedDataContainer dataContainer)
+            {
+                chunksProcessed.countDown();
+            }
+        };
+
+        dispatcher = new Dispatcher(config, statisticsProcessor);
+
+        final DataRecordFactory dataRecordFactory = new DataRecordFactory(config.getDataRecordClasses());
+        for (int i = 0; i < parserThreads; i++)
+        {
+            final Thread thread = new Thread(new DataParserThread(dispatcher, dataRecordFactory, 0, Long.MAX_VALUE, config));
+            thread.setDaemon(true);
+            thread.start();
+
+            threads.add(thread);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createChunks()
+    {
+        // the parser modifies the lines in place, so hand in fresh ones each time
+        final int chunkSize = config.threadQueueBucketSize;
+
+        chunks = new ArrayList<>();
+        for (int i = 0; i < LINES; i += chunkSize)
+        {
+            final List<XltCharBuffer> chunkLines = new ArrayList<>(chunkSize);
+            for (int j = i; j < Math.min(LINES, i + chunkSize); j++)
+            {
+                chunkLines.add(new XltCharBuffer(lines[j].clone()));
+            }
+
+            chunks.add(new DataChunk(chunkLines, i + 1, null, "ac001_00", "TOrder", "0", false, false, new ConcurrentSkipListMap<>()));
+        }
+
+        chunksProcessed = new CountDownLatch(chunks.size());
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        threads.forEach(Thread::interrupt);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void parse() throws InterruptedException
+    {
+        for (final DataChunk chunk : chunks)
+        {
+            dispatcher.addReadData(chunk);
+        }
+
+        chunksProcessed.await();
+    }
+}
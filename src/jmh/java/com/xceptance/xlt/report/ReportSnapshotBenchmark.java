@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.vfs2.VFS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xceptance.common.util.CsvUtils;
+import com.xceptance.xlt.api.engine.RequestData;
+import com.xceptance.xlt.api.report.ReportProvider;
+import com.xceptance.xlt.report.providers.GeneralReportProvider;
+import com.xceptance.xlt.report.providers.RequestsReportProvider;
+import com.xceptance.xlt.report.providers.ResponseCodesReportProvider;
+import com.xceptance.xlt.report.util.ConcurrentUsersTable;
+
+/**
+ * Compares the time needed to read a results directory without a statistics snapshot ("plain"), when creating the
+ * snapshot ("cold"), when reusing it ("warm"), and when only some data was appended since ("appended").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReportSnapshotBenchmark
+{
+    private static final int USERS = 20;
+
+    private static final int LINES_PER_USER = 50_000;
+
+    private static final long START_TIME = 1700000000000L;
+
+    @Param(
+        {
+            "plain", "cold", "warm", "appended"
+        })
+    private String scenario;
+
+    private File resultsDir;
+
+    private File snapshotFile;
+
+    private byte[] snapshotBeforeAppend;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        resultsDir = Files.createTempDirectory("ReportSnapshotBenchmark").toFile();
+        snapshotFile = new File(resultsDir, ReportSnapshot.FILE_NAME);
+
+        for (int u = 0; u < USERS; u++)
+        {
+            writeLines(u, 0, LINES_PER_USER);
+        }
+
+        if (scenario.equals("appended"))
+        {
+            // remember the snapshot without the appended lines, so each invocation reads just these
+            run(true);
+            snapshotBeforeAppend = Files.readAllBytes(snapshotFile.toPath());
+
+            writeLines(0, LINES_PER_USER, LINES_PER_USER / 10);
+        }
+        else if (scenario.equals("warm"))
+        {
+            run(true);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareSnapshot() throws IOException
+    {
+        if (scenario.equals("cold"))
+        {
+            Files.deleteIfExists(snapshotFile.toPath());
+        }
+        else if (scenario.equals("appended"))
+        {
+            Files.write(snapshotFile.toPath(), snapshotBeforeAppend);
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        FileUtils.deleteQuietly(resultsDir);
+    }
+
+    @Benchmark
+    public void readDataRecords() throws Exception
+    {
+        run(!scenario.equals("plain"));
+    }
+
+    private void writeLines(final int user, final int first, final int count) throws IOException
+    {
+        final Path file = resultsDir.toPath().resolve("ac001_00/TOrder/" + user + "/timers.csv");
+        Files.createDirectories(file.getParent());
+
+        try (final Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND))
+        {
+            for (int n = first; n < first + count; n++)
+            {
+                final RequestData r = new RequestData("Homepage." + (n % 20));
+                r.setTime(START_TIME + n * 50L + user);
+                r.setRunTime(50 + n % 1000);
+                r.setBytesSent(400 + n % 50);
+                r.setBytesReceived(20000 + n % 5000);
+                r.setResponseCode(200);
+                r.setUrl("https://www.example.com/products/" + (n % 100) + "?color=blue");
+
+                out.write(CsvUtils.encode(r.toList()).append('\n').toString());
+            }
+        }
+    }
+
+    private void run(final boolean snapshotsEnabled) throws Exception
+    {
+        final Properties properties = new Properties();
+        properties.setProperty("com.xceptance.xlt.reportgenerator.snapshots.enabled", String.valueOf(snapshotsEnabled));
+
+        final ReportGeneratorConfiguration config = new ReportGeneratorConfiguration(null, null, properties);
+        config.setReportDirectory(new File(System.getProperty("java.io.tmpdir")));
+
+        final List<ReportProvider> providers = new ArrayList<>();
+        providers.add(new RequestsReportProvider());
+        providers.add(new ResponseCodesReportProvider());
+        providers.add(new GeneralReportProvider());
+        providers.forEach(p -> p.setConfiguration(config));
+
+        final DataProcessor dataProcessor = new DataProcessor(config, VFS.getManager().resolveFile(resultsDir.toURI()),
+                                                              new DataRecordFactory(config.getDataRecordClasses()), 0, Long.MAX_VALUE,
+                                                              providers, null, null, null, null);
+        dataProcessor.readDataRecords();
+
+        ConcurrentUsersTable.getInstance().clear();
+    }
+}
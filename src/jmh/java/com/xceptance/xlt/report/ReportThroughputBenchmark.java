@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.VFS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xceptance.xlt.api.report.ReportProvider;
+import com.xceptance.xlt.benchmark.TimerDataGenerator;
+import com.xceptance.xlt.report.providers.ActionsReportProvider;
+import com.xceptance.xlt.report.providers.CustomTimersReportProvider;
+import com.xceptance.xlt.report.providers.EventsReportProvider;
+import com.xceptance.xlt.report.providers.GeneralReportProvider;
+import com.xceptance.xlt.report.providers.RequestsReportProvider;
+import com.xceptance.xlt.report.providers.ResponseCodesReportProvider;
+import com.xceptance.xlt.report.providers.TransactionsReportProvider;
+import com.xceptance.xlt.report.util.ConcurrentUsersTable;
+
+/**
+ * Measures the end-to-end throughput of the report generator in lines per second: reading the timer files of a
+ * results directory, parsing the lines, and feeding the data records to the main report providers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReportThroughputBenchmark
+{
+    private static final int AGENTS = 4;
+
+    private static final int USERS = 5;
+
+    private static final int LINES_PER_USER = 50_000;
+
+    private File resultsDir;
+
+    private ReportGeneratorConfiguration config;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        resultsDir = Files.createTempDirectory("ReportThroughputBenchmark").toFile();
+        new TimerDataGenerator(42).writeResults(resultsDir.toPath(), AGENTS, USERS, LINES_PER_USER);
+
+        config = new ReportGeneratorConfiguration(null, null, new Properties());
+        config.setReportDirectory(resultsDir);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        FileUtils.deleteQuietly(resultsDir);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AGENTS * USERS * LINES_PER_USER)
+    public DataProcessor readAndProcess() throws Exception
+    {
+        final List<ReportProvider> providers = new ArrayList<>();
+        providers.add(new GeneralReportProvider());
+        providers.add(new TransactionsReportProvider());
+        providers.add(new ActionsReportProvider());
+        providers.add(new RequestsReportProvider());
+        providers.add(new CustomTimersReportProvider());
+        providers.add(new EventsReportProvider());
+        providers.add(new ResponseCodesReportProvider());
+        providers.forEach(p -> p.setConfiguration(config));
+
+        final FileObject inputDir = VFS.getManager().resolveFile(resultsDir.toURI());
+        final DataProcessor dataProcessor = new DataProcessor(config, inputDir, new DataRecordFactory(config.getDataRecordClasses()), 0,
+                                                              Long.MAX_VALUE, providers, null, null, null, null);
+        dataProcessor.readDataRecords();
+
+        ConcurrentUsersTable.getInstance().clear();
+
+        return dataProcessor;
+    }
+}
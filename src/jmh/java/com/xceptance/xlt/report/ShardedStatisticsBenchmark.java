@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xceptance.xlt.api.engine.RequestData;
+import com.xceptance.xlt.api.report.PostProcessedDataContainer;
+import com.xceptance.xlt.report.providers.DummyReportGeneratorConfiguration;
+import com.xceptance.xlt.report.providers.GeneralReportProvider;
+import com.xceptance.xlt.report.providers.RequestsReportProvider;
+
+/**
+ * Compares feeding a shared, locked report provider from several threads with feeding private shards that are merged
+ * at the end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShardedStatisticsBenchmark
+{
+    private static final int CHUNKS = 2_000;
+
+    private static final int CHUNK_SIZE = 200;
+
+    @Param(
+        {
+            "1", "2", "4", "8"
+        })
+    private int threadCount;
+
+    @Param(
+        {
+            "false", "true"
+        })
+    private boolean sharded;
+
+    private List<PostProcessedDataContainer> chunks;
+
+    private DummyReportGeneratorConfiguration config;
+
+    @Setup
+    public void setup()
+    {
+        chunks = new ArrayList<>();
+
+        int n = 0;
+        for (int c = 0; c < CHUNKS; c++)
+        {
+            final PostProcessedDataContainer chunk = new PostProcessedDataContainer(CHUNK_SIZE, 1);
+            for (int i = 0; i < CHUNK_SIZE; i++, n++)
+            {
+                final RequestData r = new RequestData("Homepage." + (n % 20));
+                r.setTime(1700000000000L + n * 3L);
+                r.setRunTime(50 + n % 1000);
+                r.setBytesSent(400 + n % 50);
+                r.setBytesReceived(20000 + n % 5000);
+                r.setResponseCode(200);
+                r.setUrl("https://www.example.com/products/" + (n % 100) + "?color=blue");
+
+                chunk.add(r);
+            }
+            chunks.add(chunk);
+        }
+
+        config = DummyReportGeneratorConfiguration.getDefault();
+        config.setReportDirectory(new File(System.getProperty("java.io.tmpdir")));
+    }
+
+    @Benchmark
+    public List<ShardableReportProvider> process() throws InterruptedException
+    {
+        final List<ShardableReportProvider> providers = new ArrayList<>();
+        providers.add(new RequestsReportProvider());
+        providers.add(new GeneralReportProvider());
+        providers.forEach(p -> p.setConfiguration(config));
+
+        final List<List<ShardableReportProvider>> allShards = new ArrayList<>();
+        final AtomicInteger next = new AtomicInteger();
+        final Thread[] threads = new Thread[threadCount];
+
+        for (int t = 0; t < threadCount; t++)
+        {
+            final List<ShardableReportProvider> shards = new ArrayList<>();
+            for (final ShardableReportProvider provider : providers)
+            {
+                shards.add(sharded ? provider.createShard() : provider);
+            }
+            allShards.add(shards);
+
+            threads[t] = new Thread(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < chunks.size())
+                {
+                    for (final ShardableReportProvider shard : shards)
+                    {
+                        if (sharded)
+                        {
+                            shard.processAll(chunks.get(i));
+                        }
+                        else
+                        {
+                            while (!shard.lock())
+                            {
+                                Thread.onSpinWait();
+                            }
+                            try
+                            {
+                                shard.processAll(chunks.get(i));
+                            }
+                            finally
+                            {
+                                shard.unlock();
+                            }
+                        }
+                    }
+                }
+            });
+        }
+
+        for (final Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        if (sharded)
+        {
+            for (int p = 0; p < providers.size(); p++)
+            {
+                for (final List<ShardableReportProvider> shards : allShards)
+                {
+                    providers.get(p).mergeShard(shards.get(p));
+                }
+            }
+        }
+
+        return providers;
+    }
+}
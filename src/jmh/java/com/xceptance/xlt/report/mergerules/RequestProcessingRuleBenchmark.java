@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report.mergerules;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.xceptance.xlt.api.engine.RequestData;
+import com.xceptance.xlt.benchmark.TimerDataGenerator;
+import com.xceptance.xlt.report.ReportGeneratorConfiguration;
+import com.xceptance.xlt.report.mergerules.RequestProcessingRule.ReturnState;
+
+/**
+ * Measures applying the merge rules of the test suite template to requests, optionally preceded by many more rules
+ * that do not match, as is typical for larger projects.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestProcessingRuleBenchmark
+{
+    private static final String PREFIX = "com.xceptance.xlt.reportgenerator.requestMergeRules.";
+
+    private static final int REQUESTS = 10_000;
+
+    @Param(
+        {
+            "0", "80"
+        })
+    private int additionalRules;
+
+    private List<RequestProcessingRule> rules;
+
+    private RequestProcessingRuleSet ruleSet;
+
+    private RequestData[] requests;
+
+    private String[] names;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        final Properties properties = new Properties();
+        properties.setProperty(PREFIX + "1.newName", "{n} JS");
+        properties.setProperty(PREFIX + "1.urlPattern", "\\.js$");
+        properties.setProperty(PREFIX + "1.stopOnMatch", "false");
+        properties.setProperty(PREFIX + "3.newName", "{n} Images");
+        properties.setProperty(PREFIX + "3.urlPattern", "\\.(gif|png|jpg|ico)$");
+        properties.setProperty(PREFIX + "3.stopOnMatch", "false");
+        properties.setProperty(PREFIX + "5.newName", "{n} CSS");
+        properties.setProperty(PREFIX + "5.urlPattern", "\\.css$");
+        properties.setProperty(PREFIX + "5.stopOnMatch", "false");
+        properties.setProperty(PREFIX + "10.newName", "{n} [{s}]");
+        properties.setProperty(PREFIX + "10.statusCodePattern", "(.+)");
+        properties.setProperty(PREFIX + "10.stopOnMatch", "false");
+
+        for (int i = 0; i < additionalRules; i++)
+        {
+            properties.setProperty(PREFIX + (100 + i) + ".newName", "Area " + i);
+            properties.setProperty(PREFIX + (100 + i) + ".urlPattern", "/area-" + i + "/");
+            properties.setProperty(PREFIX + (100 + i) + ".namePattern", "^Page" + i + "$");
+        }
+
+        final ReportGeneratorConfiguration config = new ReportGeneratorConfiguration(null, null, properties);
+        rules = config.getRequestProcessingRules();
+        ruleSet = new RequestProcessingRuleSet(config.getRequestProcessingRules(), config.requestProcessingRuleCacheSize);
+
+        final List<RequestData> generatedRequests = new TimerDataGenerator(42).generateRequests(REQUESTS);
+        requests = generatedRequests.toArray(new RequestData[0]);
+
+        names = new String[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++)
+        {
+            // like the report generator does by default, remove the index from the request name
+            names[i] = StringUtils.substringBefore(requests[i].getName(), ".");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void process(final Blackhole blackhole)
+    {
+        for (int i = 0; i < REQUESTS; i++)
+        {
+            final RequestData request = requests[i];
+
+            // the rules rename the request, so start over with the original name
+            request.setName(names[i]);
+
+            for (final RequestProcessingRule rule : rules)
+            {
+                final ReturnState state = rule.process(request);
+                if (state != ReturnState.CONTINUE)
+                {
+                    break;
+                }
+            }
+
+            blackhole.consume(request.getName());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void processRuleSet(final Blackhole blackhole)
+    {
+        for (int i = 0; i < REQUESTS; i++)
+        {
+            final RequestData request = requests[i];
+
+            // the rules rename the request, so start over with the original name
+            request.setName(names[i]);
+
+            blackhole.consume(ruleSet.process(request));
+        }
+    }
+}
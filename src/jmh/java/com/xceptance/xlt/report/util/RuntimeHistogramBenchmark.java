@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures recording run times and computing percentiles, as done for each request, action, and transaction name.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuntimeHistogramBenchmark
+{
+    private static final int VALUES = 100_000;
+
+    private int[] runTimes;
+
+    private RuntimeHistogram filledHistogram;
+
+    @Setup
+    public void setup()
+    {
+        final Random random = new Random(42);
+
+        // mostly fast responses with a long tail
+        runTimes = new int[VALUES];
+        for (int i = 0; i < VALUES; i++)
+        {
+            runTimes[i] = (int) Math.min(60_000, Math.exp(4 + random.nextGaussian()));
+        }
+
+        filledHistogram = new RuntimeHistogram();
+        for (final int runTime : runTimes)
+        {
+            filledHistogram.addValue(runTime);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public RuntimeHistogram addValue()
+    {
+        final RuntimeHistogram histogram = new RuntimeHistogram();
+        for (final int runTime : runTimes)
+        {
+            histogram.addValue(runTime);
+        }
+
+        return histogram;
+    }
+
+    @Benchmark
+    public void getPercentiles(final Blackhole blackhole)
+    {
+        blackhole.consume(filledHistogram.getMedianValue());
+        blackhole.consume(filledHistogram.getPercentile(90));
+        blackhole.consume(filledHistogram.getPercentile(95));
+        blackhole.consume(filledHistogram.getPercentile(99));
+        blackhole.consume(filledHistogram.getPercentile(99.9));
+    }
+}
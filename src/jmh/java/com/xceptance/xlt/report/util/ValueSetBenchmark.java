@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xceptance.xlt.benchmark.TimerDataGenerator;
+
+/**
+ * Measures collecting values per second for the charts, with roughly ascending times as they occur in timer files of a
+ * multi-hour test.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValueSetBenchmark
+{
+    private static final int VALUES = 100_000;
+
+    private long[] times;
+
+    private int[] values;
+
+    @Setup
+    public void setup()
+    {
+        final Random random = new Random(42);
+
+        times = new long[VALUES];
+        values = new int[VALUES];
+
+        long time = TimerDataGenerator.START_TIME;
+        for (int i = 0; i < VALUES; i++)
+        {
+            // about 3 hours in total, slightly out of order as with several users
+            time += random.nextInt(220);
+            times[i] = time - random.nextInt(2000);
+            values[i] = random.nextInt(1000);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public ValueSet addOrUpdateValue()
+    {
+        final ValueSet valueSet = new ValueSet();
+        for (int i = 0; i < VALUES; i++)
+        {
+            valueSet.addOrUpdateValue(times[i], values[i]);
+        }
+
+        return valueSet;
+    }
+}
@@ -15,6 +15,10 @@
  */
 package com.xceptance.common.collection;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -30,24 +34,26 @@ import java.util.List;
  *
  * @since 7.0.0
  */
-public class FastHashMap<K, V>
+public class FastHashMap<K, V> implements Serializable
 {
+    private static final long serialVersionUID = 1L;
+
     private static final Object FREE_KEY = new Object();
     private static final Object REMOVED_KEY = new Object();
 
-    /** Keys and values */
-    private Object[] m_data;
+    /** Keys and values, serialized as plain key/value pairs since the markers cannot be serialized */
+    private transient Object[] m_data;
 
     /** Fill factor, must be between (0 and 1) */
     private final float m_fillFactor;
     /** We will resize a map once it reaches this size */
-    private int m_threshold;
+    private transient int m_threshold;
     /** Current map size */
-    private int m_size;
+    private transient int m_size;
     /** Mask to calculate the original position */
-    private int m_mask;
+    private transient int m_mask;
     /** Mask to wrap the actual array pointer */
-    private int m_mask2;
+    private transient int m_mask2;
 
     public FastHashMap()
     {
@@ -272,6 +278,46 @@ public class FastHashMap<K, V>
         Arrays.fill(m_data, FREE_KEY);
     }
 
+    private void writeObject(final ObjectOutputStream out) throws IOException
+    {
+        out.defaultWriteObject();
+        out.writeInt(m_size);
+
+        final int length = m_data.length;
+        for (int i = 0; i < length; i += 2)
+        {
+            final Object o = m_data[i];
+            if (o != FREE_KEY && o != REMOVED_KEY)
+            {
+                out.writeObject(o);
+                out.writeObject(m_data[i + 1]);
+            }
+        }
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        final int size = in.readInt();
+
+        final int capacity = arraySize(Math.max(size, 1), m_fillFactor);
+        m_mask = capacity - 1;
+        m_mask2 = capacity * 2 - 1;
+        m_data = new Object[capacity * 2];
+        Arrays.fill( m_data, FREE_KEY );
+        m_threshold = (int) (capacity * m_fillFactor);
+
+        for (int i = 0; i < size; i++)
+        {
+            @SuppressWarnings("unchecked")
+            final K key = (K) in.readObject();
+            @SuppressWarnings("unchecked")
+            final V value = (V) in.readObject();
+
+            put(key, value);
+        }
+    }
+
     public int getStartIndex( final Object key )
     {
         //key is not null here
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.io;
+
+/**
+ * Constants and helpers shared by {@link BinaryRecordWriter} and {@link BinaryRecordReader}.
+ * <p>
+ * A binary record file starts with the magic bytes "XLTB" followed by a format version byte. After that, the file is a
+ * sequence of entries, each one starting with a tag byte:
+ * <ul>
+ * <li>{@link #TAG_STRING}: defines the next dictionary string, followed by the varint byte length and the UTF-8
+ * bytes</li>
+ * <li>{@link #TAG_RECORD}: a data record, followed by the varint byte length of the payload and the payload itself.
+ * The payload holds the varint field count and the fields, each one as a kind byte plus the kind-specific data.</li>
+ * <li>{@link #TAG_TRAILER}: the end of a segment, written when the writer is closed. It has a fixed size of
+ * {@link #TRAILER_LENGTH} bytes: the tag, a flags byte, the number of records as 8-byte big-endian value, and the magic
+ * bytes.</li>
+ * </ul>
+ * Numbers are written as zig-zag encoded varints, so small values (like most timings) take one or two bytes only.
+ * <p>
+ * A file may consist of several segments, each one starting with its own header and dictionary. This way, a writer can
+ * simply append to an existing file. The trailer of a segment holds the number of records in the file so far and
+ * whether all segments so far have been closed properly. Hence, the last {@link #TRAILER_LENGTH} bytes of a file tell
+ * whether the file is complete without reading it.
+ *
+ * @since 8.1.0
+ */
+final class BinaryRecordFormat
+{
+    /**
+     * The magic bytes at the beginning of each file.
+     */
+    static final byte[] MAGIC = new byte[]
+        {
+            'X', 'L', 'T', 'B'
+        };
+
+    /**
+     * The current format version.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Tag of a dictionary string entry.
+     */
+    static final int TAG_STRING = 1;
+
+    /**
+     * Tag of a record entry.
+     */
+    static final int TAG_RECORD = 2;
+
+    /**
+     * Tag of a segment trailer.
+     */
+    static final int TAG_TRAILER = 3;
+
+    /**
+     * The size of a segment trailer in bytes.
+     */
+    static final int TRAILER_LENGTH = 1 + 1 + 8 + 4;
+
+    /**
+     * Trailer flag: this segment and all segments before it were closed properly.
+     */
+    static final int FLAG_COMPLETE = 1;
+
+    /**
+     * Field kind: an empty value.
+     */
+    static final int FIELD_EMPTY = 0;
+
+    /**
+     * Field kind: a canonical integer number stored as zig-zag varint.
+     */
+    static final int FIELD_NUMBER = 1;
+
+    /**
+     * Field kind: a reference to a dictionary string stored as varint index.
+     */
+    static final int FIELD_DICTIONARY = 2;
+
+    /**
+     * Field kind: a string stored inline as varint byte length plus UTF-8 bytes.
+     */
+    static final int FIELD_LITERAL = 3;
+
+    /**
+     * The maximum number of dictionary entries per file. Anything beyond is written as literal.
+     */
+    static final int MAX_DICTIONARY_SIZE = 64 * 1024;
+
+    /**
+     * The maximum length of a value to be put into the dictionary. Longer values are rarely repeated (think of URLs with
+     * session IDs), so they are written as literal right away.
+     */
+    static final int MAX_DICTIONARY_VALUE_LENGTH = 256;
+
+    /**
+     * Default constructor. Declared private to prevent external instantiation.
+     */
+    private BinaryRecordFormat()
+    {
+    }
+
+    /**
+     * Maps a signed value to an unsigned one, so that small negative values stay small.
+     *
+     * @param value
+     *            the value
+     * @return the zig-zag encoded value
+     */
+    static long encodeZigZag(final long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Creates a segment trailer.
+     *
+     * @param complete
+     *            whether the segment and all segments before it were closed properly
+     * @param records
+     *            the number of records in the file so far
+     * @return the trailer bytes
+     */
+    static byte[] encodeTrailer(final boolean complete, final long records)
+    {
+        final byte[] trailer = new byte[TRAILER_LENGTH];
+
+        trailer[0] = TAG_TRAILER;
+        trailer[1] = (byte) (complete ? FLAG_COMPLETE : 0);
+        for (int i = 0; i < 8; i++)
+        {
+            trailer[2 + i] = (byte) (records >>> (56 - 8 * i));
+        }
+        System.arraycopy(MAGIC, 0, trailer, 10, MAGIC.length);
+
+        return trailer;
+    }
+
+    /**
+     * Decodes the segment trailer in the given bytes.
+     *
+     * @param bytes
+     *            the bytes
+     * @param offset
+     *            the position of the trailer in the bytes
+     * @return the number of records in the file if the bytes hold the trailer of a complete file, -1 otherwise
+     */
+    static long decodeTrailer(final byte[] bytes, final int offset)
+    {
+        if (bytes.length - offset < TRAILER_LENGTH || bytes[offset] != TAG_TRAILER || bytes[offset + 1] != FLAG_COMPLETE)
+        {
+            return -1;
+        }
+
+        for (int i = 0; i < MAGIC.length; i++)
+        {
+            if (bytes[offset + 10 + i] != MAGIC[i])
+            {
+                return -1;
+            }
+        }
+
+        long records = 0;
+        for (int i = 0; i < 8; i++)
+        {
+            records = (records << 8) | (bytes[offset + 2 + i] & 0xFF);
+        }
+
+        return records;
+    }
+
+    /**
+     * Reverses {@link #encodeZigZag(long)}.
+     *
+     * @param value
+     *            the zig-zag encoded value
+     * @return the original value
+     */
+    static long decodeZigZag(final long value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,471 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.xceptance.xlt.api.util.SimpleArrayList;
+import com.xceptance.xlt.api.util.XltCharBuffer;
+
+/**
+ * Reads records written by {@link BinaryRecordWriter}. The fields of a record are returned as {@link XltCharBuffer}
+ * objects, so they can be handed to the data record classes without any CSV tokenizing. Dictionary values are decoded
+ * only once and shared between all records referencing them, so the returned buffers must not be modified.
+ *
+ * @since 8.1.0
+ */
+public class BinaryRecordReader implements Closeable
+{
+    /**
+     * The number of bytes at the end of a file needed by {@link #getRecordCount(byte[])}.
+     */
+    public static final int TRAILER_LENGTH = BinaryRecordFormat.TRAILER_LENGTH;
+
+    /**
+     * The number of small numbers for which we keep ready-made buffers.
+     */
+    private static final int NUMBER_CACHE_SIZE = 1024;
+
+    /**
+     * The stream to read from.
+     */
+    private final InputStream in;
+
+    /**
+     * Our read buffer.
+     */
+    private final byte[] buffer;
+
+    /**
+     * The current read position in the buffer.
+     */
+    private int bufferPos;
+
+    /**
+     * The number of valid bytes in the buffer.
+     */
+    private int bufferLength;
+
+    /**
+     * The decoded dictionary values.
+     */
+    private XltCharBuffer[] dictionary = new XltCharBuffer[256];
+
+    /**
+     * The number of dictionary values.
+     */
+    private int dictionarySize;
+
+    /**
+     * The buffers for the numbers 0 to {@link #NUMBER_CACHE_SIZE} - 1.
+     */
+    private final XltCharBuffer[] numberCache = new XltCharBuffer[NUMBER_CACHE_SIZE];
+
+    /**
+     * A reusable buffer for decoding strings.
+     */
+    private byte[] stringBytes = new byte[256];
+
+    /**
+     * The expected number of fields per record, used to size the result lists.
+     */
+    private int lastFieldCount = 16;
+
+    /**
+     * Whether the last entry read was the trailer of a complete file.
+     */
+    private boolean complete;
+
+    /**
+     * Creates a new reader and checks the file header.
+     *
+     * @param in
+     *            the stream to read from
+     * @throws IOException
+     *             if the header cannot be read or is not valid
+     */
+    public BinaryRecordReader(final InputStream in) throws IOException
+    {
+        this(in, 64 * 1024);
+    }
+
+    /**
+     * Creates a new reader and checks the file header.
+     *
+     * @param in
+     *            the stream to read from
+     * @param bufferSize
+     *            the size of the read buffer
+     * @throws IOException
+     *             if the header cannot be read or is not valid
+     */
+    public BinaryRecordReader(final InputStream in, final int bufferSize) throws IOException
+    {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+
+        readHeader(readByte());
+    }
+
+    /**
+     * Reads and checks a segment header and starts a fresh dictionary.
+     *
+     * @param firstByte
+     *            the first byte of the header, already consumed
+     * @throws IOException
+     *             if the header cannot be read or is not valid
+     */
+    private void readHeader(final int firstByte) throws IOException
+    {
+        complete = false;
+
+        int b = firstByte;
+        for (int i = 0; i < BinaryRecordFormat.MAGIC.length; i++)
+        {
+            if (i > 0)
+            {
+                b = readByte();
+            }
+
+            if (b != BinaryRecordFormat.MAGIC[i])
+            {
+                throw new IOException("Not a binary record file");
+            }
+        }
+
+        final int version = readByte();
+        if (version != BinaryRecordFormat.VERSION)
+        {
+            throw new IOException("Unsupported binary record file version: " + version);
+        }
+
+        // each segment has its own dictionary
+        Arrays.fill(dictionary, 0, dictionarySize, null);
+        dictionarySize = 0;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the fields of the record, or <code>null</code> if the end of the stream has been reached
+     * @throws EOFException
+     *             if the stream ends in the middle of a record
+     * @throws IOException
+     *             if the stream cannot be read or the data is corrupt
+     */
+    public SimpleArrayList<XltCharBuffer> readRecord() throws IOException
+    {
+        while (true)
+        {
+            if (bufferPos == bufferLength && !fill())
+            {
+                // clean end of file
+                return null;
+            }
+
+            final int tag = buffer[bufferPos++];
+            if (tag == BinaryRecordFormat.TAG_STRING)
+            {
+                addDictionaryValue(readString());
+            }
+            else if (tag == BinaryRecordFormat.TAG_RECORD)
+            {
+                // the length is only needed by readers that want to skip records
+                readVarLong();
+
+                return readFields();
+            }
+            else if (tag == BinaryRecordFormat.TAG_TRAILER)
+            {
+                readTrailer();
+            }
+            else if (tag == BinaryRecordFormat.MAGIC[0])
+            {
+                // another writer appended a new segment
+                readHeader(tag);
+            }
+            else
+            {
+                throw new IOException("Invalid entry tag: " + tag);
+            }
+        }
+    }
+
+    /**
+     * Counts the remaining records without decoding them.
+     *
+     * @return the number of records
+     * @throws EOFException
+     *             if the stream ends in the middle of a record
+     * @throws IOException
+     *             if the stream cannot be read or the data is corrupt
+     */
+    public long countRecords() throws IOException
+    {
+        long records = 0;
+
+        while (true)
+        {
+            if (bufferPos == bufferLength && !fill())
+            {
+                // clean end of file
+                return records;
+            }
+
+            final int tag = buffer[bufferPos++];
+            if (tag == BinaryRecordFormat.TAG_STRING || tag == BinaryRecordFormat.TAG_RECORD)
+            {
+                complete = false;
+                skipBytes(readVarLong());
+
+                if (tag == BinaryRecordFormat.TAG_RECORD)
+                {
+                    records++;
+                }
+            }
+            else if (tag == BinaryRecordFormat.TAG_TRAILER)
+            {
+                readTrailer();
+            }
+            else if (tag == BinaryRecordFormat.MAGIC[0])
+            {
+                readHeader(tag);
+            }
+            else
+            {
+                throw new IOException("Invalid entry tag: " + tag);
+            }
+        }
+    }
+
+    /**
+     * Reads through the remaining records without decoding them and checks whether the file ends with the trailer of a
+     * complete file. Use {@link #getRecordCount(byte[])} instead if the end of the file can be accessed directly.
+     *
+     * @return whether the file is complete
+     * @throws EOFException
+     *             if the stream ends in the middle of a record
+     * @throws IOException
+     *             if the stream cannot be read or the data is corrupt
+     */
+    public boolean isComplete() throws IOException
+    {
+        countRecords();
+
+        return complete;
+    }
+
+    /**
+     * Returns the number of records in a file that was completely written, i.e. whose writers were all closed
+     * properly.
+     *
+     * @param trailer
+     *            the last {@link #TRAILER_LENGTH} bytes of the file
+     * @return the number of records, or -1 if the file is not complete
+     */
+    public static long getRecordCount(final byte[] trailer)
+    {
+        return BinaryRecordFormat.decodeTrailer(trailer, 0);
+    }
+
+    /**
+     * Reads the rest of a segment trailer, the tag has already been consumed.
+     *
+     * @throws IOException
+     *             if the stream cannot be read
+     */
+    private void readTrailer() throws IOException
+    {
+        final byte[] trailer = new byte[BinaryRecordFormat.TRAILER_LENGTH];
+        trailer[0] = BinaryRecordFormat.TAG_TRAILER;
+        for (int i = 1; i < trailer.length; i++)
+        {
+            trailer[i] = (byte) readByte();
+        }
+
+        complete = BinaryRecordFormat.decodeTrailer(trailer, 0) >= 0;
+    }
+
+    /**
+     * Reads the fields of a record.
+     *
+     * @return the fields
+     * @throws IOException
+     *             if the stream cannot be read or the data is corrupt
+     */
+    private SimpleArrayList<XltCharBuffer> readFields() throws IOException
+    {
+        final int fieldCount = (int) readVarLong();
+        final SimpleArrayList<XltCharBuffer> fields = new SimpleArrayList<>(Math.max(fieldCount, lastFieldCount));
+        lastFieldCount = fieldCount;
+
+        for (int i = 0; i < fieldCount; i++)
+        {
+            final int kind = readByte();
+            switch (kind)
+            {
+                case BinaryRecordFormat.FIELD_EMPTY:
+                    fields.add(XltCharBuffer.EMPTY);
+                    break;
+
+                case BinaryRecordFormat.FIELD_NUMBER:
+                    fields.add(toCharBuffer(BinaryRecordFormat.decodeZigZag(readVarLong())));
+                    break;
+
+                case BinaryRecordFormat.FIELD_DICTIONARY:
+                    final int index = (int) readVarLong();
+                    if (index >= dictionarySize)
+                    {
+                        throw new IOException("Invalid dictionary index: " + index);
+                    }
+                    fields.add(dictionary[index]);
+                    break;
+
+                case BinaryRecordFormat.FIELD_LITERAL:
+                    fields.add(readString());
+                    break;
+
+                default:
+                    throw new IOException("Invalid field kind: " + kind);
+            }
+        }
+
+        return fields;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+        in.close();
+    }
+
+    private void addDictionaryValue(final XltCharBuffer value)
+    {
+        if (dictionarySize == dictionary.length)
+        {
+            dictionary = Arrays.copyOf(dictionary, dictionary.length * 2);
+        }
+        dictionary[dictionarySize++] = value;
+    }
+
+    private XltCharBuffer toCharBuffer(final long value)
+    {
+        if (value >= 0 && value < NUMBER_CACHE_SIZE)
+        {
+            final int i = (int) value;
+
+            XltCharBuffer b = numberCache[i];
+            if (b == null)
+            {
+                b = numberCache[i] = XltCharBuffer.valueOf(Integer.toString(i));
+            }
+
+            return b;
+        }
+
+        return XltCharBuffer.valueOf(Long.toString(value));
+    }
+
+    private XltCharBuffer readString() throws IOException
+    {
+        final int length = (int) readVarLong();
+        if (length > stringBytes.length)
+        {
+            stringBytes = new byte[Math.max(length, stringBytes.length * 2)];
+        }
+
+        for (int i = 0; i < length;)
+        {
+            if (bufferPos == bufferLength && !fill())
+            {
+                throw new EOFException("Unexpected end of binary record file");
+            }
+
+            final int n = Math.min(length - i, bufferLength - bufferPos);
+            System.arraycopy(buffer, bufferPos, stringBytes, i, n);
+            bufferPos += n;
+            i += n;
+        }
+
+        return XltCharBuffer.valueOf(new String(stringBytes, 0, length, StandardCharsets.UTF_8));
+    }
+
+    private void skipBytes(final long length) throws IOException
+    {
+        for (long i = 0; i < length;)
+        {
+            if (bufferPos == bufferLength && !fill())
+            {
+                throw new EOFException("Unexpected end of binary record file");
+            }
+
+            final int n = (int) Math.min(length - i, bufferLength - bufferPos);
+            bufferPos += n;
+            i += n;
+        }
+    }
+
+    private long readVarLong() throws IOException
+    {
+        long value = 0;
+        int shift = 0;
+
+        while (true)
+        {
+            final int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+
+            shift += 7;
+            if (shift > 63)
+            {
+                throw new IOException("Malformed varint");
+            }
+        }
+    }
+
+    private int readByte() throws IOException
+    {
+        if (bufferPos == bufferLength && !fill())
+        {
+            throw new EOFException("Unexpected end of binary record file");
+        }
+
+        return buffer[bufferPos++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException
+    {
+        final int read = in.readNBytes(buffer, 0, buffer.length);
+
+        bufferPos = 0;
+        bufferLength = read;
+
+        return read > 0;
+    }
+}
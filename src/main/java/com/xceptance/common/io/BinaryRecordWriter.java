@@ -0,0 +1,530 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.io;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes records of string fields in a compact binary format. Repeated values such as names, content types, or HTTP
+ * methods are dictionary-encoded, numbers are varint-encoded, and each record is length-prefixed. See
+ * {@link BinaryRecordFormat} for the details of the format. Use {@link BinaryRecordReader} to read the records back.
+ * <p>
+ * Closing the writer finishes the segment with a trailer, so readers can tell a complete file from one whose writer
+ * did not get the chance to write everything. Records are not flushed one by one, so make sure to close the writer.
+ * <p>
+ * Instances of this class are thread-safe.
+ *
+ * @since 8.1.0
+ */
+public class BinaryRecordWriter implements Closeable, Flushable
+{
+    /**
+     * Receives the fields of a record one after the other.
+     */
+    public interface Fields
+    {
+        /**
+         * Adds a field with the given value. A <code>null</code> value is stored as empty value.
+         *
+         * @param value
+         *            the value
+         */
+        public void add(CharSequence value);
+
+        /**
+         * Adds a field with the given number.
+         *
+         * @param value
+         *            the value
+         */
+        public void add(long value);
+    }
+
+    /**
+     * A record that adds its fields one after the other, without having to create a list of all field values first.
+     */
+    @FunctionalInterface
+    public interface Record
+    {
+        /**
+         * Adds the fields of this record.
+         *
+         * @param fields
+         *            the target to add the fields to
+         */
+        public void appendFields(Fields fields);
+    }
+
+    /**
+     * The stream to write to.
+     */
+    private final OutputStream out;
+
+    /**
+     * The number of records in the file before this writer started its segment, or -1 if the file was not complete.
+     */
+    private final long previousRecords;
+
+    /**
+     * The number of records written by this writer.
+     */
+    private long records;
+
+    /**
+     * The number of fields of the current record.
+     */
+    private int fieldCount;
+
+    /**
+     * Whether this writer has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Adds the fields of a {@link Record} to the current record.
+     */
+    private final Fields fields = new Fields()
+    {
+        @Override
+        public void add(final CharSequence value)
+        {
+            writeField(value);
+        }
+
+        @Override
+        public void add(final long value)
+        {
+            writeNumber(value);
+        }
+    };
+
+    /**
+     * The dictionary, maps a value to its index.
+     */
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    /**
+     * The reusable buffer holding the entries to be written for the current record.
+     */
+    private byte[] buffer = new byte[1024];
+
+    /**
+     * The reusable buffer holding the payload of the current record.
+     */
+    private byte[] payload = new byte[1024];
+
+    /**
+     * The number of bytes in {@link #buffer}.
+     */
+    private int bufferLength;
+
+    /**
+     * The number of bytes in {@link #payload}.
+     */
+    private int payloadLength;
+
+    /**
+     * Creates a new writer and writes the file header to the given stream. The stream is expected to start a new file.
+     *
+     * @param out
+     *            the stream to write to, should be buffered
+     * @throws IOException
+     *             if the header cannot be written
+     */
+    public BinaryRecordWriter(final OutputStream out) throws IOException
+    {
+        this(out, 0);
+    }
+
+    /**
+     * Creates a new writer that appends a new segment to the given file. The file is created if it does not exist yet.
+     *
+     * @param file
+     *            the file to write to
+     * @throws IOException
+     *             if the file cannot be opened or the header cannot be written
+     */
+    public BinaryRecordWriter(final Path file) throws IOException
+    {
+        this(new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024),
+             readPreviousRecords(file));
+    }
+
+    /**
+     * Creates a new writer and writes the segment header to the given stream.
+     *
+     * @param out
+     *            the stream to write to
+     * @param previousRecords
+     *            the number of records already in the file, or -1 if the file is not complete
+     * @throws IOException
+     *             if the header cannot be written
+     */
+    private BinaryRecordWriter(final OutputStream out, final long previousRecords) throws IOException
+    {
+        this.out = out;
+        this.previousRecords = previousRecords;
+
+        out.write(BinaryRecordFormat.MAGIC);
+        out.write(BinaryRecordFormat.VERSION);
+    }
+
+    /**
+     * Returns the number of records in the given file as recorded in its trailer.
+     *
+     * @param file
+     *            the file
+     * @return the number of records, 0 if the file does not exist or is empty, or -1 if the file is not complete
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    private static long readPreviousRecords(final Path file) throws IOException
+    {
+        if (!Files.exists(file))
+        {
+            return 0;
+        }
+
+        try (final SeekableByteChannel channel = Files.newByteChannel(file, StandardOpenOption.READ))
+        {
+            final long size = channel.size();
+            if (size == 0)
+            {
+                return 0;
+            }
+            if (size < BinaryRecordFormat.TRAILER_LENGTH)
+            {
+                return -1;
+            }
+
+            final ByteBuffer trailer = ByteBuffer.allocate(BinaryRecordFormat.TRAILER_LENGTH);
+            channel.position(size - BinaryRecordFormat.TRAILER_LENGTH);
+            while (trailer.hasRemaining() && channel.read(trailer) >= 0)
+            {
+                // keep reading
+            }
+
+            return BinaryRecordFormat.decodeTrailer(trailer.array(), 0);
+        }
+    }
+
+    /**
+     * Writes a record consisting of the given fields.
+     *
+     * @param fields
+     *            the fields of the record
+     * @throws IOException
+     *             if the record cannot be written
+     */
+    public synchronized void write(final List<? extends CharSequence> fields) throws IOException
+    {
+        startRecord();
+
+        final int size = fields.size();
+        for (int i = 0; i < size; i++)
+        {
+            writeField(fields.get(i));
+        }
+
+        finishRecord();
+    }
+
+    /**
+     * Writes the given record, which adds its fields directly.
+     *
+     * @param record
+     *            the record
+     * @throws IOException
+     *             if the record cannot be written
+     */
+    public synchronized void write(final Record record) throws IOException
+    {
+        startRecord();
+        record.appendFields(fields);
+        finishRecord();
+    }
+
+    /**
+     * Resets the buffers for a new record.
+     */
+    private void startRecord()
+    {
+        bufferLength = 0;
+        payloadLength = 0;
+        fieldCount = 0;
+    }
+
+    /**
+     * Writes the current record to the stream, preceded by any new dictionary entries.
+     *
+     * @throws IOException
+     *             if the record cannot be written
+     */
+    private void finishRecord() throws IOException
+    {
+        // append the record itself after any new dictionary entries
+        bufferByte(BinaryRecordFormat.TAG_RECORD);
+        bufferVarLong(varLongLength(fieldCount) + payloadLength);
+        bufferVarLong(fieldCount);
+        bufferBytes(payload, payloadLength);
+
+        out.write(buffer, 0, bufferLength);
+        records++;
+    }
+
+    /**
+     * Encodes a single number field.
+     *
+     * @param value
+     *            the field value
+     */
+    private void writeNumber(final long value)
+    {
+        fieldCount++;
+
+        payloadByte(BinaryRecordFormat.FIELD_NUMBER);
+        payloadVarLong(BinaryRecordFormat.encodeZigZag(value));
+    }
+
+    /**
+     * Encodes a single field.
+     *
+     * @param field
+     *            the field value
+     */
+    private void writeField(final CharSequence field)
+    {
+        fieldCount++;
+
+        final int length = field == null ? 0 : field.length();
+
+        if (length == 0)
+        {
+            payloadByte(BinaryRecordFormat.FIELD_EMPTY);
+        }
+        else if (isCanonicalNumber(field))
+        {
+            payloadByte(BinaryRecordFormat.FIELD_NUMBER);
+            payloadVarLong(BinaryRecordFormat.encodeZigZag(parseLong(field)));
+        }
+        else
+        {
+            final String value = field.toString();
+
+            Integer index = dictionary.get(value);
+            if (index == null && length <= BinaryRecordFormat.MAX_DICTIONARY_VALUE_LENGTH &&
+                dictionary.size() < BinaryRecordFormat.MAX_DICTIONARY_SIZE)
+            {
+                // define a new dictionary entry ahead of the record
+                index = dictionary.size();
+                dictionary.put(value, index);
+
+                final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                bufferByte(BinaryRecordFormat.TAG_STRING);
+                bufferVarLong(bytes.length);
+                bufferBytes(bytes, bytes.length);
+            }
+
+            if (index != null)
+            {
+                payloadByte(BinaryRecordFormat.FIELD_DICTIONARY);
+                payloadVarLong(index);
+            }
+            else
+            {
+                final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                payloadByte(BinaryRecordFormat.FIELD_LITERAL);
+                payloadVarLong(bytes.length);
+                payloadBytes(bytes, bytes.length);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void flush() throws IOException
+    {
+        out.flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        closed = true;
+
+        try
+        {
+            out.write(BinaryRecordFormat.encodeTrailer(previousRecords >= 0, Math.max(0, previousRecords) + records));
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    /**
+     * Checks whether the given value is an integer number that survives a round trip through a long, i.e. it has no
+     * leading zeros, no plus sign, and is not "-0".
+     *
+     * @param s
+     *            the value to check
+     * @return whether the value can be stored as number
+     */
+    static boolean isCanonicalNumber(final CharSequence s)
+    {
+        final int length = s.length();
+        final int start = s.charAt(0) == '-' ? 1 : 0;
+        final int digits = length - start;
+
+        // stay clear of overflows
+        if (digits == 0 || digits > 18)
+        {
+            return false;
+        }
+
+        final char first = s.charAt(start);
+        if (first == '0')
+        {
+            // only a plain zero is canonical
+            return length == 1;
+        }
+
+        for (int i = start; i < length; i++)
+        {
+            final char c = s.charAt(i);
+            if (c < '0' || c > '9')
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Parses a value previously checked by {@link #isCanonicalNumber(CharSequence)}.
+     *
+     * @param s
+     *            the value
+     * @return the number
+     */
+    private static long parseLong(final CharSequence s)
+    {
+        final int length = s.length();
+        final boolean negative = s.charAt(0) == '-';
+
+        long value = 0;
+        for (int i = negative ? 1 : 0; i < length; i++)
+        {
+            value = value * 10 + (s.charAt(i) - '0');
+        }
+
+        return negative ? -value : value;
+    }
+
+    private static int varLongLength(long value)
+    {
+        int length = 1;
+        while ((value & ~0x7FL) != 0)
+        {
+            length++;
+            value >>>= 7;
+        }
+
+        return length;
+    }
+
+    private void payloadByte(final int b)
+    {
+        if (payloadLength == payload.length)
+        {
+            payload = Arrays.copyOf(payload, payload.length * 2);
+        }
+        payload[payloadLength++] = (byte) b;
+    }
+
+    private void payloadBytes(final byte[] bytes, final int length)
+    {
+        if (payloadLength + length > payload.length)
+        {
+            payload = Arrays.copyOf(payload, Math.max(payload.length * 2, payloadLength + length));
+        }
+        System.arraycopy(bytes, 0, payload, payloadLength, length);
+        payloadLength += length;
+    }
+
+    private void payloadVarLong(long value)
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            payloadByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        payloadByte((int) value);
+    }
+
+    private void bufferByte(final int b)
+    {
+        if (bufferLength == buffer.length)
+        {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        buffer[bufferLength++] = (byte) b;
+    }
+
+    private void bufferBytes(final byte[] bytes, final int length)
+    {
+        if (bufferLength + length > buffer.length)
+        {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, bufferLength + length));
+        }
+        System.arraycopy(bytes, 0, buffer, bufferLength, length);
+        bufferLength += length;
+    }
+
+    private void bufferVarLong(long value)
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            bufferByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        bufferByte((int) value);
+    }
+}
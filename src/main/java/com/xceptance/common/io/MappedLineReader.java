@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.xceptance.xlt.api.util.XltCharBuffer;
+
+/**
+ * Reads the lines of a local, uncompressed UTF-8 text file by memory-mapping it. Compared to
+ * {@link XltBufferedLineReader}, this reader neither runs a charset decoder nor copies every line into its own array.
+ * Instead, line boundaries are determined on the byte level and all the ASCII lines of a batch are widened into one
+ * shared char array, with each line being a view into this array. Lines with non-ASCII characters are decoded
+ * separately.
+ * <p>
+ * Line terminators are handled the same way as by {@link XltBufferedLineReader}: "\n", "\r", and "\r\n".
+ *
+ * @since 8.1.0
+ */
+public class MappedLineReader implements Closeable
+{
+    /**
+     * The maximum size of a mapped region. Lines must not be longer than this.
+     */
+    private static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The channel of the file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The file size.
+     */
+    private final long fileSize;
+
+    /**
+     * The maximum size of a mapped region.
+     */
+    private final int regionSize;
+
+    /**
+     * The currently mapped region.
+     */
+    private MappedByteBuffer region;
+
+    /**
+     * The file position of the first byte of the mapped region.
+     */
+    private long regionStart;
+
+    /**
+     * The read position within the mapped region.
+     */
+    private int pos;
+
+    /**
+     * Whether the next batch has to start with a new region, because the current one ends within a line.
+     */
+    private boolean remapNeeded;
+
+    /**
+     * The start/end positions of the lines of the current batch, reused between calls.
+     */
+    private int[] lineBounds = new int[2 * 256];
+
+    /**
+     * Creates a new reader for the given file.
+     *
+     * @param file
+     *            the file to read
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public MappedLineReader(final Path file) throws IOException
+    {
+        this(file, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Creates a new reader for the given file.
+     *
+     * @param file
+     *            the file to read
+     * @param regionSize
+     *            the maximum size of a mapped region
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public MappedLineReader(final Path file, final int regionSize) throws IOException
+    {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * Reads up to the given number of lines and adds them to the target list.
+     *
+     * @param target
+     *            the list to add the lines to
+     * @param maxLines
+     *            the maximum number of lines to read
+     * @return the number of lines read, 0 if the end of the file has been reached
+     * @throws IOException
+     *             if the file cannot be read or a line is longer than the region size
+     */
+    public int readLines(final List<XltCharBuffer> target, final int maxLines) throws IOException
+    {
+        if (region == null)
+        {
+            mapRegion(0);
+        }
+        else if (remapNeeded || (pos == region.limit() && regionStart + pos < fileSize))
+        {
+            mapRegion(regionStart + pos);
+        }
+        remapNeeded = false;
+
+        if (lineBounds.length < 2 * maxLines)
+        {
+            lineBounds = new int[2 * maxLines];
+        }
+
+        // first pass: determine the line boundaries and the total number of ASCII chars
+        int lines = 0;
+        int asciiChars = 0;
+
+        while (lines < maxLines)
+        {
+            final int limit = region.limit();
+            final boolean lastRegion = regionStart + limit == fileSize;
+
+            if (pos == limit)
+            {
+                break;
+            }
+
+            // scan the line
+            int i = pos;
+            int nonAscii = 0;
+            byte b = 0;
+            while (i < limit && (b = region.get(i)) != '\n' && b != '\r')
+            {
+                nonAscii |= b;
+                i++;
+            }
+
+            // the line is complete only if its terminator (including a potential "\r\n") is in the mapped region
+            final boolean complete = lastRegion || (i < limit - 1) || (i == limit - 1 && b == '\n');
+            if (!complete)
+            {
+                if (lines > 0)
+                {
+                    // deliver what we have so far, the next call continues with a new region
+                    remapNeeded = true;
+                    break;
+                }
+
+                if (pos == 0)
+                {
+                    throw new IOException(String.format("Line at file position %,d is too long", regionStart));
+                }
+
+                mapRegion(regionStart + pos);
+                continue;
+            }
+
+            lineBounds[2 * lines] = pos;
+            lineBounds[2 * lines + 1] = nonAscii < 0 ? ~i : i;
+            if (nonAscii >= 0)
+            {
+                asciiChars += i - pos;
+            }
+            lines++;
+
+            // skip the line terminator
+            pos = i;
+            if (pos < limit)
+            {
+                pos++;
+                if (b == '\r' && pos < limit && region.get(pos) == '\n')
+                {
+                    pos++;
+                }
+            }
+        }
+
+        // second pass: create the line buffers
+        final char[] chars = new char[asciiChars];
+        int charPos = 0;
+
+        for (int l = 0; l < lines; l++)
+        {
+            final int start = lineBounds[2 * l];
+            final int end = lineBounds[2 * l + 1];
+
+            if (end < 0)
+            {
+                // non-ASCII line, decode it separately
+                final byte[] bytes = new byte[~end - start];
+                final ByteBuffer view = region.duplicate();
+                view.position(start);
+                view.get(bytes);
+
+                target.add(XltCharBuffer.valueOf(new String(bytes, StandardCharsets.UTF_8)));
+            }
+            else
+            {
+                final int length = end - start;
+                for (int i = 0; i < length; i++)
+                {
+                    chars[charPos + i] = (char) region.get(start + i);
+                }
+
+                target.add(new XltCharBuffer(chars, charPos, length));
+                charPos += length;
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Maps the region starting at the given file position.
+     *
+     * @param start
+     *            the file position
+     * @throws IOException
+     *             if the region cannot be mapped
+     */
+    private void mapRegion(final long start) throws IOException
+    {
+        final long size = Math.min(regionSize, fileSize - start);
+
+        region = channel.map(MapMode.READ_ONLY, start, size);
+        regionStart = start;
+        pos = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+        region = null;
+        channel.close();
+    }
+}
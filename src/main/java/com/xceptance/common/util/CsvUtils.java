@@ -260,7 +260,25 @@ public final class CsvUtils
      */
     public static StringBuilder encode(final List<String> fields, final char fieldSeparator)
     {
-        final StringBuilder result = new StringBuilder(256);
+        return encode(fields, fieldSeparator, new StringBuilder(256));
+    }
+
+    /**
+     * Encodes the given fields to a CSV-encoded data record and appends it to the given target. In contrast to
+     * {@link #encode(List, char)}, no temporary objects are created, so a caller can reuse the same target over and
+     * over again.
+     *
+     * @param fields
+     *            the plain fields
+     * @param fieldSeparator
+     *            the field separator to use
+     * @param target
+     *            the builder to append the CSV-encoded data record to
+     * @return the target
+     * @since 8.1.0
+     */
+    public static StringBuilder encode(final List<String> fields, final char fieldSeparator, final StringBuilder target)
+    {
         final int length = fields.size();
 
         for (int i = 0; i < length; i++)
@@ -275,14 +293,60 @@ public final class CsvUtils
             // first append the separator except for the first entry
             if (i != 0)
             {
-                result.append(fieldSeparator);
+                target.append(fieldSeparator);
             }
 
             // now add the encoded field
-            result.append(encodeField(field, fieldSeparator));
+            encodeField(field, fieldSeparator, target);
+        }
+
+        return target;
+    }
+
+    /**
+     * Encodes one field of the data record and appends it to the given target.
+     *
+     * @param s
+     *            the plain field
+     * @param fieldSeparator
+     *            the field separator character
+     * @param target
+     *            the builder to append the encoded field to
+     * @return the target
+     * @since 8.1.0
+     */
+    public static StringBuilder encodeField(final CharSequence s, final char fieldSeparator, final StringBuilder target)
+    {
+        final int sourceLength = s.length();
+
+        // check whether we have to quote at all
+        boolean needsQuoting = false;
+        for (int i = 0; i < sourceLength && !needsQuoting; i++)
+        {
+            needsQuoting = needsQuote(s.charAt(i), fieldSeparator);
+        }
+
+        if (!needsQuoting)
+        {
+            return target.append(s);
+        }
+
+        // quote
+        target.append(QUOTE_CHAR);
+        for (int i = 0; i < sourceLength; i++)
+        {
+            final char c = s.charAt(i);
+
+            if (c == QUOTE_CHAR)
+            {
+                // add another quote
+                target.append(c);
+            }
+
+            target.append(c);
         }
 
-        return result;
+        return target.append(QUOTE_CHAR);
     }
 
     /**
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.util.concurrent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Creates virtual threads if the Java runtime supports them (Java 21+). Since XLT is built for older Java versions as
+ * well, the virtual thread API is looked up at runtime.
+ */
+public final class VirtualThreads
+{
+    /**
+     * Creates a new virtual thread builder, i.e. <code>Thread.ofVirtual()</code>. Is <code>null</code> if virtual
+     * threads are not supported.
+     */
+    private static final MethodHandle OF_VIRTUAL;
+
+    /**
+     * Sets the name of the next thread created by a builder, i.e. <code>Thread.Builder.name(String)</code>.
+     */
+    private static final MethodHandle NAME;
+
+    /**
+     * Creates an unstarted thread with a builder, i.e. <code>Thread.Builder.unstarted(Runnable)</code>.
+     */
+    private static final MethodHandle UNSTARTED;
+
+    /**
+     * Checks whether a thread is virtual, i.e. <code>Thread.isVirtual()</code>.
+     */
+    private static final MethodHandle IS_VIRTUAL;
+
+    static
+    {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle unstarted = null;
+        MethodHandle isVirtual = null;
+
+        try
+        {
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Class<?> virtualBuilderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(virtualBuilderClass));
+            name = lookup.findVirtual(virtualBuilderClass, "name", MethodType.methodType(virtualBuilderClass, String.class));
+            unstarted = lookup.findVirtual(builderClass, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+            isVirtual = lookup.findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        }
+        catch (final ReflectiveOperationException e)
+        {
+            // virtual threads are not supported by this Java runtime
+            ofVirtual = null;
+        }
+
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+        IS_VIRTUAL = isVirtual;
+    }
+
+    /**
+     * Private constructor to avoid object instantiation.
+     */
+    private VirtualThreads()
+    {
+    }
+
+    /**
+     * Returns whether the Java runtime supports virtual threads.
+     *
+     * @return whether virtual threads are supported
+     */
+    public static boolean isSupported()
+    {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Returns whether the given thread is a virtual thread.
+     *
+     * @param thread
+     *            the thread to check
+     * @return whether the thread is virtual
+     */
+    public static boolean isVirtual(final Thread thread)
+    {
+        if (IS_VIRTUAL == null)
+        {
+            return false;
+        }
+
+        try
+        {
+            return (boolean) IS_VIRTUAL.invoke(thread);
+        }
+        catch (final Throwable t)
+        {
+            throw new IllegalStateException("Failed to check whether thread is virtual", t);
+        }
+    }
+
+    /**
+     * Creates a new, not yet started virtual thread. Virtual threads are always daemon threads.
+     *
+     * @param name
+     *            the thread name
+     * @param runnable
+     *            the code to run
+     * @return the thread
+     * @throws UnsupportedOperationException
+     *             if virtual threads are not supported
+     */
+    public static Thread newThread(final String name, final Runnable runnable)
+    {
+        if (!isSupported())
+        {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+        }
+
+        try
+        {
+            final Object builder = NAME.invoke(OF_VIRTUAL.invoke(), name);
+
+            return (Thread) UNSTARTED.invoke(builder, runnable);
+        }
+        catch (final Throwable t)
+        {
+            throw new IllegalStateException("Failed to create virtual thread", t);
+        }
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} that creates virtual threads.
+     *
+     * @param nameGenerator
+     *            a name generator that is given an int and it shall return a name
+     * @return the thread factory
+     * @throws UnsupportedOperationException
+     *             if virtual threads are not supported
+     */
+    public static ThreadFactory newThreadFactory(final IntFunction<String> nameGenerator)
+    {
+        if (!isSupported())
+        {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+        }
+
+        final AtomicInteger count = new AtomicInteger();
+
+        return runnable -> newThread(nameGenerator.apply(count.getAndIncrement()), runnable);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.util.zip;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.input.BoundedInputStream;
+
+/**
+ * The index of a file written by {@link BlockGzipOutputStream}. The index is built by hopping from member header to
+ * member header without decompressing anything. Each member can then be decompressed independently of the others.
+ *
+ * @since 8.1.0
+ */
+public class BlockGzipIndex
+{
+    /**
+     * A single GZIP member of a block GZIP file.
+     */
+    public static class Member
+    {
+        /**
+         * The file offset of the member.
+         */
+        public final long offset;
+
+        /**
+         * The total size of the member.
+         */
+        public final int size;
+
+        /**
+         * The number of the first line in this member, starting at 1.
+         */
+        public final long firstLine;
+
+        /**
+         * The number of lines in this member.
+         */
+        public final int lineCount;
+
+        Member(final long offset, final int size, final long firstLine, final int lineCount)
+        {
+            this.offset = offset;
+            this.size = size;
+            this.firstLine = firstLine;
+            this.lineCount = lineCount;
+        }
+    }
+
+    /**
+     * The indexed file.
+     */
+    private final Path file;
+
+    /**
+     * The members of the file.
+     */
+    private final List<Member> members;
+
+    private BlockGzipIndex(final Path file, final List<Member> members)
+    {
+        this.file = file;
+        this.members = Collections.unmodifiableList(members);
+    }
+
+    /**
+     * Builds the index of the given file.
+     *
+     * @param file
+     *            the file
+     * @return the index, or <code>null</code> if the file was not written as block GZIP
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public static BlockGzipIndex read(final Path file) throws IOException
+    {
+        final List<Member> members = new ArrayList<>();
+
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            final long fileSize = channel.size();
+            final ByteBuffer header = ByteBuffer.allocate(BlockGzipOutputStream.HEADER_SIZE);
+
+            long offset = 0;
+            long line = 1;
+            while (offset < fileSize)
+            {
+                header.clear();
+                while (header.hasRemaining() && channel.read(header, offset + header.position()) > 0)
+                {
+                    // read fully
+                }
+
+                if (header.hasRemaining() || !isBlockHeader(header.array()))
+                {
+                    // a plain GZIP file or a corrupt one, let the caller fall back to sequential reading
+                    return null;
+                }
+
+                final int size = readInt(header.array(), 16);
+                final int lines = readInt(header.array(), 20);
+                if (size <= BlockGzipOutputStream.HEADER_SIZE || offset + size > fileSize)
+                {
+                    return null;
+                }
+
+                members.add(new Member(offset, size, line, lines));
+
+                offset += size;
+                line += lines;
+            }
+        }
+
+        return new BlockGzipIndex(file, members);
+    }
+
+    /**
+     * Returns the members of the file.
+     *
+     * @return the members
+     */
+    public List<Member> getMembers()
+    {
+        return members;
+    }
+
+    /**
+     * Opens a stream that returns the decompressed data of the given member.
+     *
+     * @param member
+     *            the member
+     * @return the stream
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public InputStream open(final Member member) throws IOException
+    {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        channel.position(member.offset);
+
+        return new GZIPInputStream(new BoundedInputStream(Channels.newInputStream(channel), member.size), 16 * 1024);
+    }
+
+    private static boolean isBlockHeader(final byte[] b)
+    {
+        return (b[0] & 0xFF) == 0x1f && (b[1] & 0xFF) == 0x8b && b[3] == 4 && readShort(b, 10) == 12 &&
+               b[12] == BlockGzipOutputStream.SUBFIELD_ID1 && b[13] == BlockGzipOutputStream.SUBFIELD_ID2 && readShort(b, 14) == 8;
+    }
+
+    private static int readShort(final byte[] b, final int pos)
+    {
+        return (b[pos] & 0xFF) | ((b[pos + 1] & 0xFF) << 8);
+    }
+
+    private static int readInt(final byte[] b, final int pos)
+    {
+        return readShort(b, pos) | (readShort(b, pos + 2) << 16);
+    }
+}
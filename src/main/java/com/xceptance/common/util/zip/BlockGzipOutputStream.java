@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.util.zip;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes line-oriented text as a sequence of independent GZIP members ("block GZIP"), similar to BGZF. Each member
+ * holds a number of complete lines of roughly the configured block size. The header of each member carries an extra
+ * field with the total size of the member and the number of lines in it, so that readers can build an index of the
+ * file cheaply and decompress the members in parallel (see {@link BlockGzipIndex}).
+ * <p>
+ * The result is a valid GZIP file that can be read by any standard GZIP reader.
+ *
+ * @since 8.1.0
+ */
+public class BlockGzipOutputStream extends OutputStream
+{
+    /**
+     * The first subfield ID byte of our extra field.
+     */
+    static final int SUBFIELD_ID1 = 'X';
+
+    /**
+     * The second subfield ID byte of our extra field.
+     */
+    static final int SUBFIELD_ID2 = 'L';
+
+    /**
+     * The size of a member header including our extra field.
+     */
+    static final int HEADER_SIZE = 24;
+
+    /**
+     * The size of a member trailer.
+     */
+    static final int TRAILER_SIZE = 8;
+
+    /**
+     * The default uncompressed size of a block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * The stream to write to.
+     */
+    private final OutputStream out;
+
+    /**
+     * The uncompressed size of a block.
+     */
+    private final int blockSize;
+
+    /**
+     * The uncompressed data not written yet.
+     */
+    private byte[] buffer;
+
+    /**
+     * The number of bytes in the buffer.
+     */
+    private int bufferLength;
+
+    /**
+     * The buffer for the compressed data of a member.
+     */
+    private byte[] compressed;
+
+    /**
+     * The deflater, reused for all members.
+     */
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+
+    /**
+     * The checksum, reused for all members.
+     */
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Whether this stream was closed already.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new stream with the default block size.
+     *
+     * @param out
+     *            the stream to write to
+     */
+    public BlockGzipOutputStream(final OutputStream out)
+    {
+        this(out, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a new stream.
+     *
+     * @param out
+     *            the stream to write to
+     * @param blockSize
+     *            the uncompressed size of a block
+     */
+    public BlockGzipOutputStream(final OutputStream out, final int blockSize)
+    {
+        this.out = out;
+        this.blockSize = Math.max(1, blockSize);
+        this.buffer = new byte[this.blockSize + 8192];
+        this.compressed = new byte[this.blockSize / 2 + 1024];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final int b) throws IOException
+    {
+        write(new byte[]
+            {
+                (byte) b
+            }, 0, 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException
+    {
+        if (bufferLength + len > buffer.length)
+        {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, bufferLength + len));
+        }
+
+        System.arraycopy(b, off, buffer, bufferLength, len);
+        bufferLength += len;
+
+        while (bufferLength >= blockSize)
+        {
+            // cut the block at the last line end
+            int end = bufferLength - 1;
+            while (end >= 0 && buffer[end] != '\n')
+            {
+                end--;
+            }
+
+            if (end < 0)
+            {
+                // no complete line yet, wait for more data
+                break;
+            }
+
+            writeMember(end + 1);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (!closed)
+        {
+            closed = true;
+
+            try
+            {
+                if (bufferLength > 0)
+                {
+                    writeMember(bufferLength);
+                }
+                out.close();
+            }
+            finally
+            {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Compresses the given number of bytes from the start of the buffer to a new member and removes them from the
+     * buffer.
+     *
+     * @param length
+     *            the number of bytes
+     * @throws IOException
+     *             if the member cannot be written
+     */
+    private void writeMember(final int length) throws IOException
+    {
+        // count the lines, a last line without terminator counts as well
+        int lines = 0;
+        for (int i = 0; i < length; i++)
+        {
+            if (buffer[i] == '\n')
+            {
+                lines++;
+            }
+        }
+        if (buffer[length - 1] != '\n')
+        {
+            lines++;
+        }
+
+        // compress
+        deflater.reset();
+        deflater.setInput(buffer, 0, length);
+        deflater.finish();
+
+        int compressedLength = 0;
+        while (!deflater.finished())
+        {
+            if (compressedLength == compressed.length)
+            {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+
+        crc.reset();
+        crc.update(buffer, 0, length);
+
+        final int memberSize = HEADER_SIZE + compressedLength + TRAILER_SIZE;
+
+        // header with our extra field
+        final byte[] header = new byte[HEADER_SIZE];
+        header[0] = (byte) 0x1f;
+        header[1] = (byte) 0x8b;
+        header[2] = Deflater.DEFLATED;
+        header[3] = 4; // FEXTRA
+        // MTIME (4 bytes) and XFL stay 0
+        header[9] = (byte) 255; // OS unknown
+        writeShort(header, 10, 12); // XLEN
+        header[12] = SUBFIELD_ID1;
+        header[13] = SUBFIELD_ID2;
+        writeShort(header, 14, 8); // SLEN
+        writeInt(header, 16, memberSize);
+        writeInt(header, 20, lines);
+
+        final byte[] trailer = new byte[TRAILER_SIZE];
+        writeInt(trailer, 0, (int) crc.getValue());
+        writeInt(trailer, 4, length);
+
+        out.write(header);
+        out.write(compressed, 0, compressedLength);
+        out.write(trailer);
+
+        // keep the rest
+        System.arraycopy(buffer, length, buffer, 0, bufferLength - length);
+        bufferLength -= length;
+    }
+
+    private static void writeShort(final byte[] b, final int pos, final int value)
+    {
+        b[pos] = (byte) value;
+        b[pos + 1] = (byte) (value >>> 8);
+    }
+
+    private static void writeInt(final byte[] b, final int pos, final int value)
+    {
+        writeShort(b, pos, value & 0xFFFF);
+        writeShort(b, pos + 2, value >>> 16);
+    }
+}
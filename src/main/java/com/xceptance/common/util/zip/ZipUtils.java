@@ -22,6 +22,7 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
@@ -317,8 +318,58 @@ public final class ZipUtils
      *             if an I/O error occurs
      */
     public static void unzipFile(final File zipFile, final File directory, final boolean compressedTimerFiles) throws IOException
+    {
+        unzipFile(zipFile, directory, compressedTimerFiles, 0);
+    }
+
+    /**
+     * Unzips the given ZIP file to the specified directory. If the directory does not exist yet, it will be created.
+     * Depending on the parameters, timers files are stored to disk either in plain or in compressed form (gzipped). CSV
+     * timer files may be compressed as block GZIP (see {@link BlockGzipOutputStream}), which allows readers to
+     * decompress them in parallel.
+     * 
+     * @param zipFile
+     *            the zip file
+     * @param directory
+     *            the target directory
+     * @param compressedTimerFiles
+     *            do we want to keep the timers in a compressed form
+     * @param timerFileBlockSize
+     *            the uncompressed block size when compressing CSV timer files as block GZIP, or 0 for plain GZIP
+     * @throws java.io.IOException
+     *             if an I/O error occurs
+     */
+    public static void unzipFile(final File zipFile, final File directory, final boolean compressedTimerFiles,
+                                 final int timerFileBlockSize)
+        throws IOException
     {
         ParameterCheckUtils.isReadableFile(zipFile, "zipFile");
+
+        unzip(new FileInputStream(zipFile), directory, compressedTimerFiles, timerFileBlockSize);
+    }
+
+    /**
+     * Unzips the ZIP data read from the given stream to the specified directory. If the directory does not exist yet,
+     * it will be created. The entries are extracted while the data is being read, so the ZIP data does not need to be
+     * available as a file. Timer files are treated as described in
+     * {@link #unzipFile(File, File, boolean, int)}. The stream is closed when done.
+     * 
+     * @param inputStream
+     *            the stream to read the ZIP data from
+     * @param directory
+     *            the target directory
+     * @param compressedTimerFiles
+     *            do we want to keep the timers in a compressed form
+     * @param timerFileBlockSize
+     *            the uncompressed block size when compressing CSV timer files as block GZIP, or 0 for plain GZIP
+     * @throws java.io.IOException
+     *             if an I/O error occurs
+     */
+    public static void unzip(final InputStream inputStream, final File directory, final boolean compressedTimerFiles,
+                             final int timerFileBlockSize)
+        throws IOException
+    {
+        ParameterCheckUtils.isNotNull(inputStream, "inputStream");
         ParameterCheckUtils.isNotNull(directory, "directory");
 
         // make sure the target directory is available
@@ -327,8 +378,8 @@ public final class ZipUtils
             directory.mkdirs();
         }
 
-        // unzip the zip file
-        try (final ZipInputStream in = new ZipInputStream(new FileInputStream(zipFile)))
+        // unzip the zip data
+        try (final ZipInputStream in = new ZipInputStream(inputStream))
         {
             ZipEntry entry = null;
             while ((entry = in.getNextEntry()) != null)
@@ -341,9 +392,13 @@ public final class ZipUtils
                 }
                 else
                 {
+                    // not every archive has entries for the parent directories
+                    FileUtils.forceMkdirParent(file);
+
                     // do we want to store the timers compressed
                     File compressedFile = null;
                     boolean compressIt = false;
+                    boolean compressAsBlocks = false;
 
                     // shall we compress timers?
                     if (compressedTimerFiles)
@@ -353,18 +408,24 @@ public final class ZipUtils
 
                         boolean b1 = XltConstants.TIMER_FILENAME_PATTERNS.stream().anyMatch(p -> p.asPredicate().test(fileName));
                         boolean b2 = XltConstants.CPT_TIMER_FILENAME_PATTERNS.stream().anyMatch(p -> p.asPredicate().test(fileName));
+                        boolean b3 = XltConstants.TIMER_BINARY_FILENAME_PATTERNS.stream().anyMatch(p -> p.asPredicate().test(fileName));
 
                         // one pattern matched
-                        if (b1 || b2)
+                        if (b1 || b2 || b3)
                         {
                             // determine the new name
                             compressedFile = new File(directory, entry.getName() + ".gz");
                             compressIt = true; // indicate the need for compression
+
+                            // only line-based CSV files can be split into blocks
+                            compressAsBlocks = timerFileBlockSize > 0 && !b3;
                         }
                     }
 
-                    try (final OutputStream out = compressIt ? new GZIPOutputStream(new FileOutputStream(compressedFile))
-                                                             : new FileOutputStream(file))
+                    try (final OutputStream out = compressAsBlocks ? new BlockGzipOutputStream(new BufferedOutputStream(new FileOutputStream(compressedFile)),
+                                                                                               timerFileBlockSize)
+                                                                   : compressIt ? new GZIPOutputStream(new FileOutputStream(compressedFile))
+                                                                                : new FileOutputStream(file))
                     {
                         // cannot use this as it DOES close the input stream
                         // FileUtils.copyToFile(in, file);
@@ -20,8 +20,10 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
@@ -47,6 +49,12 @@ public final class XSLTUtils
      */
     private TransformerFactory factory = TransformerFactory.newInstance();
 
+    /**
+     * The compiled style sheets, keyed by the style sheet's path and last modification time. Compiled style sheets are
+     * thread-safe and can be used for any number of transformations.
+     */
+    private final Map<String, Templates> templatesCache = new ConcurrentHashMap<>();
+
     /**
      * Default constructor. Private to prevent external instantiation.
      */
@@ -77,6 +85,39 @@ public final class XSLTUtils
     private synchronized void setFactory(final TransformerFactory factory)
     {
         this.factory = factory;
+        templatesCache.clear();
+    }
+
+    /**
+     * Returns the compiled form of the given style sheet, compiling it if not done yet or if the style sheet has been
+     * modified in the meantime.
+     *
+     * @param styleSheet
+     *            style sheet file
+     * @return the compiled style sheet
+     * @throws TransformerException
+     *             if the style sheet cannot be compiled
+     */
+    private Templates getTemplates(final File styleSheet) throws TransformerException
+    {
+        final String key = styleSheet.getAbsolutePath() + ":" + styleSheet.lastModified();
+
+        Templates templates = templatesCache.get(key);
+        if (templates == null)
+        {
+            // transformer factories are not thread-safe
+            synchronized (this)
+            {
+                templates = templatesCache.get(key);
+                if (templates == null)
+                {
+                    templates = factory.newTemplates(new StreamSource(styleSheet));
+                    templatesCache.put(key, templates);
+                }
+            }
+        }
+
+        return templates;
     }
 
     /**
@@ -100,11 +141,36 @@ public final class XSLTUtils
     {
         // parameter check
         ParameterCheckUtils.isReadableFile(in, "inputXmlFile");
+
+        doTransform(new StreamSource(in), out, styleSheet, parameters);
+    }
+
+    /**
+     * Performs the XML transformation.
+     *
+     * @param xmlSource
+     *            the input source
+     * @param out
+     *            output file
+     * @param styleSheet
+     *            style sheet file
+     * @param parameters
+     *            the key/value pairs to be passed as parameters to the style sheet
+     * @throws FileNotFoundException
+     *             if the output file cannot be (re-)created
+     * @throws TransformerException
+     *             if a transformation error occurs
+     */
+    private void doTransform(final Source xmlSource, final File out, final File styleSheet, final Map<String, Object> parameters)
+        throws FileNotFoundException, TransformerException
+    {
+        // parameter check
+        ParameterCheckUtils.isNotNull(xmlSource, "xmlSource");
         ParameterCheckUtils.isReadableFile(styleSheet, "xsltStyleSheet");
         ParameterCheckUtils.isWritableFile(out, "outputFile");
 
         // create the transformer and set any parameters
-        final Transformer transformer = factory.newTransformer(new StreamSource(styleSheet));
+        final Transformer transformer = getTemplates(styleSheet).newTransformer();
 
         if (parameters != null)
         {
@@ -119,8 +185,6 @@ public final class XSLTUtils
 
         try
         {
-            final Source xmlSource = new StreamSource(in);
-
             fos = new FileOutputStream(out);
             final StreamResult result = new StreamResult(fos);
 
@@ -16,11 +16,14 @@
 package com.xceptance.xlt.agent;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
 
 import com.xceptance.xlt.engine.SessionImpl;
+import com.xceptance.xlt.engine.UserThreadGroup;
 
 /**
  * An {@link AbstractExecutionTimer} delays the load test threads between two invocations of a test case by a certain
@@ -41,9 +44,11 @@ public abstract class AbstractExecutionTimer
     private final Collection<Thread> waitingThreads;
 
     /**
-     * The collection of threads that have ever registered for waiting with this execution timer.
+     * The threads that have ever registered for waiting with this execution timer, mapped to the thread group of the
+     * user they run. This is not necessarily the thread's own thread group, for example if the user runs on a virtual
+     * thread.
      */
-    private final Collection<Thread> knownThreads;
+    private final Map<Thread, ThreadGroup> knownThreads;
 
     /**
      * Creates a new {@link AbstractExecutionTimer} instance.
@@ -60,7 +65,7 @@ public abstract class AbstractExecutionTimer
     protected AbstractExecutionTimer(final String userTypeName, final long initialDelay, final long duration, final int shutdownPeriod)
     {
         waitingThreads = new HashSet<Thread>();
-        knownThreads = new HashSet<Thread>();
+        knownThreads = new HashMap<Thread, ThreadGroup>();
 
         if (duration > 0)
         {
@@ -93,7 +98,7 @@ public abstract class AbstractExecutionTimer
      */
     public Collection<Thread> getThreads()
     {
-        return knownThreads;
+        return knownThreads.keySet();
     }
 
     /**
@@ -113,7 +118,7 @@ public abstract class AbstractExecutionTimer
     {
         final Thread t = Thread.currentThread();
         waitingThreads.add(t);
-        knownThreads.add(t);
+        knownThreads.put(t, UserThreadGroup.get());
     }
 
     /**
@@ -131,7 +136,7 @@ public abstract class AbstractExecutionTimer
     public synchronized void stop()
     {
         stopped = true;
-        stopThreads(knownThreads);
+        stopThreads(knownThreads.keySet());
     }
 
     /**
@@ -218,7 +223,9 @@ public abstract class AbstractExecutionTimer
             else
             {
                 // the thread is currently executing a test case -> just mark its session as expired
-                final SessionImpl sessionImpl = SessionImpl.getSessionForThread(thread);
+                final ThreadGroup userThreadGroup = knownThreads.get(thread);
+                final SessionImpl sessionImpl = userThreadGroup != null ? SessionImpl.getSessionForThreadGroup(userThreadGroup)
+                                                                        : SessionImpl.getSessionForThread(thread);
 
                 // check for a valid session -> if the thread died in between, there will be no session any longer
                 if (sessionImpl != null)
@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import com.xceptance.xlt.agentcontroller.TestUserConfiguration;
+import com.xceptance.xlt.api.util.XltProperties;
 
 /**
  * The ExecutionTimerFactory creates different ExecutionTimer instances depending on the creation parameters. Note that
@@ -28,6 +29,7 @@ import com.xceptance.xlt.agentcontroller.TestUserConfiguration;
  * test threads running this type of test.
  * 
  * @see PeriodicExecutionTimer
+ * @see OpenWorkloadExecutionTimer
  * @see RandomExecutionTimer
  * @author Jörg Werner (Xceptance Software Technologies GmbH)
  */
@@ -79,6 +81,11 @@ public abstract class ExecutionTimerFactory
             {
                 executionTimer = new RandomExecutionTimer(userTypeName, initialDelay, duration, shutdownPeriod, users, agentIndex);
             }
+            else if (duration > 0 && XltProperties.getInstance().getProperty(OpenWorkloadExecutionTimer.PROP_ENABLED, false))
+            {
+                executionTimer = new OpenWorkloadExecutionTimer(userTypeName, initialDelay, warmUpPeriod, duration, shutdownPeriod,
+                                                                arrivalRates, agentIndex, config.getWeightFunction());
+            }
             else
             {
                 executionTimer = new PeriodicExecutionTimer(userTypeName, initialDelay, duration, shutdownPeriod, arrivalRates, agentIndex,
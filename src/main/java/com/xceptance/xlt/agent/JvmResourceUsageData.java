@@ -17,6 +17,7 @@ package com.xceptance.xlt.agent;
 
 import java.util.List;
 
+import com.xceptance.common.io.BinaryRecordWriter;
 import com.xceptance.common.lang.ParseNumbers;
 import com.xceptance.xlt.api.engine.AbstractData;
 import com.xceptance.xlt.api.util.XltCharBuffer;
@@ -550,6 +551,72 @@ public class JvmResourceUsageData extends AbstractData
         return fields;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void appendCsvValues(final StringBuilder target)
+    {
+        super.appendCsvValues(target);
+
+        appendCsvField(target, cpuUsage);
+        appendCsvField(target, committedMemorySize);
+        appendCsvField(target, memoryUsage);
+        appendCsvField(target, usedHeapSize);
+        appendCsvField(target, totalHeapSize);
+        appendCsvField(target, heapUsage);
+
+        appendCsvField(target, runnableThreadCount);
+        appendCsvField(target, blockedThreadCount);
+        appendCsvField(target, waitingThreadCount);
+
+        appendCsvField(target, minorGcCount);
+        appendCsvField(target, minorGcTime);
+        appendCsvField(target, minorGcCpuUsage);
+        appendCsvField(target, fullGcCount);
+        appendCsvField(target, fullGcTime);
+        appendCsvField(target, fullGcCpuUsage);
+        appendCsvField(target, minorGcTimeDiff);
+        appendCsvField(target, fullGcTimeDiff);
+        appendCsvField(target, minorGcCountDiff);
+        appendCsvField(target, fullGcCountDiff);
+
+        appendCsvField(target, totalCpuUsage);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void appendBinaryValues(final BinaryRecordWriter.Fields fields)
+    {
+        super.appendBinaryValues(fields);
+
+        appendBinaryField(fields, cpuUsage);
+        appendBinaryField(fields, committedMemorySize);
+        appendBinaryField(fields, memoryUsage);
+        appendBinaryField(fields, usedHeapSize);
+        appendBinaryField(fields, totalHeapSize);
+        appendBinaryField(fields, heapUsage);
+
+        appendBinaryField(fields, runnableThreadCount);
+        appendBinaryField(fields, blockedThreadCount);
+        appendBinaryField(fields, waitingThreadCount);
+
+        appendBinaryField(fields, minorGcCount);
+        appendBinaryField(fields, minorGcTime);
+        appendBinaryField(fields, minorGcCpuUsage);
+        appendBinaryField(fields, fullGcCount);
+        appendBinaryField(fields, fullGcTime);
+        appendBinaryField(fields, fullGcCpuUsage);
+        appendBinaryField(fields, minorGcTimeDiff);
+        appendBinaryField(fields, fullGcTimeDiff);
+        appendBinaryField(fields, minorGcCountDiff);
+        appendBinaryField(fields, fullGcCountDiff);
+
+        appendBinaryField(fields, totalCpuUsage);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -16,10 +16,16 @@
 package com.xceptance.xlt.agent;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.TimerTask;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.xceptance.common.util.TimerUtils;
+import com.xceptance.common.util.concurrent.VirtualThreads;
 import com.xceptance.xlt.agentcontroller.AgentStatus;
 import com.xceptance.xlt.agentcontroller.TestUserConfiguration;
 import com.xceptance.xlt.api.util.XltProperties;
@@ -32,6 +38,16 @@ import com.xceptance.xlt.common.XltConstants;
  */
 public class LoadTest
 {
+    /**
+     * Class logger instance.
+     */
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    /**
+     * The name of the property that enables running the test users on virtual threads.
+     */
+    private static final String PROP_VIRTUAL_THREADS = XltConstants.XLT_PACKAGE_PATH + ".virtualThreads.enabled";
+
     /**
      * The default time period [ms] to wait for threads to finish voluntarily before quitting the JVM (currently 30 s).
      */
@@ -50,11 +66,26 @@ public class LoadTest
         gracePeriod = (v < 0) ? DEFAULT_GRACE_PERIOD : v;
     }
 
+    /**
+     * Whether the test users are run on virtual threads.
+     */
+    private final boolean useVirtualThreads;
+
     /**
      * List of test runners.
      */
     private final List<LoadTestRunner> testRunners = new ArrayList<LoadTestRunner>();
 
+    /**
+     * The threads running the test runners. These are either the test runners themselves or virtual threads.
+     */
+    private final List<Thread> testRunnerThreads = new ArrayList<Thread>();
+
+    /**
+     * The threads running the test runners that are started on demand by their execution timer.
+     */
+    private final Set<Thread> onDemandTestRunnerThreads = new HashSet<Thread>();
+
     /**
      * Create a new load test using the given configurations and agent status.
      * 
@@ -78,6 +109,8 @@ public class LoadTest
             }
         }, agentTimeout);
 
+        useVirtualThreads = determineVirtualThreadMode();
+
         // process configurations
         for (final TestUserConfiguration config : configs)
         {
@@ -89,7 +122,16 @@ public class LoadTest
             runner.setDaemon(true);
 
             // add runner to list of known runners
+            final Thread runnerThread = useVirtualThreads ? runner.newVirtualThread() : runner;
             testRunners.add(runner);
+            testRunnerThreads.add(runnerThread);
+
+            // in an open workload, users are started when needed only
+            if (timer instanceof OpenWorkloadExecutionTimer)
+            {
+                ((OpenWorkloadExecutionTimer) timer).addUser(runner, runnerThread);
+                onDemandTestRunnerThreads.add(runnerThread);
+            }
 
             // add agent status
             agentStatus.addTestUserStatus(runner.getTestUserStatus());
@@ -120,30 +162,49 @@ public class LoadTest
     public void run()
     {
         // process list of runners
-        for (final LoadTestRunner testRunner : testRunners)
+        for (final Thread testRunnerThread : testRunnerThreads)
         {
-            testRunner.start();
+            if (!onDemandTestRunnerThreads.contains(testRunnerThread))
+            {
+                testRunnerThread.start();
+            }
+        }
+
+        // wait until no more runners will be started on demand
+        for (final AbstractExecutionTimer timer : ExecutionTimerFactory.getTimers())
+        {
+            if (timer instanceof OpenWorkloadExecutionTimer)
+            {
+                try
+                {
+                    ((OpenWorkloadExecutionTimer) timer).awaitTermination();
+                }
+                catch (final InterruptedException ex)
+                {
+                    // ignore
+                }
+            }
         }
 
         // wait for their completion
-        waitForCompletion(testRunners);
+        waitForCompletion(testRunnerThreads);
     }
 
     /**
-     * Waits for the given runners to complete.
+     * Waits for the given runner threads to complete.
      * 
-     * @param runners
-     *            list of runners to wait for their completion
+     * @param runnerThreads
+     *            list of runner threads to wait for their completion
      */
-    private void waitForCompletion(final List<LoadTestRunner> runners)
+    private void waitForCompletion(final List<Thread> runnerThreads)
     {
-        // process given list of runners
-        for (final LoadTestRunner runner : runners)
+        // process given list of runner threads
+        for (final Thread runnerThread : runnerThreads)
         {
             try
             {
                 // wait for completion
-                runner.join();
+                runnerThread.join();
             }
             catch (final InterruptedException ex)
             {
@@ -152,6 +213,28 @@ public class LoadTest
         }
     }
 
+    /**
+     * Determines whether the test users are to be run on virtual threads. Falls back to platform threads if so
+     * configured, but not supported by the Java runtime.
+     * 
+     * @return whether to use virtual threads
+     */
+    private static boolean determineVirtualThreadMode()
+    {
+        if (XltProperties.getInstance().getProperty(PROP_VIRTUAL_THREADS, false))
+        {
+            if (VirtualThreads.isSupported())
+            {
+                log.info("Running test users on virtual threads");
+                return true;
+            }
+
+            log.warn("Virtual threads are not supported by this Java runtime (Java 21+ required). Running test users on platform threads.");
+        }
+
+        return false;
+    }
+
     /**
      * Returns the total duration of the load test - the time when the shutdown period of the longest running user is
      * over.
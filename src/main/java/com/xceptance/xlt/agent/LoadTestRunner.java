@@ -24,12 +24,14 @@ import org.junit.runner.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.xceptance.common.util.concurrent.VirtualThreads;
 import com.xceptance.xlt.agentcontroller.TestUserConfiguration;
 import com.xceptance.xlt.agentcontroller.TestUserStatus;
 import com.xceptance.xlt.api.engine.DataManager;
 import com.xceptance.xlt.api.engine.GlobalClock;
 import com.xceptance.xlt.engine.DataManagerImpl;
 import com.xceptance.xlt.engine.SessionImpl;
+import com.xceptance.xlt.engine.UserThreadGroup;
 import com.xceptance.xlt.engine.util.TimerUtils;
 
 /**
@@ -37,6 +39,10 @@ import com.xceptance.xlt.engine.util.TimerUtils;
  * <p>
  * Group of autonomous threads that execute one or more tests according to their configuration.
  * </p>
+ * <p>
+ * Usually, the runner is started as a thread of its own. Alternatively, it can be run on a virtual thread (see
+ * {@link #newVirtualThread()}), in which case the runner object only provides the user's thread group.
+ * </p>
  *
  * @author Jörg Werner (Xceptance Software Technologies GmbH)
  */
@@ -72,6 +78,12 @@ public class LoadTestRunner extends Thread
      */
     private volatile boolean aborted;
 
+    /**
+     * The time the load test started from the point of view of this runner, or -1 if this is the time the runner is
+     * started.
+     */
+    private volatile long referenceTime = -1;
+
     /**
      * Creates a new LoadTestRunner object for the given load test configuration. Typically, multiple runners are
      * started for one test case configuration, so the number of the current runner is passed as well.
@@ -97,6 +109,31 @@ public class LoadTestRunner extends Thread
         status.setUserName(config.getUserId());
     }
 
+    /**
+     * Creates a virtual thread that runs this runner instead of starting the runner as a thread of its own. The virtual
+     * thread is bound to the runner's thread group, so the user's session and other per-user state are found as usual.
+     *
+     * @return the not yet started virtual thread
+     * @throws UnsupportedOperationException
+     *             if virtual threads are not supported by the Java runtime
+     */
+    public Thread newVirtualThread()
+    {
+        final ThreadGroup threadGroup = getThreadGroup();
+
+        return VirtualThreads.newThread(getName(), () -> {
+            UserThreadGroup.bind(threadGroup);
+            try
+            {
+                run();
+            }
+            finally
+            {
+                UserThreadGroup.unbind();
+            }
+        });
+    }
+
     /**
      * Returns the current test case status.
      *
@@ -115,7 +152,7 @@ public class LoadTestRunner extends Thread
     {
         try
         {
-            final long now = GlobalClock.get().millis();
+            final long now = referenceTime >= 0 ? referenceTime : GlobalClock.get().millis();
 
             // get and check the test case class
             Class<?> testCaseClass = null;
@@ -203,6 +240,18 @@ public class LoadTestRunner extends Thread
         }
     }
 
+    /**
+     * Sets the time the load test started. Needed for runners that are not started together with the load test, but
+     * later on demand, so that they still use the same warm-up and measurement periods as all the other runners.
+     *
+     * @param referenceTime
+     *            the start time of the load test
+     */
+    void setReferenceTime(final long referenceTime)
+    {
+        this.referenceTime = referenceTime;
+    }
+
     /**
      * Marks this load test runner as aborted.
      */
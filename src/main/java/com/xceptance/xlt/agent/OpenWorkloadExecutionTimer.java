@@ -0,0 +1,484 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.agent;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xceptance.xlt.agent.PeriodicExecutionTimer.ArrivalRateControllerTimerTask;
+import com.xceptance.xlt.api.engine.CustomValue;
+import com.xceptance.xlt.api.engine.DataManager;
+import com.xceptance.xlt.api.engine.GlobalClock;
+import com.xceptance.xlt.api.engine.Session;
+import com.xceptance.xlt.api.util.XltProperties;
+import com.xceptance.xlt.common.XltConstants;
+import com.xceptance.xlt.engine.SessionImpl;
+import com.xceptance.xlt.engine.UserThreadGroup;
+import com.xceptance.xlt.engine.util.TimerUtils;
+
+/**
+ * The {@link OpenWorkloadExecutionTimer} is the open-model counterpart of the {@link PeriodicExecutionTimer}. Arrivals
+ * are scheduled from the arrival rate load function regardless of how many users are busy, and the users are started
+ * on demand only, i.e. when an arrival finds no idle user. The configured number of users is the concurrency ceiling.
+ * <p>
+ * A single scheduler thread takes care of the timing of all arrivals. Each second, it determines the arrivals for this
+ * agent and spreads them evenly over the next second. If all users are busy and the ceiling is reached, arrivals are
+ * not dropped, but wait for the next free user. Such arrivals start late, which is made visible in the results: the
+ * scheduled, started, and late arrivals as well as the arrivals still waiting are logged each second as custom values
+ * (for example "TOrder.Arrivals.Late").
+ */
+public class OpenWorkloadExecutionTimer extends AbstractExecutionTimer
+{
+    /**
+     * Class logger instance.
+     */
+    private static final Logger log = LoggerFactory.getLogger(OpenWorkloadExecutionTimer.class);
+
+    /**
+     * The prefix of all the settings of the open workload mode.
+     */
+    private static final String PROP_PREFIX = XltConstants.XLT_PACKAGE_PATH + ".openWorkload.";
+
+    /**
+     * Whether arrival rate scenarios are run as open workload.
+     */
+    public static final String PROP_ENABLED = PROP_PREFIX + "enabled";
+
+    /**
+     * The time [ms] after which a started arrival is considered late.
+     */
+    public static final String PROP_LATE_THRESHOLD = PROP_PREFIX + "lateThreshold";
+
+    /**
+     * The name of the results directory holding the arrival statistics.
+     */
+    public static final String RESULT_DIRECTORY_NAME = "Open-Workload-Monitor";
+
+    /**
+     * The number of open workload timers created so far. Used to separate their results.
+     */
+    private static final AtomicInteger timerCount = new AtomicInteger();
+
+    /**
+     * Computes the arrivals from the arrival rate load function.
+     */
+    private final ArrivalRateControllerTimerTask arrivalRateController;
+
+    /**
+     * The thread scheduling the arrivals.
+     */
+    private final ArrivalScheduler scheduler;
+
+    /**
+     * The time [ms] after which a started arrival is considered late.
+     */
+    private final long lateThreshold;
+
+    /**
+     * The permits for the arrivals that have not been picked up by a user yet.
+     */
+    private final Semaphore arrivals = new Semaphore(0, true);
+
+    /**
+     * The scheduled times of the arrivals that have not been picked up by a user yet, in the order of arrival.
+     */
+    private final Queue<Long> arrivalTimes = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The users not started yet.
+     */
+    private final Queue<Thread> unstartedUsers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of users currently waiting for an arrival, including the users started, but not yet waiting.
+     */
+    private final AtomicInteger idleUsers = new AtomicInteger();
+
+    /**
+     * Whether the current user has been waiting for an arrival before.
+     */
+    private final ThreadLocal<Boolean> waitedBefore = new ThreadLocal<>();
+
+    /**
+     * The number of scheduled arrivals.
+     */
+    private final AtomicLong scheduledArrivals = new AtomicLong();
+
+    /**
+     * The number of arrivals picked up by a user.
+     */
+    private final AtomicLong startedArrivals = new AtomicLong();
+
+    /**
+     * The number of arrivals picked up later than the configured threshold.
+     */
+    private final AtomicLong lateArrivals = new AtomicLong();
+
+    /**
+     * The wall-clock time this timer was created.
+     */
+    private final long creationTime;
+
+    /**
+     * Creates a new {@link OpenWorkloadExecutionTimer} instance.
+     *
+     * @param userTypeName
+     *            the user name
+     * @param initialDelay
+     *            the initial delay [ms]
+     * @param warmUpPeriod
+     *            the warm-up period [ms]
+     * @param duration
+     *            the duration [ms]
+     * @param shutdownPeriod
+     *            the shutdown period [ms]
+     * @param arrivalRates
+     *            the arrival rates
+     * @param agentIndex
+     *            the agent index
+     * @param agentWeights
+     *            the agent weights
+     */
+    public OpenWorkloadExecutionTimer(final String userTypeName, final long initialDelay, final long warmUpPeriod, final long duration,
+                                      final int shutdownPeriod, final int[][] arrivalRates, final int agentIndex, final double[] agentWeights)
+    {
+        super(userTypeName, initialDelay, duration, shutdownPeriod);
+
+        creationTime = GlobalClock.millis();
+        lateThreshold = XltProperties.getInstance().getProperty(PROP_LATE_THRESHOLD, 100L);
+
+        // the controller is used for its computations only, it is not run as timer task
+        arrivalRateController = new ArrivalRateControllerTimerTask(arrivalRates, agentIndex, agentWeights, null, initialDelay);
+
+        scheduler = new ArrivalScheduler(userTypeName, initialDelay, creationTime + initialDelay + warmUpPeriod,
+                                         creationTime + initialDelay + duration);
+        scheduler.setDaemon(true);
+        scheduler.start();
+    }
+
+    /**
+     * Adds a user to be started on demand.
+     *
+     * @param runner
+     *            the runner of the user
+     * @param thread
+     *            the thread running the runner, either the runner itself or a virtual thread
+     */
+    public void addUser(final LoadTestRunner runner, final Thread thread)
+    {
+        // the runner may start much later than the load test
+        runner.setReferenceTime(creationTime);
+
+        addUser(thread);
+    }
+
+    /**
+     * Adds a user to be started on demand.
+     *
+     * @param thread
+     *            the thread running the user
+     */
+    void addUser(final Thread thread)
+    {
+        unstartedUsers.add(thread);
+    }
+
+    /**
+     * Returns the number of arrivals scheduled so far.
+     *
+     * @return the number of scheduled arrivals
+     */
+    long getScheduledArrivals()
+    {
+        return scheduledArrivals.get();
+    }
+
+    /**
+     * Returns the number of arrivals picked up by a user so far.
+     *
+     * @return the number of started arrivals
+     */
+    long getStartedArrivals()
+    {
+        return startedArrivals.get();
+    }
+
+    /**
+     * Returns the number of arrivals picked up later than the configured threshold so far.
+     *
+     * @return the number of late arrivals
+     */
+    long getLateArrivals()
+    {
+        return lateArrivals.get();
+    }
+
+    /**
+     * Waits until this timer will not start any further users.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public void awaitTermination() throws InterruptedException
+    {
+        scheduler.join();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void stop()
+    {
+        scheduler.interrupt();
+        super.stop();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void executeWait() throws InterruptedException
+    {
+        // a newly started user has been counted as idle already
+        if (waitedBefore.get() == null)
+        {
+            waitedBefore.set(Boolean.TRUE);
+        }
+        else
+        {
+            idleUsers.incrementAndGet();
+        }
+
+        try
+        {
+            arrivals.acquire();
+        }
+        finally
+        {
+            idleUsers.decrementAndGet();
+        }
+
+        final Long arrivalTime = arrivalTimes.poll();
+        startedArrivals.incrementAndGet();
+
+        if (arrivalTime != null && TimerUtils.get().getTime() - arrivalTime > lateThreshold)
+        {
+            lateArrivals.incrementAndGet();
+        }
+    }
+
+    /**
+     * Makes the next arrival available to the users.
+     *
+     * @param arrivalTime
+     *            the scheduled time of the arrival
+     */
+    private void dispatch(final long arrivalTime)
+    {
+        scheduledArrivals.incrementAndGet();
+
+        arrivalTimes.add(arrivalTime);
+        arrivals.release();
+
+        startUsersOnDemand();
+    }
+
+    /**
+     * Starts further users as long as there are more waiting arrivals than idle users, unless all users have been
+     * started already or this timer has been stopped.
+     */
+    private synchronized void startUsersOnDemand()
+    {
+        while (!isStopped() && idleUsers.get() < arrivals.availablePermits())
+        {
+            final Thread user = unstartedUsers.poll();
+            if (user == null)
+            {
+                // ceiling reached
+                break;
+            }
+
+            idleUsers.incrementAndGet();
+            user.start();
+        }
+    }
+
+    /**
+     * The thread that schedules the arrivals and logs the arrival statistics.
+     */
+    private class ArrivalScheduler extends Thread
+    {
+        /**
+         * The name of the user type.
+         */
+        private final String userTypeName;
+
+        /**
+         * The time [ms] relative to the creation of the controller when the first arrivals are due.
+         */
+        private final long initialDelay;
+
+        /**
+         * The start of the logging period.
+         */
+        private final long startOfLoggingPeriod;
+
+        /**
+         * The end of the logging period.
+         */
+        private final long endOfLoggingPeriod;
+
+        /**
+         * The statistics as logged the last time.
+         */
+        private long lastScheduled;
+
+        private long lastStarted;
+
+        private long lastLate;
+
+        private ArrivalScheduler(final String userTypeName, final long initialDelay, final long startOfLoggingPeriod,
+                                 final long endOfLoggingPeriod)
+        {
+            super(new ThreadGroup(RESULT_DIRECTORY_NAME), "OpenWorkloadExecutionTimer-" + userTypeName);
+
+            this.userTypeName = userTypeName;
+            this.initialDelay = initialDelay;
+            this.startOfLoggingPeriod = startOfLoggingPeriod;
+            this.endOfLoggingPeriod = endOfLoggingPeriod;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void run()
+        {
+            // this thread must not work for the user that created the timer, if any
+            UserThreadGroup.unbind();
+
+            final DataManager dataManager = initSession();
+
+            final long startTime = TimerUtils.get().getStartTime();
+            long nextSecond = startTime + initialDelay;
+
+            try
+            {
+                while (!isStopped())
+                {
+                    sleepUntil(nextSecond);
+
+                    // determine the arrivals on this agent for the current second
+                    final double elapsedTimeSec = Math.round(TimerUtils.get().getElapsedTime(startTime) / 1000.0);
+                    final int releases = arrivalRateController.computeReleases(elapsedTimeSec);
+                    final int agentReleases = arrivalRateController.computeAgentReleases(releases, elapsedTimeSec);
+
+                    // spread them evenly over the second
+                    for (int i = 0; i < agentReleases && !isStopped(); i++)
+                    {
+                        final long arrivalTime = nextSecond + i * 1000L / agentReleases;
+
+                        sleepUntil(arrivalTime);
+                        dispatch(arrivalTime);
+                    }
+
+                    // serve arrivals that came before all users were added
+                    startUsersOnDemand();
+
+                    logStatistics(dataManager);
+
+                    nextSecond += 1000;
+                }
+            }
+            catch (final InterruptedException e)
+            {
+                // timer stopped
+            }
+            catch (final Exception e)
+            {
+                log.error("Failed to schedule arrivals for user type: " + userTypeName, e);
+            }
+        }
+
+        /**
+         * Sets up the session of this thread, so that the arrival statistics go to a results directory of its own.
+         *
+         * @return the data manager to log the statistics
+         */
+        private DataManager initSession()
+        {
+            final SessionImpl session = (SessionImpl) Session.getCurrent();
+            session.setUserName(RESULT_DIRECTORY_NAME);
+            session.setUserNumber(timerCount.getAndIncrement());
+            session.setLoadTest(true);
+
+            final DataManager dataManager = session.getDataManager();
+            dataManager.setStartOfLoggingPeriod(startOfLoggingPeriod);
+            dataManager.setEndOfLoggingPeriod(endOfLoggingPeriod);
+
+            return dataManager;
+        }
+
+        /**
+         * Logs the arrival statistics of the past second.
+         */
+        private void logStatistics(final DataManager dataManager)
+        {
+            final long scheduled = scheduledArrivals.get();
+            final long started = startedArrivals.get();
+            final long late = lateArrivals.get();
+
+            final long now = GlobalClock.millis();
+
+            logValue(dataManager, "Scheduled", now, scheduled - lastScheduled);
+            logValue(dataManager, "Started", now, started - lastStarted);
+            logValue(dataManager, "Late", now, late - lastLate);
+            logValue(dataManager, "Waiting", now, arrivals.availablePermits());
+
+            lastScheduled = scheduled;
+            lastStarted = started;
+            lastLate = late;
+        }
+
+        private void logValue(final DataManager dataManager, final String name, final long time, final double value)
+        {
+            final CustomValue customValue = new CustomValue(userTypeName + ".Arrivals." + name);
+            customValue.setTime(time);
+            customValue.setValue(value);
+
+            dataManager.logDataRecord(customValue);
+        }
+
+        /**
+         * Sleeps until the given time as returned by {@link TimerUtils#getTime()}.
+         */
+        private void sleepUntil(final long time) throws InterruptedException
+        {
+            final long sleepTime = time - TimerUtils.get().getTime();
+            if (sleepTime > 0)
+            {
+                Thread.sleep(sleepTime);
+            }
+        }
+    }
+}
@@ -192,7 +192,37 @@ public class PeriodicExecutionTimer extends AbstractExecutionTimer
             // compute upper limit of permits for this second, but allow at least one permit per registered thread
             final int maxPermits = Math.max(releases, timer.getThreads().size());
 
+            // determine the users to release on this agent
+            final int agentReleases = computeAgentReleases(releases, elapsedTimeSec);
+
             // release users one by one
+            for (int i = 0; i < agentReleases; i++)
+            {
+                // release one thread, but limit the outstanding executions (from this and the previous second) to
+                // the maximum number of permits for this second
+                if (semaphore.availablePermits() < maxPermits)
+                {
+                    semaphore.release();
+                }
+            }
+
+            // System.err.printf(", lastReleased[new]: %f, releases: %d\n", lastReleaseTime, releases);
+        }
+
+        /**
+         * Distributes the given number of users to release across all agents and returns the number of users to
+         * release on this agent.
+         *
+         * @param releases
+         *            the number of users to release on all agents
+         * @param elapsedTimeSec
+         *            the elapsed time in seconds
+         * @return the number of users to release on this agent
+         */
+        public int computeAgentReleases(final int releases, final double elapsedTimeSec)
+        {
+            int agentReleases = 0;
+
             for (int i = 0; i < releases; i++)
             {
                 // remove the agent with the fewest invocations from the queue
@@ -200,19 +230,11 @@ public class PeriodicExecutionTimer extends AbstractExecutionTimer
                 if (agentEntry.getAgentIndex() == agentIndex)
                 {
                     // it is my turn!
-                    // System.err.println("Releasing a user on this agent " + agentIndex);
-
-                    // release one thread, but limit the outstanding executions (from this and the previous second) to
-                    // the maximum number of permits for this second
-                    if (semaphore.availablePermits() < maxPermits)
-                    {
-                        semaphore.release();
-                    }
+                    agentReleases++;
                 }
                 else
                 {
                     // another agent will take care of this invocation
-                    // System.err.println("Releasing a user on other agent " + agentEntry.getAgentIndex());
                 }
 
                 // update the invocations of the agent and add it to the queue again at the right position
@@ -220,7 +242,7 @@ public class PeriodicExecutionTimer extends AbstractExecutionTimer
                 agents.add(agentEntry);
             }
 
-            // System.err.printf(", lastReleased[new]: %f, releases: %d\n", lastReleaseTime, releases);
+            return agentReleases;
         }
 
         /**
@@ -71,6 +71,15 @@ public interface AgentController
      */
     public FileManager getFileManager();
 
+    /**
+     * Returns a read-only {@link FileManager} for the results directories of the agents managed by this agent
+     * controller. Remote file names are relative to the agents directory, as returned by {@link #getAgentTimerFiles()}.
+     *
+     * @return the results file manager
+     * @since 8.1.0
+     */
+    public FileManager getResultsFileManager();
+
     /**
      * Returns the name of this agent controller.
      *
@@ -194,6 +203,17 @@ public interface AgentController
      */
     public Map<String, String> getAgentResultsArchives();
 
+    /**
+     * Returns the timer files the agents managed by this agent controller have written so far, together with their
+     * current size. The returned map uses the file path relative to the agents directory (for example
+     * <code>ac001_00/results/TOrder/0/timers.csv</code>) as <code>key</code> and the file size as <code>value</code>.
+     * Since the files grow while the agents are running, this can be used to fetch only what was appended since.
+     *
+     * @return the current timer files and their sizes
+     * @since 8.1.0
+     */
+    public Map<String, Long> getAgentTimerFiles();
+
     /**
      * Returns the representative file index for the managed agents. The file index is same for all managed agents.
      *
@@ -203,6 +223,19 @@ public interface AgentController
      */
     public FileReplicationIndex getAgentFilesIndex() throws IOException;
 
+    /**
+     * Returns the hashes of the content-defined chunks the given agent files are made of. Knowing them, the caller can
+     * ship only those chunks of an updated file that are not present yet.
+     *
+     * @param files
+     *            the files, relative to the agent files directory
+     * @return the chunk hashes keyed by file, files that do not exist are omitted
+     * @throws IOException
+     *             if a file cannot be read
+     * @since 8.1.0
+     */
+    public Map<File, List<String>> getAgentFileChunks(List<File> files) throws IOException;
+
     /**
      * Update the agents files. This method return immediately. Please query the success by {@link #isUpdateDone()}.
      * Furthermore it's recommended to acknowledge the state by {@link #setUpdateAcknowledged()}.
@@ -51,6 +51,8 @@ public class AgentControllerConfiguration extends AbstractConfiguration
 
     private static final String PROP_TEMP_DIR = PROP_PREFIX + "tempdir";
 
+    private static final String PROP_LIVE_RESULTS_ENABLED = PROP_PREFIX + "liveResults.enabled";
+
     private final File agentBinDirectory;
 
     private final String[] agentCommand;
@@ -77,6 +79,8 @@ public class AgentControllerConfiguration extends AbstractConfiguration
 
     private File tempDir;
 
+    private final boolean liveResultsEnabled;
+
     /**
      * Creates a new AgentControllerConfiguration object.
      * 
@@ -131,6 +135,8 @@ public class AgentControllerConfiguration extends AbstractConfiguration
         userName = XltConstants.USER_NAME;
         password = getStringProperty(PROP_PASSWORD, null);
 
+        liveResultsEnabled = getBooleanProperty(PROP_LIVE_RESULTS_ENABLED, false);
+
         final String hostName = getStringProperty(PROP_HOST, "");
         if (!hostName.isEmpty())
         {
@@ -301,4 +307,15 @@ public class AgentControllerConfiguration extends AbstractConfiguration
     {
         return tempDir;
     }
+
+    /**
+     * Returns whether the timer files of running agents may be fetched by the master controller for live reports.
+     * 
+     * @return whether live results are enabled
+     * @since 8.1.0
+     */
+    public boolean isLiveResultsEnabled()
+    {
+        return liveResultsEnabled;
+    }
 }
@@ -22,10 +22,13 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -35,12 +38,14 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.configuration2.PropertiesConfiguration;
 import org.apache.commons.configuration2.PropertiesConfiguration.JupIOFactory;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.filefilter.FileFileFilter;
 import org.apache.commons.io.filefilter.FileFilterUtils;
@@ -71,6 +76,7 @@ import com.xceptance.common.util.zip.ZipUtils;
 import com.xceptance.xlt.agent.AgentInfo;
 import com.xceptance.xlt.agentcontroller.ResultArchives.ArchiveToken;
 import com.xceptance.xlt.agentcontroller.TestUserStatus.State;
+import com.xceptance.xlt.api.util.XltException;
 import com.xceptance.xlt.common.XltConstants;
 import com.xceptance.xlt.util.AgentControllerSystemInfo;
 import com.xceptance.xlt.util.FileReplicationIndex;
@@ -156,6 +162,11 @@ public class AgentControllerImpl implements AgentController
      */
     private FileManager fileManager;
 
+    /**
+     * The read-only file manager for the agent results (for embedded use only).
+     */
+    private FileManager resultsFileManager;
+
     /**
      * The directory containing all the separate agent directories.
      */
@@ -274,6 +285,7 @@ public class AgentControllerImpl implements AgentController
 
         // create file manager (for embedded use only)
         fileManager = new FileManagerImpl(transferDirectory);
+        resultsFileManager = new FileManagerImpl(agentsDirectory);
 
         final File updateManagerDirectory = new File(getTransferDirectory(), "xltUpdate_" + UUID.randomUUID().toString());
         agentFileManager = new AgentFileManager(updateManagerDirectory);
@@ -345,10 +357,20 @@ public class AgentControllerImpl implements AgentController
         final FileManagerServlet fileManagerServlet = new FileManagerServlet(transferDirectory);
         context.addServlet(new ServletHolder(fileManagerServlet), FileManagerServlet.SERVLET_MAPPING);
 
+        if (agentControllerConfig.isLiveResultsEnabled())
+        {
+            // read-only access to the timer files of the running agents
+            final FileManagerServlet resultsServlet = new FileManagerServlet(agentsDirectory, AgentControllerImpl::isStreamableTimerFile);
+            context.addServlet(new ServletHolder(resultsServlet), FileManagerServlet.RESULTS_SERVLET_MAPPING);
+        }
+
         final HessianServlet hessianServlet = new HessianServlet();
         hessianServlet.setHome(this);
         context.addServlet(new ServletHolder(hessianServlet), "/" + AgentController.class.getName());
 
+        final StatusStreamServlet statusStreamServlet = new StatusStreamServlet(this);
+        context.addServlet(new ServletHolder(statusStreamServlet), StatusStreamServlet.SERVLET_PATH);
+
         server.setHandler(context);
 
         // set up basic authentication
@@ -579,6 +601,15 @@ public class AgentControllerImpl implements AgentController
         return fileManager;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FileManager getResultsFileManager()
+    {
+        return resultsFileManager;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -891,6 +922,83 @@ public class AgentControllerImpl implements AgentController
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getAgentTimerFiles()
+    {
+        if (!agentControllerConfig.isLiveResultsEnabled())
+        {
+            throw new XltException("Live results are not enabled at this agent controller");
+        }
+
+        final Map<String, Long> timerFiles = new HashMap<>();
+
+        final File[] agentDirectories = agentsDirectory.listFiles((FileFilter) FileFilterUtils.directoryFileFilter());
+        if (agentDirectories != null)
+        {
+            final Path agentsPath = agentsDirectory.toPath();
+
+            for (final File directory : agentDirectories)
+            {
+                final Path resultsPath = directory.toPath().resolve(AgentInfo.NAME_RESULTS_DIR);
+                if (Files.isDirectory(resultsPath))
+                {
+                    // timer files live in <testcase>/<user>/, so there is no need to descend into result browsers
+                    try (final Stream<Path> files = Files.walk(resultsPath, 3))
+                    {
+                        files.filter(Files::isRegularFile).forEach(file -> {
+                            final String name = FilenameUtils.separatorsToUnix(agentsPath.relativize(file).toString());
+                            if (isStreamableTimerFile(name))
+                            {
+                                timerFiles.put(name, file.toFile().length());
+                            }
+                        });
+                    }
+                    catch (final IOException | UncheckedIOException e)
+                    {
+                        log.warn("Failed to list timer files in " + resultsPath, e);
+                    }
+                }
+            }
+        }
+
+        return timerFiles;
+    }
+
+    /**
+     * Checks whether the given file is an uncompressed CSV timer file in the results directory of an agent, which the
+     * agent appends to line by line. These are the only files served for live reports.
+     *
+     * @param fileName
+     *            the file name relative to the agents directory, for example
+     *            <code>ac001_00/results/TOrder/0/timers.csv</code>
+     * @return whether the file can be fetched incrementally
+     */
+    static boolean isStreamableTimerFile(final String fileName)
+    {
+        // <agent>/results/<testcase>/<user>/<file>, without any relative or empty path segments
+        final String[] segments = fileName.split("/", -1);
+        if (segments.length != 5 || !segments[1].equals(AgentInfo.NAME_RESULTS_DIR) || fileName.indexOf('\\') >= 0)
+        {
+            return false;
+        }
+
+        for (final String segment : segments)
+        {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals(".."))
+            {
+                return false;
+            }
+        }
+
+        final String name = segments[4];
+
+        return !name.endsWith(".gz") && (XltConstants.TIMER_FILENAME_PATTERNS.stream().anyMatch(p -> p.matcher(name).matches()) ||
+                                         XltConstants.CPT_TIMER_FILENAME_PATTERNS.stream().anyMatch(p -> p.matcher(name).matches()));
+    }
+
     private File getTempFile(final String coreName) throws IOException
     {
         return File.createTempFile(AGENT_RESULTS_FILE_PREFIX + coreName + "_", AGENT_RESULTS_FILE_EXTENSION, tempDir);
@@ -955,6 +1063,15 @@ public class AgentControllerImpl implements AgentController
         return fri != null ? fri : new FileReplicationIndex();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<File, List<String>> getAgentFileChunks(final List<File> files) throws IOException
+    {
+        return agentFileManager.getAgentFileChunks(files);
+    }
+
     /**
      * {@inheritDoc}
      */
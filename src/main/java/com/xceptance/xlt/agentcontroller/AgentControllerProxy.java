@@ -17,6 +17,8 @@ package com.xceptance.xlt.agentcontroller;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.List;
@@ -59,6 +61,11 @@ public class AgentControllerProxy extends AgentControllerImpl
      */
     private FileManager fileManager;
 
+    /**
+     * The read-only file manager for the agent results.
+     */
+    private FileManager resultsFileManager;
+
     /**
      * The Hessian proxy factory to use.
      */
@@ -173,6 +180,8 @@ public class AgentControllerProxy extends AgentControllerImpl
 
         // start file manager proxy
         fileManager = new FileManagerProxy(url, urlConnectionFactory, downloadChunkSize, downloadMaxRetries);
+        resultsFileManager = new FileManagerProxy(url, FileManagerServlet.RESULTS_SERVLET_PATH, urlConnectionFactory, downloadChunkSize,
+                                                  downloadMaxRetries);
 
         // start agent controller proxy
         agentController = (AgentController) proxyFactory.create(AgentController.class,
@@ -207,6 +216,15 @@ public class AgentControllerProxy extends AgentControllerImpl
         return fileManager;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FileManager getResultsFileManager()
+    {
+        return resultsFileManager;
+    }
+
     /**
      */
     @Override
@@ -288,6 +306,44 @@ public class AgentControllerProxy extends AgentControllerImpl
         return getAgentController().getStatus();
     }
 
+    /**
+     * Opens a persistent connection to the agent controller, over which the agent controller pushes its status whenever
+     * it changes, until there are no running agents anymore. The returned stream is to be read using
+     * {@link AgentControllerStatusStream}.
+     *
+     * @param interval
+     *            the time [ms] between two status samples at the agent controller
+     * @return the status stream, or <code>null</code> if the agent controller does not support status streaming
+     * @throws IOException
+     *             if the stream could not be opened
+     * @since 8.1.0
+     */
+    public InputStream openStatusStream(final long interval) throws IOException
+    {
+        final URL streamUrl = new URL(getUrl() + StatusStreamServlet.SERVLET_PATH + "?" + StatusStreamServlet.PARAM_INTERVAL + "=" +
+                                      interval);
+
+        final HttpURLConnection conn = (HttpURLConnection) urlConnectionFactory.open(streamUrl);
+
+        // the agent controller sends heartbeats, so a silent connection is a dead connection
+        conn.setReadTimeout((int) (3 * AgentControllerStatusStream.HEARTBEAT_INTERVAL));
+
+        final int responseCode = conn.getResponseCode();
+        if (responseCode == HttpURLConnection.HTTP_NOT_FOUND)
+        {
+            // an older agent controller
+            conn.disconnect();
+            return null;
+        }
+        else if (responseCode != HttpURLConnection.HTTP_OK)
+        {
+            conn.disconnect();
+            throw new IOException(String.format("Server returned HTTP response code: %d for URL: %s", responseCode, streamUrl));
+        }
+
+        return conn.getInputStream();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -315,6 +371,15 @@ public class AgentControllerProxy extends AgentControllerImpl
         return getAgentController().isArchiveAvailable();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getAgentTimerFiles()
+    {
+        return getAgentController().getAgentTimerFiles();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -337,6 +402,15 @@ public class AgentControllerProxy extends AgentControllerImpl
         return getAgentController().getAgentFilesIndex();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<File, List<String>> getAgentFileChunks(final List<File> files) throws IOException
+    {
+        return getAgentController().getAgentFileChunks(files);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.agentcontroller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.xceptance.xlt.agentcontroller.TestUserStatus.Mode;
+import com.xceptance.xlt.agentcontroller.TestUserStatus.State;
+
+/**
+ * The wire format used by an agent controller to push its status to the master controller over a single, long-lived
+ * connection. Rather than being asked for its status again and again, the agent controller samples its status
+ * periodically and sends it only if it has changed since the last time. To let the master controller detect dead
+ * connections, a heartbeat is sent whenever the status did not change for a while.
+ * <p>
+ * The stream starts with a version byte, followed by any number of frames. Each frame starts with a type byte:
+ * <ul>
+ * <li>{@link #FRAME_STATUS}: followed by the length of the encoded status and the encoded status itself</li>
+ * <li>{@link #FRAME_HEARTBEAT}: no further data</li>
+ * <li>{@link #FRAME_END}: no further data, the stream ends as there are no running agents anymore</li>
+ * </ul>
+ * The status is encoded in a compact binary form, which contains only those parts of an {@link AgentControllerStatus}
+ * the master controller actually needs. Exceptions are transmitted as text only.
+ *
+ * @since 8.1.0
+ */
+public final class AgentControllerStatusStream
+{
+    /**
+     * The version of the wire format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The frame type of a status frame.
+     */
+    static final int FRAME_STATUS = 1;
+
+    /**
+     * The frame type of a heartbeat frame.
+     */
+    static final int FRAME_HEARTBEAT = 2;
+
+    /**
+     * The frame type of the final frame.
+     */
+    static final int FRAME_END = 3;
+
+    /**
+     * The maximum time [ms] between two frames.
+     */
+    static final long HEARTBEAT_INTERVAL = 10_000;
+
+    /**
+     * The maximum length of the text of a transmitted exception.
+     */
+    private static final int MAX_EXCEPTION_TEXT_LENGTH = 2000;
+
+    /**
+     * Samples the status from the given supplier every so often and writes it to the given output stream, but only if it
+     * has changed. Returns after a status without any running agent has been written.
+     *
+     * @param statusSupplier
+     *            provides the current status
+     * @param out
+     *            the target stream
+     * @param sampleInterval
+     *            the time [ms] between two samples
+     * @throws IOException
+     *             if the status could not be written, for example, because the receiver has gone
+     * @throws InterruptedException
+     *             if interrupted while waiting for the next sample
+     */
+    public static void write(final Supplier<AgentControllerStatus> statusSupplier, final OutputStream out, final long sampleInterval)
+        throws IOException, InterruptedException
+    {
+        final DataOutputStream dataOut = new DataOutputStream(out);
+
+        dataOut.writeByte(VERSION);
+
+        byte[] lastStatus = null;
+        long lastFrameTime = 0;
+
+        while (true)
+        {
+            final AgentControllerStatus status = statusSupplier.get();
+            final byte[] encodedStatus = encode(status);
+            final long now = System.currentTimeMillis();
+
+            if (!Arrays.equals(encodedStatus, lastStatus))
+            {
+                dataOut.writeByte(FRAME_STATUS);
+                dataOut.writeInt(encodedStatus.length);
+                dataOut.write(encodedStatus);
+
+                lastStatus = encodedStatus;
+                lastFrameTime = now;
+            }
+            else if (now - lastFrameTime >= HEARTBEAT_INTERVAL)
+            {
+                dataOut.writeByte(FRAME_HEARTBEAT);
+
+                lastFrameTime = now;
+            }
+
+            if (!hasRunningAgents(status))
+            {
+                dataOut.writeByte(FRAME_END);
+                dataOut.flush();
+
+                return;
+            }
+
+            dataOut.flush();
+
+            Thread.sleep(sampleInterval);
+        }
+    }
+
+    /**
+     * Reads the version byte from the given stream.
+     *
+     * @param in
+     *            the source stream
+     * @throws IOException
+     *             if the version could not be read or is not supported
+     */
+    public static void readVersion(final DataInputStream in) throws IOException
+    {
+        final int version = in.readUnsignedByte();
+        if (version != VERSION)
+        {
+            throw new IOException("Unsupported status stream version: " + version);
+        }
+    }
+
+    /**
+     * Reads the next status from the given stream, skipping any heartbeat. Blocks until a status arrives.
+     *
+     * @param in
+     *            the source stream
+     * @return the status, or <code>null</code> if the stream has ended regularly
+     * @throws IOException
+     *             if the status could not be read
+     */
+    public static AgentControllerStatus read(final DataInputStream in) throws IOException
+    {
+        while (true)
+        {
+            final int frameType = in.readUnsignedByte();
+            switch (frameType)
+            {
+                case FRAME_STATUS:
+                    final byte[] encodedStatus = new byte[in.readInt()];
+                    in.readFully(encodedStatus);
+                    return decode(encodedStatus);
+
+                case FRAME_HEARTBEAT:
+                    continue;
+
+                case FRAME_END:
+                    return null;
+
+                default:
+                    throw new IOException("Unknown status frame type: " + frameType);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given status lists at least one running agent.
+     */
+    private static boolean hasRunningAgents(final AgentControllerStatus status)
+    {
+        for (final AgentStatusInfo agentStatusInfo : status.getAgentStatusList())
+        {
+            if (agentStatusInfo.isRunning())
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Encodes the given status.
+     *
+     * @param status
+     *            the status
+     * @return the encoded status
+     */
+    static byte[] encode(final AgentControllerStatus status)
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+
+        try (final DataOutputStream out = new DataOutputStream(bytes))
+        {
+            final List<AgentStatusInfo> agentStatusList = status.getAgentStatusList();
+            out.writeInt(agentStatusList.size());
+            for (final AgentStatusInfo agentStatusInfo : agentStatusList)
+            {
+                out.writeUTF(StringUtils.defaultString(agentStatusInfo.getAgentID()));
+                out.writeUTF(StringUtils.defaultString(agentStatusInfo.getHostName()));
+                out.writeBoolean(agentStatusInfo.isRunning());
+
+                final Integer exitCode = agentStatusInfo.getExitCode();
+                out.writeBoolean(exitCode != null);
+                if (exitCode != null)
+                {
+                    out.writeInt(exitCode);
+                }
+            }
+
+            final List<ScenarioStatus> scenarioStatusList = status.getScenarioStatusList();
+            out.writeInt(scenarioStatusList.size());
+            for (final ScenarioStatus scenarioStatus : scenarioStatusList)
+            {
+                out.writeUTF(StringUtils.defaultString(scenarioStatus.getScenarioName()));
+                out.writeByte(scenarioStatus.getState() == null ? 0 : scenarioStatus.getState().ordinal() + 1);
+                out.writeByte(scenarioStatus.getMode() == null ? 0 : scenarioStatus.getMode().ordinal() + 1);
+                out.writeInt(scenarioStatus.getRunningUsers());
+                out.writeInt(scenarioStatus.getTotalUsers());
+                out.writeInt(scenarioStatus.getIterations());
+                out.writeInt(scenarioStatus.getEvents());
+                out.writeInt(scenarioStatus.getErrors());
+                out.writeInt(scenarioStatus.getPercentageComplete());
+                out.writeLong(scenarioStatus.getStartDate());
+                out.writeLong(scenarioStatus.getEndDate());
+                out.writeLong(scenarioStatus.getElapsedTime());
+                out.writeLong(scenarioStatus.getLastModifiedDate());
+                out.writeLong(scenarioStatus.getLastRuntime());
+                out.writeLong(scenarioStatus.getTotalRuntime());
+
+                final Exception exception = scenarioStatus.getException();
+                out.writeBoolean(exception != null);
+                if (exception != null)
+                {
+                    out.writeUTF(StringUtils.abbreviate(exception.toString(), MAX_EXCEPTION_TEXT_LENGTH));
+                }
+            }
+        }
+        catch (final IOException e)
+        {
+            // cannot happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes the given status.
+     *
+     * @param encodedStatus
+     *            the encoded status
+     * @return the status
+     * @throws IOException
+     *             if the status could not be decoded
+     */
+    static AgentControllerStatus decode(final byte[] encodedStatus) throws IOException
+    {
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(encodedStatus)))
+        {
+            final int agentCount = in.readInt();
+            final List<AgentStatusInfo> agentStatusList = new ArrayList<>(agentCount);
+            for (int i = 0; i < agentCount; i++)
+            {
+                final String agentID = in.readUTF();
+                final String hostName = in.readUTF();
+                final boolean running = in.readBoolean();
+                final Integer exitCode = in.readBoolean() ? in.readInt() : null;
+
+                agentStatusList.add(new AgentStatusInfo(agentID, hostName, running, exitCode));
+            }
+
+            final int scenarioCount = in.readInt();
+            final List<ScenarioStatus> scenarioStatusList = new ArrayList<>(scenarioCount);
+            for (int i = 0; i < scenarioCount; i++)
+            {
+                final ScenarioStatus scenarioStatus = new ScenarioStatus();
+                scenarioStatus.setScenarioName(in.readUTF());
+
+                final int state = in.readUnsignedByte();
+                scenarioStatus.setState(state == 0 ? null : State.values()[state - 1]);
+                final int mode = in.readUnsignedByte();
+                scenarioStatus.setMode(mode == 0 ? null : Mode.values()[mode - 1]);
+
+                scenarioStatus.setRunningUsers(in.readInt());
+                scenarioStatus.setTotalUsers(in.readInt());
+                scenarioStatus.setIterations(in.readInt());
+                scenarioStatus.setEvents(in.readInt());
+                scenarioStatus.setErrors(in.readInt());
+                scenarioStatus.setPercentageComplete(in.readInt());
+                scenarioStatus.setStartDate(in.readLong());
+                scenarioStatus.setEndDate(in.readLong());
+                scenarioStatus.setElapsedTime(in.readLong());
+                scenarioStatus.setLastModifiedDate(in.readLong());
+                scenarioStatus.setLastRuntime(in.readLong());
+                scenarioStatus.setTotalRuntime(in.readLong());
+
+                if (in.readBoolean())
+                {
+                    scenarioStatus.setException(new TransmittedException(in.readUTF()));
+                }
+
+                scenarioStatusList.add(scenarioStatus);
+            }
+
+            return new AgentControllerStatus(agentStatusList, scenarioStatusList);
+        }
+    }
+
+    /**
+     * Opens a stream to read the status from the given input stream and checks the version.
+     *
+     * @param in
+     *            the raw input stream
+     * @return the data input stream to pass to {@link #read(DataInputStream)}
+     * @throws IOException
+     *             if the version could not be read or is not supported
+     */
+    public static DataInputStream open(final InputStream in) throws IOException
+    {
+        final DataInputStream dataIn = new DataInputStream(in);
+        readVersion(dataIn);
+
+        return dataIn;
+    }
+
+    /**
+     * An exception that occurred at the agent controller, of which only the text representation is known.
+     */
+    static class TransmittedException extends Exception
+    {
+        private static final long serialVersionUID = 1L;
+
+        TransmittedException(final String text)
+        {
+            super(text, null, false, false);
+        }
+
+        /**
+         * Returns the text representation of the original exception.
+         */
+        @Override
+        public String toString()
+        {
+            return getMessage();
+        }
+    }
+
+    /**
+     * Private constructor to avoid object instantiation.
+     */
+    private AgentControllerStatusStream()
+    {
+    }
+}
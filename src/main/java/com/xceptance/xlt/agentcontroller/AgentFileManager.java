@@ -18,7 +18,10 @@ package com.xceptance.xlt.agentcontroller;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.filefilter.FileFilterUtils;
 import org.slf4j.Logger;
@@ -26,6 +29,8 @@ import org.slf4j.LoggerFactory;
 
 import com.xceptance.common.io.FileUtils;
 import com.xceptance.common.util.zip.ZipUtils;
+import com.xceptance.xlt.util.ContentDefinedChunker;
+import com.xceptance.xlt.util.FileDeltaUtils;
 import com.xceptance.xlt.util.FileReplicationIndex;
 import com.xceptance.xlt.util.FileReplicationUtils;
 
@@ -78,6 +83,9 @@ public class AgentFileManager
             ZipUtils.unzipFile(zipFile, directory);
             log.debug("Unzip finished.");
 
+            log.debug("Rebuilding agent files updated in chunks ...");
+            FileDeltaUtils.applyDeltas(directory);
+
             for (final AgentManager agentManager : agentManagers)
             {
                 agentManager.updateAgentFiles(directory);
@@ -102,6 +110,32 @@ public class AgentFileManager
         }
     }
 
+    /**
+     * Returns the hashes of the chunks the given files are made of.
+     *
+     * @param files
+     *            the files, relative to the agent files directory
+     * @return the chunk hashes keyed by file, files that do not exist are omitted
+     * @throws IOException
+     *             if a file cannot be read
+     * @see ContentDefinedChunker
+     */
+    public Map<File, List<String>> getAgentFileChunks(final List<File> files) throws IOException
+    {
+        final Map<File, List<String>> fileChunks = new HashMap<>();
+
+        for (final File file : files)
+        {
+            final File absoluteFile = new File(directory, file.getPath().replace('\\', '/'));
+            if (absoluteFile.isFile())
+            {
+                fileChunks.put(file, ContentDefinedChunker.chunk(absoluteFile).stream().map(c -> c.hash).collect(Collectors.toList()));
+            }
+        }
+
+        return fileChunks;
+    }
+
     /**
      * removes update directory
      * 
@@ -34,6 +34,7 @@ import com.xceptance.common.io.FileUtils;
 import com.xceptance.common.lang.ThreadUtils;
 import com.xceptance.common.util.zip.ZipUtils;
 import com.xceptance.xlt.agent.AgentInfo;
+import com.xceptance.xlt.common.XltConstants;
 import com.xceptance.xlt.util.FileReplicationIndex;
 import com.xceptance.xlt.util.FileReplicationUtils;
 
@@ -63,7 +64,8 @@ public class AgentManagerImpl implements AgentManager, AgentListener
     /**
      * A file filter that ignores timer files.
      */
-    private static final IOFileFilter NO_TIMERS_FILTER = FileFilterUtils.notFileFilter(FileFilterUtils.makeFileOnly(new NameFileFilter("timers.csv")));
+    private static final IOFileFilter NO_TIMERS_FILTER = FileFilterUtils.notFileFilter(FileFilterUtils.makeFileOnly(new NameFileFilter(XltConstants.TIMER_FILENAME,
+                                                                                                                                 XltConstants.TIMER_BINARY_FILENAME)));
 
     /**
      * A file filter that ignores both agent log files and result browser directories.
@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.agentcontroller;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xceptance.common.io.IoActionHandler;
+import com.xceptance.common.net.UrlConnectionFactory;
+import com.xceptance.xlt.agentcontroller.PartialGetUtils.ContentRangeHeaderData;
+import com.xceptance.xlt.engine.httprequest.HttpRequestHeaders;
+import com.xceptance.xlt.engine.httprequest.HttpResponseHeaders;
+
+/**
+ * Reads a remote file that is downloaded in chunks using partial GETs. Several chunks are downloaded in parallel ahead
+ * of the reader, so the reader can process the data while the download is still in progress. A chunk that failed to
+ * download because of an I/O error is requested again, so a broken connection does not abort the whole download.
+ * <p>
+ * The server must support partial GETs. A server that ignores the Range header and returns the full content instead
+ * would make any retry start over at the beginning of the file, so such a response is rejected.
+ *
+ * @since 8.1.0
+ */
+class ChunkedDownloadInputStream extends InputStream
+{
+    private static final Logger log = LoggerFactory.getLogger(ChunkedDownloadInputStream.class);
+
+    /**
+     * The status code returned if the requested range starts beyond the end of the file.
+     */
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+    /**
+     * The URL of the remote file.
+     */
+    private final URL url;
+
+    /**
+     * The URL connection factory to use.
+     */
+    private final UrlConnectionFactory urlConnectionFactory;
+
+    /**
+     * The size of a chunk.
+     */
+    private final long chunkSize;
+
+    /**
+     * Performs the retries if downloading a chunk failed.
+     */
+    private final IoActionHandler ioActionHandler;
+
+    /**
+     * The threads downloading the chunks, or <code>null</code> if the remote file is empty.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The chunks that are being downloaded, in the order of their position in the file.
+     */
+    private final Queue<Future<byte[]>> pendingChunks = new ArrayDeque<>();
+
+    /**
+     * The total size of the remote file.
+     */
+    private final long totalBytes;
+
+    /**
+     * The position in the remote file of the next chunk to schedule.
+     */
+    private long nextChunkOffset;
+
+    /**
+     * The stream to read the current chunk from.
+     */
+    private InputStream current;
+
+    /**
+     * Opens the remote file at the given URL and starts downloading it.
+     *
+     * @param url
+     *            the URL of the remote file
+     * @param urlConnectionFactory
+     *            the URL connection factory to use
+     * @param chunkSize
+     *            the size of a chunk
+     * @param parallelChunks
+     *            the maximum number of chunks downloaded in parallel
+     * @param maxRetries
+     *            the maximum number of retries per chunk
+     * @throws IOException
+     *             if the first chunk could not be downloaded or the server does not support partial GETs
+     */
+    ChunkedDownloadInputStream(final URL url, final UrlConnectionFactory urlConnectionFactory, final long chunkSize,
+                               final int parallelChunks, final int maxRetries)
+        throws IOException
+    {
+        this.url = url;
+        this.urlConnectionFactory = urlConnectionFactory;
+        this.chunkSize = Math.max(1, chunkSize);
+        ioActionHandler = new IoActionHandler(maxRetries);
+
+        // the first chunk tells us the total size and whether partial GETs are supported at all
+        final HttpURLConnection conn = ioActionHandler.run(() -> openChunk(0));
+        if (conn.getResponseCode() == HTTP_RANGE_NOT_SATISFIABLE)
+        {
+            // empty file
+            totalBytes = 0;
+            current = InputStream.nullInputStream();
+            executor = null;
+        }
+        else
+        {
+            final ContentRangeHeaderData contentRange = getContentRange(conn);
+            totalBytes = contentRange.totalBytes;
+            current = new ByteArrayInputStream(readChunk(conn, contentRange));
+            nextChunkOffset = contentRange.endPos + 1;
+
+            final AtomicInteger threadCount = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(Math.max(1, parallelChunks), r -> {
+                final Thread thread = new Thread(r, "ChunkedDownload-" + threadCount.getAndIncrement());
+                thread.setDaemon(true);
+
+                return thread;
+            });
+
+            for (int i = 0; i < Math.max(1, parallelChunks); i++)
+            {
+                scheduleNextChunk();
+            }
+        }
+    }
+
+    /**
+     * Returns the total size of the remote file.
+     *
+     * @return the size
+     */
+    long getTotalBytes()
+    {
+        return totalBytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException
+    {
+        final byte[] b = new byte[1];
+
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException
+    {
+        if (len == 0)
+        {
+            return 0;
+        }
+
+        while (true)
+        {
+            final int bytesRead = current.read(b, off, len);
+            if (bytesRead > 0)
+            {
+                return bytesRead;
+            }
+
+            // current chunk is exhausted
+            if (!nextChunk())
+            {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (executor != null)
+        {
+            for (final Future<byte[]> pendingChunk : pendingChunks)
+            {
+                pendingChunk.cancel(true);
+            }
+            pendingChunks.clear();
+
+            executor.shutdownNow();
+        }
+
+        current.close();
+    }
+
+    /**
+     * Makes the next chunk the current one, waiting for it to be downloaded if necessary, and schedules the download
+     * of another chunk.
+     *
+     * @return whether there was another chunk
+     * @throws IOException
+     *             if the chunk could not be downloaded
+     */
+    private boolean nextChunk() throws IOException
+    {
+        final Future<byte[]> pendingChunk = pendingChunks.poll();
+        if (pendingChunk == null)
+        {
+            return false;
+        }
+
+        scheduleNextChunk();
+
+        try
+        {
+            current = new ByteArrayInputStream(pendingChunk.get());
+
+            return true;
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for download of " + url, e);
+        }
+        catch (final ExecutionException e)
+        {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+
+            throw new IOException("Failed to download " + url, cause);
+        }
+    }
+
+    /**
+     * Schedules the download of the next chunk if there is one.
+     */
+    private void scheduleNextChunk()
+    {
+        if (nextChunkOffset < totalBytes)
+        {
+            final long offset = nextChunkOffset;
+            nextChunkOffset += chunkSize;
+
+            pendingChunks.add(executor.submit(() -> ioActionHandler.run(() -> downloadChunk(offset))));
+        }
+    }
+
+    /**
+     * Downloads the chunk starting at the given position.
+     *
+     * @param offset
+     *            the position of the chunk
+     * @return the bytes
+     * @throws IOException
+     *             if anything went wrong
+     */
+    private byte[] downloadChunk(final long offset) throws IOException
+    {
+        final HttpURLConnection conn = openChunk(offset);
+
+        final ContentRangeHeaderData contentRange = getContentRange(conn);
+        if (contentRange.startPos != offset)
+        {
+            conn.disconnect();
+            throw new IOException("Received chunk at unexpected position: " + contentRange.startPos);
+        }
+
+        log.debug("Downloading chunk {}-{} from '{}' ...", contentRange.startPos, contentRange.endPos, url);
+
+        return readChunk(conn, contentRange);
+    }
+
+    /**
+     * Requests the chunk starting at the given position.
+     *
+     * @param offset
+     *            the position of the chunk
+     * @return the connection, which returned either a partial response or, for an empty file, a "range not
+     *         satisfiable" response
+     * @throws IOException
+     *             if anything went wrong
+     */
+    private HttpURLConnection openChunk(final long offset) throws IOException
+    {
+        final HttpURLConnection conn = (HttpURLConnection) urlConnectionFactory.open(url);
+        conn.setRequestProperty(HttpRequestHeaders.RANGE, PartialGetUtils.formatRangeHeader(offset, offset + chunkSize - 1));
+
+        final int statusCode = conn.getResponseCode();
+        if (statusCode == HttpURLConnection.HTTP_PARTIAL || (statusCode == HTTP_RANGE_NOT_SATISFIABLE && offset == 0))
+        {
+            return conn;
+        }
+
+        conn.disconnect();
+
+        if (statusCode == HttpURLConnection.HTTP_OK)
+        {
+            throw new IOException(String.format("Server ignored the Range header when downloading '%s' (status code 200), "
+                                                + "but partial GETs are required", url));
+        }
+
+        throw new IOException(String.format("Received unexpected status code %d when downloading '%s'", statusCode, url));
+    }
+
+    /**
+     * Returns the validated Content-Range header data of the given response.
+     *
+     * @param conn
+     *            the connection
+     * @return the header data
+     * @throws IOException
+     *             if the header is missing or invalid
+     */
+    private static ContentRangeHeaderData getContentRange(final HttpURLConnection conn) throws IOException
+    {
+        final String contentRangeHeaderValue = conn.getHeaderField(HttpResponseHeaders.CONTENT_RANGE);
+        final ContentRangeHeaderData contentRange = PartialGetUtils.parseContentRangeHeader(contentRangeHeaderValue);
+        if (contentRange == null)
+        {
+            conn.disconnect();
+            throw new IOException("Received invalid Content-Range header: " + contentRangeHeaderValue);
+        }
+
+        return contentRange;
+    }
+
+    /**
+     * Reads the complete chunk from the given response.
+     *
+     * @param conn
+     *            the connection
+     * @param contentRange
+     *            the Content-Range header data of the response
+     * @return the bytes
+     * @throws IOException
+     *             if the chunk could not be read completely
+     */
+    private static byte[] readChunk(final HttpURLConnection conn, final ContentRangeHeaderData contentRange) throws IOException
+    {
+        final long expectedBytes = contentRange.endPos - contentRange.startPos + 1;
+
+        try (final InputStream in = conn.getInputStream())
+        {
+            final byte[] bytes = IOUtils.toByteArray(in);
+            if (bytes.length != expectedBytes)
+            {
+                throw new IOException(String.format("Expected %d bytes to copy but got %d bytes", expectedBytes, bytes.length));
+            }
+
+            return bytes;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package com.xceptance.xlt.agentcontroller;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * The AgentManager interface represents the (remote) file manager and defines its API.
@@ -51,6 +52,42 @@ public interface FileManager
 
     public void downloadFile(File localFile, String remoteFileName) throws IOException;
 
+    /**
+     * Downloads the content of the file with the given name from the agent controller, starting at the given offset.
+     * The local file is truncated to the offset first and the downloaded bytes are appended to it. Useful to
+     * incrementally fetch a remote file that is still growing.
+     *
+     * @param localFile
+     *            the location to store the downloaded file
+     * @param remoteFileName
+     *            the remote file's name
+     * @param offset
+     *            the position in the remote file to start the download from
+     * @return the number of bytes transferred (0 if there was nothing new)
+     * @throws IOException
+     *             if an I/O error occurs
+     * @since 8.1.0
+     */
+    public long downloadFile(File localFile, String remoteFileName, long offset) throws IOException;
+
+    /**
+     * Opens the file with the given name at the agent controller for reading. The file is downloaded in chunks while
+     * the returned stream is being read, so the caller can process the content without storing it locally first.
+     *
+     * @param remoteFileName
+     *            the remote file's name
+     * @param chunkSize
+     *            the size of a file chunk
+     * @param parallelChunks
+     *            the maximum number of chunks downloaded in parallel ahead of the reader
+     * @return the stream to read the file's content from
+     * @throws IOException
+     *             if an I/O error occurs
+     * @since 8.1.0
+     */
+
+    public InputStream openFile(String remoteFileName, long chunkSize, int parallelChunks) throws IOException;
+
     /**
      * Deletes the file with the given name from the agent controller.
      * 
@@ -16,7 +16,11 @@
 package com.xceptance.xlt.agentcontroller;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 import org.apache.commons.io.FileUtils;
 
@@ -58,6 +62,48 @@ public class FileManagerImpl implements FileManager
         FileUtils.copyFile(remoteFile, localFile);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long downloadFile(final File localFile, final String remoteFileName, final long offset) throws IOException
+    {
+        final File remoteFile = new File(rootDirectory, remoteFileName);
+
+        FileUtils.forceMkdir(localFile.getParentFile());
+
+        try (final FileChannel in = FileChannel.open(remoteFile.toPath(), StandardOpenOption.READ);
+             final FileChannel out = FileChannel.open(localFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE))
+        {
+            out.truncate(offset);
+
+            // the remote file may still grow, so copy only what is there right now
+            final long bytes = Math.max(0, in.size() - offset);
+            long copied = 0;
+            while (copied < bytes)
+            {
+                final long n = in.transferTo(offset + copied, bytes - copied, out.position(offset + copied));
+                if (n <= 0)
+                {
+                    break;
+                }
+                copied += n;
+            }
+
+            return copied;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public InputStream openFile(final String remoteFileName, final long chunkSize, final int parallelChunks) throws IOException
+    {
+        return new FileInputStream(new File(rootDirectory, remoteFileName));
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -52,19 +52,28 @@ public class FileManagerProxy implements FileManager
         /** The total size of the resource that is currently being downloaded. */
         public final long totalSize;
 
+        /** The position of the current chunk in the resource. */
+        public final long chunkStart;
+
         /** The size of the current chunk. */
         public final long chunkSize;
 
-        public ChunkInfo(final long totalSize, final long chunkSize)
+        public ChunkInfo(final long totalSize, final long chunkStart, final long chunkSize)
         {
             super();
             this.totalSize = totalSize;
+            this.chunkStart = chunkStart;
             this.chunkSize = chunkSize;
         }
     }
 
     private static final Logger log = LoggerFactory.getLogger(FileManagerProxy.class);
 
+    /**
+     * The status code returned if the requested range starts beyond the end of the file.
+     */
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
     private final URL url;
 
     private final UrlConnectionFactory urlConnectionFactory;
@@ -97,7 +106,30 @@ public class FileManagerProxy implements FileManager
                             final int downloadMaxRetries)
         throws MalformedURLException
     {
-        this.url = new URL(url + FileManagerServlet.SERVLET_PATH);
+        this(url, FileManagerServlet.SERVLET_PATH, urlConnectionFactory, downloadChunkSize, downloadMaxRetries);
+    }
+
+    /**
+     * Creates a new FileManagerProxy object that talks to the file manager servlet mapped to the given path.
+     *
+     * @param url
+     *            the agent controller's URL
+     * @param servletPath
+     *            the path of the file manager servlet
+     * @param urlConnectionFactory
+     *            the URL connection factory to use
+     * @param downloadChunkSize
+     *            the size of a file chunk
+     * @param downloadMaxRetries
+     *            the maximum number of download retries
+     * @throws MalformedURLException
+     *             if the file manager's URL cannot be created
+     */
+    public FileManagerProxy(final URL url, final String servletPath, final UrlConnectionFactory urlConnectionFactory,
+                            final long downloadChunkSize, final int downloadMaxRetries)
+        throws MalformedURLException
+    {
+        this.url = new URL(url + servletPath);
         this.urlConnectionFactory = urlConnectionFactory;
         this.downloadChunkSize = downloadChunkSize;
         this.downloadMaxRetries = downloadMaxRetries;
@@ -116,10 +148,19 @@ public class FileManagerProxy implements FileManager
      */
     @Override
     public void downloadFile(final File localFile, final String remoteFileName) throws IOException
+    {
+        downloadFile(localFile, remoteFileName, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long downloadFile(final File localFile, final String remoteFileName, final long startOffset) throws IOException
     {
         final URL downloadUrl = new URL(url + remoteFileName);
 
-        log.debug("Downloading file from '{}' to '{}' ...", downloadUrl, localFile);
+        log.debug("Downloading file from '{}' to '{}' starting at {} ...", downloadUrl, localFile, startOffset);
 
         // make sure the target directory exists
         FileUtils.forceMkdir(localFile.getParentFile());
@@ -128,20 +169,38 @@ public class FileManagerProxy implements FileManager
         final IoActionHandler ioActionHandler = new IoActionHandler(downloadMaxRetries);
 
         // download the file content in chunks
-        long bytesRead = 0;
+        long position = startOffset;
         long totalBytes = Long.MAX_VALUE;
+        long transferredBytes = 0;
 
         do
         {
-            final long offset = bytesRead;
+            final long offset = position;
             final long bytes = Math.min(downloadChunkSize, totalBytes - offset);
 
             final ChunkInfo chunkInfo = ioActionHandler.run(() -> downloadFileChunk(localFile, downloadUrl, offset, bytes));
 
-            bytesRead += chunkInfo.chunkSize;
+            // a server that ignores the range sends the complete file, which replaces the local file
+            position = chunkInfo.chunkStart + chunkInfo.chunkSize;
             totalBytes = chunkInfo.totalSize;
+            transferredBytes += chunkInfo.chunkSize;
         }
-        while (bytesRead < totalBytes);
+        while (position < totalBytes);
+
+        return transferredBytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream openFile(final String remoteFileName, final long chunkSize, final int parallelChunks) throws IOException
+    {
+        final URL downloadUrl = new URL(url + remoteFileName);
+
+        log.debug("Streaming file from '{}' in chunks of {} bytes ...", downloadUrl, chunkSize);
+
+        return new ChunkedDownloadInputStream(downloadUrl, urlConnectionFactory, chunkSize, parallelChunks, downloadMaxRetries);
     }
 
     /**
@@ -182,7 +241,7 @@ public class FileManagerProxy implements FileManager
 
             final long bytesCopied = copyBytes(conn, localFile, false);
 
-            return new ChunkInfo(bytesCopied, bytesCopied);
+            return new ChunkInfo(bytesCopied, 0, bytesCopied);
         }
         else if (statusCode == HttpURLConnection.HTTP_PARTIAL)
         {
@@ -205,7 +264,19 @@ public class FileManagerProxy implements FileManager
 
             final long bytesCopied = copyBytes(conn, localFile, true);
 
-            return new ChunkInfo(contentRangeHeaderData.totalBytes, bytesCopied);
+            return new ChunkInfo(contentRangeHeaderData.totalBytes, offset, bytesCopied);
+        }
+        else if (statusCode == HTTP_RANGE_NOT_SATISFIABLE && offset > 0)
+        {
+            /*
+             * Nothing beyond the offset (yet).
+             */
+
+            log.debug("No data beyond position {} at '{}'", startPos, downloadUrl);
+
+            truncateFile(localFile, offset);
+
+            return new ChunkInfo(offset, offset, 0);
         }
         else
         {
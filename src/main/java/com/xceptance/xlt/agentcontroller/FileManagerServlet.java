@@ -21,6 +21,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.function.Predicate;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -62,11 +63,26 @@ public class FileManagerServlet extends HttpServlet
      */
     static final String SERVLET_MAPPING = SERVLET_PATH + "*";
 
+    /**
+     * servlet path of the read-only view on the agent results
+     */
+    static final String RESULTS_SERVLET_PATH = "/agentResults/";
+
+    /**
+     * servlet mapping of the read-only view on the agent results
+     */
+    static final String RESULTS_SERVLET_MAPPING = RESULTS_SERVLET_PATH + "*";
+
     /**
      * web root directory
      */
     private final File rootDirectory;
 
+    /**
+     * the files that may be downloaded, or <code>null</code> if all files may be downloaded and uploaded
+     */
+    private final Predicate<String> readableFiles;
+
     /**
      * Creates a new FileManagerServlet object.
      *
@@ -74,8 +90,23 @@ public class FileManagerServlet extends HttpServlet
      *            the local directory that is the web root
      */
     public FileManagerServlet(final File rootDirectory)
+    {
+        this(rootDirectory, null);
+    }
+
+    /**
+     * Creates a new FileManagerServlet object that serves only the given files and rejects any upload.
+     *
+     * @param rootDirectory
+     *            the local directory that is the web root
+     * @param readableFiles
+     *            accepts the names (relative to the web root) of the files that may be downloaded, or
+     *            <code>null</code> to allow downloads and uploads of all files
+     */
+    public FileManagerServlet(final File rootDirectory, final Predicate<String> readableFiles)
     {
         this.rootDirectory = rootDirectory;
+        this.readableFiles = readableFiles;
     }
 
     /**
@@ -103,6 +134,13 @@ public class FileManagerServlet extends HttpServlet
                 return;
             }
 
+            // check if the file may be downloaded at all
+            if (readableFiles != null && !readableFiles.test(fileName))
+            {
+                resp.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                return;
+            }
+
             final File file = new File(rootDirectory, fileName);
 
             // check if the file does not exist
@@ -219,6 +257,10 @@ public class FileManagerServlet extends HttpServlet
             {
                 resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             }
+            else if (readableFiles != null)
+            {
+                resp.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            }
             else
             {
                 final File file = new File(rootDirectory, fileName);
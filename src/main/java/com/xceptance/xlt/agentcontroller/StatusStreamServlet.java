@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.agentcontroller;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The StatusStreamServlet pushes the status of the agent controller to the master controller for as long as there are
+ * running agents. The response is written using the format defined by {@link AgentControllerStatusStream}.
+ *
+ * @since 8.1.0
+ */
+class StatusStreamServlet extends HttpServlet
+{
+    /**
+     * serialVersionUID
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * class logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(StatusStreamServlet.class);
+
+    /**
+     * servlet path
+     */
+    static final String SERVLET_PATH = "/statusStream";
+
+    /**
+     * name of the request parameter that holds the sample interval
+     */
+    static final String PARAM_INTERVAL = "interval";
+
+    /**
+     * the default sample interval [ms]
+     */
+    private static final long DEFAULT_INTERVAL = 1000;
+
+    /**
+     * the minimum sample interval [ms]
+     */
+    private static final long MIN_INTERVAL = 100;
+
+    /**
+     * the agent controller
+     */
+    private final transient AgentController agentController;
+
+    /**
+     * Creates a new StatusStreamServlet object.
+     *
+     * @param agentController
+     *            the agent controller whose status is to be pushed
+     */
+    StatusStreamServlet(final AgentController agentController)
+    {
+        this.agentController = agentController;
+    }
+
+    /**
+     * Handles all status stream requests.
+     *
+     * @param req
+     *            the servlet request
+     * @param resp
+     *            the servlet response
+     */
+    @Override
+    protected void doGet(final HttpServletRequest req, final HttpServletResponse resp) throws ServletException, IOException
+    {
+        final long interval = Math.max(MIN_INTERVAL, NumberUtils.toLong(req.getParameter(PARAM_INTERVAL), DEFAULT_INTERVAL));
+
+        log.debug("Streaming status every {} ms to {}", interval, req.getRemoteAddr());
+
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType("application/octet-stream");
+
+        try
+        {
+            AgentControllerStatusStream.write(agentController::getStatus, resp.getOutputStream(), interval);
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (final IOException e)
+        {
+            // the master controller has gone
+            log.debug("Status stream closed by {}", req.getRemoteAddr());
+        }
+    }
+}
@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.api.data;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.xceptance.common.util.ParameterCheckUtils;
+import com.xceptance.xlt.api.util.XltLogger;
+import com.xceptance.xlt.api.util.XltProperties;
+import com.xceptance.xlt.api.util.XltRandom;
+import com.xceptance.xlt.common.XltConstants;
+
+/**
+ * The {@link MappedDataProvider} class provides read-only access to a large set of test data strings, which is backed
+ * by a data file. Each line in the data file represents exactly one data item. Lines that start with the configured
+ * line comment marker (ignoring leading white space) are filtered out.
+ * <p>
+ * In contrast to {@link DataProvider}, the data file is not loaded into memory. Instead, it is mapped into memory and
+ * the lines are decoded only when requested. To locate a line quickly, only the offset of every 16th line is kept in
+ * memory, which makes data sets with many millions of lines feasible. The data provider never blocks, so it can be
+ * shared by any number of test users.
+ * <p>
+ * The data file must be saved using an encoding that is compatible with ASCII, such as UTF-8 or ISO-8859-1. It is
+ * searched for in the XLT data directory, which is "[testsuite]/config/data" by default. You may change this directory
+ * by setting the XLT property "com.xceptance.xlt.data.directory" to an appropriate value.
+ * <p>
+ * Use {@link MappedExclusiveDataProvider} if test users need exclusive access to the data items.
+ *
+ * @see DataProvider
+ * @see MappedExclusiveDataProvider
+ * @since 8.1.0
+ */
+public class MappedDataProvider
+{
+    /**
+     * The interval of lines whose offsets are stored in the line index.
+     */
+    static final int INDEX_INTERVAL = 16;
+
+    /**
+     * The data file is mapped in segments of 1 GiB, so the upper bits of a file position denote the segment.
+     */
+    private static final int SEGMENT_SHIFT = 30;
+
+    /**
+     * The mask to get the position in a segment from a file position.
+     */
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    /**
+     * The global set of data providers, keyed by the data file names.
+     */
+    private static final Map<String, MappedDataProvider> dataProviders = new ConcurrentHashMap<String, MappedDataProvider>();
+
+    /**
+     * Returns the data provider responsible for the given file name. If a data provider has not been requested yet for
+     * this file name, then a new data provider is created, otherwise the previously created provider will be returned.
+     * Note that the data providers will be initialized using {@link DataProvider#DEFAULT_FILE_ENCODING} and
+     * {@link DataProvider#DEFAULT_LINE_COMMENT_MARKER}.
+     *
+     * @param fileName
+     *            the file name/path of the data file
+     * @return the data provider
+     * @throws FileNotFoundException
+     *             if the data file cannot be found
+     * @throws IOException
+     *             if the data file cannot be opened or read
+     */
+    public static MappedDataProvider getInstance(final String fileName) throws FileNotFoundException, IOException
+    {
+        MappedDataProvider dataProvider = dataProviders.get(fileName);
+        if (dataProvider == null)
+        {
+            synchronized (dataProviders)
+            {
+                // check again!
+                dataProvider = dataProviders.get(fileName);
+                if (dataProvider == null)
+                {
+                    dataProvider = new MappedDataProvider(fileName);
+                    dataProviders.put(fileName, dataProvider);
+                }
+            }
+        }
+
+        return dataProvider;
+    }
+
+    /**
+     * The memory-mapped segments of the data file.
+     */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * The size of the data file.
+     */
+    private final long fileSize;
+
+    /**
+     * The encoding of the data file.
+     */
+    private final Charset charset;
+
+    /**
+     * The encoded line comment marker, or <code>null</code> if there is none.
+     */
+    private final byte[] lineCommentMarker;
+
+    /**
+     * The file positions of every {@link #INDEX_INTERVAL}th data line.
+     */
+    private final long[] lineIndex;
+
+    /**
+     * The number of data lines.
+     */
+    private final int size;
+
+    /**
+     * The number of the data line to be returned next by {@link #getNextRow()}.
+     */
+    private final AtomicInteger nextRowNumber = new AtomicInteger();
+
+    /**
+     * Creates a new {@link MappedDataProvider} instance for the given data file. The data file is expected to be saved
+     * using {@link DataProvider#DEFAULT_FILE_ENCODING}. Lines in the data file that start with the
+     * {@link DataProvider#DEFAULT_LINE_COMMENT_MARKER} are considered as comment lines.
+     *
+     * @param fileName
+     *            the name/path of the data file
+     * @throws FileNotFoundException
+     *             if the data file cannot be found
+     * @throws IOException
+     *             if the data file cannot be opened or read
+     */
+    public MappedDataProvider(final String fileName) throws FileNotFoundException, IOException
+    {
+        this(fileName, DataProvider.DEFAULT_FILE_ENCODING, DataProvider.DEFAULT_LINE_COMMENT_MARKER);
+    }
+
+    /**
+     * Creates a new {@link MappedDataProvider} instance for the given data file. The data file is expected to be saved
+     * using the passed encoding, for example "UTF-8" or "ISO-8859-1". Lines in the data file that start with the given
+     * line comment marker are considered as comment lines.
+     *
+     * @param fileName
+     *            the name/path of the data file
+     * @param encoding
+     *            the data file encoding, which must be compatible with ASCII
+     * @param lineCommentMarker
+     *            the line comment marker to be used (may be <code>null</code>)
+     * @throws FileNotFoundException
+     *             if the data file cannot be found
+     * @throws IOException
+     *             if the data file cannot be opened or read
+     */
+    public MappedDataProvider(final String fileName, final String encoding, final String lineCommentMarker)
+        throws FileNotFoundException, IOException
+    {
+        ParameterCheckUtils.isNotNullOrEmpty(fileName, "fileName");
+        ParameterCheckUtils.isNotNullOrEmpty(encoding, "encoding");
+
+        charset = Charset.forName(encoding);
+        if (!Arrays.equals("\r\n".getBytes(charset), new byte[]
+            {
+                '\r', '\n'
+            }))
+        {
+            throw new IllegalArgumentException("The encoding '" + encoding + "' is not compatible with ASCII");
+        }
+
+        this.lineCommentMarker = StringUtils.isEmpty(lineCommentMarker) ? null : lineCommentMarker.getBytes(charset);
+
+        // map the data file
+        final String dataDirectory = XltProperties.getInstance().getProperty(XltConstants.XLT_PACKAGE_PATH + ".data.directory",
+                                                                             "config" + File.separatorChar + "data");
+        final File file = new File(dataDirectory, fileName);
+        if (!file.isFile())
+        {
+            throw new FileNotFoundException(file.getAbsolutePath());
+        }
+
+        if (XltLogger.runTimeLogger.isDebugEnabled())
+        {
+            XltLogger.runTimeLogger.debug("Mapping data from " + file.getAbsolutePath());
+        }
+
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            fileSize = channel.size();
+
+            final int segmentCount = (int) ((fileSize + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+            segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++)
+            {
+                final long position = (long) i << SEGMENT_SHIFT;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(fileSize - position, SEGMENT_MASK + 1));
+            }
+        }
+
+        // index the data lines, reading the file in chunks that contain complete lines only
+        long[] index = new long[1024];
+        int lines = 0;
+
+        byte[] buffer = new byte[64 * 1024];
+        long bufferStart = 0;
+        int bufferLength = read(bufferStart, buffer, (int) Math.min(buffer.length, fileSize));
+
+        long position = 0;
+        while (position < fileSize)
+        {
+            final int lineStart = (int) (position - bufferStart);
+            final int lineEnd = getLineEnd(buffer, lineStart, bufferLength);
+
+            // refill the buffer if the line (including a "\r\n" terminator) might continue beyond its end
+            if (bufferStart + bufferLength < fileSize && (lineEnd == bufferLength || lineEnd == bufferLength - 1 && buffer[lineEnd] == '\r'))
+            {
+                if (lineStart == 0)
+                {
+                    buffer = new byte[buffer.length * 2];
+                }
+
+                bufferStart = position;
+                bufferLength = read(bufferStart, buffer, (int) Math.min(buffer.length, fileSize - bufferStart));
+                continue;
+            }
+
+            if (!isCommentLine(buffer, lineStart, lineEnd))
+            {
+                if (lines % INDEX_INTERVAL == 0)
+                {
+                    final int i = lines / INDEX_INTERVAL;
+                    if (i == index.length)
+                    {
+                        index = Arrays.copyOf(index, index.length * 2);
+                    }
+                    index[i] = position;
+                }
+
+                if (++lines < 0)
+                {
+                    throw new IOException("Too many lines in data file: " + file.getAbsolutePath());
+                }
+            }
+
+            position = bufferStart + getNextLineStart(buffer, lineEnd, bufferLength);
+        }
+
+        lineIndex = Arrays.copyOf(index, (lines + INDEX_INTERVAL - 1) / INDEX_INTERVAL);
+        size = lines;
+    }
+
+    /**
+     * Returns a randomly-chosen data row.
+     *
+     * @return a row, or <code>null</code> if the data set is empty
+     */
+    public String getRandomRow()
+    {
+        return getRandomRow(false);
+    }
+
+    /**
+     * Returns a randomly-chosen data row.
+     *
+     * @param removeWhitespace
+     *            whether all whitespace is to be removed from the data
+     * @return a row, or <code>null</code> if the data set is empty
+     */
+    public String getRandomRow(final boolean removeWhitespace)
+    {
+        return size == 0 ? null : getRow(removeWhitespace, XltRandom.nextInt(size));
+    }
+
+    /**
+     * Returns the data rows one after the other, starting over with the first row after the last row was returned. The
+     * rows are distributed across all callers, i.e. concurrent callers will get different rows (unless there are fewer
+     * rows than callers).
+     *
+     * @return the next row, or <code>null</code> if the data set is empty
+     */
+    public String getNextRow()
+    {
+        return size == 0 ? null : getRow(false, Math.floorMod(nextRowNumber.getAndIncrement(), size));
+    }
+
+    /**
+     * Returns the specified data row.
+     *
+     * @param rowNumber
+     *            the number of the row to read
+     * @return the row, or <code>null</code> if the specified row number exceeds the size of the data set
+     */
+    public String getRow(final int rowNumber)
+    {
+        return getRow(false, rowNumber);
+    }
+
+    /**
+     * Returns the specified data row.
+     *
+     * @param removeWhitespace
+     *            whether all whitespace is to be removed from the data
+     * @param rowNumber
+     *            the number of the row to read
+     * @return the row, or <code>null</code> if the specified row number exceeds the size of the data set
+     */
+    public String getRow(final boolean removeWhitespace, final int rowNumber)
+    {
+        if (rowNumber < 0 || rowNumber >= size)
+        {
+            return null;
+        }
+
+        // read the block of lines that starts at the nearest indexed line and skip forward to the requested one
+        final int block = rowNumber / INDEX_INTERVAL;
+        final long blockStart = lineIndex[block];
+        final long blockEnd = block + 1 < lineIndex.length ? lineIndex[block + 1] : fileSize;
+
+        final byte[] bytes = new byte[(int) (blockEnd - blockStart)];
+        read(blockStart, bytes, bytes.length);
+
+        int start = 0;
+        int end = getLineEnd(bytes, start, bytes.length);
+        for (int i = rowNumber % INDEX_INTERVAL; i > 0;)
+        {
+            start = getNextLineStart(bytes, end, bytes.length);
+            end = getLineEnd(bytes, start, bytes.length);
+            if (!isCommentLine(bytes, start, end))
+            {
+                i--;
+            }
+        }
+
+        final String s = new String(bytes, start, end - start, charset);
+
+        return removeWhitespace ? StringUtils.deleteWhitespace(s) : s;
+    }
+
+    /**
+     * Returns the size of the data set.
+     *
+     * @return the data set size
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Copies bytes from the data file, starting at the given file position, to the given array. Copying in bulk is
+     * considerably faster than reading the mapped segments byte by byte.
+     *
+     * @return the number of bytes copied
+     */
+    private int read(final long position, final byte[] bytes, final int length)
+    {
+        int copied = 0;
+        while (copied < length)
+        {
+            final long p = position + copied;
+            final ByteBuffer segment = segments[(int) (p >>> SEGMENT_SHIFT)].duplicate();
+            segment.position((int) (p & SEGMENT_MASK));
+
+            final int n = Math.min(length - copied, segment.remaining());
+            segment.get(bytes, copied, n);
+            copied += n;
+        }
+
+        return copied;
+    }
+
+    /**
+     * Returns the index of the line terminator of the line that starts at the given index, or the limit if the line is
+     * not terminated.
+     */
+    private static int getLineEnd(final byte[] bytes, final int lineStart, final int limit)
+    {
+        int i = lineStart;
+        while (i < limit && bytes[i] != '\n' && bytes[i] != '\r')
+        {
+            i++;
+        }
+
+        return i;
+    }
+
+    /**
+     * Returns the start index of the line following the line that ends at the given index. Lines may be terminated by
+     * "\n", "\r\n", or "\r".
+     */
+    private static int getNextLineStart(final byte[] bytes, final int lineEnd, final int limit)
+    {
+        if (lineEnd + 1 < limit && bytes[lineEnd] == '\r' && bytes[lineEnd + 1] == '\n')
+        {
+            return lineEnd + 2;
+        }
+
+        return lineEnd + 1;
+    }
+
+    /**
+     * Checks whether the given line is a comment line, i.e. whether it starts with the line comment marker after any
+     * leading white space.
+     */
+    private boolean isCommentLine(final byte[] bytes, final int lineStart, final int lineEnd)
+    {
+        if (lineCommentMarker == null)
+        {
+            return false;
+        }
+
+        // skip leading white space the same way as String.trim() does
+        int i = lineStart;
+        while (i < lineEnd && (bytes[i] & 0xFF) <= ' ')
+        {
+            i++;
+        }
+
+        if (i + lineCommentMarker.length > lineEnd)
+        {
+            return false;
+        }
+
+        for (int j = 0; j < lineCommentMarker.length; j++)
+        {
+            if (bytes[i + j] != lineCommentMarker[j])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
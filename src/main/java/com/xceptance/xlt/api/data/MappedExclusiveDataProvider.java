@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.api.data;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.xceptance.common.util.ParameterCheckUtils;
+import com.xceptance.xlt.api.engine.Session;
+import com.xceptance.xlt.api.util.XltRandom;
+
+/**
+ * Provides exclusive access to the data rows of a {@link MappedDataProvider}. The rows are partitioned so that every
+ * agent has an exclusive set of rows, in the same way as {@link ExclusiveDataProvider} does it. Within the agent, a row
+ * that was claimed by a test user will not be handed out again until it is released.
+ * <p>
+ * Rows are identified by their row number. To keep claiming and releasing cheap even for many millions of rows and
+ * many concurrent test users, the available rows are kept in several independent free lists (stripes), each guarded
+ * by its own lock. Claiming or releasing a row takes constant time.
+ *
+ * @see ExclusiveDataProvider
+ * @since 8.1.0
+ */
+public class MappedExclusiveDataProvider
+{
+    /**
+     * The exclusive data providers, mapped by the corresponding data file name.
+     */
+    private static final Map<String, MappedExclusiveDataProvider> EXCLUSIVE_DATA_PROVIDERS = new ConcurrentHashMap<String, MappedExclusiveDataProvider>();
+
+    /**
+     * Returns the exclusive data provider responsible for the given file name. If an exclusive data provider has not
+     * been requested yet for this file name, then a new exclusive data provider is created for the current agent's
+     * partition of the data provided by {@link MappedDataProvider#getInstance(String)}, otherwise the previously
+     * created provider will be returned.
+     *
+     * @param fileName
+     *            the file name/path of the data file
+     * @return the exclusive data provider
+     * @throws FileNotFoundException
+     *             if the data file cannot be found
+     * @throws IOException
+     *             if the data file cannot be opened or read
+     */
+    public static MappedExclusiveDataProvider getInstance(final String fileName) throws FileNotFoundException, IOException
+    {
+        MappedExclusiveDataProvider edp = EXCLUSIVE_DATA_PROVIDERS.get(fileName);
+        if (edp == null)
+        {
+            synchronized (EXCLUSIVE_DATA_PROVIDERS)
+            {
+                // check again!
+                edp = EXCLUSIVE_DATA_PROVIDERS.get(fileName);
+                if (edp == null)
+                {
+                    edp = new MappedExclusiveDataProvider(MappedDataProvider.getInstance(fileName));
+                    EXCLUSIVE_DATA_PROVIDERS.put(fileName, edp);
+                }
+            }
+        }
+
+        return edp;
+    }
+
+    /**
+     * The underlying data provider.
+     */
+    private final MappedDataProvider dataProvider;
+
+    /**
+     * The number of parties the rows are partitioned for.
+     */
+    private final int numberOfParties;
+
+    /**
+     * The index of the party whose rows are managed.
+     */
+    private final int partyIndex;
+
+    /**
+     * The free lists.
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * The mask to get the stripe index from a partition index.
+     */
+    private final int stripeMask;
+
+    /**
+     * The number of bits to shift a partition index by to get the index in its stripe.
+     */
+    private final int stripeShift;
+
+    /**
+     * Creates a new {@link MappedExclusiveDataProvider} instance for the current agent's partition of the rows of the
+     * given data provider.
+     *
+     * @param dataProvider
+     *            the data provider
+     */
+    public MappedExclusiveDataProvider(final MappedDataProvider dataProvider)
+    {
+        this(dataProvider, Session.getCurrent().getTotalAgentCount(), Session.getCurrent().getAgentNumber());
+    }
+
+    /**
+     * Creates a new {@link MappedExclusiveDataProvider} instance for a certain partition of the rows of the given data
+     * provider. The rows are distributed round-robin across all partitions.
+     *
+     * @param dataProvider
+     *            the data provider
+     * @param numberOfParties
+     *            the total number of partitions
+     * @param partyIndex
+     *            the index of the partition to use
+     */
+    public MappedExclusiveDataProvider(final MappedDataProvider dataProvider, final int numberOfParties, final int partyIndex)
+    {
+        ParameterCheckUtils.isNotNull(dataProvider, "dataProvider");
+        ParameterCheckUtils.isGreaterThan(numberOfParties, 0, "numberOfParties");
+        if (partyIndex < 0 || partyIndex >= numberOfParties)
+        {
+            throw new IllegalArgumentException("Party index out of range: " + partyIndex);
+        }
+
+        this.dataProvider = dataProvider;
+        this.numberOfParties = numberOfParties;
+        this.partyIndex = partyIndex;
+
+        // the number of rows in this partition
+        final int rows = (int) Math.max(0, ((long) dataProvider.getSize() - partyIndex + numberOfParties - 1) / numberOfParties);
+
+        // use enough stripes to keep contention low, but not more than there are rows
+        int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        while (stripeCount > 1 && stripeCount > rows)
+        {
+            stripeCount >>>= 1;
+        }
+
+        stripeMask = stripeCount - 1;
+        stripeShift = Integer.numberOfTrailingZeros(stripeCount);
+
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++)
+        {
+            stripes[i] = new Stripe((rows - i + stripeCount - 1) / stripeCount);
+        }
+    }
+
+    /**
+     * Claims an available row for exclusive use. Which row is returned is unspecified.
+     *
+     * @return the row number, or -1 if no row is available
+     */
+    public int claim()
+    {
+        return claim(false);
+    }
+
+    /**
+     * Claims a randomly-chosen available row for exclusive use.
+     *
+     * @return the row number, or -1 if no row is available
+     */
+    public int claimRandom()
+    {
+        return claim(true);
+    }
+
+    /**
+     * Releases a previously claimed row so it becomes available again.
+     *
+     * @param rowNumber
+     *            the number of the row
+     * @throws IllegalArgumentException
+     *             if the row does not belong to this provider's partition
+     * @throws IllegalStateException
+     *             if the row is not claimed
+     */
+    public void release(final int rowNumber)
+    {
+        if (rowNumber < 0 || rowNumber >= dataProvider.getSize() || rowNumber % numberOfParties != partyIndex)
+        {
+            throw new IllegalArgumentException("Row " + rowNumber + " does not belong to this data partition");
+        }
+
+        final int partitionIndex = rowNumber / numberOfParties;
+        final Stripe stripe = stripes[partitionIndex & stripeMask];
+
+        stripe.lock.lock();
+        try
+        {
+            stripe.release(partitionIndex >>> stripeShift, rowNumber);
+        }
+        finally
+        {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the specified data row. Typically used to read a row just claimed.
+     *
+     * @param rowNumber
+     *            the number of the row to read
+     * @return the row, or <code>null</code> if the specified row number exceeds the size of the data set
+     */
+    public String getRow(final int rowNumber)
+    {
+        return dataProvider.getRow(rowNumber);
+    }
+
+    /**
+     * Returns the number of available rows. While rows are claimed or released concurrently, the result is an
+     * approximation.
+     *
+     * @return the number of available rows
+     */
+    public int size()
+    {
+        int size = 0;
+        for (final Stripe stripe : stripes)
+        {
+            size += stripe.count;
+        }
+
+        return size;
+    }
+
+    /**
+     * Claims an available row, preferably from a stripe that is not locked by someone else.
+     *
+     * @param random
+     *            whether to choose a random row
+     * @return the row number, or -1 if no row is available
+     */
+    private int claim(final boolean random)
+    {
+        final int start = random ? XltRandom.nextInt(stripes.length) : (int) Thread.currentThread().getId() & stripeMask;
+
+        // first try to find a stripe that is not in use, then wait for any stripe with rows left
+        for (int pass = 0; pass < 2; pass++)
+        {
+            for (int i = 0; i < stripes.length; i++)
+            {
+                final int stripeIndex = (start + i) & stripeMask;
+                final Stripe stripe = stripes[stripeIndex];
+                if (stripe.count == 0)
+                {
+                    continue;
+                }
+
+                if (pass == 0)
+                {
+                    if (!stripe.lock.tryLock())
+                    {
+                        continue;
+                    }
+                }
+                else
+                {
+                    stripe.lock.lock();
+                }
+
+                try
+                {
+                    final int stripePosition = stripe.claim(random);
+                    if (stripePosition >= 0)
+                    {
+                        return ((stripePosition << stripeShift) | stripeIndex) * numberOfParties + partyIndex;
+                    }
+                }
+                finally
+                {
+                    stripe.lock.unlock();
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * A free list of the rows whose partition index has the same remainder modulo the number of stripes. Rows are
+     * identified by their position in the stripe.
+     */
+    private static final class Stripe
+    {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * The available rows, in the first {@link #count} slots.
+         */
+        private final int[] free;
+
+        /**
+         * Flags the available rows.
+         */
+        private final BitSet available;
+
+        /**
+         * The number of available rows.
+         */
+        private volatile int count;
+
+        private Stripe(final int rows)
+        {
+            free = new int[rows];
+            for (int i = 0; i < rows; i++)
+            {
+                free[i] = i;
+            }
+
+            available = new BitSet(rows);
+            available.set(0, rows);
+
+            count = rows;
+        }
+
+        /**
+         * Removes a row from the free list in constant time by moving the last entry into its slot. Must be called
+         * with the lock held.
+         *
+         * @return the position of the row in the stripe, or -1 if no row is available
+         */
+        private int claim(final boolean random)
+        {
+            final int n = count;
+            if (n == 0)
+            {
+                return -1;
+            }
+
+            final int slot = random ? XltRandom.nextInt(n) : n - 1;
+            final int position = free[slot];
+            free[slot] = free[n - 1];
+            count = n - 1;
+
+            available.clear(position);
+
+            return position;
+        }
+
+        /**
+         * Appends a row to the free list. Must be called with the lock held.
+         */
+        private void release(final int position, final int rowNumber)
+        {
+            if (available.get(position))
+            {
+                throw new IllegalStateException("Row " + rowNumber + " is not claimed");
+            }
+
+            available.set(position);
+            free[count] = position;
+            count++;
+        }
+    }
+}
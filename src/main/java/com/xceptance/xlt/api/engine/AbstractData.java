@@ -15,10 +15,13 @@
  */
 package com.xceptance.xlt.api.engine;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.xceptance.common.io.BinaryRecordWriter;
 import com.xceptance.common.lang.ParseNumbers;
+import com.xceptance.common.util.CsvUtils;
 import com.xceptance.xlt.api.util.XltCharBuffer;
 
 /**
@@ -31,6 +34,66 @@ import com.xceptance.xlt.api.util.XltCharBuffer;
  */
 public abstract class AbstractData implements Data
 {
+    /**
+     * Whether the values of a data record class can be appended directly as CSV, which is the case only if the class
+     * declares {@link #appendCsvValues(StringBuilder)} not above {@link #toList()}. Otherwise, a sub class overrides
+     * {@link #toList()} to add custom values, but does not know about the direct CSV encoding yet.
+     */
+    private static final ClassValue<Boolean> DIRECT_CSV_SUPPORTED = new DirectEncodingSupport("appendCsvValues", StringBuilder.class);
+
+    /**
+     * Whether the values of a data record class can be written directly in binary form, which is the case only if the
+     * class declares {@link #appendBinaryValues(BinaryRecordWriter.Fields)} not above {@link #toList()}.
+     */
+    private static final ClassValue<Boolean> DIRECT_BINARY_SUPPORTED = new DirectEncodingSupport("appendBinaryValues",
+                                                                                                 BinaryRecordWriter.Fields.class);
+
+    /**
+     * Determines whether a data record class declares a certain method for the direct encoding of its values not above
+     * {@link #toList()}.
+     */
+    private static final class DirectEncodingSupport extends ClassValue<Boolean>
+    {
+        private final String methodName;
+
+        private final Class<?> parameterType;
+
+        private DirectEncodingSupport(final String methodName, final Class<?> parameterType)
+        {
+            this.methodName = methodName;
+            this.parameterType = parameterType;
+        }
+
+        @Override
+        protected Boolean computeValue(final Class<?> type)
+        {
+            try
+            {
+                final Class<?> toListClass = type.getMethod("toList").getDeclaringClass();
+
+                for (Class<?> c = type; c != null; c = c.getSuperclass())
+                {
+                    try
+                    {
+                        c.getDeclaredMethod(methodName, parameterType);
+
+                        return toListClass.isAssignableFrom(c);
+                    }
+                    catch (final NoSuchMethodException e)
+                    {
+                        // continue with the super class
+                    }
+                }
+            }
+            catch (final NoSuchMethodException e)
+            {
+                // cannot happen
+            }
+
+            return false;
+        }
+    }
+
     /**
      * The time when the event occurred that this data record was created for.
      */
@@ -216,4 +279,207 @@ public abstract class AbstractData implements Data
 
         return fields;
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Appends the values directly if possible. Sub classes add their custom values by overriding
+     * {@link #appendCsvValues(StringBuilder)}.
+     *
+     * @since 8.1.0
+     */
+    @Override
+    public StringBuilder toCsv(final StringBuilder target)
+    {
+        if (DIRECT_CSV_SUPPORTED.get(getClass()))
+        {
+            appendCsvValues(target);
+
+            return target;
+        }
+
+        return Data.super.toCsv(target);
+    }
+
+    /**
+     * Appends the same values as returned by {@link #toList()} in CSV-encoded form to the given buffer.
+     * <p>
+     * Override this method in sub classes together with {@link #toList()} by calling the super method and appending
+     * the custom values using the <code>appendCsvField</code> methods.
+     *
+     * @param target
+     *            the buffer to append the values to
+     * @since 8.1.0
+     */
+    protected void appendCsvValues(final StringBuilder target)
+    {
+        target.append(typeCode);
+        appendCsvField(target, name);
+        appendCsvField(target, time);
+    }
+
+    /**
+     * Appends a field separator and the given value in CSV-encoded form to the given buffer.
+     *
+     * @param target
+     *            the buffer
+     * @param value
+     *            the value
+     * @throws IllegalArgumentException
+     *             if the value is <code>null</code>
+     * @since 8.1.0
+     */
+    protected static void appendCsvField(final StringBuilder target, final CharSequence value)
+    {
+        if (value == null)
+        {
+            throw new IllegalArgumentException("Array entry must not be null.");
+        }
+
+        CsvUtils.encodeField(value, CsvUtils.COMMA, target.append(CsvUtils.COMMA));
+    }
+
+    /**
+     * Appends a field separator and the given value to the given buffer.
+     *
+     * @param target
+     *            the buffer
+     * @param value
+     *            the value
+     * @since 8.1.0
+     */
+    protected static void appendCsvField(final StringBuilder target, final long value)
+    {
+        target.append(CsvUtils.COMMA).append(value);
+    }
+
+    /**
+     * Appends a field separator and the given value to the given buffer.
+     *
+     * @param target
+     *            the buffer
+     * @param value
+     *            the value
+     * @since 8.1.0
+     */
+    protected static void appendCsvField(final StringBuilder target, final double value)
+    {
+        target.append(CsvUtils.COMMA).append(value);
+    }
+
+    /**
+     * Appends a field separator and the given value to the given buffer.
+     *
+     * @param target
+     *            the buffer
+     * @param value
+     *            the value
+     * @since 8.1.0
+     */
+    protected static void appendCsvField(final StringBuilder target, final boolean value)
+    {
+        target.append(CsvUtils.COMMA).append(value);
+    }
+
+    /**
+     * Writes the same values as returned by {@link #toList()} as a record to the given binary writer. The values are
+     * added directly if possible, without creating the list first.
+     *
+     * @param writer
+     *            the binary writer
+     * @throws IOException
+     *             if the record cannot be written
+     * @since 8.1.0
+     */
+    public void writeBinary(final BinaryRecordWriter writer) throws IOException
+    {
+        if (DIRECT_BINARY_SUPPORTED.get(getClass()))
+        {
+            writer.write(this::appendBinaryValues);
+        }
+        else
+        {
+            writer.write(toList());
+        }
+    }
+
+    /**
+     * Adds the same values as returned by {@link #toList()} to the given binary record fields.
+     * <p>
+     * Override this method in sub classes together with {@link #toList()} and {@link #appendCsvValues(StringBuilder)}
+     * by calling the super method and adding the custom values using the <code>appendBinaryField</code> methods.
+     *
+     * @param fields
+     *            the fields to add the values to
+     * @since 8.1.0
+     */
+    protected void appendBinaryValues(final BinaryRecordWriter.Fields fields)
+    {
+        fields.add(String.valueOf(typeCode));
+        appendBinaryField(fields, name);
+        appendBinaryField(fields, time);
+    }
+
+    /**
+     * Adds the given value to the given binary record fields.
+     *
+     * @param fields
+     *            the fields
+     * @param value
+     *            the value
+     * @throws IllegalArgumentException
+     *             if the value is <code>null</code>
+     * @since 8.1.0
+     */
+    protected static void appendBinaryField(final BinaryRecordWriter.Fields fields, final CharSequence value)
+    {
+        if (value == null)
+        {
+            throw new IllegalArgumentException("Array entry must not be null.");
+        }
+
+        fields.add(value);
+    }
+
+    /**
+     * Adds the given value to the given binary record fields.
+     *
+     * @param fields
+     *            the fields
+     * @param value
+     *            the value
+     * @since 8.1.0
+     */
+    protected static void appendBinaryField(final BinaryRecordWriter.Fields fields, final long value)
+    {
+        fields.add(value);
+    }
+
+    /**
+     * Adds the given value to the given binary record fields.
+     *
+     * @param fields
+     *            the fields
+     * @param value
+     *            the value
+     * @since 8.1.0
+     */
+    protected static void appendBinaryField(final BinaryRecordWriter.Fields fields, final double value)
+    {
+        fields.add(Double.toString(value));
+    }
+
+    /**
+     * Adds the given value to the given binary record fields.
+     *
+     * @param fields
+     *            the fields
+     * @param value
+     *            the value
+     * @since 8.1.0
+     */
+    protected static void appendBinaryField(final BinaryRecordWriter.Fields fields, final boolean value)
+    {
+        fields.add(Boolean.toString(value));
+    }
 }
@@ -17,6 +17,7 @@ package com.xceptance.xlt.api.engine;
 
 import java.util.List;
 
+import com.xceptance.common.io.BinaryRecordWriter;
 import com.xceptance.xlt.api.util.XltCharBuffer;
 
 /**
@@ -89,6 +90,28 @@ public class CustomValue extends AbstractData
         return values;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void appendCsvValues(final StringBuilder target)
+    {
+        super.appendCsvValues(target);
+
+        appendCsvField(target, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void appendBinaryValues(final BinaryRecordWriter.Fields fields)
+    {
+        super.appendBinaryValues(fields);
+
+        appendBinaryField(fields, value);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -17,6 +17,7 @@ package com.xceptance.xlt.api.engine;
 
 import java.util.List;
 
+import com.xceptance.common.util.CsvUtils;
 import com.xceptance.xlt.api.util.XltCharBuffer;
 
 /**
@@ -56,6 +57,23 @@ public interface Data
      */
     public List<String> toList();
 
+    /**
+     * Called by XLT during a load test to append the full state of the object as a CSV-encoded line (without line
+     * separator) to the given buffer. The result is the same as CSV-encoding the values returned by {@link #toList()},
+     * which is what this default implementation does. Implementations may append the values directly instead to avoid
+     * creating temporary objects.
+     *
+     * @param target
+     *            the buffer to append the CSV-encoded values to
+     * @return the buffer
+     * @see #toList()
+     * @since 8.1.0
+     */
+    public default StringBuilder toCsv(final StringBuilder target)
+    {
+        return CsvUtils.encode(toList(), CsvUtils.COMMA, target);
+    }
+
     /**
      * Called by XLT during report creation to recreate the base object state (type code, name, and timestamp) from the
      * passed string list. The remaining values may later be initialized by calling {@link #setRemainingValues(List)}
@@ -17,6 +17,7 @@ package com.xceptance.xlt.api.engine;
 
 import java.util.List;
 
+import com.xceptance.common.io.BinaryRecordWriter;
 import com.xceptance.xlt.api.util.XltCharBuffer;
 
 /**
@@ -136,6 +137,30 @@ public class EventData extends AbstractData
         return fields;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void appendCsvValues(final StringBuilder target)
+    {
+        super.appendCsvValues(target);
+
+        appendCsvField(target, testCaseName);
+        appendCsvField(target, message);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void appendBinaryValues(final BinaryRecordWriter.Fields fields)
+    {
+        super.appendBinaryValues(fields);
+
+        appendBinaryField(fields, testCaseName);
+        appendBinaryField(fields, message);
+    }
+
     /**
      * {@inheritDoc}
      */
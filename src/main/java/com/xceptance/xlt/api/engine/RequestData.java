@@ -19,6 +19,7 @@ import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.xceptance.common.io.BinaryRecordWriter;
 import com.xceptance.common.lang.ParseNumbers;
 import com.xceptance.common.lang.StringHasher;
 import com.xceptance.xlt.api.util.XltCharBuffer;
@@ -772,6 +773,72 @@ public class RequestData extends TimerData
         return fields;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void appendCsvValues(final StringBuilder target)
+    {
+        super.appendCsvValues(target);
+
+        appendCsvField(target, bytesSent);
+        appendCsvField(target, bytesReceived);
+        appendCsvField(target, responseCode);
+        appendCsvField(target, XltCharBuffer.emptyWhenNull(url));
+        appendCsvField(target, XltCharBuffer.emptyWhenNull(contentType));
+        appendCsvField(target, connectTime);
+        appendCsvField(target, sendTime);
+        appendCsvField(target, serverBusyTime);
+        appendCsvField(target, receiveTime);
+        appendCsvField(target, timeToFirstBytes);
+        appendCsvField(target, timeToLastBytes);
+        appendCsvField(target, XltCharBuffer.emptyWhenNull(requestId));
+
+        appendCsvField(target, XltCharBuffer.emptyWhenNull(httpMethod));
+        appendCsvField(target, XltCharBuffer.emptyWhenNull(formDataEncoding));
+        appendCsvField(target, XltCharBuffer.emptyWhenNull(formData));
+
+        appendCsvField(target, dnsTime);
+        appendCsvField(target, StringUtils.defaultString(ipAddresses));
+
+        appendCsvField(target, XltCharBuffer.emptyWhenNull(responseId));
+
+        appendCsvField(target, XltCharBuffer.emptyWhenNull(usedIpAddress));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void appendBinaryValues(final BinaryRecordWriter.Fields fields)
+    {
+        super.appendBinaryValues(fields);
+
+        appendBinaryField(fields, bytesSent);
+        appendBinaryField(fields, bytesReceived);
+        appendBinaryField(fields, responseCode);
+        appendBinaryField(fields, XltCharBuffer.emptyWhenNull(url));
+        appendBinaryField(fields, XltCharBuffer.emptyWhenNull(contentType));
+        appendBinaryField(fields, connectTime);
+        appendBinaryField(fields, sendTime);
+        appendBinaryField(fields, serverBusyTime);
+        appendBinaryField(fields, receiveTime);
+        appendBinaryField(fields, timeToFirstBytes);
+        appendBinaryField(fields, timeToLastBytes);
+        appendBinaryField(fields, XltCharBuffer.emptyWhenNull(requestId));
+
+        appendBinaryField(fields, XltCharBuffer.emptyWhenNull(httpMethod));
+        appendBinaryField(fields, XltCharBuffer.emptyWhenNull(formDataEncoding));
+        appendBinaryField(fields, XltCharBuffer.emptyWhenNull(formData));
+
+        appendBinaryField(fields, dnsTime);
+        appendBinaryField(fields, StringUtils.defaultString(ipAddresses));
+
+        appendBinaryField(fields, XltCharBuffer.emptyWhenNull(responseId));
+
+        appendBinaryField(fields, XltCharBuffer.emptyWhenNull(usedIpAddress));
+    }
+
     /**
      * {@inheritDoc}
      */
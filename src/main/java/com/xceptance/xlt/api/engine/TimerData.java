@@ -17,6 +17,7 @@ package com.xceptance.xlt.api.engine;
 
 import java.util.List;
 
+import com.xceptance.common.io.BinaryRecordWriter;
 import com.xceptance.common.lang.ParseBoolean;
 import com.xceptance.common.lang.ParseNumbers;
 import com.xceptance.xlt.api.util.XltCharBuffer;
@@ -141,6 +142,30 @@ public abstract class TimerData extends AbstractData
 
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void appendCsvValues(final StringBuilder target)
+    {
+        super.appendCsvValues(target);
+
+        appendCsvField(target, runTime);
+        appendCsvField(target, failed);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void appendBinaryValues(final BinaryRecordWriter.Fields fields)
+    {
+        super.appendBinaryValues(fields);
+
+        appendBinaryField(fields, runTime);
+        appendBinaryField(fields, failed);
+    }
+
     /**
      * {@inheritDoc}
      */
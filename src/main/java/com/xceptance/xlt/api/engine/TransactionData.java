@@ -20,6 +20,7 @@ import java.util.regex.Matcher;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.xceptance.common.io.BinaryRecordWriter;
 import com.xceptance.common.lang.ThrowableUtils;
 import com.xceptance.common.util.RegExUtils;
 import com.xceptance.xlt.api.util.XltCharBuffer;
@@ -270,6 +271,38 @@ public class TransactionData extends TimerData
         return fields;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void appendCsvValues(final StringBuilder target)
+    {
+        super.appendCsvValues(target);
+
+        // translate any EOL to '\' so that the trace fits on one line
+        appendCsvField(target, stackTrace == null ? "" : stackTrace.replace("\n", "\\").replace("\r", ""));
+
+        appendCsvField(target, StringUtils.defaultString(failedActionName));
+        appendCsvField(target, StringUtils.defaultString(testUserNumber));
+        appendCsvField(target, StringUtils.defaultString(directoryName));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void appendBinaryValues(final BinaryRecordWriter.Fields fields)
+    {
+        super.appendBinaryValues(fields);
+
+        // translate any EOL to '\' so that the trace fits on one line
+        appendBinaryField(fields, stackTrace == null ? "" : stackTrace.replace("\n", "\\").replace("\r", ""));
+
+        appendBinaryField(fields, StringUtils.defaultString(failedActionName));
+        appendBinaryField(fields, StringUtils.defaultString(testUserNumber));
+        appendBinaryField(fields, StringUtils.defaultString(directoryName));
+    }
+
     /**
      * {@inheritDoc}
      */
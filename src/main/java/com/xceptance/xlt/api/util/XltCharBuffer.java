@@ -15,6 +15,7 @@
  */
 package com.xceptance.xlt.api.util;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -31,7 +32,7 @@ import com.xceptance.common.lang.OpenStringBuilder;
  * @author rschwietzke
  * @since 7.0
  */
-public class XltCharBuffer implements CharSequence, Comparable<XltCharBuffer>
+public class XltCharBuffer implements CharSequence, Comparable<XltCharBuffer>, Serializable
 {
     /**
      * Empty array
@@ -459,6 +460,17 @@ public class XltCharBuffer implements CharSequence, Comparable<XltCharBuffer>
     // return new XltCharBuffer(s.getCharArray(), 0, s.length());
     // }
 
+    /**
+     * Replaces this view by a compact copy when serializing, so that the shared and possibly huge source array is not
+     * written as well.
+     *
+     * @return the object to serialize
+     */
+    private Object writeReplace()
+    {
+        return (from == 0 && length == src.length) ? this : new XltCharBuffer(toCharArray());
+    }
+
     /**
      * Just return the content of this buffer as string. This is of course a copy operation.
      *
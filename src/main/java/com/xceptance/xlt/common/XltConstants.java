@@ -167,6 +167,17 @@ public final class XltConstants
                                                                           "^timers\\.csv\\.[0-9]{4}-[0-9]{2}-[0-9]{2}\\.gz$")
                                                                       .map(Pattern::compile).collect(Collectors.toList());
 
+    /**
+     * The name of the binary timer files.
+     */
+    public static final String TIMER_BINARY_FILENAME = "timers.bin";
+
+    /**
+     * The possible name of the binary timer files.
+     */
+    public static final List<Pattern> TIMER_BINARY_FILENAME_PATTERNS = Stream.of("^timers\\.bin$", "^timers\\.bin\\.gz$")
+                                                                             .map(Pattern::compile).collect(Collectors.toList());
+
     /**
      * The possible name of the CPT timer files.
      * <p>
@@ -0,0 +1,791 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.xceptance.xlt.api.util.XltLogger;
+import com.xceptance.xlt.api.util.XltProperties;
+import com.xceptance.xlt.common.XltConstants;
+
+/**
+ * Writes the lines of the timer files of all sessions of an agent in background threads. The load test threads only
+ * copy their already encoded line into a slot of a bounded ring buffer, while a writer thread moves the lines to the
+ * target writers and flushes them in batches, either when enough data was written or when the flush interval has
+ * elapsed. This way, the load test threads do not wait for the disk.
+ * <p>
+ * To keep the load test threads from contending for a single queue, there are several independent queues (stripes),
+ * each with its own lock and writer thread. All lines of a target writer go to the same stripe, so they are written in
+ * the order they were queued.
+ * <p>
+ * If a ring buffer is full, the load test threads either wait for a free slot or, if so configured, drop the line.
+ * Closing a writer is queued as well, so all lines queued for a writer before are written before the writer is
+ * closed. When the JVM shuts down, any pending line is written before the JVM exits.
+ *
+ * @since 8.1.0
+ */
+class AsyncTimerWriter
+{
+    /**
+     * The prefix of all the settings of the asynchronous timer writer.
+     */
+    private static final String PROP_PREFIX = XltConstants.XLT_PACKAGE_PATH + ".results.asyncTimers.";
+
+    /**
+     * Whether the timer files are written asynchronously.
+     */
+    static final String PROP_ENABLED = PROP_PREFIX + "enabled";
+
+    /**
+     * The maximum number of lines waiting to be written.
+     */
+    static final String PROP_QUEUE_SIZE = PROP_PREFIX + "queueSize";
+
+    /**
+     * The number of independent queues.
+     */
+    static final String PROP_STRIPES = PROP_PREFIX + "stripes";
+
+    /**
+     * The maximum time [ms] a written line may stay in the buffers of the timer file writers.
+     */
+    static final String PROP_FLUSH_INTERVAL = PROP_PREFIX + "flushInterval";
+
+    /**
+     * The number of written characters after which the timer file writers are flushed.
+     */
+    static final String PROP_FLUSH_SIZE = PROP_PREFIX + "flushSize";
+
+    /**
+     * Whether to drop lines instead of waiting if the queue is full.
+     */
+    static final String PROP_DROP_WHEN_FULL = PROP_PREFIX + "dropWhenFull";
+
+    /**
+     * The maximum time [ms] to wait for pending lines to be written when the JVM shuts down.
+     */
+    private static final long SHUTDOWN_TIMEOUT = 10_000;
+
+    /**
+     * The minimum time [ms] between two warnings about dropped lines.
+     */
+    private static final long DROP_WARNING_INTERVAL = 10_000;
+
+    /**
+     * The initial capacity of a slot.
+     */
+    private static final int INITIAL_SLOT_CAPACITY = 256;
+
+    /**
+     * The maximum number of stripes used by default.
+     */
+    private static final int MAX_DEFAULT_STRIPES = 8;
+
+    /**
+     * The outcome of handing over a line.
+     */
+    enum Result
+    {
+        /**
+         * The line was queued right away.
+         */
+        QUEUED,
+
+        /**
+         * The line was queued, but only after waiting for a free slot.
+         */
+        BLOCKED,
+
+        /**
+         * The line was dropped because the queue was full.
+         */
+        DROPPED
+    }
+
+    /**
+     * One entry of a ring buffer.
+     */
+    private static final class Slot
+    {
+        /**
+         * The writer to write the line to.
+         */
+        private Writer target;
+
+        /**
+         * The characters of the line. Reused for the next line if large enough.
+         */
+        private char[] chars = new char[INITIAL_SLOT_CAPACITY];
+
+        /**
+         * The number of valid characters.
+         */
+        private int length;
+
+        /**
+         * Whether the target writer is to be closed instead of written to.
+         */
+        private boolean close;
+    }
+
+    /**
+     * The lazily created agent-wide instance.
+     */
+    private static volatile AsyncTimerWriter instance;
+
+    /**
+     * Whether the agent-wide instance was requested already.
+     */
+    private static volatile boolean instanceResolved;
+
+    /**
+     * The independent queues.
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * Whether to drop lines instead of waiting if a ring buffer is full.
+     */
+    private final boolean dropWhenFull;
+
+    /**
+     * The maximum time [ns] a written line may stay unflushed.
+     */
+    private final long flushIntervalNanos;
+
+    /**
+     * The number of written characters after which the writers of a stripe are flushed.
+     */
+    private final int flushSize;
+
+    /**
+     * The number of lines that had to wait for a free slot.
+     */
+    private final AtomicLong blockedCount = new AtomicLong();
+
+    /**
+     * The number of lines that were dropped.
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * The time [ms] the last warning about dropped lines was logged.
+     */
+    private volatile long lastDropWarning;
+
+    /**
+     * Creates a new asynchronous timer writer and starts its writer threads.
+     *
+     * @param queueSize
+     *            the maximum number of lines waiting to be written, split evenly across the stripes
+     * @param stripeCount
+     *            the number of independent queues
+     * @param flushInterval
+     *            the maximum time [ms] a written line may stay unflushed
+     * @param flushSize
+     *            the number of written characters after which the writers are flushed
+     * @param dropWhenFull
+     *            whether to drop lines instead of waiting if the queue is full
+     */
+    AsyncTimerWriter(final int queueSize, final int stripeCount, final long flushInterval, final int flushSize,
+                     final boolean dropWhenFull)
+    {
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushInterval));
+        this.flushSize = Math.max(1, flushSize);
+        this.dropWhenFull = dropWhenFull;
+
+        stripes = new Stripe[Math.max(1, stripeCount)];
+
+        final int stripeSize = Math.max(1, (queueSize + stripes.length - 1) / stripes.length);
+        for (int i = 0; i < stripes.length; i++)
+        {
+            stripes[i] = new Stripe(stripeSize, "XLT-TimerWriter-" + i);
+        }
+    }
+
+    /**
+     * Returns the agent-wide asynchronous timer writer if so configured. The writer is created when called for the
+     * first time.
+     *
+     * @return the writer, or <code>null</code> if the timer files are to be written synchronously
+     */
+    static AsyncTimerWriter getInstance()
+    {
+        if (!instanceResolved)
+        {
+            synchronized (AsyncTimerWriter.class)
+            {
+                if (!instanceResolved)
+                {
+                    final XltProperties props = XltProperties.getInstance();
+
+                    if (props.getProperty(PROP_ENABLED, false))
+                    {
+                        final int defaultStripes = Math.min(MAX_DEFAULT_STRIPES, Runtime.getRuntime().availableProcessors());
+
+                        final AsyncTimerWriter writer = new AsyncTimerWriter(props.getProperty(PROP_QUEUE_SIZE, 4096),
+                                                                             props.getProperty(PROP_STRIPES, defaultStripes),
+                                                                             props.getProperty(PROP_FLUSH_INTERVAL, 1000),
+                                                                             props.getProperty(PROP_FLUSH_SIZE, 65536),
+                                                                             props.getProperty(PROP_DROP_WHEN_FULL, false));
+
+                        // make sure nothing gets lost when the agent terminates
+                        Runtime.getRuntime().addShutdownHook(new Thread(() -> writer.flush(SHUTDOWN_TIMEOUT),
+                                                                        AsyncTimerWriter.class.getSimpleName() + "-shutdown"));
+
+                        instance = writer;
+                    }
+
+                    instanceResolved = true;
+                }
+            }
+        }
+
+        return instance;
+    }
+
+    /**
+     * Queues the given line for being written to the given writer. The line is copied, so the caller may reuse the
+     * passed buffer right away.
+     *
+     * @param target
+     *            the writer
+     * @param line
+     *            the line, including the line separator
+     * @return whether the line was queued right away, had to wait, or was dropped
+     */
+    Result write(final Writer target, final CharSequence line)
+    {
+        final Result result = getStripe(target).write(target, line);
+
+        if (result == Result.BLOCKED)
+        {
+            blockedCount.incrementAndGet();
+        }
+        else if (result == Result.DROPPED)
+        {
+            droppedCount.incrementAndGet();
+            warnAboutDroppedLines();
+        }
+
+        return result;
+    }
+
+    /**
+     * Queues the closing of the given writer and waits until all lines queued for it so far have been written and the
+     * writer is closed.
+     *
+     * @param target
+     *            the writer to close
+     * @param timeout
+     *            the maximum time [ms] to wait
+     * @return whether the writer was closed in time
+     */
+    boolean close(final Writer target, final long timeout)
+    {
+        return getStripe(target).close(target, timeout);
+    }
+
+    /**
+     * Waits until all lines queued so far have been written and flushed to their writers.
+     *
+     * @param timeout
+     *            the maximum time [ms] to wait
+     * @return whether all lines were flushed in time
+     */
+    boolean flush(final long timeout)
+    {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        // request all flushes first, so the stripes work in parallel
+        final long[] targets = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++)
+        {
+            targets[i] = stripes[i].requestFlush();
+        }
+
+        boolean flushed = true;
+        for (int i = 0; i < stripes.length; i++)
+        {
+            flushed &= stripes[i].awaitFlushed(targets[i], deadline);
+        }
+
+        return flushed;
+    }
+
+    /**
+     * Returns the number of lines that had to wait for a free slot so far.
+     *
+     * @return the number of blocked lines
+     */
+    long getBlockedCount()
+    {
+        return blockedCount.get();
+    }
+
+    /**
+     * Returns the number of lines that were dropped so far.
+     *
+     * @return the number of dropped lines
+     */
+    long getDroppedCount()
+    {
+        return droppedCount.get();
+    }
+
+    /**
+     * Returns the stripe responsible for the given writer.
+     *
+     * @param target
+     *            the writer
+     * @return the stripe
+     */
+    private Stripe getStripe(final Writer target)
+    {
+        return stripes[Math.floorMod(System.identityHashCode(target), stripes.length)];
+    }
+
+    /**
+     * Logs a warning about dropped lines, but not more often than every {@link #DROP_WARNING_INTERVAL} ms.
+     */
+    private void warnAboutDroppedLines()
+    {
+        final long now = System.currentTimeMillis();
+        if (now - lastDropWarning >= DROP_WARNING_INTERVAL)
+        {
+            lastDropWarning = now;
+            XltLogger.runTimeLogger.warn("Timer writer queue is full. Dropped " + droppedCount.get() + " line(s) so far.");
+        }
+    }
+
+    /**
+     * A bounded ring buffer together with the thread that writes its entries.
+     */
+    private final class Stripe
+    {
+        /**
+         * The ring buffer.
+         */
+        private final Slot[] slots;
+
+        /**
+         * Guards the ring buffer.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Signaled when new entries were queued or a flush was requested.
+         */
+        private final Condition notEmpty = lock.newCondition();
+
+        /**
+         * Signaled when entries were processed and their slots can be reused.
+         */
+        private final Condition notFull = lock.newCondition();
+
+        /**
+         * Signaled when all entries up to {@link #flushed} are written and flushed.
+         */
+        private final Condition drained = lock.newCondition();
+
+        /**
+         * The sequence number of the next entry to queue.
+         */
+        private long head;
+
+        /**
+         * The sequence number of the next entry to process.
+         */
+        private long tail;
+
+        /**
+         * All entries below this sequence number have been written and flushed.
+         */
+        private long flushed;
+
+        /**
+         * Whether someone waits for the queued entries to be flushed.
+         */
+        private boolean flushRequested;
+
+        /**
+         * The writers with unflushed data. Only accessed by the writer thread.
+         */
+        private final Set<Writer> dirtyWriters = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        /**
+         * Creates a new stripe and starts its writer thread.
+         *
+         * @param size
+         *            the size of the ring buffer
+         * @param threadName
+         *            the name of the writer thread
+         */
+        private Stripe(final int size, final String threadName)
+        {
+            slots = new Slot[size];
+            for (int i = 0; i < slots.length; i++)
+            {
+                slots[i] = new Slot();
+            }
+
+            final Thread writerThread = new Thread(this::processEntries, threadName);
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+
+        /**
+         * Queues the given line for being written to the given writer.
+         *
+         * @param target
+         *            the writer
+         * @param line
+         *            the line, including the line separator
+         * @return whether the line was queued right away, had to wait, or was dropped
+         */
+        private Result write(final Writer target, final CharSequence line)
+        {
+            Result result = Result.QUEUED;
+
+            lock.lock();
+            try
+            {
+                while (head - tail >= slots.length)
+                {
+                    if (dropWhenFull)
+                    {
+                        return Result.DROPPED;
+                    }
+
+                    result = Result.BLOCKED;
+                    notFull.awaitUninterruptibly();
+                }
+
+                final Slot slot = slots[(int) (head % slots.length)];
+                final int length = line.length();
+
+                if (slot.chars.length < length)
+                {
+                    slot.chars = new char[Math.max(length, slot.chars.length * 2)];
+                }
+
+                if (line instanceof StringBuilder)
+                {
+                    ((StringBuilder) line).getChars(0, length, slot.chars, 0);
+                }
+                else
+                {
+                    line.toString().getChars(0, length, slot.chars, 0);
+                }
+
+                slot.target = target;
+                slot.length = length;
+                slot.close = false;
+
+                enqueue();
+
+                return result;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Queues the closing of the given writer and waits until the writer thread has closed it.
+         *
+         * @param target
+         *            the writer to close
+         * @param timeout
+         *            the maximum time [ms] to wait
+         * @return whether the writer was closed in time
+         */
+        private boolean close(final Writer target, final long timeout)
+        {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+
+            lock.lock();
+            try
+            {
+                // never drop a close request
+                while (head - tail >= slots.length)
+                {
+                    notFull.awaitUninterruptibly();
+                }
+
+                final Slot slot = slots[(int) (head % slots.length)];
+                slot.target = target;
+                slot.length = 0;
+                slot.close = true;
+
+                final long seq = head;
+                enqueue();
+
+                // the slot is released only after the writer was closed
+                while (tail <= seq)
+                {
+                    if (remainingNanos <= 0)
+                    {
+                        return false;
+                    }
+
+                    remainingNanos = notFull.awaitNanos(remainingNanos);
+                }
+
+                return true;
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                return false;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Asks the writer thread to flush all entries queued so far.
+         *
+         * @return the sequence number up to which entries are to be flushed
+         */
+        private long requestFlush()
+        {
+            lock.lock();
+            try
+            {
+                flushRequested = true;
+                notEmpty.signal();
+
+                return head;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits until all entries below the given sequence number have been written and flushed.
+         *
+         * @param target
+         *            the sequence number
+         * @param deadline
+         *            the time [ns] to give up waiting
+         * @return whether the entries were flushed in time
+         */
+        private boolean awaitFlushed(final long target, final long deadline)
+        {
+            lock.lock();
+            try
+            {
+                while (flushed < target)
+                {
+                    final long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0)
+                    {
+                        return false;
+                    }
+
+                    drained.awaitNanos(remainingNanos);
+                }
+
+                return true;
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                return false;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Publishes the slot at the head. Must be called with the lock held.
+         */
+        private void enqueue()
+        {
+            // wake up the writer thread only if it may be waiting for work
+            if (head++ == tail)
+            {
+                notEmpty.signal();
+            }
+        }
+
+        /**
+         * The main loop of the writer thread.
+         */
+        private void processEntries()
+        {
+            long unflushedChars = 0;
+            long nextFlushTime = 0;
+
+            while (true)
+            {
+                final long start;
+                final long end;
+                final boolean flushNow;
+
+                lock.lock();
+                try
+                {
+                    // wait for work, but not longer than until the next flush is due
+                    while (head == tail && !flushRequested)
+                    {
+                        if (dirtyWriters.isEmpty())
+                        {
+                            notEmpty.awaitUninterruptibly();
+                        }
+                        else
+                        {
+                            final long waitNanos = nextFlushTime - System.nanoTime();
+                            if (waitNanos <= 0)
+                            {
+                                break;
+                            }
+
+                            try
+                            {
+                                notEmpty.awaitNanos(waitNanos);
+                            }
+                            catch (final InterruptedException e)
+                            {
+                                // ignore, we must not stop
+                            }
+                        }
+                    }
+
+                    start = tail;
+                    end = head;
+                    flushNow = flushRequested;
+                    flushRequested = false;
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+
+                // process the queued entries without holding the lock
+                for (long seq = start; seq < end; seq++)
+                {
+                    final Slot slot = slots[(int) (seq % slots.length)];
+
+                    if (dirtyWriters.isEmpty())
+                    {
+                        nextFlushTime = System.nanoTime() + flushIntervalNanos;
+                    }
+
+                    if (slot.close)
+                    {
+                        dirtyWriters.remove(slot.target);
+                        closeQuietly(slot.target);
+                    }
+                    else
+                    {
+                        try
+                        {
+                            slot.target.write(slot.chars, 0, slot.length);
+                            dirtyWriters.add(slot.target);
+                            unflushedChars += slot.length;
+                        }
+                        catch (final IOException e)
+                        {
+                            XltLogger.runTimeLogger.error("Failed to write statistics:", e);
+                        }
+                    }
+
+                    slot.target = null;
+                }
+
+                if (flushNow || unflushedChars >= flushSize || (!dirtyWriters.isEmpty() && System.nanoTime() - nextFlushTime >= 0))
+                {
+                    flushDirtyWriters();
+                    unflushedChars = 0;
+                }
+
+                lock.lock();
+                try
+                {
+                    tail = end;
+                    notFull.signalAll();
+
+                    if (dirtyWriters.isEmpty())
+                    {
+                        flushed = end;
+                        drained.signalAll();
+                    }
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * Flushes all writers with unflushed data.
+         */
+        private void flushDirtyWriters()
+        {
+            for (final Writer writer : dirtyWriters)
+            {
+                try
+                {
+                    writer.flush();
+                }
+                catch (final IOException e)
+                {
+                    XltLogger.runTimeLogger.error("Failed to flush statistics:", e);
+                }
+            }
+
+            dirtyWriters.clear();
+        }
+    }
+
+    /**
+     * Closes the given writer and logs any error.
+     *
+     * @param writer
+     *            the writer
+     */
+    private static void closeQuietly(final Writer writer)
+    {
+        try
+        {
+            writer.close();
+        }
+        catch (final IOException e)
+        {
+            XltLogger.runTimeLogger.error("Failed to close timer file", e);
+        }
+    }
+}
@@ -219,6 +219,11 @@ public class CachingHttpWebConnection extends WebConnectionWrapper
      */
     private final boolean useCache;
 
+    /**
+     * The agent-wide store of the bodies of cached responses, or <code>null</code> if each user keeps its own copies.
+     */
+    private final StaticContentStore contentStore;
+
     /**
      * Creates a new CachingHttpWebConnection.
      * 
@@ -239,10 +244,12 @@ public class CachingHttpWebConnection extends WebConnectionWrapper
                                              ". Will use the minimum size.");
             }
             cache = new ConcurrentLRUCache<String, CacheEntry>(Math.max(cacheSize, ConcurrentLRUCache.MIN_SIZE));
+            contentStore = StaticContentStore.getInstance();
         }
         else
         {
             cache = null;
+            contentStore = null;
         }
     }
 
@@ -281,7 +288,7 @@ public class CachingHttpWebConnection extends WebConnectionWrapper
                 // yes, put it in the cache
                 cacheEntry = new CacheEntry();
 
-                cacheEntry.webResponse = webResponse;
+                cacheEntry.webResponse = shareBody(webResponse);
                 cacheEntry.expires = expires;
                 cacheEntry.lastModified = webResponse.getResponseHeaderValue(HttpHeaderConstants.LAST_MODIFIED);
                 cacheEntry.etag = webResponse.getResponseHeaderValue(HttpHeaderConstants.ETAG);
@@ -311,7 +318,7 @@ public class CachingHttpWebConnection extends WebConnectionWrapper
                 if (webResponse.getStatusCode() == 200)
                 {
                     // there is new content -> save the response
-                    cacheEntry.webResponse = webResponse;
+                    cacheEntry.webResponse = shareBody(webResponse);
                     cacheEntry.lastModified = webResponse.getResponseHeaderValue(HttpHeaderConstants.LAST_MODIFIED);
                     cacheEntry.etag = webResponse.getResponseHeaderValue(HttpHeaderConstants.ETAG);
 
@@ -341,6 +348,23 @@ public class CachingHttpWebConnection extends WebConnectionWrapper
         return cacheEntry.webResponse;
     }
 
+    /**
+     * Replaces the body of the given response with the agent-wide copy of an identical body, if so configured.
+     * 
+     * @param webResponse
+     *            the response to be cached
+     * @return the response
+     */
+    private WebResponse shareBody(final WebResponse webResponse)
+    {
+        if (contentStore != null)
+        {
+            contentStore.share(webResponse);
+        }
+
+        return webResponse;
+    }
+
     /**
      * Loads the web response for the given set of request parameters. The resource is loaded using a conditional GET
      * with the "If-Modified-Since" request header set to the specified last-modified date and etag (if known). If a
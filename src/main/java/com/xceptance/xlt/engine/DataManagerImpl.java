@@ -22,13 +22,15 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 
-import com.xceptance.common.util.CsvUtils;
+import com.xceptance.common.io.BinaryRecordWriter;
+import com.xceptance.xlt.api.engine.AbstractData;
 import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.engine.DataManager;
 import com.xceptance.xlt.api.engine.EventData;
 import com.xceptance.xlt.api.engine.GlobalClock;
 import com.xceptance.xlt.api.engine.Session;
 import com.xceptance.xlt.api.util.XltLogger;
+import com.xceptance.xlt.api.util.XltProperties;
 import com.xceptance.xlt.common.XltConstants;
 import com.xceptance.xlt.engine.metrics.Metrics;
 
@@ -44,6 +46,21 @@ public class DataManagerImpl implements DataManager
      */
     private static final String LINE_SEPARATOR = System.lineSeparator();
 
+    /**
+     * Per-thread buffer to encode the CSV lines into.
+     */
+    private static final ThreadLocal<StringBuilder> LINE_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * The maximum time [ms] to wait for the asynchronous timer writer to write the pending lines when closing.
+     */
+    private static final long ASYNC_CLOSE_TIMEOUT = 10_000;
+
+    /**
+     * The property that enables writing the binary timer file in addition to the CSV timer file.
+     */
+    static final String PROP_BINARY_TIMERS = XltConstants.XLT_PACKAGE_PATH + ".results.binaryTimers";
+
     /**
      * Whether or not logging is enabled.
      */
@@ -69,6 +86,28 @@ public class DataManagerImpl implements DataManager
      */
     private volatile BufferedWriter logger;
 
+    /**
+     * Writer responsible for logging the statistics to the binary timer file. Only used if enabled.
+     */
+    private volatile BinaryRecordWriter binaryLogger;
+
+    /**
+     * Whether or not the binary timer file is to be written. Determined together with the timer logger, so it is
+     * known before any record is written, and switched off if the binary timer file cannot be created.
+     */
+    private volatile boolean binaryLoggingEnabled;
+
+    /**
+     * The writer that writes the CSV lines in the background, or <code>null</code> if the lines are written
+     * synchronously. Determined when the first record is written.
+     */
+    private AsyncTimerWriter asyncTimerWriter;
+
+    /**
+     * Whether {@link #asyncTimerWriter} has been determined already.
+     */
+    private volatile boolean asyncTimerWriterResolved;
+
     /**
      * Our reference to metrics
      */
@@ -108,6 +147,25 @@ public class DataManagerImpl implements DataManager
         this.metrics = null;
     }
 
+    /**
+     * Creates a new data manager for the given session that writes the timer file using the given asynchronous
+     * writer.
+     *
+     * @param session
+     *            the session that should use this data manager
+     * @param metrics
+     *            a metrics target for real time logging
+     * @param asyncTimerWriter
+     *            the asynchronous writer to use, may be <code>null</code> to write synchronously
+     */
+    DataManagerImpl(final Session session, final Metrics metrics, final AsyncTimerWriter asyncTimerWriter)
+    {
+        this.session = session;
+        this.metrics = metrics;
+        this.asyncTimerWriter = asyncTimerWriter;
+        this.asyncTimerWriterResolved = true;
+    }
+
     /**
      * Returns the number of events that have occurred.
      *
@@ -162,14 +220,45 @@ public class DataManagerImpl implements DataManager
             // write the log line
             try
             {
-                // convert the values to a CSV line 
-                final StringBuilder csv = CsvUtils.encode(stats.toList());
-                final StringBuilder s = removeLineSeparators(csv, ' ');
-                s.append(LINE_SEPARATOR);
-
-                // this safes us from synchronization, the writer is already synchronized
-                timerWriter.write(s.toString());
-                timerWriter.flush();
+                // convert the values to a CSV line in our reusable buffer
+                final StringBuilder s = LINE_BUFFER.get();
+                s.setLength(0);
+                removeLineSeparators(stats.toCsv(s), ' ').append(LINE_SEPARATOR);
+
+                final AsyncTimerWriter asyncWriter = asyncTimerWriter;
+                if (asyncWriter != null)
+                {
+                    // let the background thread write it
+                    final AsyncTimerWriter.Result result = asyncWriter.write(timerWriter, s);
+                    if (metrics != null && result != AsyncTimerWriter.Result.QUEUED)
+                    {
+                        metrics.updateTimerWriterMetrics(result == AsyncTimerWriter.Result.BLOCKED ? 1 : 0,
+                                                         result == AsyncTimerWriter.Result.DROPPED ? 1 : 0);
+                    }
+                }
+                else
+                {
+                    // this safes us from synchronization, the writer is already synchronized
+                    timerWriter.write(s.toString());
+                    timerWriter.flush();
+                }
+
+                // write the binary record as well if so configured, it is flushed when the writer is closed
+                if (binaryLoggingEnabled)
+                {
+                    final BinaryRecordWriter binaryWriter = binaryLogger != null ? binaryLogger : getBinaryTimerLogger();
+                    if (binaryWriter != null)
+                    {
+                        if (stats instanceof AbstractData)
+                        {
+                            ((AbstractData) stats).writeBinary(binaryWriter);
+                        }
+                        else
+                        {
+                            binaryWriter.write(stats.toList());
+                        }
+                    }
+                }
             }
             catch (final IOException ex)
             {
@@ -213,6 +302,15 @@ public class DataManagerImpl implements DataManager
                 return logger;
             }
 
+            if (!asyncTimerWriterResolved)
+            {
+                asyncTimerWriter = AsyncTimerWriter.getInstance();
+                asyncTimerWriterResolved = true;
+            }
+
+            // resolve the setting once, so the record hot path does not need to check it under a lock
+            binaryLoggingEnabled = XltProperties.getInstance().getProperty(PROP_BINARY_TIMERS, false);
+
             // get the appropriate timer file
             final Path file = getTimerFile();
 
@@ -236,6 +334,46 @@ public class DataManagerImpl implements DataManager
         return logger;
     }
 
+    /**
+     * Returns the binary output logger if writing binary timer files is enabled. The logger is created if necessary.
+     *
+     * @return the logger creating the binary timer output, or <code>null</code> if disabled
+     */
+    private BinaryRecordWriter getBinaryTimerLogger()
+    {
+        // check if logger has already been initialized
+        if (binaryLogger != null)
+        {
+            return binaryLogger;
+        }
+
+        // only one can create the logger
+        synchronized (this)
+        {
+            // was someone else faster or are we disabled?
+            if (binaryLogger != null || !binaryLoggingEnabled)
+            {
+                return binaryLogger;
+            }
+
+            final Path file = getTimerFile().resolveSibling(XltConstants.TIMER_BINARY_FILENAME);
+            try
+            {
+                // we append to an existing file, the new writer starts a new segment with its own header
+                binaryLogger = new BinaryRecordWriter(file);
+            }
+            catch (final IOException e)
+            {
+                XltLogger.runTimeLogger.error("Cannot create writer for file: " + file.toString(), e);
+
+                // don't try again
+                binaryLoggingEnabled = false;
+            }
+        }
+
+        return binaryLogger;
+    }
+
     /**
      * Returns the timer file for the current session. If it does not exist yet, it will be created.
      *
@@ -265,6 +403,20 @@ public class DataManagerImpl implements DataManager
      */
     public boolean close()
     {
+        if (binaryLogger != null)
+        {
+            try
+            {
+                final BinaryRecordWriter l = binaryLogger;
+                binaryLogger = null;
+                l.close();
+            }
+            catch (final IOException e)
+            {
+                XltLogger.runTimeLogger.error("Failed to close binary timer file", e);
+            }
+        }
+
         if (logger != null)
         {
             try
@@ -275,7 +427,19 @@ public class DataManagerImpl implements DataManager
                 // it might be shared
                 if (l != null)
                 {
-                    l.close();
+                    if (asyncTimerWriter != null)
+                    {
+                        // lines for this writer might still be queued, so let the background thread close it
+                        if (!asyncTimerWriter.close(l, ASYNC_CLOSE_TIMEOUT))
+                        {
+                            XltLogger.runTimeLogger.warn("Timed out waiting for the timer file to be written completely");
+                            return false;
+                        }
+                    }
+                    else
+                    {
+                        l.close();
+                    }
                 }
 
                 return true;
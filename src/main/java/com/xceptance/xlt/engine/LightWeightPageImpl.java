@@ -28,6 +28,7 @@ import org.htmlunit.WebResponse;
 
 import com.xceptance.common.util.RegExUtils;
 import com.xceptance.xlt.api.htmlunit.LightWeightPage;
+import com.xceptance.xlt.engine.util.LWPageScanner;
 import com.xceptance.xlt.engine.util.LWPageUtilities;
 
 /**
@@ -83,13 +84,15 @@ public class LightWeightPageImpl extends LightWeightPage
 
         this.webClient = webClient;
 
-        // remove comments from page content
-        String uncommentedContent = LWPageUtilities.removeHtmlComments(getContent());
+        // scan the page content (without comments) for base links and frames in one go
+        final LWPageScanner.Result scanResult = new LWPageScanner(getContent()).removeHtmlComments()
+                                                                               .scan(LWPageScanner.Type.BASE_LINKS,
+                                                                                     LWPageScanner.Type.FRAME_ATTRIBUTES);
 
-        baseUrl = getBaseUrl(uncommentedContent);
+        baseUrl = getBaseUrl(scanResult.get(LWPageScanner.Type.BASE_LINKS));
 
         // recursively load frame pages
-        loadFrames(uncommentedContent);
+        loadFrames(scanResult.get(LWPageScanner.Type.FRAME_ATTRIBUTES));
     }
 
     /**
@@ -130,17 +133,16 @@ public class LightWeightPageImpl extends LightWeightPage
      * Determines the base URL of this page. Typically this is the request URL, but it may also be the URL specified in
      * the page's "base" tag.
      * 
-     * @param uncommentedContent
-     *            Page content without comments
+     * @param baseUrls
+     *            the values of the "href" attribute of all "base" tags on this page
      * @return the base URL
      * @throws MalformedURLException
      *             if the URL in the base tag is invalid
      */
-    private URL getBaseUrl(String uncommentedContent) throws MalformedURLException
+    private URL getBaseUrl(final List<String> baseUrls) throws MalformedURLException
     {
         URL url = getWebResponse().getWebRequest().getUrl();
 
-        final List<String> baseUrls = LWPageUtilities.getAllBaseLinks(uncommentedContent);
         if (!baseUrls.isEmpty())
         {
             final String baseUrl = baseUrls.get(0);
@@ -159,17 +161,15 @@ public class LightWeightPageImpl extends LightWeightPage
      * {@link #getFramePageByFrameName(String)}. Actually, this method works recursively, so if a frame page contains
      * frames, they will be loaded as well.
      * 
-     * @param uncommentedContent
-     *            Page content without comments
+     * @param frameAttributeLists
+     *            the attribute definitions of all (i)frames on this page
      * @throws IOException
      *             if the server could not be contacted
      * @throws FailingHttpStatusCodeException
      *             if the returned HTTP status code indicates an error
      */
-    private void loadFrames(String uncommentedContent) throws FailingHttpStatusCodeException, IOException
+    private void loadFrames(final List<String> frameAttributeLists) throws FailingHttpStatusCodeException, IOException
     {
-        // get the attributes list of all (i)frames on this page
-        final List<String> frameAttributeLists = LWPageUtilities.getAllFrameAttributes(uncommentedContent);
         for (final String attributeList : frameAttributeLists)
         {
             // get the value of the "src" attribute from the list
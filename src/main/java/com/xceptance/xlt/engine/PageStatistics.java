@@ -45,7 +45,7 @@ public final class PageStatistics
      */
     public static PageStatistics getPageStatistics()
     {
-        final ThreadGroup threadGroup = Thread.currentThread().getThreadGroup();
+        final ThreadGroup threadGroup = UserThreadGroup.get();
 
         PageStatistics stats = null;
         synchronized (threadGroup)
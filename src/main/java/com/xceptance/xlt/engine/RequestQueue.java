@@ -17,12 +17,21 @@ package com.xceptance.xlt.engine;
 
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
 
 import com.xceptance.common.util.SynchronizingCounter;
 import com.xceptance.common.util.concurrent.DaemonThreadFactory;
+import com.xceptance.common.util.concurrent.VirtualThreads;
 import com.xceptance.xlt.api.engine.Session;
 import com.xceptance.xlt.api.util.XltLogger;
 
@@ -30,6 +39,10 @@ import com.xceptance.xlt.api.util.XltLogger;
  * The {@link RequestQueue} aids in managing the parallel download of resources. The goal is to better simulate the
  * download behavior of real browsers. The number of threads working in parallel is controlled by configuration. Note
  * that there is no differentiation between requests to different domains.
+ * <p>
+ * The requests are either run by a thread pool of this queue, or, if so configured, by the agent-wide
+ * {@link StaticContentExecutor}. In the latter case, this queue hands over only as many requests as it may run in
+ * parallel and keeps the others back until a running request is finished.
  * 
  * @author Jörg Werner (Xceptance Software Technologies GmbH)
  */
@@ -42,10 +55,31 @@ public class RequestQueue
 
     /**
      * The executor service running RequestHandler instances. The service's thread pool is unbounded, but shrinks
-     * automatically if possible.
+     * automatically if possible. Is <code>null</code> if the shared executor is used.
      */
     private final ExecutorService executorService;
 
+    /**
+     * The agent-wide executor running the requests of all users, or <code>null</code> if this queue runs its own
+     * thread pool.
+     */
+    private final StaticContentExecutor sharedExecutor;
+
+    /**
+     * The requests not yet handed over to the shared executor. Guarded by "this".
+     */
+    private final Queue<RequestTask> pendingTasks = new ArrayDeque<>();
+
+    /**
+     * The requests handed over to the shared executor, but not finished yet. Guarded by "this".
+     */
+    private final Set<RequestTask> runningTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Whether this queue has been shut down. Guarded by "this".
+     */
+    private boolean shutdown;
+
     /**
      * Maintains the number of requests which have been added, but have not been loaded completely yet.
      */
@@ -76,14 +110,42 @@ public class RequestQueue
      *            the number of threads
      */
     public RequestQueue(final XltWebClient webClient, final int threadCount)
+    {
+        this(webClient, threadCount, StaticContentExecutor.getInstance());
+    }
+
+    /**
+     * Creates a new RequestQueue object and initializes it with the given web client, the number of requests to
+     * process in parallel, and the shared executor to use.
+     * 
+     * @param webClient
+     *            the web client to use
+     * @param threadCount
+     *            the number of requests to process in parallel
+     * @param sharedExecutor
+     *            the agent-wide executor, or <code>null</code> to run a separate thread pool
+     */
+    RequestQueue(final XltWebClient webClient, final int threadCount, final StaticContentExecutor sharedExecutor)
     {
         this.webClient = webClient;
         this.threadCount = threadCount;
+        this.sharedExecutor = sharedExecutor;
         parallelModeEnabled = true;
 
-        final ThreadFactory threadFactory = new DaemonThreadFactory(i -> Session.getCurrent().getUserID() + "-pool-" + i);
+        if (sharedExecutor == null)
+        {
+            // a user running on a virtual thread gets virtual download threads as well
+            final IntFunction<String> nameGenerator = i -> Session.getCurrent().getUserID() + "-pool-" + i;
+            final ThreadFactory threadFactory = VirtualThreads.isVirtual(Thread.currentThread()) ? VirtualThreads.newThreadFactory(nameGenerator)
+                                                                                                 : new DaemonThreadFactory(nameGenerator);
+
+            executorService = Executors.newFixedThreadPool(threadCount, threadFactory);
+        }
+        else
+        {
+            executorService = null;
+        }
 
-        executorService = Executors.newFixedThreadPool(threadCount, threadFactory);
         ongoingRequestsCount = new SynchronizingCounter(0);
     }
 
@@ -107,7 +169,18 @@ public class RequestQueue
         {
             // handle the request asynchronously
             requestHandler = new RequestHandler(url, referrerUrl, RequestStack.getCurrent().clone(), charset);
-            executorService.execute(requestHandler);
+
+            if (sharedExecutor == null)
+            {
+                executorService.execute(requestHandler);
+            }
+            else
+            {
+                // the shared threads must know which user they work for
+                requestHandler.userThreadGroup = UserThreadGroup.get();
+
+                schedule(new RequestTask(requestHandler));
+            }
 
             // debug
             // ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor)
@@ -150,7 +223,85 @@ public class RequestQueue
      */
     public void shutdown()
     {
-        executorService.shutdownNow();
+        if (sharedExecutor == null)
+        {
+            executorService.shutdownNow();
+        }
+        else
+        {
+            final RequestTask[] tasks;
+            synchronized (this)
+            {
+                shutdown = true;
+                pendingTasks.clear();
+
+                tasks = runningTasks.toArray(new RequestTask[runningTasks.size()]);
+            }
+
+            // the threads are shared, so stop only the downloads of this queue
+            for (final RequestTask task : tasks)
+            {
+                task.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Hands the given task over to the shared executor if less than {@link #threadCount} tasks are running, otherwise
+     * keeps it back until a running task is finished.
+     * 
+     * @param task
+     *            the task
+     */
+    private synchronized void schedule(final RequestTask task)
+    {
+        if (shutdown)
+        {
+            return;
+        }
+
+        if (runningTasks.size() < threadCount)
+        {
+            submit(task);
+        }
+        else
+        {
+            pendingTasks.add(task);
+        }
+    }
+
+    /**
+     * Hands the given task over to the shared executor.
+     * 
+     * @param task
+     *            the task
+     */
+    private synchronized void submit(final RequestTask task)
+    {
+        runningTasks.add(task);
+
+        task.submitTime = System.nanoTime();
+        sharedExecutor.execute(task);
+    }
+
+    /**
+     * Called when the given task has finished or was cancelled. Hands over the next pending task, if any.
+     * 
+     * @param task
+     *            the task
+     */
+    private synchronized void taskFinished(final RequestTask task)
+    {
+        runningTasks.remove(task);
+
+        if (!shutdown)
+        {
+            final RequestTask nextTask = pendingTasks.poll();
+            if (nextTask != null)
+            {
+                submit(nextTask);
+            }
+        }
     }
 
     /**
@@ -201,6 +352,11 @@ public class RequestQueue
          */
         private final Charset charset;
 
+        /**
+         * The thread group of the user the request is made for, if the request is run by a shared thread.
+         */
+        private ThreadGroup userThreadGroup;
+
         /**
          * Creates a new RequestHandler object.
          * 
@@ -225,8 +381,12 @@ public class RequestQueue
         @Override
         public void run()
         {
-            // first set the configured request stack
+            // first set the configured request stack and, if needed, the user to work for
             RequestStack.setCurrent(requestStack);
+            if (userThreadGroup != null)
+            {
+                UserThreadGroup.bind(userThreadGroup);
+            }
 
             try
             {
@@ -238,9 +398,61 @@ public class RequestQueue
             }
             finally
             {
+                if (userThreadGroup != null)
+                {
+                    // the thread is shared, so don't leave anything behind
+                    UserThreadGroup.unbind();
+                    RequestStack.setCurrent(null);
+                }
+
                 // request is done
                 ongoingRequestsCount.decrement();
             }
         }
     }
+
+    /**
+     * A request to be run by the shared executor.
+     */
+    private class RequestTask extends FutureTask<Void>
+    {
+        /**
+         * The time [ns] the task was handed over to the shared executor.
+         */
+        private long submitTime;
+
+        /**
+         * Creates a new RequestTask object.
+         * 
+         * @param requestHandler
+         *            the request handler to run
+         */
+        public RequestTask(final RequestHandler requestHandler)
+        {
+            super(requestHandler, null);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void run()
+        {
+            if (!isDone())
+            {
+                sharedExecutor.downloadStarted(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitTime));
+            }
+
+            super.run();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void done()
+        {
+            taskFinished(this);
+        }
+    }
 }
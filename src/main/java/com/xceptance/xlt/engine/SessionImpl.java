@@ -98,7 +98,7 @@ public class SessionImpl extends Session
      */
     public static SessionImpl getCurrent()
     {
-        return getSessionForThread(Thread.currentThread());
+        return getSessionForThreadGroup(UserThreadGroup.get());
     }
 
     /**
@@ -109,7 +109,7 @@ public class SessionImpl extends Session
      */
     public static SessionImpl removeCurrent()
     {
-        return sessions.remove(Thread.currentThread().getThreadGroup());
+        return sessions.remove(UserThreadGroup.get());
     }
 
     /**
@@ -119,8 +119,18 @@ public class SessionImpl extends Session
      */
     public static SessionImpl getSessionForThread(final Thread thread)
     {
-        final ThreadGroup threadGroup = thread.getThreadGroup();
+        return getSessionForThreadGroup(thread.getThreadGroup());
+    }
 
+    /**
+     * Returns the Session instance for the given thread group. If no such instance exists yet, it will be created.
+     *
+     * @param threadGroup
+     *            the thread group of the user as returned by {@link UserThreadGroup#get()}
+     * @return the Session instance for the given thread group
+     */
+    public static SessionImpl getSessionForThreadGroup(final ThreadGroup threadGroup)
+    {
         if (threadGroup == null)
         {
             // the thread died in between so there is no session
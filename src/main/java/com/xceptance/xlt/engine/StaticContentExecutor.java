@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.xceptance.xlt.api.util.XltProperties;
+import com.xceptance.xlt.common.XltConstants;
+import com.xceptance.xlt.engine.metrics.Metrics;
+
+/**
+ * Downloads the static content of all the virtual users of an agent with a bounded number of threads. Without it,
+ * each {@link RequestQueue} runs its own thread pool, so an agent hosting thousands of users carries thousands of
+ * mostly idle download threads.
+ * <p>
+ * The executor itself does not limit how many downloads a single user may run in parallel. This is still up to the
+ * user's {@link RequestQueue}, which hands over at most as many downloads as configured and keeps the others back.
+ * <p>
+ * The number of waiting downloads and the time they waited for a thread are reported as real-time metrics.
+ *
+ * @since 8.1.0
+ */
+class StaticContentExecutor
+{
+    /**
+     * The prefix of all the settings of the shared static content executor.
+     */
+    private static final String PROP_PREFIX = XltConstants.XLT_PACKAGE_PATH + ".staticContent.sharedPool.";
+
+    /**
+     * Whether the static content of all users is downloaded by a shared executor.
+     */
+    static final String PROP_ENABLED = PROP_PREFIX + "enabled";
+
+    /**
+     * The number of threads of the shared executor.
+     */
+    static final String PROP_THREADS = PROP_PREFIX + "threads";
+
+    /**
+     * The time [s] after which idle threads are terminated.
+     */
+    private static final long KEEP_ALIVE_TIME = 60;
+
+    /**
+     * The lazily created agent-wide instance.
+     */
+    private static volatile StaticContentExecutor instance;
+
+    /**
+     * Whether the agent-wide instance was requested already.
+     */
+    private static volatile boolean instanceResolved;
+
+    /**
+     * The executor running the downloads.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates a new static content executor.
+     *
+     * @param threadCount
+     *            the maximum number of downloads running in parallel
+     */
+    StaticContentExecutor(final int threadCount)
+    {
+        final int threads = Math.max(1, threadCount);
+
+        // the executor is typically created by a user thread, but its threads must not belong to that user's thread
+        // group, otherwise they would act on behalf of this user whenever no other user is bound to them
+        ThreadGroup rootThreadGroup = Thread.currentThread().getThreadGroup();
+        while (rootThreadGroup.getParent() != null)
+        {
+            rootThreadGroup = rootThreadGroup.getParent();
+        }
+        final ThreadGroup threadGroup = new ThreadGroup(rootThreadGroup, "XLT-StaticContent");
+
+        final AtomicInteger count = new AtomicInteger();
+        final ThreadFactory threadFactory = r -> {
+            final Runnable unboundRunnable = () -> {
+                // do not keep a binding inherited from a user running on a virtual thread
+                UserThreadGroup.unbind();
+                r.run();
+            };
+
+            final Thread thread = new Thread(threadGroup, unboundRunnable, "XLT-StaticContent-" + count.getAndIncrement());
+            thread.setDaemon(true);
+
+            return thread;
+        };
+
+        executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_TIME, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                                          threadFactory);
+
+        // don't keep the threads around when there is nothing to download
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the agent-wide static content executor if so configured. The executor is created when called for the
+     * first time.
+     *
+     * @return the executor, or <code>null</code> if each user is to run its own thread pool
+     */
+    static StaticContentExecutor getInstance()
+    {
+        if (!instanceResolved)
+        {
+            synchronized (StaticContentExecutor.class)
+            {
+                if (!instanceResolved)
+                {
+                    final XltProperties props = XltProperties.getInstance();
+
+                    if (props.getProperty(PROP_ENABLED, false))
+                    {
+                        final int defaultThreadCount = 8 * Runtime.getRuntime().availableProcessors();
+                        final int threadCount = props.getProperty(PROP_THREADS, defaultThreadCount);
+
+                        instance = new StaticContentExecutor(threadCount > 0 ? threadCount : defaultThreadCount);
+                    }
+
+                    instanceResolved = true;
+                }
+            }
+        }
+
+        return instance;
+    }
+
+    /**
+     * Queues the given download for execution.
+     *
+     * @param task
+     *            the download
+     */
+    void execute(final Runnable task)
+    {
+        executor.execute(task);
+    }
+
+    /**
+     * Reports that a download is about to start after having waited for a free thread.
+     *
+     * @param waitTime
+     *            the time [ms] the download waited
+     */
+    void downloadStarted(final long waitTime)
+    {
+        Metrics.getInstance().updateStaticContentMetrics(executor.getQueue().size(), waitTime);
+    }
+}
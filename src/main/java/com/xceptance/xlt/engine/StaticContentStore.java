@@ -0,0 +1,432 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.IOUtils;
+import org.htmlunit.DownloadedContent;
+import org.htmlunit.WebResponse;
+import org.htmlunit.WebResponseData;
+
+import com.xceptance.common.io.ByteBufferInputStream;
+import com.xceptance.xlt.api.util.XltLogger;
+import com.xceptance.xlt.api.util.XltProperties;
+import com.xceptance.xlt.common.XltConstants;
+import com.xceptance.xlt.engine.metrics.Metrics;
+
+/**
+ * Stores the bodies of the static content cached by the virtual users of an agent once only. Each user still maintains
+ * its own {@link CachingHttpWebConnection} cache with the expiration time and the validators per URL, but the bodies
+ * of the cached responses are replaced with a shared copy looked up by the content's hash. Without it, an agent with
+ * 2,000 users holds 2,000 copies of each CSS/JS/image file in its heap.
+ * <p>
+ * Shared bodies are referenced weakly only, so a body is released as soon as no user caches it any longer. Bodies may
+ * optionally be kept off-heap. The number of hits and misses as well as the bytes saved are reported as real-time
+ * metrics.
+ *
+ * @since 8.1.0
+ */
+class StaticContentStore
+{
+    /**
+     * The prefix of all the settings of the shared static content store.
+     */
+    private static final String PROP_PREFIX = XltConstants.XLT_PACKAGE_PATH + ".staticContentCache.shared.";
+
+    /**
+     * Whether the bodies of cached static content are shared by all users.
+     */
+    static final String PROP_ENABLED = PROP_PREFIX + "enabled";
+
+    /**
+     * Whether the shared bodies are kept off-heap.
+     */
+    static final String PROP_OFF_HEAP = PROP_PREFIX + "offHeap";
+
+    /**
+     * The lazily created agent-wide instance.
+     */
+    private static volatile StaticContentStore instance;
+
+    /**
+     * Whether the agent-wide instance was requested already.
+     */
+    private static volatile boolean instanceResolved;
+
+    /**
+     * The shared contents keyed by their hash.
+     */
+    private final ConcurrentHashMap<ContentKey, ContentReference> contents = new ConcurrentHashMap<>();
+
+    /**
+     * The queue of references whose contents have been released.
+     */
+    private final ReferenceQueue<SharedContent> releasedContents = new ReferenceQueue<>();
+
+    /**
+     * Whether new contents are kept off-heap.
+     */
+    private final boolean offHeap;
+
+    /**
+     * The number of responses whose body was found in the store.
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * The number of responses whose body was not found in the store.
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * The number of bytes not held in memory a second time.
+     */
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    /**
+     * Creates a new static content store.
+     *
+     * @param offHeap
+     *            whether to keep the contents off-heap
+     */
+    StaticContentStore(final boolean offHeap)
+    {
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Returns the agent-wide static content store if so configured. The store is created when called for the first
+     * time.
+     *
+     * @return the store, or <code>null</code> if each user is to keep its own copies
+     */
+    static StaticContentStore getInstance()
+    {
+        if (!instanceResolved)
+        {
+            synchronized (StaticContentStore.class)
+            {
+                if (!instanceResolved)
+                {
+                    final XltProperties props = XltProperties.getInstance();
+
+                    if (props.getProperty(PROP_ENABLED, false))
+                    {
+                        instance = new StaticContentStore(props.getProperty(PROP_OFF_HEAP, false));
+                    }
+
+                    instanceResolved = true;
+                }
+            }
+        }
+
+        return instance;
+    }
+
+    /**
+     * Replaces the body of the given response with the shared copy of an identical body. If there is no such copy yet,
+     * the response's body becomes the shared copy. Responses with an empty body or with a body stored in a file are
+     * left untouched.
+     *
+     * @param webResponse
+     *            the response
+     */
+    void share(final WebResponse webResponse)
+    {
+        final WebResponseData responseData = webResponse.getResponseData();
+        if (responseData == null)
+        {
+            return;
+        }
+
+        final DownloadedContent content = responseData.getDownloadedContent();
+        if (!(content instanceof DownloadedContent.InMemory) || content.isEmpty())
+        {
+            // already shared, or not worth it
+            return;
+        }
+
+        final byte[] bytes;
+        try (final InputStream in = content.getInputStream())
+        {
+            bytes = IOUtils.toByteArray(in);
+        }
+        catch (final IOException e)
+        {
+            XltLogger.runTimeLogger.warn("Failed to read the body of a cached response", e);
+            return;
+        }
+
+        responseData.setDownloadedContent(lookup(bytes));
+    }
+
+    /**
+     * Returns the shared content for the given bytes. Adds a new shared content if there is none yet.
+     *
+     * @param bytes
+     *            the bytes
+     * @return the shared content
+     */
+    SharedContent lookup(final byte[] bytes)
+    {
+        expungeReleasedContents();
+
+        final ContentKey key = new ContentKey(bytes);
+
+        while (true)
+        {
+            final ContentReference reference = contents.get(key);
+            final SharedContent sharedContent = reference == null ? null : reference.get();
+            if (sharedContent != null)
+            {
+                hits.incrementAndGet();
+                bytesSaved.addAndGet(bytes.length);
+                Metrics.getInstance().updateStaticContentCacheMetrics(1, 0, bytes.length);
+
+                return sharedContent;
+            }
+
+            // the content is unknown or has been released already
+            final SharedContent newContent = new SharedContent(bytes, offHeap);
+            final ContentReference newReference = new ContentReference(key, newContent, releasedContents);
+
+            final boolean added = reference == null ? contents.putIfAbsent(key, newReference) == null
+                                                    : contents.replace(key, reference, newReference);
+            if (added)
+            {
+                misses.incrementAndGet();
+                Metrics.getInstance().updateStaticContentCacheMetrics(0, 1, 0);
+
+                return newContent;
+            }
+
+            // another user was faster -> try again
+        }
+    }
+
+    /**
+     * Removes the entries of all contents that are not referenced by any user any longer.
+     */
+    private void expungeReleasedContents()
+    {
+        ContentReference reference;
+        while ((reference = (ContentReference) releasedContents.poll()) != null)
+        {
+            contents.remove(reference.key, reference);
+        }
+    }
+
+    /**
+     * Returns the number of contents currently stored.
+     *
+     * @return the number of contents
+     */
+    int size()
+    {
+        expungeReleasedContents();
+
+        return contents.size();
+    }
+
+    /**
+     * Returns the number of responses whose body was found in the store.
+     *
+     * @return the number of hits
+     */
+    long getHits()
+    {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of responses whose body was not found in the store.
+     *
+     * @return the number of misses
+     */
+    long getMisses()
+    {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of bytes not held in memory a second time.
+     *
+     * @return the bytes saved
+     */
+    long getBytesSaved()
+    {
+        return bytesSaved.get();
+    }
+
+    /**
+     * Identifies a content by its SHA-256 hash and length.
+     */
+    private static final class ContentKey
+    {
+        private final byte[] hash;
+
+        private final int length;
+
+        private final int hashCode;
+
+        ContentKey(final byte[] bytes)
+        {
+            try
+            {
+                hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            }
+            catch (final NoSuchAlgorithmException e)
+            {
+                // every Java runtime must support SHA-256
+                throw new IllegalStateException(e);
+            }
+
+            length = bytes.length;
+            hashCode = 31 * Arrays.hashCode(hash) + length;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+
+            if (!(obj instanceof ContentKey))
+            {
+                return false;
+            }
+
+            final ContentKey other = (ContentKey) obj;
+
+            return length == other.length && Arrays.equals(hash, other.hash);
+        }
+    }
+
+    /**
+     * A weak reference to a shared content, which remembers the content's key.
+     */
+    private static final class ContentReference extends WeakReference<SharedContent>
+    {
+        private final ContentKey key;
+
+        ContentReference(final ContentKey key, final SharedContent content, final ReferenceQueue<SharedContent> queue)
+        {
+            super(content, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * A content shared by the responses of many users, either on the heap or off-heap.
+     */
+    static final class SharedContent implements DownloadedContent
+    {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The bytes if kept on the heap, <code>null</code> otherwise.
+         */
+        private final byte[] bytes;
+
+        /**
+         * The bytes if kept off-heap, <code>null</code> otherwise.
+         */
+        private final transient ByteBuffer buffer;
+
+        SharedContent(final byte[] bytes, final boolean offHeap)
+        {
+            if (offHeap)
+            {
+                this.bytes = null;
+                this.buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer();
+            }
+            else
+            {
+                this.bytes = bytes;
+                this.buffer = null;
+            }
+        }
+
+        /**
+         * Returns whether the bytes are kept off-heap.
+         *
+         * @return whether the content is off-heap
+         */
+        boolean isOffHeap()
+        {
+            return buffer != null;
+        }
+
+        @Override
+        public InputStream getInputStream()
+        {
+            // use a private view so that concurrent readers do not interfere with each other
+            return new ByteBufferInputStream(bytes != null ? ByteBuffer.wrap(bytes) : buffer.duplicate());
+        }
+
+        @Override
+        public void cleanUp()
+        {
+            // the content is still used by other responses and released by the garbage collector
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return length() == 0;
+        }
+
+        @Override
+        public long length()
+        {
+            return bytes != null ? bytes.length : buffer.capacity();
+        }
+
+        /**
+         * Serializes an off-heap content as an on-heap content.
+         */
+        private Object writeReplace()
+        {
+            if (buffer == null)
+            {
+                return this;
+            }
+
+            final byte[] heapBytes = new byte[buffer.capacity()];
+            buffer.duplicate().get(heapBytes);
+
+            return new SharedContent(heapBytes, false);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine;
+
+/**
+ * Determines the thread group that identifies the virtual user the current thread works for. The session, the test
+ * context, and other per-user state are keyed by this thread group.
+ * <p>
+ * Usually, this is simply the thread group of the current thread, since all threads of a user are created in the
+ * user's thread group. Threads shared by all users, for example the threads of the agent-wide static content executor,
+ * can temporarily act on behalf of a user by binding the user's thread group to them. Virtual threads cannot be
+ * created in a thread group of our choice, so a user running on a virtual thread is bound to its thread group as well.
+ * <p>
+ * Like the thread group itself, a binding is inherited by the threads created by a bound thread.
+ *
+ * @since 8.1.0
+ */
+public final class UserThreadGroup
+{
+    /**
+     * The thread group temporarily bound to the current thread, if any.
+     */
+    private static final ThreadLocal<ThreadGroup> boundThreadGroup = new InheritableThreadLocal<>();
+
+    /**
+     * Private constructor to avoid object instantiation.
+     */
+    private UserThreadGroup()
+    {
+    }
+
+    /**
+     * Returns the thread group of the user the current thread works for.
+     *
+     * @return the bound thread group, or the thread group of the current thread if none is bound
+     */
+    public static ThreadGroup get()
+    {
+        final ThreadGroup threadGroup = boundThreadGroup.get();
+
+        return threadGroup != null ? threadGroup : Thread.currentThread().getThreadGroup();
+    }
+
+    /**
+     * Binds the given thread group to the current thread until {@link #unbind()} is called.
+     *
+     * @param threadGroup
+     *            the thread group of the user to work for
+     */
+    public static void bind(final ThreadGroup threadGroup)
+    {
+        boundThreadGroup.set(threadGroup);
+    }
+
+    /**
+     * Removes the thread group bound to the current thread.
+     */
+    public static void unbind()
+    {
+        boundThreadGroup.remove();
+    }
+}
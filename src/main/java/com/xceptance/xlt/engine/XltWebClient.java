@@ -30,8 +30,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.StringEscapeUtils;
@@ -88,6 +86,7 @@ import com.xceptance.xlt.engine.htmlunit.okhttp3.OkHttp3WebConnection;
 import com.xceptance.xlt.engine.socket.XltSockets;
 import com.xceptance.xlt.engine.util.CssUtils;
 import com.xceptance.xlt.engine.util.JSBeautifingResponseProcessor;
+import com.xceptance.xlt.engine.util.LWPageScanner;
 import com.xceptance.xlt.engine.util.LWPageUtilities;
 import com.xceptance.xlt.engine.util.TimerUtils;
 import com.xceptance.xlt.util.XltPropertiesImpl;
@@ -778,7 +777,7 @@ public class XltWebClient extends WebClient implements SessionShutdownListener,
         }
 
         // we need the string of the web response
-        String page = response.getContentAsString();
+        final String page = response.getContentAsString();
         if (page == null)
         {
             // not sure why that could happen
@@ -791,73 +790,35 @@ public class XltWebClient extends WebClient implements SessionShutdownListener,
 
         final boolean isCssModeAlways = CssMode.ALWAYS.equals(getCssMode());
 
+        // work on a private copy of the page content that is stripped step by step
+        final LWPageScanner scanner = new LWPageScanner(page);
+
         // JS resources
         if (loadStaticContent || haveJS)
         {
             // remove comments (don't remove conditional comments if IE)
-            final String commentPattern = getBrowserVersion().isIE() ? "(?sm)<!--[^\\[].*?-->" : "(?sm)<!--.*?-->";
-            page = RegExUtils.replaceAll(page, commentPattern, "");
+            scanner.removeComments(getBrowserVersion().isIE());
 
             // remove scripts (in-line scripts might contain resource URLs in the code)
-            final Pattern p = RegExUtils.getPattern("(?sm)<script\\b(.*?)(?:/>|>.*?</script>)");
-            final Matcher m = p.matcher(page);
-
-            final StringBuilder sb = new StringBuilder();
-
-            int startAt = 0;
-            while (m.find(startAt))
-            {
-                final String matching = m.group(1);
-
-                sb.append(page.substring(startAt, m.start()));
-                final String srcAttribute = RegExUtils.getFirstMatch(matching, "src\\s*=\\s*['\"]([^'\"]+?)['\"]", 1);
-                if (srcAttribute != null)
-                {
-                    urlStrings.add(srcAttribute);
-                }
-                startAt = m.end();
-            }
-
-            if (startAt < page.length())
-            {
-                sb.append(page.substring(startAt));
-            }
-
-            page = sb.toString();
+            scanner.removeScripts(urlStrings);
         }
 
         // CSS resources
         if (loadStaticContent || haveCss)
         {
-            urlStrings.addAll(getAllowedLinkURIs(page));
+            urlStrings.addAll(getAllowedLinkURIs(scanner.scan(LWPageScanner.Type.LINK_ATTRIBUTES).get(LWPageScanner.Type.LINK_ATTRIBUTES)));
 
             final StringBuilder sb = new StringBuilder();
-            final StringBuilder pageStringBuilder = new StringBuilder(4 * 1024);
-            final Pattern p = RegExUtils.getPattern("(?sm)<style\\b([^>]*?)>((?!</style).*?)</style>");
-            final Matcher m = p.matcher(page);
-
-            int startAt = 0;
-            while (m.find(startAt))
-            {
-                pageStringBuilder.append(page.substring(startAt, m.start()));
-                final String styleAtts = m.group(1);
+            scanner.removeStyles((styleAtts, styleContent) -> {
                 // check type and media attributes if present
                 final String typeAtt = LWPageUtilities.getAttributeValue(styleAtts, "type");
                 final String mediaAtt = LWPageUtilities.getAttributeValue(styleAtts, "media");
                 if ("text/css".equalsIgnoreCase(typeAtt) &&
                     (StringUtils.isBlank(mediaAtt) || RegExUtils.isMatching(mediaAtt, LINK_MEDIA_WHITELIST_PATTERN)))
                 {
-                    sb.append(m.group(2));
+                    sb.append(styleContent);
                 }
-
-                startAt = m.end();
-            }
-
-            if (startAt < page.length())
-            {
-                pageStringBuilder.append(page.substring(startAt));
-            }
-            page = pageStringBuilder.toString();
+            });
 
             final String inlineCss = sb.toString();
             if (!isCssModeAlways || !loadStaticContent)
@@ -867,23 +828,42 @@ public class XltWebClient extends WebClient implements SessionShutdownListener,
             }
             else
             {
-                // @import + image URL strings
+                // @import URL strings (image URL strings are collected below)
                 urlStrings.addAll(CssUtils.getUrlStrings(inlineCss));
-                urlStrings.addAll(CssUtils.getUrlStrings(StringUtils.join(LWPageUtilities.getAllInlineCssStatements(page), ' ')));
             }
         }
 
-        // image resources (not referenced by CSS)
+        // scan what is left of the page for all remaining resources at once
+        final List<LWPageScanner.Type> scanTypes = new ArrayList<LWPageScanner.Type>();
+        scanTypes.add(LWPageScanner.Type.BASE_LINKS);
         if (loadStaticContent)
         {
-            urlStrings.addAll(LWPageUtilities.getAllImageLinks(page));
-            urlStrings.addAll(LWPageUtilities.getAllImageInputLinks(page));
+            scanTypes.add(LWPageScanner.Type.IMAGE_LINKS);
+            scanTypes.add(LWPageScanner.Type.IMAGE_INPUT_LINKS);
+            if (isCssModeAlways)
+            {
+                scanTypes.add(LWPageScanner.Type.INLINE_CSS_STATEMENTS);
+            }
+        }
+
+        final LWPageScanner.Result scanResult = scanner.scan(scanTypes.toArray(new LWPageScanner.Type[scanTypes.size()]));
+
+        // image resources (referenced by in-line CSS and not referenced by CSS at all)
+        if (loadStaticContent)
+        {
+            if (isCssModeAlways)
+            {
+                urlStrings.addAll(CssUtils.getUrlStrings(StringUtils.join(scanResult.get(LWPageScanner.Type.INLINE_CSS_STATEMENTS), ' ')));
+            }
+
+            urlStrings.addAll(scanResult.get(LWPageScanner.Type.IMAGE_LINKS));
+            urlStrings.addAll(scanResult.get(LWPageScanner.Type.IMAGE_INPUT_LINKS));
         }
 
         // check for base tag and correct base URL if necessary
         final URL referrerUrl = response.getWebRequest().getUrl();
         URL baseUrl = referrerUrl;
-        final List<String> baseUrls = LWPageUtilities.getAllBaseLinks(page);
+        final List<String> baseUrls = scanResult.get(LWPageScanner.Type.BASE_LINKS);
         if (!baseUrls.isEmpty())
         {
             final String hrefAttValue = baseUrls.get(0);
@@ -1091,15 +1071,15 @@ public class XltWebClient extends WebClient implements SessionShutdownListener,
      * Returns all relative URLs used as 'href' attribute values in HTML link elements that match the link type
      * whitelist pattern.
      *
-     * @param pageContent
-     *            content of page
+     * @param linkAttributeLists
+     *            the attribute definitions of all HTML link elements on the page
      * @return list of 'href' attribute values of allowed link elements
      */
-    private List<String> getAllowedLinkURIs(final String pageContent)
+    private List<String> getAllowedLinkURIs(final List<String> linkAttributeLists)
     {
         final List<String> links = new ArrayList<String>();
         final String relAttRegex = loadStaticContent ? LINKTYPE_WHITELIST_PATTERN : "(?i)stylesheet";
-        for (final String attributeList : LWPageUtilities.getAllLinkAttributes(pageContent))
+        for (final String attributeList : linkAttributeLists)
         {
             // check for presence of 'rel' attribute
             final String relAttribute = LWPageUtilities.getAttributeValue(attributeList, "rel");
@@ -15,31 +15,38 @@
  */
 package com.xceptance.xlt.engine.metrics;
 
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * A metric for count values. All reported counts are added to the total count.
  * <p>
- * Note: This class is thread-safe.
+ * Note: This class is thread-safe. Updates never block, not even while the total count is retrieved.
  */
 public class CounterMetric implements Metric
 {
     /**
      * The total count (the sum of all values added).
      */
-    private long sum;
+    private final LongAdder sum = new LongAdder();
 
     /**
      * Whether this metric has unreported data.
      */
-    private boolean hasData;
+    private volatile boolean hasData;
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized void update(final int value)
+    public void update(final int value)
     {
-        sum += value;
-        hasData = true;
+        sum.add(value);
+
+        // avoid writing the shared flag over and over again
+        if (!hasData)
+        {
+            hasData = true;
+        }
     }
 
     /**
@@ -47,23 +54,16 @@ public class CounterMetric implements Metric
      *
      * @return the total count, or <code>null</code> if no values have been added to this metric since last call
      */
-    public synchronized Long getCountAndClear()
+    public Long getCountAndClear()
     {
-        final Long count;
-
-        if (hasData)
+        if (!hasData)
         {
-            count = sum;
-
-            // reset internal state
-            sum = 0;
-            hasData = false;
-        }
-        else
-        {
-            count = null;
+            return null;
         }
 
-        return count;
+        // clear the flag first so that values added from now on will be reported next time
+        hasData = false;
+
+        return sum.sumThenReset();
     }
 }
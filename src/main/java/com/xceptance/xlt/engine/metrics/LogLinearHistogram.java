@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram to estimate percentiles of non-negative <code>int</code> values using a fixed amount of memory. Small
+ * values are counted exactly. Above that, each power-of-two range is split into the same number of linear buckets, so
+ * the relative error of a percentile is bounded no matter how large the values get. With the default precision, a
+ * histogram needs less than 7 KB and the error is below 3.2%.
+ * <p>
+ * Values are counted without locks. Taking a snapshot resets the histogram, but no value added concurrently gets lost
+ * &ndash; it is just counted in the next snapshot. Snapshots of histograms with the same precision can be merged.
+ * <p>
+ * In contrast to {@link com.xceptance.xlt.report.util.RuntimeHistogram}, which counts each value exactly and is used
+ * when creating the load test report, this class is meant for real-time reporting during a load test.
+ *
+ * @since 8.1.0
+ */
+public class LogLinearHistogram
+{
+    /**
+     * The default number of bits used to distinguish values in the same power-of-two range.
+     */
+    public static final int DEFAULT_PRECISION = 6;
+
+    /**
+     * The number of bits used to distinguish values in the same power-of-two range.
+     */
+    private final int precision;
+
+    /**
+     * The number of values per bucket.
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * Creates a new histogram with the default precision.
+     */
+    public LogLinearHistogram()
+    {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates a new histogram with the given precision. Values less than <code>2^precision</code> are counted
+     * exactly, larger values with a relative error of less than <code>2^(1-precision)</code>.
+     *
+     * @param precision
+     *            the precision, between 1 and 16
+     */
+    public LogLinearHistogram(final int precision)
+    {
+        if (precision < 1 || precision > 16)
+        {
+            throw new IllegalArgumentException("Precision must be between 1 and 16: " + precision);
+        }
+
+        this.precision = precision;
+        counts = new AtomicLongArray(getBucketCount(precision));
+    }
+
+    /**
+     * Adds the given value to this histogram. Negative values are counted as 0.
+     *
+     * @param value
+     *            the value
+     */
+    public void update(final int value)
+    {
+        counts.incrementAndGet(getBucketIndex(precision, value));
+    }
+
+    /**
+     * Returns the current state of this histogram and resets it.
+     *
+     * @return the snapshot
+     */
+    public Snapshot getSnapshotAndClear()
+    {
+        final long[] snapshotCounts = new long[counts.length()];
+        long total = 0;
+
+        for (int i = 0; i < snapshotCounts.length; i++)
+        {
+            // avoid writing buckets not used at all
+            if (counts.get(i) != 0)
+            {
+                snapshotCounts[i] = counts.getAndSet(i, 0);
+                total += snapshotCounts[i];
+            }
+        }
+
+        return new Snapshot(precision, snapshotCounts, total);
+    }
+
+    /**
+     * Returns the number of buckets needed to cover all non-negative <code>int</code> values.
+     */
+    private static int getBucketCount(final int precision)
+    {
+        return getBucketIndex(precision, Integer.MAX_VALUE) + 1;
+    }
+
+    /**
+     * Returns the index of the bucket the given value falls into.
+     */
+    static int getBucketIndex(final int precision, final int value)
+    {
+        final int linearLimit = 1 << precision;
+        if (value < linearLimit)
+        {
+            return Math.max(0, value);
+        }
+
+        // keep the top "precision" bits of the value: the exponent selects the range, the rest the bucket in the range
+        final int shift = 32 - Integer.numberOfLeadingZeros(value) - precision;
+        final int halfLimit = linearLimit >>> 1;
+
+        return linearLimit + (shift - 1) * halfLimit + ((value >>> shift) - halfLimit);
+    }
+
+    /**
+     * Returns the largest value that falls into the bucket with the given index.
+     */
+    static int getBucketUpperBound(final int precision, final int index)
+    {
+        final int linearLimit = 1 << precision;
+        if (index < linearLimit)
+        {
+            return index;
+        }
+
+        final int halfLimit = linearLimit >>> 1;
+        final int shift = (index - linearLimit) / halfLimit + 1;
+        final long lowerBound = (long) ((index - linearLimit) % halfLimit + halfLimit) << shift;
+
+        return (int) Math.min(Integer.MAX_VALUE, lowerBound + (1L << shift) - 1);
+    }
+
+    /**
+     * The state of a histogram at a certain point in time.
+     */
+    public static final class Snapshot
+    {
+        /**
+         * The precision of the histogram.
+         */
+        private final int precision;
+
+        /**
+         * The number of values per bucket.
+         */
+        private final long[] counts;
+
+        /**
+         * The total number of values.
+         */
+        private final long count;
+
+        private Snapshot(final int precision, final long[] counts, final long count)
+        {
+            this.precision = precision;
+            this.counts = counts;
+            this.count = count;
+        }
+
+        /**
+         * Returns the number of values in this snapshot.
+         *
+         * @return the number of values
+         */
+        public long getCount()
+        {
+            return count;
+        }
+
+        /**
+         * Returns the value at the given percentile. As values are not stored exactly, the result is the largest
+         * value that would have been counted in the same bucket as the actual value.
+         *
+         * @param percentile
+         *            the percentile, in the range (0, 100]
+         * @return the value, or 0 if this snapshot is empty
+         */
+        public int getPercentile(final double percentile)
+        {
+            if (percentile <= 0.0 || percentile > 100.0)
+            {
+                throw new IllegalArgumentException(String.format("Percentile '%f' is not in range (0,100]", percentile));
+            }
+
+            if (count == 0)
+            {
+                return 0;
+            }
+
+            // the rank of the value in question (nearest-rank method)
+            final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++)
+            {
+                seen += counts[i];
+                if (seen >= rank)
+                {
+                    return getBucketUpperBound(precision, i);
+                }
+            }
+
+            // not reached
+            return getBucketUpperBound(precision, counts.length - 1);
+        }
+
+        /**
+         * Returns a new snapshot that contains the values of this snapshot and of the given one.
+         *
+         * @param other
+         *            the other snapshot, which must stem from a histogram with the same precision
+         * @return the merged snapshot
+         */
+        public Snapshot merge(final Snapshot other)
+        {
+            if (other.precision != precision)
+            {
+                throw new IllegalArgumentException("Cannot merge histograms with different precisions");
+            }
+
+            final long[] mergedCounts = Arrays.copyOf(counts, counts.length);
+            for (int i = 0; i < mergedCounts.length; i++)
+            {
+                mergedCounts[i] += other.counts[i];
+            }
+
+            return new Snapshot(precision, mergedCounts, count + other.count);
+        }
+    }
+}
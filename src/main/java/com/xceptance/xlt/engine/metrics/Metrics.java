@@ -15,6 +15,9 @@
  */
 package com.xceptance.xlt.engine.metrics;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -31,14 +34,16 @@ import com.xceptance.xlt.api.engine.EventData;
 import com.xceptance.xlt.api.engine.PageLoadTimingData;
 import com.xceptance.xlt.api.engine.RequestData;
 import com.xceptance.xlt.api.engine.Session;
+import com.xceptance.xlt.api.engine.TimerData;
 import com.xceptance.xlt.api.engine.TransactionData;
 import com.xceptance.xlt.api.util.XltProperties;
 import com.xceptance.xlt.engine.metrics.graphite.GraphiteReporter;
 import com.xceptance.xlt.engine.metrics.graphite.PlainTextCarbonClient;
+import com.xceptance.xlt.engine.metrics.prometheus.PrometheusReporter;
 
 /**
- * The Metrics sub-system collects certain metrics and submits them periodically to a reporting system (Graphite in this
- * case) for real-time reporting.
+ * The Metrics sub-system collects certain metrics and submits them periodically to one or more reporting systems
+ * (Graphite and/or Prometheus) for real-time reporting.
  */
 public class Metrics
 {
@@ -54,12 +59,24 @@ public class Metrics
 
     private static final String PROP_REP_METRIC_NAME_PREFIX = PROP_REP_PREFIX + "metricNamePrefix";
 
+    private static final String PROP_REP_PERCENTILES = PROP_REP_PREFIX + "percentiles";
+
     private static final String PROP_REP_PREFIX_GRAPHITE = PROP_REP_PREFIX + "graphite.";
 
+    private static final String PROP_REP_GRAPHITE_ENABLED = PROP_REP_PREFIX_GRAPHITE + "enabled";
+
     private static final String PROP_REP_GRAPHITE_SERVER = PROP_REP_PREFIX_GRAPHITE + "host";
 
     private static final String PROP_REP_GRAPHITE_PORT = PROP_REP_PREFIX_GRAPHITE + "port";
 
+    private static final String PROP_REP_PREFIX_PROMETHEUS = PROP_REP_PREFIX + "prometheus.";
+
+    private static final String PROP_REP_PROMETHEUS_ENABLED = PROP_REP_PREFIX_PROMETHEUS + "enabled";
+
+    private static final String PROP_REP_PROMETHEUS_HOST = PROP_REP_PREFIX_PROMETHEUS + "host";
+
+    private static final String PROP_REP_PROMETHEUS_PORT = PROP_REP_PREFIX_PROMETHEUS + "port";
+
     private static final Logger log = LoggerFactory.getLogger(Metrics.class);
 
     public static class LazySingletonHolder
@@ -98,6 +115,83 @@ public class Metrics
      */
     private final String sanitizedAgentId;
 
+    /**
+     * The percentiles to report for runtime metrics. If empty, runtime metrics do not maintain a histogram.
+     */
+    private final double[] percentiles;
+
+    /**
+     * The metrics per transaction name, keyed by the original name.
+     */
+    private final Map<String, TimerMetrics> transactionMetrics = new ConcurrentHashMap<String, TimerMetrics>();
+
+    /**
+     * The metrics per action name, keyed by the original name.
+     */
+    private final Map<String, TimerMetrics> actionMetrics = new ConcurrentHashMap<String, TimerMetrics>();
+
+    /**
+     * The metrics per request name, keyed by the original name (including any sub request numbering).
+     */
+    private final Map<String, TimerMetrics> requestMetrics = new ConcurrentHashMap<String, TimerMetrics>();
+
+    /**
+     * The metrics per page load timing name, keyed by the original name.
+     */
+    private final Map<String, TimerMetrics> pageLoadTimingMetrics = new ConcurrentHashMap<String, TimerMetrics>();
+
+    /**
+     * The metrics per custom timer name, keyed by the original name.
+     */
+    private final Map<String, TimerMetrics> customTimerMetrics = new ConcurrentHashMap<String, TimerMetrics>();
+
+    /**
+     * The summary metrics per timer type.
+     */
+    private final TimerMetrics transactionSummaryMetrics;
+
+    private final TimerMetrics actionSummaryMetrics;
+
+    private final TimerMetrics requestSummaryMetrics;
+
+    private final TimerMetrics pageLoadTimingSummaryMetrics;
+
+    private final TimerMetrics customTimerSummaryMetrics;
+
+    /**
+     * The remaining summary metrics.
+     */
+    private final RateMetric bytesSentMetric;
+
+    private final RateMetric bytesReceivedMetric;
+
+    private final CounterMetric eventCountMetric;
+
+    /**
+     * The agent metrics.
+     */
+    private final ValueMetric heapUsageMetric;
+
+    private final ValueMetric totalCpuUsageMetric;
+
+    private final CounterMetric timerWriterBlockedMetric;
+
+    private final CounterMetric timerWriterDroppedMetric;
+
+    private final ValueMetric staticContentQueueDepthMetric;
+
+    private final ValueMetric staticContentWaitTimeMetric;
+
+    private final CounterMetric staticContentCacheHitsMetric;
+
+    private final CounterMetric staticContentCacheMissesMetric;
+
+    private final CounterMetric staticContentCacheBytesSavedMetric;
+
+    private final ValueMetric dumpWriterQueueDepthMetric;
+
+    private final CounterMetric dumpWriterDroppedMetric;
+
     /**
      * Constructor.
      */
@@ -108,8 +202,6 @@ public class Metrics
 
         enabled = props.getProperty(PROP_REP_ENABLED, false);
         reportingInterval = props.getProperty(PROP_REP_INTERVAL, 5) * ONE_SEC;
-        final String host = props.getProperty(PROP_REP_GRAPHITE_SERVER, "localhost");
-        final int port = props.getProperty(PROP_REP_GRAPHITE_PORT, 2003);
         String metricsNamePrefix = props.getProperty(PROP_REP_METRIC_NAME_PREFIX, "");
 
         // sanitize the metric name prefix and add a trailing dot if not present yet
@@ -119,29 +211,131 @@ public class Metrics
             metricsNamePrefix = metricsNamePrefix + ".";
         }
 
+        percentiles = readPercentiles(props);
+
         // get and sanitize the current agent's ID now, we will need it often
         sanitizedAgentId = sanitizeMetricNamePart(Session.getCurrent().getAgentID());
 
+        // resolve the metrics with fixed names once, so updating them needs neither string operations nor look-ups
+        final String summaryMetricPrefix = sanitizedAgentId + ".summary.";
+
+        transactionSummaryMetrics = new TimerMetrics(summaryMetricPrefix + "transactions.", true, true);
+        actionSummaryMetrics = new TimerMetrics(summaryMetricPrefix + "actions.", true, false);
+        requestSummaryMetrics = new TimerMetrics(summaryMetricPrefix + "requests.", true, false);
+        pageLoadTimingSummaryMetrics = new TimerMetrics(summaryMetricPrefix + "pageLoadTimings.", true, false);
+        customTimerSummaryMetrics = new TimerMetrics(summaryMetricPrefix + "custom.", true, false);
+
+        bytesSentMetric = getRateMetric(summaryMetricPrefix + "requests.bytesSent_1s", ONE_SEC);
+        bytesReceivedMetric = getRateMetric(summaryMetricPrefix + "requests.bytesReceived_1s", ONE_SEC);
+        eventCountMetric = getCounterMetric(summaryMetricPrefix + "events.count");
+
+        final String agentMetricPrefix = sanitizedAgentId + ".agent.";
+
+        heapUsageMetric = getValueMetric(agentMetricPrefix + "heapUsage");
+        totalCpuUsageMetric = getValueMetric(agentMetricPrefix + "totalCpuUsage");
+        timerWriterBlockedMetric = getCounterMetric(agentMetricPrefix + "timerWriter.blocked");
+        timerWriterDroppedMetric = getCounterMetric(agentMetricPrefix + "timerWriter.dropped");
+        staticContentQueueDepthMetric = getValueMetric(agentMetricPrefix + "staticContent.queueDepth");
+        staticContentWaitTimeMetric = getValueMetric(agentMetricPrefix + "staticContent.waitTime");
+        staticContentCacheHitsMetric = getCounterMetric(agentMetricPrefix + "staticContentCache.hits");
+        staticContentCacheMissesMetric = getCounterMetric(agentMetricPrefix + "staticContentCache.misses");
+        staticContentCacheBytesSavedMetric = getCounterMetric(agentMetricPrefix + "staticContentCache.bytesSaved");
+        dumpWriterQueueDepthMetric = getValueMetric(agentMetricPrefix + "dumpWriter.queueDepth");
+        dumpWriterDroppedMetric = getCounterMetric(agentMetricPrefix + "dumpWriter.dropped");
+
         // start reporting if so configured and we are load testing
         if (enabled && Session.getCurrent().isLoadTest())
         {
-            try
+            final List<MetricsReporter> reporters = new ArrayList<MetricsReporter>();
+
+            if (props.getProperty(PROP_REP_GRAPHITE_ENABLED, true))
+            {
+                final String host = props.getProperty(PROP_REP_GRAPHITE_SERVER, "localhost");
+                final int port = props.getProperty(PROP_REP_GRAPHITE_PORT, 2003);
+
+                try
+                {
+                    final PlainTextCarbonClient carbonClient = new PlainTextCarbonClient(host, port);
+                    reporters.add(new GraphiteReporter(carbonClient, metricsNamePrefix, percentiles));
+
+                    if (log.isInfoEnabled())
+                    {
+                        log.info(String.format("Started reporting metrics to Graphite server %s:%d every %d ms", host, port,
+                                               reportingInterval));
+                    }
+                }
+                catch (final Exception e)
+                {
+                    log.error("Failed to start Graphite reporter", e);
+                }
+            }
+
+            if (props.getProperty(PROP_REP_PROMETHEUS_ENABLED, false))
+            {
+                // each agent on a machine needs its own port
+                final String host = props.getProperty(PROP_REP_PROMETHEUS_HOST, "localhost");
+                final int port = props.getProperty(PROP_REP_PROMETHEUS_PORT, 9500) + Session.getCurrent().getAgentNumber();
+
+                try
+                {
+                    final PrometheusReporter prometheusReporter = new PrometheusReporter(host, port, metricsNamePrefix, percentiles);
+                    prometheusReporter.start();
+                    reporters.add(prometheusReporter);
+
+                    if (log.isInfoEnabled())
+                    {
+                        log.info(String.format("Started serving metrics for Prometheus at %s:%d, updated every %d ms", host, port,
+                                               reportingInterval));
+                    }
+                }
+                catch (final Exception e)
+                {
+                    log.error("Failed to start Prometheus reporter", e);
+                }
+            }
+
+            if (!reporters.isEmpty())
             {
-                final PlainTextCarbonClient carbonClient = new PlainTextCarbonClient(host, port);
-                final GraphiteReporter reporter = new GraphiteReporter(carbonClient, metricsRegistry, metricsNamePrefix, reportingInterval);
-                reporter.start();
+                new MetricsPublisher(metricsRegistry, reporters, reportingInterval).start();
+            }
+        }
+    }
 
-                if (log.isInfoEnabled())
+    /**
+     * Reads the percentiles to report for runtime metrics. Invalid values are logged and ignored.
+     *
+     * @param props
+     *            the properties
+     * @return the percentiles, sorted
+     */
+    private static double[] readPercentiles(final XltProperties props)
+    {
+        final String[] valueStrings = StringUtils.split(props.getProperty(PROP_REP_PERCENTILES, "50, 95, 99"), " ,;");
+
+        final List<Double> values = new ArrayList<Double>();
+        for (final String valueString : valueStrings)
+        {
+            try
+            {
+                final double value = Double.parseDouble(valueString);
+                if (value <= 0.0 || value > 100.0)
                 {
-                    log.info(String.format("Started reporting metrics to Graphite server %s:%d every %d ms", host, port,
-                                           reportingInterval));
+                    throw new IllegalArgumentException(String.format("Value '%f' is not in range (0,100]", value));
                 }
+
+                values.add(value);
             }
-            catch (final Exception e)
+            catch (final IllegalArgumentException e)
             {
-                log.error("Failed to start Graphite reporter", e);
+                log.error(String.format("Ignoring invalid percentile '%s' in property '%s': %s", valueString, PROP_REP_PERCENTILES,
+                                        e.getMessage()));
             }
         }
+
+        final double[] percentiles = values.stream().mapToDouble(Double::doubleValue).distinct().toArray();
+        Arrays.sort(percentiles);
+
+        return percentiles;
     }
 
     /**
@@ -186,174 +380,205 @@ public class Metrics
         }
     }
 
-    private void updateTransactionMetrics(final TransactionData transactionData)
+    /**
+     * Updates the metrics of the asynchronous timer writer.
+     *
+     * @param blocked
+     *            the number of lines that had to wait for a free slot in the queue
+     * @param dropped
+     *            the number of lines that were dropped because the queue was full
+     * @since 8.1.0
+     */
+    public void updateTimerWriterMetrics(final int blocked, final int dropped)
     {
-        // metrics per transaction name
-        final String sanitizedName = sanitizeMetricNamePart(transactionData.getName());
-        final String metricPrefix = sanitizedAgentId + ".transactions." + sanitizedName + ".";
+        if (enabled)
+        {
+            if (blocked > 0)
+            {
+                timerWriterBlockedMetric.update(blocked);
+            }
 
-        updateValueMetric(metricPrefix + "runtime", (int) transactionData.getRunTime());
-        updateCounterMetric(metricPrefix + "errors", transactionData.hasFailed() ? 1 : 0);
-        updateRateMetric(metricPrefix + "arrivals_1h", 1, ONE_HOUR, reportingInterval);
+            if (dropped > 0)
+            {
+                timerWriterDroppedMetric.update(dropped);
+            }
+        }
+    }
 
-        // summary metrics
-        final String summaryMetricPrefix = sanitizedAgentId + ".summary.transactions.";
+    /**
+     * Updates the metrics of the agent-wide static content executor.
+     *
+     * @param queueDepth
+     *            the number of downloads waiting for a free thread
+     * @param waitTime
+     *            the time [ms] the current download waited for a free thread
+     * @since 8.1.0
+     */
+    public void updateStaticContentMetrics(final int queueDepth, final long waitTime)
+    {
+        if (enabled)
+        {
+            staticContentQueueDepthMetric.update(queueDepth);
+            staticContentWaitTimeMetric.update((int) waitTime);
+        }
+    }
 
-        updateValueMetric(summaryMetricPrefix + "runtime", (int) transactionData.getRunTime());
-        updateCounterMetric(summaryMetricPrefix + "count", 1);
-        updateCounterMetric(summaryMetricPrefix + "errors", transactionData.hasFailed() ? 1 : 0);
-        updateRateMetric(summaryMetricPrefix + "arrivals_1h", 1, ONE_HOUR, reportingInterval);
+    /**
+     * Updates the metrics of the agent-wide static content store.
+     *
+     * @param hits
+     *            the number of cached bodies found in the store
+     * @param misses
+     *            the number of cached bodies not found in the store
+     * @param bytesSaved
+     *            the number of bytes not held in memory a second time
+     * @since 8.1.0
+     */
+    public void updateStaticContentCacheMetrics(final int hits, final int misses, final int bytesSaved)
+    {
+        if (enabled)
+        {
+            staticContentCacheHitsMetric.update(hits);
+            staticContentCacheMissesMetric.update(misses);
+            staticContentCacheBytesSavedMetric.update(bytesSaved);
+        }
     }
 
-    private void updateActionMetrics(final ActionData actionData)
+    /**
+     * Updates the metrics of the asynchronous result browser writer.
+     *
+     * @param queueDepth
+     *            the number of result browsers waiting to be written
+     * @param dropped
+     *            the number of result browsers that were dropped because the queue was full
+     * @since 8.1.0
+     */
+    public void updateDumpWriterMetrics(final int queueDepth, final int dropped)
     {
-        // metrics per action name
-        final String sanitizedName = sanitizeMetricNamePart(actionData.getName());
-        final String metricPrefix = sanitizedAgentId + ".actions." + sanitizedName + ".";
+        if (enabled)
+        {
+            dumpWriterQueueDepthMetric.update(queueDepth);
 
-        updateValueMetric(metricPrefix + "runtime", (int) actionData.getRunTime());
-        updateCounterMetric(metricPrefix + "errors", actionData.hasFailed() ? 1 : 0);
+            if (dropped > 0)
+            {
+                dumpWriterDroppedMetric.update(dropped);
+            }
+        }
+    }
 
-        // summary metrics
-        final String summaryMetricPrefix = sanitizedAgentId + ".summary.actions.";
+    private void updateTransactionMetrics(final TransactionData transactionData)
+    {
+        getTimerMetrics(transactionMetrics, transactionData.getName(), "transactions", true).update(transactionData);
+        transactionSummaryMetrics.update(transactionData);
+    }
 
-        updateValueMetric(summaryMetricPrefix + "runtime", (int) actionData.getRunTime());
-        updateCounterMetric(summaryMetricPrefix + "count", 1);
-        updateCounterMetric(summaryMetricPrefix + "errors", actionData.hasFailed() ? 1 : 0);
+    private void updateActionMetrics(final ActionData actionData)
+    {
+        getTimerMetrics(actionMetrics, actionData.getName(), "actions", false).update(actionData);
+        actionSummaryMetrics.update(actionData);
     }
 
     private void updateRequestMetrics(final RequestData requestData)
     {
-        // first get rid of the sub request numbering ("Foo.1.1" -> "Foo")
-        final String strippedRequestName = StringUtils.substringBefore(requestData.getName(), ".");
-
-        // metrics per request name
-        final String sanitizedName = sanitizeMetricNamePart(strippedRequestName);
-        final String metricPrefix = sanitizedAgentId + ".requests." + sanitizedName + ".";
+        getTimerMetrics(requestMetrics, requestData.getName(), "requests", false).update(requestData);
+        requestSummaryMetrics.update(requestData);
 
-        updateValueMetric(metricPrefix + "runtime", (int) requestData.getRunTime());
-        updateCounterMetric(metricPrefix + "errors", requestData.hasFailed() ? 1 : 0);
-
-        // summary metrics
-        final String summaryMetricPrefix = sanitizedAgentId + ".summary.requests.";
-
-        updateValueMetric(summaryMetricPrefix + "runtime", (int) requestData.getRunTime());
-        updateCounterMetric(summaryMetricPrefix + "count", 1);
-        updateCounterMetric(summaryMetricPrefix + "errors", requestData.hasFailed() ? 1 : 0);
-        updateRateMetric(summaryMetricPrefix + "bytesSent_1s", requestData.getBytesSent(), ONE_SEC, reportingInterval);
-        updateRateMetric(summaryMetricPrefix + "bytesReceived_1s", requestData.getBytesReceived(), ONE_SEC, reportingInterval);
+        bytesSentMetric.update(requestData.getBytesSent());
+        bytesReceivedMetric.update(requestData.getBytesReceived());
     }
 
     private void updatePageLoadTimingMetrics(final PageLoadTimingData pageLoadTimingData)
     {
-        // metrics per page load timing name
-        final String sanitizedName = sanitizeMetricNamePart(pageLoadTimingData.getName());
-        final String metricPrefix = sanitizedAgentId + ".pageLoadTimings." + sanitizedName + ".";
-
-        updateValueMetric(metricPrefix + "runtime", (int) pageLoadTimingData.getRunTime());
-        updateCounterMetric(metricPrefix + "errors", pageLoadTimingData.hasFailed() ? 1 : 0);
-
-        // summary metrics
-        final String summaryMetricPrefix = sanitizedAgentId + ".summary.pageLoadTimings.";
-
-        updateValueMetric(summaryMetricPrefix + "runtime", (int) pageLoadTimingData.getRunTime());
-        updateCounterMetric(summaryMetricPrefix + "count", 1);
-        updateCounterMetric(summaryMetricPrefix + "errors", pageLoadTimingData.hasFailed() ? 1 : 0);
+        getTimerMetrics(pageLoadTimingMetrics, pageLoadTimingData.getName(), "pageLoadTimings", false).update(pageLoadTimingData);
+        pageLoadTimingSummaryMetrics.update(pageLoadTimingData);
     }
 
     private void updateCustomTimerMetrics(final CustomData customData)
     {
-        // metrics per custom timer name
-        final String sanitizedName = sanitizeMetricNamePart(customData.getName());
-        final String metricPrefix = sanitizedAgentId + ".custom." + sanitizedName + ".";
-
-        updateValueMetric(metricPrefix + "runtime", (int) customData.getRunTime());
-        updateCounterMetric(metricPrefix + "errors", customData.hasFailed() ? 1 : 0);
-
-        // summary metrics
-        final String summaryMetricPrefix = sanitizedAgentId + ".summary.custom.";
-
-        updateValueMetric(summaryMetricPrefix + "runtime", (int) customData.getRunTime());
-        updateCounterMetric(summaryMetricPrefix + "count", 1);
-        updateCounterMetric(summaryMetricPrefix + "errors", customData.hasFailed() ? 1 : 0);
+        getTimerMetrics(customTimerMetrics, customData.getName(), "custom", false).update(customData);
+        customTimerSummaryMetrics.update(customData);
     }
 
     private void updateEventMetrics(final EventData eventData)
     {
-        // summary metrics
-        final String summaryMetricPrefix = sanitizedAgentId + ".summary.events.";
-
-        updateCounterMetric(summaryMetricPrefix + "count", 1);
+        eventCountMetric.update(1);
     }
 
     private void updateJvmMetrics(final JvmResourceUsageData jvmData)
     {
-        // metrics per agent
-        final String metricPrefix = sanitizedAgentId + ".agent.";
-
-        updateValueMetric(metricPrefix + "heapUsage", (int) jvmData.getHeapUsage());
-        updateValueMetric(metricPrefix + "totalCpuUsage", (int) jvmData.getTotalCpuUsage());
+        heapUsageMetric.update((int) jvmData.getHeapUsage());
+        totalCpuUsageMetric.update((int) jvmData.getTotalCpuUsage());
     }
 
     /**
-     * Updates the counter metric with the given name.
+     * Returns the metrics for the timer with the given name. The metrics are created and registered when the name is
+     * seen for the first time and are taken from the given cache afterwards.
      *
-     * @param metricName
-     *            the name of the metric
-     * @param value
-     *            the value to add to the counter
+     * @param cache
+     *            the metrics of the timer type, keyed by timer name
+     * @param timerName
+     *            the original timer name
+     * @param timerType
+     *            the metric name part denoting the timer type
+     * @param withArrivals
+     *            whether to maintain an arrival rate metric as well
+     * @return the metrics
      */
-    private void updateCounterMetric(final String metricName, final int value)
+    private TimerMetrics getTimerMetrics(final Map<String, TimerMetrics> cache, final String timerName, final String timerType,
+                                         final boolean withArrivals)
     {
-        Metric metric = metricsRegistry.get(metricName);
-        if (metric == null)
+        TimerMetrics timerMetrics = cache.get(timerName);
+        if (timerMetrics == null)
         {
-            metric = getExistingOrAddNewMetric(metricName, new CounterMetric());
+            timerMetrics = cache.computeIfAbsent(timerName, name -> {
+                // get rid of any sub request numbering ("Foo.1.1" -> "Foo")
+                final int dot = name.indexOf('.');
+                final String strippedName = dot < 0 ? name : name.substring(0, dot);
+
+                return new TimerMetrics(sanitizedAgentId + "." + timerType + "." + sanitizeMetricNamePart(strippedName) + ".", false,
+                                        withArrivals);
+            });
         }
 
-        metric.update(value);
+        return timerMetrics;
+    }
+
+    /**
+     * Returns the counter metric with the given name, which is registered if not done so yet.
+     *
+     * @param metricName
+     *            the name of the metric
+     * @return the metric
+     */
+    private CounterMetric getCounterMetric(final String metricName)
+    {
+        return (CounterMetric) getExistingOrAddNewMetric(metricName, new CounterMetric());
     }
 
     /**
-     * Updates the rate metric with the given name.
+     * Returns the rate metric with the given name, which is registered if not done so yet.
      *
      * @param metricName
      *            the name of the metric
-     * @param value
-     *            the value to add
      * @param rateInterval
      *            the rate interval [ms]
-     * @param reportingInterval
-     *            the reporting interval [ms]
+     * @return the metric
      */
-    private void updateRateMetric(final String metricName, final int value, final int rateInterval, final int reportingInterval)
+    private RateMetric getRateMetric(final String metricName, final int rateInterval)
     {
-        Metric metric = metricsRegistry.get(metricName);
-        if (metric == null)
-        {
-            metric = getExistingOrAddNewMetric(metricName, new RateMetric(rateInterval, reportingInterval));
-        }
-
-        metric.update(value);
+        return (RateMetric) getExistingOrAddNewMetric(metricName, new RateMetric(rateInterval, reportingInterval));
     }
 
     /**
-     * Updates the value metric with the given name.
+     * Returns the value metric with the given name, which is registered if not done so yet.
      *
      * @param metricName
      *            the name of the metric
-     * @param value
-     *            the value
+     * @return the metric
      */
-    private void updateValueMetric(final String metricName, final int value)
+    private ValueMetric getValueMetric(final String metricName)
     {
-        Metric metric = metricsRegistry.get(metricName);
-        if (metric == null)
-        {
-            metric = getExistingOrAddNewMetric(metricName, new ValueMetric());
-        }
-
-        metric.update(value);
+        return (ValueMetric) getExistingOrAddNewMetric(metricName, new ValueMetric());
     }
 
     /**
@@ -434,4 +659,51 @@ public class Metrics
 
         return new String(chars);
     }
+
+    /**
+     * The metrics to update for a timer, resolved once per timer name (or once per timer type for the summary
+     * metrics).
+     */
+    private final class TimerMetrics
+    {
+        private final ValueMetric runtime;
+
+        private final CounterMetric count;
+
+        private final CounterMetric errors;
+
+        private final RateMetric arrivals;
+
+        /**
+         * Constructor.
+         *
+         * @param metricPrefix
+         *            the common prefix of the metric names
+         * @param withCount
+         *            whether to maintain a counter metric as well
+         * @param withArrivals
+         *            whether to maintain an arrival rate metric as well
+         */
+        private TimerMetrics(final String metricPrefix, final boolean withCount, final boolean withArrivals)
+        {
+            runtime = (ValueMetric) getExistingOrAddNewMetric(metricPrefix + "runtime", new ValueMetric(percentiles.length > 0));
+            count = withCount ? getCounterMetric(metricPrefix + "count") : null;
+            errors = getCounterMetric(metricPrefix + "errors");
+            arrivals = withArrivals ? getRateMetric(metricPrefix + "arrivals_1h", ONE_HOUR) : null;
+        }
+
+        private void update(final TimerData timerData)
+        {
+            runtime.update(timerData.getRunTime());
+            if (count != null)
+            {
+                count.update(1);
+            }
+            errors.update(timerData.hasFailed() ? 1 : 0);
+            if (arrivals != null)
+            {
+                arrivals.update(1);
+            }
+        }
+    }
 }
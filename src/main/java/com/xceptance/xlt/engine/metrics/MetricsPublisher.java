@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xceptance.xlt.api.engine.GlobalClock;
+
+/**
+ * Periodically collects the values of all metrics and passes them to the configured reporters. As collecting the
+ * values resets the metrics, this is done in one place only, no matter how many reporters there are.
+ *
+ * @since 8.1.0
+ */
+public class MetricsPublisher
+{
+    private static final Logger log = LoggerFactory.getLogger(MetricsPublisher.class);
+
+    private final Map<String, Metric> metrics;
+
+    private final List<MetricsReporter> reporters;
+
+    private final long interval;
+
+    private volatile long lastReportingTime;
+
+    /**
+     * Creates the publisher.
+     *
+     * @param metrics
+     *            all the metrics keyed by metric name
+     * @param reporters
+     *            the reporters to pass the metric values to
+     * @param interval
+     *            the publishing interval [ms]
+     */
+    public MetricsPublisher(final Map<String, Metric> metrics, final List<MetricsReporter> reporters, final int interval)
+    {
+        this.metrics = metrics;
+        this.reporters = reporters;
+        this.interval = interval;
+
+        lastReportingTime = GlobalClock.millis();
+    }
+
+    /**
+     * Starts the background task that periodically publishes the metrics.
+     */
+    public void start()
+    {
+        // create the timer
+        final Timer timer = new Timer("MetricsPublisher", true);
+
+        // register a clean-up routine for JVM shutdown
+        Runtime.getRuntime().addShutdownHook(new Thread()
+        {
+            @Override
+            public void run()
+            {
+                // stop the timer
+                timer.cancel();
+
+                // report any "last-minute" updates now, but pretend that they were sent the normal way at the next
+                // regular reporting time
+                publish(lastReportingTime + interval);
+            }
+        });
+
+        // create the timer task that reports the metrics
+        final TimerTask timerTask = new TimerTask()
+        {
+            @Override
+            public void run()
+            {
+                // remember the current time, we will need it as reference time during shutdown
+                lastReportingTime = GlobalClock.millis();
+
+                // report the metrics with the current time
+                publish(lastReportingTime);
+            }
+        };
+
+        // schedule the task to run periodically (with a random initial delay)
+        final long initialDelay = (long) (Math.random() * interval);
+        timer.schedule(timerTask, initialDelay, interval);
+    }
+
+    /**
+     * Collects the metric values and passes them to the reporters.
+     *
+     * @param time
+     *            the time [ms]
+     */
+    synchronized void publish(final long time)
+    {
+        final MetricsReport report = collect(metrics, time);
+
+        for (final MetricsReporter reporter : reporters)
+        {
+            try
+            {
+                reporter.report(report);
+            }
+            catch (final RuntimeException e)
+            {
+                log.warn("Failed to report metrics using " + reporter.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    /**
+     * Collects the values of all metrics updated since the last call and resets the metrics.
+     *
+     * @param metrics
+     *            all the metrics keyed by metric name
+     * @param time
+     *            the time [ms]
+     * @return the metric values
+     */
+    static MetricsReport collect(final Map<String, Metric> metrics, final long time)
+    {
+        final MetricsReport report = new MetricsReport(time);
+
+        for (final Entry<String, Metric> entry : metrics.entrySet())
+        {
+            final String metricName = entry.getKey();
+            final Metric metric = entry.getValue();
+
+            if (metric instanceof ValueMetric)
+            {
+                final ValueMetric.Snapshot snapshot = ((ValueMetric) metric).getSnapshotAndClear();
+
+                // report metrics only if values have been added at all
+                if (snapshot.getCount() > 0)
+                {
+                    report.addValue(metricName, snapshot);
+                }
+            }
+            else if (metric instanceof CounterMetric)
+            {
+                final Long count = ((CounterMetric) metric).getCountAndClear();
+                if (count != null)
+                {
+                    report.addCount(metricName, count);
+                }
+            }
+            else if (metric instanceof RateMetric)
+            {
+                final Double rate = ((RateMetric) metric).getRateAndClear();
+                if (rate != null)
+                {
+                    report.addRate(metricName, rate);
+                }
+            }
+            else
+            {
+                if (log.isWarnEnabled())
+                {
+                    log.warn("Skipping unknown metric class: " + metric.getClass().getName());
+                }
+            }
+        }
+
+        return report;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The values of all metrics that were updated during a reporting interval, keyed by metric name.
+ *
+ * @since 8.1.0
+ */
+public class MetricsReport
+{
+    /**
+     * The time [ms] the reporting interval ended.
+     */
+    private final long time;
+
+    /**
+     * The snapshots of the value metrics.
+     */
+    private final Map<String, ValueMetric.Snapshot> values = new TreeMap<String, ValueMetric.Snapshot>();
+
+    /**
+     * The counts of the counter metrics.
+     */
+    private final Map<String, Long> counts = new TreeMap<String, Long>();
+
+    /**
+     * The rates of the rate metrics.
+     */
+    private final Map<String, Double> rates = new TreeMap<String, Double>();
+
+    /**
+     * Constructor.
+     *
+     * @param time
+     *            the time [ms] the reporting interval ended
+     */
+    public MetricsReport(final long time)
+    {
+        this.time = time;
+    }
+
+    /**
+     * Returns the time the reporting interval ended.
+     *
+     * @return the time [ms]
+     */
+    public long getTime()
+    {
+        return time;
+    }
+
+    /**
+     * Returns the snapshots of the value metrics.
+     *
+     * @return the snapshots keyed by metric name
+     */
+    public Map<String, ValueMetric.Snapshot> getValues()
+    {
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Returns the counts of the counter metrics.
+     *
+     * @return the counts keyed by metric name
+     */
+    public Map<String, Long> getCounts()
+    {
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Returns the rates of the rate metrics.
+     *
+     * @return the rates keyed by metric name
+     */
+    public Map<String, Double> getRates()
+    {
+        return Collections.unmodifiableMap(rates);
+    }
+
+    /**
+     * Adds the snapshot of a value metric.
+     *
+     * @param metricName
+     *            the name of the metric
+     * @param snapshot
+     *            the snapshot
+     */
+    public void addValue(final String metricName, final ValueMetric.Snapshot snapshot)
+    {
+        values.put(metricName, snapshot);
+    }
+
+    /**
+     * Adds the count of a counter metric.
+     *
+     * @param metricName
+     *            the name of the metric
+     * @param count
+     *            the count
+     */
+    public void addCount(final String metricName, final long count)
+    {
+        counts.put(metricName, count);
+    }
+
+    /**
+     * Adds the rate of a rate metric.
+     *
+     * @param metricName
+     *            the name of the metric
+     * @param rate
+     *            the rate
+     */
+    public void addRate(final String metricName, final double rate)
+    {
+        rates.put(metricName, rate);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.metrics;
+
+/**
+ * Common interface for all reporters that publish metric values to a reporting system. The values are collected once
+ * per reporting interval by the {@link MetricsPublisher} and passed to all configured reporters.
+ *
+ * @since 8.1.0
+ */
+public interface MetricsReporter
+{
+    /**
+     * Publishes the metric values collected during the last reporting interval. This method is always called from the
+     * same thread.
+     *
+     * @param report
+     *            the metric values
+     */
+    public void report(MetricsReport report);
+}
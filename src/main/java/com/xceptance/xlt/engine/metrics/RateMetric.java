@@ -15,18 +15,20 @@
  */
 package com.xceptance.xlt.engine.metrics;
 
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * A metric for rate values. All reported counts are added to the total count and converted to the corresponding rate
  * value.
  * <p>
- * Note: This class is thread-safe.
+ * Note: This class is thread-safe. Updates never block, not even while the rate is calculated.
  */
 public class RateMetric implements Metric
 {
     /**
      * The total count (the sum of all values added).
      */
-    private long sum;
+    private final LongAdder sum = new LongAdder();
 
     /**
      * The time the metric was reported the last time.
@@ -46,7 +48,7 @@ public class RateMetric implements Metric
     /**
      * Whether this metric has unreported data.
      */
-    private boolean hasData;
+    private volatile boolean hasData;
 
     /**
      * Constructor.
@@ -66,10 +68,15 @@ public class RateMetric implements Metric
      * {@inheritDoc}
      */
     @Override
-    public synchronized void update(final int value)
+    public void update(final int value)
     {
-        sum += value;
-        hasData = true;
+        sum.add(value);
+
+        // avoid writing the shared flag over and over again
+        if (!hasData)
+        {
+            hasData = true;
+        }
     }
 
     /**
@@ -79,25 +86,21 @@ public class RateMetric implements Metric
      */
     public synchronized Double getRateAndClear()
     {
-        final Double rate;
-
-        if (hasData)
+        if (!hasData)
         {
-            // calculate rate
-            final long now = System.nanoTime() / 1000000;
-            final double duration = (time == 0) ? reportingInterval : now - time;
-            rate = (double) sum * rateInterval / duration;
-
-            // reset internal state
-            sum = 0;
-            time = now;
-            hasData = false;
-        }
-        else
-        {
-            rate = null;
+            return null;
         }
 
+        // clear the flag first so that values added from now on will be reported next time
+        hasData = false;
+
+        // calculate rate
+        final long now = System.nanoTime() / 1000000;
+        final double duration = (time == 0) ? reportingInterval : now - time;
+        final double rate = (double) sum.sumThenReset() * rateInterval / duration;
+
+        time = now;
+
         return rate;
     }
 }
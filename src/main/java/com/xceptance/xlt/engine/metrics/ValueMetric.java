@@ -15,37 +15,102 @@
  */
 package com.xceptance.xlt.engine.metrics;
 
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * A metric for fluctuating values. Maintains the minimum, the maximum, and the mean value calculated from all values
  * added.
  * <p>
- * Note: This class is thread-safe.
+ * Optionally, the values are also recorded in a {@link LogLinearHistogram} to estimate percentiles.
+ * <p>
+ * Note: This class is thread-safe. Updates never block, not even while a snapshot is taken. A value added while a
+ * snapshot is taken may be partly accounted for in the next snapshot.
  */
 public class ValueMetric implements Metric
 {
     /**
-     * The current internal state.
+     * The number of values added.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * The sum of all values.
+     */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * The minimum value.
+     */
+    private final LongAccumulator minimum = new LongAccumulator(Math::min, Integer.MAX_VALUE);
+
+    /**
+     * The maximum value.
+     */
+    private final LongAccumulator maximum = new LongAccumulator(Math::max, Integer.MIN_VALUE);
+
+    /**
+     * The histogram of all values, or <code>null</code> if percentiles are not needed.
+     */
+    private final LogLinearHistogram histogram;
+
+    /**
+     * Creates a new value metric without a histogram.
+     */
+    public ValueMetric()
+    {
+        this(false);
+    }
+
+    /**
+     * Creates a new value metric.
+     *
+     * @param withHistogram
+     *            whether to record the values in a histogram as well
+     * @since 8.1.0
      */
-    private Snapshot snapshot = new Snapshot();
+    public ValueMetric(final boolean withHistogram)
+    {
+        histogram = withHistogram ? new LogLinearHistogram() : null;
+    }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized void update(final int value)
+    public void update(final int value)
     {
-        snapshot.update(value);
+        // update the count last (and read it first when taking a snapshot) so a counted value is fully accounted for
+        minimum.accumulate(value);
+        maximum.accumulate(value);
+        sum.add(value);
+        if (histogram != null)
+        {
+            histogram.update(value);
+        }
+        count.increment();
     }
 
     /**
      * Returns a snapshot of the current internal state and resets the internal state.
      */
-    public synchronized Snapshot getSnapshotAndClear()
+    public Snapshot getSnapshotAndClear()
     {
-        final Snapshot oldSnapshot = snapshot;
-        snapshot = new Snapshot();
+        final Snapshot snapshot = new Snapshot();
+
+        snapshot.count = (int) count.sumThenReset();
+        snapshot.sum = sum.sumThenReset();
+        snapshot.minimum = (int) minimum.getThenReset();
+        snapshot.maximum = (int) maximum.getThenReset();
+        snapshot.histogram = (histogram == null) ? null : histogram.getSnapshotAndClear();
 
-        return oldSnapshot;
+        // the extremes of the counted values might have been taken by the previous snapshot already
+        if (snapshot.count > 0 && snapshot.minimum > snapshot.maximum)
+        {
+            snapshot.minimum = snapshot.maximum = (int) (snapshot.sum / snapshot.count);
+        }
+
+        return snapshot;
     }
 
     /**
@@ -73,6 +138,11 @@ public class ValueMetric implements Metric
          */
         private long sum;
 
+        /**
+         * The histogram of the values added, if any.
+         */
+        private LogLinearHistogram.Snapshot histogram;
+
         /**
          * Returns the number of values added.
          *
@@ -124,26 +194,14 @@ public class ValueMetric implements Metric
         }
 
         /**
-         * Updates the internal state with the given value.
+         * Returns the histogram of the values added.
          *
-         * @param value
-         *            the value
+         * @return the histogram, or <code>null</code> if the metric does not maintain a histogram
+         * @since 8.1.0
          */
-        private void update(final int value)
+        public LogLinearHistogram.Snapshot getHistogram()
         {
-            count++;
-
-            if (value > maximum)
-            {
-                maximum = value;
-            }
-
-            if (value < minimum)
-            {
-                minimum = value;
-            }
-
-            sum += value;
+            return histogram;
         }
     }
 }
@@ -16,27 +16,22 @@
 package com.xceptance.xlt.engine.metrics.graphite;
 
 import java.io.IOException;
-import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.xceptance.xlt.api.engine.GlobalClock;
-import com.xceptance.xlt.engine.metrics.CounterMetric;
-import com.xceptance.xlt.engine.metrics.Metric;
-import com.xceptance.xlt.engine.metrics.RateMetric;
-import com.xceptance.xlt.engine.metrics.ValueMetric;
+import com.xceptance.xlt.engine.metrics.LogLinearHistogram;
+import com.xceptance.xlt.engine.metrics.MetricsReport;
+import com.xceptance.xlt.engine.metrics.MetricsReporter;
 import com.xceptance.xlt.engine.metrics.ValueMetric.Snapshot;
 import com.xceptance.xlt.engine.util.TimerUtils;
 
 /**
- * A reporter which periodically publishes metric values to a Graphite Carbon server.
+ * A reporter which publishes metric values to a Graphite Carbon server.
  */
-public class GraphiteReporter
+public class GraphiteReporter implements MetricsReporter
 {
     private static final Logger log = LoggerFactory.getLogger(GraphiteReporter.class);
 
@@ -44,86 +39,63 @@ public class GraphiteReporter
 
     private final String metricNamePrefix;
 
-    private final Map<String, Metric> metrics;
-
-    private int metricCount;
+    /**
+     * The percentiles to report for value metrics with a histogram.
+     */
+    private final double[] percentiles;
 
-    private final long interval;
+    /**
+     * The metric name suffixes corresponding to the percentiles.
+     */
+    private final String[] percentileNames;
 
-    private volatile long lastReportingTime;
+    private int metricCount;
 
     /**
      * Creates the reporter.
      *
      * @param carbonClient
      *            the Carbon client
-     * @param metrics
-     *            all the metrics keyed by metric name
      * @param metricNamePrefix
      *            the prefix to add to the metric's name before publishing the metric
-     * @param interval
-     *            the publishing interval [ms]
+     * @param percentiles
+     *            the percentiles to report for value metrics with a histogram
      */
-    public GraphiteReporter(final PlainTextCarbonClient carbonClient, final Map<String, Metric> metrics, final String metricNamePrefix,
-                            final int interval)
+    public GraphiteReporter(final PlainTextCarbonClient carbonClient, final String metricNamePrefix, final double[] percentiles)
     {
-        this.metrics = metrics;
         this.carbonClient = carbonClient;
         this.metricNamePrefix = metricNamePrefix;
-        this.interval = interval;
+        this.percentiles = percentiles;
 
-        lastReportingTime = GlobalClock.millis();
+        percentileNames = new String[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++)
+        {
+            percentileNames[i] = getPercentileName(percentiles[i]);
+        }
     }
 
     /**
-     * Starts the background task that periodically publishes metrics to the server.
+     * Returns the metric name suffix for the given percentile, for example "p95" or "p99_9".
+     *
+     * @param percentile
+     *            the percentile
+     * @return the name
      */
-    public void start()
+    static String getPercentileName(final double percentile)
     {
-        // create the timer
-        final Timer timer = new Timer("GraphiteReporter", true);
+        final String s = (percentile == Math.rint(percentile)) ? Long.toString((long) percentile) : Double.toString(percentile);
 
-        // register a clean-up routine for JVM shutdown
-        Runtime.getRuntime().addShutdownHook(new Thread()
-        {
-            @Override
-            public void run()
-            {
-                // stop the timer
-                timer.cancel();
-
-                // report any "last-minute" updates now, but pretend that they were sent the normal way at the next
-                // regular reporting time
-                report(lastReportingTime + interval);
-            }
-        });
-
-        // create the timer task that reports the metrics
-        final TimerTask timerTask = new TimerTask()
-        {
-            @Override
-            public void run()
-            {
-                // remember the current time, we will need it as reference time during shutdown
-                lastReportingTime = GlobalClock.millis();
-
-                // report the metrics with the current time
-                report(lastReportingTime);
-            }
-        };
-
-        // schedule the task to run periodically (with a random initial delay)
-        final long initialDelay = (long) (Math.random() * interval);
-        timer.schedule(timerTask, initialDelay, interval);
+        return "p" + s.replace('.', '_');
     }
 
     /**
      * Publishes metrics to the server.
      *
-     * @param time
-     *            the time [ms]
+     * @param report
+     *            the metric values
      */
-    private void report(long time)
+    @Override
+    public void report(final MetricsReport report)
     {
         // reset the metric counter
         metricCount = 0;
@@ -144,34 +116,25 @@ public class GraphiteReporter
             // send data
             {
                 // the current timestamp (in seconds!)
-                final long timestamp = time / 1000;
+                final long timestamp = report.getTime() / 1000;
 
                 final long sendStart = TimerUtils.get().getStartTime();
 
-                for (final Entry<String, Metric> entry : metrics.entrySet())
+                for (final Entry<String, Snapshot> entry : report.getValues().entrySet())
                 {
-                    final String metricName = entry.getKey();
-                    final Metric metric = entry.getValue();
+                    reportTimerMetric(entry.getKey(), entry.getValue(), timestamp);
+                }
 
-                    if (metric instanceof ValueMetric)
-                    {
-                        reportTimerMetric(metricName, (ValueMetric) metric, timestamp);
-                    }
-                    else if (metric instanceof CounterMetric)
-                    {
-                        reportCounterMetric(metricName, (CounterMetric) metric, timestamp);
-                    }
-                    else if (metric instanceof RateMetric)
-                    {
-                        reportRateMetric(metricName, (RateMetric) metric, timestamp);
-                    }
-                    else
-                    {
-                        if (log.isWarnEnabled())
-                        {
-                            log.warn("Skipping unknown metric class: " + metric.getClass().getName());
-                        }
-                    }
+                for (final Entry<String, Long> entry : report.getCounts().entrySet())
+                {
+                    carbonClient.send(prefix(entry.getKey()), format(entry.getValue()), timestamp);
+                    metricCount++;
+                }
+
+                for (final Entry<String, Double> entry : report.getRates().entrySet())
+                {
+                    carbonClient.send(prefix(entry.getKey()), format(entry.getValue()), timestamp);
+                    metricCount++;
                 }
 
                 sentTime = TimerUtils.get().getElapsedTime(sendStart);
@@ -199,74 +162,33 @@ public class GraphiteReporter
     }
 
     /**
-     * Reports a value metric to the server.
+     * Reports the values of a value metric to the server.
      *
      * @param metricName
      *            the metric base name
-     * @param metric
-     *            the metric
+     * @param snapshot
+     *            the metric values
      * @param timestamp
      *            the timestamp
      * @throws IOException
      */
-    private void reportTimerMetric(final String metricName, final ValueMetric metric, final long timestamp) throws IOException
+    private void reportTimerMetric(final String metricName, final Snapshot snapshot, final long timestamp) throws IOException
     {
-        final Snapshot snapshot = metric.getSnapshotAndClear();
-
-        // report metrics only if values have been added at all
-        if (snapshot.getCount() > 0)
-        {
-            carbonClient.send(prefix(metricName, "mean"), format(snapshot.getMean()), timestamp);
-            carbonClient.send(prefix(metricName, "max"), format(snapshot.getMaximum()), timestamp);
-            carbonClient.send(prefix(metricName, "min"), format(snapshot.getMinimum()), timestamp);
+        carbonClient.send(prefix(metricName, "mean"), format(snapshot.getMean()), timestamp);
+        carbonClient.send(prefix(metricName, "max"), format(snapshot.getMaximum()), timestamp);
+        carbonClient.send(prefix(metricName, "min"), format(snapshot.getMinimum()), timestamp);
 
-            metricCount += 3;
-        }
-    }
-
-    /**
-     * Reports a counter metric to the server.
-     *
-     * @param metricName
-     *            the metric base name
-     * @param metric
-     *            the metric
-     * @param timestamp
-     *            the timestamp
-     * @throws IOException
-     */
-    private void reportCounterMetric(final String metricName, final CounterMetric metric, final long timestamp) throws IOException
-    {
-        final Long count = metric.getCountAndClear();
+        metricCount += 3;
 
-        // report metrics only if values have been added at all
-        if (count != null)
+        final LogLinearHistogram.Snapshot histogram = snapshot.getHistogram();
+        if (histogram != null && histogram.getCount() > 0)
         {
-            carbonClient.send(prefix(metricName), format(count), timestamp);
-            metricCount++;
-        }
-    }
-
-    /**
-     * Reports a rate metric to the server.
-     *
-     * @param metricName
-     *            the metric base name
-     * @param metric
-     *            the metric
-     * @param timestamp
-     *            the timestamp
-     * @throws IOException
-     */
-    private void reportRateMetric(final String metricName, final RateMetric metric, final long timestamp) throws IOException
-    {
-        final Double rate = metric.getRateAndClear();
+            for (int i = 0; i < percentiles.length; i++)
+            {
+                carbonClient.send(prefix(metricName, percentileNames[i]), format(histogram.getPercentile(percentiles[i])), timestamp);
+            }
 
-        // report metrics only if values have been added at all
-        if (rate != null)
-        {
-            carbonClient.send(prefix(metricName), format(rate), timestamp);
-            metricCount++;
+            metricCount += percentiles.length;
         }
     }
 
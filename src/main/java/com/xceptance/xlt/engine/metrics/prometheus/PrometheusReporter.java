@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.metrics.prometheus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import com.xceptance.xlt.engine.metrics.LogLinearHistogram;
+import com.xceptance.xlt.engine.metrics.MetricsReport;
+import com.xceptance.xlt.engine.metrics.MetricsReporter;
+import com.xceptance.xlt.engine.metrics.ValueMetric;
+
+/**
+ * A reporter which serves the metric values via HTTP in the Prometheus text exposition format, which is understood by
+ * Prometheus and other OpenMetrics-compatible scrapers.
+ * <p>
+ * Value metrics are exposed as summaries. Their quantiles are calculated from the values of the last reporting interval
+ * only, while the sum and count cover all values since the agent was started. Counter metrics are exposed as counters
+ * and rate metrics as gauges. Metrics not updated in the last reporting interval keep their previous values, except
+ * that the quantiles become "NaN".
+ *
+ * @since 8.1.0
+ */
+public class PrometheusReporter implements MetricsReporter
+{
+    /**
+     * The content type of the Prometheus text exposition format.
+     */
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final String host;
+
+    private final int port;
+
+    private final String metricNamePrefix;
+
+    /**
+     * The percentiles to expose for value metrics with a histogram.
+     */
+    private final double[] percentiles;
+
+    /**
+     * The state of all value metrics reported so far, keyed by exposed metric name.
+     */
+    private final Map<String, SummaryState> summaries = new TreeMap<String, SummaryState>();
+
+    /**
+     * The total counts of all counter metrics reported so far, keyed by exposed metric name.
+     */
+    private final Map<String, Long> counters = new TreeMap<String, Long>();
+
+    /**
+     * The current rates of all rate metrics reported so far, keyed by exposed metric name.
+     */
+    private final Map<String, Double> gauges = new TreeMap<String, Double>();
+
+    /**
+     * The exposed metric names keyed by the original metric name.
+     */
+    private final Map<String, String> exposedNames = new HashMap<String, String>();
+
+    /**
+     * The text served, recreated after each reporting interval.
+     */
+    private volatile byte[] exposition = new byte[0];
+
+    private Server server;
+
+    /**
+     * Creates the reporter.
+     *
+     * @param host
+     *            the host name or address to listen at
+     * @param port
+     *            the port to listen at
+     * @param metricNamePrefix
+     *            the prefix to add to the metric's name before exposing the metric
+     * @param percentiles
+     *            the percentiles to expose for value metrics with a histogram
+     */
+    public PrometheusReporter(final String host, final int port, final String metricNamePrefix, final double[] percentiles)
+    {
+        this.host = host;
+        this.port = port;
+        this.metricNamePrefix = metricNamePrefix;
+        this.percentiles = percentiles;
+    }
+
+    /**
+     * Starts the HTTP server that serves the metrics.
+     *
+     * @throws Exception
+     *             if the server could not be started
+     */
+    public void start() throws Exception
+    {
+        // use few daemon threads only, so the server neither costs much nor keeps the agent alive
+        final QueuedThreadPool threadPool = new QueuedThreadPool(4, 1);
+        threadPool.setName("PrometheusReporter");
+        threadPool.setDaemon(true);
+
+        server = new Server(threadPool);
+
+        final ServerConnector connector = new ServerConnector(server, 1, 1);
+        connector.setHost(host);
+        connector.setPort(port);
+        server.addConnector(connector);
+
+        server.setHandler(new AbstractHandler()
+        {
+            @Override
+            public void handle(final String target, final Request baseRequest, final HttpServletRequest request,
+                               final HttpServletResponse response)
+                throws IOException
+            {
+                final byte[] bytes = exposition;
+
+                response.setStatus(HttpServletResponse.SC_OK);
+                response.setContentType(CONTENT_TYPE);
+                response.setContentLength(bytes.length);
+                response.getOutputStream().write(bytes);
+
+                baseRequest.setHandled(true);
+            }
+        });
+
+        server.start();
+    }
+
+    /**
+     * Returns the port the HTTP server listens at.
+     *
+     * @return the port
+     */
+    public int getPort()
+    {
+        return ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+    }
+
+    /**
+     * Stops the HTTP server.
+     *
+     * @throws Exception
+     *             if the server could not be stopped
+     */
+    public void stop() throws Exception
+    {
+        server.stop();
+    }
+
+    /**
+     * Updates the state of the exposed metrics with the given values and recreates the text to serve.
+     *
+     * @param report
+     *            the metric values
+     */
+    @Override
+    public void report(final MetricsReport report)
+    {
+        // forget the quantiles of the last interval
+        for (final SummaryState summary : summaries.values())
+        {
+            summary.histogram = null;
+        }
+
+        for (final Entry<String, ValueMetric.Snapshot> entry : report.getValues().entrySet())
+        {
+            final ValueMetric.Snapshot snapshot = entry.getValue();
+
+            final SummaryState summary = summaries.computeIfAbsent(getExposedName(entry.getKey()), k -> new SummaryState());
+            summary.count += snapshot.getCount();
+            summary.sum += snapshot.getSum();
+            summary.histogram = snapshot.getHistogram();
+        }
+
+        for (final Entry<String, Long> entry : report.getCounts().entrySet())
+        {
+            counters.merge(getExposedName(entry.getKey()), entry.getValue(), Long::sum);
+        }
+
+        for (final Entry<String, Double> entry : report.getRates().entrySet())
+        {
+            gauges.put(getExposedName(entry.getKey()), entry.getValue());
+        }
+
+        exposition = format().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates the text to serve from the current state.
+     *
+     * @return the text
+     */
+    String format()
+    {
+        final StringBuilder sb = new StringBuilder(4096);
+
+        for (final Entry<String, SummaryState> entry : summaries.entrySet())
+        {
+            final String name = entry.getKey();
+            final SummaryState summary = entry.getValue();
+
+            sb.append("# TYPE ").append(name).append(" summary\n");
+            for (final double percentile : percentiles)
+            {
+                final LogLinearHistogram.Snapshot histogram = summary.histogram;
+                final String value = (histogram == null || histogram.getCount() == 0) ? "NaN"
+                                                                                       : Integer.toString(histogram.getPercentile(percentile));
+
+                sb.append(name).append("{quantile=\"").append(percentile / 100.0).append("\"} ").append(value).append('\n');
+            }
+            sb.append(name).append("_sum ").append(summary.sum).append('\n');
+            sb.append(name).append("_count ").append(summary.count).append('\n');
+        }
+
+        for (final Entry<String, Long> entry : counters.entrySet())
+        {
+            final String name = entry.getKey() + "_total";
+
+            sb.append("# TYPE ").append(name).append(" counter\n");
+            sb.append(name).append(' ').append(entry.getValue()).append('\n');
+        }
+
+        for (final Entry<String, Double> entry : gauges.entrySet())
+        {
+            final String name = entry.getKey();
+
+            sb.append("# TYPE ").append(name).append(" gauge\n");
+            sb.append(name).append(' ').append(entry.getValue()).append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Returns the name under which the given metric is exposed. Any character not allowed by Prometheus is replaced
+     * with an underscore.
+     *
+     * @param metricName
+     *            the name of the metric
+     * @return the exposed name
+     */
+    private String getExposedName(final String metricName)
+    {
+        return exposedNames.computeIfAbsent(metricName, k -> {
+            final char[] chars = (metricNamePrefix + k).toCharArray();
+            for (int i = 0; i < chars.length; i++)
+            {
+                final char c = chars[i];
+                final boolean isValidChar = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == ':' ||
+                                            (c >= '0' && c <= '9' && i > 0);
+                if (!isValidChar)
+                {
+                    chars[i] = '_';
+                }
+            }
+
+            return new String(chars);
+        });
+    }
+
+    /**
+     * The state of an exposed value metric.
+     */
+    private static final class SummaryState
+    {
+        /**
+         * The number of values since the start.
+         */
+        private long count;
+
+        /**
+         * The sum of the values since the start.
+         */
+        private long sum;
+
+        /**
+         * The histogram of the values of the last reporting interval, if any.
+         */
+        private LogLinearHistogram.Snapshot histogram;
+    }
+}
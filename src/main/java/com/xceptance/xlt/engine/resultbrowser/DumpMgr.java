@@ -28,8 +28,11 @@ import java.net.URI;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.zip.CRC32;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -51,7 +54,6 @@ import com.thoughtworks.xstream.io.json.AbstractJsonWriter;
 import com.thoughtworks.xstream.io.json.JsonHierarchicalStreamDriver;
 import com.thoughtworks.xstream.io.json.JsonWriter;
 import com.xceptance.common.xml.HtmlDomPrinter;
-import com.xceptance.xlt.api.engine.Session;
 import com.xceptance.xlt.api.htmlunit.LightWeightPage;
 import com.xceptance.xlt.api.util.XltLogger;
 import com.xceptance.xlt.api.util.XltProperties;
@@ -135,6 +137,36 @@ class DumpMgr
      */
     private boolean harExportEnabled;
 
+    /**
+     * The checksums of the files written to the cache directory, keyed by file name.
+     */
+    private final Map<String, Long> cacheFileChecksums = new HashMap<>();
+
+    /**
+     * The name of the user whose session is dumped.
+     */
+    private String userName;
+
+    /**
+     * The ID of the session to dump.
+     */
+    private String sessionId;
+
+    /**
+     * Whether the session to dump runs in a load test.
+     */
+    private boolean loadTest;
+
+    /**
+     * The value log of the session to dump.
+     */
+    private Map<String, Object> valueLog;
+
+    /**
+     * The writer that writes this dump in the background, or <code>null</code> if the dump is written by the user.
+     */
+    private DumpWriter writer;
+
     /**
      * Constructor.
      */
@@ -348,7 +380,8 @@ class DumpMgr
     }
 
     /**
-     * Dumps the given pages and request to disk.
+     * Dumps the given pages and request to disk. If so configured, the dump is only prepared here and then written in
+     * the background by the agent-wide {@link DumpWriter}.
      *
      * @param pages
      *            the list of pages to be dumped
@@ -356,6 +389,91 @@ class DumpMgr
      *            the list of requests to be dumped
      */
     public synchronized void dumpToDisk(final List<Page> pages, final List<Request> requests)
+    {
+        // remember what we need to know about the session, as it might be gone when the dump is written
+        captureSession();
+
+        final DumpWriter dumpWriter = DumpWriter.getInstance();
+        if (dumpWriter == null)
+        {
+            writeToDisk(pages, requests);
+        }
+        else
+        {
+            // clone the pages now, the user will change or discard them
+            if (pages != null)
+            {
+                for (final Page page : pages)
+                {
+                    if (page.isHtmlPage())
+                    {
+                        page.getHtmlPage();
+                    }
+                }
+            }
+
+            // hand over the current state to the writer and start over
+            final DumpMgr detachedDumpMgr = detach(dumpWriter);
+            dumpWriter.write(() -> detachedDumpMgr.writeToDisk(pages, requests));
+        }
+    }
+
+    /**
+     * Remembers the session-related data needed to write the dump.
+     */
+    private void captureSession()
+    {
+        final SessionImpl session = SessionImpl.getCurrent();
+
+        getDumpDirectory();
+        userName = session.getUserName();
+        sessionId = session.getID();
+        loadTest = session.isLoadTest();
+        valueLog = new HashMap<>(session.getValueLog());
+    }
+
+    /**
+     * Creates a new dump manager that takes over the state of this dump manager, which is reset afterwards.
+     *
+     * @param dumpWriter
+     *            the writer that will write the dump
+     * @return the new dump manager
+     */
+    private DumpMgr detach(final DumpWriter dumpWriter)
+    {
+        final DumpMgr detachedDumpMgr = new DumpMgr();
+
+        detachedDumpMgr.dataMgr = dataMgr;
+        detachedDumpMgr.urlMapping = urlMapping;
+        detachedDumpMgr.harExportEnabled = harExportEnabled;
+        detachedDumpMgr.pageCounter = pageCounter;
+        detachedDumpMgr.responseCounter = responseCounter;
+        detachedDumpMgr.dumpDirectory = dumpDirectory;
+        detachedDumpMgr.pageDirectory = pageDirectory;
+        detachedDumpMgr.responseDirectory = responseDirectory;
+        detachedDumpMgr.cacheDirectory = cacheDirectory;
+        detachedDumpMgr.cacheFileChecksums.putAll(cacheFileChecksums);
+        detachedDumpMgr.userName = userName;
+        detachedDumpMgr.sessionId = sessionId;
+        detachedDumpMgr.loadTest = loadTest;
+        detachedDumpMgr.valueLog = valueLog;
+        detachedDumpMgr.writer = dumpWriter;
+
+        dataMgr = new RequestDataMgr();
+        clear();
+
+        return detachedDumpMgr;
+    }
+
+    /**
+     * Writes the given pages and requests as well as the result browser data to disk.
+     *
+     * @param pages
+     *            the list of pages to be dumped
+     * @param requests
+     *            the list of requests to be dumped
+     */
+    private synchronized void writeToDisk(final List<Page> pages, final List<Request> requests)
     {
         if (pages != null)
         {
@@ -393,14 +511,13 @@ class DumpMgr
     private void dumpJson()
     {
         // generate the entry pages for the last failed test run
-        final Session session = Session.getCurrent();
-        if (!session.isLoadTest())
+        if (!loadTest)
         {
             // do not (re-)generate the entry pages during load tests -> might cause problems in case of parallel users
 
             // first entry page
             final File lastRunFile = new File(getDumpDirectory(), "../last.html");
-            final String lastRunFileContent = String.format(LAST_PAGE_FORMAT, session.getUserName(), session.getID());
+            final String lastRunFileContent = String.format(LAST_PAGE_FORMAT, userName, sessionId);
 
             try
             {
@@ -413,9 +530,9 @@ class DumpMgr
 
             // second entry page
             // be aware of the assumptions made on the directory layout
-            final File shortcutFile = new File(getDumpDirectory(), "../../../../" + session.getUserName() + ".html");
+            final File shortcutFile = new File(getDumpDirectory(), "../../../../" + userName + ".html");
             final String path = com.xceptance.common.io.FileUtils.computeRelativeUri(shortcutFile, dumpDirectory, false);
-            final String shortcutFileContent = String.format(LAST_PAGE_FORMAT, session.getUserName(), path);
+            final String shortcutFileContent = String.format(LAST_PAGE_FORMAT, userName, path);
 
             try
             {
@@ -446,6 +563,7 @@ class DumpMgr
             try
             {
                 FileUtils.copyURLToFile(url, file);
+                written(file);
             }
             catch (final Exception e)
             {
@@ -480,7 +598,7 @@ class DumpMgr
      */
     private void generateJsonFile()
     {
-        final TransactionInfo txn = dataMgr.generateTransaction();
+        final TransactionInfo txn = dataMgr.generateTransaction(userName, valueLog);
         generateResultBrowserData(txn);
 
         if (harExportEnabled)
@@ -513,6 +631,8 @@ class DumpMgr
         {
             XltLogger.runTimeLogger.error("Failed to generate file: " + jsonFile, e);
         }
+
+        written(jsonFile);
     }
 
     private void generateHar(final TransactionInfo transaction)
@@ -523,6 +643,7 @@ class DumpMgr
         try
         {
             harWriter.writeHarLogToFile(new HarExporter(transaction).exportToHAR(), harFile);
+            written(harFile);
         }
         catch (final Exception e)
         {
@@ -599,6 +720,7 @@ class DumpMgr
             // the document is complete now, dump it
             final String html = new HtmlDomPrinter().printNode(document);
             FileUtils.writeStringToFile(file, html, XltConstants.UTF8_ENCODING);
+            written(file);
         }
         catch (final IOException e)
         {
@@ -629,6 +751,7 @@ class DumpMgr
         try
         {
             FileUtils.writeStringToFile(file, new PageTransformer(lwPage).transformLW(urlMapping), XltConstants.UTF8_ENCODING);
+            written(file);
         }
         catch (final IOException ioe)
         {
@@ -649,6 +772,7 @@ class DumpMgr
         try
         {
             FileUtils.writeByteArrayToFile(file, image);
+            written(file);
         }
         catch (final IOException ioe)
         {
@@ -720,6 +844,8 @@ class DumpMgr
             XltLogger.runTimeLogger.error("Cannot write page to file: " + file.getAbsolutePath(), e);
         }
 
+        written(file);
+
         return file.getName();
     }
 
@@ -744,6 +870,7 @@ class DumpMgr
             if (content != null)
             {
                 FileUtils.copyInputStreamToFile(content, file);
+                written(file);
             }
         }
         catch (final Exception e)
@@ -790,7 +917,24 @@ class DumpMgr
             {
                 try (final InputStream content = rewriteResponseIfCss(url, webResponse))
                 {
-                    FileUtils.copyInputStreamToFile(content, file);
+                    final byte[] bytes = IOUtils.toByteArray(content);
+
+                    final CRC32 crc = new CRC32();
+                    crc.update(bytes);
+
+                    // don't write the same content to the same cache file again
+                    Long previousChecksum = cacheFileChecksums.put(fileName, crc.getValue());
+                    if (previousChecksum == null && file.isFile())
+                    {
+                        // written by a previous dump to the same directory
+                        previousChecksum = FileUtils.checksumCRC32(file);
+                    }
+
+                    if (previousChecksum == null || previousChecksum != crc.getValue() || !file.exists())
+                    {
+                        FileUtils.writeByteArrayToFile(file, bytes);
+                        written(file);
+                    }
                 }
                 catch (final Exception e)
                 {
@@ -839,6 +983,21 @@ class DumpMgr
         }
     }
 
+    /**
+     * Reports that the given file was written. If this dump is written in the background, this waits as long as needed
+     * to stay within the configured disk bandwidth.
+     *
+     * @param file
+     *            the file just written
+     */
+    private void written(final File file)
+    {
+        if (writer != null)
+        {
+            writer.written(file.length());
+        }
+    }
+
     /**
      * Prints the URL of the result browser just created to the console for easy copy&paste into a Web browser.
      * Additionally, the result browser will be opened in the default Web browser automatically if so configured in the
@@ -890,6 +1049,7 @@ class DumpMgr
         pageDirectory = null;
         cacheDirectory = null;
 
+        cacheFileChecksums.clear();
         dataMgr.clear();
     }
 }
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.resultbrowser;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.xceptance.xlt.api.util.XltLogger;
+import com.xceptance.xlt.api.util.XltProperties;
+import com.xceptance.xlt.engine.metrics.Metrics;
+
+/**
+ * Writes the result browsers of all the virtual users of an agent in a background thread. The users only hand over
+ * their already prepared dump and continue right away, so they neither stall on the disk nor produce lots of garbage
+ * while serializing pages, responses, and JSON data.
+ * <p>
+ * The number of dumps waiting to be written is limited. If the queue is full, further dumps are dropped. Optionally,
+ * the disk bandwidth used for writing the dumps can be limited as well.
+ *
+ * @since 8.1.0
+ */
+class DumpWriter
+{
+    /**
+     * The prefix of all the settings of the asynchronous dump writer.
+     */
+    private static final String PROP_PREFIX = RequestHistory.OUTPUT2DISK_PROPERTY + ".async.";
+
+    /**
+     * Whether result browsers are written asynchronously.
+     */
+    static final String PROP_ENABLED = PROP_PREFIX + "enabled";
+
+    /**
+     * The maximum number of dumps waiting to be written.
+     */
+    static final String PROP_QUEUE_SIZE = PROP_PREFIX + "queueSize";
+
+    /**
+     * The maximum number of bytes written per second.
+     */
+    static final String PROP_MAX_BYTES_PER_SECOND = PROP_PREFIX + "maxBytesPerSecond";
+
+    /**
+     * The maximum time [ms] to wait for pending dumps to be written when the JVM shuts down.
+     */
+    private static final long SHUTDOWN_TIMEOUT = 30_000;
+
+    /**
+     * The minimum time [ms] between two warnings about dropped dumps.
+     */
+    private static final long DROP_WARNING_INTERVAL = 10_000;
+
+    /**
+     * The lazily created agent-wide instance.
+     */
+    private static volatile DumpWriter instance;
+
+    /**
+     * Whether the agent-wide instance was requested already.
+     */
+    private static volatile boolean instanceResolved;
+
+    /**
+     * The executor running the dumps one after the other.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The maximum number of bytes written per second, or 0 if unlimited.
+     */
+    private final long maxBytesPerSecond;
+
+    /**
+     * The time [ns] at which the bytes written so far are paid off. Only accessed by the writer thread.
+     */
+    private long paidOffTime;
+
+    /**
+     * The number of dumps that were dropped.
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * The time [ms] the last warning about dropped dumps was logged.
+     */
+    private volatile long lastDropWarning;
+
+    /**
+     * Creates a new dump writer.
+     *
+     * @param queueSize
+     *            the maximum number of dumps waiting to be written
+     * @param maxBytesPerSecond
+     *            the maximum number of bytes written per second, or 0 if unlimited
+     */
+    DumpWriter(final int queueSize, final long maxBytesPerSecond)
+    {
+        this.maxBytesPerSecond = Math.max(0, maxBytesPerSecond);
+
+        // the writer is typically created by a user thread, but its thread must not belong to that user's thread group
+        ThreadGroup rootThreadGroup = Thread.currentThread().getThreadGroup();
+        while (rootThreadGroup.getParent() != null)
+        {
+            rootThreadGroup = rootThreadGroup.getParent();
+        }
+        final ThreadGroup threadGroup = new ThreadGroup(rootThreadGroup, "XLT-DumpWriter");
+
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(1, queueSize)), r -> {
+            final Thread thread = new Thread(threadGroup, r, "XLT-DumpWriter");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the agent-wide dump writer if so configured. The writer is created when called for the first time.
+     *
+     * @return the writer, or <code>null</code> if the result browsers are to be written synchronously
+     */
+    static DumpWriter getInstance()
+    {
+        if (!instanceResolved)
+        {
+            synchronized (DumpWriter.class)
+            {
+                if (!instanceResolved)
+                {
+                    final XltProperties props = XltProperties.getInstance();
+
+                    if (props.getProperty(PROP_ENABLED, false))
+                    {
+                        final DumpWriter writer = new DumpWriter(props.getProperty(PROP_QUEUE_SIZE, 16),
+                                                                 props.getProperty(PROP_MAX_BYTES_PER_SECOND, 0L));
+
+                        // make sure pending dumps are written when the agent terminates
+                        Runtime.getRuntime().addShutdownHook(new Thread(() -> writer.shutdown(SHUTDOWN_TIMEOUT),
+                                                                        DumpWriter.class.getSimpleName() + "-shutdown"));
+
+                        instance = writer;
+                    }
+
+                    instanceResolved = true;
+                }
+            }
+        }
+
+        return instance;
+    }
+
+    /**
+     * Queues the given dump for being written.
+     *
+     * @param dump
+     *            the dump
+     * @return whether the dump was queued, <code>false</code> if it was dropped because the queue was full
+     */
+    boolean write(final Runnable dump)
+    {
+        try
+        {
+            executor.execute(() -> {
+                try
+                {
+                    dump.run();
+                }
+                catch (final Exception e)
+                {
+                    XltLogger.runTimeLogger.error("Failed to write result browser", e);
+                }
+            });
+
+            Metrics.getInstance().updateDumpWriterMetrics(executor.getQueue().size(), 0);
+
+            return true;
+        }
+        catch (final RejectedExecutionException e)
+        {
+            droppedCount.incrementAndGet();
+            Metrics.getInstance().updateDumpWriterMetrics(executor.getQueue().size(), 1);
+            warnAboutDroppedDumps();
+
+            return false;
+        }
+    }
+
+    /**
+     * Called by the writer thread after a file has been written. Waits as long as needed to stay within the configured
+     * bandwidth.
+     *
+     * @param bytes
+     *            the number of bytes just written
+     */
+    void written(final long bytes)
+    {
+        if (maxBytesPerSecond > 0 && bytes > 0)
+        {
+            final long now = System.nanoTime();
+
+            paidOffTime = Math.max(paidOffTime, now) + TimeUnit.SECONDS.toNanos(bytes) / maxBytesPerSecond;
+
+            final long waitTime = paidOffTime - now;
+            if (waitTime > 0)
+            {
+                try
+                {
+                    TimeUnit.NANOSECONDS.sleep(waitTime);
+                }
+                catch (final InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of dumps that were dropped so far.
+     *
+     * @return the number of dropped dumps
+     */
+    long getDroppedCount()
+    {
+        return droppedCount.get();
+    }
+
+    /**
+     * Stops accepting new dumps and waits until the pending dumps are written.
+     *
+     * @param timeout
+     *            the maximum time [ms] to wait
+     * @return whether all dumps were written in time
+     */
+    boolean shutdown(final long timeout)
+    {
+        executor.shutdown();
+
+        try
+        {
+            return executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            return false;
+        }
+    }
+
+    /**
+     * Logs a warning about dropped dumps, but not more often than every {@link #DROP_WARNING_INTERVAL} ms.
+     */
+    private void warnAboutDroppedDumps()
+    {
+        final long now = System.currentTimeMillis();
+        if (now - lastDropWarning >= DROP_WARNING_INTERVAL)
+        {
+            lastDropWarning = now;
+            XltLogger.runTimeLogger.warn("Result browser queue is full. Dropped " + droppedCount.get() + " result browser(s) so far.");
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.resultbrowser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectStreamException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.IOUtils;
+import org.htmlunit.DownloadedContent;
+import org.htmlunit.WebResponse;
+import org.htmlunit.WebResponseData;
+
+import com.xceptance.common.io.ByteBufferInputStream;
+import com.xceptance.xlt.api.util.XltLogger;
+import com.xceptance.xlt.api.util.XltProperties;
+
+/**
+ * The body of a response kept in the request history, stored off-heap. Bodies kept in the history until the end of a
+ * transaction tend to survive several garbage collections, so they are promoted to the old generation and cause
+ * expensive collections later on. Off-heap, they do not burden the garbage collector at all.
+ * <p>
+ * The off-heap memory used by all users of an agent is limited. If the limit is reached, further bodies stay on the
+ * heap.
+ *
+ * @since 8.1.0
+ */
+final class OffHeapContent implements DownloadedContent
+{
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximum number of bytes kept off-heap by all users of an agent.
+     */
+    static final String PROP_MAX_SIZE = RequestHistory.OUTPUT2DISK_PROPERTY + ".offHeap.maxSize";
+
+    /**
+     * The maximum number of bytes kept off-heap.
+     */
+    private static final long MAX_SIZE = XltProperties.getInstance().getProperty(PROP_MAX_SIZE, 256L * 1024 * 1024);
+
+    /**
+     * The number of bytes currently kept off-heap.
+     */
+    private static final AtomicLong allocatedBytes = new AtomicLong();
+
+    /**
+     * Releases the budget of an off-heap content once it is garbage.
+     */
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /**
+     * The bytes.
+     */
+    private final transient ByteBuffer buffer;
+
+    /**
+     * Creates a new off-heap content.
+     *
+     * @param bytes
+     *            the bytes
+     */
+    private OffHeapContent(final byte[] bytes)
+    {
+        buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer();
+
+        // give back the budget reserved by the caller once the buffer is garbage, must not reference this instance
+        final long length = bytes.length;
+        CLEANER.register(this, () -> allocatedBytes.addAndGet(-length));
+    }
+
+    /**
+     * Moves the body of the given response off-heap. Responses with an empty body or a body stored in a file are left
+     * untouched, as are responses whose body would exceed the off-heap budget.
+     *
+     * @param webResponse
+     *            the response
+     */
+    static void moveOffHeap(final WebResponse webResponse)
+    {
+        final WebResponseData responseData = webResponse.getResponseData();
+        if (responseData == null)
+        {
+            return;
+        }
+
+        final DownloadedContent content = responseData.getDownloadedContent();
+        if (!(content instanceof DownloadedContent.InMemory) || content.isEmpty())
+        {
+            return;
+        }
+
+        final long length = content.length();
+        if (allocatedBytes.addAndGet(length) > MAX_SIZE)
+        {
+            // budget exhausted -> keep it on the heap
+            allocatedBytes.addAndGet(-length);
+            return;
+        }
+
+        try (final InputStream in = content.getInputStream())
+        {
+            responseData.setDownloadedContent(new OffHeapContent(IOUtils.toByteArray(in)));
+        }
+        catch (final IOException | OutOfMemoryError e)
+        {
+            allocatedBytes.addAndGet(-length);
+            XltLogger.runTimeLogger.debug("Failed to move response body off-heap", e);
+        }
+    }
+
+    /**
+     * Returns the number of bytes currently kept off-heap by all users.
+     *
+     * @return the number of bytes
+     */
+    static long getAllocatedBytes()
+    {
+        return allocatedBytes.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream getInputStream()
+    {
+        // use a private view so that concurrent readers do not interfere with each other
+        return new ByteBufferInputStream(buffer.duplicate());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cleanUp()
+    {
+        // the buffer is released by the garbage collector
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return length() == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long length()
+    {
+        return buffer.capacity();
+    }
+
+    /**
+     * Serializes the content as an on-heap content.
+     */
+    private Object writeReplace() throws ObjectStreamException
+    {
+        final byte[] bytes = new byte[buffer.capacity()];
+        buffer.duplicate().get(bytes);
+
+        return new WebResponseData(bytes, 0, null, Collections.emptyList()).getDownloadedContent();
+    }
+}
@@ -86,6 +86,23 @@ class RequestDataMgr
      * @return transaction information
      */
     public TransactionInfo generateTransaction()
+    {
+        final Session session = Session.getCurrent();
+
+        return generateTransaction(session.getUserName(), session.getValueLog());
+    }
+
+    /**
+     * Generates and returns a transaction information object base on the current pending action and request information
+     * objects and the given session data.
+     *
+     * @param userName
+     *            the name of the user
+     * @param valueLog
+     *            the value log of the session
+     * @return transaction information
+     */
+    public TransactionInfo generateTransaction(final String userName, final Map<String, Object> valueLog)
     {
         // check whether we have pending request info objects
         if (!pendingRequests.isEmpty())
@@ -102,12 +119,12 @@ class RequestDataMgr
 
         // create the transaction info
         final TransactionInfo transactionInfo = new TransactionInfo();
-        transactionInfo.user = Session.getCurrent().getUserName();
+        transactionInfo.user = userName;
         transactionInfo.date = GlobalClock.millis();
         transactionInfo.actions.addAll(actions);
 
         // store the session's value log (as NameValuePairs so we can reuse some code in the result browser)
-        final Map<String, Object> sortedValueLog = new TreeMap<>(Session.getCurrent().getValueLog());
+        final Map<String, Object> sortedValueLog = new TreeMap<>(valueLog);
         for (final Entry<String, Object> entry : sortedValueLog.entrySet())
         {
             final String value = (entry.getValue() == null) ? null : entry.getValue().toString();
@@ -61,6 +61,11 @@ public class RequestHistory
      */
     public static final String OUTPUT2DISK_ERROR_PROPERTY = OUTPUT2DISK_PROPERTY + ".onError";
 
+    /**
+     * The property for keeping the response bodies of the pending requests off-heap.
+     */
+    private static final String OUTPUT2DISK_OFFHEAP_PROPERTY = OUTPUT2DISK_PROPERTY + ".offHeap";
+
 
     /**
      * The possible dump mode values.
@@ -116,6 +121,11 @@ public class RequestHistory
      */
     private DumpMgr dumpMgr;
 
+    /**
+     * Whether to keep the response bodies of the pending requests off-heap.
+     */
+    private final boolean keepBodiesOffHeap;
+
     /**
      * We keep the session this history is running with
      */
@@ -145,6 +155,8 @@ public class RequestHistory
 
         dumpMgr = new DumpMgr();
         dumpMgr.setHarExportEnabled(properties.getProperty(session, OUTPUT2DISK_WRITEHAR_PROPERTY).map(Boolean::valueOf).orElse(false));
+
+        keepBodiesOffHeap = properties.getProperty(session, OUTPUT2DISK_OFFHEAP_PROPERTY).map(Boolean::valueOf).orElse(false);
     }
 
     /**
@@ -173,6 +185,12 @@ public class RequestHistory
         }
         else if (dumpMode == DumpMode.ON_ERROR)
         {
+            // keep the body out of the way of the garbage collector until the transaction is over
+            if (keepBodiesOffHeap && webResponse != null)
+            {
+                OffHeapContent.moveOffHeap(webResponse);
+            }
+
             // add a new pending request
             pendingRequests.add(new Request(name, webRequest, webResponse, requestData));
         }
@@ -15,12 +15,14 @@
  */
 package com.xceptance.xlt.engine.scripting;
 
+import java.io.IOException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.xceptance.xlt.api.data.MappedDataProvider;
 import com.xceptance.xlt.api.util.XltRandom;
 
 /**
@@ -125,6 +127,48 @@ public class MacroProcessor
                 return "";
             }
         });
+        macros.put("DATA.Random", new Macro()
+        {
+            @Override
+            public String execute(final String... arguments)
+            {
+                final String row = getDataProvider(arguments).getRandomRow();
+                return row == null ? "" : row;
+            }
+        });
+        macros.put("DATA.Next", new Macro()
+        {
+            @Override
+            public String execute(final String... arguments)
+            {
+                final String row = getDataProvider(arguments).getNextRow();
+                return row == null ? "" : row;
+            }
+        });
+    }
+
+    /**
+     * Returns the data provider for the data file passed as first macro argument.
+     * 
+     * @param arguments
+     *            the macro arguments
+     * @return the data provider
+     */
+    private static MappedDataProvider getDataProvider(final String... arguments)
+    {
+        if (arguments.length == 0 || arguments[0].isEmpty())
+        {
+            throw new ScriptException("No data file specified");
+        }
+
+        try
+        {
+            return MappedDataProvider.getInstance(arguments[0]);
+        }
+        catch (final IOException e)
+        {
+            throw new ScriptException("Failed to load data file: " + arguments[0], e);
+        }
     }
 
     /**
@@ -43,6 +43,7 @@ import com.xceptance.xlt.api.tests.AbstractTestCase;
 import com.xceptance.xlt.api.util.XltLogger;
 import com.xceptance.xlt.api.util.XltProperties;
 import com.xceptance.xlt.common.XltConstants;
+import com.xceptance.xlt.engine.UserThreadGroup;
 import com.xceptance.xlt.engine.scripting.util.CommonScriptCommands;
 
 /**
@@ -148,7 +149,7 @@ public class TestContext
      */
     public static TestContext getCurrent()
     {
-        final ThreadGroup threadGroup = Thread.currentThread().getThreadGroup();
+        final ThreadGroup threadGroup = UserThreadGroup.get();
         TestContext c = CONTEXTS.get(threadGroup);
         if (c == null)
         {
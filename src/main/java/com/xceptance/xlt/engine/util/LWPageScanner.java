@@ -0,0 +1,910 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A single-pass scanner that extracts resource URLs and related snippets from the source of a lightweight page.
+ * <p>
+ * The scanner works on a private copy of the page's characters. Comments, scripts, and styles can be removed in place
+ * before scanning, and {@link #scan(Type...)} then collects the requested kinds of snippets in one traversal. The
+ * results are the same as those of the corresponding methods in {@link LWPageUtilities}, which apply one regular
+ * expression per kind of snippet to the whole page, but the page is read only once and no intermediate strings are
+ * created.
+ *
+ * @since 8.1.0
+ */
+public final class LWPageScanner
+{
+    /**
+     * The kinds of snippets the scanner can collect.
+     */
+    public enum Type
+    {
+        /**
+         * The values of the "src" attribute of all "script" tags (see {@link LWPageUtilities#getAllScriptLinks}).
+         */
+        SCRIPT_LINKS,
+
+        /**
+         * The values of the "href" attribute of all "link" tags (see {@link LWPageUtilities#getAllLinkLinks}).
+         */
+        LINK_LINKS,
+
+        /**
+         * The attribute definitions of all "link" tags (see {@link LWPageUtilities#getAllLinkAttributes}).
+         */
+        LINK_ATTRIBUTES,
+
+        /**
+         * The values of the "src" attribute of all "img" tags (see {@link LWPageUtilities#getAllImageLinks}).
+         */
+        IMAGE_LINKS,
+
+        /**
+         * The values of the "src" attribute of all "input" tags (see {@link LWPageUtilities#getAllImageInputLinks}).
+         */
+        IMAGE_INPUT_LINKS,
+
+        /**
+         * The values of the "href" attribute of all "a" tags (see {@link LWPageUtilities#getAllAnchorLinks}).
+         */
+        ANCHOR_LINKS,
+
+        /**
+         * The values of the "style" attribute of all tags (see {@link LWPageUtilities#getAllInlineCssStatements}).
+         */
+        INLINE_CSS_STATEMENTS,
+
+        /**
+         * The contents of all "style" tags (see {@link LWPageUtilities#getAllStyleContents}).
+         */
+        STYLE_CONTENTS,
+
+        /**
+         * The values of the "href" attribute of all "base" tags (see {@link LWPageUtilities#getAllBaseLinks}).
+         */
+        BASE_LINKS,
+
+        /**
+         * The attribute definitions of all "frame" and "iframe" tags (see
+         * {@link LWPageUtilities#getAllFrameAttributes}).
+         */
+        FRAME_ATTRIBUTES
+    }
+
+    /**
+     * The snippets found by a scan.
+     */
+    public static final class Result
+    {
+        /**
+         * The snippets found, mapped by type.
+         */
+        private final Map<Type, List<String>> snippets = new EnumMap<>(Type.class);
+
+        /**
+         * Returns the snippets of the given type in the order they appear on the page. Leading and trailing white space
+         * is removed from each snippet and empty snippets are omitted.
+         *
+         * @param type
+         *            the snippet type
+         * @return the snippets, or an empty list if the type was not scanned for
+         */
+        public List<String> get(final Type type)
+        {
+            final List<String> list = snippets.get(type);
+            return list == null ? Collections.emptyList() : list;
+        }
+
+        /**
+         * Returns the URLs referenced by the inline CSS found on the page, that is, by the "style" attributes and the
+         * contents of the "style" tags (see {@link LWPageUtilities#getAllInlineCssResourceUrls}). Requires a scan for
+         * {@link Type#INLINE_CSS_STATEMENTS} and {@link Type#STYLE_CONTENTS}.
+         *
+         * @return the inline CSS resource URLs
+         */
+        public Set<String> getInlineCssResourceUrls()
+        {
+            return CssUtils.getUrlStrings(StringUtils.join(get(Type.INLINE_CSS_STATEMENTS), " ") +
+                                          StringUtils.join(get(Type.STYLE_CONTENTS), " "));
+        }
+    }
+
+    /**
+     * The page characters. Removing parts of the page compacts this buffer in place.
+     */
+    private final char[] chars;
+
+    /**
+     * The number of valid characters in the buffer.
+     */
+    private int length;
+
+    /**
+     * The start index of the value/group of the last successful match.
+     */
+    private int groupStart;
+
+    /**
+     * The end index (exclusive) of the value/group of the last successful match.
+     */
+    private int groupEnd;
+
+    /**
+     * The end index (exclusive) of the last successful match.
+     */
+    private int matchEnd;
+
+    /**
+     * Creates a new scanner for the given page source.
+     *
+     * @param page
+     *            the page source (may be <code>null</code>, which is treated like an empty page)
+     */
+    public LWPageScanner(final String page)
+    {
+        chars = page == null ? new char[0] : page.toCharArray();
+        length = chars.length;
+    }
+
+    /**
+     * Returns the current page source, that is, the original page source less any parts removed so far.
+     *
+     * @return the page source
+     */
+    public String getContent()
+    {
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Removes all HTML comments from the page, including an unclosed comment at the end of the page. This is the
+     * equivalent of {@link LWPageUtilities#removeHtmlComments(String)}.
+     *
+     * @return this scanner
+     */
+    public LWPageScanner removeHtmlComments()
+    {
+        final Compactor compactor = new Compactor();
+
+        int start = indexOf("<!--", 0);
+        while (start >= 0)
+        {
+            final int end = indexOf("-->", start + 4);
+            if (end < 0)
+            {
+                // an unclosed comment extends to the end of the page (but does not swallow a final line terminator)
+                compactor.remove(start, Math.max(start + 4, getFinalLineTerminatorIndex()));
+                break;
+            }
+
+            compactor.remove(start, end + 3);
+            start = indexOf("<!--", end + 3);
+        }
+
+        compactor.finish();
+
+        return this;
+    }
+
+    /**
+     * Removes all properly closed HTML comments from the page.
+     *
+     * @param keepConditionalComments
+     *            whether to keep comments that start with "[" (conditional comments)
+     * @return this scanner
+     */
+    public LWPageScanner removeComments(final boolean keepConditionalComments)
+    {
+        final Compactor compactor = new Compactor();
+        final int contentOffset = keepConditionalComments ? 5 : 4;
+
+        int start = indexOf("<!--", 0);
+        while (start >= 0)
+        {
+            if (keepConditionalComments && (start + 4 >= length || chars[start + 4] == '['))
+            {
+                start = indexOf("<!--", start + 1);
+                continue;
+            }
+
+            final int end = indexOf("-->", start + contentOffset);
+            if (end < 0)
+            {
+                // no more closed comments
+                break;
+            }
+
+            compactor.remove(start, end + 3);
+            start = indexOf("<!--", end + 3);
+        }
+
+        compactor.finish();
+
+        return this;
+    }
+
+    /**
+     * Removes all "script" elements from the page. The value of the "src" attribute of each removed element, if any,
+     * is added to the given collection as is.
+     * <p>
+     * Note that, in contrast to the other methods of this class, tag and attribute names are matched case-sensitively.
+     *
+     * @param scriptSources
+     *            the collection to add the script sources to
+     * @return this scanner
+     */
+    public LWPageScanner removeScripts(final Collection<String> scriptSources)
+    {
+        final Compactor compactor = new Compactor();
+
+        // the position of the next closing script tag, if known
+        int closingTag = -1;
+
+        for (int start = indexOf("<script", 0); start >= 0; start = indexOf("<script", start + 1))
+        {
+            final int nameEnd = start + 7;
+            if (!isBoundary(nameEnd))
+            {
+                continue;
+            }
+
+            // the tag ends at the first "/>", or at the first ">" that is followed by a closing tag somewhere
+            int end = -1;
+            int p = nameEnd;
+            for (; p < length; p++)
+            {
+                final char c = chars[p];
+                if (c == '/' && p + 1 < length && chars[p + 1] == '>')
+                {
+                    end = p + 2;
+                    break;
+                }
+                else if (c == '>')
+                {
+                    if (closingTag < p + 1 && closingTag != Integer.MAX_VALUE)
+                    {
+                        closingTag = indexOf("</script>", p + 1);
+                        if (closingTag < 0)
+                        {
+                            closingTag = Integer.MAX_VALUE;
+                        }
+                    }
+
+                    if (closingTag != Integer.MAX_VALUE)
+                    {
+                        end = closingTag + 9;
+                        break;
+                    }
+                }
+            }
+
+            if (end < 0)
+            {
+                // no later script tag can be closed either
+                break;
+            }
+
+            final String source = getScriptSource(nameEnd, p);
+            if (source != null)
+            {
+                scriptSources.add(source);
+            }
+
+            compactor.remove(start, end);
+            start = end - 1;
+        }
+
+        compactor.finish();
+
+        return this;
+    }
+
+    /**
+     * Removes all "style" elements from the page. For each removed element, the given consumer is called with the
+     * element's attribute definitions and its content.
+     * <p>
+     * Note that, in contrast to the other methods of this class, tag names are matched case-sensitively.
+     *
+     * @param styleConsumer
+     *            the consumer to pass the attribute definitions and the content of each style element to
+     * @return this scanner
+     */
+    public LWPageScanner removeStyles(final BiConsumer<String, String> styleConsumer)
+    {
+        final Compactor compactor = new Compactor();
+
+        for (int start = indexOf("<style", 0); start >= 0; start = indexOf("<style", start + 1))
+        {
+            final int nameEnd = start + 6;
+            if (!isBoundary(nameEnd))
+            {
+                continue;
+            }
+
+            final int tagEnd = indexOf('>', nameEnd);
+            if (tagEnd < 0)
+            {
+                break;
+            }
+
+            final int closingTag = indexOf("</style>", tagEnd + 1);
+            if (closingTag < 0)
+            {
+                // no later style tag can be closed either
+                break;
+            }
+
+            if (closingTag == tagEnd + 1 || regionMatches(tagEnd + 1, "</style"))
+            {
+                // empty style element
+                continue;
+            }
+
+            styleConsumer.accept(new String(chars, nameEnd, tagEnd - nameEnd), new String(chars, tagEnd + 1, closingTag - tagEnd - 1));
+
+            compactor.remove(start, closingTag + 8);
+            start = closingTag + 7;
+        }
+
+        compactor.finish();
+
+        return this;
+    }
+
+    /**
+     * Scans the page for the given kinds of snippets.
+     *
+     * @param types
+     *            the kinds of snippets to collect
+     * @return the snippets found
+     */
+    public Result scan(final Type... types)
+    {
+        final Result result = new Result();
+        for (final Type type : types)
+        {
+            result.snippets.put(type, new ArrayList<>());
+        }
+
+        final List<String> scriptLinks = result.snippets.get(Type.SCRIPT_LINKS);
+        final List<String> linkLinks = result.snippets.get(Type.LINK_LINKS);
+        final List<String> linkAttributes = result.snippets.get(Type.LINK_ATTRIBUTES);
+        final List<String> imageLinks = result.snippets.get(Type.IMAGE_LINKS);
+        final List<String> imageInputLinks = result.snippets.get(Type.IMAGE_INPUT_LINKS);
+        final List<String> anchorLinks = result.snippets.get(Type.ANCHOR_LINKS);
+        final List<String> inlineCssStatements = result.snippets.get(Type.INLINE_CSS_STATEMENTS);
+        final List<String> styleContents = result.snippets.get(Type.STYLE_CONTENTS);
+        final List<String> baseLinks = result.snippets.get(Type.BASE_LINKS);
+        final List<String> frameAttributes = result.snippets.get(Type.FRAME_ATTRIBUTES);
+
+        // matches of the same kind must not overlap, so remember for each kind where the next match may start at
+        final int[] next = new int[Type.values().length];
+
+        for (int start = indexOf('<', 0); start >= 0; start = indexOf('<', start + 1))
+        {
+            if (start + 1 >= length)
+            {
+                break;
+            }
+
+            // the tag name must start with a letter
+            final char c = toLowerCase(chars[start + 1]);
+            if (c < 'a' || c > 'z')
+            {
+                continue;
+            }
+
+            if (inlineCssStatements != null && start >= next[Type.INLINE_CSS_STATEMENTS.ordinal()] && matchInlineCss(start))
+            {
+                addGroup(inlineCssStatements, Type.INLINE_CSS_STATEMENTS, next);
+            }
+
+            switch (c)
+            {
+                case 'a':
+                    if (anchorLinks != null && start >= next[Type.ANCHOR_LINKS.ordinal()] &&
+                        matchTagAttribute(start, "a", "href=", true))
+                    {
+                        addGroup(anchorLinks, Type.ANCHOR_LINKS, next);
+                    }
+                    break;
+
+                case 'b':
+                    if (baseLinks != null && start >= next[Type.BASE_LINKS.ordinal()] && matchTagAttribute(start, "base", "href=", false))
+                    {
+                        addGroup(baseLinks, Type.BASE_LINKS, next);
+                    }
+                    break;
+
+                case 'f':
+                case 'i':
+                    if (frameAttributes != null && start >= next[Type.FRAME_ATTRIBUTES.ordinal()] && matchFrame(start))
+                    {
+                        addGroup(frameAttributes, Type.FRAME_ATTRIBUTES, next);
+                    }
+                    if (imageLinks != null && start >= next[Type.IMAGE_LINKS.ordinal()] && matchTagAttribute(start, "img", "src=", true))
+                    {
+                        addGroup(imageLinks, Type.IMAGE_LINKS, next);
+                    }
+                    if (imageInputLinks != null && start >= next[Type.IMAGE_INPUT_LINKS.ordinal()] &&
+                        matchTagAttribute(start, "input", "src=", false))
+                    {
+                        addGroup(imageInputLinks, Type.IMAGE_INPUT_LINKS, next);
+                    }
+                    break;
+
+                case 'l':
+                    if (linkLinks != null && start >= next[Type.LINK_LINKS.ordinal()] && matchTagAttribute(start, "link", "href=", true))
+                    {
+                        addGroup(linkLinks, Type.LINK_LINKS, next);
+                    }
+                    if (linkAttributes != null && start >= next[Type.LINK_ATTRIBUTES.ordinal()] && matchTagAttributes(start, "link"))
+                    {
+                        addGroup(linkAttributes, Type.LINK_ATTRIBUTES, next);
+                    }
+                    break;
+
+                case 's':
+                    if (scriptLinks != null && start >= next[Type.SCRIPT_LINKS.ordinal()] &&
+                        matchTagAttribute(start, "script", "src=", true))
+                    {
+                        addGroup(scriptLinks, Type.SCRIPT_LINKS, next);
+                    }
+                    if (styleContents != null && start >= next[Type.STYLE_CONTENTS.ordinal()] && matchStyleContent(start))
+                    {
+                        addGroup(styleContents, Type.STYLE_CONTENTS, next);
+                    }
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds the trimmed group of the last match to the given list unless it is empty, and remembers where the next match
+     * of this type may start at.
+     */
+    private void addGroup(final List<String> list, final Type type, final int[] next)
+    {
+        int start = groupStart;
+        int end = groupEnd;
+
+        // trim the same way as String.trim() does
+        while (start < end && chars[start] <= ' ')
+        {
+            start++;
+        }
+        while (start < end && chars[end - 1] <= ' ')
+        {
+            end--;
+        }
+
+        if (start < end)
+        {
+            list.add(new String(chars, start, end - start));
+        }
+
+        next[type.ordinal()] = matchEnd;
+    }
+
+    /**
+     * Matches <code>&lt;tag\b[^&lt;&gt;]*?\sattribute=</code> followed by a quoted value at the given position. If
+     * <code>anyQuote</code> is set, the value may be enclosed in single or double quotes (optionally preceded by white
+     * space), otherwise in double quotes only.
+     */
+    private boolean matchTagAttribute(final int start, final String tag, final String attribute, final boolean anyQuote)
+    {
+        final int nameEnd = start + 1 + tag.length();
+        if (!regionMatchesIgnoreCase(start + 1, tag) || !isBoundary(nameEnd))
+        {
+            return false;
+        }
+
+        return matchAttribute(nameEnd, attribute, anyQuote);
+    }
+
+    /**
+     * Matches <code>&lt;[A-Za-z]+?\b[^&lt;&gt;]*?\sstyle="..."</code> at the given position.
+     */
+    private boolean matchInlineCss(final int start)
+    {
+        int nameEnd = start + 1;
+        while (nameEnd < length && isAsciiLetter(chars[nameEnd]))
+        {
+            nameEnd++;
+        }
+
+        return isBoundary(nameEnd) && matchAttribute(nameEnd, "style=", false);
+    }
+
+    /**
+     * Matches <code>[^&lt;&gt;]*?\sattribute=</code> followed by a quoted value at the given position.
+     */
+    private boolean matchAttribute(final int from, final String attribute, final boolean anyQuote)
+    {
+        for (int i = from; i < length; i++)
+        {
+            final char c = chars[i];
+            if (c == '<' || c == '>')
+            {
+                return false;
+            }
+
+            if (isWhitespace(c) && regionMatchesIgnoreCase(i + 1, attribute))
+            {
+                int valueStart = i + 1 + attribute.length();
+                int valueEnd;
+
+                if (anyQuote)
+                {
+                    while (valueStart < length && isWhitespace(chars[valueStart]))
+                    {
+                        valueStart++;
+                    }
+                    if (valueStart >= length || (chars[valueStart] != '"' && chars[valueStart] != '\''))
+                    {
+                        continue;
+                    }
+
+                    valueEnd = valueStart + 1;
+                    while (valueEnd < length && chars[valueEnd] != '"' && chars[valueEnd] != '\'')
+                    {
+                        valueEnd++;
+                    }
+                }
+                else
+                {
+                    if (valueStart >= length || chars[valueStart] != '"')
+                    {
+                        continue;
+                    }
+
+                    valueEnd = indexOf('"', valueStart + 1);
+                }
+
+                if (valueEnd < 0 || valueEnd >= length || valueEnd == valueStart + 1)
+                {
+                    // no closing quote or empty value
+                    continue;
+                }
+
+                groupStart = valueStart + 1;
+                groupEnd = valueEnd;
+                matchEnd = valueEnd + 1;
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Matches <code>&lt;i?frame\s([^&lt;&gt;]+?)&gt;</code> at the given position.
+     */
+    private boolean matchFrame(final int start)
+    {
+        final int nameStart = toLowerCase(chars[start + 1]) == 'i' ? start + 2 : start + 1;
+
+        return regionMatchesIgnoreCase(nameStart, "frame") && matchAttributes(nameStart + 5);
+    }
+
+    /**
+     * Matches <code>&lt;tag\b\s([^&lt;&gt;]+?)&gt;</code> at the given position.
+     */
+    private boolean matchTagAttributes(final int start, final String tag)
+    {
+        return regionMatchesIgnoreCase(start + 1, tag) && matchAttributes(start + 1 + tag.length());
+    }
+
+    /**
+     * Matches <code>\s([^&lt;&gt;]+?)&gt;</code> at the given position.
+     */
+    private boolean matchAttributes(final int from)
+    {
+        if (from + 1 >= length || !isWhitespace(chars[from]))
+        {
+            return false;
+        }
+
+        int end = from + 1;
+        while (end < length && chars[end] != '<' && chars[end] != '>')
+        {
+            end++;
+        }
+
+        if (end >= length || chars[end] != '>' || end == from + 1)
+        {
+            return false;
+        }
+
+        groupStart = from + 1;
+        groupEnd = end;
+        matchEnd = end + 1;
+
+        return true;
+    }
+
+    /**
+     * Matches <code>&lt;style\b[^&gt;]*?&gt;((?!&lt;/style).*?)&lt;/style&gt;</code> at the given position.
+     */
+    private boolean matchStyleContent(final int start)
+    {
+        final int nameEnd = start + 6;
+        if (!regionMatchesIgnoreCase(start + 1, "style") || !isBoundary(nameEnd))
+        {
+            return false;
+        }
+
+        final int tagEnd = indexOf('>', nameEnd);
+        if (tagEnd < 0 || regionMatchesIgnoreCase(tagEnd + 1, "</style"))
+        {
+            return false;
+        }
+
+        for (int i = indexOf('<', tagEnd + 1); i >= 0; i = indexOf('<', i + 1))
+        {
+            if (regionMatchesIgnoreCase(i, "</style>"))
+            {
+                groupStart = tagEnd + 1;
+                groupEnd = i;
+                matchEnd = i + 8;
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the value of the first "src" attribute found in the given range of a script tag, or <code>null</code>.
+     * The value is returned as is, i.e. it is not trimmed.
+     */
+    private String getScriptSource(final int from, final int to)
+    {
+        for (int i = indexOf("src", from); i >= 0 && i + 3 <= to; i = indexOf("src", i + 1))
+        {
+            int p = i + 3;
+            while (p < to && isWhitespace(chars[p]))
+            {
+                p++;
+            }
+            if (p >= to || chars[p] != '=')
+            {
+                continue;
+            }
+
+            p++;
+            while (p < to && isWhitespace(chars[p]))
+            {
+                p++;
+            }
+            if (p >= to || (chars[p] != '"' && chars[p] != '\''))
+            {
+                continue;
+            }
+
+            int end = p + 1;
+            while (end < to && chars[end] != '"' && chars[end] != '\'')
+            {
+                end++;
+            }
+            if (end >= to || end == p + 1)
+            {
+                continue;
+            }
+
+            return new String(chars, p + 1, end - p - 1);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the position of the line terminator that ends the page, if any, or the page length otherwise.
+     */
+    private int getFinalLineTerminatorIndex()
+    {
+        if (length >= 2 && chars[length - 2] == '\r' && chars[length - 1] == '\n')
+        {
+            return length - 2;
+        }
+
+        if (length >= 1)
+        {
+            final char c = chars[length - 1];
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029')
+            {
+                return length - 1;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Checks whether there is a word boundary (in the sense of regular expressions) between the given position and the
+     * preceding character, which is known to be a letter.
+     */
+    private boolean isBoundary(final int index)
+    {
+        if (index >= length)
+        {
+            return true;
+        }
+
+        final int codePoint = Character.codePointAt(chars, index, length);
+
+        return codePoint != '_' && !Character.isLetterOrDigit(codePoint) && Character.getType(codePoint) != Character.NON_SPACING_MARK;
+    }
+
+    /**
+     * Checks whether the page contains the given lower-case string at the given position, ignoring the case of ASCII
+     * characters.
+     */
+    private boolean regionMatchesIgnoreCase(final int from, final String s)
+    {
+        final int n = s.length();
+        if (from + n > length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < n; i++)
+        {
+            if (toLowerCase(chars[from + i]) != s.charAt(i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether the page contains the given string at the given position.
+     */
+    private boolean regionMatches(final int from, final String s)
+    {
+        final int n = s.length();
+        if (from + n > length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < n; i++)
+        {
+            if (chars[from + i] != s.charAt(i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the position of the given character at or after the given position, or -1 if not found.
+     */
+    private int indexOf(final char c, final int from)
+    {
+        for (int i = from; i < length; i++)
+        {
+            if (chars[i] == c)
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the position of the given string at or after the given position, or -1 if not found.
+     */
+    private int indexOf(final String s, final int from)
+    {
+        final char first = s.charAt(0);
+        final int last = length - s.length();
+
+        for (int i = from; i <= last; i++)
+        {
+            if (chars[i] == first && regionMatches(i, s))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static char toLowerCase(final char c)
+    {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static boolean isAsciiLetter(final char c)
+    {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * Checks for white space the way regular expressions do by default (<code>\s</code>).
+     */
+    private static boolean isWhitespace(final char c)
+    {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Removes ranges of characters from the buffer in place. Ranges must be passed in ascending order. As the
+     * characters are moved towards the start of the buffer only, everything after the current range remains unchanged
+     * until {@link #finish()} is called.
+     */
+    private final class Compactor
+    {
+        /**
+         * The position in the buffer to write the next kept character to.
+         */
+        private int writeIndex;
+
+        /**
+         * The position in the buffer of the next character not yet processed.
+         */
+        private int readIndex;
+
+        /**
+         * Removes the given range of characters.
+         */
+        private void remove(final int start, final int end)
+        {
+            final int kept = start - readIndex;
+            if (writeIndex != readIndex)
+            {
+                System.arraycopy(chars, readIndex, chars, writeIndex, kept);
+            }
+
+            writeIndex += kept;
+            readIndex = end;
+        }
+
+        /**
+         * Keeps the remaining characters and updates the buffer length.
+         */
+        private void finish()
+        {
+            remove(length, length);
+            length = writeIndex;
+        }
+    }
+}
@@ -15,6 +15,9 @@
  */
 package com.xceptance.xlt.mastercontroller;
 
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -29,12 +32,15 @@ import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.xceptance.common.util.concurrent.DaemonThreadFactory;
 import com.xceptance.xlt.agentcontroller.AgentController;
+import com.xceptance.xlt.agentcontroller.AgentControllerProxy;
 import com.xceptance.xlt.agentcontroller.AgentControllerStatus;
+import com.xceptance.xlt.agentcontroller.AgentControllerStatusStream;
 import com.xceptance.xlt.agentcontroller.AgentStatus;
 import com.xceptance.xlt.util.StatusUtils;
 
@@ -46,6 +52,12 @@ import com.xceptance.xlt.util.StatusUtils;
  * settings, the default thread pool is dynamic, though. To preserve this behavior, we combine a scheduled executor
  * service with a regular executor service. The former is only responsible for the timing and simply delegates the hard
  * work to the latter. Hence a single-thread scheduled executor should suffice.
+ * <p>
+ * If push mode is enabled, the agent controllers are not queried periodically. Instead, a persistent connection is
+ * opened to each agent controller, over which the agent controller pushes its status whenever it has changed. Each
+ * connection is served by a dedicated thread that merely waits for the next status to arrive, so slow agent controllers
+ * do not delay the status updates of the others. If an agent controller does not support pushing its status or the
+ * connection breaks, status updates fall back to polling for this agent controller.
  */
 public class AgentControllerStatusUpdater
 {
@@ -76,6 +88,21 @@ public class AgentControllerStatusUpdater
      */
     private final Map<AgentController, Future<?>> tasks;
 
+    /**
+     * Whether the agent controllers push their status instead of being polled.
+     */
+    private final boolean pushEnabled;
+
+    /**
+     * The executor service that runs the threads receiving the status pushed by the agent controllers.
+     */
+    private ExecutorService streamExecutor;
+
+    /**
+     * The open status streams by agent controller. Used to close the streams when status update was stopped.
+     */
+    private final Map<AgentController, InputStream> streams;
+
     /**
      * Creates a new {@link AgentControllerStatusUpdater} and initializes it with the given executor service. The
      * settings of the executor service determine the degree of parallelism when querying the status from the agent
@@ -85,12 +112,30 @@ public class AgentControllerStatusUpdater
      *            the executor service
      */
     public AgentControllerStatusUpdater(final ExecutorService executor)
+    {
+        this(executor, false);
+    }
+
+    /**
+     * Creates a new {@link AgentControllerStatusUpdater} and initializes it with the given executor service. The
+     * settings of the executor service determine the degree of parallelism when querying the status from the agent
+     * controllers.
+     *
+     * @param executor
+     *            the executor service
+     * @param pushEnabled
+     *            whether the agent controllers should push their status instead of being polled
+     * @since 8.1.0
+     */
+    public AgentControllerStatusUpdater(final ExecutorService executor, final boolean pushEnabled)
     {
         this.executor = executor;
+        this.pushEnabled = pushEnabled;
 
         statusMap = new ConcurrentHashMap<>();
         unmodifiableStatusMap = Collections.unmodifiableMap(statusMap);
         tasks = new ConcurrentHashMap<>();
+        streams = new ConcurrentHashMap<>();
     }
 
     /**
@@ -127,6 +172,19 @@ public class AgentControllerStatusUpdater
         // create a new scheduled executor that schedules the update tasks
         scheduledExecutor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("AC-status-pool-"));
 
+        if (pushEnabled)
+        {
+            // one receiving thread per agent controller
+            streamExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory("AC-status-stream-"));
+
+            for (final AgentController agentController : agentControllers)
+            {
+                streamExecutor.execute(() -> receiveAgentControllerStatus(agentController, delay));
+            }
+
+            return;
+        }
+
         // determine which agent controllers support the new status endpoint
         final Map<AgentController, Boolean> supported = checkNewStatusEndpointSupported(agentControllers);
 
@@ -153,11 +211,128 @@ public class AgentControllerStatusUpdater
             scheduledExecutor = null;
         }
 
+        // kill the receiving threads by closing their streams
+        if (streamExecutor != null)
+        {
+            streamExecutor.shutdownNow();
+            streamExecutor = null;
+        }
+
+        for (final AgentController agentController : streams.keySet())
+        {
+            IOUtils.closeQuietly(streams.remove(agentController));
+        }
+
         // cancel any already running/queued update task
         tasks.values().forEach(task -> task.cancel(true));
         tasks.clear();
     }
 
+    /**
+     * Receives the status pushed by an agent controller and stores it internally, until the agent controller reports
+     * that there are no running agents anymore. Falls back to polling if the agent controller does not support
+     * pushing its status or the connection breaks.
+     *
+     * @param agentController
+     *            the agent controller
+     * @param delay
+     *            the time [ms] between two status updates
+     */
+    private void receiveAgentControllerStatus(final AgentController agentController, final long delay)
+    {
+        InputStream in = null;
+
+        try
+        {
+            LOG.debug("Opening status stream to " + agentController);
+            in = openStatusStream(agentController, delay);
+            if (in == null)
+            {
+                LOG.debug("{} does not support status streaming, polling it instead", agentController);
+                startPolling(agentController, delay);
+                return;
+            }
+
+            streams.put(agentController, in);
+
+            final DataInputStream dataIn = AgentControllerStatusStream.open(in);
+
+            AgentControllerStatus agentControllerStatus;
+            while ((agentControllerStatus = AgentControllerStatusStream.read(dataIn)) != null)
+            {
+                statusMap.put(agentController.getName(), new AgentControllerStatusInfo(agentControllerStatus));
+            }
+        }
+        catch (final Exception e)
+        {
+            // check whether the stream was closed because the status update was stopped
+            if (in != null && streams.get(agentController) != in || Thread.currentThread().isInterrupted())
+            {
+                return;
+            }
+
+            LOG.error("Failed receiving status from " + agentController + ", polling it instead", e);
+
+            // keep any previous state if available but set the exception
+            statusMap.computeIfAbsent(agentController.getName(), acName -> new AgentControllerStatusInfo()).setException(e);
+
+            startPolling(agentController, delay);
+        }
+        finally
+        {
+            if (in != null)
+            {
+                streams.remove(agentController, in);
+                IOUtils.closeQuietly(in);
+            }
+        }
+    }
+
+    /**
+     * Opens the stream over which the given agent controller pushes its status.
+     *
+     * @param agentController
+     *            the agent controller
+     * @param interval
+     *            the time [ms] between two status samples at the agent controller
+     * @return the status stream, or <code>null</code> if the agent controller does not support status streaming
+     * @throws IOException
+     *             if the stream could not be opened
+     * @since 8.1.0
+     */
+    protected InputStream openStatusStream(final AgentController agentController, final long interval) throws IOException
+    {
+        if (agentController instanceof AgentControllerProxy)
+        {
+            return ((AgentControllerProxy) agentController).openStatusStream(interval);
+        }
+
+        return null;
+    }
+
+    /**
+     * Starts polling the status of the given agent controller.
+     *
+     * @param agentController
+     *            the agent controller
+     * @param delay
+     *            the pause [ms] between status updates
+     */
+    private void startPolling(final AgentController agentController, final long delay)
+    {
+        final boolean supportsNewStatusEndpoint = isNewEndpointSupported(agentController);
+
+        synchronized (this)
+        {
+            if (scheduledExecutor != null && !scheduledExecutor.isShutdown())
+            {
+                final Future<?> task = executor.submit(() -> retrieveAgentControllerStatus(agentController, supportsNewStatusEndpoint,
+                                                                                         delay));
+                tasks.put(agentController, task);
+            }
+        }
+    }
+
     /**
      * Determines for all agent controllers whether or not an agent controller already supports the new status endpoint
      * {@link AgentController#getStatus()}.
@@ -20,6 +20,7 @@ import java.io.FileFilter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -29,7 +30,10 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.zip.ZipOutputStream;
 
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,13 +41,41 @@ import com.xceptance.common.io.FileListFileFilter;
 import com.xceptance.common.util.zip.ZipUtils;
 import com.xceptance.xlt.agentcontroller.AgentController;
 import com.xceptance.xlt.util.AgentControllerException;
+import com.xceptance.xlt.util.ContentDefinedChunker.Chunk;
 import com.xceptance.xlt.util.FailedAgentControllerCollection;
+import com.xceptance.xlt.util.FileDeltaUtils;
 import com.xceptance.xlt.util.FileReplicationIndex;
 import com.xceptance.xlt.util.FileReplicationUtils;
 import com.xceptance.xlt.util.ProgressBar;
 
 public class AgentControllerUpdate
 {
+    /**
+     * A file to be updated chunk by chunk.
+     */
+    private static class FileDelta
+    {
+        /** The file, relative to the agent files directory. */
+        private final File file;
+
+        /** The check sum of the local file. */
+        private final long checkSum;
+
+        /** The chunks of the local file. */
+        private final List<Chunk> chunks;
+
+        /** The chunk hashes of the file present at the agent controllers. */
+        private final Set<String> remoteChunkHashes;
+
+        private FileDelta(final File file, final long checkSum, final List<Chunk> chunks, final Set<String> remoteChunkHashes)
+        {
+            this.file = file;
+            this.checkSum = checkSum;
+            this.chunks = chunks;
+            this.remoteChunkHashes = remoteChunkHashes;
+        }
+    }
+
     /**
      * The log facility of this class.
      */
@@ -78,9 +110,36 @@ public class AgentControllerUpdate
 
     private Map<FileReplicationIndex, Set<AgentController>> remoteFileIndexes;
 
+    /**
+     * The chunks known so far, or <code>null</code> if files are always uploaded as a whole.
+     */
+    private final ChunkSignatureCache chunkSignatureCache;
+
+    /**
+     * The minimum size of a changed file to be uploaded chunk by chunk.
+     */
+    private final long deltaMinFileSize;
+
     public AgentControllerUpdate(final Collection<AgentController> agentControllers, final ThreadPoolExecutor uploadExecutor,
                                  final ThreadPoolExecutor downloadExecutor, final File tempDirectory)
     {
+        this(agentControllers, uploadExecutor, downloadExecutor, tempDirectory, null, 0);
+    }
+
+    /**
+     * Creates a new update that uploads only the changed chunks of larger files.
+     *
+     * @param chunkSignatureCache
+     *            the chunks known so far, or <code>null</code> if files are always to be uploaded as a whole
+     * @param deltaMinFileSize
+     *            the minimum size of a changed file to be uploaded chunk by chunk
+     */
+    public AgentControllerUpdate(final Collection<AgentController> agentControllers, final ThreadPoolExecutor uploadExecutor,
+                                 final ThreadPoolExecutor downloadExecutor, final File tempDirectory,
+                                 final ChunkSignatureCache chunkSignatureCache, final long deltaMinFileSize)
+    {
+        this.chunkSignatureCache = chunkSignatureCache;
+        this.deltaMinFileSize = deltaMinFileSize;
         this.agentControllers = agentControllers;
         this.uploadExecutor = uploadExecutor;
         this.downloadExecutor = downloadExecutor;
@@ -339,13 +398,103 @@ public class AgentControllerUpdate
             final List<File> filesToBeUpdated = new ArrayList<File>();
             FileReplicationUtils.compareIndexes(localIndex, indexAgents.getKey(), filesToBeUpdated, filesToBeDeleted);
 
+            // find the changed files that can be updated chunk by chunk
+            final List<FileDelta> fileDeltas = chunkSignatureCache == null ? Collections.emptyList()
+                                                                           : prepareDeltas(workDir, localIndex, indexAgents.getKey(),
+                                                                                           filesToBeUpdated, indexAgents.getValue());
+
             logFileUpdate(filesToBeUpdated, filesToBeDeleted, indexAgents.getValue());
 
             // zip differences and upload
-            zipAndUpload(workDir, filesToBeUpdated, filesToBeDeleted, indexAgents.getValue(), progress);
+            zipAndUpload(workDir, filesToBeUpdated, fileDeltas, filesToBeDeleted, indexAgents.getValue(), progress);
         }
     }
 
+    /**
+     * Determines which of the files to be updated can be updated chunk by chunk. These files are removed from the list
+     * of files to be updated.
+     * 
+     * @param workDir
+     *            local working directory
+     * @param localIndex
+     *            local file index
+     * @param remoteIndex
+     *            the file index of the agent controllers
+     * @param filesToBeUpdated
+     *            the files to be updated (will be modified)
+     * @param agentControllersForUpload
+     *            the agent controllers sharing the remote file index
+     * @return the files to be updated chunk by chunk
+     * @throws IOException
+     *             if a local file cannot be read
+     */
+    private List<FileDelta> prepareDeltas(final File workDir, final FileReplicationIndex localIndex, final FileReplicationIndex remoteIndex,
+                                          final List<File> filesToBeUpdated, final Set<AgentController> agentControllersForUpload)
+        throws IOException
+    {
+        final FileReplicationIndex _localIndex = FileReplicationUtils.sanitizeFileReplicationIndex(localIndex);
+        final FileReplicationIndex _remoteIndex = FileReplicationUtils.sanitizeFileReplicationIndex(remoteIndex);
+
+        // only larger files that exist at the agent controllers already are candidates
+        final List<File> candidates = new ArrayList<File>();
+        final List<File> unknownFiles = new ArrayList<File>();
+        for (final File file : filesToBeUpdated)
+        {
+            final Long localCheckSum = _localIndex.get(file);
+            final Long remoteCheckSum = _remoteIndex.get(file);
+
+            if (localCheckSum != null && localCheckSum != -1 && remoteCheckSum != null && remoteCheckSum != -1 &&
+                new File(workDir, file.getPath()).length() >= deltaMinFileSize)
+            {
+                candidates.add(file);
+
+                if (chunkSignatureCache.getRemoteChunkHashes(file, remoteCheckSum) == null)
+                {
+                    unknownFiles.add(file);
+                }
+            }
+        }
+
+        if (!unknownFiles.isEmpty())
+        {
+            // all agent controllers in the set have the same files, so it is sufficient to ask one of them
+            final AgentController agentController = agentControllersForUpload.iterator().next();
+            try
+            {
+                LOG.debug("Get file chunks from " + agentController);
+                final Map<File, List<String>> remoteChunkHashes = agentController.getAgentFileChunks(unknownFiles);
+                if (remoteChunkHashes != null)
+                {
+                    for (final Map.Entry<File, List<String>> entry : remoteChunkHashes.entrySet())
+                    {
+                        chunkSignatureCache.putRemoteChunkHashes(entry.getKey(), _remoteIndex.get(entry.getKey()), entry.getValue());
+                    }
+                }
+            }
+            catch (final Exception ex)
+            {
+                // maybe an older agent controller -> upload these files as a whole
+                LOG.warn("Failed to get file chunks from " + agentController + ". Uploading complete files instead.", ex);
+            }
+        }
+
+        final List<FileDelta> fileDeltas = new ArrayList<FileDelta>();
+        for (final File file : candidates)
+        {
+            final List<String> remoteChunkHashes = chunkSignatureCache.getRemoteChunkHashes(file, _remoteIndex.get(file));
+            if (remoteChunkHashes != null)
+            {
+                final long checkSum = _localIndex.get(file);
+                final List<Chunk> chunks = chunkSignatureCache.getLocalChunks(workDir, file, checkSum);
+
+                fileDeltas.add(new FileDelta(file, checkSum, chunks, new HashSet<String>(remoteChunkHashes)));
+                filesToBeUpdated.remove(file);
+            }
+        }
+
+        return fileDeltas;
+    }
+
     /**
      * Archives the files for upload and trigger update for the agent controllers.
      * 
@@ -353,6 +502,8 @@ public class AgentControllerUpdate
      *            working directory
      * @param filesToBeUpdated
      *            files to be uploaded to agent controller
+     * @param fileDeltas
+     *            files to be uploaded to agent controller chunk by chunk
      * @param filesToBeDeleted
      *            files to be deleted on agent controller
      * @param indexAgents
@@ -371,13 +522,14 @@ public class AgentControllerUpdate
     /*
      * Progress count: 2 * agentControllers.size()
      */
-    private void zipAndUpload(final File workDir, final List<File> filesToBeUpdated, final List<File> filesToBeDeleted,
-                              final Set<AgentController> agentControllersForUpload, final ProgressBar progress)
+    private void zipAndUpload(final File workDir, final List<File> filesToBeUpdated, final List<FileDelta> fileDeltas,
+                              final List<File> filesToBeDeleted, final Set<AgentController> agentControllersForUpload,
+                              final ProgressBar progress)
         throws AgentControllerException, IOException
     {
         // zip the files to be updated and update the agent
         LOG.info("Zip update files");
-        final File archiveFile = archiveAgentFiles(filesToBeUpdated, workDir);
+        final File archiveFile = archiveAgentFiles(filesToBeUpdated, fileDeltas, workDir);
 
         LOG.info("Upload file update");
         final CountDownLatch latch = new CountDownLatch(agentControllersForUpload.size());
@@ -428,6 +580,12 @@ public class AgentControllerUpdate
 
         LOG.debug("Clean up file update");
         org.apache.commons.io.FileUtils.deleteQuietly(archiveFile);
+
+        // the agent controllers have the new file versions now
+        for (final FileDelta fileDelta : fileDeltas)
+        {
+            chunkSignatureCache.putUploadedChunks(fileDelta.file, fileDelta.checkSum, fileDelta.chunks);
+        }
     }
 
     /**
@@ -572,13 +730,16 @@ public class AgentControllerUpdate
      * 
      * @param filesToArchive
      *            the list of files to be zip'ed
+     * @param fileDeltas
+     *            the files to be zip'ed chunk by chunk
      * @param rootDir
      *            the directory with the agent files
      * @return the archive file
      * @throws java.io.IOException
      *             if an I/O error occurs
      */
-    private File archiveAgentFiles(final List<File> filesToArchive, final File rootDir) throws IOException
+    private File archiveAgentFiles(final List<File> filesToArchive, final List<FileDelta> fileDeltas, final File rootDir)
+        throws IOException
     {
         // make file paths absolute based on the agent files directory
         final File[] files = new File[filesToArchive.size()];
@@ -594,7 +755,32 @@ public class AgentControllerUpdate
         LOG.debug("Zipping agent files from '" + rootDir + "' to '" + zipFile + "' ...");
 
         final FileFilter fileListFileFilter = new FileListFileFilter(files);
-        ZipUtils.zipDirectory(rootDir, fileListFileFilter, zipFile);
+        if (fileDeltas.isEmpty())
+        {
+            ZipUtils.zipDirectory(rootDir, fileListFileFilter, zipFile);
+        }
+        else
+        {
+            try (final ZipOutputStream out = ZipUtils.zipDirectory(rootDir, fileListFileFilter, zipFile, false))
+            {
+                final Set<String> addedChunks = new HashSet<String>();
+                long totalBytes = 0;
+                long bytesAdded = 0;
+
+                for (final FileDelta fileDelta : fileDeltas)
+                {
+                    final File file = new File(rootDir, fileDelta.file.getPath());
+                    final String relFileName = StringUtils.removeStart(FilenameUtils.separatorsToUnix(fileDelta.file.getPath()), "./");
+
+                    bytesAdded += FileDeltaUtils.addDelta(out, file, relFileName, fileDelta.checkSum, fileDelta.chunks,
+                                                          fileDelta.remoteChunkHashes, addedChunks);
+                    totalBytes += file.length();
+                }
+
+                LOG.info(String.format("Updating %d file(s) chunk by chunk: %,d of %,d bytes changed", fileDeltas.size(), bytesAdded,
+                                       totalBytes));
+            }
+        }
 
         return zipFile;
     }
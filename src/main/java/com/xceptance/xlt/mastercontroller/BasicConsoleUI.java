@@ -224,6 +224,27 @@ public abstract class BasicConsoleUI implements MasterControllerUI
         return result;
     }
 
+    /**
+     * Triggers the master controller to generate a test report from the timer data fetched so far while the load test
+     * is running.
+     *
+     * @return <code>true</code> if the operation was successful; <code>false</code> otherwise
+     */
+    public boolean generateLiveReport()
+    {
+        System.out.println("Generating load test report based on live results...");
+        final boolean result = masterController.generateLiveReport();
+
+        if (!result)
+        {
+            System.out.println(" -> Failed");
+        }
+
+        System.out.println();
+
+        return result;
+    }
+
     /**
      * {@inheritDoc}
      */
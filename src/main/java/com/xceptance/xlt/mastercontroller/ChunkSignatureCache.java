@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.mastercontroller;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.xceptance.xlt.util.ContentDefinedChunker;
+import com.xceptance.xlt.util.ContentDefinedChunker.Chunk;
+
+/**
+ * Remembers the chunks of the agent files known to the master controller, so that they need to be computed or fetched
+ * only once during the lifetime of the master controller. This comprises:
+ * <ul>
+ * <li>the chunks of the local agent files, which are the same for all agent controllers, and</li>
+ * <li>the chunk hashes of the file versions present at the agent controllers, identified by the file's path and check
+ * sum as reported in the agent controllers' file indexes. Once a file version has been uploaded, its chunks are known
+ * as well, so the next update does not have to ask the agent controllers for them.</li>
+ * </ul>
+ *
+ * @since 8.1.0
+ */
+class ChunkSignatureCache
+{
+    /**
+     * The chunks of the local agent files.
+     */
+    private final Map<String, List<Chunk>> localChunks = new ConcurrentHashMap<>();
+
+    /**
+     * The chunk hashes of the file versions present at the agent controllers.
+     */
+    private final Map<String, List<String>> remoteChunkHashes = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the chunks of the given local file, computing them if not done yet.
+     *
+     * @param workDir
+     *            the directory with the agent files
+     * @param file
+     *            the file, relative to the working directory
+     * @param checkSum
+     *            the file's check sum
+     * @return the chunks
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    List<Chunk> getLocalChunks(final File workDir, final File file, final long checkSum) throws IOException
+    {
+        final File absoluteFile = new File(workDir, file.getPath());
+        final String key = getKey(file, checkSum) + ":" + absoluteFile.length();
+
+        List<Chunk> chunks = localChunks.get(key);
+        if (chunks == null)
+        {
+            chunks = ContentDefinedChunker.chunk(absoluteFile);
+            localChunks.put(key, chunks);
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Returns the chunk hashes of the given file version.
+     *
+     * @param file
+     *            the file, relative to the agent files directory
+     * @param checkSum
+     *            the file's check sum
+     * @return the chunk hashes, or <code>null</code> if not known
+     */
+    List<String> getRemoteChunkHashes(final File file, final long checkSum)
+    {
+        return remoteChunkHashes.get(getKey(file, checkSum));
+    }
+
+    /**
+     * Remembers the chunk hashes of the given file version.
+     *
+     * @param file
+     *            the file, relative to the agent files directory
+     * @param checkSum
+     *            the file's check sum
+     * @param hashes
+     *            the chunk hashes
+     */
+    void putRemoteChunkHashes(final File file, final long checkSum, final List<String> hashes)
+    {
+        remoteChunkHashes.put(getKey(file, checkSum), hashes);
+    }
+
+    /**
+     * Remembers the chunks of the given file version, which has just been uploaded.
+     *
+     * @param file
+     *            the file, relative to the agent files directory
+     * @param checkSum
+     *            the file's check sum
+     * @param chunks
+     *            the chunks
+     */
+    void putUploadedChunks(final File file, final long checkSum, final List<Chunk> chunks)
+    {
+        putRemoteChunkHashes(file, checkSum, chunks.stream().map(c -> c.hash).collect(Collectors.toList()));
+    }
+
+    /**
+     * Returns the key for the given file version.
+     */
+    private static String getKey(final File file, final long checkSum)
+    {
+        return file.getPath().replace('\\', '/') + ":" + checkSum;
+    }
+}
@@ -18,6 +18,7 @@ package com.xceptance.xlt.mastercontroller;
 import java.text.DateFormat;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -84,6 +85,16 @@ public class InteractiveUI extends BasicConsoleUI
      */
     private final boolean generateReport;
 
+    /**
+     * The names of the operations offered to the user.
+     */
+    private final List<String> operationNames;
+
+    /**
+     * The keys of the operations offered to the user.
+     */
+    private final List<String> operationKeys;
+
     /**
      * Creates a new {@link InteractiveUI} object.
      *
@@ -97,6 +108,17 @@ public class InteractiveUI extends BasicConsoleUI
         super(masterController);
 
         this.generateReport = generateReport;
+
+        operationNames = new ArrayList<>(OPERATION_NAMES);
+        operationKeys = new ArrayList<>(OPERATION_KEYS);
+
+        // offer live reports right after the regular report if enabled
+        if (masterController.isLiveReportEnabled())
+        {
+            final int index = OPERATION_KEYS.indexOf("c") + 1;
+            operationNames.add(index, "Create live test report");
+            operationKeys.add(index, "l");
+        }
     }
 
     /**
@@ -109,8 +131,8 @@ public class InteractiveUI extends BasicConsoleUI
         {
             final String option = ConsoleUiUtils.selectItem("\n" + "-----------------------------------------------\n" +
                                                             " What do you want to do?\n" +
-                                                            "-----------------------------------------------", OPERATION_KEYS,
-                                                            OPERATION_NAMES, OPERATION_KEYS);
+                                                            "-----------------------------------------------", operationKeys,
+                                                            operationNames, operationKeys);
 
             System.out.println();
 
@@ -159,6 +181,10 @@ public class InteractiveUI extends BasicConsoleUI
             {
                 generateReport();
             }
+            else if (option.equals("l"))
+            {
+                generateLiveReport();
+            }
             else if (option.equals("p"))
             {
                 pingAgentControllers();
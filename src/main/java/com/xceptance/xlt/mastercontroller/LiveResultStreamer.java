@@ -0,0 +1,511 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.mastercontroller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xceptance.common.util.concurrent.DaemonThreadFactory;
+import com.xceptance.common.util.zip.ZipUtils;
+import com.xceptance.xlt.agent.AgentInfo;
+import com.xceptance.xlt.agentcontroller.AgentController;
+import com.xceptance.xlt.agentcontroller.FileManager;
+import com.xceptance.xlt.common.XltConstants;
+
+/**
+ * Mirrors the timer files of a running load test into a local results directory. Each update asks the agent
+ * controllers for the current size of their timer files and fetches only the bytes that were appended since the last
+ * update, using partial GET requests. Incomplete trailing lines are not kept, so the local files always end with a
+ * complete record.
+ * <p>
+ * Since the local files change with every update, a report is not created from them directly. Instead, the data is
+ * copied to a separate directory first (see {@link #copyTo(File)}), which again transfers the new bytes only. Together
+ * with the statistics snapshot of the report generator, which remembers how far each timer file was read already, a
+ * report for the test run so far can be created at any time by processing just the new records.
+ *
+ * @since 8.1.0
+ */
+public class LiveResultStreamer
+{
+    private static final Logger LOG = LoggerFactory.getLogger(LiveResultStreamer.class);
+
+    /**
+     * The number of bytes to inspect at once when looking for the last line break.
+     */
+    private static final int TRIM_BUFFER_SIZE = 8192;
+
+    /**
+     * The executor service that fetches the data from the agent controllers.
+     */
+    private final ThreadPoolExecutor downloadExecutor;
+
+    /**
+     * The local results directory.
+     */
+    private final File testResultsDir;
+
+    /**
+     * The directory for temporary files.
+     */
+    private final File tempDirectory;
+
+    /**
+     * The agent controllers to fetch the data from.
+     */
+    private final List<AgentController> agentControllers;
+
+    /**
+     * The total number of bytes fetched so far.
+     */
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    /**
+     * The local files that were started over since the last copy, because the remote file was replaced.
+     */
+    private final Set<File> replacedFiles = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether the test configuration is available in the results directory.
+     */
+    private boolean testConfigDownloaded;
+
+    /**
+     * The executor service that schedules the updates.
+     */
+    private ScheduledExecutorService scheduledExecutor;
+
+    /**
+     * Creates a new {@link LiveResultStreamer} object.
+     *
+     * @param downloadExecutor
+     *            the executor service to use for fetching data
+     * @param testResultsDir
+     *            the local results directory
+     * @param tempDirectory
+     *            the directory for temporary files
+     * @param agentControllers
+     *            the agent controllers to fetch the data from
+     */
+    public LiveResultStreamer(final ThreadPoolExecutor downloadExecutor, final File testResultsDir, final File tempDirectory,
+                              final Collection<AgentController> agentControllers)
+    {
+        this.downloadExecutor = downloadExecutor;
+        this.testResultsDir = testResultsDir;
+        this.tempDirectory = tempDirectory;
+        this.agentControllers = new ArrayList<>(agentControllers);
+    }
+
+    /**
+     * Returns the local results directory.
+     *
+     * @return the results directory
+     */
+    public File getTestResultsDir()
+    {
+        return testResultsDir;
+    }
+
+    /**
+     * Returns the total number of bytes fetched so far.
+     *
+     * @return the number of bytes
+     */
+    public long getTotalBytes()
+    {
+        return totalBytes.get();
+    }
+
+    /**
+     * Starts the periodic update.
+     *
+     * @param delay
+     *            the pause [ms] between updates
+     */
+    public synchronized void start(final long delay)
+    {
+        // ensure to start fresh
+        stop();
+
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("AC-live-results-"));
+        scheduledExecutor.scheduleWithFixedDelay(this::update, 0, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic update. An update in progress is completed.
+     */
+    public void stop()
+    {
+        final ScheduledExecutorService executor;
+        synchronized (this)
+        {
+            executor = scheduledExecutor;
+            scheduledExecutor = null;
+        }
+
+        if (executor != null)
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Fetches the test configuration if not done yet and all timer data appended since the last update from all agent
+     * controllers. Agent controllers that fail are skipped this time.
+     * <p>
+     * While this method runs, the timer files in the local results directory are modified. To read these files, copy
+     * them with {@link #copyTo(File)} first.
+     *
+     * @return the number of bytes fetched
+     */
+    public synchronized long update()
+    {
+        if (!testConfigDownloaded)
+        {
+            testConfigDownloaded = downloadTestConfig();
+        }
+
+        final AtomicLong bytes = new AtomicLong();
+        final CountDownLatch latch = new CountDownLatch(agentControllers.size());
+
+        for (final AgentController agentController : agentControllers)
+        {
+            downloadExecutor.execute(() -> {
+                try
+                {
+                    bytes.addAndGet(updateTimerFiles(agentController));
+                }
+                catch (final Exception e)
+                {
+                    LOG.warn(agentController + ": Failed to fetch new timer data", e);
+                }
+                finally
+                {
+                    latch.countDown();
+                }
+            });
+        }
+
+        try
+        {
+            latch.await();
+        }
+        catch (final InterruptedException e)
+        {
+            LOG.error("Waiting for timer data to be fetched has failed", e);
+            Thread.currentThread().interrupt();
+        }
+
+        LOG.debug("Fetched {} bytes of new timer data", bytes.get());
+
+        totalBytes.addAndGet(bytes.get());
+
+        return bytes.get();
+    }
+
+    /**
+     * Copies the data fetched so far to the given directory, which keeps the same layout as the local results
+     * directory. Files that were copied to this directory before are only extended by the bytes fetched since then, so
+     * a series of copies transfers each byte just once. As the copy is not touched by subsequent updates, it can be
+     * read at leisure, for example by the report generator.
+     *
+     * @param targetDir
+     *            the directory to copy the data to
+     * @return the number of bytes copied
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public synchronized long copyTo(final File targetDir) throws IOException
+    {
+        final Path sourceDir = testResultsDir.toPath();
+        if (!Files.isDirectory(sourceDir))
+        {
+            return 0;
+        }
+
+        final List<Path> sourceFiles;
+        try (final Stream<Path> paths = Files.walk(sourceDir))
+        {
+            sourceFiles = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+
+        long bytes = 0;
+
+        for (final Path sourceFile : sourceFiles)
+        {
+            final Path targetFile = targetDir.toPath().resolve(sourceDir.relativize(sourceFile));
+
+            final long sourceSize = Files.size(sourceFile);
+            final long targetSize = Files.exists(targetFile) ? Files.size(targetFile) : 0;
+
+            if (replacedFiles.remove(sourceFile.toFile()) || targetSize > sourceSize)
+            {
+                // start over
+                Files.createDirectories(targetFile.getParent());
+                Files.copy(sourceFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+                bytes += sourceSize;
+            }
+            else if (sourceSize > targetSize)
+            {
+                // append the new bytes only
+                Files.createDirectories(targetFile.getParent());
+                bytes += appendRange(sourceFile, targetFile, targetSize, sourceSize);
+            }
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Appends the bytes in the given range of the source file to the target file.
+     *
+     * @param sourceFile
+     *            the source file
+     * @param targetFile
+     *            the target file
+     * @param start
+     *            the position of the first byte to copy
+     * @param end
+     *            the position after the last byte to copy
+     * @return the number of bytes copied
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    private static long appendRange(final Path sourceFile, final Path targetFile, final long start, final long end) throws IOException
+    {
+        try (final FileChannel source = FileChannel.open(sourceFile, StandardOpenOption.READ);
+             final FileChannel target = FileChannel.open(targetFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                         StandardOpenOption.APPEND))
+        {
+            long position = start;
+            while (position < end)
+            {
+                final long transferred = source.transferTo(position, end - position, target);
+                if (transferred <= 0)
+                {
+                    break;
+                }
+
+                position += transferred;
+            }
+
+            return position - start;
+        }
+    }
+
+    /**
+     * Fetches the new timer data of the agents running at the given agent controller.
+     *
+     * @param agentController
+     *            the agent controller
+     * @return the number of bytes fetched
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    private long updateTimerFiles(final AgentController agentController) throws IOException
+    {
+        final Map<String, Long> timerFiles = agentController.getAgentTimerFiles();
+        final FileManager fileManager = agentController.getResultsFileManager();
+
+        long bytes = 0;
+
+        for (final Map.Entry<String, Long> timerFile : timerFiles.entrySet())
+        {
+            final File localFile = getLocalFile(testResultsDir, timerFile.getKey());
+            if (localFile == null)
+            {
+                LOG.warn(agentController + ": Ignoring unexpected timer file name: " + timerFile.getKey());
+                continue;
+            }
+
+            final long remoteSize = timerFile.getValue();
+            long localSize = localFile.length();
+
+            // the file was replaced in the meantime, so start over
+            if (remoteSize < localSize)
+            {
+                localSize = 0;
+                replacedFiles.add(localFile);
+            }
+
+            if (remoteSize > localSize)
+            {
+                fileManager.downloadFile(localFile, timerFile.getKey(), localSize);
+                bytes += trimIncompleteLine(localFile, localSize) - localSize;
+            }
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Downloads the test configuration from the first agent controller that provides it and unzips it to the results
+     * directory.
+     *
+     * @return whether the test configuration is available now
+     */
+    private boolean downloadTestConfig()
+    {
+        for (final AgentController agentController : agentControllers)
+        {
+            File tempConfigZip = null;
+            try
+            {
+                final String remoteZipFileName = agentController.archiveTestConfig();
+                if (remoteZipFileName != null)
+                {
+                    tempConfigZip = File.createTempFile("testconfig-", ".zip", tempDirectory);
+                    agentController.getFileManager().downloadFile(tempConfigZip, remoteZipFileName);
+
+                    ZipUtils.unzipFile(tempConfigZip, testResultsDir);
+
+                    return true;
+                }
+            }
+            catch (final Exception e)
+            {
+                LOG.warn(agentController + ": Failed to download test configuration", e);
+            }
+            finally
+            {
+                FileUtils.deleteQuietly(tempConfigZip);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Maps the name of a timer file as reported by an agent controller, e.g.
+     * <code>ac001_00/results/TOrder/0/timers.csv</code>, to the location of the file in the results directory, e.g.
+     * <code>ac001_00/TOrder/0/timers.csv</code>, which is the same layout as produced by a regular download.
+     *
+     * @param testResultsDir
+     *            the results directory
+     * @param remoteFileName
+     *            the file name relative to the agents directory of the agent controller
+     * @return the local file, or <code>null</code> if the name is not a valid timer file name
+     */
+    static File getLocalFile(final File testResultsDir, final String remoteFileName)
+    {
+        final String[] parts = StringUtils.split(remoteFileName, '/');
+        if (parts.length < 3 || !AgentInfo.NAME_RESULTS_DIR.equals(parts[1]) || !isTimerFileName(parts[parts.length - 1]))
+        {
+            return null;
+        }
+
+        File file = new File(testResultsDir, parts[0]);
+        for (int i = 2; i < parts.length; i++)
+        {
+            if (parts[i].equals("..") || parts[i].equals("."))
+            {
+                return null;
+            }
+
+            file = new File(file, parts[i]);
+        }
+
+        return file;
+    }
+
+    /**
+     * Checks whether the given file name is the name of a CSV timer file.
+     *
+     * @param fileName
+     *            the file name
+     * @return whether it is a timer file name
+     */
+    private static boolean isTimerFileName(final String fileName)
+    {
+        return XltConstants.TIMER_FILENAME_PATTERNS.stream().anyMatch(p -> p.matcher(fileName).matches()) ||
+               XltConstants.CPT_TIMER_FILENAME_PATTERNS.stream().anyMatch(p -> p.matcher(fileName).matches());
+    }
+
+    /**
+     * Truncates the given file after its last line break, but not below the given size. This removes a line the agent
+     * was writing just when the data was fetched. It will be fetched again completely with the next update.
+     *
+     * @param file
+     *            the file
+     * @param minimumSize
+     *            the size up to which the file is known to consist of complete lines
+     * @return the new size of the file
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    static long trimIncompleteLine(final File file, final long minimumSize) throws IOException
+    {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            final ByteBuffer buffer = ByteBuffer.allocate(TRIM_BUFFER_SIZE);
+
+            long end = channel.size();
+            while (end > minimumSize)
+            {
+                final long start = Math.max(minimumSize, end - TRIM_BUFFER_SIZE);
+
+                buffer.clear().limit((int) (end - start));
+                int bytesRead;
+                do
+                {
+                    bytesRead = channel.read(buffer, start + buffer.position());
+                }
+                while (bytesRead > 0 && buffer.hasRemaining());
+
+                for (int i = buffer.position() - 1; i >= 0; i--)
+                {
+                    if (buffer.get(i) == '\n')
+                    {
+                        final long newSize = start + i + 1;
+                        channel.truncate(newSize);
+
+                        return newSize;
+                    }
+                }
+
+                end = start;
+            }
+
+            channel.truncate(minimumSize);
+
+            return minimumSize;
+        }
+    }
+}
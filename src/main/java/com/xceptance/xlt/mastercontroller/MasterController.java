@@ -28,6 +28,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.TreeMap;
@@ -61,6 +62,7 @@ import com.xceptance.xlt.api.util.XltProperties;
 import com.xceptance.xlt.common.XltConstants;
 import com.xceptance.xlt.engine.util.TimerUtils;
 import com.xceptance.xlt.report.ReportGenerator;
+import com.xceptance.xlt.report.ReportGeneratorConfiguration;
 import com.xceptance.xlt.util.AgentControllerException;
 import com.xceptance.xlt.util.ConcurrencyUtils;
 import com.xceptance.xlt.util.FailedAgentControllerCollection;
@@ -173,12 +175,65 @@ public class MasterController
      */
     private boolean compressedTimerFiles = false;
 
+    /**
+     * The block size to use when compressing timer files, 0 for no blocks
+     */
+    private int compressedTimerFilesBlockSize = 0;
+
+    /**
+     * The size of a file chunk when streaming result archives, or 0 if result archives are downloaded to a temporary
+     * file first
+     */
+    private final long downloadStreamingChunkSize;
+
+    /**
+     * The maximum number of chunks downloaded in parallel when streaming result archives
+     */
+    private final int downloadStreamingParallelChunks;
+
+    /**
+     * The chunks of the agent files known so far, or <code>null</code> if agent files are always uploaded as a whole
+     */
+    private final ChunkSignatureCache chunkSignatureCache;
+
+    /**
+     * The minimum size of a changed agent file to be uploaded chunk by chunk
+     */
+    private final long uploadDeltaMinFileSize;
+
     /**
      * The status update facility that periodically queries the status of all agent controllers while a load test is
      * running.
      */
     private final AgentControllerStatusUpdater agentControllerStatusUpdater;
 
+    /**
+     * Whether the timer data is fetched continuously while a load test is running.
+     */
+    private final boolean liveReportEnabled;
+
+    /**
+     * The pause [s] between fetching new timer data while a load test is running.
+     */
+    private final int liveReportUpdateInterval;
+
+    /**
+     * The facility that fetches the timer data of the current load test while it is running. Changes with every
+     * started test.
+     */
+    private volatile LiveResultStreamer liveResultStreamer;
+
+    /**
+     * The directory live reports are generated from. The live result streamer copies its data to this directory
+     * before each live report.
+     */
+    private volatile File liveResultsDir;
+
+    /**
+     * Serializes the generation of live reports, which share the live results directory.
+     */
+    private final Object liveReportLock = new Object();
+
     /**
      * Creates a new MasterController object.
      *
@@ -219,10 +274,17 @@ public class MasterController
 
         isEmbedded = config.isEmbedded();
         compressedTimerFiles = config.isCompressedTimerFiles();
+        compressedTimerFilesBlockSize = config.getCompressedTimerFilesBlockSize();
+        downloadStreamingChunkSize = config.isDownloadStreamingEnabled() ? config.getDownloadStreamingChunkSize() : 0;
+        downloadStreamingParallelChunks = config.getDownloadStreamingParallelChunks();
+        chunkSignatureCache = config.isUploadDeltaEnabled() ? new ChunkSignatureCache() : null;
+        uploadDeltaMinFileSize = config.getUploadDeltaMinFileSize();
+        liveReportEnabled = config.isLiveReportEnabled();
+        liveReportUpdateInterval = config.getLiveReportUpdateInterval();
 
         checkTestPropertiesFileName();
 
-        agentControllerStatusUpdater = new AgentControllerStatusUpdater(defaultExecutor);
+        agentControllerStatusUpdater = new AgentControllerStatusUpdater(defaultExecutor, config.isStatusPushEnabled());
     }
 
     /**
@@ -308,8 +370,10 @@ public class MasterController
 
         // download results
         final ResultDownloader resultDownloader = new ResultDownloader(downloadExecutor, currentTestResultsDir, tempDirectory,
-                                                                       agentControllers, progress);
-        final boolean downloadSuccess = resultDownloader.download(testResultAmount, compressedTimerFiles);
+                                                                       agentControllers, progress, downloadStreamingChunkSize,
+                                                                       downloadStreamingParallelChunks);
+        final boolean downloadSuccess = resultDownloader.download(testResultAmount, compressedTimerFiles,
+                                                                   compressedTimerFilesBlockSize);
 
         // inform user
         final FailedAgentControllerCollection failedAgentControllers = resultDownloader.getFailedAgentControllerCollection();
@@ -332,51 +396,119 @@ public class MasterController
      */
     public boolean generateReport(final ReportCreationType reportCreationType)
     {
-        boolean result = false;
-
         if (currentTestResultsDir != null)
         {
-            final TimeZone systemTZ = TimeZone.getDefault();
-            final TimeZone tz = reportTimezoneId != null ? TimeZone.getTimeZone(reportTimezoneId) : systemTZ;
-            final boolean overrideTZ = !systemTZ.equals(tz);
+            return generateReport(currentTestResultsDir, reportCreationType, null);
+        }
+        else
+        {
+            LOG.error("There are no downloaded results to generate a report from.");
+            return false;
+        }
+    }
 
+    /**
+     * Generates the test report from the timer data fetched so far while the current load test is running. Since the
+     * report generator keeps a statistics snapshot in the live results directory, only the data fetched since the
+     * last live report needs to be processed.
+     *
+     * @return true if the operation was successful; false otherwise
+     */
+    public boolean generateLiveReport()
+    {
+        final LiveResultStreamer streamer = liveResultStreamer;
+        final File resultsDir = liveResultsDir;
+        if (streamer == null || resultsDir == null)
+        {
+            LOG.error("There are no live results to generate a report from.");
+            return false;
+        }
+
+        final Properties properties = new Properties();
+        properties.setProperty(ReportGeneratorConfiguration.PROP_SNAPSHOTS_ENABLED, "true");
+
+        synchronized (liveReportLock)
+        {
+            // fetch the latest data and copy it to the live results directory, so the streamer is free to continue
+            // while the report generator reads the copy
             try
             {
-                if (overrideTZ)
-                {
-                    TimeZone.setDefault(tz);
-                }
+                streamer.update();
+                streamer.copyTo(resultsDir);
+            }
+            catch (final IOException e)
+            {
+                LOG.error("Failed to copy the live results to " + resultsDir, e);
+                return false;
+            }
+
+            return generateReport(resultsDir, ReportCreationType.ALL, properties);
+        }
+    }
 
-                final FileObject testResultDir = VFS.getManager().resolveFile(currentTestResultsDir.toURI().toString());
-                final ReportGenerator reportGenerator = new ReportGenerator(testResultDir, null, false);
+    /**
+     * Returns whether live reports are enabled.
+     *
+     * @return whether live reports are enabled
+     */
+    public boolean isLiveReportEnabled()
+    {
+        return liveReportEnabled;
+    }
 
-                // get limit time range if necessary
-                if (reportCreationType.equals(ReportCreationType.ALL))
-                {
-                    reportGenerator.generateReport(false);
-                    result = true;
-                }
-                else if (reportCreationType.equals(ReportCreationType.NO_RAMPUP))
-                {
-                    reportGenerator.generateReport(true);
-                    result = true;
-                }
+    /**
+     * Generates the test report from the test results in the given directory.
+     *
+     * @param testResultsDir
+     *            the test results directory
+     * @param reportCreationType
+     *            report creation type
+     * @param reportProperties
+     *            additional report generator properties (may be <code>null</code>)
+     * @return true if the operation was successful; false otherwise
+     */
+    private boolean generateReport(final File testResultsDir, final ReportCreationType reportCreationType,
+                                   final Properties reportProperties)
+    {
+        boolean result = false;
+
+        final TimeZone systemTZ = TimeZone.getDefault();
+        final TimeZone tz = reportTimezoneId != null ? TimeZone.getTimeZone(reportTimezoneId) : systemTZ;
+        final boolean overrideTZ = !systemTZ.equals(tz);
+
+        try
+        {
+            if (overrideTZ)
+            {
+                TimeZone.setDefault(tz);
             }
-            catch (final Exception ex)
+
+            final FileObject testResultDir = VFS.getManager().resolveFile(testResultsDir.toURI().toString());
+            final ReportGenerator reportGenerator = new ReportGenerator(testResultDir, null, false, false, null, reportProperties,
+                                                                        null, null, null, null);
+
+            // get limit time range if necessary
+            if (reportCreationType.equals(ReportCreationType.ALL))
             {
-                LOG.error("Failed to generate report from the results in " + currentTestResultsDir, ex);
+                reportGenerator.generateReport(false);
+                result = true;
             }
-            finally
+            else if (reportCreationType.equals(ReportCreationType.NO_RAMPUP))
             {
-                if (overrideTZ)
-                {
-                    TimeZone.setDefault(systemTZ);
-                }
+                reportGenerator.generateReport(true);
+                result = true;
             }
         }
-        else
+        catch (final Exception ex)
         {
-            LOG.error("There are no downloaded results to generate a report from.");
+            LOG.error("Failed to generate report from the results in " + testResultsDir, ex);
+        }
+        finally
+        {
+            if (overrideTZ)
+            {
+                TimeZone.setDefault(systemTZ);
+            }
         }
 
         return result;
@@ -780,10 +912,49 @@ public class MasterController
         if (operationCompleted)
         {
             stoppedByUser = false;
+
+            if (liveReportEnabled)
+            {
+                startLiveResultStreaming();
+            }
         }
         return operationCompleted;
     }
 
+    /**
+     * Starts fetching the timer data of the load test just started into a new live results directory.
+     */
+    private void startLiveResultStreaming()
+    {
+        stopLiveResultStreaming();
+
+        final File resultsDir = resultOutputDirectory != null ? resultOutputDirectory
+                                                              : getTestResultsDirectory(testResultsRootDirectory, currentTestCaseName);
+        final File reportInputDir = new File(resultsDir.getPath() + "-live");
+        final File streamingDir = new File(tempDirectory, "live-" + reportInputDir.getName());
+
+        LOG.info("Fetching timer data continuously to " + streamingDir);
+
+        // start fresh
+        FileUtils.deleteQuietly(streamingDir);
+
+        liveResultsDir = reportInputDir;
+        liveResultStreamer = new LiveResultStreamer(downloadExecutor, streamingDir, tempDirectory, agentControllerMap.values());
+        liveResultStreamer.start(liveReportUpdateInterval * 1000L);
+    }
+
+    /**
+     * Stops fetching timer data. The live results fetched so far remain available for live reports.
+     */
+    private void stopLiveResultStreaming()
+    {
+        final LiveResultStreamer streamer = liveResultStreamer;
+        if (streamer != null)
+        {
+            streamer.stop();
+        }
+    }
+
     /**
      * Stops the agents on all agent controllers at once.
      *
@@ -846,6 +1017,8 @@ public class MasterController
         {
             stoppedByUser = true;
         }
+
+        stopLiveResultStreaming();
         return operationCompleted;
     }
 
@@ -905,7 +1078,7 @@ public class MasterController
         progressPrepare.increaseCount();
 
         final AgentControllerUpdate updater = new AgentControllerUpdate(agentControllerMap.values(), uploadExecutor, downloadExecutor,
-                                                                        tempDirectory);
+                                                                        tempDirectory, chunkSignatureCache, uploadDeltaMinFileSize);
         updater.prepare(progressPrepare);
 
         System.out.println("- OK");
@@ -1169,6 +1342,8 @@ public class MasterController
 
     public void shutdown()
     {
+        stopLiveResultStreaming();
+
         defaultExecutor.shutdownNow();
         uploadExecutor.shutdownNow();
         downloadExecutor.shutdownNow();
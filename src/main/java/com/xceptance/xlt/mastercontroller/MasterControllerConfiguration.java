@@ -72,6 +72,8 @@ public class MasterControllerConfiguration extends AbstractConfiguration
 
     private static final String PROP_UI_STATUS_UPDATE_INTERVAL = PROP_UI_STATUS_PREFIX + "updateInterval";
 
+    private static final String PROP_UI_STATUS_PUSH = PROP_UI_STATUS_PREFIX + "push";
+
     private static final String PROP_IGNORE_UNREACHABLE_AGENT_CONTROLLERS = PROP_PREFIX + "ignoreUnreachableAgentControllers";
 
     private static final String PROP_HTTPS_PROXY = PROP_PREFIX + "https.proxy";
@@ -102,10 +104,26 @@ public class MasterControllerConfiguration extends AbstractConfiguration
 
     private static final String PROP_COMPRESSED_TIMER_FILES = PROP_PREFIX + "compressedTimerFiles";
 
+    private static final String PROP_COMPRESSED_TIMER_FILES_BLOCK_SIZE = PROP_PREFIX + "compressedTimerFiles.blockSize";
+
     private static final String PROP_DOWNLOAD_CHUNK_SIZE = PROP_PREFIX + "download.chunkSize";
 
     private static final String PROP_DOWNLOAD_MAX_RETRIES = PROP_PREFIX + "download.maxRetries";
 
+    private static final String PROP_DOWNLOAD_STREAMING_ENABLED = PROP_PREFIX + "download.streaming.enabled";
+
+    private static final String PROP_DOWNLOAD_STREAMING_CHUNK_SIZE = PROP_PREFIX + "download.streaming.chunkSize";
+
+    private static final String PROP_DOWNLOAD_STREAMING_PARALLEL_CHUNKS = PROP_PREFIX + "download.streaming.parallelChunks";
+
+    private static final String PROP_UPLOAD_DELTA_ENABLED = PROP_PREFIX + "upload.delta.enabled";
+
+    private static final String PROP_UPLOAD_DELTA_MIN_FILE_SIZE = PROP_PREFIX + "upload.delta.minFileSize";
+
+    private static final String PROP_LIVE_REPORT_ENABLED = PROP_PREFIX + "liveReport.enabled";
+
+    private static final String PROP_LIVE_REPORT_UPDATE_INTERVAL = PROP_PREFIX + "liveReport.updateInterval";
+
     private final List<AgentControllerConnectionInfo> agentControllerConnectionInfos;
 
     private File agentFilesDirectory;
@@ -116,6 +134,8 @@ public class MasterControllerConfiguration extends AbstractConfiguration
 
     private final int statusListUpdateInterval;
 
+    private final boolean statusPushEnabled;
+
     private File testReportsRootDirectory;
 
     private File testResultsRootDirectory;
@@ -158,10 +178,26 @@ public class MasterControllerConfiguration extends AbstractConfiguration
 
     private final boolean compressedTimerFiles;
 
+    private final int compressedTimerFilesBlockSize;
+
     private final long downloadChunkSize;
 
     private final int downloadMaxRetries;
 
+    private final boolean downloadStreamingEnabled;
+
+    private final long downloadStreamingChunkSize;
+
+    private final int downloadStreamingParallelChunks;
+
+    private final boolean uploadDeltaEnabled;
+
+    private final long uploadDeltaMinFileSize;
+
+    private final boolean liveReportEnabled;
+
+    private final int liveReportUpdateInterval;
+
     /**
      * Creates a new MasterControllerConfiguration object.
      *
@@ -264,6 +300,7 @@ public class MasterControllerConfiguration extends AbstractConfiguration
 
         // other settings
         statusListUpdateInterval = getIntProperty(PROP_UI_STATUS_UPDATE_INTERVAL, 5);
+        statusPushEnabled = getBooleanProperty(PROP_UI_STATUS_PUSH, false);
 
         isAgentControllerConnectionRelaxed = getBooleanProperty(PROP_IGNORE_UNREACHABLE_AGENT_CONTROLLERS, false);
 
@@ -280,10 +317,22 @@ public class MasterControllerConfiguration extends AbstractConfiguration
 
         // do we want to keep the timer files compressed for efficiency
         compressedTimerFiles = getBooleanProperty(PROP_COMPRESSED_TIMER_FILES, true);
+        compressedTimerFilesBlockSize = Math.max(0, getIntProperty(PROP_COMPRESSED_TIMER_FILES_BLOCK_SIZE, 0));
 
         // download options
         downloadChunkSize = Math.max(1000, getLongProperty(PROP_DOWNLOAD_CHUNK_SIZE, AgentControllerProxy.DEFAULT_DOWNLOAD_CHUNK_SIZE));
         downloadMaxRetries = Math.max(0, getIntProperty(PROP_DOWNLOAD_MAX_RETRIES, AgentControllerProxy.DEFAULT_DOWNLOAD_MAX_RETRIES));
+        downloadStreamingEnabled = getBooleanProperty(PROP_DOWNLOAD_STREAMING_ENABLED, false);
+        downloadStreamingChunkSize = Math.max(1000, getLongProperty(PROP_DOWNLOAD_STREAMING_CHUNK_SIZE, 8_000_000L));
+        downloadStreamingParallelChunks = Math.max(1, getIntProperty(PROP_DOWNLOAD_STREAMING_PARALLEL_CHUNKS, 4));
+
+        // upload options
+        uploadDeltaEnabled = getBooleanProperty(PROP_UPLOAD_DELTA_ENABLED, false);
+        uploadDeltaMinFileSize = Math.max(0, getLongProperty(PROP_UPLOAD_DELTA_MIN_FILE_SIZE, 1_000_000L));
+
+        // live report options
+        liveReportEnabled = getBooleanProperty(PROP_LIVE_REPORT_ENABLED, false);
+        liveReportUpdateInterval = Math.max(1, getIntProperty(PROP_LIVE_REPORT_UPDATE_INTERVAL, 10));
     }
 
     /**
@@ -439,6 +488,17 @@ public class MasterControllerConfiguration extends AbstractConfiguration
         return statusListUpdateInterval;
     }
 
+    /**
+     * Returns whether the agent controllers push their status to the master controller instead of being polled.
+     *
+     * @return whether status push is enabled
+     * @since 8.1.0
+     */
+    public boolean isStatusPushEnabled()
+    {
+        return statusPushEnabled;
+    }
+
     /**
      * In case of initial connection problems with a agent controller the load of the test is distributed to the
      * remaining agent controllers if the connection is relaxed.
@@ -647,6 +707,16 @@ public class MasterControllerConfiguration extends AbstractConfiguration
         return compressedTimerFiles;
     }
 
+    /**
+     * The uncompressed size of the independently compressed blocks of compressed timer files
+     *
+     * @return the block size in bytes, 0 if timer files are compressed as a single block
+     */
+    public int getCompressedTimerFilesBlockSize()
+    {
+        return compressedTimerFilesBlockSize;
+    }
+
     /**
      * Returns the size of a file chunk when downloading a result archive from an agent controller.
      *
@@ -666,4 +736,79 @@ public class MasterControllerConfiguration extends AbstractConfiguration
     {
         return downloadMaxRetries;
     }
+
+    /**
+     * Returns whether result archives are to be unzipped while they are being downloaded from an agent controller,
+     * instead of being stored to a temporary file first.
+     *
+     * @return whether streaming download is enabled
+     */
+    public boolean isDownloadStreamingEnabled()
+    {
+        return downloadStreamingEnabled;
+    }
+
+    /**
+     * Returns the size of a file chunk when streaming a result archive from an agent controller.
+     *
+     * @return the chunk size (in bytes)
+     */
+    public long getDownloadStreamingChunkSize()
+    {
+        return downloadStreamingChunkSize;
+    }
+
+    /**
+     * Returns the maximum number of chunks downloaded in parallel when streaming a result archive from an agent
+     * controller.
+     *
+     * @return the maximum number of parallel chunks
+     */
+    public int getDownloadStreamingParallelChunks()
+    {
+        return downloadStreamingParallelChunks;
+    }
+
+    /**
+     * Returns whether changed agent files are to be uploaded chunk by chunk, i.e. only the changed parts of a file are
+     * transferred.
+     *
+     * @return whether delta upload is enabled
+     */
+    public boolean isUploadDeltaEnabled()
+    {
+        return uploadDeltaEnabled;
+    }
+
+    /**
+     * Returns the minimum size of a changed agent file to be uploaded chunk by chunk. Smaller files are uploaded as a
+     * whole.
+     *
+     * @return the minimum file size (in bytes)
+     */
+    public long getUploadDeltaMinFileSize()
+    {
+        return uploadDeltaMinFileSize;
+    }
+
+    /**
+     * Returns whether the timer data is to be fetched continuously while a load test is running, so that a live report
+     * can be created at any time.
+     *
+     * @return whether live reports are enabled
+     */
+    public boolean isLiveReportEnabled()
+    {
+        return liveReportEnabled;
+    }
+
+    /**
+     * Returns the pause between fetching new timer data from the agent controllers while a load test is running.
+     *
+     * @return the update interval (in seconds)
+     */
+    public int getLiveReportUpdateInterval()
+    {
+        return liveReportUpdateInterval;
+    }
 }
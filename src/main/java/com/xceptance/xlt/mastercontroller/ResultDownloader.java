@@ -18,8 +18,11 @@ package com.xceptance.xlt.mastercontroller;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -33,6 +36,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.commons.io.input.ProxyInputStream;
 import org.apache.commons.vfs2.FileObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,9 +67,37 @@ public class ResultDownloader
 
     private final List<AgentController> agentControllers;
 
+    /**
+     * The size of a file chunk when streaming result archives, or 0 if result archives are downloaded to a temporary
+     * file first.
+     */
+    private final long streamingChunkSize;
+
+    /**
+     * The maximum number of chunks downloaded in parallel when streaming result archives.
+     */
+    private final int streamingParallelChunks;
+
     public ResultDownloader(final ThreadPoolExecutor downloadExecutor, final File testResultsDir, final File tempDirectory,
                             final ArrayList<AgentController> agentControllers, final ProgressBar progress)
     {
+        this(downloadExecutor, testResultsDir, tempDirectory, agentControllers, progress, 0, 0);
+    }
+
+    /**
+     * Creates a new result downloader that unzips the result archives while they are being downloaded.
+     *
+     * @param streamingChunkSize
+     *            the size of a file chunk, or 0 to download result archives to a temporary file first
+     * @param streamingParallelChunks
+     *            the maximum number of chunks downloaded in parallel
+     */
+    public ResultDownloader(final ThreadPoolExecutor downloadExecutor, final File testResultsDir, final File tempDirectory,
+                            final ArrayList<AgentController> agentControllers, final ProgressBar progress, final long streamingChunkSize,
+                            final int streamingParallelChunks)
+    {
+        this.streamingChunkSize = streamingChunkSize;
+        this.streamingParallelChunks = streamingParallelChunks;
         this.downloadExecutor = downloadExecutor;
         this.testResultsDir = testResultsDir;
         this.tempDirectory = tempDirectory;
@@ -78,7 +110,8 @@ public class ResultDownloader
     /**
      * @progresscount 7 ac + 4
      */
-    public boolean download(final TestResultAmount testResultAmount, final boolean compressedTimerFiles)
+    public boolean download(final TestResultAmount testResultAmount, final boolean compressedTimerFiles,
+                            final int compressedTimerFilesBlockSize)
     {
         // download test configuration
         final boolean testConfigDownloaded = getRemoteTestConfig();
@@ -98,7 +131,7 @@ public class ResultDownloader
         archiveResults(testResultAmount);
 
         // download and unzip archives
-        final boolean resultsDownloaded = downloadResults(compressedTimerFiles);
+        final boolean resultsDownloaded = downloadResults(compressedTimerFiles, compressedTimerFilesBlockSize);
 
         // We have downloaded results from at least 1 agent controller.
         // AND
@@ -391,7 +424,7 @@ public class ResultDownloader
     /**
      * @progresscount 5 * ac
      */
-    private boolean downloadResults(final boolean compressedTimerFiles)
+    private boolean downloadResults(final boolean compressedTimerFiles, final int compressedTimerFilesBlockSize)
     {
         LOG.debug("Download results");
         try
@@ -405,7 +438,7 @@ public class ResultDownloader
                     {
                         // download the archive
                         LOG.debug("Downloading results from " + agentController);
-                        downloadTestResults(agentController, compressedTimerFiles);
+                        downloadTestResults(agentController, compressedTimerFiles, compressedTimerFilesBlockSize);
                         LOG.debug("Downloading results from " + agentController + " OK");
                         return true;
                     }
@@ -499,8 +532,19 @@ public class ResultDownloader
      *             if an I/O error occurs
      * @progresscount 4
      */
-    private void downloadTestResults(final AgentController agentController, final boolean compressedTimerFiles) throws IOException
+    private void downloadTestResults(final AgentController agentController, final boolean compressedTimerFiles,
+                                     final int compressedTimerFilesBlockSize)
+        throws IOException
     {
+        if (streamingChunkSize > 0)
+        {
+            streamTestResults(agentController, compressedTimerFiles, compressedTimerFilesBlockSize);
+            return;
+        }
+
+        final long startTime = System.currentTimeMillis();
+        long totalBytes = 0;
+
         /** agentID, downloadedZipFile */
         final Map<String, File> downloadedZipFiles = new HashMap<String, File>();
 
@@ -524,6 +568,7 @@ public class ResultDownloader
                 zipFile.deleteOnExit();
 
                 agentController.getFileManager().downloadFile(zipFile, remoteZipFileName);
+                totalBytes += zipFile.length();
 
                 downloadedZipFiles.put(agentID, zipFile);
             }
@@ -542,7 +587,7 @@ public class ResultDownloader
 
                 final File agentResultsDir = new File(testResultsDir, agentID);
                 LOG.debug("Unzipping '" + zipFile + "' to '" + agentResultsDir + "' ...");
-                ZipUtils.unzipFile(zipFile, agentResultsDir, compressedTimerFiles);
+                ZipUtils.unzipFile(zipFile, agentResultsDir, compressedTimerFiles, compressedTimerFilesBlockSize);
             }
             progress.increaseCount();
         }
@@ -561,10 +606,123 @@ public class ResultDownloader
             }
 
             LOG.info("Finished downloading test results files from " + agentController);
+            logThroughput(agentController, totalBytes, startTime);
             progress.increaseCount();
         }
     }
 
+    /**
+     * Downloads the test results from the specified agent controller and unzips them on the fly, without storing the
+     * result archives to a temporary file first.
+     *
+     * @param agentController
+     *            the target agent controller
+     * @throws java.io.IOException
+     *             if an I/O error occurs
+     * @progresscount 4
+     */
+    private void streamTestResults(final AgentController agentController, final boolean compressedTimerFiles,
+                                   final int compressedTimerFilesBlockSize)
+        throws IOException
+    {
+        final long startTime = System.currentTimeMillis();
+        final AtomicLong totalBytes = new AtomicLong();
+
+        LOG.info("Streaming test results files from " + agentController);
+        /** agentID : remoteFileName */
+        final Map<String, String> remoteZipFileNames = agentController.getAgentResultsArchives();
+        progress.increaseCount();
+
+        for (final Map.Entry<String, String> remoteAgentResultFile : remoteZipFileNames.entrySet())
+        {
+            final String agentID = remoteAgentResultFile.getKey();
+            final String remoteZipFileName = remoteAgentResultFile.getValue();
+
+            final File agentResultsDir = new File(testResultsDir, agentID);
+            LOG.debug("Unzipping '" + remoteZipFileName + "' to '" + agentResultsDir + "' ...");
+
+            // unzip to a temporary directory first so that a failed download does not leave partial results behind
+            final File partialResultsDir = Files.createTempDirectory(testResultsDir.toPath(), "." + agentID + "-").toFile();
+            try
+            {
+                try (final InputStream in = agentController.getFileManager().openFile(remoteZipFileName, streamingChunkSize,
+                                                                                      streamingParallelChunks))
+                {
+                    ZipUtils.unzip(new ProxyInputStream(in)
+                    {
+                        @Override
+                        protected void afterRead(final int n)
+                        {
+                            if (n > 0)
+                            {
+                                totalBytes.addAndGet(n);
+                            }
+                        }
+                    }, partialResultsDir, compressedTimerFiles, compressedTimerFilesBlockSize);
+                }
+
+                moveIntoPlace(partialResultsDir, agentResultsDir);
+            }
+            catch (final IOException | RuntimeException e)
+            {
+                org.apache.commons.io.FileUtils.deleteQuietly(partialResultsDir);
+                throw e;
+            }
+        }
+        // download and unzip happen at once
+        progress.increaseCount();
+        progress.increaseCount();
+
+        LOG.debug("cleanup agent controller test results archive files ...");
+        agentController.archiveDownloadDone();
+
+        LOG.info("Finished streaming test results files from " + agentController);
+        logThroughput(agentController, totalBytes.get(), startTime);
+        progress.increaseCount();
+    }
+
+    /**
+     * Moves the contents of the given source directory to the given target directory and removes the source directory.
+     * If the target directory does not exist yet, the source directory is simply renamed.
+     *
+     * @param sourceDir
+     *            the source directory
+     * @param targetDir
+     *            the target directory
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    private static void moveIntoPlace(final File sourceDir, final File targetDir) throws IOException
+    {
+        if (targetDir.exists())
+        {
+            org.apache.commons.io.FileUtils.copyDirectory(sourceDir, targetDir);
+            org.apache.commons.io.FileUtils.deleteDirectory(sourceDir);
+        }
+        else
+        {
+            Files.move(sourceDir.toPath(), targetDir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Logs how many bytes were downloaded from the given agent controller and how fast.
+     *
+     * @param agentController
+     *            the agent controller
+     * @param bytes
+     *            the number of bytes downloaded
+     * @param startTime
+     *            the time [ms] the download started
+     */
+    private static void logThroughput(final AgentController agentController, final long bytes, final long startTime)
+    {
+        final double seconds = Math.max(1, System.currentTimeMillis() - startTime) / 1000.0;
+
+        LOG.info(String.format("%s: Downloaded %,d bytes in %.1f s (%.2f MB/s)", agentController, bytes, seconds,
+                               bytes / seconds / 1_000_000));
+    }
+
     /**
      * Downloads the test configuration from the given agent controller and returns the downloaded file.
      *
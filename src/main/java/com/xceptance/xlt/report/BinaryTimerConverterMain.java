@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import com.xceptance.common.io.BinaryRecordWriter;
+import com.xceptance.common.io.XltBufferedLineReader;
+import com.xceptance.common.util.CsvLineDecoder;
+import com.xceptance.xlt.api.util.SimpleArrayList;
+import com.xceptance.xlt.api.util.XltCharBuffer;
+import com.xceptance.xlt.common.XltConstants;
+
+/**
+ * Converts the CSV timer files of existing load test results to binary timer files, so that subsequent report runs
+ * don't have to tokenize the CSV data again. For each test user directory below the given result directories, all
+ * regular timer files are written to a single <code>timers.bin</code> file. Directories that already contain a binary
+ * timer file are skipped. The CSV files are left untouched.
+ */
+public class BinaryTimerConverterMain
+{
+    /**
+     * Main entry point.
+     *
+     * @param args
+     *            the result directories to convert
+     */
+    public static void main(final String[] args)
+    {
+        if (args.length == 0)
+        {
+            System.err.println("Usage: convert_timers <resultDir> [<resultDir> ...]");
+            System.exit(1);
+        }
+
+        try
+        {
+            for (final String arg : args)
+            {
+                convertResultDirectory(Paths.get(arg));
+            }
+        }
+        catch (final Exception e)
+        {
+            System.err.println("Failed to convert timer files: " + e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Converts all test user directories below the given directory.
+     *
+     * @param resultDir
+     *            the result directory
+     * @throws IOException
+     *             if anything goes wrong
+     */
+    static void convertResultDirectory(final Path resultDir) throws IOException
+    {
+        final List<Path> directories;
+        try (final Stream<Path> paths = Files.walk(resultDir))
+        {
+            directories = paths.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+
+        long totalRecords = 0;
+        long totalCsvBytes = 0;
+        long totalBinaryBytes = 0;
+
+        for (final Path directory : directories)
+        {
+            final List<Path> csvFiles;
+            try (final Stream<Path> files = Files.list(directory))
+            {
+                csvFiles = files.filter(f -> matches(XltConstants.TIMER_FILENAME_PATTERNS, f)).sorted().collect(Collectors.toList());
+            }
+
+            final Path binaryFile = directory.resolve(XltConstants.TIMER_BINARY_FILENAME);
+            if (csvFiles.isEmpty() || Files.exists(binaryFile) || Files.exists(binaryFile.resolveSibling(binaryFile.getFileName() + ".gz")))
+            {
+                continue;
+            }
+
+            long records = 0;
+            try (final BinaryRecordWriter writer = new BinaryRecordWriter(new BufferedOutputStream(Files.newOutputStream(binaryFile),
+                                                                                                   64 * 1024)))
+            {
+                for (final Path csvFile : csvFiles)
+                {
+                    records += convertFile(csvFile, writer);
+                    totalCsvBytes += Files.size(csvFile);
+                }
+            }
+
+            totalRecords += records;
+            totalBinaryBytes += Files.size(binaryFile);
+        }
+
+        System.out.printf("%s: %,d records converted, %,d bytes CSV -> %,d bytes binary\n", resultDir, totalRecords, totalCsvBytes,
+                          totalBinaryBytes);
+    }
+
+    /**
+     * Converts a single CSV timer file.
+     *
+     * @param csvFile
+     *            the CSV file, maybe compressed
+     * @param writer
+     *            the target writer
+     * @return the number of records converted
+     * @throws IOException
+     *             if anything goes wrong
+     */
+    static long convertFile(final Path csvFile, final BinaryRecordWriter writer) throws IOException
+    {
+        final boolean isCompressed = csvFile.getFileName().toString().endsWith(".gz");
+
+        long records = 0;
+        try (final InputStream in = Files.newInputStream(csvFile);
+             final XltBufferedLineReader reader = new XltBufferedLineReader(new InputStreamReader(isCompressed ? new GZIPInputStream(in, 16 * 1024)
+                                                                                                             : in,
+                                                                                                StandardCharsets.UTF_8)))
+        {
+            final SimpleArrayList<XltCharBuffer> fields = new SimpleArrayList<>(50);
+
+            XltCharBuffer line;
+            while ((line = reader.readLine()) != null)
+            {
+                if (line.length() == 0)
+                {
+                    continue;
+                }
+
+                fields.clear();
+                writer.write(CsvLineDecoder.parse(fields, line));
+                records++;
+            }
+        }
+
+        return records;
+    }
+
+    private static boolean matches(final List<Pattern> patterns, final Path file)
+    {
+        final String fileName = file.getFileName().toString();
+        return Files.isRegularFile(file) && patterns.stream().anyMatch(p -> p.matcher(fileName).matches());
+    }
+}
@@ -42,7 +42,7 @@ public class DataChunk
 
     private final String agentName;
 
-    private final int baseLineNumber;
+    private final long baseLineNumber;
 
     /**
      * Indicates whether this chunk contains actions that should be remembered for later processing. Is true only if the
@@ -54,15 +54,30 @@ public class DataChunk
 
     private final List<XltCharBuffer> lines;
 
+    /**
+     * The already tokenized records, each one as list of fields. Only set if the data was read from a binary timer
+     * file, in which case {@link #lines} is <code>null</code>.
+     */
+    private final List<List<XltCharBuffer>> records;
+
     private final String testCaseName;
 
     private final String userNumber;
 
-    public DataChunk(final List<XltCharBuffer> lines, final int baseLineNumber, final FileObject file, final String agentName,
+    public DataChunk(final List<XltCharBuffer> lines, final long baseLineNumber, final FileObject file, final String agentName,
                      final String testCaseName, final String userNumber, final boolean collectActionNames, final boolean adjustTimerNames,
                      final ConcurrentSkipListMap<Long, String> actionNames)
+    {
+        this(lines, null, baseLineNumber, file, agentName, testCaseName, userNumber, collectActionNames, adjustTimerNames, actionNames);
+    }
+
+    private DataChunk(final List<XltCharBuffer> lines, final List<List<XltCharBuffer>> records, final long baseLineNumber,
+                      final FileObject file, final String agentName, final String testCaseName, final String userNumber,
+                      final boolean collectActionNames, final boolean adjustTimerNames,
+                      final ConcurrentSkipListMap<Long, String> actionNames)
     {
         this.lines = lines;
+        this.records = records;
         this.baseLineNumber = baseLineNumber;
         this.file = file;
         this.agentName = agentName;
@@ -73,6 +88,18 @@ public class DataChunk
         this.actionNames = actionNames;
     }
 
+    /**
+     * Creates a chunk of already tokenized records, as read from a binary timer file.
+     */
+    public static DataChunk ofRecords(final List<List<XltCharBuffer>> records, final long baseLineNumber, final FileObject file,
+                                      final String agentName, final String testCaseName, final String userNumber,
+                                      final boolean collectActionNames, final boolean adjustTimerNames,
+                                      final ConcurrentSkipListMap<Long, String> actionNames)
+    {
+        return new DataChunk(null, records, baseLineNumber, file, agentName, testCaseName, userNumber, collectActionNames,
+                             adjustTimerNames, actionNames);
+    }
+
     public ConcurrentSkipListMap<Long, String> getActionNames()
     {
         return actionNames;
@@ -88,7 +115,7 @@ public class DataChunk
         return agentName;
     }
 
-    public int getBaseLineNumber()
+    public long getBaseLineNumber()
     {
         return baseLineNumber;
     }
@@ -108,6 +135,31 @@ public class DataChunk
         return lines;
     }
 
+    public List<List<XltCharBuffer>> getRecords()
+    {
+        return records;
+    }
+
+    /**
+     * Returns whether this chunk holds already tokenized records instead of CSV lines.
+     *
+     * @return whether {@link #getRecords()} has to be used instead of {@link #getLines()}
+     */
+    public boolean isTokenized()
+    {
+        return records != null;
+    }
+
+    /**
+     * Returns the number of lines or records in this chunk.
+     *
+     * @return the size
+     */
+    public int size()
+    {
+        return records != null ? records.size() : lines.size();
+    }
+
     public String getTestCaseName()
     {
         return testCaseName;
@@ -33,8 +33,8 @@ import com.xceptance.xlt.api.engine.TransactionData;
 import com.xceptance.xlt.api.report.PostProcessedDataContainer;
 import com.xceptance.xlt.api.util.SimpleArrayList;
 import com.xceptance.xlt.api.util.XltCharBuffer;
-import com.xceptance.xlt.report.mergerules.RequestProcessingRule;
-import com.xceptance.xlt.report.mergerules.RequestProcessingRule.ReturnState;
+import com.xceptance.xlt.report.mergerules.RequestProcessingRuleSet;
+import com.xceptance.xlt.report.mergerules.RequestProcessingRuleStatistics;
 import com.zaxxer.sparsebits.SparseBitSet;
 
 import it.unimi.dsi.util.FastRandom;
@@ -114,7 +114,8 @@ class DataParserThread implements Runnable
     {
         // each parser gets its own rules. They are all identical, but don't share state, hence we can more
         // efficiently cache and process
-        final List<RequestProcessingRule> requestProcessingRules = config.getRequestProcessingRules();
+        final RequestProcessingRuleSet requestProcessingRules = new RequestProcessingRuleSet(config.getRequestProcessingRules(),
+                                                                                             config.requestProcessingRuleCacheSize);
         final boolean removeIndexes = config.getRemoveIndexesFromRequestNames();
 
         final double SAMPLELIMIT = 1 / ((double) config.dataSampleFactor);
@@ -138,6 +139,8 @@ class DataParserThread implements Runnable
                 final DataChunk chunk = dispatcher.retrieveReadData();
 
                 final List<XltCharBuffer> lines = chunk.getLines();
+                final List<List<XltCharBuffer>> records = chunk.getRecords();
+                final boolean tokenized = chunk.isTokenized();
 
                 final String agentName = chunk.getAgentName();
                 final String testCaseName = chunk.getTestCaseName();
@@ -152,31 +155,38 @@ class DataParserThread implements Runnable
                 int droppedLines = 0;
 
                 // parse the chunk of lines and preprocess the results
-                final PostProcessedDataContainer postProcessedData = new PostProcessedDataContainer(lines.size(), SAMPLEFACTOR);
+                final int size = chunk.size();
 
-                int lineNumber = chunk.getBaseLineNumber();
+                final PostProcessedDataContainer postProcessedData = new PostProcessedDataContainer(size, SAMPLEFACTOR);
 
-                final int size = lines.size();
+                long lineNumber = chunk.getBaseLineNumber();
 
                 for (int i = 0; i < size; i++)
                 {
                     Data data = null;
 
+                    final List<XltCharBuffer> fields;
+
                     try
                     {
-                        // parse the data record for minimal data
-                        final XltCharBuffer line = lines.get(i);
-
-                        // we want to reuse that array because it is just temp transport and at the end, we will always
-                        // allocate it freshly and might also either allocate too much or have to grow it
-                        csvParseResultBuffer.clear();
+                        if (tokenized)
+                        {
+                            // binary records come already split into fields
+                            fields = records.get(i);
+                        }
+                        else
+                        {
+                            // we want to reuse that array because it is just temp transport and at the end, we will
+                            // always allocate it freshly and might also either allocate too much or have to grow it
+                            csvParseResultBuffer.clear();
 
-                        // parse, the buffer is modified!
-                        CsvLineDecoder.parse(csvParseResultBuffer, line);
+                            // parse, the buffer is modified!
+                            fields = CsvLineDecoder.parse(csvParseResultBuffer, lines.get(i));
+                        }
 
                         // get us the minimal data aka type and time
-                        data = dataRecordFactory.createStatistics(line);
-                        data.setBaseValues(csvParseResultBuffer);
+                        data = dataRecordFactory.createStatistics(fields.get(0));
+                        data.setBaseValues(fields);
 
                         // see if we have to keep it
                         final long time = data.getTime();
@@ -214,11 +224,12 @@ class DataParserThread implements Runnable
                         }
 
                         // finish parsing
-                        data.setRemainingValues(csvParseResultBuffer);
+                        data.setRemainingValues(fields);
                     }
                     catch (final Exception ex)
                     {
-                        final String msg = String.format("Failed to parse data record at line %,d in file '%s': %s\nLine is: ", lineNumber, file, ex, lines.get(i).toString());
+                        final String line = tokenized ? toLine(records.get(i)) : lines.get(i).toString();
+                        final String msg = String.format("Failed to parse data record at line %,d in file '%s': %s\nLine is: %s", lineNumber, file, ex, line);
                         LOG.error(msg, ex);
 
                         continue;
@@ -247,6 +258,9 @@ class DataParserThread implements Runnable
                     lineNumber++;
                 }
 
+                // publish how often the rules applied
+                RequestProcessingRuleStatistics.getInstance().add(requestProcessingRules);
+
                 // deliver the chunk of parsed data records
                 postProcessedData.droppedLines = droppedLines;
                 dispatcher.addPostprocessedData(postProcessedData);
@@ -258,6 +272,30 @@ class DataParserThread implements Runnable
         }
     }
 
+    /**
+     * Joins the given fields to a line for error reporting purposes.
+     *
+     * @param fields
+     *            the fields
+     * @return the line
+     */
+    private static String toLine(final List<XltCharBuffer> fields)
+    {
+        final StringBuilder sb = new StringBuilder();
+
+        final int size = fields.size();
+        for (int i = 0; i < size; i++)
+        {
+            if (i > 0)
+            {
+                sb.append(',');
+            }
+            sb.append(fields.get(i));
+        }
+
+        return sb.toString();
+    }
+
     private Data applyDataAdjustments(final Data data, final String agentName, final String testCaseName, final String userNumber,
                                       final boolean collectActionNames, final DataChunk lineChunk, boolean adjustTimerName)
     {
@@ -304,7 +342,7 @@ class DataParserThread implements Runnable
      * @return the processed request data record, or <code>null</code> if the data record is to be discarded
      */
     private RequestData postprocess(final RequestData requestData,
-                                    final List<RequestProcessingRule> requestProcessingRules,
+                                    final RequestProcessingRuleSet requestProcessingRules,
                                     final boolean removeIndexesFromRequestNames)
     {
         // fix up the name first (Product.1.2 -> Product) if so configured
@@ -322,38 +360,10 @@ class DataParserThread implements Runnable
             }
         }
 
-        // remember the original name so we can restore it in case request processing fails
-        final String originalName = requestData.getName();
-
         // execute all processing rules one after the other until processing is complete
-        final int size = requestProcessingRules.size();
-        for (int i = 0; i < size; i++)
+        if (requestProcessingRules.process(requestData) == null)
         {
-            final RequestProcessingRule requestProcessingRule = requestProcessingRules.get(i);
-
-            try
-            {
-                // request data comes back indirectly modified if needed
-                final ReturnState state = requestProcessingRule.process(requestData);
-                if (state == ReturnState.DROP)
-                {
-                    return null;
-                }
-                else if (state == ReturnState.STOP)
-                {
-                    break;
-                }
-            }
-            catch (final Throwable t)
-            {
-                final String msg = String.format("Failed to apply request merge rule: %s\n%s", requestProcessingRule, t);
-                LOG.error(msg);
-
-                // restore the request's original name
-                requestData.setName(originalName);
-
-                break;
-            }
+            return null;
         }
 
         // ok, we processed all rules for this dataset, get us the final hashcode for the name, because we need that later
@@ -15,11 +15,19 @@
  */
 package com.xceptance.xlt.report;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileType;
@@ -28,6 +36,7 @@ import com.xceptance.common.util.StringMatcher;
 import com.xceptance.common.util.concurrent.DaemonThreadFactory;
 import com.xceptance.xlt.agent.CustomSamplersRunner;
 import com.xceptance.xlt.agent.JvmResourceUsageDataGenerator;
+import com.xceptance.xlt.agent.OpenWorkloadExecutionTimer;
 import com.xceptance.xlt.api.report.ReportProvider;
 import com.xceptance.xlt.api.util.XltLogger;
 import com.xceptance.xlt.engine.util.TimerUtils;
@@ -42,12 +51,45 @@ import com.xceptance.xlt.engine.util.TimerUtils;
  * +- line processing pool
  * -> StatisicsProcessor (single thread)
  *
+ * If so configured, the gathered statistics are persisted in a {@link ReportSnapshot} and only data that is not
+ * contained in the snapshot yet is read.
+ *
  * @see DataReaderThread
  * @see DataParserThread
  * @see StatisticsProcessor
  */
 public class DataProcessor
 {
+    /**
+     * Callback for the test user directories found in the input directory.
+     */
+    @FunctionalInterface
+    private interface TestUserDirVisitor
+    {
+        void visit(FileObject testUserDir, String agentName, String testCaseName) throws Exception;
+    }
+
+    /**
+     * A test user directory and the relative paths of the timer files to read from it.
+     */
+    private static class TestUserDir
+    {
+        private final FileObject directory;
+
+        private final String agentName;
+
+        private final String testCaseName;
+
+        private final List<String> timerFilePaths = new ArrayList<>();
+
+        private TestUserDir(final FileObject directory, final String agentName, final String testCaseName)
+        {
+            this.directory = directory;
+            this.agentName = agentName;
+            this.testCaseName = testCaseName;
+        }
+    }
+
     /**
      * The executor dealing with the data record parser threads.
      */
@@ -89,6 +131,26 @@ public class DataProcessor
      */
     private final StringMatcher agentFilter;
 
+    /**
+     * Time when report starts.
+     */
+    private final long fromTime;
+
+    /**
+     * Time when report ends.
+     */
+    private final long toTime;
+
+    /**
+     * The snapshot of the statistics gathered so far, or <code>null</code> if snapshots are not used.
+     */
+    private final ReportSnapshot snapshot;
+
+    /**
+     * The snapshot file.
+     */
+    private final File snapshotFile;
+
     /**
      * Constructor.
      *
@@ -125,12 +187,20 @@ public class DataProcessor
                      final String agentIncludePatternList, final String agentExcludePatternList)
     {
         this.inputDir = inputDir;
+        this.fromTime = fromTime;
+        this.toTime = toTime;
 
         testCaseFilter = new StringMatcher(testCaseIncludePatternList, testCaseExcludePatternList, true);
         agentFilter = new StringMatcher(agentIncludePatternList, agentExcludePatternList, true);
 
+        // the statistics snapshot, if applicable
+        snapshotFile = new File(inputDir.getName().getPath(), ReportSnapshot.FILE_NAME);
+        snapshot = config.snapshotsEnabled ? openSnapshot(config, reportProviders, testCaseIncludePatternList, testCaseExcludePatternList,
+                                                          agentIncludePatternList, agentExcludePatternList)
+                                           : null;
+
         // the one and only data record processor
-        statisticsProcessor = new StatisticsProcessor(reportProviders);
+        statisticsProcessor = new StatisticsProcessor(reportProviders, config.statisticsSharded, snapshot);
 
         // create the reader executor
         dataReaderExecutor = Executors.newFixedThreadPool(config.readerThreadCount, new DaemonThreadFactory(i -> "DataReader-" + i, Thread.MAX_PRIORITY));
@@ -145,7 +215,10 @@ public class DataProcessor
         for (int i = 0; i < config.parserThreadCount; i++)
         {
             dataParserExecutor.execute(
-                                       new DataParserThread(dispatcher, dataRecordFactory, fromTime, toTime, config));
+                                       new DataParserThread(dispatcher, dataRecordFactory,
+                                                            // a snapshot holds all data, the time range is applied later
+                                                            snapshot == null ? fromTime : Long.MIN_VALUE,
+                                                            snapshot == null ? toTime : Long.MAX_VALUE, config));
         }
 
         XltLogger.reportLogger.info(String.format("Input directory: %s", inputDir));
@@ -181,21 +254,20 @@ public class DataProcessor
             dispatcher.startProgress();
             final long start = TimerUtils.get().getStartTime();
 
-            for (final FileObject file : inputDir.getChildren())
+            if (snapshot == null)
             {
-                if (file.getType() == FileType.FOLDER)
-                {
-                    // Check if we need to process the current agent directory
-                    final String directoryName = file.getName().getBaseName();
-                    if (agentFilter.isAccepted(directoryName))
-                    {
-                        readDataRecordsFromAgentDir(file);
-                    }
-                }
-            }
+                visitTestUserDirs((dir, agentName, testCaseName) -> readDataRecordsFromTestUserDir(dir, agentName, testCaseName, null));
 
-            // wait for the data processing to finish
-            dispatcher.waitForDataRecordProcessingToComplete();
+                // wait for the data processing to finish
+                dispatcher.waitForDataRecordProcessingToComplete();
+
+                // combine what the parser threads have gathered independently
+                statisticsProcessor.mergeShards();
+            }
+            else
+            {
+                readDataRecordsIncrementally();
+            }
 
             final long duration = TimerUtils.get().getElapsedTime(start);
             final long linesPerSecond = Math.round((totalLinesCounter.get() / (double) duration) * 1000L);
@@ -218,14 +290,194 @@ public class DataProcessor
     }
 
     /**
-     * Reads the timer files from the given agent directory.
+     * Reads the data records not contained in the snapshot yet, updates and saves the snapshot, and finally feeds the
+     * statistics of the requested time range to the report providers.
+     *
+     * @throws Exception
+     *             thrown on I/O-Error
+     */
+    private void readDataRecordsIncrementally() throws Exception
+    {
+        // determine the current state of all the timer files to read
+        final List<TestUserDir> testUserDirs = new ArrayList<>();
+        final Map<String, Path> timerFiles = new HashMap<>();
+        final Map<String, ReportSnapshot.FileState> fileStates = new HashMap<>();
+        final Set<String> rebuildRequired = new HashSet<>();
+
+        visitTestUserDirs((dir, agentName, testCaseName) -> {
+            final TestUserDir testUserDir = new TestUserDir(dir, agentName, testCaseName);
+            final DataReaderThread.TimerFiles files = DataReaderThread.listTimerFiles(dir);
+
+            for (final FileObject file : files.getFilesToRead(true))
+            {
+                final String path = agentName + "/" + testCaseName + "/" + dir.getName().getBaseName() + "/" + file.getName().getBaseName();
+
+                timerFiles.put(path, file.getPath());
+                fileStates.put(path, ReportSnapshot.FileState.of(file.getPath()));
+                testUserDir.timerFilePaths.add(path);
+
+                // action names are collected across files, so any change requires to read them all again
+                if (!files.clientPerformanceTimerFiles.isEmpty())
+                {
+                    rebuildRequired.add(path);
+                }
+            }
+
+            testUserDirs.add(testUserDir);
+        });
+
+        // determine what needs to be read
+        Map<String, Long> readOffsets = null;
+        if (snapshot.addTimeRange(fromTime, toTime))
+        {
+            readOffsets = snapshot.getReadOffsets(timerFiles, fileStates, rebuildRequired);
+        }
+
+        if (readOffsets == null)
+        {
+            XltLogger.reportLogger.info("Statistics snapshot cannot be updated incrementally, rebuilding it");
+
+            snapshot.clear();
+            snapshot.addTimeRange(fromTime, toTime);
+
+            readOffsets = timerFiles.keySet().stream().collect(Collectors.toMap(path -> path, path -> 0L));
+        }
+
+        XltLogger.reportLogger.info(String.format("Statistics snapshot: %,d of %,d timer files need to be read", readOffsets.size(),
+                                                  timerFiles.size()));
+
+        // read
+        for (final TestUserDir testUserDir : testUserDirs)
+        {
+            final Map<String, DataReaderThread.ReadRange> ranges = new HashMap<>();
+            for (final String path : testUserDir.timerFilePaths)
+            {
+                final Long offset = readOffsets.get(path);
+                if (offset != null)
+                {
+                    // stop where the file state was taken, anything appended meanwhile is read next time
+                    final long end = fileStates.get(path).getReadEnd();
+                    ranges.put(path.substring(path.lastIndexOf('/') + 1),
+                               offset == 0 && end < 0 ? DataReaderThread.ReadRange.ALL : new DataReaderThread.ReadRange(offset, end));
+                }
+            }
+
+            if (!ranges.isEmpty())
+            {
+                readDataRecordsFromTestUserDir(testUserDir.directory, testUserDir.agentName, testUserDir.testCaseName, ranges);
+            }
+        }
+
+        // wait for the data processing to finish
+        dispatcher.waitForDataRecordProcessingToComplete();
+
+        // update the snapshot and save it before its statistics are merged into the report providers
+        snapshot.merge(statisticsProcessor.collectSegments(), statisticsProcessor::createSegment);
+        snapshot.setFiles(fileStates);
+
+        try
+        {
+            snapshot.save(snapshotFile);
+        }
+        catch (final Exception e)
+        {
+            XltLogger.reportLogger.error(String.format("Failed to save statistics snapshot '%s'", snapshotFile), e);
+        }
+
+        statisticsProcessor.mergeSegments(snapshot.getSegments(fromTime, toTime));
+    }
+
+    /**
+     * Opens the statistics snapshot of the input directory, or creates a new one if there is none yet or if the
+     * existing one does not match the current settings.
+     *
+     * @return the snapshot, or <code>null</code> if snapshots cannot be used with the current settings
+     */
+    private ReportSnapshot openSnapshot(final ReportGeneratorConfiguration config, final List<ReportProvider> reportProviders,
+                                        final String... filters)
+    {
+        if (!"file".equals(inputDir.getName().getScheme()))
+        {
+            XltLogger.reportLogger.info("Statistics snapshots are supported for local result directories only");
+            return null;
+        }
+
+        if (config.dataSampleFactor > 1)
+        {
+            XltLogger.reportLogger.info("Statistics snapshots are not supported when sampling data");
+            return null;
+        }
+
+        final List<ReportProvider> dataProviders = reportProviders.stream().filter(ReportProvider::wantsDataRecords)
+                                                                  .collect(Collectors.toList());
+        for (final ReportProvider provider : dataProviders)
+        {
+            if (!(provider instanceof ShardableReportProvider))
+            {
+                XltLogger.reportLogger.info(String.format("Statistics snapshots are not supported by report provider '%s'",
+                                                          provider.getClass().getName()));
+                return null;
+            }
+        }
+
+        final String fingerprint = ReportSnapshot.computeFingerprint(config, dataProviders, filters);
+
+        try
+        {
+            final ReportSnapshot existingSnapshot = ReportSnapshot.load(snapshotFile, fingerprint);
+            if (existingSnapshot != null)
+            {
+                XltLogger.reportLogger.info(String.format("Using statistics snapshot '%s' with %,d segments", snapshotFile,
+                                                          existingSnapshot.getSegmentCount()));
+                return existingSnapshot;
+            }
+        }
+        catch (final Exception e)
+        {
+            XltLogger.reportLogger.warn(String.format("Failed to load statistics snapshot '%s'", snapshotFile), e);
+        }
+
+        XltLogger.reportLogger.info(String.format("Creating statistics snapshot '%s'", snapshotFile));
+
+        return new ReportSnapshot(fingerprint, config.snapshotBucketSize);
+    }
+
+    /**
+     * Passes all the test user directories in the input directory that match the agent and test case filters to the
+     * given visitor.
+     *
+     * @param visitor
+     *            the visitor
+     * @throws Exception
+     *             thrown on I/O-Error
+     */
+    private void visitTestUserDirs(final TestUserDirVisitor visitor) throws Exception
+    {
+        for (final FileObject file : inputDir.getChildren())
+        {
+            if (file.getType() == FileType.FOLDER)
+            {
+                // Check if we need to process the current agent directory
+                final String directoryName = file.getName().getBaseName();
+                if (agentFilter.isAccepted(directoryName))
+                {
+                    visitAgentDir(file, visitor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits the test user directories in the given agent directory.
      *
      * @param agentDir
      *            agent directory
+     * @param visitor
+     *            the visitor
      * @throws IOException
      *             thrown on I/O-Error
      */
-    private void readDataRecordsFromAgentDir(final FileObject agentDir) throws Exception
+    private void visitAgentDir(final FileObject agentDir, final TestUserDirVisitor visitor) throws Exception
     {
         for (final FileObject file : agentDir.getChildren())
         {
@@ -235,23 +487,26 @@ public class DataProcessor
                 final String directoryName = file.getName().getBaseName();
                 if (isSpecialDirectory(directoryName) || testCaseFilter.isAccepted(directoryName))
                 {
-                    readDataRecordsFromTestCaseDir(file, agentDir.getName().getBaseName());
+                    visitTestCaseDir(file, agentDir.getName().getBaseName(), visitor);
                 }
             }
         }
     }
 
     /**
-     * Reads the timer files from the given test case directory.
+     * Visits the test user directories in the given test case directory.
      *
      * @param testCaseDir
      *            test case directory
      * @param agentName
      *            the associated agent
+     * @param visitor
+     *            the visitor
      * @throws IOException
      *             thrown on I/O-Error
      */
-    private void readDataRecordsFromTestCaseDir(final FileObject testCaseDir, final String agentName) throws Exception
+    private void visitTestCaseDir(final FileObject testCaseDir, final String agentName, final TestUserDirVisitor visitor)
+        throws Exception
     {
         final String testCaseName = testCaseDir.getName().getBaseName();
 
@@ -259,7 +514,7 @@ public class DataProcessor
         {
             if (file.getType() == FileType.FOLDER)
             {
-                readDataRecordsFromTestUserDir(file, agentName, testCaseName);
+                visitor.visit(file, agentName, testCaseName);
             }
         }
     }
@@ -273,11 +528,12 @@ public class DataProcessor
      *            the associated agent
      * @param testCaseName
      *            the associated test case
-     * @throws IOException
-     *             thrown on I/O-Error
+     * @param readRanges
+     *            the parts of the timer files to read, keyed by file name (files without a range are skipped), or
+     *            <code>null</code> to read all timer files completely
      */
-    private void readDataRecordsFromTestUserDir(final FileObject testUserDir, final String agentName, final String testCaseName)
-        throws Exception
+    private void readDataRecordsFromTestUserDir(final FileObject testUserDir, final String agentName, final String testCaseName,
+                                                final Map<String, DataReaderThread.ReadRange> readRanges)
     {
         dispatcher.incremementDirectoryCount();
 
@@ -285,13 +541,13 @@ public class DataProcessor
         final String userNumber = testUserDir.getName().getBaseName();
         final DataReaderThread reader = new DataReaderThread(testUserDir, agentName, testCaseName, userNumber,
                                                              totalLinesCounter,
-                                                             dispatcher);
+                                                             dispatcher, dataReaderExecutor, readRanges);
         dataReaderExecutor.execute(reader);
     }
 
     /**
      * Determines whether the given directory name denotes a special directory. Special directories are
-     * "Agent-JVM-Monitor" and "CustomSampler".
+     * "Agent-JVM-Monitor", "CustomSampler", and "Open-Workload-Monitor".
      *
      * @param directoryName
      *            the directory to check
@@ -300,6 +556,7 @@ public class DataProcessor
     private boolean isSpecialDirectory(String directoryName)
     {
         return CustomSamplersRunner.RESULT_DIRECTORY_NAME.equals(directoryName) ||
-               JvmResourceUsageDataGenerator.RESULT_DIRECTORY_NAME.equals(directoryName);
+               JvmResourceUsageDataGenerator.RESULT_DIRECTORY_NAME.equals(directoryName) ||
+               OpenWorkloadExecutionTimer.RESULT_DIRECTORY_NAME.equals(directoryName);
     }
 }
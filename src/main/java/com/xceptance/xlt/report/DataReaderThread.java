@@ -16,19 +16,29 @@
 package com.xceptance.xlt.report;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.GZIPInputStream;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileType;
+import org.apache.commons.vfs2.RandomAccessContent;
+import org.apache.commons.vfs2.util.RandomAccessMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.xceptance.common.io.BinaryRecordReader;
+import com.xceptance.common.io.MappedLineReader;
 import com.xceptance.common.io.XltBufferedLineReader;
+import com.xceptance.common.util.zip.BlockGzipIndex;
 import com.xceptance.xlt.api.util.SimpleArrayList;
 import com.xceptance.xlt.api.util.XltCharBuffer;
 import com.xceptance.xlt.common.XltConstants;
@@ -38,6 +48,179 @@ import com.xceptance.xlt.common.XltConstants;
  */
 class DataReaderThread implements Runnable
 {
+    /**
+     * The timer files found in a test user directory, classified by their type.
+     */
+    static class TimerFiles
+    {
+        /**
+         * The regular timer files.
+         */
+        final List<FileObject> regularTimerFiles = new ArrayList<FileObject>();
+
+        /**
+         * The binary timer files.
+         */
+        final List<FileObject> binaryTimerFiles = new ArrayList<FileObject>();
+
+        /**
+         * The client performance timer files.
+         */
+        final List<FileObject> clientPerformanceTimerFiles = new ArrayList<FileObject>();
+
+        /**
+         * Whether the binary timer files are read instead of the regular timer files. Determined on first use.
+         */
+        private Boolean useBinaryTimerFiles;
+
+        /**
+         * Returns all the files that are actually read.
+         *
+         * @param incremental
+         *            whether the files are read incrementally
+         * @return the files to read
+         * @see #useBinaryTimerFiles(boolean)
+         */
+        List<FileObject> getFilesToRead(final boolean incremental)
+        {
+            final List<FileObject> files = new ArrayList<FileObject>(useBinaryTimerFiles(incremental) ? binaryTimerFiles
+                                                                                                       : regularTimerFiles);
+            files.addAll(clientPerformanceTimerFiles);
+
+            return files;
+        }
+
+        /**
+         * Returns whether the binary timer files are read instead of the regular timer files. The binary timer files of
+         * a test user directory are written by the same session (or converted from the same CSV files) as the regular
+         * timer files in that directory. If both exist, the binary files are used only if they are complete, i.e. they
+         * end with the trailer written when the last writer was closed and all writers before it were closed properly,
+         * too. A binary file that was truncated or whose writer did not get the chance to finish must not replace
+         * complete CSV data.
+         * <p>
+         * When reading incrementally, the CSV files are always preferred, as only these can be read from where the last
+         * run stopped. Otherwise, any change to a binary file would require to read everything again.
+         *
+         * @param incremental
+         *            whether the files are read incrementally
+         * @return whether to read the binary timer files
+         */
+        boolean useBinaryTimerFiles(final boolean incremental)
+        {
+            if (incremental && !regularTimerFiles.isEmpty())
+            {
+                return false;
+            }
+
+            if (useBinaryTimerFiles == null)
+            {
+                useBinaryTimerFiles = !binaryTimerFiles.isEmpty() && (regularTimerFiles.isEmpty() || isBinaryDataComplete());
+            }
+
+            return useBinaryTimerFiles;
+        }
+
+        /**
+         * Checks whether all binary timer files were closed properly by their writers, which is recorded in the
+         * trailer at the end of each file.
+         */
+        private boolean isBinaryDataComplete()
+        {
+            for (final FileObject file : binaryTimerFiles)
+            {
+                try
+                {
+                    if (!isComplete(file))
+                    {
+                        LOG.warn(String.format("Binary timer file '%s' is incomplete, reading the CSV timer files instead", file));
+                        return false;
+                    }
+                }
+                catch (final Exception ex)
+                {
+                    LOG.warn(String.format("Binary timer file '%s' is incomplete or corrupt (%s), reading the CSV timer files instead", file,
+                                           ex));
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Checks whether the given binary timer file is complete. Only the trailer is read from uncompressed files,
+         * while compressed files need to be decompressed completely.
+         */
+        private static boolean isComplete(final FileObject file) throws IOException
+        {
+            if ("gz".equalsIgnoreCase(file.getName().getExtension()))
+            {
+                try (final InputStream in = openTimerFile(file); final BinaryRecordReader reader = new BinaryRecordReader(in))
+                {
+                    return reader.isComplete();
+                }
+            }
+
+            final long size = file.getContent().getSize();
+            if (size < BinaryRecordReader.TRAILER_LENGTH)
+            {
+                return false;
+            }
+
+            final byte[] trailer = new byte[BinaryRecordReader.TRAILER_LENGTH];
+            try (final RandomAccessContent content = file.getContent().getRandomAccessContent(RandomAccessMode.READ))
+            {
+                content.seek(size - trailer.length);
+                content.readFully(trailer);
+            }
+
+            return BinaryRecordReader.getRecordCount(trailer) >= 0;
+        }
+    }
+
+    /**
+     * Opens the given timer file for reading and decompresses its content if necessary.
+     *
+     * @param file
+     *            the timer file
+     * @return the stream with the uncompressed data
+     * @throws IOException
+     *             thrown on I/O-Error
+     */
+    private static InputStream openTimerFile(final FileObject file) throws IOException
+    {
+        final InputStream in = file.getContent().getInputStream();
+
+        return "gz".equalsIgnoreCase(file.getName().getExtension()) ? new GZIPInputStream(in, 1024 * 16) : in;
+    }
+
+    /**
+     * The part of a timer file to read.
+     */
+    static final class ReadRange
+    {
+        /**
+         * The whole file.
+         */
+        static final ReadRange ALL = new ReadRange(0, -1);
+
+        /**
+         * The offset to start reading at.
+         */
+        final long start;
+
+        /**
+         * The offset to stop reading at, or <code>-1</code> to read up to the end of the file.
+         */
+        final long end;
+
+        ReadRange(final long start, final long end)
+        {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
     /**
      * Class logger.
      */
@@ -79,6 +262,17 @@ class DataReaderThread implements Runnable
      */
     private final Dispatcher dispatcher;
 
+    /**
+     * The executor to hand off parts of large block-compressed timer files to.
+     */
+    private final Executor readerExecutor;
+
+    /**
+     * The parts of the timer files to read, keyed by file name, or <code>null</code> to read all timer files
+     * completely. Files without a range are skipped.
+     */
+    private final Map<String, ReadRange> readRanges;
+
     /**
      * Constructor.
      *
@@ -94,16 +288,48 @@ class DataReaderThread implements Runnable
      *            the global line counter
      * @param dispatcher
      *            the dispatcher that coordinates result processing
+     * @param readerExecutor
+     *            the executor to hand off parts of large block-compressed timer files to
      */
     public DataReaderThread(final FileObject directory, final String agentName, final String testCaseName, final String userNumber,
-                            final AtomicLong totalLineCounter, final Dispatcher dispatcher)
+                            final AtomicLong totalLineCounter, final Dispatcher dispatcher, final Executor readerExecutor)
     {
+        this(directory, agentName, testCaseName, userNumber, totalLineCounter, dispatcher, readerExecutor, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param directory
+     *            the directory with the test user's result files
+     * @param agentName
+     *            the name of the agent the test user was run on
+     * @param testCaseName
+     *            the name of the test case the test user was executing
+     * @param userNumber
+     *            the instance number of the test user.
+     * @param totalLineCounter
+     *            the global line counter
+     * @param dispatcher
+     *            the dispatcher that coordinates result processing
+     * @param readerExecutor
+     *            the executor to hand off parts of large block-compressed timer files to
+     * @param readRanges
+     *            the parts of the timer files to read, keyed by file name (files without a range are skipped), or
+     *            <code>null</code> to read all timer files completely
+     */
+    public DataReaderThread(final FileObject directory, final String agentName, final String testCaseName, final String userNumber,
+                            final AtomicLong totalLineCounter, final Dispatcher dispatcher, final Executor readerExecutor,
+                            final Map<String, ReadRange> readRanges)
+    {
+        this.readRanges = readRanges;
         this.directory = directory;
         this.agentName = agentName;
         this.testCaseName = testCaseName;
         this.userNumber = userNumber;
         this.totalLineCounter = totalLineCounter;
         this.dispatcher = dispatcher;
+        this.readerExecutor = readerExecutor;
     }
 
     /**
@@ -137,8 +363,55 @@ class DataReaderThread implements Runnable
      */
     private void readLogsFromTestUserDir() throws Exception
     {
-        final ArrayList<FileObject> regularTimerFiles = new ArrayList<FileObject>();
-        final ArrayList<FileObject> clientPerformanceTimerFiles = new ArrayList<FileObject>();
+        final TimerFiles timerFiles = listTimerFiles(directory);
+
+        final List<FileObject> regularTimerFiles = timerFiles.regularTimerFiles;
+        final List<FileObject> binaryTimerFiles = timerFiles.binaryTimerFiles;
+        final List<FileObject> clientPerformanceTimerFiles = timerFiles.clientPerformanceTimerFiles;
+
+        // check whether we have client performance timer files at all
+        boolean haveClientPerformanceTimerFiles = !clientPerformanceTimerFiles.isEmpty();
+
+        // process regular timer files first (to collect action names)
+        if (!timerFiles.useBinaryTimerFiles(readRanges != null))
+        {
+            for (final FileObject file : regularTimerFiles)
+            {
+                // collect action names only if we have client performance data
+                readTimerLog(file, haveClientPerformanceTimerFiles, false);
+            }
+        }
+        else
+        {
+            // the binary files hold the same data as the CSV files, but are much cheaper to read
+            for (final FileObject file : binaryTimerFiles)
+            {
+                readBinaryTimerLog(file, haveClientPerformanceTimerFiles, false);
+            }
+        }
+
+        // process client performance timer files *after* the regular timer files
+        if (haveClientPerformanceTimerFiles)
+        {
+            for (final FileObject file : clientPerformanceTimerFiles)
+            {
+                readTimerLog(file, false, true);
+            }
+        }
+    }
+
+    /**
+     * Finds and classifies all readable timer files in the given test user directory.
+     *
+     * @param directory
+     *            the test user directory
+     * @return the timer files
+     * @throws IOException
+     *             thrown on I/O-Error
+     */
+    static TimerFiles listTimerFiles(final FileObject directory) throws IOException
+    {
+        final TimerFiles timerFiles = new TimerFiles();
 
         // get all readable files
         for (final FileObject file : directory.getChildren())
@@ -150,35 +423,36 @@ class DataReaderThread implements Runnable
                 if (XltConstants.TIMER_FILENAME_PATTERNS.stream().anyMatch(r -> r.asPredicate().test(fileName)))
                 {
                     // remember regular timer files for later processing
-                    regularTimerFiles.add(file);
+                    timerFiles.regularTimerFiles.add(file);
+                }
+                // timers.bin and timers.bin.gz
+                else if (XltConstants.TIMER_BINARY_FILENAME_PATTERNS.stream().anyMatch(r -> r.asPredicate().test(fileName)))
+                {
+                    // remember binary timer files for later processing
+                    timerFiles.binaryTimerFiles.add(file);
                 }
                 // timer-wd-<sessionid>.csv[.gz] (for backward compatibility with XLT < 4.8)
                 else if (XltConstants.CPT_TIMER_FILENAME_PATTERNS.stream().anyMatch(r -> r.asPredicate().test(fileName)))
                 {
                     // remember client performance timer files for later processing
-                    clientPerformanceTimerFiles.add(file);
+                    timerFiles.clientPerformanceTimerFiles.add(file);
                 }
             }
         }
 
-        // check whether we have client performance timer files at all
-        boolean haveClientPerformanceTimerFiles = !clientPerformanceTimerFiles.isEmpty();
-
-        // process regular timer files first (to collect action names)
-        for (final FileObject file : regularTimerFiles)
-        {
-            // collect action names only if we have client performance data
-            readTimerLog(file, haveClientPerformanceTimerFiles, false);
-        }
+        return timerFiles;
+    }
 
-        // process client performance timer files *after* the regular timer files
-        if (haveClientPerformanceTimerFiles)
-        {
-            for (final FileObject file : clientPerformanceTimerFiles)
-            {
-                readTimerLog(file, false, true);
-            }
-        }
+    /**
+     * Returns the part of the given file to read.
+     *
+     * @param file
+     *            the file
+     * @return the range, or <code>null</code> if the file is to be skipped
+     */
+    private ReadRange getReadRange(final FileObject file)
+    {
+        return readRanges == null ? ReadRange.ALL : readRanges.get(file.getName().getBaseName());
     }
 
     /**
@@ -197,19 +471,82 @@ class DataReaderThread implements Runnable
         // System.out.printf("Reading file '%s' ...", file);
         // LOG.info(String.format("Reading file '%s' ...", file));
 
+        final ReadRange range = getReadRange(file);
+        if (range == null)
+        {
+            // already known
+            return;
+        }
+
         final boolean isCompressed = "gz".equalsIgnoreCase(file.getName().getExtension());
-        final int chunkSize = dispatcher.chunkSize;
+
+        // only a part of the file needs to be read, typically the data appended since the last time, but not any data
+        // appended while reading
+        if (range != ReadRange.ALL)
+        {
+            try (final InputStream in = file.getContent().getInputStream())
+            {
+                IOUtils.skipFully(in, range.start);
+                readTimerLog(file, range.end < 0 ? in : new BoundedInputStream(in, range.end - range.start), 1, collectActionNames,
+                             adjustTimerName);
+            }
+            catch (final Exception ex)
+            {
+                LOG.error(String.format("Failed to read timer input file '%s' starting at offset %,d", file, range.start), ex);
+            }
+
+            return;
+        }
+
+        // local uncompressed files can be mapped into memory, which saves decoding and copying
+        if (!isCompressed && dispatcher.memoryMappedReading && "file".equals(file.getName().getScheme()))
+        {
+            readMappedTimerLog(file, collectActionNames, adjustTimerName);
+            return;
+        }
+
+        // local block-compressed files can be decompressed in parallel, but only if the order of lines does not matter
+        if (isCompressed && dispatcher.parallelDecompression && !collectActionNames && !adjustTimerName &&
+            "file".equals(file.getName().getScheme()) && readSplitTimerLog(file))
+        {
+            return;
+        }
 
         // VFS has no performance impact, so we keep that for the moment
-        try (final XltBufferedLineReader reader = new XltBufferedLineReader(new InputStreamReader(isCompressed ? new GZIPInputStream(file.getContent()
-                                                                                                                                         .getInputStream(),
-                                                                                                                                     1024 * 16)
-                                                                                                               : file.getContent()
-                                                                                                                     .getInputStream(),
-                                                                                                  XltConstants.UTF8_ENCODING)))
+        try (final InputStream in = file.getContent().getInputStream())
+        {
+            readTimerLog(file, isCompressed ? new GZIPInputStream(in, 1024 * 16) : in, 1, collectActionNames, adjustTimerName);
+        }
+        catch (final Exception ex)
+        {
+            LOG.error(String.format("Failed to read timer input file '%s'", file), ex);
+        }
+    }
+
+    /**
+     * Reads the lines from the given stream and delivers them in chunks to the dispatcher.
+     *
+     * @param file
+     *            the file the stream belongs to
+     * @param in
+     *            the stream with the uncompressed data
+     * @param firstLineNumber
+     *            the line number of the first line in the stream
+     * @param collectActionNames
+     *            whether action names should be collected
+     * @param adjustTimerName
+     *            whether timer names should be adjusted
+     */
+    private void readTimerLog(final FileObject file, final InputStream in, final long firstLineNumber, final boolean collectActionNames,
+                              final boolean adjustTimerName)
+        throws Exception
+    {
+        final int chunkSize = dispatcher.chunkSize;
+
+        try (final XltBufferedLineReader reader = new XltBufferedLineReader(new InputStreamReader(in, XltConstants.UTF8_ENCODING)))
         {
             List<XltCharBuffer> lines = new SimpleArrayList<>(chunkSize);
-            int baseLineNumber = 1;  // let line numbering start at 1
+            long baseLineNumber = firstLineNumber;
             int linesRead = 0;
 
             // read the file line-by-line
@@ -248,9 +585,190 @@ class DataReaderThread implements Runnable
                 totalLineCounter.addAndGet(linesRead);
             }
         }
+    }
+
+    /**
+     * Reads the given local timer file in parallel if it was written as block GZIP with more than one member. The
+     * first member is read by this thread, all the others are handed off to the reader executor.
+     *
+     * @param file
+     *            the file to read
+     * @return <code>true</code> if the file has been read, <code>false</code> if it needs to be read sequentially
+     */
+    private boolean readSplitTimerLog(final FileObject file)
+    {
+        final BlockGzipIndex index;
+        try
+        {
+            index = BlockGzipIndex.read(file.getPath());
+        }
+        catch (final Exception ex)
+        {
+            LOG.error(String.format("Failed to index timer input file '%s'", file), ex);
+            return false;
+        }
+
+        if (index == null || index.getMembers().size() < 2)
+        {
+            return false;
+        }
+
+        final List<BlockGzipIndex.Member> members = index.getMembers();
+        for (int i = 1; i < members.size(); i++)
+        {
+            final BlockGzipIndex.Member member = members.get(i);
+
+            dispatcher.beginSplitReading();
+            readerExecutor.execute(() -> {
+                try
+                {
+                    readTimerLogMember(file, index, member);
+                }
+                finally
+                {
+                    dispatcher.finishedSplitReading();
+                }
+            });
+        }
+
+        readTimerLogMember(file, index, members.get(0));
+
+        return true;
+    }
+
+    /**
+     * Reads a single member of a block-compressed timer file.
+     *
+     * @param file
+     *            the file
+     * @param index
+     *            the index of the file
+     * @param member
+     *            the member to read
+     */
+    private void readTimerLogMember(final FileObject file, final BlockGzipIndex index, final BlockGzipIndex.Member member)
+    {
+        try (final InputStream in = index.open(member))
+        {
+            readTimerLog(file, in, member.firstLine, false, false);
+        }
+        catch (final Exception ex)
+        {
+            LOG.error(String.format("Failed to read timer input file '%s' starting at line %,d", file, member.firstLine), ex);
+        }
+    }
+
+    /**
+     * Reads the given local timer file by memory-mapping it.
+     *
+     * @param file
+     *            the file to read
+     * @param collectActionNames
+     *            whether action names should be collected
+     * @param adjustTimerName
+     *            whether timer names should be adjusted
+     */
+    private void readMappedTimerLog(final FileObject file, final boolean collectActionNames, final boolean adjustTimerName)
+    {
+        final int chunkSize = dispatcher.chunkSize;
+
+        try (final MappedLineReader reader = new MappedLineReader(file.getPath()))
+        {
+            long baseLineNumber = 1;  // let line numbering start at 1
+
+            while (true)
+            {
+                final List<XltCharBuffer> lines = new SimpleArrayList<>(chunkSize);
+
+                final int linesRead = reader.readLines(lines, chunkSize);
+                if (linesRead == 0)
+                {
+                    break;
+                }
+
+                // deliver to dispatcher, this might block
+                dispatcher.addReadData(new DataChunk(lines, baseLineNumber, file, agentName, testCaseName, userNumber, collectActionNames,
+                                                     adjustTimerName, actionNames));
+
+                baseLineNumber += linesRead;
+                totalLineCounter.addAndGet(linesRead);
+            }
+        }
         catch (final Exception ex)
         {
             LOG.error(String.format("Failed to read timer input file '%s'", file), ex);
         }
     }
+
+    /**
+     * Reads the given binary timer file record by record.
+     *
+     * @param file
+     *            the file to read
+     * @param collectActionNames
+     *            whether action names should be collected
+     * @param adjustTimerName
+     *            whether timer names should be adjusted
+     */
+    private void readBinaryTimerLog(final FileObject file, final boolean collectActionNames, final boolean adjustTimerName)
+    {
+        if (getReadRange(file) == null)
+        {
+            // already known
+            return;
+        }
+
+        final boolean isCompressed = "gz".equalsIgnoreCase(file.getName().getExtension());
+        final int chunkSize = dispatcher.chunkSize;
+
+        List<List<XltCharBuffer>> records = new SimpleArrayList<>(chunkSize);
+        long baseLineNumber = 1;  // let record numbering start at 1
+
+        try (final InputStream in = file.getContent().getInputStream();
+             final BinaryRecordReader reader = new BinaryRecordReader(isCompressed ? new GZIPInputStream(in, 1024 * 16) : in))
+        {
+            // read the file record-by-record
+            List<XltCharBuffer> record;
+            while ((record = reader.readRecord()) != null)
+            {
+                records.add(record);
+
+                // have we filled the chunk?
+                if (records.size() == chunkSize)
+                {
+                    // the chunk is full -> deliver it, this might block
+                    dispatcher.addReadData(DataChunk.ofRecords(records, baseLineNumber, file, agentName, testCaseName, userNumber,
+                                                               collectActionNames, adjustTimerName, actionNames));
+                    baseLineNumber += chunkSize;
+                    totalLineCounter.addAndGet(chunkSize);
+
+                    // start a new chunk
+                    records = new SimpleArrayList<>(chunkSize);
+                }
+            }
+        }
+        catch (final Exception ex)
+        {
+            // a truncated file (agent killed while writing) still has valid records up to this point
+            LOG.error(String.format("Failed to read binary timer input file '%s' after record %,d", file,
+                                    baseLineNumber + records.size() - 1),
+                      ex);
+        }
+
+        // deliver any remaining records
+        final int remaining = records.size();
+        if (remaining > 0)
+        {
+            try
+            {
+                dispatcher.addReadData(DataChunk.ofRecords(records, baseLineNumber, file, agentName, testCaseName, userNumber,
+                                                           collectActionNames, adjustTimerName, actionNames));
+                totalLineCounter.addAndGet(remaining);
+            }
+            catch (final InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 }
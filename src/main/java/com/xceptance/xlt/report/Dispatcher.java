@@ -57,6 +57,11 @@ public class Dispatcher
      */
     private final AtomicInteger totalDirectories = new AtomicInteger();
 
+    /**
+     * The number of split parts of large timer files that still need to be read.
+     */
+    private final SynchronizingCounter remainingSplitReads = new SynchronizingCounter();
+
     /**
      * The number of chunks that still need to be processed.
      */
@@ -72,6 +77,16 @@ public class Dispatcher
      */
     public final int chunkSize;
 
+    /**
+     * Whether local, uncompressed timer files are to be read via memory-mapping
+     */
+    public final boolean memoryMappedReading;
+
+    /**
+     * Whether the members of local block-compressed timer files are to be decompressed in parallel
+     */
+    public final boolean parallelDecompression;
+
     /**
      * Our progress bar
      */
@@ -95,6 +110,8 @@ public class Dispatcher
         readDataQueue = new LinkedBlockingQueue<>(config.threadQueueLength);
 
         chunkSize = config.threadQueueBucketSize;
+        memoryMappedReading = config.readerMemoryMapped;
+        parallelDecompression = config.readerParallelDecompression;
 
         this.statisticsProcessor = statisticsProcessor;
     }
@@ -130,6 +147,23 @@ public class Dispatcher
         progressBar.step();
     }
 
+    /**
+     * Indicates that a reader thread has handed off a part of a file to another reader thread. Must be called before
+     * the handing reader thread calls {@link #finishedReading()}.
+     */
+    public void beginSplitReading()
+    {
+        remainingSplitReads.increment();
+    }
+
+    /**
+     * Indicates that a reader thread has finished reading a part of a file.
+     */
+    public void finishedSplitReading()
+    {
+        remainingSplitReads.decrement();
+    }
+
     /**
      * Adds a new chunk of lines for further processing. Called by a reader thread.
      *
@@ -181,6 +215,7 @@ public class Dispatcher
     {
         // wait for the readers to complete
         remainingDirectories.awaitZero();
+        remainingSplitReads.awaitZero();
 
         // wait for the data processor thread to finish data record chunks
         openDataChunkCount.awaitZero();
@@ -43,6 +43,7 @@ import com.xceptance.xlt.engine.util.TimerUtils;
 import com.xceptance.xlt.mastercontroller.TestCaseLoadProfileConfiguration;
 import com.xceptance.xlt.mastercontroller.TestLoadProfileConfiguration;
 import com.xceptance.xlt.report.external.ExternalReportGenerator;
+import com.xceptance.xlt.report.mergerules.RequestProcessingRuleStatistics;
 import com.xceptance.xlt.report.util.ConcurrentUsersTable;
 import com.xceptance.xlt.report.util.JFreeChartUtils;
 import com.xceptance.xlt.report.util.ReportUtils;
@@ -284,6 +285,7 @@ public class ReportGenerator
         finally
         {
             ConcurrentUsersTable.getInstance().clear();
+            RequestProcessingRuleStatistics.getInstance().clear();
         }
     }
 
@@ -666,8 +668,9 @@ public class ReportGenerator
         {
             XltLogger.reportLogger.info(String.format("XML data file: %s", inputXmlFile));
 
-            // ok, we want to avoid high memory usage
-            TaskManager.getInstance().setMaximumThreadCount(1);
+            // ok, we want to avoid high memory usage, so each additional thread is opt-in as it holds its own copy of
+            // the report XML in memory
+            TaskManager.getInstance().setMaximumThreadCount(config.transformerThreadCount);
 
             TaskManager.getInstance().startProgress("Creating");
             reportTransformer.run(inputXmlFile, outputDir);
@@ -147,6 +147,8 @@ public class ReportGeneratorConfiguration extends AbstractConfiguration implemen
 
     private static final String PROP_CHARTS_HEIGHT = PROP_CHARTS_PREFIX + "height";
 
+    private static final String PROP_CHARTS_JSON_DATA = PROP_CHARTS_PREFIX + "jsonData";
+
     private static final String PROP_CHARTS_MOV_AVG_PERCENTAGE = PROP_CHARTS_PREFIX + "movingAverage.percentageOfValues";
 
     private static final String PROP_CHARTS_WIDTH = PROP_CHARTS_PREFIX + "width";
@@ -164,9 +166,16 @@ public class ReportGeneratorConfiguration extends AbstractConfiguration implemen
     // Special settings for profiling and debugging
     private static final String PROP_PARSER_THREAD_COUNT = PROP_PREFIX + "parser.threads";
     private static final String PROP_READER_THREAD_COUNT = PROP_PREFIX + "reader.threads";
+    private static final String PROP_TRANSFORMER_THREAD_COUNT = PROP_PREFIX + "transformer.threads";
     private static final String PROP_THREAD_QUEUE_SIZE = PROP_PREFIX + "queue.bucketsize";
     private static final String PROP_THREAD_QUEUE_LENGTH = PROP_PREFIX + "queue.length";
     private static final String PROP_DATA_SAMPLE_FACTOR = PROP_PREFIX + "data.sampleFactor";
+    private static final String PROP_READER_MEMORY_MAPPED = PROP_PREFIX + "reader.memoryMapped";
+    private static final String PROP_READER_PARALLEL_DECOMPRESSION = PROP_PREFIX + "reader.parallelDecompression";
+    private static final String PROP_STATISTICS_SHARDED = PROP_PREFIX + "statistics.sharded";
+    private static final String PROP_PARSER_RULE_CACHE_SIZE = PROP_PREFIX + "parser.ruleCacheSize";
+    public static final String PROP_SNAPSHOTS_ENABLED = PROP_PREFIX + "snapshots.enabled";
+    private static final String PROP_SNAPSHOTS_BUCKET_SIZE = PROP_PREFIX + "snapshots.bucketSize";
 
     private static final String PROP_TRANSFORMATIONS_PREFIX = PROP_PREFIX + "transformations.";
 
@@ -244,11 +253,26 @@ public class ReportGeneratorConfiguration extends AbstractConfiguration implemen
 
     public final int readerThreadCount;
     public final int parserThreadCount;
+    public final int transformerThreadCount;
     public final int threadQueueBucketSize;
     public final int threadQueueLength;
 
     public final int dataSampleFactor;
 
+    public final boolean readerMemoryMapped;
+
+    public final boolean readerParallelDecompression;
+
+    public final boolean statisticsSharded;
+
+    public final boolean chartsJsonData;
+
+    public final int requestProcessingRuleCacheSize;
+
+    public final boolean snapshotsEnabled;
+
+    public final long snapshotBucketSize;
+
     private final ChartScale chartScaleMode;
 
     private final ChartCappingInfo transactionChartCappingInfo;
@@ -433,12 +457,21 @@ public class ReportGeneratorConfiguration extends AbstractConfiguration implemen
         chartsWidth = getIntProperty(PROP_CHARTS_WIDTH, 900);
         chartsHeight = getIntProperty(PROP_CHARTS_HEIGHT, 300);
         movingAveragePoints = getIntProperty(PROP_CHARTS_MOV_AVG_PERCENTAGE, 5);
+        chartsJsonData = getBooleanProperty(PROP_CHARTS_JSON_DATA, false);
 
         readerThreadCount = Math.max(1, getIntProperty(PROP_READER_THREAD_COUNT, Runtime.getRuntime().availableProcessors()));
         parserThreadCount = Math.max(1, getIntProperty(PROP_PARSER_THREAD_COUNT, Runtime.getRuntime().availableProcessors()));
+        transformerThreadCount = Math.max(1, getIntProperty(PROP_TRANSFORMER_THREAD_COUNT, 1));
 
         dataSampleFactor = Math.max(1, getIntProperty(PROP_DATA_SAMPLE_FACTOR, 1));
 
+        readerMemoryMapped = getBooleanProperty(PROP_READER_MEMORY_MAPPED, false);
+        readerParallelDecompression = getBooleanProperty(PROP_READER_PARALLEL_DECOMPRESSION, false);
+        statisticsSharded = getBooleanProperty(PROP_STATISTICS_SHARDED, false);
+        requestProcessingRuleCacheSize = Math.max(0, getIntProperty(PROP_PARSER_RULE_CACHE_SIZE, 10000));
+        snapshotsEnabled = getBooleanProperty(PROP_SNAPSHOTS_ENABLED, false);
+        snapshotBucketSize = Math.max(1, getIntProperty(PROP_SNAPSHOTS_BUCKET_SIZE, 600)) * 1000L;
+
         threadQueueBucketSize = Math.max(1, getIntProperty(PROP_THREAD_QUEUE_SIZE, Dispatcher.DEFAULT_QUEUE_CHUNK_SIZE));
         threadQueueLength = Math.max(1, getIntProperty(PROP_THREAD_QUEUE_LENGTH, Dispatcher.DEFAULT_QUEUE_LENGTH));
 
@@ -0,0 +1,709 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import com.xceptance.common.util.ProductInformation;
+import com.xceptance.xlt.api.report.ReportProvider;
+
+/**
+ * The aggregated statistics of a results directory, persisted next to the results so that subsequent report runs do
+ * not need to parse all the timer files again.
+ * <p>
+ * The statistics are kept in time segments, one set of {@link ShardableReportProvider shards} per segment. Segments
+ * are aligned to a fixed bucket size, but are split further at any time range boundary ("cut") a report was ever
+ * requested for. This way, a report for a time range can be served exactly by merging the segments inside that range.
+ * <p>
+ * The snapshot also remembers the state of each timer file read so far. Files that did not change are skipped, new
+ * files are read completely, and uncompressed CSV files that were only appended to are read from their previous end
+ * on. Any other change requires a full rebuild. As agents may still write to the CSV files, these are read up to the
+ * end of the last complete line only, and the snapshot remembers exactly this position.
+ *
+ * @since 8.1.0
+ */
+class ReportSnapshot implements Serializable
+{
+    /**
+     * The name of the snapshot file in the results directory.
+     */
+    static final String FILE_NAME = "report-snapshot.bin";
+
+    /**
+     * The format marker written in front of the snapshot data.
+     */
+    private static final String FORMAT = "XLT-REPORT-SNAPSHOT-2";
+
+    /**
+     * The number of bytes at the end of a file to checksum for append detection.
+     */
+    private static final int TAIL_SIZE = 4096;
+
+    /**
+     * The classes that may be deserialized from a snapshot file, together with limits for the object graph. Only the
+     * report providers and their statistics helpers are allowed plus exactly those JDK and Commons Math classes they
+     * use as state. Arrays are checked by their component type, arrays of primitives are always accepted.
+     */
+    private static final ObjectInputFilter CLASS_FILTER = ObjectInputFilter.Config.createFilter(String.join(";", //
+                                                                                                            "maxdepth=50",
+                                                                                                            "maxarray=16777216",
+                                                                                                            "com.xceptance.xlt.report.**",
+                                                                                                            "com.xceptance.common.collection.FastHashMap",
+                                                                                                            "com.xceptance.xlt.api.util.XltCharBuffer",
+                                                                                                            "com.xceptance.xlt.engine.resultbrowser.RequestHistory$DumpMode",
+                                                                                                            "java.io.File",
+                                                                                                            "java.lang.Object",
+                                                                                                            "java.lang.Number",
+                                                                                                            "java.lang.Enum",
+                                                                                                            "java.lang.Integer",
+                                                                                                            "java.lang.Long",
+                                                                                                            "java.lang.Double",
+                                                                                                            "java.math.BigInteger",
+                                                                                                            "java.math.BigDecimal",
+                                                                                                            "java.util.ArrayList",
+                                                                                                            "java.util.BitSet",
+                                                                                                            "java.util.HashMap",
+                                                                                                            "java.util.LinkedHashMap",
+                                                                                                            "java.util.Map$Entry",
+                                                                                                            "java.util.TreeMap",
+                                                                                                            "java.util.TreeSet",
+                                                                                                            "org.apache.commons.math3.analysis.interpolation.NevilleInterpolator",
+                                                                                                            "org.apache.commons.math3.stat.descriptive.rank.PSquarePercentile",
+                                                                                                            "org.apache.commons.math3.stat.descriptive.rank.PSquarePercentile$*",
+                                                                                                            "org.apache.commons.math3.util.ResizableDoubleArray",
+                                                                                                            "org.apache.commons.math3.util.ResizableDoubleArray$ExpansionMode",
+                                                                                                            "!*"));
+
+    /**
+     * The names of the properties that affect the rendering of the report only, but not the statistics.
+     */
+    private static final List<String> RENDER_ONLY_PROPERTIES = List.of("transformations.", "reports", "linkToResultBrowsers",
+                                                                       "resultsBaseUri", "maskPropertiesRegex", "charts.height",
+                                                                       "charts.compressionFactor", "charts.scale", "charts.cappingMode",
+                                                                       "charts.cappingValue", "charts.cappingMethod",
+                                                                       "charts.movingAverage.", "requests.table.colorization.",
+                                                                       "parser.threads", "reader.", "queue.", "statistics.sharded",
+                                                                       "snapshots.enabled");
+
+    /**
+     * The state of a timer file at the time it was read.
+     */
+    static class FileState implements Serializable
+    {
+        /**
+         * The number of bytes to read. For files that can be appended to, this is the end of the last complete line,
+         * as the file might still be written to while it is read. Otherwise, it is the file size.
+         */
+        final long size;
+
+        /**
+         * The last modification time.
+         */
+        final long lastModified;
+
+        /**
+         * The checksum of the last bytes to read, or <code>-1</code> if there are none or if data cannot be appended
+         * to this file.
+         */
+        final long tailChecksum;
+
+        /**
+         * Whether data can be appended to this file.
+         */
+        final boolean appendable;
+
+        FileState(final long size, final long lastModified, final long tailChecksum, final boolean appendable)
+        {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.tailChecksum = tailChecksum;
+            this.appendable = appendable;
+        }
+
+        /**
+         * Determines the current state of the given file.
+         *
+         * @param file
+         *            the file
+         * @return the state
+         * @throws IOException
+         *             if the file cannot be read
+         */
+        static FileState of(final Path file) throws IOException
+        {
+            // determine the modification time first, so any data appended afterwards is considered new next time
+            final long lastModified = Files.getLastModifiedTime(file).toMillis();
+            final boolean appendable = isAppendable(file);
+
+            if (appendable)
+            {
+                final long size = getLineEnd(file, Files.size(file));
+
+                return new FileState(size, lastModified, getTailChecksum(file, size), true);
+            }
+
+            return new FileState(Files.size(file), lastModified, -1, false);
+        }
+
+        /**
+         * Returns the offset to stop reading the file at.
+         *
+         * @return the offset, or <code>-1</code> to read up to the end of the file
+         */
+        long getReadEnd()
+        {
+            return appendable ? size : -1;
+        }
+
+        /**
+         * Returns whether data can be appended to the given file without invalidating the data read so far. This is
+         * the case for uncompressed CSV files only.
+         */
+        private static boolean isAppendable(final Path file)
+        {
+            return file.getFileName().toString().endsWith(".csv");
+        }
+    }
+
+    /**
+     * The statistics of a single time segment.
+     */
+    static class Segment implements Serializable
+    {
+        /**
+         * The shards holding the statistics, one per shardable report provider.
+         */
+        final ShardableReportProvider[] shards;
+
+        /**
+         * Creation time of the first data record in this segment.
+         */
+        long minimumTime = Long.MAX_VALUE;
+
+        /**
+         * Creation time of the last data record in this segment.
+         */
+        long maximumTime = 0;
+
+        Segment(final ShardableReportProvider[] shards)
+        {
+            this.shards = shards;
+        }
+
+        /**
+         * Merges the statistics of the given segment into this segment. The other segment must not be used afterwards.
+         *
+         * @param other
+         *            the other segment
+         */
+        void merge(final Segment other)
+        {
+            for (int i = 0; i < shards.length; i++)
+            {
+                shards[i].mergeShard(other.shards[i]);
+            }
+
+            minimumTime = Math.min(minimumTime, other.minimumTime);
+            maximumTime = Math.max(maximumTime, other.maximumTime);
+        }
+    }
+
+    /**
+     * The fingerprint of the settings the statistics were gathered with.
+     */
+    private final String fingerprint;
+
+    /**
+     * The segment bucket size [ms].
+     */
+    private final long bucketSize;
+
+    /**
+     * The times at which segments are split in addition to the bucket boundaries.
+     */
+    private final TreeSet<Long> cuts = new TreeSet<>();
+
+    /**
+     * The state of the timer files read so far, keyed by their path relative to the results directory.
+     */
+    private Map<String, FileState> files = new HashMap<>();
+
+    /**
+     * The segments, keyed by their start time.
+     */
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+
+    /**
+     * Creates a new and empty snapshot.
+     *
+     * @param fingerprint
+     *            the fingerprint of the current settings
+     * @param bucketSize
+     *            the segment bucket size [ms]
+     */
+    ReportSnapshot(final String fingerprint, final long bucketSize)
+    {
+        this.fingerprint = fingerprint;
+        this.bucketSize = bucketSize;
+    }
+
+    /**
+     * Returns the start time of the segment the given time falls into.
+     *
+     * @param time
+     *            the time
+     * @return the segment start time
+     */
+    long getSegmentStart(final long time)
+    {
+        final long bucketStart = Math.floorDiv(time, bucketSize) * bucketSize;
+        final Long cut = cuts.floor(time);
+
+        return cut != null && cut > bucketStart ? cut : bucketStart;
+    }
+
+    /**
+     * Returns the end time (exclusive) of the segment that starts at the given time.
+     *
+     * @param start
+     *            the segment start time
+     * @return the segment end time
+     */
+    long getSegmentEnd(final long start)
+    {
+        final long bucketEnd = Math.floorDiv(start, bucketSize) * bucketSize + bucketSize;
+        final Long cut = cuts.higher(start);
+
+        return cut != null && cut < bucketEnd ? cut : bucketEnd;
+    }
+
+    /**
+     * Makes sure that segments are split at the boundaries of the given time range so that it can be served exactly.
+     *
+     * @param fromTime
+     *            the start of the time range
+     * @param toTime
+     *            the end of the time range (inclusive)
+     * @return <code>true</code> if successful, <code>false</code> if an existing segment would need to be split, in
+     *         which case the snapshot is left unchanged
+     */
+    boolean addTimeRange(final long fromTime, final long toTime)
+    {
+        final List<Long> newCuts = new ArrayList<>();
+        if (fromTime > 0 && fromTime != Long.MIN_VALUE)
+        {
+            newCuts.add(fromTime);
+        }
+        if (toTime != Long.MAX_VALUE)
+        {
+            newCuts.add(toTime + 1);
+        }
+
+        // cuts at bucket boundaries are implicit
+        newCuts.removeIf(cut -> Math.floorMod(cut, bucketSize) == 0 || cuts.contains(cut));
+
+        for (final Long cut : newCuts)
+        {
+            final Long start = segments.lowerKey(cut);
+            if (start != null && getSegmentEnd(start) > cut)
+            {
+                return false;
+            }
+        }
+
+        cuts.addAll(newCuts);
+
+        return true;
+    }
+
+    /**
+     * Determines which parts of the given timer files still need to be read.
+     *
+     * @param currentFiles
+     *            all timer files, keyed by their relative path
+     * @param currentStates
+     *            the current state of all timer files, keyed by their relative path
+     * @param rebuildRequired
+     *            the relative paths of the timer files whose modification requires a full rebuild
+     * @return the offsets to start reading at, keyed by relative path (unchanged files are missing), or
+     *         <code>null</code> if the snapshot cannot be updated incrementally
+     * @throws IOException
+     *             if a file cannot be read
+     */
+    Map<String, Long> getReadOffsets(final Map<String, Path> currentFiles, final Map<String, FileState> currentStates,
+                                     final Collection<String> rebuildRequired)
+        throws IOException
+    {
+        for (final String path : files.keySet())
+        {
+            if (!currentStates.containsKey(path))
+            {
+                // file removed
+                return null;
+            }
+        }
+
+        final Map<String, Long> offsets = new HashMap<>();
+
+        for (final Map.Entry<String, FileState> entry : currentStates.entrySet())
+        {
+            final String path = entry.getKey();
+            final FileState current = entry.getValue();
+            final FileState previous = files.get(path);
+
+            if (previous != null && previous.size == current.size && previous.lastModified == current.lastModified)
+            {
+                // unchanged
+                continue;
+            }
+
+            if (rebuildRequired.contains(path))
+            {
+                return null;
+            }
+
+            if (previous == null || (previous.appendable && previous.size == 0))
+            {
+                // new file, or nothing read so far
+                offsets.put(path, 0L);
+            }
+            else if (previous.appendable && current.size >= previous.size &&
+                     getTailChecksum(currentFiles.get(path), previous.size) == previous.tailChecksum)
+            {
+                // appended to (maybe just an incomplete line, which is not read yet)
+                if (current.size > previous.size)
+                {
+                    offsets.put(path, previous.size);
+                }
+            }
+            else
+            {
+                return null;
+            }
+        }
+
+        return offsets;
+    }
+
+    /**
+     * Discards all statistics and file states, but keeps the segmentation.
+     */
+    void clear()
+    {
+        files = new HashMap<>();
+        segments.clear();
+    }
+
+    /**
+     * Replaces the remembered state of the timer files.
+     *
+     * @param currentFiles
+     *            the current state of all timer files, keyed by their relative path
+     */
+    void setFiles(final Map<String, FileState> currentFiles)
+    {
+        files = new HashMap<>(currentFiles);
+    }
+
+    /**
+     * Merges newly gathered segments into this snapshot. Where a segment exists already, both are merged into a fresh
+     * segment so that the (possibly deserialized) existing shards are never merged into.
+     *
+     * @param newSegments
+     *            the new segments, keyed by start time
+     * @param segmentFactory
+     *            creates a fresh and empty segment
+     */
+    void merge(final Map<Long, Segment> newSegments, final Supplier<Segment> segmentFactory)
+    {
+        for (final Map.Entry<Long, Segment> entry : newSegments.entrySet())
+        {
+            final Segment existing = segments.get(entry.getKey());
+            if (existing == null)
+            {
+                segments.put(entry.getKey(), entry.getValue());
+            }
+            else
+            {
+                final Segment merged = segmentFactory.get();
+                merged.merge(existing);
+                merged.merge(entry.getValue());
+
+                segments.put(entry.getKey(), merged);
+            }
+        }
+    }
+
+    /**
+     * Returns the segments that lie completely within the given time range, in chronological order.
+     *
+     * @param fromTime
+     *            the start of the time range
+     * @param toTime
+     *            the end of the time range (inclusive)
+     * @return the segments
+     */
+    List<Segment> getSegments(final long fromTime, final long toTime)
+    {
+        final List<Segment> result = new ArrayList<>();
+
+        for (final Map.Entry<Long, Segment> entry : segments.tailMap(fromTime, true).entrySet())
+        {
+            final long start = entry.getKey();
+            if (start > toTime)
+            {
+                break;
+            }
+
+            if (getSegmentEnd(start) - 1 <= toTime)
+            {
+                result.add(entry.getValue());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of segments.
+     *
+     * @return the segment count
+     */
+    int getSegmentCount()
+    {
+        return segments.size();
+    }
+
+    /**
+     * Writes this snapshot to the given file. The file is replaced atomically.
+     *
+     * @param file
+     *            the target file
+     * @throws IOException
+     *             if the snapshot cannot be written
+     */
+    void save(final File file) throws IOException
+    {
+        final Path target = file.toPath();
+        final Path tempFile = Files.createTempFile(target.toAbsolutePath().getParent(), FILE_NAME, ".tmp");
+
+        try
+        {
+            try (final OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)), 64 * 1024);
+                 final ObjectOutputStream oos = new ObjectOutputStream(out))
+            {
+                oos.writeUTF(FORMAT);
+                oos.writeUTF(fingerprint);
+                oos.writeObject(this);
+            }
+
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Reads the snapshot from the given file.
+     *
+     * @param file
+     *            the snapshot file
+     * @param fingerprint
+     *            the fingerprint of the current settings
+     * @return the snapshot, or <code>null</code> if the file does not exist or was created with different settings
+     * @throws IOException
+     *             if the snapshot cannot be read
+     * @throws ClassNotFoundException
+     *             if the snapshot refers to unknown classes
+     */
+    static ReportSnapshot load(final File file, final String fingerprint) throws IOException, ClassNotFoundException
+    {
+        if (!file.isFile())
+        {
+            return null;
+        }
+
+        try (final InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())), 64 * 1024);
+             final ObjectInputStream ois = new ObjectInputStream(in))
+        {
+            ois.setObjectInputFilter(CLASS_FILTER);
+
+            if (!FORMAT.equals(ois.readUTF()) || !fingerprint.equals(ois.readUTF()))
+            {
+                return null;
+            }
+
+            final ReportSnapshot snapshot = (ReportSnapshot) ois.readObject();
+
+            return fingerprint.equals(snapshot.fingerprint) ? snapshot : null;
+        }
+    }
+
+    /**
+     * Computes the fingerprint of all the settings that influence the statistics.
+     *
+     * @param config
+     *            the report generator configuration
+     * @param reportProviders
+     *            the snapshotted report providers
+     * @param filters
+     *            the test case and agent filters
+     * @return the fingerprint
+     */
+    static String computeFingerprint(final ReportGeneratorConfiguration config, final List<? extends ReportProvider> reportProviders,
+                                     final String... filters)
+    {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(FORMAT).append('\n');
+        sb.append(ProductInformation.getProductInformation().getVersion()).append('\n');
+
+        final Properties properties = config.getProperties();
+        final TreeMap<String, String> sortedProperties = new TreeMap<>();
+        for (final String key : properties.stringPropertyNames())
+        {
+            // skip JVM settings and anything that does not influence the statistics
+            if (!(System.getProperties().containsKey(key) && !key.startsWith("com.xceptance.xlt.")) && !isRenderOnlyProperty(key))
+            {
+                sortedProperties.put(key, properties.getProperty(key));
+            }
+        }
+        sortedProperties.forEach((key, value) -> sb.append(key).append('=').append(value).append('\n'));
+
+        for (final ReportProvider provider : reportProviders)
+        {
+            sb.append(provider.getClass().getName()).append('\n');
+        }
+
+        for (final String filter : filters)
+        {
+            sb.append(filter).append('\n');
+        }
+
+        return DigestUtils.sha256Hex(sb.toString());
+    }
+
+    /**
+     * Returns whether the given property affects the rendering of the report only.
+     */
+    private static boolean isRenderOnlyProperty(final String key)
+    {
+        final String prefix = "com.xceptance.xlt.reportgenerator.";
+        if (!key.startsWith(prefix))
+        {
+            return false;
+        }
+
+        final String name = key.substring(prefix.length());
+
+        return RENDER_ONLY_PROPERTIES.stream().anyMatch(p -> p.endsWith(".") ? name.startsWith(p) : name.equals(p));
+    }
+
+    /**
+     * Returns the end of the last complete line before the given position of a file.
+     *
+     * @return the offset after the last line break, or <code>0</code> if there is none
+     */
+    private static long getLineEnd(final Path file, final long end) throws IOException
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(TAIL_SIZE);
+
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            for (long blockEnd = end; blockEnd > 0;)
+            {
+                final long blockStart = Math.max(0, blockEnd - TAIL_SIZE);
+
+                buffer.clear().limit((int) (blockEnd - blockStart));
+                while (buffer.hasRemaining() && channel.read(buffer, blockStart + buffer.position()) > 0)
+                {
+                    // read fully
+                }
+
+                for (int i = buffer.position() - 1; i >= 0; i--)
+                {
+                    if (buffer.get(i) == '\n')
+                    {
+                        return blockStart + i + 1;
+                    }
+                }
+
+                blockEnd = blockStart;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Computes the checksum of the last bytes before the given position of a file.
+     *
+     * @return the checksum, or <code>-1</code> if the data before the given position does not end with a line break
+     */
+    private static long getTailChecksum(final Path file, final long end) throws IOException
+    {
+        final long start = Math.max(0, end - TAIL_SIZE);
+        final ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) > 0)
+            {
+                // read fully
+            }
+        }
+
+        if (buffer.hasRemaining() || buffer.position() == 0 || buffer.get(buffer.position() - 1) != '\n')
+        {
+            return -1;
+        }
+
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+
+        return crc.getValue();
+    }
+}
@@ -24,6 +24,8 @@ import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 
 import com.xceptance.common.xml.XSLTUtils;
+import com.xceptance.xlt.api.util.XltLogger;
+import com.xceptance.xlt.engine.util.TimerUtils;
 import com.xceptance.xlt.report.util.TaskManager;
 
 /**
@@ -45,7 +47,10 @@ public class ReportTransformer
     }
 
     /**
-     * Renders a set of file using one data source into one output directory.
+     * Renders a set of file using one data source into one output directory. The transformations run as tasks of the
+     * {@link TaskManager} and may therefore run in parallel. Each of them reads the data source on its own, as the
+     * tree built by the XSLT processor must not be shared between threads. Hence, memory usage grows with the number
+     * of threads.
      *
      * @param inputXmlFile
      *            a single xml file as data source
@@ -64,7 +69,12 @@ public class ReportTransformer
                 @Override
                 public void run()
                 {
+                    final long start = TimerUtils.get().getStartTime();
+
                     transformReport(inputXmlFile, outputFile, styleSheetFile);
+
+                    XltLogger.reportLogger.info(String.format("Created '%s' - %,d ms", outputFile.getName(),
+                                                              TimerUtils.get().getElapsedTime(start)));
                 }
             });
         }
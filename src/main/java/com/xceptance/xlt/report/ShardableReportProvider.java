@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report;
+
+import java.io.Serializable;
+
+import com.xceptance.xlt.api.report.ReportProvider;
+
+/**
+ * A report provider whose statistics can be gathered in independent shards. Each parser thread feeds its own shard
+ * without any locking, and all the shards are merged into the original provider once all data records have been
+ * processed, but before the report fragment is created.
+ * <p>
+ * Merging must be exact and must not depend on the order in which shards are merged, i.e. the merged statistics must
+ * be the same as if all data records had been passed to the original provider directly. Truncated lists therefore have
+ * to be selected by a criterion that does not depend on the processing order, such as the lowest hash codes. A
+ * provider whose statistics cannot be merged this way must not implement this interface, so it stays on the locked
+ * path. Statistics that depend on the processing order on the locked path already, because they are sampled randomly
+ * (error directory hints) or capped on a first-come basis to protect against excessive data (event limits), may differ
+ * between runs in both modes.
+ * <p>
+ * Shards are serializable so that they can be persisted in a {@link ReportSnapshot}. A deserialized shard is only ever
+ * merged into another provider, so any configuration-derived state that is not needed for merging may be transient.
+ *
+ * @see StatisticsProcessor
+ * @since 8.1.0
+ */
+public interface ShardableReportProvider extends ReportProvider, Serializable
+{
+    /**
+     * Creates a new and empty shard of this provider, configured the same way as this provider.
+     *
+     * @return the shard
+     */
+    public ShardableReportProvider createShard();
+
+    /**
+     * Merges the statistics gathered by the given shard into this provider. The shard must not be used afterwards.
+     *
+     * @param shard
+     *            a shard created by {@link #createShard()}
+     */
+    public void mergeShard(ShardableReportProvider shard);
+}
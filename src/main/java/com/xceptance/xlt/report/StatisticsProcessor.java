@@ -16,19 +16,31 @@
 package com.xceptance.xlt.report;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.report.PostProcessedDataContainer;
 import com.xceptance.xlt.api.report.ReportProvider;
 
 /**
- * Processes parsed data records. Processing means passing a data record to all configured report providers. Since data
- * processing is not thread-safe (yet), there will be only one statistics processor.
+ * Processes parsed data records. Processing means passing a data record to all configured report providers.
+ * <p>
+ * Report providers that support it (see {@link ShardableReportProvider}) are fed without any locking: each thread
+ * calling {@link #process(PostProcessedDataContainer)} gets its own set of shards of these providers. The shards are
+ * merged back into the original providers by {@link #mergeShards()}. All other report providers are still processed
+ * one thread at a time.
+ * <p>
+ * When working for a {@link ReportSnapshot}, all report providers are shardable and each thread keeps a separate set
+ * of shards per time segment of the snapshot. These segments are then collected by {@link #collectSegments()}.
  */
 class StatisticsProcessor
 {
@@ -53,20 +65,85 @@ class StatisticsProcessor
     private long minimumTime = Long.MAX_VALUE;
 
     /**
-     * The configured report providers. An array for less overhead.
+     * The configured report providers that need to be locked while processing data.
      */
     private final List<ReportProvider> reportProviders;
 
+    /**
+     * The configured report providers that process data in shards.
+     */
+    private final List<ShardableReportProvider> shardableReportProviders;
+
+    /**
+     * The shards of the shardable report providers, one array per processing thread. Each array holds one shard per
+     * shardable report provider, in the same order.
+     */
+    private final List<ShardableReportProvider[]> shards = new ArrayList<>();
+
+    /**
+     * The shards of the current thread.
+     */
+    private final ThreadLocal<ShardableReportProvider[]> threadShards = ThreadLocal.withInitial(this::createShards);
+
+    /**
+     * The snapshot whose segmentation is to be used, or <code>null</code> if not gathering statistics per segment.
+     */
+    private final ReportSnapshot snapshot;
+
+    /**
+     * The segments of all processing threads, one map per thread.
+     */
+    private final List<Map<Long, ReportSnapshot.Segment>> segments = new ArrayList<>();
+
+    /**
+     * The segments of the current thread, keyed by their start time.
+     */
+    private final ThreadLocal<Map<Long, ReportSnapshot.Segment>> threadSegments = ThreadLocal.withInitial(this::createSegmentMap);
+
+    /**
+     * Whether the shards or segments have been handed out already. The processing threads keep referencing their
+     * shards and segments, so any data processed afterwards would be lost silently.
+     */
+    private volatile boolean completed;
+
+    /**
+     * Constructor.
+     *
+     * @param reportProviders
+     *            the configured report providers
+     * @param sharded
+     *            whether providers that support it are to process data in shards
+     */
+    public StatisticsProcessor(final List<ReportProvider> reportProviders, final boolean sharded)
+    {
+        this(reportProviders, sharded, null);
+    }
+
     /**
      * Constructor.
      *
      * @param reportProviders
      *            the configured report providers
+     * @param sharded
+     *            whether providers that support it are to process data in shards
+     * @param snapshot
+     *            the snapshot whose segmentation is to be used, or <code>null</code> if not gathering statistics per
+     *            segment (all report providers must be shardable otherwise)
      */
-    public StatisticsProcessor(final List<ReportProvider> reportProviders)
+    public StatisticsProcessor(final List<ReportProvider> reportProviders, final boolean sharded, final ReportSnapshot snapshot)
     {
+        this.snapshot = snapshot;
+
         // filter the list and take only the provider that really need runtime parsed data
-        this.reportProviders = reportProviders.stream().filter(p -> p.wantsDataRecords()).collect(Collectors.toList());
+        final List<ReportProvider> dataProviders = reportProviders.stream().filter(p -> p.wantsDataRecords()).collect(Collectors.toList());
+
+        // segments always need shards
+        final boolean useShards = sharded || snapshot != null;
+
+        this.reportProviders = dataProviders.stream().filter(p -> !useShards || !(p instanceof ShardableReportProvider))
+                                            .collect(Collectors.toList());
+        this.shardableReportProviders = dataProviders.stream().filter(p -> useShards && p instanceof ShardableReportProvider)
+                                                     .map(p -> (ShardableReportProvider) p).collect(Collectors.toList());
     }
 
     /**
@@ -97,12 +174,36 @@ class StatisticsProcessor
      */
     public void process(final PostProcessedDataContainer dataContainer)
     {
+        if (completed)
+        {
+            throw new IllegalStateException("Statistics have been merged already, no more data can be processed");
+        }
+
         // it might be empty after filtered
         if (dataContainer.data.size() == 0)
         {
             return;
         }
 
+        if (snapshot != null)
+        {
+            processSegmented(dataContainer);
+            return;
+        }
+
+        // feed our own shards first, no need to wait for anybody here
+        for (final ShardableReportProvider shard : threadShards.get())
+        {
+            try
+            {
+                shard.processAll(dataContainer);
+            }
+            catch (final Throwable t)
+            {
+                LOG.error("Failed to process data record, discarding full chunk", t);
+            }
+        }
+
         // get your own list
         final List<ReportProvider> providerList = new ArrayList<>(reportProviders);
 
@@ -124,6 +225,7 @@ class StatisticsProcessor
             if (provider == null)
             {
                 // nothing found, try again
+                Thread.onSpinWait();
                 continue;
             }
 
@@ -153,4 +255,206 @@ class StatisticsProcessor
         }
         updateLock.unlock();
     }
+
+    /**
+     * Merges the statistics gathered by all shards into the original report providers. Must be called after all data
+     * has been processed, but before any report fragment is created. No data can be processed afterwards.
+     */
+    public void mergeShards()
+    {
+        completed = true;
+
+        final List<ShardableReportProvider[]> allShards;
+        synchronized (shards)
+        {
+            allShards = new ArrayList<>(shards);
+            shards.clear();
+        }
+
+        for (int i = 0; i < shardableReportProviders.size(); i++)
+        {
+            final ShardableReportProvider provider = shardableReportProviders.get(i);
+
+            for (final ShardableReportProvider[] threadShards : allShards)
+            {
+                provider.mergeShard(threadShards[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the segments gathered by all threads so far, merged by start time. Must be called after all data has
+     * been processed. No data can be processed afterwards.
+     *
+     * @return the segments, keyed by start time
+     */
+    public Map<Long, ReportSnapshot.Segment> collectSegments()
+    {
+        completed = true;
+
+        final List<Map<Long, ReportSnapshot.Segment>> allSegments;
+        synchronized (segments)
+        {
+            allSegments = new ArrayList<>(segments);
+            segments.clear();
+        }
+
+        final Map<Long, ReportSnapshot.Segment> result = new TreeMap<>();
+        for (final Map<Long, ReportSnapshot.Segment> threadSegments : allSegments)
+        {
+            for (final Map.Entry<Long, ReportSnapshot.Segment> entry : threadSegments.entrySet())
+            {
+                final ReportSnapshot.Segment segment = result.get(entry.getKey());
+                if (segment == null)
+                {
+                    result.put(entry.getKey(), entry.getValue());
+                }
+                else
+                {
+                    segment.merge(entry.getValue());
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Merges the statistics of the given segments into the original report providers.
+     *
+     * @param selectedSegments
+     *            the segments, in chronological order
+     */
+    public void mergeSegments(final Collection<ReportSnapshot.Segment> selectedSegments)
+    {
+        for (final ReportSnapshot.Segment segment : selectedSegments)
+        {
+            for (int i = 0; i < shardableReportProviders.size(); i++)
+            {
+                shardableReportProviders.get(i).mergeShard(segment.shards[i]);
+            }
+
+            updateLock.lock();
+            {
+                minimumTime = Math.min(minimumTime, segment.minimumTime);
+                maximumTime = Math.max(maximumTime, segment.maximumTime);
+            }
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Creates a new and empty segment with one fresh shard per shardable report provider.
+     *
+     * @return the segment
+     */
+    public ReportSnapshot.Segment createSegment()
+    {
+        final ShardableReportProvider[] newShards = new ShardableReportProvider[shardableReportProviders.size()];
+        for (int i = 0; i < newShards.length; i++)
+        {
+            newShards[i] = shardableReportProviders.get(i).createShard();
+        }
+
+        return new ReportSnapshot.Segment(newShards);
+    }
+
+    /**
+     * Feeds the data records to the segments of the current thread, split by the time segment they belong to.
+     *
+     * @param dataContainer
+     *            a chunk of post-processed data
+     */
+    private void processSegmented(final PostProcessedDataContainer dataContainer)
+    {
+        final long start = snapshot.getSegmentStart(dataContainer.getMinimumTime());
+
+        if (snapshot.getSegmentEnd(start) > dataContainer.getMaximumTime())
+        {
+            // the usual case, the whole chunk belongs to a single segment
+            processSegment(start, dataContainer);
+        }
+        else
+        {
+            final List<Data> dataRecords = dataContainer.data;
+            final int size = dataRecords.size();
+
+            final Map<Long, PostProcessedDataContainer> parts = new TreeMap<>();
+            for (int i = 0; i < size; i++)
+            {
+                final Data data = dataRecords.get(i);
+                parts.computeIfAbsent(snapshot.getSegmentStart(data.getTime()),
+                                      k -> new PostProcessedDataContainer(size, dataContainer.sampleFactor))
+                     .add(data);
+            }
+
+            parts.forEach(this::processSegment);
+        }
+    }
+
+    /**
+     * Feeds the data records to the given segment of the current thread.
+     *
+     * @param start
+     *            the start time of the segment
+     * @param dataContainer
+     *            the data records of this segment
+     */
+    private void processSegment(final long start, final PostProcessedDataContainer dataContainer)
+    {
+        final ReportSnapshot.Segment segment = threadSegments.get().computeIfAbsent(start, k -> createSegment());
+
+        for (final ShardableReportProvider shard : segment.shards)
+        {
+            try
+            {
+                shard.processAll(dataContainer);
+            }
+            catch (final Throwable t)
+            {
+                LOG.error("Failed to process data record, discarding full chunk", t);
+            }
+        }
+
+        segment.minimumTime = Math.min(segment.minimumTime, dataContainer.getMinimumTime());
+        segment.maximumTime = Math.max(segment.maximumTime, dataContainer.getMaximumTime());
+    }
+
+    /**
+     * Creates a new segment map for the current thread.
+     *
+     * @return the segment map
+     */
+    private Map<Long, ReportSnapshot.Segment> createSegmentMap()
+    {
+        final Map<Long, ReportSnapshot.Segment> newSegments = new HashMap<>();
+
+        synchronized (segments)
+        {
+            segments.add(newSegments);
+        }
+
+        return newSegments;
+    }
+
+    /**
+     * Creates a new set of shards for the current thread.
+     *
+     * @return the shards
+     */
+    private ShardableReportProvider[] createShards()
+    {
+        final ShardableReportProvider[] newShards = new ShardableReportProvider[shardableReportProviders.size()];
+        for (int i = 0; i < newShards.length; i++)
+        {
+            newShards[i] = shardableReportProviders.get(i).createShard();
+        }
+
+        synchronized (shards)
+        {
+            shards.add(newShards);
+        }
+
+        return newShards;
+    }
 }
@@ -16,6 +16,7 @@
 package com.xceptance.xlt.report.mergerules;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -48,6 +49,12 @@ public class RequestProcessingRule
      */
     private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{([acmnrstu])(?::([0-9]+))?\\}");
 
+    /**
+     * The type codes of the request filters, ordered by the effort to evaluate them. Short values that reject most
+     * requests early come first, names and especially URLs come last.
+     */
+    private static final String FILTER_EVALUATION_ORDER = "smratcnu";
+
     /**
      * The definition of the new name including placeholders.
      */
@@ -168,6 +175,9 @@ public class RequestProcessingRule
             throw new InvalidRequestProcessingRuleException("Invalid regular expression: " + pse.getPattern());
         }
 
+        // evaluate the cheap filters first, the sort is stable so includes still precede the excludes of the same type
+        requestFilters.sort(Comparator.comparingInt(f -> FILTER_EVALUATION_ORDER.indexOf(f.getTypeCode())));
+
         this.requestFilters = requestFilters.toArray(new AbstractRequestFilter[requestFilters.size()]);
 
         // Validate the entire rule.
@@ -260,6 +270,31 @@ public class RequestProcessingRule
      * @return true if we want to stop, false otherwise
      */
     public ReturnState process(final RequestData requestData)
+    {
+        if (!apply(requestData))
+        {
+            // continue request processing with an unmodified result
+            return ReturnState.CONTINUE;
+        }
+
+        if (dropOnMatch)
+        {
+            // stop request processing with a null request
+            return ReturnState.DROP;
+        }
+
+        return stopOnMatch ? ReturnState.STOP : ReturnState.CONTINUE;
+    }
+
+    /**
+     * Applies this rule to the passed request data object, i.e. renames the request if all filters accept it. Requests
+     * to be dropped are not renamed.
+     *
+     * @param requestData
+     *            the request data object to process, will also be directly modified as result
+     * @return whether all filters accepted the request
+     */
+    boolean apply(final RequestData requestData)
     {
         // try each filter and remember its state for later processing
         final int requestFiltersSize = requestFilters.length;
@@ -275,9 +310,7 @@ public class RequestProcessingRule
             if (state == null)
             {
                 // return early since one of the filters did *not* apply
-
-                // continue request processing with an unmodified result
-                return ReturnState.CONTINUE;
+                return false;
             }
             filterStates[i] = state;
         }
@@ -285,8 +318,8 @@ public class RequestProcessingRule
         // all filters applied so we can process the request, but check first what to do
         if (dropOnMatch)
         {
-            // stop request processing with a null request
-            return ReturnState.DROP;
+            // the request will be discarded, no need to rename it
+            return true;
         }
 
         // anything to do?
@@ -334,7 +367,47 @@ public class RequestProcessingRule
             requestData.setName(newName);
         }
 
-        return stopOnMatch ? ReturnState.STOP : ReturnState.CONTINUE;
+        return true;
+    }
+
+    /**
+     * Returns the definition of the new name including placeholders.
+     *
+     * @return the new name
+     */
+    public String getNewName()
+    {
+        return newName;
+    }
+
+    /**
+     * Whether or not requests matching this rule are discarded.
+     *
+     * @return the drop-on-match flag
+     */
+    boolean isDropOnMatch()
+    {
+        return dropOnMatch;
+    }
+
+    /**
+     * Whether or not the remaining rules are skipped if this rule applied.
+     *
+     * @return the stop-on-match flag
+     */
+    boolean isStopOnMatch()
+    {
+        return stopOnMatch;
+    }
+
+    /**
+     * Returns the request filters of this rule in the order they are evaluated.
+     *
+     * @return the request filters
+     */
+    AbstractRequestFilter[] getRequestFilters()
+    {
+        return requestFilters;
     }
 
     /**
@@ -355,7 +428,7 @@ public class RequestProcessingRule
                 sb.append(", ");
             }
 
-            // acnrstu
+            // acmnrstu
             if ("a".equals(typeCode))
             {
                 sb.append("agentName: ").append(requestFilter.toString());
@@ -364,6 +437,10 @@ public class RequestProcessingRule
             {
                 sb.append("contentType: ").append(requestFilter.toString());
             }
+            else if ("m".equals(typeCode))
+            {
+                sb.append("httpMethod: ").append(requestFilter.toString());
+            }
             else if ("n".equals(typeCode))
             {
                 sb.append("requestName: ").append(requestFilter.toString());
@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report.mergerules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.xceptance.common.collection.LRUFastHashMap;
+import com.xceptance.xlt.api.engine.RequestData;
+
+/**
+ * The request processing rules compiled into a form suitable for processing lots of requests. A rule set applies all
+ * the rules in order, just like {@link RequestProcessingRule#process(RequestData)} would, but remembers the outcome
+ * of the whole rule chain for each combination of request attributes the rules look at. Since most requests of a load
+ * test share the same names, URLs, content types, etc., the regular expressions are evaluated only for the first
+ * request of each combination.
+ * <p>
+ * The rule set also counts how often each rule applied, so rules that never match or match too often can be spotted.
+ * <p>
+ * A rule set is not thread-safe. Each parser thread uses its own instance.
+ */
+public class RequestProcessingRuleSet
+{
+    /**
+     * Class logger.
+     */
+    private static final Log LOG = LogFactory.getLog(RequestProcessingRuleSet.class);
+
+    /**
+     * The type codes of the request attributes that can be part of the cache key, in the order they are added.
+     */
+    private static final String KEY_TYPE_CODES = "nucsatm";
+
+    /**
+     * The separator between the values in a cache key. Will not appear in any of the values in practice.
+     */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /**
+     * The outcome of the rule chain for a request that was not touched by any rule.
+     */
+    private static final Outcome UNCHANGED = new Outcome(null, false, new int[0]);
+
+    /**
+     * The rules in the order they are applied.
+     */
+    private final RequestProcessingRule[] rules;
+
+    /**
+     * The type codes of the request attributes any of the rules looks at.
+     */
+    private final char[] keyTypeCodes;
+
+    /**
+     * The response time filters of all the rules. The response time range of a request is part of the key.
+     */
+    private final ResponseTimeRequestFilter[] responseTimeFilters;
+
+    /**
+     * The outcomes of the rule chain by cache key, or <code>null</code> if caching is disabled.
+     */
+    private final LRUFastHashMap<String, Outcome> cache;
+
+    /**
+     * The buffer to build cache keys in.
+     */
+    private final StringBuilder keyBuilder = new StringBuilder(256);
+
+    /**
+     * The number of times each rule applied since the last call to {@link #drainHitCounts(long[])}.
+     */
+    private final long[] hitCounts;
+
+    /**
+     * The outcome of the rule chain for a certain combination of request attributes.
+     */
+    private static class Outcome
+    {
+        /**
+         * The final request name, or <code>null</code> if the name was not changed.
+         */
+        private final String name;
+
+        /**
+         * Whether the request is to be discarded.
+         */
+        private final boolean drop;
+
+        /**
+         * The indexes of the rules that applied.
+         */
+        private final int[] appliedRules;
+
+        private Outcome(final String name, final boolean drop, final int[] appliedRules)
+        {
+            this.name = name;
+            this.drop = drop;
+            this.appliedRules = appliedRules;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rules
+     *            the rules to apply, in order
+     * @param cacheSize
+     *            the maximum number of rule chain outcomes to remember, 0 to disable caching
+     */
+    public RequestProcessingRuleSet(final List<RequestProcessingRule> rules, final int cacheSize)
+    {
+        this.rules = rules.toArray(new RequestProcessingRule[rules.size()]);
+        hitCounts = new long[this.rules.length];
+
+        // determine the request attributes the outcome depends on
+        final StringBuilder typeCodes = new StringBuilder();
+        final List<ResponseTimeRequestFilter> rtFilters = new ArrayList<>();
+
+        for (final RequestProcessingRule rule : this.rules)
+        {
+            for (final AbstractRequestFilter filter : rule.getRequestFilters())
+            {
+                if (filter instanceof ResponseTimeRequestFilter)
+                {
+                    rtFilters.add((ResponseTimeRequestFilter) filter);
+                }
+                else if (typeCodes.indexOf(filter.getTypeCode()) < 0)
+                {
+                    typeCodes.append(filter.getTypeCode());
+                }
+            }
+        }
+
+        // keep the key layout stable regardless of the order the rules mention the attributes
+        final StringBuilder orderedTypeCodes = new StringBuilder();
+        for (final char typeCode : KEY_TYPE_CODES.toCharArray())
+        {
+            if (typeCodes.indexOf(String.valueOf(typeCode)) >= 0)
+            {
+                orderedTypeCodes.append(typeCode);
+            }
+        }
+
+        keyTypeCodes = orderedTypeCodes.toString().toCharArray();
+        responseTimeFilters = rtFilters.toArray(new ResponseTimeRequestFilter[rtFilters.size()]);
+
+        cache = (cacheSize > 0 && this.rules.length > 0) ? new LRUFastHashMap<>(cacheSize) : null;
+    }
+
+    /**
+     * Applies the rules to the passed request, i.e. renames the request or tells that it is to be discarded.
+     *
+     * @param requestData
+     *            the request data object to process, will also be directly modified as result
+     * @return the processed request data object, or <code>null</code> if the request is to be discarded
+     */
+    public RequestData process(final RequestData requestData)
+    {
+        if (rules.length == 0)
+        {
+            return requestData;
+        }
+
+        Outcome outcome;
+
+        if (cache == null)
+        {
+            outcome = applyRules(requestData);
+        }
+        else
+        {
+            final String key = buildKey(requestData);
+
+            outcome = cache.get(key);
+            if (outcome == null)
+            {
+                outcome = applyRules(requestData);
+
+                // failed rules are logged for each request, so don't remember them
+                if (outcome != null)
+                {
+                    cache.put(key, outcome);
+                }
+            }
+            else if (outcome.name != null)
+            {
+                requestData.setName(outcome.name);
+            }
+        }
+
+        if (outcome == null)
+        {
+            // a rule failed, the request keeps its original name
+            return requestData;
+        }
+
+        for (final int i : outcome.appliedRules)
+        {
+            hitCounts[i]++;
+        }
+
+        return outcome.drop ? null : requestData;
+    }
+
+    /**
+     * Adds the rule hit counts gathered so far to the passed array and resets them.
+     *
+     * @param totals
+     *            the totals to add to, must have one entry per rule
+     */
+    public void drainHitCounts(final long[] totals)
+    {
+        for (int i = 0; i < hitCounts.length; i++)
+        {
+            totals[i] += hitCounts[i];
+        }
+
+        Arrays.fill(hitCounts, 0);
+    }
+
+    /**
+     * Returns the rules of this set.
+     *
+     * @return the rules
+     */
+    public List<RequestProcessingRule> getRules()
+    {
+        return Arrays.asList(rules);
+    }
+
+    /**
+     * Runs the passed request through the rule chain.
+     *
+     * @param requestData
+     *            the request data object to process
+     * @return the outcome, or <code>null</code> if a rule failed
+     */
+    private Outcome applyRules(final RequestData requestData)
+    {
+        // remember the original name so we can restore it in case request processing fails
+        final String originalName = requestData.getName();
+
+        int[] appliedRules = null;
+        int appliedRulesCount = 0;
+        boolean drop = false;
+
+        for (int i = 0; i < rules.length; i++)
+        {
+            final RequestProcessingRule rule = rules[i];
+
+            try
+            {
+                // request data comes back indirectly modified if needed
+                if (rule.apply(requestData))
+                {
+                    if (appliedRules == null)
+                    {
+                        appliedRules = new int[rules.length];
+                    }
+                    appliedRules[appliedRulesCount++] = i;
+
+                    if (rule.isDropOnMatch())
+                    {
+                        drop = true;
+                        break;
+                    }
+                    else if (rule.isStopOnMatch())
+                    {
+                        break;
+                    }
+                }
+            }
+            catch (final Throwable t)
+            {
+                final String msg = String.format("Failed to apply request merge rule: %s\n%s", rule, t);
+                LOG.error(msg);
+
+                // restore the request's original name
+                requestData.setName(originalName);
+
+                return null;
+            }
+        }
+
+        if (appliedRules == null)
+        {
+            return UNCHANGED;
+        }
+
+        return new Outcome(drop ? null : requestData.getName(), drop, Arrays.copyOf(appliedRules, appliedRulesCount));
+    }
+
+    /**
+     * Builds the cache key from all the request attributes the rules look at.
+     *
+     * @param requestData
+     *            the request data object
+     * @return the key
+     */
+    private String buildKey(final RequestData requestData)
+    {
+        final StringBuilder sb = keyBuilder;
+        sb.setLength(0);
+
+        for (final char typeCode : keyTypeCodes)
+        {
+            switch (typeCode)
+            {
+                case 'n':
+                    sb.append(requestData.getName());
+                    break;
+                case 'u':
+                    sb.append(requestData.getUrl());
+                    break;
+                case 'c':
+                    sb.append(requestData.getContentType());
+                    break;
+                case 's':
+                    sb.append(requestData.getResponseCode());
+                    break;
+                case 'a':
+                    sb.append(requestData.getAgentName());
+                    break;
+                case 't':
+                    sb.append(requestData.getTransactionName());
+                    break;
+                case 'm':
+                    sb.append(requestData.getHttpMethod());
+                    break;
+                default:
+                    break;
+            }
+            sb.append(KEY_SEPARATOR);
+        }
+
+        for (final ResponseTimeRequestFilter filter : responseTimeFilters)
+        {
+            sb.append(filter.getRangeIndex(requestData.getRunTime())).append(KEY_SEPARATOR);
+        }
+
+        return sb.toString();
+    }
+}
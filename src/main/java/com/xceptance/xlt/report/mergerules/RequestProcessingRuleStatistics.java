@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report.mergerules;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects how often each request processing rule applied across all the {@link RequestProcessingRuleSet rule sets} of
+ * the parser threads.
+ */
+public final class RequestProcessingRuleStatistics
+{
+    /**
+     * The one and only {@link RequestProcessingRuleStatistics} instance.
+     */
+    private static final RequestProcessingRuleStatistics singleton = new RequestProcessingRuleStatistics();
+
+    /**
+     * Returns the one and only {@link RequestProcessingRuleStatistics} instance.
+     *
+     * @return the {@link RequestProcessingRuleStatistics} singleton
+     */
+    public static RequestProcessingRuleStatistics getInstance()
+    {
+        return singleton;
+    }
+
+    /**
+     * The rules the hit counts belong to.
+     */
+    private List<RequestProcessingRule> rules = Collections.emptyList();
+
+    /**
+     * The number of times each rule applied.
+     */
+    private long[] hitCounts = new long[0];
+
+    /**
+     * Adds the hit counts gathered so far by the passed rule set and resets them in the rule set.
+     *
+     * @param ruleSet
+     *            the rule set
+     */
+    public synchronized void add(final RequestProcessingRuleSet ruleSet)
+    {
+        // all rule sets are created from the same configuration, so the first one defines the rules
+        if (hitCounts.length == 0)
+        {
+            rules = ruleSet.getRules();
+            hitCounts = new long[rules.size()];
+        }
+
+        ruleSet.drainHitCounts(hitCounts);
+    }
+
+    /**
+     * Returns the rules in the order they are applied.
+     *
+     * @return the rules
+     */
+    public synchronized List<RequestProcessingRule> getRules()
+    {
+        return rules;
+    }
+
+    /**
+     * Returns the number of times the rule with the given index applied.
+     *
+     * @param index
+     *            the index of the rule
+     * @return the hit count
+     */
+    public synchronized long getHitCount(final int index)
+    {
+        return hitCounts[index];
+    }
+
+    /**
+     * Resets this instance to initial values.
+     */
+    public synchronized void clear()
+    {
+        rules = Collections.emptyList();
+        hitCounts = new long[0];
+    }
+}
@@ -80,18 +80,28 @@ public class ResponseTimeRequestFilter extends AbstractRequestFilter
     @Override
     public String getReplacementText(final RequestData requestData, final int capturingGroupIndex, final Object filterState)
     {
-        final long responseTime = requestData.getRunTime();
+        return responseTimeRanges[getRangeIndex(requestData.getRunTime())];
+    }
 
+    /**
+     * Returns the index of the response time range the passed response time falls into.
+     *
+     * @param responseTime
+     *            the response time
+     * @return the range index
+     */
+    int getRangeIndex(final long responseTime)
+    {
         int i;
         for (i = 0; i < responseTimeBoundaries.length; i++)
         {
             if (responseTime < responseTimeBoundaries[i])
             {
-                return responseTimeRanges[i];
+                return i;
             }
         }
 
-        return responseTimeRanges[i];
+        return i;
     }
 
     /**
@@ -16,6 +16,7 @@
 package com.xceptance.xlt.report.providers;
 
 import java.io.File;
+import java.io.Serializable;
 
 import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.report.AbstractReportProvider;
@@ -26,7 +27,7 @@ import com.xceptance.xlt.report.ReportGeneratorConfiguration.ChartCappingInfo;
  * The {@link AbstractDataProcessor} class provides common functionality of a typical data processor. A data processor
  * is responsible to calculate statistic information for exactly one timer series.
  */
-public abstract class AbstractDataProcessor
+public abstract class AbstractDataProcessor implements Serializable
 {
     private int chartHeight;
 
@@ -38,7 +39,7 @@ public abstract class AbstractDataProcessor
 
     private int movingAveragePercentage;
 
-    private ChartCappingInfo chartCappingInfo;
+    private transient ChartCappingInfo chartCappingInfo;
 
     /**
      * The name of the timer processed by this data processor.
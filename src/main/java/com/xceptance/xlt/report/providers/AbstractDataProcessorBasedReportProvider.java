@@ -15,6 +15,7 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -30,6 +31,7 @@ import com.xceptance.xlt.api.report.AbstractReportProvider;
  * provider, which internally uses {@link AbstractDataProcessor} instances to calculate statistics.
  */
 public abstract class AbstractDataProcessorBasedReportProvider<T extends AbstractDataProcessor> extends AbstractReportProvider
+    implements Serializable
 {
     /**
      * The data processor class.
@@ -93,6 +95,20 @@ public abstract class AbstractDataProcessorBasedReportProvider<T extends Abstrac
         return processor;
     }
 
+    /**
+     * Returns the names under which the data processors of this report provider have been created, sorted by name.
+     * Note that the name of a data processor may be changed later on, so the names may differ from the processor names.
+     * 
+     * @return the processor names
+     */
+    protected List<String> getProcessorNames()
+    {
+        final List<String> keys = processors.keys();
+        Collections.sort(keys);
+
+        return keys;
+    }
+
     /**
      * Returns the collection of data processor instances used by this report provider.
      * 
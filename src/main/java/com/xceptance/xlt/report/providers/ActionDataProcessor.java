@@ -77,6 +77,17 @@ public class ActionDataProcessor extends BasicTimerDataProcessor
         apdexCalculator.addSample(data.getRunTime(), data.hasFailed());
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void merge(final BasicTimerDataProcessor other)
+    {
+        super.merge(other);
+
+        apdexCalculator.merge(((ActionDataProcessor) other).apdexCalculator);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -242,6 +242,46 @@ public class AgentDataProcessor extends AbstractDataProcessor
         }
     }
 
+    /**
+     * Adds the statistics gathered by the given data processor to the statistics of this data processor.
+     * 
+     * @param other
+     *            the data processor to merge
+     */
+    void merge(final AgentDataProcessor other)
+    {
+        // the full agent name is known only if the other processor has seen resource usage data
+        if (other.cpuUsageValueSet.getValueCount() > 0)
+        {
+            setName(other.getName());
+        }
+
+        cpuUsageValueSet.merge(other.cpuUsageValueSet);
+        totalCpuUsageValueSet.merge(other.totalCpuUsageValueSet);
+        gcCpuUsageValueSet.merge(other.gcCpuUsageValueSet);
+
+        usedHeapValueSet.merge(other.usedHeapValueSet);
+        totalHeapValueSet.merge(other.totalHeapValueSet);
+
+        runnableThreadsValueSet.merge(other.runnableThreadsValueSet);
+        blockedThreadsValueSet.merge(other.blockedThreadsValueSet);
+        waitingThreadsValueSet.merge(other.waitingThreadsValueSet);
+        totalThreadsValueSet.merge(other.totalThreadsValueSet);
+
+        minorGcTimeValueSet.merge(other.minorGcTimeValueSet);
+        fullGcTimeValueSet.merge(other.fullGcTimeValueSet);
+        minorGcCpuUsageMean.merge(other.minorGcCpuUsageMean);
+        fullGcCpuUsageMean.merge(other.fullGcCpuUsageMean);
+
+        minorGcCount = Math.max(minorGcCount, other.minorGcCount);
+        minorGcTime = Math.max(minorGcTime, other.minorGcTime);
+        fullGcCount = Math.max(fullGcCount, other.fullGcCount);
+        fullGcTime = Math.max(fullGcTime, other.fullGcTime);
+
+        transactions += other.transactions;
+        transactionErrors += other.transactionErrors;
+    }
+
     /**
      * Creates a CPU usage chart with the given title and stores it to the passed directory.
      * 
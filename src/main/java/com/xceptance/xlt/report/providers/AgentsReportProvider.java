@@ -18,11 +18,13 @@ package com.xceptance.xlt.report.providers;
 import com.xceptance.xlt.agent.JvmResourceUsageData;
 import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.engine.TransactionData;
+import com.xceptance.xlt.report.ShardableReportProvider;
 
 /**
  * 
  */
 public class AgentsReportProvider extends AbstractDataProcessorBasedReportProvider<AgentDataProcessor>
+    implements ShardableReportProvider
 {
     /**
      * Constructor.
@@ -85,4 +87,31 @@ public class AgentsReportProvider extends AbstractDataProcessorBasedReportProvid
             processor.incrementTransactionCounters(transactionData.hasFailed());
         }
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardableReportProvider createShard()
+    {
+        final AgentsReportProvider shard = new AgentsReportProvider();
+        shard.setConfiguration(getConfiguration());
+
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mergeShard(final ShardableReportProvider shard)
+    {
+        final AgentsReportProvider other = (AgentsReportProvider) shard;
+
+        // look up the processors by agent ID, not by their (possibly fixed) name
+        for (final String agentId : other.getProcessorNames())
+        {
+            getProcessor(agentId).merge(other.getProcessor(agentId));
+        }
+    }
 }
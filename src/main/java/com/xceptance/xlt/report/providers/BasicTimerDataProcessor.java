@@ -15,6 +15,9 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.util.Arrays;
+import java.util.function.Supplier;
+
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.plot.CombinedDomainXYPlot;
 import org.jfree.chart.plot.CombinedRangeXYPlot;
@@ -29,6 +32,7 @@ import com.xceptance.xlt.api.engine.TimerData;
 import com.xceptance.xlt.api.report.AbstractReportProvider;
 import com.xceptance.xlt.report.ReportGeneratorConfiguration;
 import com.xceptance.xlt.report.ReportGeneratorConfiguration.ChartScale;
+import com.xceptance.xlt.report.util.ChartDataWriter;
 import com.xceptance.xlt.report.util.FixedSizeHistogramValueSet;
 import com.xceptance.xlt.report.util.JFreeChartUtils;
 import com.xceptance.xlt.report.util.IntMinMaxValueSet;
@@ -135,6 +139,12 @@ public class BasicTimerDataProcessor extends AbstractDataProcessor
             final TimeSeries runTimeAverageTimeSeries = JFreeChartUtils.createMovingAverageTimeSeries(runTimeTimeSeries,
                                                                                                       getMovingAveragePercentage());
 
+            // the other series are downsampled by whichever task needs them first, but only once
+            final SharedTimeSeries errorsPerSecondTimeSeries = new SharedTimeSeries(() -> JFreeChartUtils.toStandardTimeSeries(errorsPerSecondValueSet.toMinMaxValueSet(minMaxValueSetSize),
+                                                                                                                               "Errors/s"));
+            final SharedTimeSeries countPerSecondTimeSeries = new SharedTimeSeries(() -> JFreeChartUtils.toMinMaxTimeSeries(countPerSecondValueSet.toMinMaxValueSet(minMaxValueSetSize),
+                                                                                                                             "Count/s"));
+
             // create charts asynchronously
             final TaskManager taskManager = TaskManager.getInstance();
 
@@ -149,11 +159,8 @@ public class BasicTimerDataProcessor extends AbstractDataProcessor
 
                     final XYIntervalSeries runTimeHistogramSeries = histogramValueSet.toSeries("Distribution");
 
-                    final TimeSeries errorsPerSecondTimeSeries = JFreeChartUtils.toStandardTimeSeries(errorsPerSecondValueSet.toMinMaxValueSet(minMaxValueSetSize),
-                                                                                                      "Errors/s");
-
                     saveResponseTimeChart(name, runTimeTimeSeries, runTimeAverageTimeSeries, runTimeHistogramSeries,
-                                          errorsPerSecondTimeSeries, chartCappingValue);
+                                          errorsPerSecondTimeSeries.get(), chartCappingValue);
                 }
             });
 
@@ -172,12 +179,23 @@ public class BasicTimerDataProcessor extends AbstractDataProcessor
                 @Override
                 public void run()
                 {
-                    final TimeSeries countPerSecondTimeSeries = JFreeChartUtils.toMinMaxTimeSeries(countPerSecondValueSet.toMinMaxValueSet(minMaxValueSetSize),
-                                                                                                   "Count/s");
-
-                    saveCountPerSecondChart(name, countPerSecondTimeSeries);
+                    saveCountPerSecondChart(name, countPerSecondTimeSeries.get());
                 }
             });
+
+            if (((ReportGeneratorConfiguration) getConfiguration()).chartsJsonData)
+            {
+                taskManager.addTask(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        ChartDataWriter.save(name, getChartDir(), getStartTime(), getEndTime(),
+                                             Arrays.asList(runTimeTimeSeries, runTimeAverageTimeSeries, errorsPerSecondTimeSeries.get(),
+                                                           countPerSecondTimeSeries.get()));
+                    }
+                });
+            }
         }
 
         return timerReport;
@@ -214,6 +232,26 @@ public class BasicTimerDataProcessor extends AbstractDataProcessor
         }
     }
 
+    /**
+     * Adds all the statistics gathered by the given data processor to the statistics of this data processor. Sub
+     * classes that gather additional statistics must override this method.
+     *
+     * @param other
+     *            a data processor of the same class and for the same timer name
+     */
+    public void merge(final BasicTimerDataProcessor other)
+    {
+        runTimeHistogram.merge(other.runTimeHistogram);
+        runTimeStatistics.merge(other.runTimeStatistics);
+
+        runTimeValueSet.merge(other.runTimeValueSet);
+        countPerSecondValueSet.merge(other.countPerSecondValueSet);
+        histogramValueSet.merge(other.histogramValueSet);
+
+        totalErrors += other.totalErrors;
+        errorsPerSecondValueSet.merge(other.errorsPerSecondValueSet);
+    }
+
     protected ValueSet getCountPerSecondValueSet()
     {
         return countPerSecondValueSet;
@@ -441,4 +479,42 @@ public class BasicTimerDataProcessor extends AbstractDataProcessor
         // System.out.printf("OK (%,d values, %,d ms)\n", runTimeTimeSeries.getItemCount(), TimerUtils.getTime() -
         // start);
     }
+
+    /**
+     * A time series that is derived from a value set when it is needed for the first time. Since several charts of a
+     * timer, which are rendered concurrently, may need the same series, the series is derived at most once and then
+     * shared by all of them.
+     */
+    private static class SharedTimeSeries
+    {
+        /**
+         * Derives the time series.
+         */
+        private final Supplier<TimeSeries> supplier;
+
+        /**
+         * The time series, or <code>null</code> if not derived yet.
+         */
+        private TimeSeries timeSeries;
+
+        SharedTimeSeries(final Supplier<TimeSeries> supplier)
+        {
+            this.supplier = supplier;
+        }
+
+        /**
+         * Returns the time series, deriving it first if necessary.
+         *
+         * @return the time series
+         */
+        synchronized TimeSeries get()
+        {
+            if (timeSeries == null)
+            {
+                timeSeries = supplier.get();
+            }
+
+            return timeSeries;
+        }
+    }
 }
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.xceptance.xlt.api.engine.TimerData;
+import com.xceptance.xlt.report.ShardableReportProvider;
 
 /**
  * The BasicTimerReportProvider class provides common functionality of a typical report provider that deals with
@@ -28,8 +29,11 @@ import com.xceptance.xlt.api.engine.TimerData;
  * <li>creation of response time charts</li>
  * <li>creation of CSV files with all the data</li>
  * </ul>
+ * The statistics may be gathered in shards (see {@link ShardableReportProvider}). Sub classes that maintain additional
+ * state outside of their data processors need to override {@link #createShard()} and {@link #mergeShard}.
  */
 public abstract class BasicTimerReportProvider<T extends BasicTimerDataProcessor> extends AbstractDataProcessorBasedReportProvider<T>
+    implements ShardableReportProvider
 {
     /**
      * Constructor.
@@ -66,4 +70,37 @@ public abstract class BasicTimerReportProvider<T extends BasicTimerDataProcessor
 
         return reports;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardableReportProvider createShard()
+    {
+        try
+        {
+            final BasicTimerReportProvider<?> shard = getClass().getConstructor().newInstance();
+            shard.setConfiguration(getConfiguration());
+
+            return shard;
+        }
+        catch (final ReflectiveOperationException ex)
+        {
+            throw new RuntimeException("Failed to create a shard of report provider: " + getClass().getName(), ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void mergeShard(final ShardableReportProvider shard)
+    {
+        // the processors are returned sorted by name, so the merge order is always the same
+        for (final T processor : ((BasicTimerReportProvider<T>) shard).getProcessors())
+        {
+            getProcessor(processor.getName()).merge(processor);
+        }
+    }
 }
@@ -15,13 +15,15 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.Serializable;
+
 import com.thoughtworks.xstream.annotations.XStreamAlias;
 
 /**
  * Represents the total number of responses with a certain content type.
  */
 @XStreamAlias("contentType")
-public class ContentTypeReport
+public class ContentTypeReport implements Serializable
 {
     /**
      * The content type.
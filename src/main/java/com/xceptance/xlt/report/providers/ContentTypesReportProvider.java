@@ -20,11 +20,12 @@ import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.engine.RequestData;
 import com.xceptance.xlt.api.report.AbstractReportProvider;
 import com.xceptance.xlt.api.util.XltCharBuffer;
+import com.xceptance.xlt.report.ShardableReportProvider;
 
 /**
  * Provides basic content type statistics.
  */
-public class ContentTypesReportProvider extends AbstractReportProvider
+public class ContentTypesReportProvider extends AbstractReportProvider implements ShardableReportProvider
 {
     /**
      * A mapping from content types to their corresponding {@link ContentTypeReport} objects.
@@ -74,4 +75,40 @@ public class ContentTypesReportProvider extends AbstractReportProvider
             contentTypeReport.count++;
         }
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardableReportProvider createShard()
+    {
+        final ContentTypesReportProvider shard = new ContentTypesReportProvider();
+        shard.setConfiguration(getConfiguration());
+
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mergeShard(final ShardableReportProvider shard)
+    {
+        final FastHashMap<XltCharBuffer, ContentTypeReport> otherReports = ((ContentTypesReportProvider) shard).contentTypeReports;
+
+        for (final XltCharBuffer key : otherReports.keys())
+        {
+            final ContentTypeReport otherReport = otherReports.get(key);
+
+            final ContentTypeReport report = contentTypeReports.get(key);
+            if (report == null)
+            {
+                contentTypeReports.put(key, otherReport);
+            }
+            else
+            {
+                report.count += otherReport.count;
+            }
+        }
+    }
 }
@@ -24,6 +24,7 @@ import java.util.UUID;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.math3.stat.descriptive.rank.PSquarePercentile;
+import org.apache.commons.math3.util.ResizableDoubleArray;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.DateAxis;
 import org.jfree.chart.axis.NumberAxis;
@@ -64,6 +65,11 @@ public class CustomValueProcessor extends AbstractDataProcessor
 
     private final Map<Double, PSquarePercentile> percentiles = new LinkedHashMap<>();
 
+    /**
+     * The raw samples as pairs of time and value, kept only if this processor belongs to a shard.
+     */
+    private final ResizableDoubleArray samples;
+
     /**
      * Constructor.
      * 
@@ -86,6 +92,10 @@ public class CustomValueProcessor extends AbstractDataProcessor
         {
             percentiles.put(d, new PSquarePercentile(d));
         }
+
+        final boolean shard = reportProvider instanceof CustomValuesReportProvider &&
+                              ((CustomValuesReportProvider) reportProvider).isShard();
+        samples = shard ? new ResizableDoubleArray() : null;
     }
 
     /**
@@ -96,9 +106,42 @@ public class CustomValueProcessor extends AbstractDataProcessor
     {
         final CustomValue sample = (CustomValue) data;
 
-        final double value = sample.getValue();
+        addValue(sample.getTime(), sample.getValue());
+    }
+
+    /**
+     * Adds the samples of the given data processor to this data processor. The samples are replayed one by one since
+     * the percentile estimates and the histogram depend on the order of the values.
+     * 
+     * @param other
+     *            the data processor to merge, must belong to a shard
+     */
+    void merge(final CustomValueProcessor other)
+    {
+        final double[] otherSamples = other.samples.getElements();
+        for (int i = 0; i < otherSamples.length; i += 2)
+        {
+            addValue((long) otherSamples[i], otherSamples[i + 1]);
+        }
+    }
+
+    /**
+     * Updates the statistics with the given value.
+     * 
+     * @param time
+     *            the time of the value
+     * @param value
+     *            the value
+     */
+    private void addValue(final long time, final double value)
+    {
+        if (samples != null)
+        {
+            samples.addElement(time);
+            samples.addElement(value);
+        }
 
-        vSet.addOrUpdateValue(sample.getTime(), value);
+        vSet.addOrUpdateValue(time, value);
         stats.addValue(value);
         median.increment(value);
         histogram.addValue(value);
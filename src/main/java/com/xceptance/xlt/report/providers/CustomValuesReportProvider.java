@@ -17,12 +17,20 @@ package com.xceptance.xlt.report.providers;
 
 import com.xceptance.xlt.api.engine.CustomValue;
 import com.xceptance.xlt.api.engine.Data;
+import com.xceptance.xlt.report.ShardableReportProvider;
 
 /**
  * @author Matthias Ullrich (Xceptance Software Technologies GmbH)
  */
 public class CustomValuesReportProvider extends AbstractDataProcessorBasedReportProvider<CustomValueProcessor>
+    implements ShardableReportProvider
 {
+    /**
+     * Whether this provider is a shard. The data processors of a shard keep the raw samples, since the streaming
+     * percentile estimates and histograms cannot be merged otherwise.
+     */
+    private boolean shard;
+
     /**
      * Constructor.
      */
@@ -60,4 +68,41 @@ public class CustomValuesReportProvider extends AbstractDataProcessorBasedReport
 
         return reports;
     }
+
+    /**
+     * Returns whether this provider is a shard.
+     * 
+     * @return whether this provider is a shard
+     */
+    boolean isShard()
+    {
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardableReportProvider createShard()
+    {
+        final CustomValuesReportProvider shard = new CustomValuesReportProvider();
+        shard.shard = true;
+        shard.setConfiguration(getConfiguration());
+
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mergeShard(final ShardableReportProvider shard)
+    {
+        final CustomValuesReportProvider other = (CustomValuesReportProvider) shard;
+
+        for (final String name : other.getProcessorNames())
+        {
+            getProcessor(name).merge(other.getProcessor(name));
+        }
+    }
 }
@@ -15,6 +15,7 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,7 +25,7 @@ import com.thoughtworks.xstream.annotations.XStreamAlias;
  * Represents the statistics for a certain exception in a test report.
  */
 @XStreamAlias("error")
-public class ErrorReport
+public class ErrorReport implements Serializable
 {
     /**
      * The number how often a certain exception has occurred.
@@ -17,6 +17,7 @@ package com.xceptance.xlt.report.providers;
 
 import java.awt.Color;
 import java.io.File;
+import java.io.Serializable;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -49,6 +50,7 @@ import com.xceptance.xlt.api.util.XltProperties;
 import com.xceptance.xlt.engine.resultbrowser.RequestHistory;
 import com.xceptance.xlt.engine.resultbrowser.RequestHistory.DumpMode;
 import com.xceptance.xlt.report.ReportGeneratorConfiguration;
+import com.xceptance.xlt.report.ShardableReportProvider;
 import com.xceptance.xlt.report.util.JFreeChartUtils;
 import com.xceptance.xlt.report.util.TaskManager;
 import com.xceptance.xlt.report.util.ValueSet;
@@ -58,7 +60,7 @@ import it.unimi.dsi.util.FastRandom;
 /**
  *
  */
-public class ErrorsReportProvider extends AbstractReportProvider
+public class ErrorsReportProvider extends AbstractReportProvider implements ShardableReportProvider
 {
     /**
      * The maximum number of directory hints remembered for a certain error (stack trace).
@@ -75,7 +77,7 @@ public class ErrorsReportProvider extends AbstractReportProvider
     /**
      * The root directory of the result set.
      */
-    private FileObject resultsDirectory;
+    private transient FileObject resultsDirectory;
 
     /**
      * The dump mode used during the load test.
@@ -115,7 +117,7 @@ public class ErrorsReportProvider extends AbstractReportProvider
     /**
      * some fix random sequence that is fast and always the same, this might change in the future
      */
-    private final FastRandom random = new FastRandom(98765111L);
+    private final transient FastRandom random = new FastRandom(98765111L);
 
     /**
      * Constructor.
@@ -554,6 +556,86 @@ public class ErrorsReportProvider extends AbstractReportProvider
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardableReportProvider createShard()
+    {
+        final ErrorsReportProvider shard = new ErrorsReportProvider();
+        shard.setConfiguration(getConfiguration());
+
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mergeShard(final ShardableReportProvider shard)
+    {
+        final ErrorsReportProvider other = (ErrorsReportProvider) shard;
+
+        for (final Entry<String, ErrorValues> entry : other.errorReports.entrySet())
+        {
+            final ErrorValues otherErrorValues = entry.getValue();
+            final ErrorValues errorValues = errorReports.get(entry.getKey());
+            if (errorValues == null)
+            {
+                errorReports.put(entry.getKey(), otherErrorValues);
+            }
+            else
+            {
+                final ErrorReport errorReport = errorValues.getErrorReport();
+                errorReport.count += otherErrorValues.getErrorReport().count;
+                errorValues.getValues().merge(otherErrorValues.getValues());
+
+                // add/replace the directory hints the same way as when processing the data records
+                for (final String directoryHint : otherErrorValues.getErrorReport().directoryHints)
+                {
+                    if (errorReport.directoryHints.size() < directoryLimitPerError)
+                    {
+                        errorReport.directoryHints.add(directoryHint);
+                    }
+                    else if (random.nextDoubleFast() <= directoryReplacementChance)
+                    {
+                        errorReport.directoryHints.set(random.nextInt(directoryLimitPerError), directoryHint);
+                    }
+                }
+            }
+        }
+
+        for (final TransactionErrorOverviewValues otherOverviewValues : other.transactionErrorOverviewValues.values())
+        {
+            final TransactionErrorOverviewValues overviewValues = transactionErrorOverviewValues.get(otherOverviewValues.getOverviewChartID());
+            if (overviewValues == null)
+            {
+                transactionErrorOverviewValues.put(otherOverviewValues.getOverviewChartID(), otherOverviewValues);
+            }
+            else
+            {
+                overviewValues.getValues().merge(otherOverviewValues.getValues());
+            }
+        }
+
+        for (final Entry<String, ValueSet> entry : other.requestErrorOverviewValues.entrySet())
+        {
+            final ValueSet valueSet = requestErrorOverviewValues.get(entry.getKey());
+            if (valueSet == null)
+            {
+                requestErrorOverviewValues.put(entry.getKey(), entry.getValue());
+            }
+            else
+            {
+                valueSet.merge(entry.getValue());
+            }
+        }
+
+        transactionErrorsPerSecondValueSet.merge(other.transactionErrorsPerSecondValueSet);
+        actionErrorsPerSecondValueSet.merge(other.actionErrorsPerSecondValueSet);
+        requestErrorsPerSecondValueSet.merge(other.requestErrorsPerSecondValueSet);
+    }
+
     /**
      * Determines the path prefix to use when generating links from errors to result browsers.
      *
@@ -669,7 +751,7 @@ public class ErrorsReportProvider extends AbstractReportProvider
         return StringUtils.defaultString(errorMessage).hashCode();
     }
 
-    private static class ErrorValues
+    private static class ErrorValues implements Serializable
     {
         private final ErrorReport errorReport;
 
@@ -691,7 +773,7 @@ public class ErrorsReportProvider extends AbstractReportProvider
         }
     }
 
-    private static class TransactionErrorOverviewValues
+    private static class TransactionErrorOverviewValues implements Serializable
     {
         private final ValueSet values = new ValueSet();
 
@@ -15,13 +15,15 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.Serializable;
+
 import com.thoughtworks.xstream.annotations.XStreamAlias;
 
 /**
  * The statistics for a certain event message.
  */
 @XStreamAlias("message")
-public class EventMessageInfo
+public class EventMessageInfo implements Serializable
 {
     /**
      * The number how often a certain event message has occurred.
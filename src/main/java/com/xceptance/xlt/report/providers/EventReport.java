@@ -15,6 +15,7 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.Serializable;
 import java.util.List;
 
 import com.thoughtworks.xstream.annotations.XStreamAlias;
@@ -24,7 +25,7 @@ import com.xceptance.common.collection.FastHashMap;
  * Represents the statistics for a certain event in a test report.
  */
 @XStreamAlias("event")
-public class EventReport
+public class EventReport implements Serializable
 {
     /**
      * The number how often a certain event has occurred.
@@ -95,6 +96,37 @@ public class EventReport
         info.count++;
     }
 
+    /**
+     * Adds the counts and messages of the given event report to this report, respecting the message limit.
+     *
+     * @param other
+     *            the event report to merge
+     * @param limit
+     *            limit the number of messages collected
+     */
+    public void merge(final EventReport other, final int limit)
+    {
+        totalCount += other.totalCount;
+        droppedCount += other.droppedCount;
+
+        for (final EventMessageInfo otherInfo : other.messageMap.values())
+        {
+            final EventMessageInfo info = messageMap.get(otherInfo.info);
+            if (info != null)
+            {
+                info.count += otherInfo.count;
+            }
+            else if (messageMap.size() >= limit)
+            {
+                droppedCount += otherInfo.count;
+            }
+            else
+            {
+                messageMap.put(otherInfo.info, otherInfo);
+            }
+        }
+    }
+
     /**
      * Transform the data for serialization.
      */
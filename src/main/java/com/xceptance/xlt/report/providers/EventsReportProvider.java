@@ -15,6 +15,9 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +34,7 @@ import com.xceptance.xlt.api.report.AbstractReportProvider;
 import com.xceptance.xlt.api.report.ReportProvider;
 import com.xceptance.xlt.api.report.ReportProviderConfiguration;
 import com.xceptance.xlt.report.ReportGeneratorConfiguration;
+import com.xceptance.xlt.report.ShardableReportProvider;
 import com.xceptance.xlt.report.util.JFreeChartUtils;
 import com.xceptance.xlt.report.util.TaskManager;
 import com.xceptance.xlt.report.util.ValueSet;
@@ -39,7 +43,7 @@ import com.xceptance.xlt.report.util.ValueSet;
  * An implementation of {@link ReportProvider} that is responsible to process all the {@link EventData} records and to
  * create the Events section in the test report XML.
  */
-public class EventsReportProvider extends AbstractReportProvider
+public class EventsReportProvider extends AbstractReportProvider implements ShardableReportProvider
 {
     /**
      * Artificial Test Case Name to sum things up
@@ -219,6 +223,93 @@ public class EventsReportProvider extends AbstractReportProvider
         return eventsReport;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardableReportProvider createShard()
+    {
+        final EventsReportProvider shard = new EventsReportProvider();
+        shard.setConfiguration(getConfiguration());
+
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mergeShard(final ShardableReportProvider shard)
+    {
+        final EventsReportProvider other = (EventsReportProvider) shard;
+
+        eventsPerSecondValueSet.merge(other.eventsPerSecondValueSet);
+        eventsDropped += other.eventsDropped;
+
+        for (final String testCaseName : other.testCaseToEventMap.keys())
+        {
+            final Map<String, EventReport> otherStat = other.testCaseToEventMap.get(testCaseName);
+
+            final Map<String, EventReport> stat = this.testCaseToEventMap.get(testCaseName);
+            if (stat == null)
+            {
+                this.testCaseToEventMap.put(testCaseName, otherStat);
+                continue;
+            }
+
+            for (final EventReport otherEventReport : otherStat.values())
+            {
+                final EventReport eventReport = stat.get(otherEventReport.name);
+                if (eventReport != null)
+                {
+                    eventReport.merge(otherEventReport, messageLimit);
+                }
+                else if (stat.size() >= eventLimitPerTestCase)
+                {
+                    eventsDropped += otherEventReport.totalCount;
+                }
+                else
+                {
+                    stat.put(otherEventReport.name, otherEventReport);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes this provider including the message maps of the event reports, which are transient to keep them out of
+     * the XML report.
+     */
+    private void writeObject(final ObjectOutputStream out) throws IOException
+    {
+        out.defaultWriteObject();
+
+        for (final Map<String, EventReport> stat : testCaseToEventMap.values())
+        {
+            for (final EventReport eventReport : stat.values())
+            {
+                out.writeObject(eventReport);
+                out.writeObject(eventReport.messageMap);
+            }
+        }
+        out.writeObject(null);
+    }
+
+    /**
+     * Reads this provider including the message maps of the event reports.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+
+        EventReport eventReport;
+        while ((eventReport = (EventReport) in.readObject()) != null)
+        {
+            eventReport.messageMap = (FastHashMap<String, EventMessageInfo>) in.readObject();
+        }
+    }
+
     /**
      * Creates a chart where the passed events time series is drawn as bar plot. The chart is generated to the charts
      * directory.
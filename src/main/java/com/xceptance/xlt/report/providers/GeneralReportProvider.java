@@ -31,6 +31,7 @@ import com.xceptance.xlt.api.engine.RequestData;
 import com.xceptance.xlt.api.engine.TransactionData;
 import com.xceptance.xlt.api.report.AbstractReportProvider;
 import com.xceptance.xlt.api.report.ReportProviderConfiguration;
+import com.xceptance.xlt.report.ShardableReportProvider;
 import com.xceptance.xlt.report.util.ConcurrentUsersTable;
 import com.xceptance.xlt.report.util.JFreeChartUtils;
 import com.xceptance.xlt.report.util.JFreeChartUtils.ColorSet;
@@ -41,7 +42,7 @@ import com.xceptance.xlt.report.util.ValueSet;
 /**
  *
  */
-public class GeneralReportProvider extends AbstractReportProvider
+public class GeneralReportProvider extends AbstractReportProvider implements ShardableReportProvider
 {
     private final ValueSet bytesReceivedValueSet = new ValueSet();
 
@@ -65,6 +66,12 @@ public class GeneralReportProvider extends AbstractReportProvider
 
     private SlowestRequestsTracker slowestRequestsTracker;
 
+    /**
+     * The table to record the user activity in. Shards use a table of their own which is merged into the global table
+     * later on.
+     */
+    private ConcurrentUsersTable concurrentUsersTable = ConcurrentUsersTable.getInstance();
+
     /**
      * {@inheritDoc}
      */
@@ -220,7 +227,7 @@ public class GeneralReportProvider extends AbstractReportProvider
             final long time = txnData.getTime();
             final long endTime = txnData.getEndTime();
 
-            ConcurrentUsersTable.getInstance().recordUserActivity(time, endTime, txnData.getName(), txnData.getTestUserNumber());
+            concurrentUsersTable.recordUserActivity(time, endTime, txnData.getName(), txnData.getTestUserNumber());
 
             // count the transaction at the time it has finished
             totalTransactionsValueSet.addOrUpdateValue(endTime, 1);
@@ -232,6 +239,48 @@ public class GeneralReportProvider extends AbstractReportProvider
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardableReportProvider createShard()
+    {
+        final GeneralReportProvider shard = new GeneralReportProvider();
+        shard.concurrentUsersTable = new ConcurrentUsersTable();
+        shard.setConfiguration(getConfiguration());
+
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mergeShard(final ShardableReportProvider shard)
+    {
+        final GeneralReportProvider other = (GeneralReportProvider) shard;
+
+        totalBytesSent += other.totalBytesSent;
+        totalBytesReceived += other.totalBytesReceived;
+        bytesSentValueSet.merge(other.bytesSentValueSet);
+        bytesReceivedValueSet.merge(other.bytesReceivedValueSet);
+
+        totalRequests += other.totalRequests;
+        requestsValueSet.merge(other.requestsValueSet);
+
+        requestRunTimeValueSet.merge(other.requestRunTimeValueSet);
+
+        if (slowestRequestsTracker != null)
+        {
+            slowestRequestsTracker.merge(other.slowestRequestsTracker);
+        }
+
+        totalTransactionsValueSet.merge(other.totalTransactionsValueSet);
+        failedTransactionsValueSet.merge(other.failedTransactionsValueSet);
+
+        concurrentUsersTable.merge(other.concurrentUsersTable);
+    }
+
     /**
      * Creates a chart from the given timer list and stores it to the passed directory.
      *
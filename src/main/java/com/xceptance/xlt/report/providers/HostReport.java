@@ -15,13 +15,15 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.Serializable;
+
 import com.thoughtworks.xstream.annotations.XStreamAlias;
 
 /**
  * Represents the total number of requests to a certain host.
  */
 @XStreamAlias("host")
-public class HostReport
+public class HostReport implements Serializable
 {
     /**
      * The host name.
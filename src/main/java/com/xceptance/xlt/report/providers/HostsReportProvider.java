@@ -20,11 +20,12 @@ import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.engine.RequestData;
 import com.xceptance.xlt.api.report.AbstractReportProvider;
 import com.xceptance.xlt.api.util.XltCharBuffer;
+import com.xceptance.xlt.report.ShardableReportProvider;
 
 /**
  * Provides basic statistics for the hosts visited during the test.
  */
-public class HostsReportProvider extends AbstractReportProvider
+public class HostsReportProvider extends AbstractReportProvider implements ShardableReportProvider
 {
     /**
      * A mapping from host names to their corresponding {@link HostReport} objects.
@@ -69,4 +70,40 @@ public class HostsReportProvider extends AbstractReportProvider
             hostReport.count++;
         }
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardableReportProvider createShard()
+    {
+        final HostsReportProvider shard = new HostsReportProvider();
+        shard.setConfiguration(getConfiguration());
+
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mergeShard(final ShardableReportProvider shard)
+    {
+        final FastHashMap<XltCharBuffer, HostReport> otherReports = ((HostsReportProvider) shard).hostReports;
+
+        for (final XltCharBuffer key : otherReports.keys())
+        {
+            final HostReport otherReport = otherReports.get(key);
+
+            final HostReport report = hostReports.get(key);
+            if (report == null)
+            {
+                hostReports.put(key, otherReport);
+            }
+            else
+            {
+                report.count += otherReport.count;
+            }
+        }
+    }
 }
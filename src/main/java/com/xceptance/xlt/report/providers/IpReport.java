@@ -15,13 +15,15 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.Serializable;
+
 import com.thoughtworks.xstream.annotations.XStreamAlias;
 
 /**
  * Represents the total number of requests to a certain ip address.
  */
 @XStreamAlias("ip")
-public class IpReport
+public class IpReport implements Serializable
 {
     /**
      * The ip address.
@@ -22,11 +22,12 @@ import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.engine.RequestData;
 import com.xceptance.xlt.api.report.AbstractReportProvider;
 import com.xceptance.xlt.api.util.XltCharBuffer;
+import com.xceptance.xlt.report.ShardableReportProvider;
 
 /**
  * Provides basic statistics for the IP addresses visited during the test.
  */
-public class IpReportProvider extends AbstractReportProvider
+public class IpReportProvider extends AbstractReportProvider implements ShardableReportProvider
 {
     /**
      * The key to use if the IP to make the request was not recorded.
@@ -94,4 +95,40 @@ public class IpReportProvider extends AbstractReportProvider
         // update the statistics
         ipReport.count++;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardableReportProvider createShard()
+    {
+        final IpReportProvider shard = new IpReportProvider();
+        shard.setConfiguration(getConfiguration());
+
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mergeShard(final ShardableReportProvider shard)
+    {
+        final FastHashMap<XltCharBuffer, IpReport> otherReports = ((IpReportProvider) shard).ipReports;
+
+        for (final XltCharBuffer key : otherReports.keys())
+        {
+            final IpReport otherReport = otherReports.get(key);
+
+            final IpReport report = ipReports.get(key);
+            if (report == null)
+            {
+                ipReports.put(key, otherReport);
+            }
+            else
+            {
+                report.count += otherReport.count;
+            }
+        }
+    }
 }
@@ -17,7 +17,11 @@ package com.xceptance.xlt.report.providers;
 
 import java.awt.Color;
 import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -34,7 +38,6 @@ import org.jfree.data.time.TimeSeries;
 import org.jfree.data.xy.XYIntervalSeries;
 import org.jfree.data.xy.XYIntervalSeriesCollection;
 
-import com.xceptance.common.collection.FastHashMap;
 import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.engine.RequestData;
 import com.xceptance.xlt.api.report.AbstractReportProvider;
@@ -72,14 +75,22 @@ public class RequestDataProcessor extends BasicTimerDataProcessor
     private final IntMinMaxValueSet responseSizeValueSet;
 
     /**
-     * Using a memory efficient HyperLogLog algorithmm for counting distinct urls
+     * Using a memory efficient HyperLogLog algorithmm for counting distinct urls, serialized via its byte
+     * representation
      */
-    private final HLL distinctUrlsHLL = new HLL(21/* log2m */, 5/* registerWidth */);
+    private transient HLL distinctUrlsHLL = new HLL(21/* log2m */, 5/* registerWidth */);
 
     /**
-     * A set of distinct URLs. Contains at most {@link #MAXIMUM_NUMBER_OF_URLS} entries.
+     * A sample of the distinct URLs, at most {@link #MAXIMUM_NUMBER_OF_URLS} entries. To not depend on the order in
+     * which requests are processed or spread across parser threads, the sample holds the URLs with the lowest hash
+     * codes (ties broken by the URL itself), sorted accordingly.
      */
-    private final FastHashMap<XltCharBuffer, XltCharBuffer> distinctUrlSet = new FastHashMap<>(2 * MAXIMUM_NUMBER_OF_URLS + 1, 0.5f);
+    private final XltCharBuffer[] sampleUrls = new XltCharBuffer[MAXIMUM_NUMBER_OF_URLS];
+
+    /**
+     * The hash codes (of the URL without fragment) of the sampled URLs.
+     */
+    private final int[] sampleUrlHashes = new int[MAXIMUM_NUMBER_OF_URLS];
 
     /**
      * The configured runtime segment boundaries. May be an empty array.
@@ -148,9 +159,9 @@ public class RequestDataProcessor extends BasicTimerDataProcessor
     private final boolean countDistinctUrls;
 
     /**
-     * Avoid to ask the set again for the size
+     * The number of sampled URLs.
      */
-    private int distinctUrlSetLimitedSize;
+    private int sampleUrlCount;
 
     /**
      * Constructor.
@@ -262,7 +273,7 @@ public class RequestDataProcessor extends BasicTimerDataProcessor
         final RequestReport timerReport = (RequestReport) super.createTimerReport(generateHistograms);
 
         // just int is safe, more than 2 billion urls is unlikely
-        timerReport.urls = getUrlList(distinctUrlSet, (int) distinctUrlsHLL.cardinality());
+        timerReport.urls = getUrlList((int) distinctUrlsHLL.cardinality());
         timerReport.countPerInterval = countPerSegment != null ? countPerSegment.getCountPerSegment() : ArrayUtils.EMPTY_INT_ARRAY;
 
         final long duration = Math.max((getConfiguration().getChartEndTime() - getConfiguration().getChartStartTime()) / 1000, 1);
@@ -307,19 +318,7 @@ public class RequestDataProcessor extends BasicTimerDataProcessor
             distinctUrlsHLL.addRaw(reqData.hashCodeOfUrlWithoutFragment());
 
             // remember some URLs (up to the limit)
-            if (distinctUrlSetLimitedSize < MAXIMUM_NUMBER_OF_URLS)
-            {
-                final XltCharBuffer url = reqData.getUrl();
-
-                // write it only when unknown, saves some operations
-                // we have either something really small and write the same all over again
-                // or we have a lot and stopped writing early
-                if (distinctUrlSet.get(url) == null)
-                {
-                    distinctUrlSet.put(url, url);
-                    distinctUrlSetLimitedSize = distinctUrlSet.size();
-                }
-            }
+            addSampleUrl(reqData.getUrl(), reqData.hashCodeOfUrlWithoutFragment());
         }
 
         bytesSentStatistics.addValue(reqData.getBytesSent());
@@ -333,6 +332,45 @@ public class RequestDataProcessor extends BasicTimerDataProcessor
         timeToLastBytesStatistics.addValue(reqData.getTimeToLastBytes());
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void merge(final BasicTimerDataProcessor other)
+    {
+        super.merge(other);
+
+        final RequestDataProcessor otherProcessor = (RequestDataProcessor) other;
+
+        if (runTimeHistogramValueSet != null)
+        {
+            runTimeHistogramValueSet.merge(otherProcessor.runTimeHistogramValueSet);
+            countPerSegment.merge(otherProcessor.countPerSegment);
+        }
+
+        responseSizeValueSet.merge(otherProcessor.responseSizeValueSet);
+
+        if (countDistinctUrls)
+        {
+            distinctUrlsHLL.union(otherProcessor.distinctUrlsHLL);
+
+            for (int i = 0; i < otherProcessor.sampleUrlCount; i++)
+            {
+                addSampleUrl(otherProcessor.sampleUrls[i], otherProcessor.sampleUrlHashes[i]);
+            }
+        }
+
+        bytesSentStatistics.merge(otherProcessor.bytesSentStatistics);
+        bytesReceivedStatistics.merge(otherProcessor.bytesReceivedStatistics);
+        dnsTimeStatistics.merge(otherProcessor.dnsTimeStatistics);
+        connectTimeStatistics.merge(otherProcessor.connectTimeStatistics);
+        sendTimeStatistics.merge(otherProcessor.sendTimeStatistics);
+        serverBusyTimeStatistics.merge(otherProcessor.serverBusyTimeStatistics);
+        receiveTimeStatistics.merge(otherProcessor.receiveTimeStatistics);
+        timeToFirstBytesStatistics.merge(otherProcessor.timeToFirstBytesStatistics);
+        timeToLastBytesStatistics.merge(otherProcessor.timeToLastBytesStatistics);
+    }
+
     /**
      * Creates a chart from the passed bytes received values. The chart's title and file name are derived from the
      * specified timer name. The chart is generated to the charts directory.
@@ -458,16 +496,73 @@ public class RequestDataProcessor extends BasicTimerDataProcessor
      *            the total number of distinct URLs
      * @return the URL list
      */
-    private UrlData getUrlList(final FastHashMap<XltCharBuffer, XltCharBuffer> urls, final int totalUrlCount)
+    private UrlData getUrlList(final int totalUrlCount)
     {
         final UrlData urlData = new UrlData();
 
         urlData.total = totalUrlCount;
-        urlData.list = urls.keys().stream().map(XltCharBuffer::toString).collect(Collectors.toList());
+        urlData.list = Arrays.stream(sampleUrls, 0, sampleUrlCount).map(XltCharBuffer::toString).collect(Collectors.toList());
 
         return urlData;
     }
 
+    /**
+     * Adds the given URL to the URL sample if it is not known yet and ranks among the lowest ones.
+     *
+     * @param url
+     *            the URL
+     * @param hash
+     *            the hash code of the URL without fragment
+     */
+    private void addSampleUrl(final XltCharBuffer url, final int hash)
+    {
+        int count = sampleUrlCount;
+
+        // the sample is full most of the time, so check the last entry first
+        if (count == MAXIMUM_NUMBER_OF_URLS && compareSampleUrl(url, hash, count - 1) >= 0)
+        {
+            return;
+        }
+
+        // find the position, if not known yet
+        int pos = 0;
+        for (; pos < count; pos++)
+        {
+            final int c = compareSampleUrl(url, hash, pos);
+            if (c == 0)
+            {
+                return;
+            }
+            else if (c < 0)
+            {
+                break;
+            }
+        }
+
+        // drop the last entry if the sample is full
+        if (count == MAXIMUM_NUMBER_OF_URLS)
+        {
+            count--;
+        }
+
+        System.arraycopy(sampleUrls, pos, sampleUrls, pos + 1, count - pos);
+        System.arraycopy(sampleUrlHashes, pos, sampleUrlHashes, pos + 1, count - pos);
+        sampleUrls[pos] = url;
+        sampleUrlHashes[pos] = hash;
+
+        sampleUrlCount = count + 1;
+    }
+
+    /**
+     * Compares the given URL with the sampled URL at the given position.
+     */
+    private int compareSampleUrl(final XltCharBuffer url, final int hash, final int pos)
+    {
+        final int c = Integer.compare(hash, sampleUrlHashes[pos]);
+
+        return c != 0 ? c : url.compareTo(sampleUrls[pos]);
+    }
+
     private ExtendedStatisticsReport createExtendedStatisticsReport(final IntSummaryStatistics statistics, final long duration)
     {
         final ExtendedStatisticsReport statisticsReport = new ExtendedStatisticsReport();
@@ -498,4 +593,16 @@ public class RequestDataProcessor extends BasicTimerDataProcessor
 
         return statisticsReport;
     }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException
+    {
+        out.defaultWriteObject();
+        out.writeObject(distinctUrlsHLL.toBytes());
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        distinctUrlsHLL = HLL.fromBytes((byte[]) in.readObject());
+    }
 }
@@ -15,13 +15,15 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.Serializable;
+
 import com.thoughtworks.xstream.annotations.XStreamAlias;
 
 /**
  * Represents the total number of requests that were using a certain HTTP request method.
  */
 @XStreamAlias("requestMethod")
-public class RequestMethodReport
+public class RequestMethodReport implements Serializable
 {
     /**
      * The HTTP request method.
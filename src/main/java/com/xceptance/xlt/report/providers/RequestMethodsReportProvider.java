@@ -22,11 +22,12 @@ import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.engine.RequestData;
 import com.xceptance.xlt.api.report.AbstractReportProvider;
 import com.xceptance.xlt.api.util.XltCharBuffer;
+import com.xceptance.xlt.report.ShardableReportProvider;
 
 /**
  * Provides basic statistics for the HTTP request methods used during the test.
  */
-public class RequestMethodsReportProvider extends AbstractReportProvider
+public class RequestMethodsReportProvider extends AbstractReportProvider implements ShardableReportProvider
 {
     /**
      * The key to use if the request method was not recorded.
@@ -80,4 +81,40 @@ public class RequestMethodsReportProvider extends AbstractReportProvider
             requestMethodReport.count++;
         }
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardableReportProvider createShard()
+    {
+        final RequestMethodsReportProvider shard = new RequestMethodsReportProvider();
+        shard.setConfiguration(getConfiguration());
+
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mergeShard(final ShardableReportProvider shard)
+    {
+        final FastHashMap<XltCharBuffer, RequestMethodReport> otherReports = ((RequestMethodsReportProvider) shard).requestMethodReports;
+
+        for (final XltCharBuffer key : otherReports.keys())
+        {
+            final RequestMethodReport otherReport = otherReports.get(key);
+
+            final RequestMethodReport report = requestMethodReports.get(key);
+            if (report == null)
+            {
+                requestMethodReports.put(key, otherReport);
+            }
+            else
+            {
+                report.count += otherReport.count;
+            }
+        }
+    }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report.providers;
+
+import com.thoughtworks.xstream.annotations.XStreamAlias;
+
+/**
+ * Represents the number of requests a certain request processing rule applied to.
+ */
+@XStreamAlias("rule")
+public class RequestProcessingRuleReport
+{
+    /**
+     * The position of the rule in the order the rules are applied, starting with 1.
+     */
+    public int position;
+
+    /**
+     * The new name of the rule, including placeholders.
+     */
+    public String newName;
+
+    /**
+     * The textual representation of the rule.
+     */
+    public String description;
+
+    /**
+     * The number of requests the rule applied to.
+     */
+    public long hits;
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report.providers;
+
+import java.util.List;
+
+import com.xceptance.xlt.api.engine.Data;
+import com.xceptance.xlt.api.report.AbstractReportProvider;
+import com.xceptance.xlt.report.mergerules.RequestProcessingRule;
+import com.xceptance.xlt.report.mergerules.RequestProcessingRuleStatistics;
+
+/**
+ * Reports how often each request processing rule applied while the timer files were parsed. Helps to find rules that
+ * never match or that match more requests than intended.
+ * <p>
+ * Note that the hits are counted while parsing, so if a statistics snapshot is used, only the records read in the
+ * current run are taken into account.
+ */
+public class RequestProcessingRulesReportProvider extends AbstractReportProvider
+{
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object createReportFragment()
+    {
+        final RequestProcessingRulesReport report = new RequestProcessingRulesReport();
+
+        final RequestProcessingRuleStatistics statistics = RequestProcessingRuleStatistics.getInstance();
+        final List<RequestProcessingRule> rules = statistics.getRules();
+
+        for (int i = 0; i < rules.size(); i++)
+        {
+            final RequestProcessingRule rule = rules.get(i);
+
+            final RequestProcessingRuleReport ruleReport = new RequestProcessingRuleReport();
+            ruleReport.position = i + 1;
+            ruleReport.newName = rule.getNewName();
+            ruleReport.description = rule.toString();
+            ruleReport.hits = statistics.getHitCount(i);
+
+            report.rules.add(ruleReport);
+        }
+
+        return report;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void processDataRecord(final Data data)
+    {
+        // nothing to do here
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean wantsDataRecords()
+    {
+        return false;
+    }
+}
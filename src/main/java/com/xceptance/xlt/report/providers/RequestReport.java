@@ -74,7 +74,8 @@ public class RequestReport extends TimerReport
     public int[] countPerInterval;
 
     /**
-     * A list of the top URLs.
+     * A sample of the distinct URLs, i.e. the ones with the lowest hash codes, together with the number of distinct
+     * URLs.
      */
     public UrlData urls;
 }
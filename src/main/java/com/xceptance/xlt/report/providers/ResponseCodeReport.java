@@ -15,13 +15,15 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.Serializable;
+
 import com.thoughtworks.xstream.annotations.XStreamAlias;
 
 /**
  * Represents the total number of requests that ended with a certain HTTP response code.
  */
 @XStreamAlias("responseCode")
-public class ResponseCodeReport
+public class ResponseCodeReport implements Serializable
 {
     /**
      * The HTTP response code.
@@ -24,11 +24,12 @@ import org.apache.http.impl.EnglishReasonPhraseCatalog;
 import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.engine.RequestData;
 import com.xceptance.xlt.api.report.AbstractReportProvider;
+import com.xceptance.xlt.report.ShardableReportProvider;
 
 /**
  * 
  */
-public class ResponseCodesReportProvider extends AbstractReportProvider
+public class ResponseCodesReportProvider extends AbstractReportProvider implements ShardableReportProvider
 {
     /**
      * A mapping from response codes to their corresponding {@link ResponseCodeReport} objects.
@@ -74,6 +75,38 @@ public class ResponseCodesReportProvider extends AbstractReportProvider
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardableReportProvider createShard()
+    {
+        final ResponseCodesReportProvider shard = new ResponseCodesReportProvider();
+        shard.setConfiguration(getConfiguration());
+
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mergeShard(final ShardableReportProvider shard)
+    {
+        for (final ResponseCodeReport otherReport : ((ResponseCodesReportProvider) shard).responseCodeReports.values())
+        {
+            final ResponseCodeReport responseCodeReport = responseCodeReports.get(otherReport.code);
+            if (responseCodeReport == null)
+            {
+                responseCodeReports.put(otherReport.code, otherReport);
+            }
+            else
+            {
+                responseCodeReport.count += otherReport.count;
+            }
+        }
+    }
+
     /**
      * Returns the corresponding status text for the given HTTP status code.
      * 
@@ -15,13 +15,15 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.Serializable;
+
 import com.thoughtworks.xstream.annotations.XStreamAlias;
 
 /**
  * Represents URL and runtime of a slow request.
  */
 @XStreamAlias("request")
-public class SlowRequestReport implements Comparable<SlowRequestReport>
+public class SlowRequestReport implements Comparable<SlowRequestReport>, Serializable
 {
     /**
      * The request's URL.
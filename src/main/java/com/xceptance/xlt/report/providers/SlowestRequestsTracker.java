@@ -15,6 +15,7 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -28,7 +29,7 @@ import com.xceptance.xlt.api.engine.RequestData;
  * Stores URL and runtime of the N slowest requests encountered. Maintains unique URLs only and only the maximum runtime
  * per URL.
  */
-public class SlowestRequestsTracker
+public class SlowestRequestsTracker implements Serializable
 {
     /**
      * The number of requests to remember.
@@ -76,53 +77,81 @@ public class SlowestRequestsTracker
         // reject most requests early with a simple check
         if (runtime > minimumStoredRuntime)
         {
-            final String url = requestData.getUrl().toString();
+            update(requestData.getUrl().toString(), runtime);
+        }
+    }
 
-            // get entry for this URL or create a new one
-            SlowRequestReport requestReport = slowestRequestsByUrl.get(url);
-            if (requestReport == null)
+    /**
+     * Adds all the requests tracked by the given tracker to this tracker.
+     * 
+     * @param other
+     *            the tracker to merge
+     */
+    public void merge(final SlowestRequestsTracker other)
+    {
+        for (final SlowRequestReport request : other.slowestRequests)
+        {
+            if (request.runtime > minimumStoredRuntime)
             {
-                // we need to create a new entry for this URL
+                update(request.url, request.runtime);
+            }
+        }
+    }
 
-                // first check if the data structure is "full"
-                if (slowestRequests.size() == capacity)
-                {
-                    // yes, make room for the new element
-                    final SlowRequestReport old = slowestRequests.last();
+    /**
+     * Updates the list of slowest requests with the given URL and runtime as necessary.
+     * 
+     * @param url
+     *            the URL
+     * @param runtime
+     *            the runtime
+     */
+    private void update(final String url, final long runtime)
+    {
+        // get entry for this URL or create a new one
+        SlowRequestReport requestReport = slowestRequestsByUrl.get(url);
+        if (requestReport == null)
+        {
+            // we need to create a new entry for this URL
 
-                    slowestRequests.remove(old);
-                    slowestRequestsByUrl.remove(old.url);
-                }
+            // first check if the data structure is "full"
+            if (slowestRequests.size() == capacity)
+            {
+                // yes, make room for the new element
+                final SlowRequestReport old = slowestRequests.last();
+
+                slowestRequests.remove(old);
+                slowestRequestsByUrl.remove(old.url);
+            }
+
+            // create and add the new entry
+            requestReport = new SlowRequestReport();
+            requestReport.url = url;
+            requestReport.runtime = runtime;
+
+            slowestRequests.add(requestReport);
+            slowestRequestsByUrl.put(url, requestReport);
+        }
+        else
+        {
+            // found an entry with this URL -> just update the runtime if necessary
+            if (runtime > requestReport.runtime)
+            {
+                // first remove
+                slowestRequests.remove(requestReport);
 
-                // create and add the new entry
-                requestReport = new SlowRequestReport();
-                requestReport.url = url;
+                // only then change
                 requestReport.runtime = runtime;
 
+                // only then add
                 slowestRequests.add(requestReport);
-                slowestRequestsByUrl.put(url, requestReport);
-            }
-            else
-            {
-                // found an entry with this URL -> just update the runtime if necessary
-                if (runtime > requestReport.runtime)
-                {
-                    // first remove
-                    slowestRequests.remove(requestReport);
-
-                    // only then change
-                    requestReport.runtime = runtime;
-
-                    // only then add
-                    slowestRequests.add(requestReport);
-                }
             }
+        }
 
-            // only if the data structure is full (now) -> remember the now minimum runtime
-            if (slowestRequests.size() == capacity)
-            {
-                minimumStoredRuntime = slowestRequests.last().runtime;
-            }
+        // only if the data structure is full (now) -> remember the now minimum runtime
+        if (slowestRequests.size() == capacity)
+        {
+            minimumStoredRuntime = slowestRequests.last().runtime;
         }
     }
 
@@ -25,10 +25,11 @@ import com.xceptance.xlt.api.engine.RequestData;
 import com.xceptance.xlt.api.engine.TransactionData;
 import com.xceptance.xlt.api.report.AbstractReportProvider;
 import com.xceptance.xlt.api.report.ReportProviderConfiguration;
+import com.xceptance.xlt.report.ShardableReportProvider;
 
 /**
  */
-public class SummaryReportProvider extends AbstractReportProvider
+public class SummaryReportProvider extends AbstractReportProvider implements ShardableReportProvider
 {
     private TransactionDataProcessor transactionDataProcessor;
 
@@ -108,4 +109,32 @@ public class SummaryReportProvider extends AbstractReportProvider
             agentDataProcessor.processDataRecord(data);
         }
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardableReportProvider createShard()
+    {
+        final SummaryReportProvider shard = new SummaryReportProvider();
+        shard.setConfiguration(getConfiguration());
+
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mergeShard(final ShardableReportProvider shard)
+    {
+        final SummaryReportProvider other = (SummaryReportProvider) shard;
+
+        transactionDataProcessor.merge(other.transactionDataProcessor);
+        actionDataProcessor.merge(other.actionDataProcessor);
+        requestDataProcessor.merge(other.requestDataProcessor);
+        pageLoadDataProcessor.merge(other.pageLoadDataProcessor);
+        customTimerDataProcessor.merge(other.customTimerDataProcessor);
+        agentDataProcessor.merge(other.agentDataProcessor);
+    }
 }
@@ -76,4 +76,13 @@ public class TestReportConfigurationReportProvider extends AbstractReportProvide
     {
         // nothing to do here
     }
+
+    /**
+     * Tell the system that there is no need to call processDataRecord
+     */
+    @Override
+    public boolean wantsDataRecords()
+    {
+        return false;
+    }
 }
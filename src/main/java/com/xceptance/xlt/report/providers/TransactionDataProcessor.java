@@ -162,6 +162,20 @@ public class TransactionDataProcessor extends BasicTimerDataProcessor
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void merge(final BasicTimerDataProcessor other)
+    {
+        super.merge(other);
+
+        final TransactionDataProcessor otherProcessor = (TransactionDataProcessor) other;
+        arrivalsPerHourPerSecond.merge(otherProcessor.arrivalsPerHourPerSecond);
+        eventsPerSecond.merge(otherProcessor.eventsPerSecond);
+        numberOfEvents += otherProcessor.numberOfEvents;
+    }
+
     /**
      * {@inheritDoc}
      */
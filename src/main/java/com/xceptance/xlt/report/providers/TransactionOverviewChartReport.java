@@ -15,13 +15,15 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.Serializable;
+
 import com.thoughtworks.xstream.annotations.XStreamAlias;
 
 /**
  * 
  */
 @XStreamAlias("chart")
-public class TransactionOverviewChartReport
+public class TransactionOverviewChartReport implements Serializable
 {
     public int id;
 
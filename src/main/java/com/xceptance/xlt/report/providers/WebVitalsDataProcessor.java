@@ -15,10 +15,12 @@
  */
 package com.xceptance.xlt.report.providers;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.math3.stat.descriptive.rank.PSquarePercentile;
+import org.apache.commons.math3.util.ResizableDoubleArray;
 
 import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.engine.WebVitalData;
@@ -61,6 +63,44 @@ public class WebVitalsDataProcessor extends AbstractDataProcessor
     public WebVitalsDataProcessor(final String name, final AbstractReportProvider reportProvider)
     {
         super(name, reportProvider);
+
+        if (reportProvider instanceof WebVitalsReportProvider && ((WebVitalsReportProvider) reportProvider).isShard())
+        {
+            for (final WebVitalStatistics statistics : getStatistics())
+            {
+                statistics.samples = new ResizableDoubleArray();
+            }
+        }
+    }
+
+    /**
+     * Adds the observations of the given data processor to this data processor.
+     * 
+     * @param other
+     *            the data processor to merge, must belong to a shard
+     */
+    void merge(final WebVitalsDataProcessor other)
+    {
+        final WebVitalStatistics[] statistics = getStatistics();
+        final WebVitalStatistics[] otherStatistics = other.getStatistics();
+
+        for (int i = 0; i < statistics.length; i++)
+        {
+            statistics[i].merge(otherStatistics[i]);
+        }
+    }
+
+    /**
+     * Returns the statistics for all known web vitals.
+     * 
+     * @return the statistics
+     */
+    private WebVitalStatistics[] getStatistics()
+    {
+        return new WebVitalStatistics[]
+            {
+                cls, fcp, fid, inp, lcp, ttfb
+            };
     }
 
     /**
@@ -136,7 +176,7 @@ public class WebVitalsDataProcessor extends AbstractDataProcessor
     /**
      * A statistics object that is fed with all observations for a certain web vital type and produces a final result.
      */
-    public static class WebVitalStatistics
+    public static class WebVitalStatistics implements Serializable
     {
         /**
          * The threshold that values rated "good" must not exceed.
@@ -168,6 +208,11 @@ public class WebVitalsDataProcessor extends AbstractDataProcessor
          */
         private int poorCount;
 
+        /**
+         * The raw observation values, kept only if the statistics belong to a shard.
+         */
+        private ResizableDoubleArray samples;
+
         /**
          * Creates a {@link WebVitalStatistics} object and initializes it with its thresholds.
          */
@@ -185,6 +230,11 @@ public class WebVitalsDataProcessor extends AbstractDataProcessor
          */
         public void update(double value)
         {
+            if (samples != null)
+            {
+                samples.addElement(value);
+            }
+
             p75Estimator.increment(value);
 
             if (value <= threshold1)
@@ -201,6 +251,21 @@ public class WebVitalsDataProcessor extends AbstractDataProcessor
             }
         }
 
+        /**
+         * Adds the observations of the given statistics to these statistics. The observations are replayed one by one
+         * since the P75 estimate depends on the order of the values.
+         * 
+         * @param other
+         *            the statistics to merge, must keep the raw observation values
+         */
+        void merge(final WebVitalStatistics other)
+        {
+            for (final double value : other.samples.getElements())
+            {
+                update(value);
+            }
+        }
+
         /**
          * Returns the final score, rating, and supplemental data as a {@link WebVitalReport}.
          * 
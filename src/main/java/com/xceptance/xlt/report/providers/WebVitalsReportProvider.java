@@ -19,13 +19,21 @@ import org.apache.commons.lang3.StringUtils;
 
 import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.engine.WebVitalData;
+import com.xceptance.xlt.report.ShardableReportProvider;
 
 /**
  * A report provider responsible for processing {@link WebVitalData} objects and providing the result data as a
  * {@link WebVitalsReports} report fragment.
  */
 public class WebVitalsReportProvider extends AbstractDataProcessorBasedReportProvider<WebVitalsDataProcessor>
+    implements ShardableReportProvider
 {
+    /**
+     * Whether this provider is a shard. The data processors of a shard keep the raw samples, since the streaming
+     * percentile estimates and histograms cannot be merged otherwise.
+     */
+    private boolean shard;
+
     /**
      * Constructor.
      */
@@ -65,4 +73,41 @@ public class WebVitalsReportProvider extends AbstractDataProcessorBasedReportPro
 
         return webVitalsReports;
     }
+
+    /**
+     * Returns whether this provider is a shard.
+     * 
+     * @return whether this provider is a shard
+     */
+    boolean isShard()
+    {
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardableReportProvider createShard()
+    {
+        final WebVitalsReportProvider shard = new WebVitalsReportProvider();
+        shard.shard = true;
+        shard.setConfiguration(getConfiguration());
+
+        return shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mergeShard(final ShardableReportProvider shard)
+    {
+        final WebVitalsReportProvider other = (WebVitalsReportProvider) shard;
+
+        for (final String name : other.getProcessorNames())
+        {
+            getProcessor(name).merge(other.getProcessor(name));
+        }
+    }
 }
@@ -15,12 +15,14 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
+
 /**
  * A {@link AbstractFixedSizeDoubleValueSet} classifies all added values into N buckets. The total value range covered
  * is N times the current width of a bucket. Initially, the bucket width is very small. Once values outside the current
  * range are added, the value range is shifted or scaled up as necessary by scaling up the bucket width.
  */
-public abstract class AbstractFixedSizeDoubleValueSet
+public abstract class AbstractFixedSizeDoubleValueSet implements Serializable
 {
     /**
      * The initial bucket width.
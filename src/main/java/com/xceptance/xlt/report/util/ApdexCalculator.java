@@ -15,6 +15,7 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
@@ -23,7 +24,7 @@ import java.math.RoundingMode;
  * Calculates the <a href="https://en.wikipedia.org/wiki/Apdex">Apdex</a> for a stream of runtime samples based on a
  * certain threshold.
  */
-public class ApdexCalculator
+public class ApdexCalculator implements Serializable
 {
     /**
      * The threshold [s] for runtime samples that are satisfying.
@@ -96,6 +97,19 @@ public class ApdexCalculator
         }
     }
 
+    /**
+     * Adds all the samples of the given calculator to this calculator. Both calculators must use the same threshold.
+     *
+     * @param other
+     *            the calculator to merge
+     */
+    public void merge(final ApdexCalculator other)
+    {
+        satisfyingSamplesCount += other.satisfyingSamplesCount;
+        toleratedSamplesCount += other.toleratedSamplesCount;
+        totalSamplesCount += other.totalSamplesCount;
+    }
+
     /**
      * Returns the Apdex value for the runtime samples added so far.
      *
@@ -15,13 +15,15 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
+
 /**
  * Computes the arithmetic mean for a stream of data values added using the {@link #addValue(double)} method. The data
  * values are not stored in memory, so this class can be used to compute statistics for very large data streams.
  * <p>
  * Note: This class is not thread-safe.
  */
-public class ArithmeticMean
+public class ArithmeticMean implements Serializable
 {
     /**
      * The number of values added.
@@ -45,6 +47,18 @@ public class ArithmeticMean
         sum += value;
     }
 
+    /**
+     * Adds all the values of the given mean to this mean.
+     * 
+     * @param other
+     *            the mean to merge
+     */
+    public void merge(final ArithmeticMean other)
+    {
+        count += other.count;
+        sum += other.sum;
+    }
+
     /**
      * Returns the number of values added.
      * 
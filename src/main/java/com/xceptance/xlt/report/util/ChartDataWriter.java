@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesDataItem;
+import org.json.JSONWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xceptance.common.io.FileUtils;
+
+/**
+ * Writes the (already downsampled) time series of a chart as compact JSON, so that the chart can be rendered on the
+ * client side. The resulting document looks like this:
+ *
+ * <pre>
+ * {"name":"...","start":1700000000000,"end":1700000600000,"series":[
+ *   {"name":"Runtime","time":[0,1,2,...],"value":[120.5,98,...],"min":[80,...],"max":[200,...]},
+ *   ...
+ * ]}
+ * </pre>
+ *
+ * Start and end time are given in milliseconds since the epoch. The time of each data point is given in seconds
+ * relative to the start time. The "min" and "max" arrays are present only for series with min/max data points.
+ *
+ * @since 8.1.0
+ */
+public final class ChartDataWriter
+{
+    /**
+     * The class logger.
+     */
+    private static final Logger log = LoggerFactory.getLogger(ChartDataWriter.class);
+
+    /**
+     * Saves the given time series as JSON to a file in the given directory. The file name is derived from the given
+     * name.
+     *
+     * @param name
+     *            the chart name
+     * @param outputDir
+     *            the target directory
+     * @param startTime
+     *            the chart start time
+     * @param endTime
+     *            the chart end time
+     * @param seriesList
+     *            the time series to save
+     */
+    public static void save(final String name, final File outputDir, final long startTime, final long endTime,
+                            final List<TimeSeries> seriesList)
+    {
+        final File outputFile = new File(outputDir, FileUtils.convertIllegalCharsInFileName(name) + ".json");
+
+        try
+        {
+            Files.createDirectories(outputDir.toPath());
+
+            try (final Writer writer = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8))
+            {
+                write(writer, name, startTime, endTime, seriesList);
+            }
+        }
+        catch (final IOException e)
+        {
+            log.error("Failed to save chart data to file: " + outputFile, e);
+        }
+    }
+
+    /**
+     * Writes the given time series as JSON to the given writer.
+     *
+     * @param writer
+     *            the target writer
+     * @param name
+     *            the chart name
+     * @param startTime
+     *            the chart start time
+     * @param endTime
+     *            the chart end time
+     * @param seriesList
+     *            the time series to write
+     */
+    static void write(final Writer writer, final String name, final long startTime, final long endTime,
+                      final List<TimeSeries> seriesList)
+    {
+        final JSONWriter json = new JSONWriter(writer);
+
+        json.object();
+        json.key("name").value(name);
+        json.key("start").value(startTime);
+        json.key("end").value(endTime);
+
+        json.key("series").array();
+        for (final TimeSeries series : seriesList)
+        {
+            writeSeries(json, series, startTime);
+        }
+        json.endArray();
+
+        json.endObject();
+    }
+
+    /**
+     * Writes a single time series.
+     */
+    private static void writeSeries(final JSONWriter json, final TimeSeries series, final long startTime)
+    {
+        final List<?> items = series.getItems();
+        final boolean hasMinMax = !items.isEmpty() && items.get(0) instanceof IntMinMaxTimeSeriesDataItem;
+
+        json.object();
+        json.key("name").value(series.getKey().toString());
+
+        json.key("time").array();
+        for (final Object o : items)
+        {
+            json.value((((TimeSeriesDataItem) o).getPeriod().getFirstMillisecond() - startTime) / 1000);
+        }
+        json.endArray();
+
+        json.key("value").array();
+        for (final Object o : items)
+        {
+            final Number value = ((TimeSeriesDataItem) o).getValue();
+            json.value(value == null ? null : round(value.doubleValue()));
+        }
+        json.endArray();
+
+        if (hasMinMax)
+        {
+            json.key("min").array();
+            for (final Object o : items)
+            {
+                json.value(((IntMinMaxTimeSeriesDataItem) o).getMinMaxValue().getMinimumValue());
+            }
+            json.endArray();
+
+            json.key("max").array();
+            for (final Object o : items)
+            {
+                json.value(((IntMinMaxTimeSeriesDataItem) o).getMinMaxValue().getMaximumValue());
+            }
+            json.endArray();
+        }
+
+        json.endObject();
+    }
+
+    /**
+     * Rounds the given value to two decimal places, and returns it as an integer if it has no fractional part, to keep
+     * the output small.
+     */
+    private static Number round(final double value)
+    {
+        final double rounded = Math.round(value * 100) / 100.0;
+
+        return rounded == (long) rounded ? (Number) (long) rounded : (Number) rounded;
+    }
+
+    /**
+     * Private constructor to avoid object instantiation.
+     */
+    private ChartDataWriter()
+    {
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
@@ -32,7 +33,7 @@ import java.util.TreeMap;
  * A 1-bit will be set for each second the virtual user was running. From the individual bit sets, the total number of
  * concurrent users and the concurrent users of a certain user type can be calculated easily.
  */
-public final class ConcurrentUsersTable
+public final class ConcurrentUsersTable implements Serializable
 {
     /**
      * The one and only {@link ConcurrentUsersTable} instance.
@@ -65,9 +66,10 @@ public final class ConcurrentUsersTable
     private long start = Long.MAX_VALUE;
 
     /**
-     * Private constructor.
+     * Creates a new and empty table that is independent of the {@link #getInstance() singleton}, for example to record
+     * the user activity of a statistics shard.
      */
-    private ConcurrentUsersTable()
+    public ConcurrentUsersTable()
     {
     }
 
@@ -93,11 +95,67 @@ public final class ConcurrentUsersTable
      * @param userNumber
      *            the user's number (e.g. "0")
      */
-    public void recordUserActivity(long fromTimestamp, long toTimestamp, final String userName, final String userNumber)
+    public synchronized void recordUserActivity(long fromTimestamp, long toTimestamp, final String userName, final String userNumber)
     {
-        final String userId = userName + "-" + userNumber;
+        final BitSet bitSet = getBitSet(userName + "-" + userNumber, userName);
 
-        // get or create/register the bit set for the given user ID
+        // we calculate with seconds only
+        fromTimestamp /= 1000;
+        toTimestamp /= 1000;
+
+        // rearrange bit sets in case the timestamp is smaller than any we had before
+        shiftAllBitSetsIfRequired(fromTimestamp);
+
+        // set the bits
+        final int offset = (int) (fromTimestamp - start);
+        final int range = (int) (toTimestamp - fromTimestamp);
+        for (int i = 0; i <= range; i++)
+        {
+            bitSet.set(offset + i);
+        }
+    }
+
+    /**
+     * Adds the user activity recorded in the given table to this table.
+     * 
+     * @param other
+     *            the table to merge
+     */
+    public synchronized void merge(final ConcurrentUsersTable other)
+    {
+        if (other.bitSetsByUserId.isEmpty())
+        {
+            return;
+        }
+
+        shiftAllBitSetsIfRequired(other.start);
+
+        final int offset = (int) (other.start - start);
+        for (final Entry<String, BitSet> entry : other.bitSetsByUserId.entrySet())
+        {
+            // user IDs are built as "<user name>-<user number>"
+            final String userId = entry.getKey();
+            final BitSet bitSet = getBitSet(userId, userId.substring(0, userId.lastIndexOf('-')));
+
+            final BitSet otherBitSet = entry.getValue();
+            for (int i = otherBitSet.nextSetBit(0); i >= 0; i = otherBitSet.nextSetBit(i + 1))
+            {
+                bitSet.set(offset + i);
+            }
+        }
+    }
+
+    /**
+     * Returns the bit set for the given user ID. Creates and registers a new bit set if there is none yet.
+     * 
+     * @param userId
+     *            the user ID (e.g. "TAuthor-0")
+     * @param userName
+     *            the user's name (e.g. "TAuthor")
+     * @return the bit set
+     */
+    private BitSet getBitSet(final String userId, final String userName)
+    {
         BitSet bitSet = bitSetsByUserId.get(userId);
         if (bitSet == null)
         {
@@ -116,20 +174,7 @@ public final class ConcurrentUsersTable
             bitSets.add(bitSet);
         }
 
-        // we calculate with seconds only
-        fromTimestamp /= 1000;
-        toTimestamp /= 1000;
-
-        // rearrange bit sets in case the timestamp is smaller than any we had before
-        shiftAllBitSetsIfRequired(fromTimestamp);
-
-        // set the bits
-        final int offset = (int) (fromTimestamp - start);
-        final int range = (int) (toTimestamp - fromTimestamp);
-        for (int i = 0; i <= range; i++)
-        {
-            bitSet.set(offset + i);
-        }
+        return bitSet;
     }
 
     /**
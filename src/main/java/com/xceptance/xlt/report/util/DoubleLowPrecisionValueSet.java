@@ -15,6 +15,8 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
+
 import org.apache.commons.lang3.ArrayUtils;
 
 import com.xceptance.xlt.report.util.lucene.OpenBitSet;
@@ -31,7 +33,7 @@ import com.xceptance.xlt.report.util.lucene.OpenBitSet;
  * adjacent buckets to be merged into one. Since the underlying storage is always fixed, scaling has the negative side
  * effect of loosing precision.
  */
-public class DoubleLowPrecisionValueSet extends AbstractFixedSizeDoubleValueSet
+public class DoubleLowPrecisionValueSet extends AbstractFixedSizeDoubleValueSet implements Serializable
 {
     /**
      * The default number of buckets.
@@ -15,6 +15,8 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
+
 /**
  * A {@link DoubleMinMaxValue} stores the minimum/maximum/sum/count of all the sample values added, but can also
  * reproduce a rough approximation of the distinct values added.
@@ -22,7 +24,7 @@ package com.xceptance.xlt.report.util;
  * @see IntMinMaxValue
  * @author Hartmut Arlt (Xceptance Software Technologies GmbH)
  */
-public class DoubleMinMaxValue
+public class DoubleMinMaxValue implements Serializable
 {
     private double accumulatedValue;
 
@@ -15,6 +15,8 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
+
 import com.xceptance.common.util.ParameterCheckUtils;
 
 /**
@@ -23,7 +25,7 @@ import com.xceptance.common.util.ParameterCheckUtils;
  * @see IntMinMaxValueSet
  * @author Hartmut Arlt (Xceptance Software Technologies GmbH)
  */
-public class DoubleMinMaxValueSet
+public class DoubleMinMaxValueSet implements Serializable
 {
     /**
      * The default initial value set size.
@@ -104,99 +106,166 @@ public class DoubleMinMaxValueSet
     public void addOrUpdateValue(final long time, final double value)
     {
         // get the corresponding second
-        int second = ((int) (time / 1000)) & ~(scale - 1);
+        final int second = (int) (time / 1000);
 
         // check whether this is the first value added
         if (valueCount == 0)
         {
             // yes, that's easy
-            firstSecond = lastSecond = second;
+            firstSecond = lastSecond = second & ~(scale - 1);
             values[0] = new DoubleMinMaxValue(value);
 
             // maintain statistics
             minimumTime = maximumTime = time;
             valueCount = 1;
+
+            return;
+        }
+
+        // no, there are values in the set already
+        final int index = getIndex(second);
+        final DoubleMinMaxValue item = values[index];
+        if (item == null)
+        {
+            values[index] = new DoubleMinMaxValue(value);
         }
         else
         {
-            // no, there are values in the set already
+            item.updateValue(value);
+        }
 
-            // check whether we have to shrink the value set first
-            if (second != firstSecond)
-            {
-                // decide on the way of shrinking
-                if (second > firstSecond)
-                {
-                    // repeat as long as the second falls after the current size
-                    while ((second - firstSecond) / scale >= size)
-                    {
-                        scale = scale * 2;
+        // maintain statistics
+        valueCount++;
 
-                        shrink();
+        minimumTime = Math.min(minimumTime, time);
+        maximumTime = Math.max(maximumTime, time);
+    }
 
-                        second = second & ~(scale - 1);
-                        firstSecond = firstSecond & ~(scale - 1);
-                        lastSecond = lastSecond & ~(scale - 1);
-                    }
+    /**
+     * Adds all the values of the given value set to this value set. The result is the same as if all the values had
+     * been added to this value set directly.
+     * 
+     * @param other
+     *            the value set to merge, must not be used any longer afterwards
+     */
+    public void merge(final DoubleMinMaxValueSet other)
+    {
+        if (other.valueCount == 0)
+        {
+            return;
+        }
 
-                    // maintain upper boundary
-                    if (second > lastSecond)
-                    {
-                        lastSecond = second;
-                    }
+        if (valueCount == 0)
+        {
+            minimumTime = other.minimumTime;
+            maximumTime = other.maximumTime;
+        }
+
+        // a coarser scale of the other set cannot be undone, so adopt it
+        while (scale < other.scale)
+        {
+            increaseScale();
+        }
+
+        final int length = (other.lastSecond - other.firstSecond) / other.scale + 1;
+        for (int i = 0; i < length; i++)
+        {
+            final DoubleMinMaxValue otherItem = other.values[i];
+            if (otherItem != null)
+            {
+                final int second = other.firstSecond + i * other.scale;
+
+                if (valueCount == 0)
+                {
+                    firstSecond = lastSecond = second & ~(scale - 1);
+                    values[0] = otherItem;
                 }
                 else
                 {
-                    // repeat as long as the second still falls outside (before) the current size
-                    while ((lastSecond - second) / scale >= size)
+                    final int index = getIndex(second);
+                    final DoubleMinMaxValue item = values[index];
+                    if (item != null)
                     {
-                        scale = scale * 2;
-
-                        shrink();
-
-                        second = second & ~(scale - 1);
-                        firstSecond = firstSecond & ~(scale - 1);
-                        lastSecond = lastSecond & ~(scale - 1);
+                        item.merge(otherItem);
                     }
-
-                    // shift if necessary
-                    if (second < firstSecond)
+                    else
                     {
-                        final int indexDiff = (firstSecond - second) / scale;
-
-                        shift(indexDiff);
-
-                        // maintain lower boundary
-                        firstSecond = second;
+                        values[index] = otherItem;
                     }
                 }
+
+                valueCount += otherItem.getValueCount();
             }
+        }
+
+        minimumTime = Math.min(minimumTime, other.minimumTime);
+        maximumTime = Math.max(maximumTime, other.maximumTime);
+    }
+
+    /**
+     * Determines the index of the slot for the given second, growing the scale and shifting the values as necessary.
+     * Must not be called for an empty value set.
+     * 
+     * @param second
+     *            the second
+     * @return the index
+     */
+    private int getIndex(int second)
+    {
+        second = second & ~(scale - 1);
 
-            // calculate final index and update value
-            final int index = (second - firstSecond) / scale;
-            final DoubleMinMaxValue item = values[index];
-            if (item == null)
+        // check whether we have to shrink the value set first
+        if (second != firstSecond)
+        {
+            // decide on the way of shrinking
+            if (second > firstSecond)
             {
-                values[index] = new DoubleMinMaxValue(value);
+                // repeat as long as the second falls after the current size
+                while ((second - firstSecond) / scale >= size)
+                {
+                    increaseScale();
+                    second = second & ~(scale - 1);
+                }
+
+                // maintain upper boundary
+                lastSecond = Math.max(lastSecond, second);
             }
             else
             {
-                item.updateValue(value);
-            }
+                // repeat as long as the second still falls outside (before) the current size
+                while ((lastSecond - second) / scale >= size)
+                {
+                    increaseScale();
+                    second = second & ~(scale - 1);
+                }
 
-            // maintain statistics
-            valueCount++;
+                // shift if necessary
+                if (second < firstSecond)
+                {
+                    final int indexDiff = (firstSecond - second) / scale;
 
-            if (time < minimumTime)
-            {
-                minimumTime = time;
-            }
+                    shift(indexDiff);
 
-            if (time > maximumTime)
-            {
-                maximumTime = time;
+                    // maintain lower boundary
+                    firstSecond = second;
+                }
             }
         }
+
+        return (second - firstSecond) / scale;
+    }
+
+    /**
+     * Doubles the scale and shrinks the values accordingly.
+     */
+    private void increaseScale()
+    {
+        scale = scale * 2;
+
+        shrink();
+
+        firstSecond = firstSecond & ~(scale - 1);
+        lastSecond = lastSecond & ~(scale - 1);
     }
 
     /**
@@ -15,6 +15,8 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
+
 /**
  * Computes summary statistics for a stream of data values added using the {@link #addValue(double))} method. The data
  * values are not stored in memory, so this class can be used to compute statistics for very large data streams. This
@@ -23,7 +25,7 @@ package com.xceptance.xlt.report.util;
  * <p>
  * Note: This class is not thread-safe.
  */
-public class DoubleSummaryStatistics
+public class DoubleSummaryStatistics implements Serializable
 {
     /**
      * The number of values added.
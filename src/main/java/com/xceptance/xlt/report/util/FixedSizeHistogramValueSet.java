@@ -15,6 +15,7 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
 import org.jfree.data.xy.XYIntervalSeries;
@@ -26,7 +27,7 @@ import com.xceptance.common.util.ParameterCheckUtils;
  * each bucket has the initial width of 1. Once values greater than N-1 are added to this set, the value range is scaled
  * up by scaling up the bucket width as necessary.
  */
-public class FixedSizeHistogramValueSet
+public class FixedSizeHistogramValueSet implements Serializable
 {
     /**
      * The number of buckets in this set. Always a multiple of 2.
@@ -127,6 +128,28 @@ public class FixedSizeHistogramValueSet
         return maxCount;
     }
 
+    /**
+     * Adds all the values of the given value set to this value set. Both value sets must have the same number of
+     * buckets.
+     *
+     * @param other
+     *            the value set to merge
+     */
+    public void merge(final FixedSizeHistogramValueSet other)
+    {
+        // bucket widths are powers of 2, so adopting the wider one keeps all counts exact
+        while (bucketWidth < other.bucketWidth)
+        {
+            scale();
+        }
+
+        final int factor = bucketWidth / other.bucketWidth;
+        for (int i = 0; i < bucketCount; i++)
+        {
+            countPerBucket[i / factor] += other.countPerBucket[i];
+        }
+    }
+
     /**
      * Converts this value set to an {@link XYIntervalSeries} object, where each non-empty bucket is represented as a
      * horizontal bar.
@@ -15,13 +15,15 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
+
 import org.jfree.data.xy.XYIntervalSeries;
 
 /**
  * Note: We cannot use JFreeChart classes here since they want all data at once, but we need incremental updates.
  */
 
-public class HistogramValueSet
+public class HistogramValueSet implements Serializable
 {
     private final int countPerBin[];
 
@@ -88,6 +90,20 @@ public class HistogramValueSet
         return numberOfBins;
     }
 
+    /**
+     * Adds all the values of the given value set to this value set. Both value sets must have the same bins.
+     *
+     * @param other
+     *            the value set to merge
+     */
+    public void merge(final HistogramValueSet other)
+    {
+        for (int i = 0; i < numberOfBins; i++)
+        {
+            countPerBin[i] += other.countPerBin[i];
+        }
+    }
+
     public XYIntervalSeries toSeries(final String seriesName)
     {
         final XYIntervalSeries series = new XYIntervalSeries(seriesName);
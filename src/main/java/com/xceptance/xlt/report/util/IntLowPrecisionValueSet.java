@@ -15,6 +15,7 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
 
 import com.xceptance.common.util.ParameterCheckUtils;
 import com.xceptance.xlt.report.util.lucene.OpenBitSet;
@@ -31,7 +32,7 @@ import com.xceptance.xlt.report.util.lucene.OpenBitSet;
  * range is doubled causing two adjacent buckets to be merged into one. Since the underlying storage is always fixed,
  * scaling has the negative side effect of loosing precision.
  */
-public class IntLowPrecisionValueSet
+public class IntLowPrecisionValueSet implements Serializable
 {
     /**
      * The default number of buckets.
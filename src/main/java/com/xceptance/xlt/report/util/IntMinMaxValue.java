@@ -15,11 +15,13 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
+
 /**
  * A {@link IntMinMaxValue} stores the minimum/maximum/sum/count of all the sample values added, but can also reproduce a
  * rough approximation of the distinct values added.
  */
-public class IntMinMaxValue
+public class IntMinMaxValue implements Serializable
 {
     private long accumulatedValue;
 
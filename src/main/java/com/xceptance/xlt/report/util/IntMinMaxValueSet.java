@@ -15,6 +15,7 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
 /**
@@ -25,7 +26,7 @@ import java.util.Arrays;
  * time-stamp is greater than the value set size, two consecutive values are merged into one. This means the time period
  * for which values can be added to this set can be arbitrary long.
  */
-public class IntMinMaxValueSet
+public class IntMinMaxValueSet implements Serializable
 {
     /**
      * The default initial value set size.
@@ -109,13 +110,13 @@ public class IntMinMaxValueSet
     public void addOrUpdateValue(final long time, final int value)
     {
         // get the corresponding second
-        int second = ((int) (time * 0.001)) & ~(scale - 1);
+        final int second = (int) (time * 0.001);
 
         // check whether this is the first value added
         if (valueCount == 0)
         {
             // yes, that's easy
-            firstSecond = lastSecond = second;
+            firstSecond = lastSecond = second & ~(scale - 1);
             values[0] = new IntMinMaxValue(value);
 
             // maintain statistics
@@ -126,6 +127,96 @@ public class IntMinMaxValueSet
         }
 
         // no, there are values in the set already
+        final int index = getIndex(second);
+        final IntMinMaxValue item = values[index];
+        if (item != null)
+        {
+            item.updateValue(value);
+        }
+        else
+        {
+            values[index] = new IntMinMaxValue(value);
+        }
+
+        // maintain statistics
+        valueCount++;
+
+        minimumTime = Math.min(minimumTime, time);
+        maximumTime = Math.max(maximumTime, time);
+    }
+
+    /**
+     * Adds all the values of the given value set to this value set. The result is the same as if all the values had
+     * been added to this value set directly.
+     *
+     * @param other
+     *            the value set to merge, must not be used any longer afterwards
+     */
+    public void merge(final IntMinMaxValueSet other)
+    {
+        if (other.valueCount == 0)
+        {
+            return;
+        }
+
+        if (valueCount == 0)
+        {
+            minimumTime = other.minimumTime;
+            maximumTime = other.maximumTime;
+        }
+
+        // a coarser scale of the other set cannot be undone, so adopt it
+        while (scale < other.scale)
+        {
+            increaseScale();
+        }
+
+        final int length = ((other.lastSecond - other.firstSecond) >> other.scale2) + 1;
+        for (int i = 0; i < length; i++)
+        {
+            final IntMinMaxValue otherItem = other.values[i];
+            if (otherItem != null)
+            {
+                final int second = other.firstSecond + (i << other.scale2);
+
+                if (valueCount == 0)
+                {
+                    firstSecond = lastSecond = second & ~(scale - 1);
+                    values[0] = otherItem;
+                }
+                else
+                {
+                    final int index = getIndex(second);
+                    final IntMinMaxValue item = values[index];
+                    if (item != null)
+                    {
+                        item.merge(otherItem);
+                    }
+                    else
+                    {
+                        values[index] = otherItem;
+                    }
+                }
+
+                valueCount += otherItem.getValueCount();
+            }
+        }
+
+        minimumTime = Math.min(minimumTime, other.minimumTime);
+        maximumTime = Math.max(maximumTime, other.maximumTime);
+    }
+
+    /**
+     * Determines the index of the slot for the given second, growing the scale and shifting the values as necessary.
+     * Must not be called for an empty value set.
+     *
+     * @param second
+     *            the second
+     * @return the index
+     */
+    private int getIndex(int second)
+    {
+        second = second & ~(scale - 1);
 
         // check whether we have to shrink the value set first
         if (second != firstSecond)
@@ -136,15 +227,8 @@ public class IntMinMaxValueSet
                 // repeat as long as the second falls after the current size
                 while (((second - firstSecond) >> scale2) >= size)
                 {
-                    scale = scale << 1;
-                    scale2++;
-
-                    shrink();
-
-                    final int s1 = ~(scale -1);
-                    second = second & s1;
-                    firstSecond = firstSecond & s1;
-                    lastSecond = lastSecond & s1;
+                    increaseScale();
+                    second = second & ~(scale - 1);
                 }
 
                 // maintain upper boundary
@@ -155,15 +239,8 @@ public class IntMinMaxValueSet
                 // repeat as long as the second still falls outside (before) the current size
                 while (((lastSecond - second) >> scale2) >= size)
                 {
-                    scale = scale << 1;
-                    scale2++;
-
-                    shrink();
-
-                    final int s1 = ~(scale -1);
-                    second = second & s1;
-                    firstSecond = firstSecond & s1;
-                    lastSecond = lastSecond & s1;
+                    increaseScale();
+                    second = second & ~(scale - 1);
                 }
 
                 // shift if necessary
@@ -179,23 +256,22 @@ public class IntMinMaxValueSet
             }
         }
 
-        // calculate final index and update value
-        final int index = (second - firstSecond) >> scale2;
-        final IntMinMaxValue item = values[index];
-        if (item != null)
-        {
-            item.updateValue(value);
-        }
-        else
-        {
-            values[index] = new IntMinMaxValue(value);
-        }
+        return (second - firstSecond) >> scale2;
+    }
 
-        // maintain statistics
-        valueCount++;
+    /**
+     * Doubles the scale and shrinks the values accordingly.
+     */
+    private void increaseScale()
+    {
+        scale = scale << 1;
+        scale2++;
 
-        minimumTime = Math.min(minimumTime, time);
-        maximumTime = Math.max(maximumTime, time);
+        shrink();
+
+        final int s1 = ~(scale - 1);
+        firstSecond = firstSecond & s1;
+        lastSecond = lastSecond & s1;
     }
 
     /**
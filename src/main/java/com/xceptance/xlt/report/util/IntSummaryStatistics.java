@@ -15,6 +15,8 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
+
 /**
  * Computes summary statistics for a stream of data values added using the {@link #addValue(int)} method. The data
  * values are not stored in memory, so this class can be used to compute statistics for very large data streams. This
@@ -24,7 +26,7 @@ package com.xceptance.xlt.report.util;
  * Note: This class is not thread-safe.
  */
 
-public class IntSummaryStatistics
+public class IntSummaryStatistics implements Serializable
 {
     /**
      * The number of values added.
@@ -130,4 +132,22 @@ public class IntSummaryStatistics
     {
         return sum;
     }
+
+    /**
+     * Adds all the values of the given statistics to this statistics.
+     * 
+     * @param other
+     *            the statistics to merge
+     */
+    public void merge(final IntSummaryStatistics other)
+    {
+        if (other.count > 0)
+        {
+            sumOfSquares += other.sumOfSquares;
+            sum += other.sum;
+            maximum = Math.max(maximum, other.maximum);
+            minimum = Math.min(minimum, other.minimum);
+            count += other.count;
+        }
+    }
 }
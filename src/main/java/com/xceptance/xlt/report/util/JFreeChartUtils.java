@@ -15,6 +15,7 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
@@ -31,11 +32,11 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
@@ -259,7 +260,12 @@ public final class JFreeChartUtils
     /**
      * Maps a long value to its corresponding {@link Second} object.
      */
-    private static final Map<Long, Second> secondsCache = new HashMap<Long, Second>();
+    private static final Map<Long, Second> secondsCache = new ConcurrentHashMap<Long, Second>();
+
+    /**
+     * The image and encoder each chart rendering thread reuses for all the charts it renders.
+     */
+    private static final ThreadLocal<RenderContext> renderContext = ThreadLocal.withInitial(RenderContext::new);
 
     /**
      * The watermark color.
@@ -996,7 +1002,7 @@ public final class JFreeChartUtils
         graphics.dispose();
 
         // finally save the image
-        saveImage(bufferedImage, outputFile);
+        renderContext.get().saveImage(bufferedImage, outputFile);
     }
 
     /**
@@ -1123,20 +1129,13 @@ public final class JFreeChartUtils
      *            the time in milliseconds
      * @return the corresponding {@link Second} object
      */
-    public static synchronized Second getSecond(long time)
+    public static Second getSecond(long time)
     {
         // rub out milliseconds -> we have seconds precision only
         time = time / 1000 * 1000;
 
-        // lookup/create a Second for this time value
-        Second second = secondsCache.get(time);
-        if (second == null)
-        {
-            second = new Second(new Date(time));
-            secondsCache.put(time, second);
-        }
-
-        return second;
+        // lookup/create a Second for this time value without blocking the other chart rendering threads
+        return secondsCache.computeIfAbsent(time, t -> new Second(new Date(t)));
     }
 
     /**
@@ -1178,10 +1177,15 @@ public final class JFreeChartUtils
         // first of all apply the XLT chart theme to the chart
         DEFAULT_CHART_THEME.apply(chart);
 
-        // brand chart
-        final BufferedImage bufferedImage = chart.createBufferedImage(chartWidth, chartHeight);
+        // render the chart onto this thread's image
+        final RenderContext context = renderContext.get();
+        final BufferedImage bufferedImage = context.getImage(chartWidth, chartHeight);
         final Graphics2D g2d = bufferedImage.createGraphics();
 
+        chart.draw(g2d, new Rectangle2D.Double(0, 0, chartWidth, chartHeight), null, null);
+
+        // brand chart
+
         // prepare watermark settings
         g2d.setFont(DEFAULT_CHART_THEME.getSmallFont());
         g2d.setColor(WATERMARK_COLOR);
@@ -1196,53 +1200,120 @@ public final class JFreeChartUtils
         g2d.dispose();
 
         // finally save the image
-        saveImage(bufferedImage, outputFile);
+        context.saveImage(bufferedImage, outputFile);
     }
 
     /**
-     * Saves the given buffered image in the WebP format to a given file.
-     *
-     * @param bufferedImage
-     *            the buffered image
-     * @param outputFile
-     *            the target file
+     * Holds the resources needed to render charts and save them as WebP images. Creating these resources over and
+     * over again for each and every chart is expensive, so each rendering thread keeps its own set for reuse.
      */
-    private static void saveImage(final BufferedImage bufferedImage, final File outputFile)
+    private static class RenderContext
     {
-        // Encode image as webp using default settings and save it as webp file
-        final ImageWriter writer = ImageIO.getImageWritersByMIMEType("image/webp").next();
+        /**
+         * The WebP encoder.
+         */
+        private final ImageWriter writer = ImageIO.getImageWritersByMIMEType("image/webp").next();
 
-        // Set parameters for lossless webp files
-        final WebPWriteParam writeParam = new WebPWriteParam(writer.getLocale());
+        /**
+         * The encoder parameters, or <code>null</code> if not created yet.
+         */
+        private WebPWriteParam writeParam;
 
-        // Notify encoder to consider WebPWriteParams
-        writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        /**
+         * The compression factor the encoder parameters were created for.
+         */
+        private float writeParamCompressionFactor;
 
-        // Set lossless compression
-        writeParam.setCompressionType(writeParam.getCompressionTypes()[WebPWriteParam.LOSSLESS_COMPRESSION]);
+        /**
+         * The image to render the charts onto, or <code>null</code> if not created yet.
+         */
+        private BufferedImage image;
 
-        // Set quality of images
-        writeParam.setCompressionQuality(webpCompressionFactor);
+        /**
+         * Returns a fully transparent image of the given size, which replaces the image returned by the previous call.
+         *
+         * @param width
+         *            the image width
+         * @param height
+         *            the image height
+         * @return the image
+         */
+        BufferedImage getImage(final int width, final int height)
+        {
+            if (image == null || image.getWidth() != width || image.getHeight() != height)
+            {
+                image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            }
+            else
+            {
+                // wipe out the previous chart
+                final Graphics2D g2d = image.createGraphics();
+                g2d.setComposite(AlphaComposite.Clear);
+                g2d.fillRect(0, 0, width, height);
+                g2d.dispose();
+            }
 
-        try
+            return image;
+        }
+
+        /**
+         * Saves the given buffered image in the WebP format to a given file.
+         *
+         * @param bufferedImage
+         *            the buffered image
+         * @param outputFile
+         *            the target file
+         */
+        void saveImage(final BufferedImage bufferedImage, final File outputFile)
         {
-            // create parent directories if they don't exist
-            Files.createDirectories(Paths.get(outputFile.getParent()));
+            try
+            {
+                // create parent directories if they don't exist
+                Files.createDirectories(Paths.get(outputFile.getParent()));
 
-            // save the image
-            try (final FileImageOutputStream fios = new FileImageOutputStream(outputFile))
+                // save the image
+                try (final FileImageOutputStream fios = new FileImageOutputStream(outputFile))
+                {
+                    writer.setOutput(fios);
+                    writer.write(null, new IIOImage(bufferedImage, null, null), getWriteParam());
+                }
+            }
+            catch (final IOException e)
             {
-                writer.setOutput(fios);
-                writer.write(null, new IIOImage(bufferedImage, null, null), writeParam);
+                log.error("Failed to save chart to file: " + outputFile, e);
+            }
+            finally
+            {
+                // release the output stream, but keep the encoder for the next chart
+                writer.reset();
             }
         }
-        catch (final IOException e)
+
+        /**
+         * Returns the encoder parameters for the current compression factor.
+         *
+         * @return the encoder parameters
+         */
+        private WebPWriteParam getWriteParam()
         {
-            log.error("Failed to save chart to file: " + outputFile, e);
-        }
+            if (writeParam == null || writeParamCompressionFactor != webpCompressionFactor)
+            {
+                // Set parameters for lossless webp files
+                writeParam = new WebPWriteParam(writer.getLocale());
+
+                // Notify encoder to consider WebPWriteParams
+                writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+
+                // Set lossless compression
+                writeParam.setCompressionType(writeParam.getCompressionTypes()[WebPWriteParam.LOSSLESS_COMPRESSION]);
 
-        // clean up
-        writer.dispose();
+                // Set quality of images
+                writeParamCompressionFactor = webpCompressionFactor;
+                writeParam.setCompressionQuality(writeParamCompressionFactor);
+            }
+
+            return writeParam;
+        }
     }
 
     /**
@@ -15,12 +15,14 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
+
 /**
  * The {@link RuntimeHistogram} class calculates any percentile from the <code>int</code> values added. In contrast to
  * other implementations, this class does not store any value added, but counts the occurrences of each value. This
  * approach saves memory if the values added are in roughly the same range.
  */
-public class RuntimeHistogram
+public class RuntimeHistogram implements Serializable
 {
     /**
      * The default precision.
@@ -201,6 +203,49 @@ public class RuntimeHistogram
         return (firstIndex + bucketIndex) * precision;
     }
 
+    /**
+     * Adds all the values of the given histogram to this histogram. Both histograms must have the same precision.
+     *
+     * @param other
+     *            the histogram to merge
+     */
+    public void merge(final RuntimeHistogram other)
+    {
+        if (other.valueCount == 0)
+        {
+            return;
+        }
+
+        if (valueCount == 0)
+        {
+            countPerBucket = other.countPerBucket.clone();
+            firstIndex = other.firstIndex;
+            lastIndex = other.lastIndex;
+            valueCount = other.valueCount;
+            return;
+        }
+
+        // grow/shift values array if necessary
+        if (other.firstIndex < firstIndex)
+        {
+            grow(firstIndex - other.firstIndex, true);
+            firstIndex = other.firstIndex;
+        }
+        if (other.lastIndex > lastIndex)
+        {
+            grow(other.lastIndex - lastIndex, false);
+            lastIndex = other.lastIndex;
+        }
+
+        final int offset = other.firstIndex - firstIndex;
+        for (int i = 0; i < other.countPerBucket.length; i++)
+        {
+            countPerBucket[offset + i] += other.countPerBucket[i];
+        }
+
+        valueCount += other.valueCount;
+    }
+
     /**
      * Returns the number of allocated buckets.
      *
@@ -15,10 +15,12 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
+
 /**
  *
  */
-public class SegmentationValueSet
+public class SegmentationValueSet implements Serializable
 {
     private final int countPerBin[];
 
@@ -54,6 +56,20 @@ public class SegmentationValueSet
         }
     }
 
+    /**
+     * Adds all the values of the given value set to this value set. Both value sets must have the same boundaries.
+     *
+     * @param other
+     *            the value set to merge
+     */
+    public void merge(final SegmentationValueSet other)
+    {
+        for (int i = 0; i < countPerBin.length; i++)
+        {
+            countPerBin[i] += other.countPerBin[i];
+        }
+    }
+
     public int[] getCountPerSegment()
     {
         return countPerBin;
@@ -15,6 +15,7 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
 /**
@@ -23,7 +24,7 @@ import java.util.Arrays;
  * <p>
  * Potential bug: no value vs. a value of 0
  */
-public class ValueSet
+public class ValueSet implements Serializable
 {
     /**
      * The default initial value set size.
@@ -273,6 +274,37 @@ public class ValueSet
         return copy;
     }
 
+    /**
+     * Adds all the values of the given value set to this value set.
+     *
+     * @param other
+     *            the value set to merge
+     */
+    public void merge(final ValueSet other)
+    {
+        if (other.valueCount == 0)
+        {
+            return;
+        }
+
+        // let the first and the last second of the other set define the range of this set
+        final int length = (int) (other.lastSecond - other.firstSecond + 1);
+        final long valueCountBefore = valueCount;
+
+        addOrUpdateValue(other.minimumTime, 0);
+        addOrUpdateValue(other.maximumTime, 0);
+
+        // add the values
+        final int offset = (int) (other.firstSecond - firstSecond);
+        for (int i = 0; i < length; i++)
+        {
+            values[offset + i] += other.values[i];
+        }
+
+        // maintain statistics
+        valueCount = valueCountBefore + other.valueCount;
+    }
+
     /**
      * Creates a {@link IntMinMaxValueSet} of the given size and adds all stored values to this set.
      *
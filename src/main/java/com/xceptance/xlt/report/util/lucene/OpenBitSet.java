@@ -17,6 +17,7 @@
 
 package com.xceptance.xlt.report.util.lucene;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
 /**
@@ -106,7 +107,7 @@ import java.util.Arrays;
  * </table>
  */
 
-public class OpenBitSet
+public class OpenBitSet implements Serializable
 {
     protected long[] bits;
     protected int wlen; // number of words (elements) used in the array
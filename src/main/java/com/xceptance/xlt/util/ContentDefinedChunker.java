@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Splits the content of a file into chunks whose boundaries depend on the content itself rather than on fixed offsets.
+ * A boundary is placed wherever a rolling hash over the last bytes matches a certain bit pattern. Inserting or removing
+ * some bytes therefore changes only the chunks around the modification, while all the other chunks stay the same, even
+ * though their offsets have shifted. Each chunk is identified by its SHA-256 hash.
+ * <p>
+ * The chunker must behave identically on the master controller and on the agent controllers, so its parameters are
+ * fixed.
+ *
+ * @since 8.1.0
+ */
+public final class ContentDefinedChunker
+{
+    /**
+     * A chunk of a file.
+     */
+    public static final class Chunk
+    {
+        /**
+         * The hex-encoded SHA-256 hash of the chunk's content.
+         */
+        public final String hash;
+
+        /**
+         * The position of the chunk in the file.
+         */
+        public final long offset;
+
+        /**
+         * The length of the chunk.
+         */
+        public final int length;
+
+        public Chunk(final String hash, final long offset, final int length)
+        {
+            this.hash = hash;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * The minimum size of a chunk.
+     */
+    static final int MIN_CHUNK_SIZE = 16 * 1024;
+
+    /**
+     * The maximum size of a chunk.
+     */
+    static final int MAX_CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * The mask applied to the rolling hash. With 16 bits set, a boundary is found every 64 KB on average (plus the
+     * minimum chunk size).
+     */
+    private static final long BOUNDARY_MASK = (1L << 16) - 1;
+
+    /**
+     * Maps each byte value to a random number. The seed is fixed, so all parties use the very same table.
+     */
+    private static final long[] GEAR = new SplittableRandom(0x584c54L).longs(256).toArray();
+
+    /**
+     * Splits the given file into chunks.
+     *
+     * @param file
+     *            the file
+     * @return the chunks in the order of their position in the file
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public static List<Chunk> chunk(final File file) throws IOException
+    {
+        try (final InputStream in = new FileInputStream(file))
+        {
+            return chunk(in);
+        }
+    }
+
+    /**
+     * Splits the data read from the given stream into chunks.
+     *
+     * @param in
+     *            the stream
+     * @return the chunks in the order of their position in the data
+     * @throws IOException
+     *             if the stream cannot be read
+     */
+    public static List<Chunk> chunk(final InputStream in) throws IOException
+    {
+        final List<Chunk> chunks = new ArrayList<>();
+        final MessageDigest digest = getDigest();
+        final byte[] buffer = new byte[64 * 1024];
+
+        long chunkOffset = 0;
+        int chunkLength = 0;
+        long hash = 0;
+
+        int bytesRead;
+        while ((bytesRead = in.read(buffer)) >= 0)
+        {
+            int segmentStart = 0;
+
+            for (int i = 0; i < bytesRead; i++)
+            {
+                hash = (hash << 1) + GEAR[buffer[i] & 0xff];
+                chunkLength++;
+
+                if (chunkLength >= MAX_CHUNK_SIZE || (chunkLength >= MIN_CHUNK_SIZE && (hash & BOUNDARY_MASK) == 0))
+                {
+                    digest.update(buffer, segmentStart, i + 1 - segmentStart);
+                    chunks.add(new Chunk(Hex.encodeHexString(digest.digest()), chunkOffset, chunkLength));
+
+                    segmentStart = i + 1;
+                    chunkOffset += chunkLength;
+                    chunkLength = 0;
+                    hash = 0;
+                }
+            }
+
+            digest.update(buffer, segmentStart, bytesRead - segmentStart);
+        }
+
+        if (chunkLength > 0)
+        {
+            chunks.add(new Chunk(Hex.encodeHexString(digest.digest()), chunkOffset, chunkLength));
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Returns the hash of the given data the same way as it is calculated for a chunk.
+     *
+     * @param bytes
+     *            the data
+     * @return the hex-encoded SHA-256 hash
+     */
+    public static String hash(final byte[] bytes)
+    {
+        return Hex.encodeHexString(getDigest().digest(bytes));
+    }
+
+    /**
+     * Returns a new SHA-256 message digest.
+     *
+     * @return the digest
+     */
+    private static MessageDigest getDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (final NoSuchAlgorithmException e)
+        {
+            // every Java runtime must support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Private constructor to avoid object instantiation.
+     */
+    private ContentDefinedChunker()
+    {
+    }
+}
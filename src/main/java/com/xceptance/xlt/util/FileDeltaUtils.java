@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xceptance.xlt.util.ContentDefinedChunker.Chunk;
+
+/**
+ * The FileDeltaUtils class aids in updating single files chunk by chunk instead of as a whole. The sender adds a recipe
+ * for each such file to the update archive, which lists the chunks the new version of the file is made of, together
+ * with the content of those chunks the receiver does not have yet. The receiver rebuilds the file from the chunks of
+ * its current version of the file and the chunks shipped with the archive.
+ * <p>
+ * Recipes and chunks are stored in a special directory of the archive, which is removed after the deltas have been
+ * applied.
+ *
+ * @see ContentDefinedChunker
+ * @since 8.1.0
+ */
+public final class FileDeltaUtils
+{
+    private static final Logger log = LoggerFactory.getLogger(FileDeltaUtils.class);
+
+    /**
+     * The name of the directory holding recipes and chunks.
+     */
+    public static final String DELTA_DIR_NAME = ".xltdelta";
+
+    /**
+     * The name of the sub directory holding the recipes.
+     */
+    private static final String RECIPES_DIR_NAME = "files";
+
+    /**
+     * The name of the sub directory holding the chunks.
+     */
+    private static final String CHUNKS_DIR_NAME = "chunks";
+
+    /**
+     * Adds the recipe for the given file and all its chunks that are not known to the receiver to the archive.
+     *
+     * @param out
+     *            the archive
+     * @param file
+     *            the file
+     * @param relFileName
+     *            the file's path relative to the root directory, using forward slashes
+     * @param checkSum
+     *            the file's check sum as stored in the {@link FileReplicationIndex}
+     * @param chunks
+     *            the file's chunks
+     * @param remoteChunks
+     *            the hashes of the chunks of the receiver's current version of the file
+     * @param addedChunks
+     *            the hashes of the chunks already added to the archive (will be updated)
+     * @return the number of bytes of chunk content added to the archive
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static long addDelta(final ZipOutputStream out, final File file, final String relFileName, final long checkSum,
+                                final List<Chunk> chunks, final Set<String> remoteChunks, final Set<String> addedChunks)
+        throws IOException
+    {
+        long bytesAdded = 0;
+
+        // first the chunks
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            for (final Chunk chunk : chunks)
+            {
+                if (!remoteChunks.contains(chunk.hash) && addedChunks.add(chunk.hash))
+                {
+                    final byte[] bytes = new byte[chunk.length];
+                    raf.seek(chunk.offset);
+                    raf.readFully(bytes);
+
+                    out.putNextEntry(new ZipEntry(DELTA_DIR_NAME + "/" + CHUNKS_DIR_NAME + "/" + chunk.hash));
+                    out.write(bytes);
+                    out.closeEntry();
+
+                    bytesAdded += bytes.length;
+                }
+            }
+        }
+
+        // then the recipe
+        out.putNextEntry(new ZipEntry(DELTA_DIR_NAME + "/" + RECIPES_DIR_NAME + "/" + relFileName));
+        final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII));
+        writer.write(Long.toString(checkSum));
+        writer.newLine();
+        for (final Chunk chunk : chunks)
+        {
+            writer.write(chunk.hash);
+            writer.newLine();
+        }
+        writer.flush();
+        out.closeEntry();
+
+        return bytesAdded;
+    }
+
+    /**
+     * Rebuilds all files for which a recipe can be found in the delta directory below the given root directory. The
+     * delta directory is removed afterwards, no matter whether the files could be rebuilt or not.
+     *
+     * @param directory
+     *            the root directory
+     * @throws IOException
+     *             if a file could not be rebuilt, for example, because a chunk is missing
+     */
+    public static void applyDeltas(final File directory) throws IOException
+    {
+        final File deltaDir = new File(directory, DELTA_DIR_NAME);
+        if (!deltaDir.isDirectory())
+        {
+            return;
+        }
+
+        try
+        {
+            final Path recipesDir = deltaDir.toPath().resolve(RECIPES_DIR_NAME);
+            final Path chunksDir = deltaDir.toPath().resolve(CHUNKS_DIR_NAME);
+
+            if (Files.isDirectory(recipesDir))
+            {
+                final List<Path> recipes;
+                try (final Stream<Path> files = Files.walk(recipesDir))
+                {
+                    recipes = files.filter(Files::isRegularFile).collect(Collectors.toList());
+                }
+
+                for (final Path recipe : recipes)
+                {
+                    final File file = new File(directory, recipesDir.relativize(recipe).toString());
+
+                    log.debug("Rebuilding file '" + file + "' from chunks ...");
+                    rebuildFile(file, recipe, chunksDir);
+                }
+            }
+        }
+        finally
+        {
+            FileUtils.deleteQuietly(deltaDir);
+        }
+    }
+
+    /**
+     * Rebuilds the given file according to the given recipe.
+     *
+     * @param file
+     *            the file
+     * @param recipe
+     *            the recipe
+     * @param chunksDir
+     *            the directory with the shipped chunks
+     * @throws IOException
+     *             if the file could not be rebuilt
+     */
+    private static void rebuildFile(final File file, final Path recipe, final Path chunksDir) throws IOException
+    {
+        // index the chunks of the current version
+        final Map<String, Chunk> oldChunks = new HashMap<>();
+        if (file.isFile())
+        {
+            for (final Chunk chunk : ContentDefinedChunker.chunk(file))
+            {
+                oldChunks.putIfAbsent(chunk.hash, chunk);
+            }
+        }
+
+        FileUtils.forceMkdirParent(file);
+        final File newFile = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+
+        try
+        {
+            final long expectedCheckSum;
+
+            try (final BufferedReader reader = Files.newBufferedReader(recipe, StandardCharsets.US_ASCII);
+                 final OutputStream out = new FileOutputStream(newFile);
+                 final RandomAccessFile oldFile = file.isFile() ? new RandomAccessFile(file, "r") : null)
+            {
+                expectedCheckSum = Long.parseLong(reader.readLine());
+
+                String hash;
+                while ((hash = reader.readLine()) != null)
+                {
+                    final Path shippedChunk = chunksDir.resolve(hash);
+                    if (Files.isRegularFile(shippedChunk))
+                    {
+                        Files.copy(shippedChunk, out);
+                    }
+                    else
+                    {
+                        final Chunk oldChunk = oldChunks.get(hash);
+                        if (oldChunk == null || oldFile == null)
+                        {
+                            throw new IOException("Chunk " + hash + " of file '" + file + "' is not available");
+                        }
+
+                        final byte[] bytes = new byte[oldChunk.length];
+                        oldFile.seek(oldChunk.offset);
+                        oldFile.readFully(bytes);
+                        out.write(bytes);
+                    }
+                }
+            }
+
+            final long checkSum = FileReplicationUtils.calculateCheckSum(newFile);
+            if (checkSum != expectedCheckSum)
+            {
+                throw new IOException("Check sum mismatch after rebuilding file '" + file + "'");
+            }
+
+            Files.move(newFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally
+        {
+            FileUtils.deleteQuietly(newFile);
+        }
+    }
+
+    /**
+     * Private constructor to avoid object instantiation.
+     */
+    private FileDeltaUtils()
+    {
+    }
+}
@@ -218,7 +218,7 @@ public final class FileReplicationUtils
      *            the file
      * @return the checksum, or -1 if the file denotes a directory etc.
      */
-    private static long calculateCheckSum(final File file)
+    static long calculateCheckSum(final File file)
     {
         if (file.isDirectory())
         {
@@ -450,5 +450,14 @@ public class WebResponse implements Serializable {
     {
         this.protocolVersion = protocolVersion;
     }
+
+    /**
+     * Returns the data of this response. For internal use only.
+     * @return the response data
+     */
+    public WebResponseData getResponseData()
+    {
+        return responseData_;
+    }
     // XC end
 }
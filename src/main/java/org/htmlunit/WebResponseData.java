@@ -50,7 +50,11 @@ public class WebResponseData implements Serializable {
     private final int statusCode_;
     private final String statusMessage_;
     private final List<NameValuePair> responseHeaders_;
-    private final DownloadedContent downloadedContent_;
+    // XC: Not final, since the content of a cached response is replaced with an identical copy shared by all users
+    // of an agent (see #setDownloadedContent). This happens when the response is put into the cache, possibly by a
+    // static content download thread while other threads already read the response. Volatile, so that readers see
+    // either the old or the new content, but never a partially published one.
+    private volatile DownloadedContent downloadedContent_;
 
     /**
      * Constructs with a raw byte[] (mostly for testing).
@@ -253,4 +257,25 @@ public class WebResponseData implements Serializable {
     public void cleanUp() {
         downloadedContent_.cleanUp();
     }
+
+    // XC start
+    /**
+     * Returns the downloaded content of this response. For internal use only.
+     * @return the downloaded content
+     */
+    public DownloadedContent getDownloadedContent()
+    {
+        return downloadedContent_;
+    }
+
+    /**
+     * Replaces the downloaded content of this response with an identical copy, for example one that is shared with
+     * other responses. The previous content is not cleaned up. For internal use only.
+     * @param downloadedContent the new downloaded content
+     */
+    public void setDownloadedContent(final DownloadedContent downloadedContent)
+    {
+        downloadedContent_ = downloadedContent;
+    }
+    // XC end
 }
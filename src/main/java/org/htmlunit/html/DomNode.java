@@ -1226,6 +1226,12 @@ public abstract class DomNode implements Cloneable, Serializable, Node {
         if (destination.getPage() != getPage()) {
             throw new RuntimeException("Cannot perform quiet move on nodes from different pages.");
         }
+        // XC start
+        final HtmlPage htmlPage = getHtmlPageOrNull();
+        if (htmlPage != null) {
+            htmlPage.clearElementsByLocalNameIndex();
+        }
+        // XC end
         for (final DomNode child : getChildren()) {
             child.basicRemove();
             destination.basicAppend(child);
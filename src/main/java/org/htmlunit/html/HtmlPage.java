@@ -167,6 +167,9 @@ public class HtmlPage extends SgmlPage {
 
     private Map<String, SortedSet<DomElement>> idMap_ = new ConcurrentHashMap<>();
     private Map<String, SortedSet<DomElement>> nameMap_ = new ConcurrentHashMap<>();
+    // XC start
+    private transient volatile Map<String, List<DomElement>> tagMap_;
+    // XC end
 
     private SortedSet<BaseFrameElement> frameElements_ = new TreeSet<>(documentPositionComparator);
     private int parserCount_;
@@ -1750,6 +1753,37 @@ public class HtmlPage extends SgmlPage {
         return Collections.emptyList();
     }
 
+    // XC start
+    /**
+     * Returns the elements with the specified local name in document order. The elements are looked up in an index,
+     * which is built on first use and discarded as soon as nodes are added to or removed from this page. Please note
+     * that the lists returned by this method are immutable.
+     *
+     * @param localName the local name to search for
+     * @return the elements with the specified local name
+     */
+    public List<DomElement> getElementsByLocalName(final String localName) {
+        Map<String, List<DomElement>> tagMap = tagMap_;
+        if (tagMap == null) {
+            tagMap = new HashMap<>();
+            for (final DomElement element : getDomElementDescendants()) {
+                tagMap.computeIfAbsent(element.getLocalName(), k -> new ArrayList<>()).add(element);
+            }
+            tagMap_ = tagMap;
+        }
+
+        final List<DomElement> elements = tagMap.get(localName);
+        return elements == null ? Collections.emptyList() : Collections.unmodifiableList(elements);
+    }
+
+    /**
+     * Discards the index used by {@link #getElementsByLocalName(String)}.
+     */
+    void clearElementsByLocalNameIndex() {
+        tagMap_ = null;
+    }
+    // XC end
+
     /**
      * Returns the elements with the specified string for their name or ID. If there are
      * no elements with the specified name or ID, this method returns an empty list.
@@ -1783,6 +1817,9 @@ public class HtmlPage extends SgmlPage {
      * @param node the node that has just been added to the document
      */
     void notifyNodeAdded(final DomNode node) {
+        // XC start
+        tagMap_ = null;
+        // XC end
         if (node instanceof DomElement) {
             addMappedElement((DomElement) node, true);
 
@@ -1808,6 +1845,9 @@ public class HtmlPage extends SgmlPage {
      * @param node the node that has just been removed from the tree
      */
     void notifyNodeRemoved(final DomNode node) {
+        // XC start
+        tagMap_ = null;
+        // XC end
         if (node instanceof HtmlElement) {
             removeMappedElement((HtmlElement) node, true, true);
 
@@ -2014,6 +2054,9 @@ public class HtmlPage extends SgmlPage {
 
         result.idMap_ = new ConcurrentHashMap<>();
         result.nameMap_ = new ConcurrentHashMap<>();
+        // XC start
+        result.tagMap_ = null;
+        // XC end
 
         return result;
     }
@@ -17,14 +17,19 @@ package org.htmlunit.html.xpath;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.xml.transform.TransformerException;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.htmlunit.SgmlPage;
+import org.htmlunit.html.DomElement;
 import org.htmlunit.html.DomNode;
+import org.htmlunit.html.HtmlPage;
 import org.htmlunit.xpath.XPathContext;
 import org.htmlunit.xpath.objects.XBoolean;
 import org.htmlunit.xpath.objects.XNodeSet;
@@ -38,6 +43,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import com.xceptance.common.collection.ConcurrentLRUCache;
 import com.xceptance.xlt.engine.util.TimerUtils;
 
 /**
@@ -156,8 +162,30 @@ public final class XPathHelper {
 
     public static boolean useJaxen = true;
 
+    /**
+     * Whether expressions of certain simple shapes are answered from the indexes maintained by {@link HtmlPage}
+     * instead of being evaluated by Jaxen.
+     */
+    public static boolean useIndexes = true;
+
     private static final Pattern pattern = Pattern.compile("(@[a-zA-Z]+)");
 
+    /**
+     * Matches expressions like <code>//*[@id='foo']</code> or <code>//div[@class="bar"]</code>.
+     */
+    private static final Pattern INDEXABLE_XPATH_PATTERN = Pattern.compile("//(\\*|[a-zA-Z][a-zA-Z0-9]*)\\[@([a-z][a-z0-9_-]*)\\s*=\\s*(?:'([^']+)'|\"([^\"]+)\")\\]");
+
+    /**
+     * The compiled expressions keyed by the original expression string.
+     */
+    private static final ConcurrentLRUCache<String, CompiledXPath> COMPILED_XPATHS = new ConcurrentLRUCache<>(2001);
+
+    private static final LongAdder cacheHits = new LongAdder();
+
+    private static final LongAdder cacheMisses = new LongAdder();
+
+    private static final LongAdder indexHits = new LongAdder();
+
     private static String preProcessXPath(String string, Node node)
     {
         // Not a very clean way
@@ -171,6 +199,73 @@ public final class XPathHelper {
         return string;
     }
 
+    /**
+     * Returns the compiled form of the given expression, either from the cache or freshly compiled.
+     *
+     * @param xpathExpr
+     *            the XPath expression
+     * @return the compiled expression
+     * @throws JaxenException
+     *             if the expression is invalid
+     */
+    private static CompiledXPath getCompiledXPath(final String xpathExpr) throws JaxenException
+    {
+        CompiledXPath compiledXPath = COMPILED_XPATHS.get(xpathExpr);
+        if (compiledXPath == null)
+        {
+            cacheMisses.increment();
+
+            compiledXPath = new CompiledXPath(preProcessXPath(xpathExpr, null));
+            COMPILED_XPATHS.put(xpathExpr, compiledXPath);
+        }
+        else
+        {
+            cacheHits.increment();
+        }
+
+        return compiledXPath;
+    }
+
+    /**
+     * Returns how often a compiled expression was found in the cache.
+     *
+     * @return the number of cache hits
+     */
+    public static long getCacheHits()
+    {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Returns how often an expression had to be compiled because it was not found in the cache.
+     *
+     * @return the number of cache misses
+     */
+    public static long getCacheMisses()
+    {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * Returns how often an expression was answered from the page indexes instead of being evaluated by Jaxen.
+     *
+     * @return the number of index hits
+     */
+    public static long getIndexHits()
+    {
+        return indexHits.sum();
+    }
+
+    /**
+     * Resets the cache and index hit counters.
+     */
+    public static void resetStatistics()
+    {
+        cacheHits.reset();
+        cacheMisses.reset();
+        indexHits.reset();
+    }
+
     /**
      * Evaluates an XPath expression from the specified node, returning the resultant nodes.
      *
@@ -199,10 +294,19 @@ public final class XPathHelper {
                 {
                     PROCESS_XPATH_.set(Boolean.TRUE);
 
-                    String expr = preProcessXPath(xpathExpr, node);
+                    final CompiledXPath compiledXPath = getCompiledXPath(xpathExpr);
 
-                    DOMXPath path = new DOMXPath(expr);
-                    List<Object> result = path.selectNodes(node);
+                    if (useIndexes && compiledXPath.indexedLookup != null)
+                    {
+                        final List<Object> result = compiledXPath.indexedLookup.select(node);
+                        if (result != null)
+                        {
+                            indexHits.increment();
+                            return (List<T>) result;
+                        }
+                    }
+
+                    List<Object> result = compiledXPath.path.selectNodes(node);
 
                     return (List<T>) result;
                 }
@@ -228,5 +332,133 @@ public final class XPathHelper {
             }
         }
     }
+
+    /**
+     * A preprocessed and compiled XPath expression. Compiled expressions are immutable and may be shared between
+     * threads.
+     */
+    private static class CompiledXPath
+    {
+        private final DOMXPath path;
+
+        /**
+         * The index-based lookup equivalent to this expression, or <code>null</code> if there is none.
+         */
+        private final IndexedLookup indexedLookup;
+
+        private CompiledXPath(final String expr) throws JaxenException
+        {
+            path = new DOMXPath(expr);
+            indexedLookup = IndexedLookup.create(expr);
+        }
+    }
+
+    /**
+     * Answers expressions of the form <code>//tag[@attribute='value']</code> from the indexes maintained by
+     * {@link HtmlPage}: the ID index if the attribute is "id", the name index if the attribute is "name", and the tag
+     * index otherwise. The candidates found in an index are checked against the full expression, so the result is the
+     * same as if evaluated by Jaxen.
+     */
+    private static class IndexedLookup
+    {
+        private final String tagName;
+
+        private final String attributeName;
+
+        private final String attributeValue;
+
+        private IndexedLookup(final String tagName, final String attributeName, final String attributeValue)
+        {
+            this.tagName = tagName;
+            this.attributeName = attributeName;
+            this.attributeValue = attributeValue;
+        }
+
+        /**
+         * Creates the lookup for the given preprocessed expression.
+         *
+         * @param expr
+         *            the expression
+         * @return the lookup, or <code>null</code> if the expression cannot be answered from an index
+         */
+        private static IndexedLookup create(final String expr)
+        {
+            final Matcher matcher = INDEXABLE_XPATH_PATTERN.matcher(expr);
+            if (!matcher.matches())
+            {
+                return null;
+            }
+
+            final String tagName = matcher.group(1);
+            final String attributeName = matcher.group(2);
+            final String attributeValue = matcher.group(3) != null ? matcher.group(3) : matcher.group(4);
+
+            // without a tag name, only the ID and name indexes can narrow down the candidates
+            if ("*".equals(tagName) && !DomElement.ID_ATTRIBUTE.equals(attributeName) &&
+                !DomElement.NAME_ATTRIBUTE.equals(attributeName))
+            {
+                return null;
+            }
+
+            return new IndexedLookup(tagName, attributeName, attributeValue);
+        }
+
+        /**
+         * Selects the matching elements in the page of the given node.
+         *
+         * @param node
+         *            the context node
+         * @return the matching elements in document order, or <code>null</code> if the page has no indexes
+         */
+        private List<Object> select(final DomNode node)
+        {
+            final SgmlPage page = node.getPage();
+            if (!(page instanceof HtmlPage))
+            {
+                return null;
+            }
+
+            final HtmlPage htmlPage = (HtmlPage) page;
+
+            // elements from the tag index are always attached to the page, others might have been detached meanwhile
+            final List<DomElement> candidates;
+            final boolean checkAttached;
+            if (DomElement.ID_ATTRIBUTE.equals(attributeName))
+            {
+                candidates = htmlPage.getElementsById(attributeValue);
+                checkAttached = true;
+            }
+            else if (DomElement.NAME_ATTRIBUTE.equals(attributeName))
+            {
+                candidates = htmlPage.getElementsByName(attributeValue);
+                checkAttached = true;
+            }
+            else
+            {
+                candidates = htmlPage.getElementsByLocalName(tagName);
+                checkAttached = false;
+            }
+
+            final List<Object> result = new ArrayList<>();
+            for (final DomElement candidate : candidates)
+            {
+                if (matchesTagName(candidate) && attributeValue.equals(candidate.getAttribute(attributeName)) &&
+                    (!checkAttached || htmlPage.isAncestorOf(candidate)))
+                {
+                    result.add(candidate);
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Checks whether the given element matches the tag name the same way as Jaxen does.
+         */
+        private boolean matchesTagName(final DomElement element)
+        {
+            return "*".equals(tagName) || (tagName.equals(element.getLocalName()) && StringUtils.isEmpty(element.getNamespaceURI()));
+        }
+    }
     // XC end
 }
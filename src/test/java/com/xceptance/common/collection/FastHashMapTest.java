@@ -19,6 +19,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -352,5 +356,39 @@ public class FastHashMapTest
         }
 
     }
-}
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void serialization() throws Exception
+    {
+        final FastHashMap<String, Integer> m = new FastHashMap<>(3, 0.5f);
+        IntStream.range(0, 100).forEach(i -> m.put("k" + i, i));
+        m.remove("k50");
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(m);
+        }
+
+        final FastHashMap<String, Integer> copy;
+        try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            copy = (FastHashMap<String, Integer>) in.readObject();
+        }
+
+        assertEquals(99, copy.size());
+        assertNull(copy.get("k50"));
+        for (int i = 0; i < 100; i++)
+        {
+            if (i != 50)
+            {
+                assertEquals(Integer.valueOf(i), copy.get("k" + i));
+            }
+        }
+
+        // still usable
+        copy.put("k50", 50);
+        assertEquals(100, copy.size());
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.xceptance.xlt.api.util.XltCharBuffer;
+
+/**
+ * Tests the round trip through {@link BinaryRecordWriter} and {@link BinaryRecordReader}.
+ */
+public class BinaryRecordWriterTest
+{
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException
+    {
+        final List<List<String>> records = new ArrayList<>();
+        records.add(Arrays.asList("R", "Homepage.1", "1700000000000", "123", "false", "", "-5", "0", "007", "-0", "+1", "12.5"));
+        records.add(Arrays.asList("R", "Homepage.1", "1700000000123", "9223372036854775807", "Umlaute äöü €", "https://host/?a=1,b=\"2\""));
+        records.add(Arrays.asList("T", "TMain", "1700000001000", "4711", "true", "java.lang.Exception: foo\tbar"));
+
+        final List<List<String>> result = readAll(write(records));
+
+        Assert.assertEquals(records, result);
+    }
+
+    @Test
+    public void testLongAndManyValuesAreWrittenAsLiterals() throws IOException
+    {
+        final List<List<String>> records = new ArrayList<>();
+        for (int i = 0; i < BinaryRecordFormat.MAX_DICTIONARY_SIZE + 10; i++)
+        {
+            records.add(Arrays.asList("E", "value" + i, "x".repeat(BinaryRecordFormat.MAX_DICTIONARY_VALUE_LENGTH + 1)));
+        }
+
+        Assert.assertEquals(records, readAll(write(records)));
+    }
+
+    @Test
+    public void testAppendedSegments() throws IOException
+    {
+        final List<List<String>> first = Arrays.asList(Arrays.asList("A", "Action1", "1000"), Arrays.asList("R", "Request", "1001"));
+        final List<List<String>> second = Arrays.asList(Arrays.asList("R", "Other", "2000"), Arrays.asList("A", "Action1", "2001"));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(write(first));
+        out.write(write(second));
+
+        final List<List<String>> expected = new ArrayList<>(first);
+        expected.addAll(second);
+
+        Assert.assertEquals(expected, readAll(out.toByteArray()));
+    }
+
+    @Test(expected = EOFException.class)
+    public void testTruncatedFile() throws IOException
+    {
+        final byte[] data = write(Arrays.asList(Arrays.asList("A", "Action1", "1000"), Arrays.asList("R", "Request", "1001")));
+
+        readAll(Arrays.copyOf(data, data.length - 2));
+    }
+
+    @Test
+    public void testCountRecords() throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(write(Arrays.asList(Arrays.asList("A", "Action1", "1000"), Arrays.asList("R", "Request", "1001"))));
+        out.write(write(Arrays.asList(Arrays.asList("R", "Request", "2000"))));
+
+        try (final BinaryRecordReader reader = new BinaryRecordReader(new ByteArrayInputStream(out.toByteArray()), 7))
+        {
+            Assert.assertEquals(3, reader.countRecords());
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void testCountRecords_TruncatedFile() throws IOException
+    {
+        final byte[] data = write(Arrays.asList(Arrays.asList("A", "Action1", "1000"), Arrays.asList("R", "Request", "1001")));
+
+        try (final BinaryRecordReader reader = new BinaryRecordReader(new ByteArrayInputStream(Arrays.copyOf(data, data.length - 2))))
+        {
+            reader.countRecords();
+        }
+    }
+
+    @Test
+    public void testDirectRecords() throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final BinaryRecordWriter writer = new BinaryRecordWriter(out))
+        {
+            writer.write(fields -> {
+                fields.add("R");
+                fields.add("Homepage.1");
+                fields.add(1700000000000L);
+                fields.add(-5);
+                fields.add("");
+                fields.add(Long.MIN_VALUE);
+            });
+        }
+
+        Assert.assertEquals(Arrays.asList(Arrays.asList("R", "Homepage.1", "1700000000000", "-5", "", String.valueOf(Long.MIN_VALUE))),
+                            readAll(out.toByteArray()));
+    }
+
+    @Test
+    public void testTrailer() throws IOException
+    {
+        final byte[] data = write(Arrays.asList(Arrays.asList("A", "Action1", "1000"), Arrays.asList("R", "Request", "1001")));
+
+        Assert.assertEquals(2, BinaryRecordReader.getRecordCount(tail(data)));
+        try (final BinaryRecordReader reader = new BinaryRecordReader(new ByteArrayInputStream(data), 7))
+        {
+            Assert.assertTrue(reader.isComplete());
+        }
+    }
+
+    @Test
+    public void testTrailer_NotClosed() throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final BinaryRecordWriter writer = new BinaryRecordWriter(out);
+        writer.write(Arrays.asList("A", "Action1", "1000"));
+        writer.flush();
+
+        final byte[] data = out.toByteArray();
+
+        Assert.assertEquals(-1, BinaryRecordReader.getRecordCount(tail(data)));
+        try (final BinaryRecordReader reader = new BinaryRecordReader(new ByteArrayInputStream(data)))
+        {
+            Assert.assertFalse(reader.isComplete());
+        }
+    }
+
+    @Test
+    public void testTrailer_AppendedSegments() throws IOException
+    {
+        final Path file = tempFolder.getRoot().toPath().resolve("timers.bin");
+
+        for (int i = 0; i < 3; i++)
+        {
+            try (final BinaryRecordWriter writer = new BinaryRecordWriter(file))
+            {
+                writer.write(Arrays.asList("R", "Request", String.valueOf(i)));
+            }
+        }
+
+        Assert.assertEquals(3, BinaryRecordReader.getRecordCount(tail(Files.readAllBytes(file))));
+        Assert.assertEquals(3, readAll(Files.readAllBytes(file)).size());
+    }
+
+    @Test
+    public void testTrailer_AppendedAfterIncompleteSegment() throws IOException
+    {
+        final Path file = tempFolder.getRoot().toPath().resolve("timers.bin");
+
+        // the first writer never gets closed
+        final BinaryRecordWriter first = new BinaryRecordWriter(file);
+        first.write(Arrays.asList("R", "Request", "1"));
+        first.flush();
+
+        try (final BinaryRecordWriter writer = new BinaryRecordWriter(file))
+        {
+            writer.write(Arrays.asList("R", "Request", "2"));
+        }
+
+        Assert.assertEquals(-1, BinaryRecordReader.getRecordCount(tail(Files.readAllBytes(file))));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidHeader() throws IOException
+    {
+        new BinaryRecordReader(new ByteArrayInputStream("R,foo,1000".getBytes()));
+    }
+
+    @Test
+    public void testIsCanonicalNumber()
+    {
+        Assert.assertTrue(BinaryRecordWriter.isCanonicalNumber("0"));
+        Assert.assertTrue(BinaryRecordWriter.isCanonicalNumber("-1"));
+        Assert.assertTrue(BinaryRecordWriter.isCanonicalNumber("1700000000000"));
+
+        Assert.assertFalse(BinaryRecordWriter.isCanonicalNumber("-"));
+        Assert.assertFalse(BinaryRecordWriter.isCanonicalNumber("-0"));
+        Assert.assertFalse(BinaryRecordWriter.isCanonicalNumber("01"));
+        Assert.assertFalse(BinaryRecordWriter.isCanonicalNumber("+1"));
+        Assert.assertFalse(BinaryRecordWriter.isCanonicalNumber("1.0"));
+        Assert.assertFalse(BinaryRecordWriter.isCanonicalNumber("1234567890123456789"));
+    }
+
+    private static byte[] tail(final byte[] data)
+    {
+        return Arrays.copyOfRange(data, data.length - BinaryRecordReader.TRAILER_LENGTH, data.length);
+    }
+
+    private static byte[] write(final List<List<String>> records) throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final BinaryRecordWriter writer = new BinaryRecordWriter(out))
+        {
+            for (final List<String> record : records)
+            {
+                writer.write(record);
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    private static List<List<String>> readAll(final byte[] data) throws IOException
+    {
+        final List<List<String>> result = new ArrayList<>();
+
+        try (final BinaryRecordReader reader = new BinaryRecordReader(new ByteArrayInputStream(data), 7))
+        {
+            List<XltCharBuffer> fields;
+            while ((fields = reader.readRecord()) != null)
+            {
+                final List<String> record = new ArrayList<>();
+                for (int i = 0; i < fields.size(); i++)
+                {
+                    record.add(fields.get(i).toString());
+                }
+                result.add(record);
+            }
+        }
+
+        return result;
+    }
+}
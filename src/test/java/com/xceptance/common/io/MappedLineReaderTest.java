@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.xceptance.xlt.api.util.SimpleArrayList;
+import com.xceptance.xlt.api.util.XltCharBuffer;
+
+/**
+ * Tests {@link MappedLineReader} against {@link BufferedReader}.
+ */
+public class MappedLineReaderTest
+{
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        file = Files.createTempFile("MappedLineReaderTest", ".csv");
+    }
+
+    @After
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(file);
+    }
+
+    private void test(final String src) throws IOException
+    {
+        // a line plus its terminator has to fit into a region
+        int maxLineLength = 0;
+        for (final String line : src.split("\r\n|\r|\n"))
+        {
+            maxLineLength = Math.max(maxLineLength, line.getBytes(StandardCharsets.UTF_8).length);
+        }
+
+        // try all kinds of region sizes and batch sizes to hit all boundary cases
+        for (final int regionSize : new int[]
+            {
+                7, 8, 9, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 64, 1024
+            })
+        {
+            if (regionSize < maxLineLength + 2)
+            {
+                continue;
+            }
+
+            for (final int batchSize : new int[]
+                {
+                    1, 2, 3, 100
+                })
+            {
+                test(src, regionSize, batchSize);
+            }
+        }
+    }
+
+    private void test(final String src, final int regionSize, final int batchSize) throws IOException
+    {
+        Files.write(file, src.getBytes(StandardCharsets.UTF_8));
+
+        final List<String> mapped = new ArrayList<>();
+        try (final MappedLineReader r = new MappedLineReader(file, regionSize))
+        {
+            final SimpleArrayList<XltCharBuffer> lines = new SimpleArrayList<>(batchSize);
+            while (r.readLines(lines, batchSize) > 0)
+            {
+                Assert.assertTrue(lines.size() <= batchSize);
+                for (int i = 0; i < lines.size(); i++)
+                {
+                    mapped.add(lines.get(i).toString());
+                }
+                lines.clear();
+            }
+        }
+
+        final List<String> expected = new ArrayList<>();
+        try (final BufferedReader r = new BufferedReader(new StringReader(src)))
+        {
+            String line;
+            while ((line = r.readLine()) != null)
+            {
+                expected.add(line);
+            }
+        }
+
+        Assert.assertEquals("Region size: " + regionSize + ", batch size: " + batchSize, expected, mapped);
+    }
+
+    @Test
+    public void emptyFile() throws IOException
+    {
+        test("");
+    }
+
+    @Test
+    public void oneLine() throws IOException
+    {
+        test("T,abc,123");
+        test("T,abc,123\n");
+    }
+
+    @Test
+    public void lineTerminators() throws IOException
+    {
+        test("a\nbb\nccc\ndddd\n");
+        test("a\r\nbb\r\nccc\r\ndddd\r\n");
+        test("a\rbb\rccc\rdddd\r");
+        test("a\r\n\r\nbb\n\nccc\r\rdddd");
+        test("\n\n\n");
+    }
+
+    @Test
+    public void nonAsciiLines() throws IOException
+    {
+        test("R,Homepage,1000\nR,Größe äöü,1001\nR,€uro,1002\nR,plain,1003\n");
+    }
+
+    @Test(expected = IOException.class)
+    public void lineTooLong() throws IOException
+    {
+        test("this line is much longer than the region\n", 8, 10);
+    }
+}
@@ -111,6 +111,23 @@ public class CsvUtilsTest
         Assert.assertEquals(COMMA_ENC, CsvUtils.encode(COMMA_DEC).toString());
     }
 
+    @Test
+    public void testEncodeAppending()
+    {
+        final StringBuilder target = new StringBuilder("X");
+
+        Assert.assertSame(target, CsvUtils.encode(NORMAL_DEC, CsvUtils.COMMA, target));
+        Assert.assertEquals("X" + NORMAL_ENC, target.toString());
+
+        target.setLength(0);
+        CsvUtils.encode(DOUBLE_QUOTE_DEC, CsvUtils.COMMA, target);
+        Assert.assertEquals(DOUBLE_QUOTE_ENC, target.toString());
+
+        target.setLength(0);
+        CsvUtils.encode(COMMA_DEC, CsvUtils.COMMA, target);
+        Assert.assertEquals(COMMA_ENC, target.toString());
+    }
+
     public void testEncodeWithEmptyArray()
     {
         CsvUtils.encode(List.of(new String[0]));
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.util.concurrent;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.xceptance.xlt.engine.UserThreadGroup;
+
+/**
+ * Tests the implementation of {@link VirtualThreads}. Most tests are skipped if the Java runtime does not support
+ * virtual threads.
+ */
+public class VirtualThreadsTest
+{
+    @Test
+    public void testPlatformThreadIsNotVirtual()
+    {
+        Assert.assertFalse(VirtualThreads.isVirtual(Thread.currentThread()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testNewThread_Unsupported()
+    {
+        Assume.assumeFalse(VirtualThreads.isSupported());
+
+        VirtualThreads.newThread("foo", () -> {
+        });
+    }
+
+    @Test
+    public void testNewThread() throws InterruptedException
+    {
+        Assume.assumeTrue(VirtualThreads.isSupported());
+
+        final AtomicBoolean virtual = new AtomicBoolean();
+
+        final Thread thread = VirtualThreads.newThread("foo", () -> virtual.set(VirtualThreads.isVirtual(Thread.currentThread())));
+        thread.start();
+        thread.join();
+
+        Assert.assertEquals("foo", thread.getName());
+        Assert.assertTrue(thread.isDaemon());
+        Assert.assertTrue(virtual.get());
+    }
+
+    @Test
+    public void testNewThreadFactory() throws Exception
+    {
+        Assume.assumeTrue(VirtualThreads.isSupported());
+
+        final Set<String> results = new HashSet<String>();
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(5, VirtualThreads.newThreadFactory(i -> "foo-" + i));
+        try
+        {
+            for (int i = 0; i < 3; i++)
+            {
+                results.add(executorService.submit(() -> {
+                    Assert.assertTrue(VirtualThreads.isVirtual(Thread.currentThread()));
+                    return Thread.currentThread().getName();
+                }).get());
+            }
+        }
+        finally
+        {
+            executorService.shutdown();
+        }
+
+        Assert.assertEquals(3, results.size());
+        Assert.assertTrue(results.contains("foo-0"));
+        Assert.assertTrue(results.contains("foo-1"));
+        Assert.assertTrue(results.contains("foo-2"));
+    }
+
+    @Test
+    public void testUserThreadGroupIsInherited() throws InterruptedException
+    {
+        Assume.assumeTrue(VirtualThreads.isSupported());
+
+        final ThreadGroup userThreadGroup = new ThreadGroup("user");
+        final ThreadGroup[] childThreadGroup = new ThreadGroup[1];
+
+        final Thread thread = VirtualThreads.newThread("user", () -> {
+            UserThreadGroup.bind(userThreadGroup);
+            try
+            {
+                // a platform thread created by the user works for the user as well
+                final Thread child = new Thread(() -> childThreadGroup[0] = UserThreadGroup.get());
+                child.start();
+                child.join();
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                UserThreadGroup.unbind();
+            }
+        });
+        thread.start();
+        thread.join();
+
+        Assert.assertSame(userThreadGroup, childThreadGroup[0]);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.common.util.zip;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link BlockGzipOutputStream} and {@link BlockGzipIndex}.
+ */
+public class BlockGzipOutputStreamTest
+{
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        file = Files.createTempFile("BlockGzipOutputStreamTest", ".csv.gz");
+    }
+
+    @After
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(file);
+    }
+
+    private static String createLines(final int count)
+    {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= count; i++)
+        {
+            sb.append("R,Homepage.").append(i % 7).append(',').append(1700000000000L + i).append(",123,false\n");
+        }
+
+        return sb.toString();
+    }
+
+    private void write(final String data, final int blockSize, final int writeSize) throws IOException
+    {
+        final byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+
+        try (final OutputStream out = new BlockGzipOutputStream(Files.newOutputStream(file), blockSize))
+        {
+            for (int i = 0; i < bytes.length; i += writeSize)
+            {
+                out.write(bytes, i, Math.min(writeSize, bytes.length - i));
+            }
+        }
+    }
+
+    @Test
+    public void readableAsPlainGzip() throws IOException
+    {
+        final String data = createLines(1000);
+        write(data, 1000, 77);
+
+        try (final InputStream in = new GZIPInputStream(Files.newInputStream(file)))
+        {
+            Assert.assertEquals(data, IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void membersHoldCompleteLines() throws IOException
+    {
+        final String data = createLines(1000);
+        final String[] lines = data.split("\n");
+        write(data, 1000, 1);
+
+        final BlockGzipIndex index = BlockGzipIndex.read(file);
+        Assert.assertNotNull(index);
+        Assert.assertTrue(index.getMembers().size() > 1);
+
+        final StringBuilder all = new StringBuilder();
+        long expectedFirstLine = 1;
+        for (final BlockGzipIndex.Member member : index.getMembers())
+        {
+            Assert.assertEquals(expectedFirstLine, member.firstLine);
+
+            final String content;
+            try (final InputStream in = index.open(member))
+            {
+                content = IOUtils.toString(in, StandardCharsets.UTF_8);
+            }
+
+            final String[] memberLines = content.split("\n");
+            Assert.assertEquals(member.lineCount, memberLines.length);
+            Assert.assertEquals(lines[(int) member.firstLine - 1], memberLines[0]);
+            Assert.assertTrue(content.endsWith("\n"));
+
+            all.append(content);
+            expectedFirstLine += member.lineCount;
+        }
+
+        Assert.assertEquals(lines.length + 1, expectedFirstLine);
+        Assert.assertEquals(data, all.toString());
+    }
+
+    @Test
+    public void lastLineWithoutTerminator() throws IOException
+    {
+        write("a\nb\nc", 2, 5);
+
+        final BlockGzipIndex index = BlockGzipIndex.read(file);
+        int lines = 0;
+        for (final BlockGzipIndex.Member member : index.getMembers())
+        {
+            lines += member.lineCount;
+        }
+
+        Assert.assertEquals(3, lines);
+    }
+
+    @Test
+    public void emptyFile() throws IOException
+    {
+        write("", 1000, 1);
+
+        Assert.assertEquals(0, Files.size(file));
+        Assert.assertEquals(0, BlockGzipIndex.read(file).getMembers().size());
+    }
+
+    @Test
+    public void plainGzipIsNotIndexed() throws IOException
+    {
+        try (final OutputStream out = new GZIPOutputStream(Files.newOutputStream(file)))
+        {
+            out.write(createLines(10).getBytes(StandardCharsets.UTF_8));
+        }
+
+        Assert.assertNull(BlockGzipIndex.read(file));
+    }
+}
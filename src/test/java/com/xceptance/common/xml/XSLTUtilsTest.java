@@ -19,16 +19,23 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -137,6 +144,54 @@ public class XSLTUtilsTest extends AbstractXLTTestCase
 
     }
 
+    /**
+     * Tests that an input file can be transformed several times concurrently with the same compiled style sheet.
+     */
+    @Test
+    public void testTransform_Concurrently() throws Exception
+    {
+        FileUtils.writeStringToFile(inputFile, "<report><item>a</item><item>b</item><item>c</item></report>", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(stylesheet,
+                                    "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+                                                + "<xsl:output method=\"text\"/><xsl:param name=\"prefix\"/>"
+                                                + "<xsl:template match=\"/\"><xsl:value-of select=\"$prefix\"/>"
+                                                + "<xsl:for-each select=\"report/item\"><xsl:value-of select=\".\"/></xsl:for-each>"
+                                                + "</xsl:template></xsl:stylesheet>",
+                                    StandardCharsets.UTF_8);
+
+        XSLTUtils.setTransformerFactory(TransformerFactory.newInstance());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            final Future<?>[] futures = new Future<?>[8];
+            final File[] outputFiles = new File[futures.length];
+
+            for (int i = 0; i < futures.length; i++)
+            {
+                final File out = new File(testDir, "output" + i + ".txt");
+                final String prefix = i + ":";
+
+                outputFiles[i] = out;
+                futures[i] = executor.submit(() -> {
+                    XSLTUtils.transform(inputFile, out, stylesheet, Collections.singletonMap("prefix", prefix));
+                    return null;
+                });
+            }
+
+            for (int i = 0; i < futures.length; i++)
+            {
+                futures[i].get();
+                Assert.assertEquals(i + ":abc", FileUtils.readFileToString(outputFiles[i], StandardCharsets.UTF_8));
+                outputFiles[i].delete();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Validates the passed arguments.
      */
@@ -144,14 +199,17 @@ public class XSLTUtilsTest extends AbstractXLTTestCase
     {
         // mocked transformer factory
         final TransformerFactory facMock = mock(TransformerFactory.class);
+        // mocked compiled style sheet
+        final Templates templatesMock = mock(Templates.class);
         // mocked transformer
         final Transformer transformerMock = mock(Transformer.class);
 
-        // let transformer mock return the transformer mock when
-        // newInstance(Source) is called
+        // let factory mock return the templates mock when newTemplates(Source) is called, which in turn returns the
+        // transformer mock
         try
         {
-            Mockito.doReturn(transformerMock).when(facMock).newTransformer((Source) ArgumentMatchers.any());
+            Mockito.doReturn(templatesMock).when(facMock).newTemplates((Source) ArgumentMatchers.any());
+            Mockito.doReturn(transformerMock).when(templatesMock).newTransformer();
         }
         catch (final Throwable t)
         {
@@ -210,14 +268,17 @@ public class XSLTUtilsTest extends AbstractXLTTestCase
     {
         // mocked transformer factory
         final TransformerFactory facMock = mock(TransformerFactory.class);
+        // mocked compiled style sheet
+        final Templates templatesMock = mock(Templates.class);
         // mocked transformer
         final Transformer transformerMock = mock(Transformer.class);
 
-        // stub transformer factory mock to return the transformer mock when
-        // newTransformer(Source) is called
+        // stub transformer factory mock to return the templates mock when
+        // newTemplates(Source) is called, which in turn returns the transformer mock
         try
         {
-            Mockito.doReturn(transformerMock).when(facMock).newTransformer((Source) ArgumentMatchers.any());
+            Mockito.doReturn(templatesMock).when(facMock).newTemplates((Source) ArgumentMatchers.any());
+            Mockito.doReturn(transformerMock).when(templatesMock).newTransformer();
         }
         catch (final Throwable t)
         {
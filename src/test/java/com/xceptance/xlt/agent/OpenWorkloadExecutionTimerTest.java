@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.agent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link OpenWorkloadExecutionTimer} class.
+ */
+public class OpenWorkloadExecutionTimerTest
+{
+    /**
+     * A warm-up period longer than the test, so the arrival statistics are not logged to the results directory in the
+     * working directory.
+     */
+    private static final long NO_LOGGING_PERIOD = 10_000;
+
+    /**
+     * 10 arrivals per second, but 3 users busy for 500 ms each can handle 6 arrivals per second only.
+     */
+    @Test
+    public void testArrivalsAreNotCappedByUsers() throws Exception
+    {
+        final int[][] arrivalRates =
+            {
+                {
+                    0, 36000
+                }
+            };
+        final OpenWorkloadExecutionTimer timer = new OpenWorkloadExecutionTimer("TOpenWorkload", 0, NO_LOGGING_PERIOD, 3000, 0, arrivalRates, 0,
+                                                                                new double[]
+                                                                                    {
+                                                                                        1.0
+                                                                                    });
+
+        final AtomicInteger startedUsers = new AtomicInteger();
+        final AtomicInteger executions = new AtomicInteger();
+
+        final List<Thread> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+        {
+            final Thread user = new Thread(() -> {
+                startedUsers.incrementAndGet();
+                try
+                {
+                    while (true)
+                    {
+                        timer.waitForNextExecution();
+                        executions.incrementAndGet();
+                        Thread.sleep(500);
+                    }
+                }
+                catch (final InterruptedException e)
+                {
+                    // load test is over
+                }
+            });
+            user.setDaemon(true);
+
+            users.add(user);
+            timer.addUser(user);
+        }
+
+        timer.awaitTermination();
+        for (final Thread user : users)
+        {
+            user.join(5000);
+        }
+
+        // 1 arrival in the first second, 10 arrivals in each of the following seconds were scheduled, but fewer could be
+        // started, most of them late
+        Assert.assertTrue("Scheduled: " + timer.getScheduledArrivals(), timer.getScheduledArrivals() >= 18);
+        Assert.assertEquals(executions.get(), timer.getStartedArrivals());
+        Assert.assertTrue("Started: " + timer.getStartedArrivals(), timer.getStartedArrivals() < timer.getScheduledArrivals());
+        Assert.assertTrue("Late: " + timer.getLateArrivals(), timer.getLateArrivals() > 0);
+
+        // no more users than configured were started
+        Assert.assertEquals(3, startedUsers.get());
+    }
+
+    /**
+     * 2 arrivals per second can be handled by a single user, so the others are never started.
+     */
+    @Test
+    public void testUsersAreStartedOnDemand() throws Exception
+    {
+        final int[][] arrivalRates =
+            {
+                {
+                    0, 7200
+                }
+            };
+        final OpenWorkloadExecutionTimer timer = new OpenWorkloadExecutionTimer("TOpenWorkload2", 0, NO_LOGGING_PERIOD, 3000, 0, arrivalRates, 0,
+                                                                                new double[]
+                                                                                    {
+                                                                                        1.0
+                                                                                    });
+
+        final AtomicInteger startedUsers = new AtomicInteger();
+
+        final List<Thread> users = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+        {
+            final Thread user = new Thread(() -> {
+                startedUsers.incrementAndGet();
+                try
+                {
+                    while (true)
+                    {
+                        timer.waitForNextExecution();
+                    }
+                }
+                catch (final InterruptedException e)
+                {
+                    // load test is over
+                }
+            });
+            user.setDaemon(true);
+
+            users.add(user);
+            timer.addUser(user);
+        }
+
+        timer.awaitTermination();
+        for (final Thread user : users)
+        {
+            user.join(5000);
+        }
+
+        Assert.assertEquals(1, startedUsers.get());
+        Assert.assertEquals(timer.getScheduledArrivals(), timer.getStartedArrivals());
+        Assert.assertEquals(0, timer.getLateArrivals());
+    }
+}
@@ -93,4 +93,24 @@ public class AgentControllerImplTest
             FileUtils.deleteDirectory(unzipDir.toFile());
         }
     }
+
+    @Test
+    public void testOnlyTimerFilesInResultsAreStreamable()
+    {
+        Assert.assertTrue(AgentControllerImpl.isStreamableTimerFile("ac001_00/results/TOrder/0/timers.csv"));
+        Assert.assertTrue(AgentControllerImpl.isStreamableTimerFile("ac001_00/results/TOrder/0/timer-wd-123.csv"));
+
+        // compressed or other files
+        Assert.assertFalse(AgentControllerImpl.isStreamableTimerFile("ac001_00/results/TOrder/0/timers.csv.gz"));
+        Assert.assertFalse(AgentControllerImpl.isStreamableTimerFile("ac001_00/results/TOrder/0/xlt.log"));
+        Assert.assertFalse(AgentControllerImpl.isStreamableTimerFile("ac001_00/config/TOrder/0/timers.csv"));
+
+        // other locations
+        Assert.assertFalse(AgentControllerImpl.isStreamableTimerFile("timers.csv"));
+        Assert.assertFalse(AgentControllerImpl.isStreamableTimerFile("ac001_00/results/TOrder/timers.csv"));
+        Assert.assertFalse(AgentControllerImpl.isStreamableTimerFile("ac001_00/results/TOrder/0/output/timers.csv"));
+        Assert.assertFalse(AgentControllerImpl.isStreamableTimerFile("ac001_00/results/../../timers.csv"));
+        Assert.assertFalse(AgentControllerImpl.isStreamableTimerFile("ac001_00/results/TOrder/..\\..\\x/timers.csv"));
+        Assert.assertFalse(AgentControllerImpl.isStreamableTimerFile("/ac001_00/results/TOrder/0/timers.csv"));
+    }
 }
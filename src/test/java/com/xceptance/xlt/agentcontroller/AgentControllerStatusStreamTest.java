@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.agentcontroller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.xceptance.xlt.agentcontroller.TestUserStatus.Mode;
+import com.xceptance.xlt.agentcontroller.TestUserStatus.State;
+
+/**
+ * Tests the implementation of {@link AgentControllerStatusStream}.
+ */
+public class AgentControllerStatusStreamTest
+{
+    private static AgentControllerStatus createStatus(final boolean running, final int iterations)
+    {
+        final ScenarioStatus scenarioStatus = new ScenarioStatus();
+        scenarioStatus.setScenarioName("TMyScenario");
+        scenarioStatus.setState(running ? State.Running : State.Finished);
+        scenarioStatus.setMode(Mode.TIME_PERIOD);
+        scenarioStatus.setRunningUsers(running ? 5 : 0);
+        scenarioStatus.setTotalUsers(5);
+        scenarioStatus.setIterations(iterations);
+        scenarioStatus.setEvents(3);
+        scenarioStatus.setErrors(2);
+        scenarioStatus.setPercentageComplete(42);
+        scenarioStatus.setStartDate(1_700_000_000_000L);
+        scenarioStatus.setEndDate(1_700_000_600_000L);
+        scenarioStatus.setElapsedTime(123_456L);
+        scenarioStatus.setLastModifiedDate(1_700_000_123_456L);
+        scenarioStatus.setLastRuntime(789L);
+        scenarioStatus.setTotalRuntime(98_765L);
+        scenarioStatus.setException(new IllegalStateException("Something went wrong"));
+
+        final ScenarioStatus otherScenarioStatus = new ScenarioStatus();
+        otherScenarioStatus.setScenarioName("TOtherScenario");
+        otherScenarioStatus.setStartDate(1_700_000_000_000L);
+
+        return new AgentControllerStatus(Arrays.asList(new AgentStatusInfo("ac1-00", "host1", running, running ? null : 0),
+                                                       new AgentStatusInfo("ac1-01", "host1", false, 1)),
+                                         Arrays.asList(scenarioStatus, otherScenarioStatus));
+    }
+
+    private static void assertStatusEquals(final AgentControllerStatus expected, final AgentControllerStatus actual)
+    {
+        Assert.assertEquals(expected.getAgentStatusList().size(), actual.getAgentStatusList().size());
+        for (int i = 0; i < expected.getAgentStatusList().size(); i++)
+        {
+            final AgentStatusInfo e = expected.getAgentStatusList().get(i);
+            final AgentStatusInfo a = actual.getAgentStatusList().get(i);
+
+            Assert.assertEquals(e.getAgentID(), a.getAgentID());
+            Assert.assertEquals(e.getHostName(), a.getHostName());
+            Assert.assertEquals(e.isRunning(), a.isRunning());
+            Assert.assertEquals(e.getExitCode(), a.getExitCode());
+        }
+
+        Assert.assertEquals(expected.getScenarioStatusList().size(), actual.getScenarioStatusList().size());
+        for (int i = 0; i < expected.getScenarioStatusList().size(); i++)
+        {
+            final ScenarioStatus e = expected.getScenarioStatusList().get(i);
+            final ScenarioStatus a = actual.getScenarioStatusList().get(i);
+
+            Assert.assertEquals(e.getScenarioName(), a.getScenarioName());
+            Assert.assertEquals(e.getState(), a.getState());
+            Assert.assertEquals(e.getMode(), a.getMode());
+            Assert.assertEquals(e.getRunningUsers(), a.getRunningUsers());
+            Assert.assertEquals(e.getTotalUsers(), a.getTotalUsers());
+            Assert.assertEquals(e.getIterations(), a.getIterations());
+            Assert.assertEquals(e.getEvents(), a.getEvents());
+            Assert.assertEquals(e.getErrors(), a.getErrors());
+            Assert.assertEquals(e.getPercentageComplete(), a.getPercentageComplete());
+            Assert.assertEquals(e.getStartDate(), a.getStartDate());
+            Assert.assertEquals(e.getEndDate(), a.getEndDate());
+            Assert.assertEquals(e.getElapsedTime(), a.getElapsedTime());
+            Assert.assertEquals(e.getLastModifiedDate(), a.getLastModifiedDate());
+            Assert.assertEquals(e.getLastRuntime(), a.getLastRuntime());
+            Assert.assertEquals(e.getTotalRuntime(), a.getTotalRuntime());
+            Assert.assertEquals(String.valueOf(e.getException()), String.valueOf(a.getException()));
+        }
+    }
+
+    @Test
+    public void testEncodeDecode() throws Exception
+    {
+        final AgentControllerStatus status = createStatus(true, 17);
+
+        assertStatusEquals(status, AgentControllerStatusStream.decode(AgentControllerStatusStream.encode(status)));
+    }
+
+    @Test
+    public void testWriteRead_OnlyChangesAreSent() throws Exception
+    {
+        // the same status three times, then a change, then the final status
+        final Iterator<AgentControllerStatus> statuses = Arrays.asList(createStatus(true, 1), createStatus(true, 1), createStatus(true, 1),
+                                                                       createStatus(true, 2), createStatus(false, 2))
+                                                               .iterator();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AgentControllerStatusStream.write(statuses::next, out, 0);
+
+        final DataInputStream in = AgentControllerStatusStream.open(new ByteArrayInputStream(out.toByteArray()));
+
+        assertStatusEquals(createStatus(true, 1), AgentControllerStatusStream.read(in));
+        assertStatusEquals(createStatus(true, 2), AgentControllerStatusStream.read(in));
+        assertStatusEquals(createStatus(false, 2), AgentControllerStatusStream.read(in));
+        Assert.assertNull(AgentControllerStatusStream.read(in));
+        Assert.assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void testRead_HeartbeatsAreSkipped() throws Exception
+    {
+        final byte[] encodedStatus = AgentControllerStatusStream.encode(createStatus(true, 1));
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(AgentControllerStatusStream.VERSION);
+        out.writeByte(AgentControllerStatusStream.FRAME_HEARTBEAT);
+        out.writeByte(AgentControllerStatusStream.FRAME_HEARTBEAT);
+        out.writeByte(AgentControllerStatusStream.FRAME_STATUS);
+        out.writeInt(encodedStatus.length);
+        out.write(encodedStatus);
+        out.writeByte(AgentControllerStatusStream.FRAME_END);
+
+        final DataInputStream in = AgentControllerStatusStream.open(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertStatusEquals(createStatus(true, 1), AgentControllerStatusStream.read(in));
+        Assert.assertNull(AgentControllerStatusStream.read(in));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpen_UnsupportedVersion() throws Exception
+    {
+        AgentControllerStatusStream.open(new ByteArrayInputStream(new byte[]
+            {
+                (byte) (AgentControllerStatusStream.VERSION + 1)
+            }));
+    }
+
+    @Test
+    public void testEncodeDecode_EmptyStatus() throws Exception
+    {
+        final AgentControllerStatus status = new AgentControllerStatus(Collections.emptyList(), Collections.emptyList());
+
+        assertStatusEquals(status, AgentControllerStatusStream.decode(AgentControllerStatusStream.encode(status)));
+    }
+}
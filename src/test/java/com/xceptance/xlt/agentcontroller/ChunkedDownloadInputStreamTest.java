@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.agentcontroller;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.xceptance.common.net.UrlConnectionFactory;
+import com.xceptance.xlt.agentcontroller.PartialGetUtils.RangeHeaderData;
+import com.xceptance.xlt.engine.httprequest.HttpRequestHeaders;
+import com.xceptance.xlt.engine.httprequest.HttpResponseHeaders;
+
+/**
+ * Tests the implementation of {@link ChunkedDownloadInputStream}.
+ */
+public class ChunkedDownloadInputStreamTest
+{
+    private static final byte[] CONTENT = new byte[100_000];
+
+    static
+    {
+        new Random(42).nextBytes(CONTENT);
+    }
+
+    @Test
+    public void testChunkedDownload() throws Exception
+    {
+        final FakeServer server = new FakeServer(CONTENT, true, 0);
+
+        try (final InputStream in = new ChunkedDownloadInputStream(new URL("http://localhost/file.zip"), server, 7_000, 3, 0))
+        {
+            Assert.assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+
+        Assert.assertEquals(15, server.requestCount.get());
+    }
+
+    @Test
+    public void testChunkedDownload_RetryAfterError() throws Exception
+    {
+        final FakeServer server = new FakeServer(CONTENT, true, 2);
+
+        try (final InputStream in = new ChunkedDownloadInputStream(new URL("http://localhost/file.zip"), server, 7_000, 3, 2))
+        {
+            Assert.assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testChunkedDownload_TooManyErrors() throws Exception
+    {
+        final FakeServer server = new FakeServer(CONTENT, true, 2);
+
+        try (final InputStream in = new ChunkedDownloadInputStream(new URL("http://localhost/file.zip"), server, 7_000, 3, 0))
+        {
+            in.readAllBytes();
+        }
+    }
+
+    @Test
+    public void testChunkedDownload_RetryAfterServerError() throws Exception
+    {
+        final FakeServer server = new FakeServer(CONTENT, true, 0);
+        server.failingStatusCodes.set(2);
+
+        try (final InputStream in = new ChunkedDownloadInputStream(new URL("http://localhost/file.zip"), server, 7_000, 3, 2))
+        {
+            Assert.assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testNoPartialGetSupport() throws Exception
+    {
+        final FakeServer server = new FakeServer(CONTENT, false, 0);
+
+        try (final InputStream in = new ChunkedDownloadInputStream(new URL("http://localhost/file.zip"), server, 7_000, 3, 0))
+        {
+            Assert.fail("Expected an IOException");
+        }
+        catch (final IOException e)
+        {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("ignored the Range header"));
+        }
+
+        Assert.assertEquals(1, server.requestCount.get());
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception
+    {
+        final FakeServer server = new FakeServer(new byte[0], true, 0);
+
+        try (final InputStream in = new ChunkedDownloadInputStream(new URL("http://localhost/file.zip"), server, 7_000, 3, 0))
+        {
+            Assert.assertEquals(-1, in.read());
+        }
+    }
+
+    /**
+     * Serves the content with or without partial GET support. The first chunk requests beyond the first chunk fail
+     * with a broken connection or a server error, if so configured.
+     */
+    private static class FakeServer extends UrlConnectionFactory
+    {
+        private final byte[] content;
+
+        private final boolean partialGets;
+
+        private final int failingChunkRequests;
+
+        private final AtomicInteger requestCount = new AtomicInteger();
+
+        private final AtomicInteger failedRequests = new AtomicInteger();
+
+        private final AtomicInteger failingStatusCodes = new AtomicInteger();
+
+        FakeServer(final byte[] content, final boolean partialGets, final int failingChunkRequests)
+        {
+            this.content = content;
+            this.partialGets = partialGets;
+            this.failingChunkRequests = failingChunkRequests;
+        }
+
+        @Override
+        public URLConnection open(final URL url)
+        {
+            requestCount.incrementAndGet();
+
+            return new HttpURLConnection(url)
+            {
+                private RangeHeaderData range;
+
+                @Override
+                public int getResponseCode()
+                {
+                    if (!partialGets)
+                    {
+                        return HTTP_OK;
+                    }
+
+                    range = PartialGetUtils.parseRangeHeader(getRequestProperty(HttpRequestHeaders.RANGE));
+
+                    if (range.startPos > 0 && failingStatusCodes.getAndDecrement() > 0)
+                    {
+                        return HTTP_UNAVAILABLE;
+                    }
+
+                    return range.startPos >= content.length ? 416 : HTTP_PARTIAL;
+                }
+
+                @Override
+                public String getHeaderField(final String name)
+                {
+                    return HttpResponseHeaders.CONTENT_RANGE.equals(name) ? PartialGetUtils.formatContentRangeHeader(range.startPos,
+                                                                                                                      getEndPos(),
+                                                                                                                      content.length)
+                                                                          : null;
+                }
+
+                @Override
+                public long getContentLengthLong()
+                {
+                    return content.length;
+                }
+
+                @Override
+                public InputStream getInputStream() throws IOException
+                {
+                    if (!partialGets)
+                    {
+                        return new ByteArrayInputStream(content);
+                    }
+
+                    final int startPos = (int) range.startPos;
+                    final int endPos = (int) getEndPos();
+
+                    // the first chunks beyond the first one fail once
+                    if (startPos > 0 && failedRequests.getAndIncrement() < failingChunkRequests)
+                    {
+                        throw new IOException("Connection reset");
+                    }
+
+                    return new ByteArrayInputStream(Arrays.copyOfRange(content, startPos, endPos + 1));
+                }
+
+                private long getEndPos()
+                {
+                    return Math.min(range.endPos, content.length - 1);
+                }
+
+                @Override
+                public void connect()
+                {
+                }
+
+                @Override
+                public void disconnect()
+                {
+                }
+
+                @Override
+                public boolean usingProxy()
+                {
+                    return false;
+                }
+            };
+        }
+    }
+}
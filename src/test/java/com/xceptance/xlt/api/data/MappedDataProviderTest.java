@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.api.data;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.xceptance.xlt.api.util.XltProperties;
+
+/**
+ * Tests the implementation of {@link MappedDataProvider}. Its rows are compared with those of {@link DataProvider}.
+ */
+public class MappedDataProviderTest
+{
+    /**
+     * Just some UTF-8 data
+     */
+    private static final String UTF8STRING = "A" + "ê" + "ñ" + "ü" + "C";
+
+    /**
+     * File handle to directory holding the test data.
+     */
+    private static File dataDir;
+
+    @BeforeClass
+    public static void classIntro() throws IOException
+    {
+        dataDir = new File(new File(System.getProperty("java.io.tmpdir")), "mappedData");
+
+        FileUtils.writeStringToFile(new File(dataDir, "mixed.txt"),
+                                    "# header\n" + "first\r\n" + "\n" + "  # indented comment\n" + "second # not a comment\r" + UTF8STRING +
+                                                                    "\n" + " spaced  out \n" + "#\n" + "last",
+                                    "UTF-8");
+        FileUtils.writeStringToFile(new File(dataDir, "empty.txt"), "", "UTF-8");
+        FileUtils.writeStringToFile(new File(dataDir, "comments.txt"), "#1\n#2\n", "UTF-8");
+
+        final Random random = new Random(42);
+        final List<String> lines = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++)
+        {
+            lines.add((random.nextInt(10) == 0 ? "#" : "") + i + (random.nextBoolean() ? UTF8STRING : ""));
+        }
+        FileUtils.writeLines(new File(dataDir, "large.txt"), "UTF-8", lines);
+
+        XltProperties.getInstance().setProperty("com.xceptance.xlt.data.directory", dataDir.getAbsolutePath());
+    }
+
+    @AfterClass
+    public static void classOutro()
+    {
+        FileUtils.deleteQuietly(dataDir);
+    }
+
+    private static void assertSameRows(final String fileName) throws IOException
+    {
+        final DataProvider expected = new DataProvider(fileName);
+        final MappedDataProvider actual = new MappedDataProvider(fileName);
+
+        Assert.assertEquals(expected.getSize(), actual.getSize());
+        for (int i = 0; i < expected.getSize(); i++)
+        {
+            Assert.assertEquals(expected.getRow(i), actual.getRow(i));
+            Assert.assertEquals(expected.getRow(true, i), actual.getRow(true, i));
+        }
+
+        Assert.assertNull(actual.getRow(-1));
+        Assert.assertNull(actual.getRow(actual.getSize()));
+    }
+
+    @Test
+    public void testSameRowsAsDataProvider() throws IOException
+    {
+        assertSameRows("mixed.txt");
+        assertSameRows("large.txt");
+        assertSameRows("empty.txt");
+        assertSameRows("comments.txt");
+    }
+
+    @Test
+    public void testRows() throws IOException
+    {
+        final MappedDataProvider provider = new MappedDataProvider("mixed.txt");
+
+        Assert.assertEquals(6, provider.getSize());
+        Assert.assertEquals("first", provider.getRow(0));
+        Assert.assertEquals("", provider.getRow(1));
+        Assert.assertEquals("second # not a comment", provider.getRow(2));
+        Assert.assertEquals(UTF8STRING, provider.getRow(3));
+        Assert.assertEquals(" spaced  out ", provider.getRow(4));
+        Assert.assertEquals("spacedout", provider.getRow(true, 4));
+        Assert.assertEquals("last", provider.getRow(5));
+    }
+
+    @Test
+    public void testNoLineCommentMarker() throws IOException
+    {
+        final MappedDataProvider provider = new MappedDataProvider("comments.txt", "UTF-8", null);
+
+        Assert.assertEquals(2, provider.getSize());
+        Assert.assertEquals("#1", provider.getRow(0));
+        Assert.assertEquals("#2", provider.getRow(1));
+    }
+
+    @Test
+    public void testEmptyDataSet() throws IOException
+    {
+        final MappedDataProvider provider = new MappedDataProvider("comments.txt");
+
+        Assert.assertEquals(0, provider.getSize());
+        Assert.assertNull(provider.getRandomRow());
+        Assert.assertNull(provider.getNextRow());
+    }
+
+    @Test
+    public void testRandomRow() throws IOException
+    {
+        final DataProvider expected = new DataProvider("large.txt");
+        final MappedDataProvider provider = new MappedDataProvider("large.txt");
+
+        for (int i = 0; i < 100; i++)
+        {
+            Assert.assertTrue(expected.getAllRows().contains(provider.getRandomRow()));
+        }
+    }
+
+    @Test
+    public void testNextRow_Concurrently() throws Exception
+    {
+        final MappedDataProvider provider = new MappedDataProvider("large.txt");
+        final int threadCount = 4;
+        final int rowsPerThread = provider.getSize() / threadCount;
+
+        final List<Set<String>> results = new ArrayList<Set<String>>();
+        final List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < threadCount; i++)
+        {
+            final Set<String> rows = new HashSet<String>();
+            results.add(rows);
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < rowsPerThread; j++)
+                {
+                    rows.add(provider.getNextRow());
+                }
+            }));
+        }
+
+        for (final Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        // every row must have been returned exactly once
+        final Set<String> allRows = new HashSet<String>();
+        for (final Set<String> rows : results)
+        {
+            Assert.assertEquals(rowsPerThread, rows.size());
+            allRows.addAll(rows);
+        }
+        Assert.assertEquals(rowsPerThread * threadCount, allRows.size());
+    }
+
+    @Test
+    public void testNextRow_WrapAround() throws IOException
+    {
+        final MappedDataProvider provider = new MappedDataProvider("mixed.txt");
+
+        for (int i = 0; i < 2 * provider.getSize(); i++)
+        {
+            Assert.assertEquals(provider.getRow(i % provider.getSize()), provider.getNextRow());
+        }
+    }
+
+    @Test
+    public void testGetInstance() throws IOException
+    {
+        Assert.assertSame(MappedDataProvider.getInstance("mixed.txt"), MappedDataProvider.getInstance("mixed.txt"));
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testMissingFile() throws IOException
+    {
+        new MappedDataProvider("missing.txt");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncompatibleEncoding() throws IOException
+    {
+        new MappedDataProvider("mixed.txt", "UTF-16", "#");
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.api.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.xceptance.xlt.api.util.XltProperties;
+
+/**
+ * Tests the implementation of {@link MappedExclusiveDataProvider}.
+ */
+public class MappedExclusiveDataProviderTest
+{
+    private static final int ROWS = 1001;
+
+    /**
+     * File handle to directory holding the test data.
+     */
+    private static File dataDir;
+
+    private static MappedDataProvider dataProvider;
+
+    @BeforeClass
+    public static void classIntro() throws IOException
+    {
+        dataDir = new File(new File(System.getProperty("java.io.tmpdir")), "mappedExclusiveData");
+
+        final List<String> lines = new ArrayList<String>();
+        for (int i = 0; i < ROWS; i++)
+        {
+            lines.add("row" + i);
+        }
+        FileUtils.writeLines(new File(dataDir, "rows.txt"), "UTF-8", lines);
+
+        XltProperties.getInstance().setProperty("com.xceptance.xlt.data.directory", dataDir.getAbsolutePath());
+
+        dataProvider = new MappedDataProvider("rows.txt");
+    }
+
+    @AfterClass
+    public static void classOutro()
+    {
+        FileUtils.deleteQuietly(dataDir);
+    }
+
+    @Test
+    public void testClaimAll()
+    {
+        final MappedExclusiveDataProvider provider = new MappedExclusiveDataProvider(dataProvider, 1, 0);
+        Assert.assertEquals(ROWS, provider.size());
+
+        final Set<Integer> claimed = new HashSet<Integer>();
+        for (int i = 0; i < ROWS; i++)
+        {
+            final int row = i % 2 == 0 ? provider.claim() : provider.claimRandom();
+            Assert.assertTrue(claimed.add(row));
+            Assert.assertEquals("row" + row, provider.getRow(row));
+        }
+
+        Assert.assertEquals(0, provider.size());
+        Assert.assertEquals(-1, provider.claim());
+        Assert.assertEquals(-1, provider.claimRandom());
+
+        // a released row is available again
+        provider.release(42);
+        Assert.assertEquals(1, provider.size());
+        Assert.assertEquals(42, provider.claimRandom());
+    }
+
+    @Test
+    public void testPartitions()
+    {
+        final int parties = 3;
+
+        final Set<Integer> allRows = new HashSet<Integer>();
+        for (int party = 0; party < parties; party++)
+        {
+            final MappedExclusiveDataProvider provider = new MappedExclusiveDataProvider(dataProvider, parties, party);
+
+            int row;
+            while ((row = provider.claimRandom()) >= 0)
+            {
+                Assert.assertEquals(party, row % parties);
+                Assert.assertTrue(allRows.add(row));
+            }
+        }
+
+        Assert.assertEquals(ROWS, allRows.size());
+    }
+
+    @Test
+    public void testMorePartiesThanRows() throws IOException
+    {
+        final MappedExclusiveDataProvider provider = new MappedExclusiveDataProvider(dataProvider, ROWS + 10, ROWS + 5);
+
+        Assert.assertEquals(0, provider.size());
+        Assert.assertEquals(-1, provider.claim());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRelease_NotClaimed()
+    {
+        new MappedExclusiveDataProvider(dataProvider, 1, 0).release(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRelease_OtherPartition()
+    {
+        final MappedExclusiveDataProvider provider = new MappedExclusiveDataProvider(dataProvider, 2, 0);
+        provider.claim();
+
+        provider.release(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRelease_OutOfRange()
+    {
+        new MappedExclusiveDataProvider(dataProvider, 1, 0).release(ROWS);
+    }
+
+    @Test
+    public void testClaimAndRelease_Concurrently() throws Exception
+    {
+        final MappedExclusiveDataProvider provider = new MappedExclusiveDataProvider(dataProvider, 1, 0);
+        final Set<Integer> inUse = ConcurrentHashMap.newKeySet();
+        final AtomicReference<String> failure = new AtomicReference<String>();
+
+        final List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++)
+        {
+            final boolean random = i % 2 == 0;
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 20000; j++)
+                {
+                    final int row = random ? provider.claimRandom() : provider.claim();
+                    if (row < 0 || !inUse.add(row))
+                    {
+                        failure.compareAndSet(null, "Row claimed twice or none available: " + row);
+                        return;
+                    }
+
+                    inUse.remove(row);
+                    provider.release(row);
+                }
+            }));
+        }
+
+        for (final Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        Assert.assertNull(failure.get());
+        Assert.assertEquals(ROWS, provider.size());
+    }
+}
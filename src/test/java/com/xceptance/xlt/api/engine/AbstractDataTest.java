@@ -15,16 +15,20 @@
  */
 package com.xceptance.xlt.api.engine;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.List;
 
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.xceptance.common.io.BinaryRecordWriter;
 import com.xceptance.common.util.CsvLineDecoder;
 import com.xceptance.xlt.api.util.XltCharBuffer;
 
@@ -198,4 +202,79 @@ public class AbstractDataTest
         assertEquals(123456789L, d.getTime());
         assertEquals("MyData", d.myData.toString());
     }
+
+    // a sub class that only overrides toList() still gets its values into the CSV line
+    @Test
+    public void toCsv()
+    {
+        var d = new TestData("Name, Inc.", TYPECODE);
+        d.setTime(123456789L);
+        d.myData = XltCharBuffer.valueOf("MyData");
+
+        assertEquals("X,\"Name, Inc.\",123456789,MyData", d.toCsv(new StringBuilder()).toString());
+    }
+
+    // a sub class that only overrides toList() still gets its values into the binary record
+    @Test
+    public void writeBinary() throws IOException
+    {
+        var d = new TestData("Name, Inc.", TYPECODE);
+        d.setTime(123456789L);
+        d.myData = XltCharBuffer.valueOf("MyData");
+
+        assertArrayEquals(toBinary(d.toList()), toBinary(d));
+    }
+
+    // the direct binary encoding of the built-in classes yields the same records as their toList()
+    @Test
+    public void writeBinary_Direct() throws IOException
+    {
+        var request = new RequestData("Homepage.1");
+        request.setTime(1700000000000L);
+        request.setRunTime(123);
+        request.setBytesSent(456);
+        request.setUrl("https://localhost/?a=1,b=2");
+        request.setContentType("text/html");
+        request.setHttpMethod("GET");
+        request.setIpAddresses(new String[] { "127.0.0.1", "::1" });
+
+        var transaction = new TransactionData("TMain");
+        transaction.setTime(-1);
+        transaction.setFailed(true);
+        transaction.setFailureStackTrace("java.lang.Exception: foo\n\tat bar");
+
+        var value = new CustomValue("Value");
+        value.setValue(1.5);
+
+        var event = new EventData("Event");
+        event.setTestCaseName("TMain");
+        event.setMessage("Something happened");
+
+        for (final AbstractData d : List.of(request, transaction, value, event))
+        {
+            assertArrayEquals(d.getClass().getName(), toBinary(d.toList()), toBinary(d));
+        }
+    }
+
+    private static byte[] toBinary(final List<String> values) throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final BinaryRecordWriter writer = new BinaryRecordWriter(out))
+        {
+            writer.write(values);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static byte[] toBinary(final AbstractData data) throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final BinaryRecordWriter writer = new BinaryRecordWriter(out))
+        {
+            data.writeBinary(writer);
+        }
+
+        return out.toByteArray();
+    }
 }
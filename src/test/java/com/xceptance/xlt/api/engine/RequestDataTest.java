@@ -847,4 +847,43 @@ public class RequestDataTest extends TimerDataTest
     {
         return CsvUtils.encode(timerData.toList()).toString();
     }
+
+    /**
+     * The direct CSV encoding must produce the same line as encoding the value list.
+     */
+    @Test
+    public void toCsv()
+    {
+        final RequestData data = new RequestData("Name, \"quoted\"");
+        data.setTime(1661700962960L);
+        data.setRunTime(123);
+        data.setFailed(true);
+        data.setBytesSent(400);
+        data.setBytesReceived(20000);
+        data.setResponseCode(200);
+        data.setUrl("https://www.example.com/p?a=1,2");
+        data.setContentType("text/html");
+        data.setConnectTime(1);
+        data.setSendTime(2);
+        data.setServerBusyTime(3);
+        data.setReceiveTime(4);
+        data.setTimeToFirstBytes(5);
+        data.setTimeToLastBytes(6);
+        data.setRequestId("req1");
+        data.setHttpMethod("POST");
+        data.setFormDataEncoding("application/x-www-form-urlencoded");
+        data.setFormData("a=\"b\"");
+        data.setDnsTime(7);
+        data.setIpAddresses(new String[]
+            {
+                "127.0.0.1", "::1"
+            });
+        data.setUsedIpAddress("127.0.0.1");
+
+        Assert.assertEquals(toCsv(data), data.toCsv(new StringBuilder()).toString());
+
+        // unset values
+        final RequestData empty = new RequestData("Name");
+        Assert.assertEquals(toCsv(empty), empty.toCsv(new StringBuilder()).toString());
+    }
 }
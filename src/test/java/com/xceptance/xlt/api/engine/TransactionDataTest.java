@@ -26,6 +26,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.xceptance.common.lang.ThrowableUtils;
+import com.xceptance.common.util.CsvUtils;
 import com.xceptance.common.util.ParameterCheckUtils;
 import com.xceptance.xlt.api.util.XltCharBufferUtil;
 
@@ -317,4 +318,25 @@ public class TransactionDataTest extends TimerDataTest
 
         return stat.toList();
     }
+
+    /**
+     * The direct CSV encoding must produce the same line as encoding the value list.
+     */
+    @Test
+    public void toCsv()
+    {
+        final TransactionData data = new TransactionData("TOrder");
+        data.setTime(1661700962960L);
+        data.setRunTime(5000);
+        data.setFailed(true);
+        data.setFailureStackTrace("java.lang.AssertionError: \"expected\", but was\r\n\tat Foo.bar(Foo.java:1)");
+        data.setFailedActionName("Checkout");
+        data.setTestUserNumber("7");
+        data.setDirectoryName("1234");
+
+        Assert.assertEquals(CsvUtils.encode(data.toList()).toString(), data.toCsv(new StringBuilder()).toString());
+
+        final TransactionData passed = new TransactionData("TOrder");
+        Assert.assertEquals(CsvUtils.encode(passed.toList()).toString(), passed.toCsv(new StringBuilder()).toString());
+    }
 }
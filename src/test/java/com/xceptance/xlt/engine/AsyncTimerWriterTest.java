@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the implementation of {@link AsyncTimerWriter}.
+ */
+public class AsyncTimerWriterTest
+{
+    @Test
+    public void testWriteAndClose() throws Exception
+    {
+        final AsyncTimerWriter asyncWriter = new AsyncTimerWriter(4, 1, 60_000, 1_000_000, false);
+        final TestWriter target = new TestWriter();
+
+        final StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+        {
+            line.setLength(0);
+            line.append("line ").append(i).append('\n');
+
+            Assert.assertNotEquals(AsyncTimerWriter.Result.DROPPED, asyncWriter.write(target, line));
+        }
+        Assert.assertTrue(asyncWriter.close(target, 10_000));
+        Assert.assertTrue(target.closed);
+
+        final String[] lines = target.toString().split("\n");
+        Assert.assertEquals(100, lines.length);
+        for (int i = 0; i < 100; i++)
+        {
+            Assert.assertEquals("line " + i, lines[i]);
+        }
+    }
+
+    @Test
+    public void testStripes() throws Exception
+    {
+        final AsyncTimerWriter asyncWriter = new AsyncTimerWriter(8, 4, 60_000, 1_000_000, false);
+
+        // several threads, each writing to its own target
+        final TestWriter[] targets = new TestWriter[8];
+        final Thread[] threads = new Thread[targets.length];
+        for (int t = 0; t < threads.length; t++)
+        {
+            final TestWriter target = targets[t] = new TestWriter();
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++)
+                {
+                    asyncWriter.write(target, "line " + i + "\n");
+                }
+                asyncWriter.close(target, 10_000);
+            });
+            threads[t].start();
+        }
+
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        // all lines written in order before the target was closed
+        for (final TestWriter target : targets)
+        {
+            Assert.assertTrue(target.closed);
+
+            final String[] lines = target.toString().split("\n");
+            Assert.assertEquals(1000, lines.length);
+            for (int i = 0; i < 1000; i++)
+            {
+                Assert.assertEquals("line " + i, lines[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testFlushInterval() throws Exception
+    {
+        final AsyncTimerWriter asyncWriter = new AsyncTimerWriter(4, 1, 10, 1_000_000, false);
+        final TestWriter target = new TestWriter();
+
+        asyncWriter.write(target, "line\n");
+
+        // no explicit flush, wait for the flush interval to elapse
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (target.flushCount == 0 && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+
+        Assert.assertTrue(target.flushCount > 0);
+        Assert.assertEquals("line\n", target.toString());
+    }
+
+    @Test
+    public void testFullQueue() throws Exception
+    {
+        final CountDownLatch release = new CountDownLatch(1);
+        final TestWriter target = new TestWriter()
+        {
+            @Override
+            public void write(final char[] cbuf, final int off, final int len)
+            {
+                try
+                {
+                    release.await();
+                }
+                catch (final InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+
+                super.write(cbuf, off, len);
+            }
+        };
+
+        // dropping: the writer thread hangs in the first write, so one line is taken and two fill the queue
+        final AsyncTimerWriter droppingWriter = new AsyncTimerWriter(2, 1, 60_000, 1_000_000, true);
+        final List<AsyncTimerWriter.Result> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+        {
+            results.add(droppingWriter.write(target, "line\n"));
+        }
+
+        Assert.assertTrue(results.contains(AsyncTimerWriter.Result.DROPPED));
+        Assert.assertEquals(results.stream().filter(r -> r == AsyncTimerWriter.Result.DROPPED).count(), droppingWriter.getDroppedCount());
+
+        release.countDown();
+        Assert.assertTrue(droppingWriter.flush(10_000));
+        Assert.assertEquals((10 - droppingWriter.getDroppedCount()) * 5, target.toString().length());
+
+        // blocking: nothing gets lost
+        final TestWriter target2 = new TestWriter();
+        final AsyncTimerWriter blockingWriter = new AsyncTimerWriter(1, 1, 60_000, 1_000_000, false);
+        for (int i = 0; i < 1000; i++)
+        {
+            Assert.assertNotEquals(AsyncTimerWriter.Result.DROPPED, blockingWriter.write(target2, "line\n"));
+        }
+
+        Assert.assertTrue(blockingWriter.flush(10_000));
+        Assert.assertEquals(5000, target2.toString().length());
+        Assert.assertEquals(0, blockingWriter.getDroppedCount());
+    }
+
+    /**
+     * A writer that remembers whether it was flushed and closed.
+     */
+    private static class TestWriter extends Writer
+    {
+        private final StringWriter out = new StringWriter();
+
+        private volatile int flushCount;
+
+        private volatile boolean closed;
+
+        @Override
+        public void write(final char[] cbuf, final int off, final int len)
+        {
+            synchronized (out)
+            {
+                out.write(cbuf, off, len);
+            }
+        }
+
+        @Override
+        public void flush()
+        {
+            flushCount++;
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+
+        @Override
+        public String toString()
+        {
+            synchronized (out)
+            {
+                return out.toString();
+            }
+        }
+    }
+}
@@ -20,10 +20,13 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.After;
@@ -31,13 +34,18 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.github.marschall.memoryfilesystem.MemoryFileSystemBuilder;
+import com.xceptance.common.io.BinaryRecordReader;
 import com.xceptance.xlt.api.engine.CustomData;
 import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.engine.EventData;
 import com.xceptance.xlt.api.engine.GlobalClock;
+import com.xceptance.xlt.api.util.XltCharBuffer;
+import com.xceptance.xlt.common.XltConstants;
 import com.xceptance.xlt.engine.metrics.Metrics;
 import com.xceptance.xlt.util.XltPropertiesImpl;
 
+import util.xlt.properties.ReversibleChange;
+
 /**
  * This test uses an in memory file sytem for easier testing. It does not (at the moment)
  * simulate any kind of exception or issues when writing data.
@@ -216,6 +224,37 @@ public class DataManagerImplTest
                    ));
     }
 
+    /**
+     * Timer file written asynchronously, lines are complete once the writer is closed
+     */
+    @Test
+    public void asyncTimerWriter() throws IOException
+    {
+        GlobalClock.installFixed(1666646047921L);
+
+        var asyncWriter = new AsyncTimerWriter(2, 1, 60_000, 1_000_000, false);
+        var session = new TestSession("TName");
+        var dm = new DataManagerImpl(session, metrics, asyncWriter);
+
+        dm.logEvent("EventName1", "Just a message1");
+        dm.logEvent("EventName2", "Just a\nmessage2");
+        dm.logEvent("EventName3", "Just a message3");
+
+        assertTrue(dm.close());
+
+        dm.logEvent("EventName4", "Just a message4");
+        assertTrue(asyncWriter.flush(10_000));
+
+        verify(dm.getTimerFile(),
+               4,
+               List.of(
+                       "E,EventName1,1666646047921,TName,Just a message1",
+                       "E,EventName2,1666646047921,TName,\"Just a message2\"",
+                       "E,EventName3,1666646047921,TName,Just a message3",
+                       "E,EventName4,1666646047921,TName,Just a message4"
+                   ));
+    }
+
     /**
      * We log events
      * @throws IOException
@@ -416,6 +455,52 @@ public class DataManagerImplTest
         assertEquals("a##c", DataManagerImpl.removeLineSeparators(new StringBuilder("a\r\nc"), '#').toString());
     }
     
+    /**
+     * The binary timer file is written from the data records directly and gets complete when closed.
+     */
+    @Test
+    public void binaryTimerFile() throws IOException
+    {
+        final ReversibleChange binaryTimers = new ReversibleChange(DataManagerImpl.PROP_BINARY_TIMERS, "true");
+        binaryTimers.apply();
+        try
+        {
+            GlobalClock.installFixed(1666646047921L);
+
+            var dm = new DataManagerImpl(new TestSession("TName"), metrics);
+            dm.logEvent("EventName1", "Just a message1");
+            dm.logEvent("EventName2", "Just a message2");
+
+            final Path file = dm.getTimerFile().resolveSibling(XltConstants.TIMER_BINARY_FILENAME);
+            dm.close();
+
+            final byte[] data = Files.readAllBytes(file);
+            assertEquals(2, BinaryRecordReader.getRecordCount(Arrays.copyOfRange(data, data.length - BinaryRecordReader.TRAILER_LENGTH,
+                                                                                 data.length)));
+
+            try (final BinaryRecordReader reader = new BinaryRecordReader(new ByteArrayInputStream(data)))
+            {
+                assertEquals(List.of("E", "EventName1", "1666646047921", "TName", "Just a message1"), toStrings(reader.readRecord()));
+                assertEquals(List.of("E", "EventName2", "1666646047921", "TName", "Just a message2"), toStrings(reader.readRecord()));
+            }
+        }
+        finally
+        {
+            binaryTimers.reverse();
+        }
+    }
+
+    private static List<String> toStrings(final List<XltCharBuffer> fields)
+    {
+        final List<String> result = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++)
+        {
+            result.add(fields.get(i).toString());
+        }
+
+        return result;
+    }
+
     /**
      * Mock for the metrics
      * @author rschwietzke
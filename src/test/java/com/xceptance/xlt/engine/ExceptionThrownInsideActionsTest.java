@@ -22,7 +22,9 @@ import org.apache.commons.lang3.StringUtils;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.ClassRule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.JUnitCore;
 import org.junit.runner.Result;
 import org.junit.runner.RunWith;
@@ -38,9 +40,11 @@ import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.engine.Session;
 import com.xceptance.xlt.api.engine.TransactionData;
 import com.xceptance.xlt.api.tests.AbstractTestCase;
+import com.xceptance.xlt.common.XltConstants;
 import com.xceptance.xlt.engine.util.XltTestRunner;
 
 import util.xlt.MockDataManager;
+import util.xlt.properties.ReversibleChange;
 
 /**
  * Tests the behavior of the XLT framework, esp. {@link XltTestRunner}, if an XLT test case throws an exception inside
@@ -96,6 +100,13 @@ public class ExceptionThrownInsideActionsTest
     /** Hack-ish way to make the current test configuration available to the actual test case. */
     private static TestConfig testConfiguration;
 
+    /** The result directory, so that the results of the failing test cases are not written to the working directory. */
+    @ClassRule
+    public static final TemporaryFolder resultDir = new TemporaryFolder();
+
+    /** Points the result directory property to the temporary result directory. */
+    private ReversibleChange resultDirChange;
+
     @Before
     public void setUp()
     {
@@ -103,11 +114,15 @@ public class ExceptionThrownInsideActionsTest
         final SessionImpl session = SessionImpl.getCurrent();
         dataManager = new MockDataManager(session);
         ReflectionUtils.writeInstanceField(session, "dataManagerImpl", dataManager);
+
+        resultDirChange = new ReversibleChange(XltConstants.XLT_PACKAGE_PATH + ".result-dir", resultDir.getRoot().getAbsolutePath());
+        resultDirChange.apply();
     }
 
     @After
     public void cleanUp()
     {
+        resultDirChange.reverse();
         SessionImpl.removeCurrent();
     }
 
@@ -21,7 +21,9 @@ import org.apache.commons.lang3.StringUtils;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.ClassRule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.JUnitCore;
 import org.junit.runner.Result;
 import org.junit.runner.RunWith;
@@ -36,8 +38,10 @@ import com.xceptance.xlt.api.engine.Data;
 import com.xceptance.xlt.api.engine.Session;
 import com.xceptance.xlt.api.engine.TransactionData;
 import com.xceptance.xlt.api.tests.AbstractTestCase;
+import com.xceptance.xlt.common.XltConstants;
 
 import util.xlt.MockDataManager;
+import util.xlt.properties.ReversibleChange;
 
 /**
  * Tests the behavior of the XLT framework, esp. {@link XltTestRunner}, if an XLT test case throws an exception outside
@@ -93,6 +97,13 @@ public class ExceptionThrownOutsideActionsTest
     /** Hack-ish way to make the current test configuration available to the actual test case. */
     private static TestConfig testConfiguration;
 
+    /** The result directory, so that the results of the failing test cases are not written to the working directory. */
+    @ClassRule
+    public static final TemporaryFolder resultDir = new TemporaryFolder();
+
+    /** Points the result directory property to the temporary result directory. */
+    private ReversibleChange resultDirChange;
+
     @Before
     public void setUp()
     {
@@ -100,11 +111,15 @@ public class ExceptionThrownOutsideActionsTest
         final SessionImpl session = SessionImpl.getCurrent();
         dataManager = new MockDataManager(session);
         ReflectionUtils.writeInstanceField(session, "dataManagerImpl", dataManager);
+
+        resultDirChange = new ReversibleChange(XltConstants.XLT_PACKAGE_PATH + ".result-dir", resultDir.getRoot().getAbsolutePath());
+        resultDirChange.apply();
     }
 
     @After
     public void cleanUp()
     {
+        resultDirChange.reverse();
         SessionImpl.removeCurrent();
     }
 
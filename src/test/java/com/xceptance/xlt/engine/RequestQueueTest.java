@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+/**
+ * Tests the implementation of {@link RequestQueue} when using the shared {@link StaticContentExecutor}.
+ */
+public class RequestQueueTest
+{
+    @Test
+    public void testSharedExecutor_LimitsParallelRequestsPerUser() throws Exception
+    {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final AtomicInteger finished = new AtomicInteger();
+
+        final XltWebClient webClient = Mockito.mock(XltWebClient.class);
+        Mockito.doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            finished.incrementAndGet();
+
+            return null;
+        }).when(webClient).loadStaticContentFromUrl(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        final RequestQueue requestQueue = new RequestQueue(webClient, 2, new StaticContentExecutor(8));
+
+        for (int i = 0; i < 10; i++)
+        {
+            requestQueue.addRequest(new URL("http://localhost/image" + i + ".png"), null, StandardCharsets.UTF_8);
+        }
+        requestQueue.waitForCompletion();
+
+        Assert.assertEquals(10, finished.get());
+        Assert.assertEquals(2, maxRunning.get());
+
+        requestQueue.shutdown();
+    }
+
+    @Test
+    public void testSharedExecutor_ThreadsWorkForTheUser() throws Exception
+    {
+        final List<ThreadGroup> threadGroups = new CopyOnWriteArrayList<>();
+        final List<SessionImpl> sessions = new CopyOnWriteArrayList<>();
+        final List<String> threadNames = new CopyOnWriteArrayList<>();
+
+        final XltWebClient webClient = Mockito.mock(XltWebClient.class);
+        Mockito.doAnswer(invocation -> {
+            threadGroups.add(UserThreadGroup.get());
+            sessions.add(SessionImpl.getCurrent());
+            threadNames.add(Thread.currentThread().getName());
+
+            return null;
+        }).when(webClient).loadStaticContentFromUrl(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        final StaticContentExecutor executor = new StaticContentExecutor(1);
+        final RequestQueue requestQueue = new RequestQueue(webClient, 2, executor);
+
+        requestQueue.addRequest(new URL("http://localhost/image.png"), null, StandardCharsets.UTF_8);
+        requestQueue.waitForCompletion();
+
+        Assert.assertEquals(1, sessions.size());
+        Assert.assertSame(Thread.currentThread().getThreadGroup(), threadGroups.get(0));
+        Assert.assertSame(SessionImpl.getCurrent(), sessions.get(0));
+        Assert.assertTrue(threadNames.get(0), threadNames.get(0).startsWith("XLT-StaticContent-"));
+
+        // once done, the shared thread does not work for the user any longer
+        final FutureTask<ThreadGroup> task = new FutureTask<>(UserThreadGroup::get);
+        executor.execute(task);
+
+        Assert.assertNotSame(Thread.currentThread().getThreadGroup(), task.get(10, TimeUnit.SECONDS));
+
+        requestQueue.shutdown();
+    }
+}
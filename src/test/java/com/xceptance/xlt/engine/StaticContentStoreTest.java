@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine;
+
+import java.net.URL;
+import java.util.Collections;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.htmlunit.DownloadedContent;
+import org.htmlunit.HttpMethod;
+import org.htmlunit.WebResponse;
+import org.htmlunit.WebResponseData;
+import org.htmlunit.util.NameValuePair;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the implementation of {@link StaticContentStore}.
+ */
+public class StaticContentStoreTest
+{
+    private static final String BODY = "body { color: red; }";
+
+    private WebResponse buildWebResponse(final String body) throws Exception
+    {
+        final WebResponseData responseData = new WebResponseData(body.getBytes(), 200, "OK",
+                                                                 Collections.singletonList(new NameValuePair("Content-Type",
+                                                                                                             "text/css")));
+
+        return new WebResponse(responseData, new URL("http://www.test.com/style.css"), HttpMethod.GET, 10);
+    }
+
+    @Test
+    public void testIdenticalBodiesAreShared() throws Exception
+    {
+        final StaticContentStore store = new StaticContentStore(false);
+
+        final WebResponse response1 = buildWebResponse(BODY);
+        final WebResponse response2 = buildWebResponse(BODY);
+        store.share(response1);
+        store.share(response2);
+
+        Assert.assertSame(response1.getResponseData().getDownloadedContent(), response2.getResponseData().getDownloadedContent());
+        Assert.assertEquals(BODY, response1.getContentAsString());
+        Assert.assertEquals(BODY, response2.getContentAsString());
+
+        Assert.assertEquals(1, store.size());
+        Assert.assertEquals(1, store.getMisses());
+        Assert.assertEquals(1, store.getHits());
+        Assert.assertEquals(BODY.length(), store.getBytesSaved());
+    }
+
+    @Test
+    public void testDifferentBodiesAreNotShared() throws Exception
+    {
+        final StaticContentStore store = new StaticContentStore(false);
+
+        final WebResponse response1 = buildWebResponse(BODY);
+        final WebResponse response2 = buildWebResponse(BODY + " ");
+        store.share(response1);
+        store.share(response2);
+
+        Assert.assertNotSame(response1.getResponseData().getDownloadedContent(), response2.getResponseData().getDownloadedContent());
+        Assert.assertEquals(BODY, response1.getContentAsString());
+        Assert.assertEquals(BODY + " ", response2.getContentAsString());
+
+        Assert.assertEquals(2, store.size());
+        Assert.assertEquals(2, store.getMisses());
+        Assert.assertEquals(0, store.getHits());
+    }
+
+    @Test
+    public void testEmptyBodiesAreNotShared() throws Exception
+    {
+        final StaticContentStore store = new StaticContentStore(false);
+
+        final WebResponse response = buildWebResponse("");
+        final DownloadedContent content = response.getResponseData().getDownloadedContent();
+        store.share(response);
+
+        Assert.assertSame(content, response.getResponseData().getDownloadedContent());
+        Assert.assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testOffHeap() throws Exception
+    {
+        final StaticContentStore store = new StaticContentStore(true);
+
+        final WebResponse response1 = buildWebResponse(BODY);
+        final WebResponse response2 = buildWebResponse(BODY);
+        store.share(response1);
+        store.share(response2);
+
+        final StaticContentStore.SharedContent content = (StaticContentStore.SharedContent) response1.getResponseData()
+                                                                                                      .getDownloadedContent();
+        Assert.assertTrue(content.isOffHeap());
+        Assert.assertSame(content, response2.getResponseData().getDownloadedContent());
+
+        // concurrent readers must not interfere with each other
+        Assert.assertEquals(BODY, response1.getContentAsString());
+        Assert.assertEquals(BODY, response2.getContentAsString());
+        Assert.assertEquals(BODY.length(), response1.getContentLength());
+
+        // off-heap content is serialized as on-heap content
+        final StaticContentStore.SharedContent copy = SerializationUtils.roundtrip(content);
+        Assert.assertFalse(copy.isOffHeap());
+        Assert.assertArrayEquals(BODY.getBytes(), copy.getInputStream().readAllBytes());
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the implementation of {@link LogLinearHistogram}.
+ */
+public class LogLinearHistogramTest
+{
+    @Test
+    public void testBuckets()
+    {
+        for (final int precision : new int[]
+            {
+                1, 3, LogLinearHistogram.DEFAULT_PRECISION, 16
+            })
+        {
+            int lastIndex = 0;
+            for (long v = 0; v <= Integer.MAX_VALUE; v = v < 100000 ? v + 1 : v * 9 / 8)
+            {
+                final int value = (int) v;
+                final int index = LogLinearHistogram.getBucketIndex(precision, value);
+
+                // buckets are contiguous and ordered
+                Assert.assertTrue(index == lastIndex || index == lastIndex + 1 || v >= 100000);
+                Assert.assertTrue(index >= lastIndex);
+                lastIndex = index;
+
+                // the upper bound is within the bucket and close to the value
+                final int upperBound = LogLinearHistogram.getBucketUpperBound(precision, index);
+                Assert.assertTrue(value <= upperBound);
+                Assert.assertEquals(index, LogLinearHistogram.getBucketIndex(precision, upperBound));
+                Assert.assertTrue((upperBound - value) <= value * Math.pow(2, 1 - precision));
+            }
+
+            Assert.assertEquals(Integer.MAX_VALUE,
+                                LogLinearHistogram.getBucketUpperBound(precision,
+                                                                       LogLinearHistogram.getBucketIndex(precision, Integer.MAX_VALUE)));
+        }
+
+        // small values are exact, negative values count as 0
+        Assert.assertEquals(0, LogLinearHistogram.getBucketIndex(6, -5));
+        Assert.assertEquals(63, LogLinearHistogram.getBucketUpperBound(6, LogLinearHistogram.getBucketIndex(6, 63)));
+    }
+
+    @Test
+    public void testPercentiles()
+    {
+        final Random random = new Random(42);
+        final LogLinearHistogram histogram = new LogLinearHistogram();
+
+        final int[] values = new int[10000];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = (int) Math.abs(random.nextGaussian() * 2000);
+            histogram.update(values[i]);
+        }
+        Arrays.sort(values);
+
+        final LogLinearHistogram.Snapshot snapshot = histogram.getSnapshotAndClear();
+        Assert.assertEquals(values.length, snapshot.getCount());
+
+        for (final double p : new double[]
+            {
+                0.1, 50, 95, 99, 99.9, 100
+            })
+        {
+            final int expected = values[(int) Math.ceil(p / 100.0 * values.length) - 1];
+            final int actual = snapshot.getPercentile(p);
+
+            Assert.assertTrue(p + ": " + expected + " / " + actual, expected <= actual && actual <= expected * 1.032);
+        }
+
+        // cleared
+        Assert.assertEquals(0, histogram.getSnapshotAndClear().getCount());
+        Assert.assertEquals(0, histogram.getSnapshotAndClear().getPercentile(99));
+    }
+
+    @Test
+    public void testMerge()
+    {
+        final LogLinearHistogram histogram = new LogLinearHistogram();
+        for (int i = 1; i <= 50; i++)
+        {
+            histogram.update(i);
+        }
+        final LogLinearHistogram.Snapshot first = histogram.getSnapshotAndClear();
+
+        for (int i = 51; i <= 100; i++)
+        {
+            histogram.update(i);
+        }
+        final LogLinearHistogram.Snapshot second = histogram.getSnapshotAndClear();
+
+        final LogLinearHistogram.Snapshot merged = first.merge(second);
+        Assert.assertEquals(100, merged.getCount());
+        Assert.assertEquals(50, merged.getPercentile(50));
+        Assert.assertEquals(50, first.getPercentile(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMerge_DifferentPrecisions()
+    {
+        new LogLinearHistogram(4).getSnapshotAndClear().merge(new LogLinearHistogram(5).getSnapshotAndClear());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile()
+    {
+        new LogLinearHistogram().getSnapshotAndClear().getPercentile(0);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.xceptance.xlt.engine.metrics.ValueMetric.Snapshot;
+
+/**
+ * Tests the implementation of {@link ValueMetric} and {@link CounterMetric}.
+ */
+public class ValueMetricTest
+{
+    @Test
+    public void testSnapshot()
+    {
+        final ValueMetric metric = new ValueMetric();
+        metric.update(5);
+        metric.update(-3);
+        metric.update(10);
+
+        final Snapshot snapshot = metric.getSnapshotAndClear();
+        Assert.assertEquals(3, snapshot.getCount());
+        Assert.assertEquals(-3, snapshot.getMinimum());
+        Assert.assertEquals(10, snapshot.getMaximum());
+        Assert.assertEquals(12, snapshot.getSum());
+        Assert.assertEquals(4.0, snapshot.getMean(), 0.0);
+
+        // cleared
+        final Snapshot emptySnapshot = metric.getSnapshotAndClear();
+        Assert.assertEquals(0, emptySnapshot.getCount());
+        Assert.assertEquals(0, emptySnapshot.getMinimum());
+        Assert.assertEquals(0, emptySnapshot.getMaximum());
+        Assert.assertEquals(0.0, emptySnapshot.getMean(), 0.0);
+
+        metric.update(7);
+
+        final Snapshot nextSnapshot = metric.getSnapshotAndClear();
+        Assert.assertEquals(1, nextSnapshot.getCount());
+        Assert.assertEquals(7, nextSnapshot.getMinimum());
+        Assert.assertEquals(7, nextSnapshot.getMaximum());
+    }
+
+    @Test
+    public void testCounter()
+    {
+        final CounterMetric metric = new CounterMetric();
+        Assert.assertNull(metric.getCountAndClear());
+
+        // a zero is reported as well
+        metric.update(0);
+        Assert.assertEquals(Long.valueOf(0), metric.getCountAndClear());
+        Assert.assertNull(metric.getCountAndClear());
+
+        metric.update(2);
+        metric.update(3);
+        Assert.assertEquals(Long.valueOf(5), metric.getCountAndClear());
+    }
+
+    @Test
+    public void testNoValueLostWhileTakingSnapshots() throws Exception
+    {
+        final ValueMetric valueMetric = new ValueMetric();
+        final CounterMetric counterMetric = new CounterMetric();
+
+        final int threadCount = 4;
+        final int updates = 100000;
+
+        final List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < threadCount; i++)
+        {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < updates; j++)
+                {
+                    valueMetric.update(1);
+                    counterMetric.update(1);
+                }
+            }));
+        }
+
+        for (final Thread thread : threads)
+        {
+            thread.start();
+        }
+
+        long count = 0;
+        long sum = 0;
+        long counted = 0;
+        boolean running = true;
+        while (running)
+        {
+            running = false;
+            for (final Thread thread : threads)
+            {
+                running |= thread.isAlive();
+            }
+
+            final Snapshot snapshot = valueMetric.getSnapshotAndClear();
+            count += snapshot.getCount();
+            sum += snapshot.getSum();
+
+            final Long c = counterMetric.getCountAndClear();
+            counted += c == null ? 0 : c;
+        }
+
+        Assert.assertEquals(threadCount * updates, count);
+        Assert.assertEquals(threadCount * updates, sum);
+        Assert.assertEquals(threadCount * updates, counted);
+    }
+}
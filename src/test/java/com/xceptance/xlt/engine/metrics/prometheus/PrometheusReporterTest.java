@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.metrics.prometheus;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.xceptance.xlt.engine.metrics.MetricsReport;
+import com.xceptance.xlt.engine.metrics.ValueMetric;
+
+/**
+ * Tests the implementation of {@link PrometheusReporter}.
+ */
+public class PrometheusReporterTest
+{
+    private static MetricsReport createReport(final int... runtimes)
+    {
+        final ValueMetric runtime = new ValueMetric(true);
+        for (final int value : runtimes)
+        {
+            runtime.update(value);
+        }
+
+        final MetricsReport report = new MetricsReport(0);
+        report.addValue("ac001_00.requests.Homepage.runtime", runtime.getSnapshotAndClear());
+        report.addCount("ac001_00.requests.Homepage.errors", 1);
+        report.addRate("ac001_00.summary.requests.bytesSent_1s", 12.5);
+
+        return report;
+    }
+
+    @Test
+    public void testFormat()
+    {
+        final PrometheusReporter reporter = new PrometheusReporter("localhost", 0, "xlt.My-Project.", new double[]
+            {
+                50, 99.9
+            });
+
+        reporter.report(createReport(10, 20, 30));
+        reporter.report(createReport(40));
+
+        final String expected = "# TYPE xlt_My_Project_ac001_00_requests_Homepage_runtime summary\n" +
+                                "xlt_My_Project_ac001_00_requests_Homepage_runtime{quantile=\"0.5\"} 40\n" +
+                                "xlt_My_Project_ac001_00_requests_Homepage_runtime{quantile=\"0.9990000000000001\"} 40\n" +
+                                "xlt_My_Project_ac001_00_requests_Homepage_runtime_sum 100\n" +
+                                "xlt_My_Project_ac001_00_requests_Homepage_runtime_count 4\n" +
+                                "# TYPE xlt_My_Project_ac001_00_requests_Homepage_errors_total counter\n" +
+                                "xlt_My_Project_ac001_00_requests_Homepage_errors_total 2\n" +
+                                "# TYPE xlt_My_Project_ac001_00_summary_requests_bytesSent_1s gauge\n" +
+                                "xlt_My_Project_ac001_00_summary_requests_bytesSent_1s 12.5\n";
+        Assert.assertEquals(expected, reporter.format());
+
+        // no values in the last interval
+        reporter.report(new MetricsReport(0));
+        Assert.assertTrue(reporter.format().contains("xlt_My_Project_ac001_00_requests_Homepage_runtime{quantile=\"0.5\"} NaN\n"));
+        Assert.assertTrue(reporter.format().contains("xlt_My_Project_ac001_00_requests_Homepage_runtime_count 4\n"));
+    }
+
+    @Test
+    public void testServe() throws Exception
+    {
+        final PrometheusReporter reporter = new PrometheusReporter("localhost", 0, "", new double[]
+            {
+                95
+            });
+        reporter.start();
+        try
+        {
+            reporter.report(createReport(5));
+
+            final HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + reporter.getPort() +
+                                                                             "/metrics").openConnection();
+            Assert.assertEquals(200, connection.getResponseCode());
+            Assert.assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+
+            try (final InputStream in = connection.getInputStream())
+            {
+                Assert.assertEquals(reporter.format(), IOUtils.toString(in, StandardCharsets.UTF_8));
+            }
+        }
+        finally
+        {
+            reporter.stop();
+        }
+    }
+}
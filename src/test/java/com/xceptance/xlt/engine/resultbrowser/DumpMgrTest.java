@@ -546,6 +546,41 @@ public class DumpMgrTest extends AbstractXLTTestCase
         }
     }
 
+    @Test
+    public void testDumpRequest_CachedByPreviousDump() throws Throwable
+    {
+        final URL url = new URL("http://localhost/some/path/to/file.txt");
+        final List<NameValuePair> headers = Collections.singletonList(new NameValuePair("Content-Type", "text/plain"));
+
+        // the cache file as written by a previous dump to the same directory
+        final File cacheDir = (File) callMethod("getCacheDirectory", instance);
+        final File f = new File(cacheDir, instance.getUrlMapping().map(url));
+        FileUtils.writeStringToFile(f, "Some Test String", XltConstants.UTF8_ENCODING);
+        Assert.assertTrue(f.setLastModified(1000L));
+
+        try
+        {
+            // same content -> not written again
+            final WebRequest webRequest = new WebRequest(url);
+            WebResponse webResponse = new WebResponse(new WebResponseData("Some Test String".getBytes(XltConstants.UTF8_ENCODING),
+                                                                          HttpStatus.SC_OK, "OK", headers),
+                                                      webRequest, 123L);
+            instance.dump(new Request("AnyName", webRequest, webResponse, new RequestData()));
+            Assert.assertEquals(1000L, f.lastModified());
+
+            // different content -> overwritten
+            webResponse = new WebResponse(new WebResponseData("Other Test String".getBytes(XltConstants.UTF8_ENCODING), HttpStatus.SC_OK,
+                                                              "OK", headers),
+                                          webRequest, 123L);
+            instance.dump(new Request("AnyName", webRequest, webResponse, new RequestData()));
+            Assert.assertEquals("Other Test String", FileUtils.readFileToString(f, XltConstants.UTF8_ENCODING));
+        }
+        finally
+        {
+            FileUtils.deleteQuietly(f);
+        }
+    }
+
     private static final class MyData extends WebResponseData
     {
         private static final long serialVersionUID = 1L;
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.resultbrowser;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the implementation of {@link DumpWriter}.
+ */
+public class DumpWriterTest
+{
+    @Test
+    public void testDumpsAreDroppedIfQueueIsFull() throws Exception
+    {
+        final DumpWriter writer = new DumpWriter(1, 0);
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        // occupies the writer thread
+        Assert.assertTrue(writer.write(() -> {
+            started.countDown();
+            try
+            {
+                release.await();
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        started.await();
+
+        // occupies the queue
+        Assert.assertTrue(writer.write(() -> {
+        }));
+
+        // dropped
+        Assert.assertFalse(writer.write(() -> {
+        }));
+        Assert.assertEquals(1, writer.getDroppedCount());
+
+        release.countDown();
+        Assert.assertTrue(writer.shutdown(5000));
+    }
+
+    @Test
+    public void testBandwidthIsLimited() throws Exception
+    {
+        // 100 KB/s
+        final DumpWriter writer = new DumpWriter(10, 100_000);
+        final AtomicLong duration = new AtomicLong();
+
+        writer.write(() -> {
+            final long start = System.nanoTime();
+
+            // 4 files with 10 KB each
+            for (int i = 0; i < 4; i++)
+            {
+                writer.written(10_000);
+            }
+
+            duration.set(System.nanoTime() - start);
+        });
+
+        Assert.assertTrue(writer.shutdown(5000));
+
+        // 40 KB at 100 KB/s take 400 ms
+        Assert.assertTrue("Took: " + duration.get(), duration.get() >= TimeUnit.MILLISECONDS.toNanos(350));
+    }
+}
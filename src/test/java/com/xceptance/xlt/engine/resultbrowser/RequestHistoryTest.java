@@ -264,6 +264,26 @@ public class RequestHistoryTest
         Mockito.verify(history.getDumpManager(), Mockito.never()).dump((Request) ArgumentMatchers.any());
     }
 
+    /**
+     * Tests that the response bodies of pending requests are moved off-heap if so configured.
+     */
+    @Test
+    public void testAddResponse_DumpModeOnError_OffHeap() throws Throwable
+    {
+        final Properties props = new Properties();
+        props.setProperty(XltConstants.XLT_PACKAGE_PATH + ".output2disk", "onError");
+        props.setProperty(XltConstants.XLT_PACKAGE_PATH + ".output2disk.offHeap", "true");
+
+        final RequestHistory history = getRequestHistory(props);
+
+        final WebResponse webResponse = new StringWebResponse("<html>foo</html>", new URL("http://localhost"));
+        history.add("AnyName", new WebRequest(new URL("http://localhost")), webResponse, null);
+
+        Assert.assertTrue(webResponse.getResponseData().getDownloadedContent() instanceof OffHeapContent);
+        Assert.assertEquals("<html>foo</html>", webResponse.getContentAsString());
+        Assert.assertTrue(OffHeapContent.getAllocatedBytes() > 0);
+    }
+
     /**
      * Tests the implementation of {@link RequestHistory#add(String, HtmlPage)} by passing an invalid name.
      */
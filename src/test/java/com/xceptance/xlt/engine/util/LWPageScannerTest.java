@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.engine.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.xceptance.common.util.RegExUtils;
+import com.xceptance.xlt.engine.util.LWPageScanner.Type;
+
+/**
+ * Tests the implementation of {@link LWPageScanner}. As the scanner is meant to be a faster replacement for the
+ * regular expressions used so far, its results are compared with those of {@link LWPageUtilities} and of the regular
+ * expressions formerly used by the web client.
+ */
+public class LWPageScannerTest
+{
+    private static final String PAGE = "<html><head><base href=\" /base/ \"><title>Test</title>\n" +
+                                       "<script src='a.js'></script><SCRIPT type=\"text/javascript\" SRC= \"b.js\"></SCRIPT>\n" +
+                                       "<script>var s = '<img src=\"in-script.png\">';</script>\n" +
+                                       "<link rel=\"stylesheet\" href=\"c.css\" media=\"screen\"><link\nrel='icon' href='d.ico'/>\n" +
+                                       "<style type=\"text/css\">body { background: url(e.png); }</style><style></style>\n" +
+                                       "<!-- <img src=\"commented.png\"> --><!--[if IE]><img src=\"conditional.png\"><![endif]-->\n" +
+                                       "</head><body style=\"background-image: url('f.png')\">\n" +
+                                       "<a href=\"g.html\">G</a><abbr href=\"no.html\"></abbr><a\thref= 'h.html'>H</a>\n" +
+                                       "<img alt=\"x\" src=\"i.png\"><IMG SRC=\"\"><img data-src=\"lazy.png\" src='j.png'>\n" +
+                                       "<input type=\"image\" src=\"k.png\"><input src='single-quoted.png'>\n" +
+                                       "<frame name=\"top\" src=\"top.html\"><iframe src=\"l.html\" name=\"l\"></iframe><iframes src=\"no.html\">\n" +
+                                       "<p style=\"color: red\">P</p><h1 style=\"color: blue\">H1</h1><div style=\"  \"></div>\n" + "<!-- unclosed <img src=\"m.png\">\n";
+
+    private static final String[] TOKENS =
+        {
+            "<", ">", "/>", "<!--", "-->", "<!--[", "<script", "<SCRIPT", "</script>", "<scripty", "<style", "</style>", "</STYLE>",
+            "<link", "<LINK", "<img", "<input", "<a", "<abbr", "<base", "<frame", "<iframe", "<IFrame", "<h1", "<div", "<p_", "<é",
+            " ", " ", "\t", "\n", "\r\n", "src=", "SRC=", "src", "href=", "style=", "rel=", "name=", "type=\"text/css\"", "=", "\"",
+            "\"", "'", "x", "y.png", "url(a.png)", "url('b.png')", "data-", "_", "é", "\u0301", "\u2028"
+        };
+
+    private static void assertSameSnippets(final String page)
+    {
+        final LWPageScanner.Result result = new LWPageScanner(page).scan(Type.values());
+
+        Assert.assertEquals(page, LWPageUtilities.getAllScriptLinks(page), result.get(Type.SCRIPT_LINKS));
+        Assert.assertEquals(page, LWPageUtilities.getAllLinkLinks(page), result.get(Type.LINK_LINKS));
+        Assert.assertEquals(page, LWPageUtilities.getAllLinkAttributes(page), result.get(Type.LINK_ATTRIBUTES));
+        Assert.assertEquals(page, LWPageUtilities.getAllImageLinks(page), result.get(Type.IMAGE_LINKS));
+        Assert.assertEquals(page, LWPageUtilities.getAllImageInputLinks(page), result.get(Type.IMAGE_INPUT_LINKS));
+        Assert.assertEquals(page, LWPageUtilities.getAllAnchorLinks(page), result.get(Type.ANCHOR_LINKS));
+        Assert.assertEquals(page, LWPageUtilities.getAllInlineCssStatements(page), result.get(Type.INLINE_CSS_STATEMENTS));
+        Assert.assertEquals(page, LWPageUtilities.getAllStyleContents(page), result.get(Type.STYLE_CONTENTS));
+        Assert.assertEquals(page, LWPageUtilities.getAllBaseLinks(page), result.get(Type.BASE_LINKS));
+        Assert.assertEquals(page, LWPageUtilities.getAllFrameAttributes(page), result.get(Type.FRAME_ATTRIBUTES));
+        Assert.assertEquals(page, LWPageUtilities.getAllInlineCssResourceUrls(page), result.getInlineCssResourceUrls());
+    }
+
+    private static void assertSameContentAfterRemoval(final String page)
+    {
+        // comments
+        Assert.assertEquals(page, LWPageUtilities.removeHtmlComments(page), new LWPageScanner(page).removeHtmlComments().getContent());
+        Assert.assertEquals(page, RegExUtils.replaceAll(page, "(?sm)<!--.*?-->", ""),
+                            new LWPageScanner(page).removeComments(false).getContent());
+        Assert.assertEquals(page, RegExUtils.replaceAll(page, "(?sm)<!--[^\\[].*?-->", ""),
+                            new LWPageScanner(page).removeComments(true).getContent());
+
+        // scripts
+        final List<String> expectedSources = new ArrayList<>();
+        final StringBuilder expectedContent = new StringBuilder();
+        Matcher m = RegExUtils.getPattern("(?sm)<script\\b(.*?)(?:/>|>.*?</script>)").matcher(page);
+        int startAt = 0;
+        while (m.find(startAt))
+        {
+            expectedContent.append(page, startAt, m.start());
+            final String source = RegExUtils.getFirstMatch(m.group(1), "src\\s*=\\s*['\"]([^'\"]+?)['\"]", 1);
+            if (source != null)
+            {
+                expectedSources.add(source);
+            }
+            startAt = m.end();
+        }
+        expectedContent.append(page.substring(startAt));
+
+        final List<String> sources = new ArrayList<>();
+        Assert.assertEquals(page, expectedContent.toString(), new LWPageScanner(page).removeScripts(sources).getContent());
+        Assert.assertEquals(page, expectedSources, sources);
+
+        // styles
+        final List<String> expectedStyles = new ArrayList<>();
+        expectedContent.setLength(0);
+        m = RegExUtils.getPattern("(?sm)<style\\b([^>]*?)>((?!</style).*?)</style>").matcher(page);
+        startAt = 0;
+        while (m.find(startAt))
+        {
+            expectedContent.append(page, startAt, m.start());
+            expectedStyles.add(m.group(1) + "|" + m.group(2));
+            startAt = m.end();
+        }
+        expectedContent.append(page.substring(startAt));
+
+        final List<String> styles = new ArrayList<>();
+        Assert.assertEquals(page, expectedContent.toString(),
+                            new LWPageScanner(page).removeStyles((atts, content) -> styles.add(atts + "|" + content)).getContent());
+        Assert.assertEquals(page, expectedStyles, styles);
+    }
+
+    @Test
+    public void testScan()
+    {
+        final LWPageScanner.Result result = new LWPageScanner(PAGE).removeHtmlComments().scan(Type.values());
+
+        Assert.assertEquals(Arrays.asList("a.js", "b.js"), result.get(Type.SCRIPT_LINKS));
+        Assert.assertEquals(Arrays.asList("c.css", "d.ico"), result.get(Type.LINK_LINKS));
+        Assert.assertEquals(Arrays.asList("in-script.png", "i.png", "j.png"), result.get(Type.IMAGE_LINKS));
+        Assert.assertEquals(Arrays.asList("k.png"), result.get(Type.IMAGE_INPUT_LINKS));
+        Assert.assertEquals(Arrays.asList("g.html", "h.html"), result.get(Type.ANCHOR_LINKS));
+        Assert.assertEquals(Arrays.asList("/base/"), result.get(Type.BASE_LINKS));
+        Assert.assertEquals(Arrays.asList("name=\"top\" src=\"top.html\"", "src=\"l.html\" name=\"l\""), result.get(Type.FRAME_ATTRIBUTES));
+        Assert.assertEquals(Arrays.asList("background-image: url('f.png')", "color: red"), result.get(Type.INLINE_CSS_STATEMENTS));
+        Assert.assertEquals(Arrays.asList("body { background: url(e.png); }"), result.get(Type.STYLE_CONTENTS));
+    }
+
+    @Test
+    public void testScan_OnlyRequestedTypes()
+    {
+        final LWPageScanner.Result result = new LWPageScanner(PAGE).scan(Type.BASE_LINKS);
+
+        Assert.assertEquals(Arrays.asList("/base/"), result.get(Type.BASE_LINKS));
+        Assert.assertTrue(result.get(Type.IMAGE_LINKS).isEmpty());
+    }
+
+    @Test
+    public void testScan_EmptyPage()
+    {
+        Assert.assertTrue(new LWPageScanner("").scan(Type.values()).get(Type.IMAGE_LINKS).isEmpty());
+        Assert.assertTrue(new LWPageScanner(null).removeHtmlComments().scan(Type.values()).get(Type.BASE_LINKS).isEmpty());
+    }
+
+    @Test
+    public void testSameResultsAsRegularExpressions()
+    {
+        assertSameSnippets(PAGE);
+        assertSameSnippets(LWPageUtilities.removeHtmlComments(PAGE));
+        assertSameContentAfterRemoval(PAGE);
+    }
+
+    @Test
+    public void testSameResultsAsRegularExpressions_RandomPages()
+    {
+        final Random random = new Random(42);
+        final StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 20000; i++)
+        {
+            sb.setLength(0);
+
+            final int tokens = random.nextInt(40);
+            for (int j = 0; j < tokens; j++)
+            {
+                sb.append(TOKENS[random.nextInt(TOKENS.length)]);
+            }
+
+            final String page = sb.toString();
+            assertSameSnippets(page);
+            assertSameContentAfterRemoval(page);
+        }
+    }
+}
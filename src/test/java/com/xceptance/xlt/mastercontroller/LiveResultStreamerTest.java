@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.mastercontroller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.xceptance.xlt.agentcontroller.FileManager;
+import com.xceptance.xlt.agentcontroller.FileManagerImpl;
+import com.xceptance.xlt.util.ConcurrencyUtils;
+
+/**
+ * Tests the implementation of {@link LiveResultStreamer}.
+ */
+public class LiveResultStreamerTest
+{
+    private static final String TIMER_FILE = "ac001_00/results/TOrder/0/timers.csv";
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File agentsDir;
+
+    private File resultsDir;
+
+    private ThreadPoolExecutor executor;
+
+    private LiveResultStreamer streamer;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        agentsDir = tempFolder.newFolder("agents");
+        resultsDir = tempFolder.newFolder("results");
+        executor = ConcurrencyUtils.getNewThreadPoolExecutor("LiveResultStreamerTest-", 1);
+
+        final FileManager resultsFileManager = new FileManagerImpl(agentsDir);
+
+        final TestAgentController agentController = new TestAgentController()
+        {
+            @Override
+            public Map<String, Long> getAgentTimerFiles()
+            {
+                final Map<String, Long> timerFiles = new HashMap<>();
+                timerFiles.put(TIMER_FILE, new File(agentsDir, TIMER_FILE).length());
+
+                return timerFiles;
+            }
+
+            @Override
+            public FileManager getResultsFileManager()
+            {
+                return resultsFileManager;
+            }
+        };
+
+        streamer = new LiveResultStreamer(executor, resultsDir, tempFolder.getRoot(), Collections.singletonList(agentController));
+    }
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testUpdate_FetchesAppendedLinesOnly() throws IOException
+    {
+        final File localFile = new File(resultsDir, "ac001_00/TOrder/0/timers.csv");
+
+        writeRemote("R,a\nR,b\nR,pa", false);
+        Assert.assertEquals(8, streamer.update());
+        Assert.assertEquals("R,a\nR,b\n", read(localFile));
+
+        writeRemote("rtial\nR,c\n", true);
+        Assert.assertEquals(14, streamer.update());
+        Assert.assertEquals("R,a\nR,b\nR,partial\nR,c\n", read(localFile));
+
+        // nothing new
+        Assert.assertEquals(0, streamer.update());
+        Assert.assertEquals(22, streamer.getTotalBytes());
+    }
+
+    @Test
+    public void testUpdate_ReplacedFile() throws IOException
+    {
+        final File localFile = new File(resultsDir, "ac001_00/TOrder/0/timers.csv");
+
+        writeRemote("R,a\nR,b\n", false);
+        streamer.update();
+
+        writeRemote("R,x\n", false);
+        streamer.update();
+        Assert.assertEquals("R,x\n", read(localFile));
+    }
+
+    @Test
+    public void testCopyTo_CopiesNewBytesOnly() throws IOException
+    {
+        final File copyDir = tempFolder.newFolder("copy");
+        final File copiedFile = new File(copyDir, "ac001_00/TOrder/0/timers.csv");
+
+        writeRemote("R,a\nR,b\n", false);
+        streamer.update();
+        Assert.assertEquals(8, streamer.copyTo(copyDir));
+        Assert.assertEquals("R,a\nR,b\n", read(copiedFile));
+
+        // the copy is not affected by subsequent updates
+        writeRemote("R,c\n", true);
+        streamer.update();
+        Assert.assertEquals("R,a\nR,b\n", read(copiedFile));
+
+        Assert.assertEquals(4, streamer.copyTo(copyDir));
+        Assert.assertEquals("R,a\nR,b\nR,c\n", read(copiedFile));
+
+        // nothing new
+        Assert.assertEquals(0, streamer.copyTo(copyDir));
+    }
+
+    @Test
+    public void testCopyTo_ReplacedFile() throws IOException
+    {
+        final File copyDir = tempFolder.newFolder("copy");
+        final File copiedFile = new File(copyDir, "ac001_00/TOrder/0/timers.csv");
+
+        writeRemote("R,a\nR,b\n", false);
+        streamer.update();
+        streamer.copyTo(copyDir);
+
+        // the replacement has grown beyond the size of the original file already
+        writeRemote("R,x\n", false);
+        streamer.update();
+        writeRemote("R,y\nR,z\n", true);
+        streamer.update();
+
+        Assert.assertEquals(12, streamer.copyTo(copyDir));
+        Assert.assertEquals("R,x\nR,y\nR,z\n", read(copiedFile));
+    }
+
+    @Test
+    public void testGetLocalFile()
+    {
+        Assert.assertEquals(new File(resultsDir, "ac001_00/TOrder/0/timers.csv"), LiveResultStreamer.getLocalFile(resultsDir, TIMER_FILE));
+        Assert.assertEquals(new File(resultsDir, "ac001_00/TOrder/0/timers.csv.2024-01-31"),
+                            LiveResultStreamer.getLocalFile(resultsDir, "ac001_00/results/TOrder/0/timers.csv.2024-01-31"));
+
+        Assert.assertNull(LiveResultStreamer.getLocalFile(resultsDir, "ac001_00/config/TOrder/0/timers.csv"));
+        Assert.assertNull(LiveResultStreamer.getLocalFile(resultsDir, "ac001_00/results/../../timers.csv"));
+        Assert.assertNull(LiveResultStreamer.getLocalFile(resultsDir, "ac001_00/results/TOrder/0/agent.log"));
+        Assert.assertNull(LiveResultStreamer.getLocalFile(resultsDir, "timers.csv"));
+    }
+
+    @Test
+    public void testTrimIncompleteLine() throws IOException
+    {
+        final File file = tempFolder.newFile();
+
+        FileUtils.writeStringToFile(file, "line 1\nline 2\nline", StandardCharsets.UTF_8);
+        Assert.assertEquals(14, LiveResultStreamer.trimIncompleteLine(file, 0));
+        Assert.assertEquals("line 1\nline 2\n", read(file));
+
+        // never cut below the given minimum
+        FileUtils.writeStringToFile(file, "line 3", StandardCharsets.UTF_8, true);
+        Assert.assertEquals(14, LiveResultStreamer.trimIncompleteLine(file, 14));
+        Assert.assertEquals("line 1\nline 2\n", read(file));
+
+        // line break far before the end
+        FileUtils.writeStringToFile(file, "x".repeat(20000), StandardCharsets.UTF_8, true);
+        Assert.assertEquals(14, LiveResultStreamer.trimIncompleteLine(file, 7));
+    }
+
+    private void writeRemote(final String data, final boolean append) throws IOException
+    {
+        FileUtils.writeStringToFile(new File(agentsDir, TIMER_FILE), data, StandardCharsets.UTF_8, append);
+    }
+
+    private static String read(final File file) throws IOException
+    {
+        return FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+    }
+}
@@ -75,6 +75,15 @@ public class TestAgentController implements AgentController
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<File, List<String>> getAgentFileChunks(final List<File> files) throws IOException
+    {
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -111,6 +120,15 @@ public class TestAgentController implements AgentController
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FileManager getResultsFileManager()
+    {
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -288,6 +306,12 @@ public class TestAgentController implements AgentController
         return null;
     }
 
+    @Override
+    public Map<String, Long> getAgentTimerFiles()
+    {
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
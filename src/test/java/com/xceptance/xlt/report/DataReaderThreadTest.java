@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.VFS;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.xceptance.common.io.BinaryRecordWriter;
+import com.xceptance.xlt.common.XltConstants;
+
+/**
+ * Tests which timer files {@link DataReaderThread} chooses to read.
+ */
+public class DataReaderThreadTest
+{
+    private static final String CSV = "A,Action1,1000,10,false\nR,Request1,1001,5,false\n";
+
+    private static final List<List<String>> RECORDS = Arrays.asList(Arrays.asList("A", "Action1", "1000", "10", "false"),
+                                                                    Arrays.asList("R", "Request1", "1001", "5", "false"));
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testCsvOnly() throws Exception
+    {
+        final DataReaderThread.TimerFiles timerFiles = listTimerFiles(CSV, null);
+
+        Assert.assertFalse(timerFiles.useBinaryTimerFiles(false));
+        Assert.assertEquals(1, timerFiles.getFilesToRead(false).size());
+    }
+
+    @Test
+    public void testBinaryOnly() throws Exception
+    {
+        Assert.assertTrue(listTimerFiles(null, writeBinary(RECORDS)).useBinaryTimerFiles(false));
+    }
+
+    @Test
+    public void testBinaryComplete() throws Exception
+    {
+        final DataReaderThread.TimerFiles timerFiles = listTimerFiles(CSV, writeBinary(RECORDS));
+
+        Assert.assertTrue(timerFiles.useBinaryTimerFiles(false));
+        Assert.assertEquals(XltConstants.TIMER_BINARY_FILENAME, timerFiles.getFilesToRead(false).get(0).getName().getBaseName());
+    }
+
+    @Test
+    public void testBinaryComplete_Incremental() throws Exception
+    {
+        // only CSV files can be read incrementally
+        final DataReaderThread.TimerFiles timerFiles = listTimerFiles(CSV, writeBinary(RECORDS));
+
+        Assert.assertFalse(timerFiles.useBinaryTimerFiles(true));
+        Assert.assertEquals(XltConstants.TIMER_FILENAME, timerFiles.getFilesToRead(true).get(0).getName().getBaseName());
+    }
+
+    @Test
+    public void testBinaryTruncated() throws Exception
+    {
+        final byte[] binary = writeBinary(RECORDS);
+
+        Assert.assertFalse(listTimerFiles(CSV, Arrays.copyOf(binary, binary.length - 2)).useBinaryTimerFiles(false));
+    }
+
+    @Test
+    public void testBinaryNotClosed() throws Exception
+    {
+        // the agent did not get the chance to close the binary timer file
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final BinaryRecordWriter writer = new BinaryRecordWriter(out);
+        for (final List<String> record : RECORDS)
+        {
+            writer.write(record);
+        }
+        writer.flush();
+
+        final DataReaderThread.TimerFiles timerFiles = listTimerFiles(CSV, out.toByteArray());
+
+        Assert.assertFalse(timerFiles.useBinaryTimerFiles(false));
+        Assert.assertEquals(XltConstants.TIMER_FILENAME, timerFiles.getFilesToRead(false).get(0).getName().getBaseName());
+    }
+
+    private DataReaderThread.TimerFiles listTimerFiles(final String csv, final byte[] binary) throws IOException
+    {
+        final File dir = tempFolder.newFolder();
+        if (csv != null)
+        {
+            Files.write(new File(dir, XltConstants.TIMER_FILENAME).toPath(), csv.getBytes(StandardCharsets.UTF_8));
+        }
+        if (binary != null)
+        {
+            Files.write(new File(dir, XltConstants.TIMER_BINARY_FILENAME).toPath(), binary);
+        }
+
+        final FileObject directory = VFS.getManager().toFileObject(dir);
+
+        return DataReaderThread.listTimerFiles(directory);
+    }
+
+    private static byte[] writeBinary(final List<List<String>> records) throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final BinaryRecordWriter writer = new BinaryRecordWriter(out))
+        {
+            for (final List<String> record : records)
+            {
+                writer.write(record);
+            }
+        }
+
+        return out.toByteArray();
+    }
+}
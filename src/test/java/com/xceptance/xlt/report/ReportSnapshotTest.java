@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.thoughtworks.xstream.XStream;
+import com.xceptance.xlt.api.engine.RequestData;
+import com.xceptance.xlt.api.report.PostProcessedDataContainer;
+import com.xceptance.xlt.report.providers.DummyReportGeneratorConfiguration;
+import com.xceptance.xlt.report.providers.RequestsReportProvider;
+import com.xceptance.xlt.report.providers.ResponseCodesReportProvider;
+
+/**
+ * Tests {@link ReportSnapshot}.
+ */
+public class ReportSnapshotTest
+{
+    private static final long BUCKET_SIZE = 10_000;
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static ReportSnapshot.Segment createSegment(final long minimumTime, final long maximumTime)
+    {
+        final ReportSnapshot.Segment segment = new ReportSnapshot.Segment(new ShardableReportProvider[0]);
+        segment.minimumTime = minimumTime;
+        segment.maximumTime = maximumTime;
+
+        return segment;
+    }
+
+    @Test
+    public void segmentsFollowBuckets()
+    {
+        final ReportSnapshot snapshot = new ReportSnapshot("fp", BUCKET_SIZE);
+
+        Assert.assertEquals(10_000, snapshot.getSegmentStart(10_000));
+        Assert.assertEquals(10_000, snapshot.getSegmentStart(19_999));
+        Assert.assertEquals(20_000, snapshot.getSegmentEnd(10_000));
+        Assert.assertEquals(-10_000, snapshot.getSegmentStart(-1));
+    }
+
+    @Test
+    public void segmentsAreCutAtTimeRangeBoundaries()
+    {
+        final ReportSnapshot snapshot = new ReportSnapshot("fp", BUCKET_SIZE);
+
+        Assert.assertTrue(snapshot.addTimeRange(15_000, 17_999));
+
+        Assert.assertEquals(10_000, snapshot.getSegmentStart(14_999));
+        Assert.assertEquals(15_000, snapshot.getSegmentEnd(10_000));
+        Assert.assertEquals(15_000, snapshot.getSegmentStart(15_000));
+        Assert.assertEquals(18_000, snapshot.getSegmentEnd(15_000));
+        Assert.assertEquals(18_000, snapshot.getSegmentStart(19_999));
+        Assert.assertEquals(20_000, snapshot.getSegmentEnd(18_000));
+        Assert.assertEquals(20_000, snapshot.getSegmentStart(20_000));
+    }
+
+    @Test
+    public void existingSegmentsAreNotCut()
+    {
+        final ReportSnapshot snapshot = new ReportSnapshot("fp", BUCKET_SIZE);
+        snapshot.merge(Map.of(10_000L, createSegment(10_000, 19_999)), null);
+
+        // aligned and unbounded ranges never cut
+        Assert.assertTrue(snapshot.addTimeRange(0, Long.MAX_VALUE));
+        Assert.assertTrue(snapshot.addTimeRange(20_000, 29_999));
+
+        // would split the existing segment
+        Assert.assertFalse(snapshot.addTimeRange(15_000, Long.MAX_VALUE));
+        Assert.assertEquals(20_000, snapshot.getSegmentEnd(10_000));
+
+        // fine after a reset
+        snapshot.clear();
+        Assert.assertTrue(snapshot.addTimeRange(15_000, Long.MAX_VALUE));
+        Assert.assertEquals(15_000, snapshot.getSegmentEnd(10_000));
+    }
+
+    @Test
+    public void segmentsAreSelectedByTimeRange()
+    {
+        final ReportSnapshot snapshot = new ReportSnapshot("fp", BUCKET_SIZE);
+        Assert.assertTrue(snapshot.addTimeRange(15_000, 24_999));
+
+        final ReportSnapshot.Segment s1 = createSegment(10_000, 14_000);
+        final ReportSnapshot.Segment s2 = createSegment(15_000, 19_000);
+        final ReportSnapshot.Segment s3 = createSegment(20_000, 24_000);
+        final ReportSnapshot.Segment s4 = createSegment(25_000, 29_000);
+        final Map<Long, ReportSnapshot.Segment> segments = new HashMap<>();
+        segments.put(10_000L, s1);
+        segments.put(15_000L, s2);
+        segments.put(20_000L, s3);
+        segments.put(25_000L, s4);
+        snapshot.merge(segments, null);
+
+        Assert.assertEquals(Arrays.asList(s2, s3), snapshot.getSegments(15_000, 24_999));
+        Assert.assertEquals(Arrays.asList(s1, s2, s3, s4), snapshot.getSegments(0, Long.MAX_VALUE));
+        Assert.assertEquals(Collections.emptyList(), snapshot.getSegments(16_000, 23_000));
+    }
+
+    @Test
+    public void existingSegmentsAreMergedIntoFreshOnes()
+    {
+        final ReportSnapshot snapshot = new ReportSnapshot("fp", BUCKET_SIZE);
+        snapshot.merge(Map.of(10_000L, createSegment(12_000, 13_000)), null);
+        snapshot.merge(Map.of(10_000L, createSegment(11_000, 12_500)), () -> createSegment(Long.MAX_VALUE, 0));
+
+        final List<ReportSnapshot.Segment> segments = snapshot.getSegments(0, Long.MAX_VALUE);
+        Assert.assertEquals(1, segments.size());
+        Assert.assertEquals(11_000, segments.get(0).minimumTime);
+        Assert.assertEquals(13_000, segments.get(0).maximumTime);
+    }
+
+    @Test
+    public void readOffsets() throws IOException
+    {
+        final Path unchanged = createFile("unchanged.csv", "a\nb\n");
+        final Path appended = createFile("appended.csv", "a\nb\n");
+        final Path rewritten = createFile("rewritten.csv", "a\nb\n");
+        final Path compressed = createFile("compressed.csv.gz", "a\nb\n");
+        final Path unterminated = createFile("unterminated.csv", "a\nb");
+
+        final Map<String, Path> files = new HashMap<>();
+        files.put("unchanged", unchanged);
+        files.put("appended", appended);
+        files.put("rewritten", rewritten);
+        files.put("compressed", compressed);
+        files.put("unterminated", unterminated);
+
+        final ReportSnapshot snapshot = new ReportSnapshot("fp", BUCKET_SIZE);
+
+        // everything is new
+        Map<String, Long> offsets = snapshot.getReadOffsets(files, getStates(files), Set.of());
+        Assert.assertEquals(5, offsets.size());
+        Assert.assertTrue(offsets.values().stream().allMatch(offset -> offset == 0));
+        snapshot.setFiles(getStates(files));
+
+        // nothing changed
+        Assert.assertEquals(Collections.emptyMap(), snapshot.getReadOffsets(files, getStates(files), Set.of()));
+
+        // a new file and appended data
+        files.put("new", createFile("new.csv", "x\n"));
+        Files.writeString(appended, "c\n", StandardOpenOption.APPEND);
+
+        offsets = snapshot.getReadOffsets(files, getStates(files), Set.of());
+        Assert.assertEquals(Map.of("new", 0L, "appended", 4L), offsets);
+
+        // appending requires a rebuild if so requested
+        Assert.assertNull(snapshot.getReadOffsets(files, getStates(files), Set.of("appended")));
+
+        // a new file requires a rebuild if so requested
+        Assert.assertNull(snapshot.getReadOffsets(files, getStates(files), Set.of("new")));
+
+        // removed files
+        snapshot.setFiles(getStates(files));
+        files.remove("new");
+        Assert.assertNull(snapshot.getReadOffsets(files, getStates(files), Set.of()));
+        files.put("new", createFile("new.csv", "x\n"));
+
+        // data changed before the previous end
+        Files.writeString(rewritten, "A\nb\nc\n");
+        Assert.assertNull(snapshot.getReadOffsets(files, getStates(files), Set.of()));
+        snapshot.setFiles(getStates(files));
+
+        // compressed files cannot be appended to
+        Files.writeString(compressed, "c\n", StandardOpenOption.APPEND);
+        Assert.assertNull(snapshot.getReadOffsets(files, getStates(files), Set.of()));
+        createFile("compressed.csv.gz", "a\nb\n");
+        snapshot.setFiles(getStates(files));
+
+        // a line still being written is read once it is complete
+        Files.writeString(unterminated, "\nc\n", StandardOpenOption.APPEND);
+        Assert.assertEquals(Map.of("unterminated", 2L), snapshot.getReadOffsets(files, getStates(files), Set.of()));
+    }
+
+    @Test
+    public void fileStatesStopAtTheLastCompleteLine() throws IOException
+    {
+        Assert.assertEquals(4, ReportSnapshot.FileState.of(createFile("complete.csv", "a\nb\n")).getReadEnd());
+        Assert.assertEquals(2, ReportSnapshot.FileState.of(createFile("unterminated.csv", "a\nb")).getReadEnd());
+        Assert.assertEquals(0, ReportSnapshot.FileState.of(createFile("partial.csv", "a")).getReadEnd());
+
+        // a long line spanning several blocks
+        final String longLine = "x".repeat(10_000);
+        Assert.assertEquals(2, ReportSnapshot.FileState.of(createFile("long.csv", "a\n" + longLine)).getReadEnd());
+
+        // compressed files are always read completely
+        Assert.assertEquals(-1, ReportSnapshot.FileState.of(createFile("compressed.csv.gz", "a\nb")).getReadEnd());
+
+        // nothing read yet, so the whole file is new
+        final ReportSnapshot snapshot = new ReportSnapshot("fp", BUCKET_SIZE);
+        final Path partial = createFile("partial.csv", "a");
+        final Map<String, Path> files = Map.of("partial", partial);
+        snapshot.setFiles(getStates(files));
+
+        Files.writeString(partial, "\nb\n", StandardOpenOption.APPEND);
+        Assert.assertEquals(Map.of("partial", 0L), snapshot.getReadOffsets(files, getStates(files), Set.of()));
+    }
+
+    @Test
+    public void saveAndLoad() throws Exception
+    {
+        final File file = tempFolder.newFile(ReportSnapshot.FILE_NAME);
+
+        final ReportSnapshot snapshot = new ReportSnapshot("fp", BUCKET_SIZE);
+        snapshot.addTimeRange(15_000, Long.MAX_VALUE);
+        snapshot.merge(Map.of(10_000L, createSegment(10_000, 14_999), 15_000L, createSegment(15_000, 19_999)), null);
+        snapshot.save(file);
+
+        final ReportSnapshot loaded = ReportSnapshot.load(file, "fp");
+        Assert.assertNotNull(loaded);
+        Assert.assertEquals(2, loaded.getSegmentCount());
+        Assert.assertEquals(15_000, loaded.getSegmentEnd(10_000));
+        Assert.assertEquals(14_999, loaded.getSegments(0, 14_999).get(0).maximumTime);
+
+        // different settings
+        Assert.assertNull(ReportSnapshot.load(file, "other"));
+
+        // no snapshot
+        Assert.assertNull(ReportSnapshot.load(new File(tempFolder.getRoot(), "missing"), "fp"));
+    }
+
+    /**
+     * Ensures that a snapshot file referring to classes not needed for the statistics is rejected.
+     */
+    @Test(expected = InvalidClassException.class)
+    public void loadRejectsUnexpectedClasses() throws Exception
+    {
+        final File file = tempFolder.newFile(ReportSnapshot.FILE_NAME);
+
+        try (final ObjectOutputStream oos = new ObjectOutputStream(new GZIPOutputStream(new FileOutputStream(file))))
+        {
+            oos.writeUTF("XLT-REPORT-SNAPSHOT-2");
+            oos.writeUTF("fp");
+            oos.writeObject(new ConcurrentHashMap<>());
+        }
+
+        ReportSnapshot.load(file, "fp");
+    }
+
+    /**
+     * Ensures that statistics restored from a snapshot give the same report as statistics gathered directly.
+     */
+    @Test
+    public void restoredStatisticsAreComplete() throws Exception
+    {
+        final DummyReportGeneratorConfiguration config = DummyReportGeneratorConfiguration.getDefault();
+        config.setReportDirectory(tempFolder.getRoot());
+        config.disableChartsGeneration();
+
+        final RequestsReportProvider requests = new RequestsReportProvider();
+        final ResponseCodesReportProvider responseCodes = new ResponseCodesReportProvider();
+        final List<ShardableReportProvider> providers = List.of(requests, responseCodes);
+        providers.forEach(p -> p.setConfiguration(config));
+
+        final StatisticsProcessor processor = new StatisticsProcessor(List.of(requests, responseCodes), true,
+                                                                      new ReportSnapshot("fp", BUCKET_SIZE));
+
+        // feed data to the segments and, for comparison, directly to a separate set of providers
+        final RequestsReportProvider expectedRequests = new RequestsReportProvider();
+        final ResponseCodesReportProvider expectedResponseCodes = new ResponseCodesReportProvider();
+        expectedRequests.setConfiguration(config);
+        expectedResponseCodes.setConfiguration(config);
+
+        final PostProcessedDataContainer data = new PostProcessedDataContainer(100, 1);
+        for (int i = 0; i < 100; i++)
+        {
+            final RequestData r = new RequestData("Homepage." + (i % 3));
+            r.setTime(1_700_000_000_000L + i * 1_000L);
+            r.setRunTime(100 + i);
+            r.setResponseCode(i % 10 == 0 ? 500 : 200);
+            r.setUrl("https://www.example.com/" + (i % 3));
+
+            data.add(r);
+            expectedRequests.processDataRecord(r);
+            expectedResponseCodes.processDataRecord(r);
+        }
+        processor.process(data);
+
+        final Map<Long, ReportSnapshot.Segment> segments = processor.collectSegments();
+        Assert.assertEquals(10, segments.size());
+
+        // the segments are handed out, so more data would get lost
+        Assert.assertThrows(IllegalStateException.class, () -> processor.process(data));
+
+        // persist and restore the segments
+        final File file = tempFolder.newFile(ReportSnapshot.FILE_NAME);
+        final ReportSnapshot snapshot = new ReportSnapshot("fp", BUCKET_SIZE);
+        snapshot.merge(segments, processor::createSegment);
+        snapshot.save(file);
+
+        final ReportSnapshot loaded = ReportSnapshot.load(file, "fp");
+        processor.mergeSegments(loaded.getSegments(0, Long.MAX_VALUE));
+
+        Assert.assertEquals(1_700_000_000_000L, processor.getMinimumTime());
+        Assert.assertEquals(1_700_000_099_000L, processor.getMaximumTime());
+        Assert.assertEquals(toXml(expectedRequests), toXml(requests));
+        Assert.assertEquals(toXml(expectedResponseCodes), toXml(responseCodes));
+    }
+
+    private Path createFile(final String name, final String content) throws IOException
+    {
+        final Path file = tempFolder.getRoot().toPath().resolve(name);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+
+        return file;
+    }
+
+    private static Map<String, ReportSnapshot.FileState> getStates(final Map<String, Path> files) throws IOException
+    {
+        final Map<String, ReportSnapshot.FileState> states = new HashMap<>();
+        for (final Map.Entry<String, Path> entry : files.entrySet())
+        {
+            states.put(entry.getKey(), ReportSnapshot.FileState.of(entry.getValue()));
+        }
+
+        return states;
+    }
+
+    private static String toXml(final ShardableReportProvider provider)
+    {
+        final XStream xstream = new XStream();
+        xstream.autodetectAnnotations(true);
+        xstream.setMode(XStream.NO_REFERENCES);
+
+        return xstream.toXML(provider.createReportFragment());
+    }
+}
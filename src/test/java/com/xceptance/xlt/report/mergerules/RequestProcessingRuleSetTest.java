@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report.mergerules;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.xceptance.xlt.api.engine.RequestData;
+
+/**
+ * Tests the {@link RequestProcessingRuleSet}, especially that cached outcomes match the outcomes of applying the rules
+ * one by one.
+ */
+public class RequestProcessingRuleSetTest
+{
+    @Test
+    public void testCachedOutcomeMatchesUncached() throws Exception
+    {
+        final RequestProcessingRuleSet cached = new RequestProcessingRuleSet(createRules(), 100);
+        final RequestProcessingRuleSet uncached = new RequestProcessingRuleSet(createRules(), 0);
+
+        final String[][] requests =
+            {
+                {
+                    "Homepage", "https://example.com/", "text/html"
+                },
+                {
+                    "Homepage", "https://example.com/app.js", "text/javascript"
+                },
+                {
+                    "Search", "https://example.com/app.js", "text/javascript"
+                },
+                {
+                    "Homepage", "https://example.com/logo.png", "image/png"
+                },
+                {
+                    "Homepage", "https://example.com/favicon.ico", "image/x-icon"
+                }
+            };
+
+        // process everything twice to get cache hits the second time
+        for (int i = 0; i < 2; i++)
+        {
+            for (final String[] request : requests)
+            {
+                final RequestData expected = process(uncached, request[0], request[1], request[2]);
+                final RequestData actual = process(cached, request[0], request[1], request[2]);
+
+                if (expected == null)
+                {
+                    Assert.assertNull(actual);
+                }
+                else
+                {
+                    Assert.assertEquals(expected.getName(), actual.getName());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRenameAndDrop() throws Exception
+    {
+        final RequestProcessingRuleSet ruleSet = new RequestProcessingRuleSet(createRules(), 100);
+
+        Assert.assertEquals("Homepage", process(ruleSet, "Homepage", "https://example.com/", "text/html").getName());
+        Assert.assertEquals("Homepage JS", process(ruleSet, "Homepage", "https://example.com/app.js", "text/javascript").getName());
+        Assert.assertEquals("Homepage Images", process(ruleSet, "Homepage", "https://example.com/logo.png", "image/png").getName());
+        Assert.assertNull(process(ruleSet, "Homepage", "https://example.com/favicon.ico", "image/x-icon"));
+
+        // the same again, now from the cache
+        Assert.assertEquals("Homepage", process(ruleSet, "Homepage", "https://example.com/", "text/html").getName());
+        Assert.assertEquals("Homepage JS", process(ruleSet, "Homepage", "https://example.com/app.js", "text/javascript").getName());
+        Assert.assertEquals("Homepage Images", process(ruleSet, "Homepage", "https://example.com/logo.png", "image/png").getName());
+        Assert.assertNull(process(ruleSet, "Homepage", "https://example.com/favicon.ico", "image/x-icon"));
+    }
+
+    @Test
+    public void testUnchangedNameIsNotShared() throws Exception
+    {
+        // the rule does not look at the name, so the name is not part of the key
+        final RequestProcessingRule rule = new RequestProcessingRule("{u}", "", "", "", "", "", "", "", "", true, "", "", "text/html", "", "",
+                                                                     "", "", false);
+        final RequestProcessingRuleSet ruleSet = new RequestProcessingRuleSet(Arrays.asList(rule), 100);
+
+        Assert.assertEquals("Foo", process(ruleSet, "Foo", "https://example.com/", "text/html").getName());
+        Assert.assertEquals("Bar", process(ruleSet, "Bar", "https://example.com/", "text/html").getName());
+    }
+
+    @Test
+    public void testResponseTimeRanges() throws Exception
+    {
+        final RequestProcessingRule rule = new RequestProcessingRule("{n} [{r}]", "", "", "", "", "", "", "", "1000, 2000", true, "", "",
+                                                                     "", "", "", "", "", false);
+        final RequestProcessingRuleSet ruleSet = new RequestProcessingRuleSet(Arrays.asList(rule), 100);
+
+        final long[] runTimes =
+            {
+                500, 1500, 700, 2500
+            };
+        final String[] expectedNames =
+            {
+                "Foo [0..999]", "Foo [1000..1999]", "Foo [0..999]", "Foo [>=2000]"
+            };
+
+        for (int i = 0; i < runTimes.length; i++)
+        {
+            final RequestData data = createRequestData("Foo", "https://example.com/", "text/html");
+            data.setRunTime(runTimes[i]);
+
+            Assert.assertEquals(expectedNames[i], ruleSet.process(data).getName());
+        }
+    }
+
+    @Test
+    public void testHitCounts() throws Exception
+    {
+        final RequestProcessingRuleSet ruleSet = new RequestProcessingRuleSet(createRules(), 100);
+
+        for (int i = 0; i < 3; i++)
+        {
+            process(ruleSet, "Homepage", "https://example.com/app.js", "text/javascript");
+            process(ruleSet, "Homepage", "https://example.com/favicon.ico", "image/x-icon");
+        }
+        process(ruleSet, "Homepage", "https://example.com/logo.png", "image/png");
+
+        final long[] hitCounts = new long[3];
+        ruleSet.drainHitCounts(hitCounts);
+
+        Assert.assertArrayEquals(new long[]
+            {
+                3, 1, 3
+            }, hitCounts);
+
+        // the counts have been reset
+        ruleSet.drainHitCounts(hitCounts);
+        Assert.assertArrayEquals(new long[]
+            {
+                3, 1, 3
+            }, hitCounts);
+    }
+
+    private static List<RequestProcessingRule> createRules() throws InvalidRequestProcessingRuleException
+    {
+        final RequestProcessingRule jsRule = new RequestProcessingRule("{n} JS", "", "\\.js$", "", "", "", "", "", "", false, "", "", "", "",
+                                                                       "", "", "", false);
+        final RequestProcessingRule imageRule = new RequestProcessingRule("{n} Images", "", "\\.(gif|png|jpg)$", "", "", "", "", "", "",
+                                                                          true, "", "", "", "", "", "", "", false);
+        final RequestProcessingRule dropRule = new RequestProcessingRule("", "", "", "^image/x-icon$", "", "", "", "", "", true, "", "",
+                                                                         "", "", "", "", "", true);
+
+        return Arrays.asList(jsRule, imageRule, dropRule);
+    }
+
+    private static RequestData process(final RequestProcessingRuleSet ruleSet, final String name, final String url,
+                                       final String contentType)
+    {
+        return ruleSet.process(createRequestData(name, url, contentType));
+    }
+
+    private static RequestData createRequestData(final String name, final String url, final String contentType)
+    {
+        final RequestData data = new RequestData(name);
+        data.setUrl(url);
+        data.setContentType(contentType);
+        data.setResponseCode(200);
+
+        return data;
+    }
+}
@@ -50,4 +50,23 @@ public class ArithmeticMeanTest
         Assert.assertTrue(am.getMean() == (6.0 / 4));
     }
 
+    @Test
+    public final void testMerge()
+    {
+        final ArithmeticMean am = new ArithmeticMean();
+        am.addValue(1);
+        am.addValue(2);
+
+        final ArithmeticMean other = new ArithmeticMean();
+        other.addValue(3);
+        other.addValue(0);
+
+        am.merge(other);
+        Assert.assertEquals(4L, am.getCount());
+        Assert.assertTrue(am.getMean() == (6.0 / 4));
+
+        am.merge(new ArithmeticMean());
+        Assert.assertEquals(4L, am.getCount());
+        Assert.assertTrue(am.getMean() == (6.0 / 4));
+    }
 }
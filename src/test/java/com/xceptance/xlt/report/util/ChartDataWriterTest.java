@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.report.util;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.jfree.data.time.TimeSeries;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the implementation of {@link ChartDataWriter}.
+ */
+public class ChartDataWriterTest
+{
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    public void testWrite()
+    {
+        final IntMinMaxValueSet valueSet = new IntMinMaxValueSet(10);
+        valueSet.addOrUpdateValue(START, 100);
+        valueSet.addOrUpdateValue(START, 200);
+        valueSet.addOrUpdateValue(START + 2000, 50);
+        final TimeSeries minMaxSeries = JFreeChartUtils.toMinMaxTimeSeries(valueSet, "Runtime");
+
+        final TimeSeries standardSeries = new TimeSeries("Errors/s");
+        standardSeries.add(JFreeChartUtils.getSecond(START + 1000), 1.0 / 3);
+
+        final StringWriter writer = new StringWriter();
+        ChartDataWriter.write(writer, "Test", START, START + 10_000, Arrays.asList(minMaxSeries, standardSeries));
+
+        Assert.assertEquals("{\"name\":\"Test\",\"start\":1700000000000,\"end\":1700000010000,\"series\":[" +
+                            "{\"name\":\"Runtime\",\"time\":[0,2],\"value\":[150,50],\"min\":[100,50],\"max\":[200,50]}," +
+                            "{\"name\":\"Errors/s\",\"time\":[1],\"value\":[0.33]}]}",
+                            writer.toString());
+    }
+}
@@ -133,4 +133,33 @@ public class ConcurrentUsersTableTest
         Assert.assertEquals("Wrong toString output",
                             "TAuthor-0|00001|11001|1\n" + "TAuthor-1|11100|00011|1\n" + "TVisitor-0|00011|11111\n", table.toString());
     }
+
+    /**
+     * Tests {@link ConcurrentUsersTable#merge(ConcurrentUsersTable)}.
+     */
+    @Test
+    public void test_merge()
+    {
+        final ConcurrentUsersTable table = ConcurrentUsersTable.getInstance();
+        final String expected = table.toString();
+        table.clear();
+
+        // the same activities as above, but recorded in two independent tables, the second one starting earlier
+        final ConcurrentUsersTable first = new ConcurrentUsersTable();
+        first.recordUserActivity(7999, 9999, "TAuthor", "0");
+        first.recordUserActivity(12000, 13999, "TAuthor", "0");
+        first.recordUserActivity(9500, 12500, "TVisitor", "0");
+
+        final ConcurrentUsersTable second = new ConcurrentUsersTable();
+        second.recordUserActivity(3000, 5500, "TAuthor", "1");
+        second.recordUserActivity(11000, 13500, "TAuthor", "1");
+        second.recordUserActivity(6000, 9100, "TVisitor", "0");
+
+        table.merge(first);
+        table.merge(second);
+        table.merge(new ConcurrentUsersTable());
+
+        Assert.assertEquals("Wrong toString output", expected, table.toString());
+        Assert.assertEquals("Wrong value count", 18, table.getConcurrentUsersValueSet().getValueCount());
+    }
 }
@@ -172,4 +172,27 @@ public class FixedSizeHistogramValueSetTest
             Assert.assertEquals(values[i] + 1, (int) item.getYHighValue());
         }
     }
+
+    @Test
+    public void testMerge()
+    {
+        final FixedSizeHistogramValueSet expected = new FixedSizeHistogramValueSet(10);
+        final FixedSizeHistogramValueSet shard1 = new FixedSizeHistogramValueSet(10);
+        final FixedSizeHistogramValueSet shard2 = new FixedSizeHistogramValueSet(10);
+
+        for (int i = 0; i < 1000; i++)
+        {
+            // the first shard stays narrow, the second one needs to scale
+            final int value = (i % 2 == 0) ? i % 7 : i;
+
+            expected.addValue(value);
+            (i % 2 == 0 ? shard1 : shard2).addValue(value);
+        }
+
+        final FixedSizeHistogramValueSet merged = new FixedSizeHistogramValueSet(10);
+        merged.merge(shard1);
+        merged.merge(shard2);
+
+        Assert.assertArrayEquals(expected.getCountPerBucket(), merged.getCountPerBucket());
+    }
 }
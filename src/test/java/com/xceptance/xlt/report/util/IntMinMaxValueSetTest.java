@@ -302,4 +302,55 @@ public class IntMinMaxValueSetTest
         }
         Assert.assertArrayEquals(expected, actual);
     }
+
+    @Test
+    public void testMerge()
+    {
+        final Random rng = new Random();
+        final long from = 1700000000000L;
+
+        for (final int shardCount : new int[]
+            {
+                1, 2, 5
+            })
+        {
+            final IntMinMaxValueSet expected = new IntMinMaxValueSet(100);
+            final IntMinMaxValueSet[] shards = new IntMinMaxValueSet[shardCount];
+            for (int i = 0; i < shardCount; i++)
+            {
+                shards[i] = new IntMinMaxValueSet(100);
+            }
+
+            // let the shards cover different time ranges, so they end up with different scales
+            for (int i = 0; i < 10000; i++)
+            {
+                final int shard = rng.nextInt(shardCount);
+                final long time = from + rng.nextInt(1000 * (shard + 1)) * 1000L + rng.nextInt(1000);
+                final int value = rng.nextInt(5000);
+
+                expected.addOrUpdateValue(time, value);
+                shards[shard].addOrUpdateValue(time, value);
+            }
+
+            final IntMinMaxValueSet merged = new IntMinMaxValueSet(100);
+            for (final IntMinMaxValueSet shard : shards)
+            {
+                merged.merge(shard);
+            }
+
+            Assert.assertEquals(expected.getScale(), merged.getScale());
+            Assert.assertEquals(expected.getFirstSecond(), merged.getFirstSecond());
+            Assert.assertEquals(expected.getMinimumTime(), merged.getMinimumTime());
+            Assert.assertEquals(expected.getMaximumTime(), merged.getMaximumTime());
+            Assert.assertEquals(expected.getValueCount(), merged.getValueCount());
+
+            final IntMinMaxValue[] expectedValues = expected.getValues();
+            final IntMinMaxValue[] mergedValues = merged.getValues();
+            Assert.assertEquals(expectedValues.length, mergedValues.length);
+            for (int i = 0; i < expectedValues.length; i++)
+            {
+                Assert.assertEquals(String.valueOf(expectedValues[i]), String.valueOf(mergedValues[i]));
+            }
+        }
+    }
 }
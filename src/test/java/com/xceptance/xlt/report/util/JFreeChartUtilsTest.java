@@ -15,13 +15,20 @@
  */
 package com.xceptance.xlt.report.util;
 
+import java.io.File;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
+import org.apache.commons.io.FileUtils;
+import org.jfree.chart.JFreeChart;
 import org.jfree.data.time.Second;
 import org.jfree.data.time.TimeSeries;
 import org.junit.Assert;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.xceptance.xlt.report.ReportGeneratorMain;
 
@@ -30,6 +37,44 @@ import com.xceptance.xlt.report.ReportGeneratorMain;
  */
 public class JFreeChartUtilsTest
 {
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks that a chart rendered by a thread that has rendered another chart before looks exactly like the same chart
+     * rendered by a fresh thread, i.e. nothing of the previous chart shines through.
+     */
+    @Test
+    public void testSaveChart_ReusedImageAndEncoder() throws Exception
+    {
+        final File dir = tempFolder.getRoot();
+
+        // render two charts one after the other in the same thread
+        JFreeChartUtils.saveChart(createChart("First", 100), "first", dir, 300, 200);
+        JFreeChartUtils.saveChart(createChart("Second", 50), "second", dir, 300, 200);
+
+        // render the second chart in a new thread
+        CompletableFuture.runAsync(() -> JFreeChartUtils.saveChart(createChart("Second", 50), "second-fresh", dir, 300, 200)).get();
+
+        final byte[] second = FileUtils.readFileToByteArray(new File(dir, "second.webp"));
+        final byte[] secondFresh = FileUtils.readFileToByteArray(new File(dir, "second-fresh.webp"));
+        final byte[] first = FileUtils.readFileToByteArray(new File(dir, "first.webp"));
+
+        Assert.assertArrayEquals(secondFresh, second);
+        Assert.assertFalse(Arrays.equals(first, second));
+    }
+
+    private static JFreeChart createChart(final String title, final int value)
+    {
+        final TimeSeries series = new TimeSeries(title);
+        for (int i = 0; i < 60; i++)
+        {
+            series.add(JFreeChartUtils.getSecond(1_700_000_000_000L + i * 1000L), value + i % 7);
+        }
+
+        return JFreeChartUtils.createLineChart(title, "Value", series, 1_700_000_000_000L, 1_700_000_060_000L, true, 5);
+    }
+
     /**
      * This tests {@link JFreeChartUtils#toMinMaxTimeSeries(IntMinMaxValueSet, String)} and causes an error due to a large
      * scale in the MinMaxValueSet and multiplication with 1000 in the method in JFreeChartUtils.
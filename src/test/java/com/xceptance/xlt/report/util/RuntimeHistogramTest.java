@@ -159,4 +159,35 @@ public class RuntimeHistogramTest
 
         return percentile;
     }
+
+    @Test
+    public void testMerge()
+    {
+        final Random rng = new Random();
+
+        final RuntimeHistogram expected = new RuntimeHistogram(10);
+        final RuntimeHistogram shard1 = new RuntimeHistogram(10);
+        final RuntimeHistogram shard2 = new RuntimeHistogram(10);
+
+        for (int i = 0; i < 10000; i++)
+        {
+            // the shards see different value ranges
+            final int value = (i % 2 == 0) ? rng.nextInt(1000) : 500 + rng.nextInt(100000);
+
+            expected.addValue(value);
+            (i % 2 == 0 ? shard1 : shard2).addValue(value);
+        }
+
+        final RuntimeHistogram merged = new RuntimeHistogram(10);
+        merged.merge(shard2);
+        merged.merge(new RuntimeHistogram(10));
+        merged.merge(shard1);
+
+        Assert.assertEquals(expected.getNumberOfBuckets(), merged.getNumberOfBuckets());
+        for (int pm = 1; pm <= 1000; pm++)
+        {
+            final double p = pm / 10.0;
+            Assert.assertEquals(expected.getPercentile(p), merged.getPercentile(p), 0.0);
+        }
+    }
 }
@@ -229,4 +229,33 @@ public class ValueSetTest
         Assert.assertArrayEquals(expected10, actual10);
     }
 
+    @Test
+    public void testMerge()
+    {
+        final ValueSet expected = new ValueSet();
+        final ValueSet shard1 = new ValueSet();
+        final ValueSet shard2 = new ValueSet();
+
+        final long[] times =
+            {
+                5000, 7500, 1000, 3000000, 3000999, 2000, 1500000
+            };
+        for (int i = 0; i < times.length; i++)
+        {
+            expected.addOrUpdateValue(times[i], i + 1);
+            (i % 2 == 0 ? shard1 : shard2).addOrUpdateValue(times[i], i + 1);
+        }
+
+        final ValueSet merged = new ValueSet();
+        merged.merge(shard1);
+        merged.merge(shard2);
+        merged.merge(new ValueSet());
+
+        Assert.assertEquals(expected.getFirstSecond(), merged.getFirstSecond());
+        Assert.assertEquals(expected.getLastSecond(), merged.getLastSecond());
+        Assert.assertEquals(expected.getMinimumTime(), merged.getMinimumTime());
+        Assert.assertEquals(expected.getMaximumTime(), merged.getMaximumTime());
+        Assert.assertEquals(expected.getValueCount(), merged.getValueCount());
+        Assert.assertArrayEquals(expected.getValues(), merged.getValues());
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.xceptance.xlt.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.ArrayUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.xceptance.common.util.zip.ZipUtils;
+import com.xceptance.xlt.util.ContentDefinedChunker.Chunk;
+
+/**
+ * Tests the implementation of {@link FileDeltaUtils} and {@link ContentDefinedChunker}.
+ */
+public class FileDeltaUtilsTest
+{
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static byte[] randomBytes(final int length)
+    {
+        final byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+
+        return bytes;
+    }
+
+    private static Set<String> hashes(final List<Chunk> chunks)
+    {
+        return chunks.stream().map(c -> c.hash).collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testChunking_InsertionChangesFewChunks() throws Exception
+    {
+        final byte[] oldContent = randomBytes(2_000_000);
+        final byte[] newContent = ArrayUtils.insert(1_000_000, oldContent, "a small change".getBytes());
+
+        final List<Chunk> oldChunks = ContentDefinedChunker.chunk(new ByteArrayInputStream(oldContent));
+        final List<Chunk> newChunks = ContentDefinedChunker.chunk(new ByteArrayInputStream(newContent));
+
+        // chunks cover the content without gaps and respect the size limits
+        long offset = 0;
+        for (final Chunk chunk : newChunks)
+        {
+            Assert.assertEquals(offset, chunk.offset);
+            Assert.assertTrue(chunk.length <= ContentDefinedChunker.MAX_CHUNK_SIZE);
+            offset += chunk.length;
+        }
+        Assert.assertEquals(newContent.length, offset);
+
+        // only the chunks around the modification differ
+        final Set<String> changedChunks = hashes(newChunks);
+        changedChunks.removeAll(hashes(oldChunks));
+        Assert.assertTrue("Too many changed chunks: " + changedChunks.size(), changedChunks.size() <= 2);
+    }
+
+    @Test
+    public void testAddAndApplyDelta() throws Exception
+    {
+        final byte[] oldContent = randomBytes(1_000_000);
+        final byte[] newContent = ArrayUtils.addAll(ArrayUtils.insert(300_000, oldContent, randomBytes(5_000)), randomBytes(1000));
+
+        // the sender's side
+        final File senderDir = tempFolder.newFolder("sender");
+        final File newFile = new File(senderDir, "lib/test.jar");
+        FileUtils.writeByteArrayToFile(newFile, newContent);
+        final long checkSum = FileReplicationUtils.calculateCheckSum(newFile);
+
+        // the receiver's side
+        final File receiverDir = tempFolder.newFolder("receiver");
+        final File oldFile = new File(receiverDir, "lib/test.jar");
+        FileUtils.writeByteArrayToFile(oldFile, oldContent);
+        final Set<String> remoteChunks = hashes(ContentDefinedChunker.chunk(oldFile));
+
+        final File zipFile = tempFolder.newFile("update.zip");
+        final long bytesAdded;
+        try (final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zipFile)))
+        {
+            bytesAdded = FileDeltaUtils.addDelta(out, newFile, "lib/test.jar", checkSum, ContentDefinedChunker.chunk(newFile),
+                                                 remoteChunks, new HashSet<>());
+        }
+        Assert.assertTrue("Too many bytes added: " + bytesAdded, bytesAdded < newContent.length / 2);
+
+        ZipUtils.unzipFile(zipFile, receiverDir);
+        FileDeltaUtils.applyDeltas(receiverDir);
+
+        Assert.assertArrayEquals(newContent, FileUtils.readFileToByteArray(oldFile));
+        Assert.assertFalse(new File(receiverDir, FileDeltaUtils.DELTA_DIR_NAME).exists());
+    }
+
+    @Test
+    public void testApplyDelta_MissingChunk() throws Exception
+    {
+        final byte[] content = randomBytes(500_000);
+
+        final File senderDir = tempFolder.newFolder("sender");
+        final File newFile = new File(senderDir, "test.jar");
+        FileUtils.writeByteArrayToFile(newFile, content);
+
+        // the receiver claims to have all chunks, but has a different file
+        final File receiverDir = tempFolder.newFolder("receiver");
+        final File oldFile = new File(receiverDir, "test.jar");
+        FileUtils.writeByteArrayToFile(oldFile, randomBytes(400_000));
+
+        final List<Chunk> chunks = ContentDefinedChunker.chunk(newFile);
+        final File zipFile = tempFolder.newFile("update.zip");
+        try (final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zipFile)))
+        {
+            FileDeltaUtils.addDelta(out, newFile, "test.jar", FileReplicationUtils.calculateCheckSum(newFile), chunks, hashes(chunks),
+                                    new HashSet<>());
+        }
+
+        ZipUtils.unzipFile(zipFile, receiverDir);
+        try
+        {
+            FileDeltaUtils.applyDeltas(receiverDir);
+            Assert.fail("IOException expected");
+        }
+        catch (final IOException e)
+        {
+            // expected
+        }
+
+        // the old file is left untouched
+        Assert.assertEquals(400_000, oldFile.length());
+        Assert.assertFalse(new File(receiverDir, FileDeltaUtils.DELTA_DIR_NAME).exists());
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2005-2024 Xceptance Software Technologies GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.htmlunit;
+
+import java.net.URL;
+import java.util.List;
+
+import org.htmlunit.html.DomElement;
+import org.htmlunit.html.DomNode;
+import org.htmlunit.html.HtmlPage;
+import org.htmlunit.html.xpath.XPathHelper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that XPath expressions answered from the page indexes yield the same results as when evaluated by Jaxen.
+ */
+public class XPathHelperIndexTest
+{
+    private static final String PAGE = "<html><head><title>1</title></head><body>" +
+                                       "<div id='main' class='box'><form name='f' id='form'><input name='q' class='field'>" +
+                                       "<input name='q' id='q2' class='field wide'></form></div>" +
+                                       "<div class='box'><span class='box'>x</span><p ID='upper'>y</p></div>" +
+                                       "<svg class='box' id='svg'><circle class='box' name='c'/></svg>" +
+                                       "<div id='dup'></div><div id='dup' class='box'></div>" + "</body></html>";
+
+    private static final String[] XPATHS =
+        {
+            "//*[@id='main']", "//*[@id=\"main\"]", "//*[@ID='upper']", "//div[@id='main']", "//span[@id='main']", "//*[@id='dup']",
+            "//div[@id='dup']", "//*[@id='svg']", "//svg[@id='svg']", "//*[@id='none']", "//*[@name='q']", "//input[@name='q']",
+            "//*[@name='c']", "//div[@class='box']", "//span[@class='box']", "//input[@class='field']", "//circle[@class='box']",
+            "//*[@class='box']", "//div[@class = 'box']"
+        };
+
+    private WebClient webClient;
+
+    private HtmlPage page;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        webClient = new WebClient(BrowserVersion.CHROME);
+        webClient.getOptions().setJavaScriptEnabled(false);
+
+        final MockWebConnection conn = new MockWebConnection();
+        conn.setResponse(new URL("http://myserver/1.html"), PAGE);
+        webClient.setWebConnection(conn);
+
+        page = webClient.getPage("http://myserver/1.html");
+    }
+
+    @After
+    public void tearDown()
+    {
+        XPathHelper.useIndexes = true;
+        webClient.close();
+    }
+
+    private void assertSameResults(final DomNode contextNode)
+    {
+        for (final String xpath : XPATHS)
+        {
+            XPathHelper.useIndexes = false;
+            final List<?> expected = contextNode.getByXPath(xpath);
+
+            XPathHelper.useIndexes = true;
+            final List<?> actual = contextNode.getByXPath(xpath);
+
+            Assert.assertEquals(xpath, expected, actual);
+        }
+    }
+
+    @Test
+    public void testSameResults() throws Exception
+    {
+        assertSameResults(page);
+        assertSameResults(page.getElementById("form"));
+    }
+
+    @Test
+    public void testSameResults_AfterModification() throws Exception
+    {
+        // warm up the indexes
+        assertSameResults(page);
+
+        // add, remove, and change elements
+        final DomElement div = page.createElement("div");
+        div.setAttribute("class", "box");
+        div.setAttribute("id", "main");
+        page.getBody().appendChild(div);
+
+        page.getElementById("q2").remove();
+        page.getElementById("svg").setAttribute("id", "main");
+        page.getElementsByName("c").get(0).remove();
+
+        assertSameResults(page);
+    }
+
+    @Test
+    public void testStatistics() throws Exception
+    {
+        XPathHelper.resetStatistics();
+
+        page.getByXPath("//*[@id='main']");
+        page.getByXPath("//*[@id='main']");
+        page.getByXPath("//div/span");
+
+        Assert.assertEquals(2, XPathHelper.getIndexHits());
+        Assert.assertTrue(XPathHelper.getCacheHits() >= 1);
+        Assert.assertEquals(3, XPathHelper.getCacheHits() + XPathHelper.getCacheMisses());
+    }
+}